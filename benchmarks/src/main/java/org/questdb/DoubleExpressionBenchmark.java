@@ -0,0 +1,141 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.questdb;
+
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.functions.columns.DoubleColumn;
+import io.questdb.griffin.engine.functions.constants.DoubleConstant;
+import io.questdb.griffin.engine.functions.math.*;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.ObjList;
+import io.questdb.std.Rnd;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a projection evaluated as a tree of arithmetic functions with the same projection
+ * fused by {@link DoubleExpressionFactory}. Both read their leaves through the Record interface,
+ * the difference is in the virtual calls between the operator nodes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DoubleExpressionBenchmark {
+    private static final int COLUMN_COUNT = 4;
+    private static final int ROW_COUNT = 1024;
+    private final RowRecord record = new RowRecord();
+    private final double[] values = new double[ROW_COUNT * COLUMN_COUNT];
+    private Function compiled;
+    private Function tree;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(DoubleExpressionBenchmark.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws SqlException {
+        final Rnd rnd = new Rnd();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rnd.nextDouble();
+        }
+        // (a * b + c / d - 1.5 * a) * -(b - c)
+        tree = binary(
+                new MulDoubleFunctionFactory(),
+                binary(
+                        new SubDoubleFunctionFactory(),
+                        binary(
+                                new AddDoubleFunctionFactory(),
+                                binary(new MulDoubleFunctionFactory(), DoubleColumn.newInstance(0), DoubleColumn.newInstance(1)),
+                                binary(new DivDoubleFunctionFactory(), DoubleColumn.newInstance(2), DoubleColumn.newInstance(3))
+                        ),
+                        binary(new MulDoubleFunctionFactory(), DoubleConstant.newInstance(1.5), DoubleColumn.newInstance(0))
+                ),
+                unary(
+                        new NegDoubleFunctionFactory(),
+                        binary(new SubDoubleFunctionFactory(), DoubleColumn.newInstance(1), DoubleColumn.newInstance(2))
+                )
+        );
+        compiled = DoubleExpressionFactory.compile(new BytecodeAssembler(), tree);
+        if (!(compiled instanceof CompiledDoubleFunction)) {
+            throw new IllegalStateException("expression is not compiled");
+        }
+    }
+
+    @Benchmark
+    public double testCompiled() {
+        return sum(compiled);
+    }
+
+    @Benchmark
+    public double testTree() {
+        return sum(tree);
+    }
+
+    private static Function binary(FunctionFactory factory, Function left, Function right) throws SqlException {
+        ObjList<Function> args = new ObjList<>();
+        args.add(left);
+        args.add(right);
+        return factory.newInstance(0, args, null, null, null);
+    }
+
+    private static Function unary(FunctionFactory factory, Function arg) throws SqlException {
+        ObjList<Function> args = new ObjList<>();
+        args.add(arg);
+        return factory.newInstance(0, args, null, null, null);
+    }
+
+    private double sum(Function function) {
+        double sum = 0;
+        for (int i = 0; i < ROW_COUNT; i++) {
+            record.row = i * COLUMN_COUNT;
+            sum += function.getDouble(record);
+        }
+        return sum;
+    }
+
+    private class RowRecord implements Record {
+        private int row;
+
+        @Override
+        public double getDouble(int col) {
+            return values[row + col];
+        }
+    }
+}
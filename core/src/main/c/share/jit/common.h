@@ -63,6 +63,14 @@ enum class opcodes : int32_t {
     Mul,
     Div,
     Rem,
+    InSet,
+    StrMatch,
+};
+
+enum class str_match_t : int32_t {
+    kEquals,
+    kPrefix,
+    kSuffix,
 };
 
 struct instruction_t {
@@ -77,6 +85,18 @@ struct instruction_t {
     };
 };
 
+// Data referenced by the compiled code, e.g. an IN set, which is embedded after the function body.
+struct embedded_data_t {
+    asmjit::Label label;
+    const void *data;
+    size_t size;
+};
+
+// Number of instructions occupied by the raw data that follows IN_SET and STR_MATCH instructions.
+inline size_t data_instructions_count(size_t data_size) {
+    return (data_size + sizeof(instruction_t) - 1) / sizeof(instruction_t);
+}
+
 struct jit_value_t {
 
     inline jit_value_t() noexcept
@@ -58,6 +58,7 @@ struct Function {
     explicit Function(x86::Compiler &cc)
             : c(cc), zone(4094 - Zone::kBlockOverhead), allocator(&zone) {
         values.init(&allocator);
+        embedded.init(&allocator);
     };
 
     void compile(const instruction_t *istream, size_t size, uint32_t options) {
@@ -92,7 +93,8 @@ struct Function {
         c.bind(l_loop);
 
         for (int i = 0; i < unroll_factor; ++i) {
-            questdb::x86::emit_code(c, istream, size, values, null_check, cols_ptr, vars_ptr, input_index);
+            questdb::x86::emit_code(c, istream, size, values, embedded, null_check, cols_ptr, vars_ptr,
+                                    input_index);
 
             auto mask = values.pop();
 
@@ -222,6 +224,13 @@ struct Function {
 
     void end_fn() {
         c.endFunc();
+        // data referenced by the function body, e.g. IN sets
+        while (!embedded.empty()) {
+            auto data = embedded.popFirst();
+            c.align(kAlignData, 8);
+            c.bind(data.label);
+            c.embed(data.data, data.size);
+        }
     }
 
     x86::Compiler &c;
@@ -229,6 +238,7 @@ struct Function {
     Zone zone;
     ZoneAllocator allocator;
     ZoneStack<jit_value_t> values;
+    ZoneStack<embedded_data_t> embedded;
 
     x86::Gp cols_ptr;
     x86::Gp cols_size;
@@ -31,6 +31,9 @@
 static const int64_t LONG_NULL = std::numeric_limits<int64_t>::min();
 static const int32_t INT_NULL = std::numeric_limits<int32_t>::min();
 
+// Fibonacci hashing multiplier of IN sets, must match CompiledFilterIRSerializer.IN_SET_HASH_MULTIPLIER
+static const int64_t IN_SET_HASH_MULTIPLIER = static_cast<int64_t>(0x9E3779B97F4A7C15ULL);
+
 static const double DOUBLE_EPSILON = 0.0000000001;
 static const float  FLOAT_EPSILON  = 0.0000000001;
 
@@ -792,6 +792,104 @@ namespace questdb::x86 {
     inline Gpd float_ne_epsilon(Compiler &c, const Xmm &xmm0, const Xmm &xmm1, float epsilon) {
         return float_cmp_epsilon(c, xmm0, xmm1, epsilon, false);
     }
+
+    // Looks the value up in an open addressing hash set with linear probing.
+    // The set is built by CompiledFilterIRSerializer, empty slots hold the empty_slot value.
+    inline Gpd int64_in_set(Compiler &c, const Gpq &value, const Label &l_set, uint32_t capacity, int64_t empty_slot) {
+        c.comment("int64_in_set");
+        Gp r = c.newInt32();
+        Gp slot = c.newInt64();
+        Gp set = c.newIntPtr();
+        Gp empty = c.newInt64();
+        Gp entry = c.newInt64();
+        Label l_loop = c.newLabel();
+        Label l_found = c.newLabel();
+        Label l_exit = c.newLabel();
+
+        c.xor_(r, r);
+        c.movabs(slot, IN_SET_HASH_MULTIPLIER);
+        c.imul(slot, value);
+        c.shr(slot, 64 - __builtin_ctz(capacity));
+        c.lea(set, ptr(l_set));
+        c.movabs(empty, empty_slot);
+        c.bind(l_loop);
+        c.mov(entry, qword_ptr(set, slot, 3));
+        c.cmp(entry, value);
+        c.je(l_found);
+        c.cmp(entry, empty);
+        c.je(l_exit);
+        c.inc(slot);
+        c.and_(slot, static_cast<int32_t>(capacity - 1));
+        c.jmp(l_loop);
+        c.bind(l_found);
+        c.mov(r, 1);
+        c.bind(l_exit);
+        return r.as<Gpd>();
+    }
+
+    inline int64_t pack_chars(const uint16_t *chars, int32_t count) {
+        int64_t packed = 0;
+        for (int32_t i = 0; i < count; ++i) {
+            packed |= static_cast<int64_t>(chars[i]) << (16 * i);
+        }
+        return packed;
+    }
+
+    // Matches a string against the pattern. Strings are stored in the data page as
+    // a 32-bit length, -1 for null, followed by UTF-16 chars. The index page holds
+    // 64-bit offsets of the row values in the data page.
+    inline Gpd string_match(Compiler &c,
+                            const Gp &data_address,
+                            const Gp &index_address,
+                            const Gp &input_index,
+                            str_match_t kind,
+                            const uint16_t *pattern,
+                            int32_t pattern_len) {
+        c.comment("string_match");
+        Gp r = c.newInt32();
+        Gp str = c.newInt64();
+        Gp len = c.newInt32();
+        Label l_exit = c.newLabel();
+
+        c.xor_(r, r);
+        c.mov(str, qword_ptr(index_address, input_index, 3));
+        c.add(str, data_address);
+        c.mov(len, dword_ptr(str));
+        c.cmp(len, pattern_len);
+        if (kind == str_match_t::kEquals) {
+            c.jne(l_exit);
+        } else {
+            c.jl(l_exit); // null length is negative
+        }
+        c.add(str, 4);
+        if (kind == str_match_t::kSuffix) {
+            Gp tail = c.newInt64();
+            c.movsxd(tail, len);
+            c.sub(tail, pattern_len);
+            c.lea(str, ptr(str, tail, 1));
+        }
+        int32_t i = 0;
+        if (pattern_len >= 4) {
+            Gp chars = c.newInt64();
+            for (; i + 4 <= pattern_len; i += 4) {
+                c.movabs(chars, pack_chars(pattern + i, 4));
+                c.cmp(qword_ptr(str, 2 * i), chars);
+                c.jne(l_exit);
+            }
+        }
+        if (i + 2 <= pattern_len) {
+            c.cmp(dword_ptr(str, 2 * i), static_cast<int32_t>(pack_chars(pattern + i, 2)));
+            c.jne(l_exit);
+            i += 2;
+        }
+        if (i < pattern_len) {
+            c.cmp(word_ptr(str, 2 * i), static_cast<int16_t>(pattern[i]));
+            c.jne(l_exit);
+        }
+        c.mov(r, 1);
+        c.bind(l_exit);
+        return r.as<Gpd>();
+    }
 }
 
 #endif //QUESTDB_JIT_IMPL_X86_H
@@ -232,6 +232,39 @@ namespace questdb::x86 {
         return {int32_not(c, lhs.gp().r32()), dt, dk};
     }
 
+    jit_value_t in_set(Compiler &c, const jit_value_t &lhs, const Label &l_set, uint32_t capacity, int64_t empty_slot) {
+        // set values are sign-extended to 64 bits
+        auto dk = lhs.dkind();
+        switch (lhs.dtype()) {
+            case data_type_t::i8:
+            case data_type_t::i16:
+            case data_type_t::i32:
+                return {int64_in_set(c, int32_to_int64(c, lhs.gp().r32(), false), l_set, capacity, empty_slot),
+                        data_type_t::i32, dk};
+            case data_type_t::i64:
+                return {int64_in_set(c, lhs.gp(), l_set, capacity, empty_slot), data_type_t::i32, dk};
+            default:
+                __builtin_unreachable();
+        }
+    }
+
+    jit_value_t str_match(Compiler &c,
+                          str_match_t kind,
+                          int32_t column_idx,
+                          int32_t index_idx,
+                          const uint16_t *pattern,
+                          int32_t pattern_len,
+                          const Gp &cols_ptr,
+                          const Gp &input_index) {
+        Gp data_address = c.newInt64("str_data_address");
+        c.mov(data_address, ptr(cols_ptr, 8 * column_idx, 8));
+        Gp index_address = c.newInt64("str_index_address");
+        c.mov(index_address, ptr(cols_ptr, 8 * index_idx, 8));
+        return {string_match(c, data_address, index_address, input_index, kind, pattern, pattern_len),
+                data_type_t::i32,
+                data_kind_t::kMemory};
+    }
+
     jit_value_t bin_and(Compiler &c, const jit_value_t &lhs, const jit_value_t &rhs) {
         auto dt = lhs.dtype();
         auto dk = dst_kind(lhs, rhs);
@@ -616,6 +649,7 @@ namespace questdb::x86 {
 
     void
     emit_code(Compiler &c, const instruction_t *istream, size_t size, ZoneStack<jit_value_t> &values,
+              ZoneStack<embedded_data_t> &embedded,
               bool null_check,
               const Gp &cols_ptr,
               const Gp &vars_ptr,
@@ -649,6 +683,28 @@ namespace questdb::x86 {
                 case opcodes::Not:
                     values.append(bin_not(c, get_argument(c, values)));
                     break;
+                case opcodes::InSet: {
+                    // the set slots follow the instruction
+                    auto capacity = static_cast<uint32_t>(instr.ipayload.lo);
+                    auto empty_slot = instr.ipayload.hi;
+                    auto data_size = capacity * sizeof(int64_t);
+                    Label l_set = c.newLabel();
+                    embedded.append({l_set, &istream[i + 1], data_size});
+                    values.append(in_set(c, get_argument(c, values), l_set, capacity, empty_slot));
+                    i += data_instructions_count(data_size);
+                }
+                    break;
+                case opcodes::StrMatch: {
+                    // the pattern chars follow the instruction
+                    auto kind = static_cast<str_match_t>(instr.options);
+                    auto column_idx = static_cast<int32_t>(instr.ipayload.lo & 0xffffffff);
+                    auto index_idx = static_cast<int32_t>(instr.ipayload.lo >> 32);
+                    auto pattern_len = static_cast<int32_t>(instr.ipayload.hi);
+                    auto pattern = reinterpret_cast<const uint16_t *>(&istream[i + 1]);
+                    values.append(str_match(c, kind, column_idx, index_idx, pattern, pattern_len, cols_ptr, input_index));
+                    i += data_instructions_count(pattern_len * sizeof(uint16_t));
+                }
+                    break;
                 default:
                     emit_bin_op(c, instr, values, null_check);
                     break;
@@ -81,6 +81,12 @@ public interface MessageBus extends Closeable {
 
     MCSequence getO3PartitionSubSeq();
 
+    MPSequence getO3PartitionSquashPubSeq();
+
+    RingQueue<O3PartitionSquashTask> getO3PartitionSquashQueue();
+
+    SCSequence getO3PartitionSquashSubSeq();
+
     MPSequence getO3PurgeDiscoveryPubSeq();
 
     RingQueue<O3PartitionPurgeTask> getO3PurgeDiscoveryQueue();
@@ -125,6 +131,12 @@ public interface MessageBus extends Closeable {
 
     MCSequence getVectorAggregateSubSeq();
 
+    MPSequence getWalSegmentCompressPubSeq();
+
+    RingQueue<WalSegmentCompressTask> getWalSegmentCompressQueue();
+
+    SCSequence getWalSegmentCompressSubSeq();
+
     MPSequence getWalTxnNotificationPubSequence();
 
     RingQueue<WalTxnNotificationTask> getWalTxnNotificationQueue();
@@ -58,6 +58,9 @@ public class MessageBusImpl implements MessageBus {
     private final MPSequence o3PartitionPubSeq;
     private final RingQueue<O3PartitionTask> o3PartitionQueue;
     private final MCSequence o3PartitionSubSeq;
+    private final MPSequence o3PartitionSquashPubSeq;
+    private final RingQueue<O3PartitionSquashTask> o3PartitionSquashQueue;
+    private final SCSequence o3PartitionSquashSubSeq;
     private final MPSequence o3PurgeDiscoveryPubSeq;
     private final RingQueue<O3PartitionPurgeTask> o3PurgeDiscoveryQueue;
     private final MCSequence o3PurgeDiscoverySubSeq;
@@ -81,6 +84,9 @@ public class MessageBusImpl implements MessageBus {
     private final MPSequence vectorAggregatePubSeq;
     private final RingQueue<VectorAggregateTask> vectorAggregateQueue;
     private final MCSequence vectorAggregateSubSeq;
+    private final MPSequence walSegmentCompressPubSeq;
+    private final RingQueue<WalSegmentCompressTask> walSegmentCompressQueue;
+    private final SCSequence walSegmentCompressSubSeq;
     private final MPSequence walTxnNotificationPubSequence;
     private final RingQueue<WalTxnNotificationTask> walTxnNotificationQueue;
     private final MCSequence walTxnNotificationSubSequence;
@@ -122,6 +128,12 @@ public class MessageBusImpl implements MessageBus {
         this.o3PurgeDiscoverySubSeq = new MCSequence(this.o3PurgeDiscoveryQueue.getCycle());
         this.o3PurgeDiscoveryPubSeq.then(this.o3PurgeDiscoverySubSeq).then(o3PurgeDiscoveryPubSeq);
 
+        // squash requests are as infrequent as purge discovery ones, the same capacity will do
+        this.o3PartitionSquashQueue = new RingQueue<>(O3PartitionSquashTask::new, configuration.getO3PurgeDiscoveryQueueCapacity());
+        this.o3PartitionSquashPubSeq = new MPSequence(this.o3PartitionSquashQueue.getCycle());
+        this.o3PartitionSquashSubSeq = new SCSequence();
+        this.o3PartitionSquashPubSeq.then(this.o3PartitionSquashSubSeq).then(this.o3PartitionSquashPubSeq);
+
         this.latestByQueue = new RingQueue<>(LatestByTask::new, configuration.getLatestByQueueCapacity());
         this.latestByPubSeq = new MPSequence(latestByQueue.getCycle());
         this.latestBySubSeq = new MCSequence(latestByQueue.getCycle());
@@ -188,6 +200,12 @@ public class MessageBusImpl implements MessageBus {
         walTxnNotificationPubSequence = new MPSequence(walTxnNotificationQueue.getCycle());
         walTxnNotificationSubSequence = new MCSequence(walTxnNotificationQueue.getCycle());
         walTxnNotificationPubSequence.then(walTxnNotificationSubSequence).then(walTxnNotificationPubSequence);
+
+        // closed segments are compressed one by one, the queue follows WAL commit notifications
+        this.walSegmentCompressQueue = new RingQueue<>(WalSegmentCompressTask::new, configuration.getWalTxnNotificationQueueCapacity());
+        this.walSegmentCompressPubSeq = new MPSequence(walSegmentCompressQueue.getCycle());
+        this.walSegmentCompressSubSeq = new SCSequence();
+        walSegmentCompressPubSeq.then(walSegmentCompressSubSeq).then(walSegmentCompressPubSeq);
     }
 
     @Override
@@ -312,6 +330,21 @@ public class MessageBusImpl implements MessageBus {
         return o3PartitionSubSeq;
     }
 
+    @Override
+    public MPSequence getO3PartitionSquashPubSeq() {
+        return o3PartitionSquashPubSeq;
+    }
+
+    @Override
+    public RingQueue<O3PartitionSquashTask> getO3PartitionSquashQueue() {
+        return o3PartitionSquashQueue;
+    }
+
+    @Override
+    public SCSequence getO3PartitionSquashSubSeq() {
+        return o3PartitionSquashSubSeq;
+    }
+
     @Override
     public MPSequence getO3PurgeDiscoveryPubSeq() {
         return o3PurgeDiscoveryPubSeq;
@@ -422,6 +455,21 @@ public class MessageBusImpl implements MessageBus {
         return vectorAggregateSubSeq;
     }
 
+    @Override
+    public MPSequence getWalSegmentCompressPubSeq() {
+        return walSegmentCompressPubSeq;
+    }
+
+    @Override
+    public RingQueue<WalSegmentCompressTask> getWalSegmentCompressQueue() {
+        return walSegmentCompressQueue;
+    }
+
+    @Override
+    public SCSequence getWalSegmentCompressSubSeq() {
+        return walSegmentCompressSubSeq;
+    }
+
     @Override
     public MPSequence getWalTxnNotificationPubSequence() {
         return walTxnNotificationPubSequence;
@@ -440,6 +488,7 @@ public class MessageBusImpl implements MessageBus {
     @TestOnly
     public void reset() {
         clearQueue(walTxnNotificationSubSequence);
+        clearQueue(walSegmentCompressSubSeq);
     }
 
     private void clearQueue(Sequence subSequence) {
@@ -24,6 +24,7 @@
 
 package io.questdb;
 
+import io.questdb.cairo.ColumnScrubMetrics;
 import io.questdb.cairo.TableWriterMetrics;
 import io.questdb.cairo.wal.WalMetrics;
 import io.questdb.cutlass.http.processors.JsonQueryMetrics;
@@ -36,6 +37,7 @@ import io.questdb.std.Unsafe;
 import io.questdb.std.str.CharSink;
 
 public class Metrics implements Scrapable {
+    private final ColumnScrubMetrics columnScrub;
     private final boolean enabled;
     private final GCMetrics gcMetrics;
     private final HealthMetricsImpl healthCheck;
@@ -59,6 +61,7 @@ public class Metrics implements Scrapable {
         this.healthCheck = new HealthMetricsImpl(metricsRegistry);
         this.tableWriter = new TableWriterMetrics(metricsRegistry);
         this.walMetrics = new WalMetrics(metricsRegistry);
+        this.columnScrub = new ColumnScrubMetrics(metricsRegistry);
         createMemoryGauges(metricsRegistry);
         this.metricsRegistry = metricsRegistry;
     }
@@ -71,6 +74,10 @@ public class Metrics implements Scrapable {
         return new Metrics(true, new MetricsRegistryImpl());
     }
 
+    public ColumnScrubMetrics columnScrub() {
+        return columnScrub;
+    }
+
     public HealthMetricsImpl health() {
         return healthCheck;
     }
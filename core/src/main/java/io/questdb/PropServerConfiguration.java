@@ -95,12 +95,16 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final PropSqlExecutionCircuitBreakerConfiguration circuitBreakerConfiguration = new PropSqlExecutionCircuitBreakerConfiguration();
     private final int circuitBreakerThrottle;
     private final long circuitBreakerTimeout;
+    private final int columnChecksumBlockRowCount;
+    private final boolean columnChecksumEnabled;
     private final int columnIndexerQueueCapacity;
     private final int columnPurgeQueueCapacity;
     private final long columnPurgeRetryDelay;
     private final long columnPurgeRetryDelayLimit;
     private final double columnPurgeRetryDelayMultiplier;
     private final int columnPurgeTaskPoolCapacity;
+    private final long columnScrubInterval;
+    private final long columnScrubRate;
     private final int commitMode;
     private final String confRoot;
     private final int createAsSelectRetryCount;
@@ -171,15 +175,20 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int o3LagCalculationWindowsSize;
     private final int o3LastPartitionMaxSplits;
     private final long o3MaxLag;
+    private final int o3MidPartitionMaxSplits;
     private final long o3MinLagUs;
     private final int o3OpenColumnQueueCapacity;
     private final int o3PartitionPurgeListCapacity;
     private final int o3PartitionQueueCapacity;
     private final long o3PartitionSplitMinSize;
+    private final long o3PartitionSquashQuietPeriod;
     private final int o3PurgeDiscoveryQueueCapacity;
     private final boolean o3QuickSortEnabled;
     private final int parallelIndexThreshold;
     private final boolean parallelIndexingEnabled;
+    private final long partitionTieringAge;
+    private final long partitionTieringCheckInterval;
+    private final String partitionTieringVolumePath;
     private final boolean pgEnabled;
     private final PGWireConfiguration pgWireConfiguration = new PropPGWireConfiguration();
     private final PropPGWireDispatcherConfiguration propPGWireDispatcherConfiguration = new PropPGWireDispatcherConfiguration();
@@ -201,6 +210,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final long sharedWorkerSleepTimeout;
     private final long sharedWorkerYieldThreshold;
     private final boolean simulateCrashEnabled;
+    private final boolean snapshotHardLinkEnabled;
     private final String snapshotInstanceId;
     private final boolean snapshotRecoveryEnabled;
     private final String snapshotRoot;
@@ -255,8 +265,13 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int sqlModelPoolCapacity;
     private final int sqlPageFrameMaxRows;
     private final int sqlPageFrameMinRows;
+    private final int sqlPageFrameReadAheadCount;
+    private final boolean sqlParallelAsOfJoinEnabled;
     private final boolean sqlParallelFilterEnabled;
     private final boolean sqlParallelFilterPreTouchEnabled;
+    private final boolean sqlParallelGroupByEnabled;
+    private final boolean sqlParallelHashJoinEnabled;
+    private final boolean sqlParallelSortEnabled;
     private final int sqlRenameTableModelPoolCapacity;
     private final int sqlSmallMapKeyCapacity;
     private final int sqlSmallMapPageSize;
@@ -264,6 +279,8 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final long sqlSortKeyPageSize;
     private final int sqlSortLightValueMaxPages;
     private final long sqlSortLightValuePageSize;
+    private final long sqlSortMemoryBudget;
+    private final long sqlSortSpillMaxSize;
     private final int sqlSortValueMaxPages;
     private final int sqlSortValuePageSize;
     private final int sqlStrFunctionBufferMaxSize;
@@ -282,6 +299,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final PropertyValidator validator;
     private final int vectorAggregateQueueCapacity;
     private final VolumeDefinitions volumeDefinitions = new VolumeDefinitions();
+    private final boolean walApplyBatchEnabled;
     private final boolean walApplyEnabled;
     private final int walApplyLookAheadTransactionCount;
     private final WorkerPoolConfiguration walApplyPoolConfiguration = new PropWalApplyPoolConfiguration();
@@ -292,9 +310,12 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean walApplyWorkerHaltOnError;
     private final long walApplyWorkerSleepThreshold;
     private final long walApplyWorkerYieldThreshold;
+    private final long walBackpressureDelay;
+    private final long walBackpressureTxnLag;
     private final boolean walEnabledDefault;
     private final int walMaxLagTxnCount;
     private final long walPurgeInterval;
+    private final boolean walSegmentCompressionEnabled;
     private final int walRecreateDistressedSequencerAttempts;
     private final long walSegmentRolloverRowCount;
     private final double walSquashUncommittedRowsMultiplier;
@@ -313,6 +334,8 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final long writerMiscAppendPageSize;
     private final boolean writerMixedIOEnabled;
     private final int writerTickRowsCountMod;
+    private final int zoneMapBlockRowCount;
+    private final boolean zoneMapEnabled;
     private long cairoSqlCopyMaxIndexChunkSize;
     private int connectionPoolInitialCapacity;
     private int connectionStringPoolCapacity;
@@ -520,6 +543,10 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.walMaxLagTxnCount = getInt(properties, env, PropertyKey.CAIRO_WAL_MAX_LAG_TXN_COUNT, Math.max((int) Math.round(walSquashUncommittedRowsMultiplier), 1));
         this.walApplyTableTimeQuota = getLong(properties, env, PropertyKey.CAIRO_WAL_APPLY_TABLE_TIME_QUOTA, 1000);
         this.walApplyLookAheadTransactionCount = getInt(properties, env, PropertyKey.CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT, 20);
+        this.walApplyBatchEnabled = getBoolean(properties, env, PropertyKey.CAIRO_WAL_APPLY_BATCH_ENABLED, true);
+        this.walBackpressureTxnLag = getLong(properties, env, PropertyKey.CAIRO_WAL_BACKPRESSURE_TXN_LAG, 0);
+        this.walBackpressureDelay = getLong(properties, env, PropertyKey.CAIRO_WAL_BACKPRESSURE_DELAY, 1000);
+        this.walSegmentCompressionEnabled = getBoolean(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_ENABLED, false);
         this.tableTypeConversionEnabled = getBoolean(properties, env, PropertyKey.TABLE_TYPE_CONVERSION_ENABLED, true);
         this.tempRenamePendingTablePrefix = getString(properties, env, PropertyKey.CAIRO_WAL_TEMP_PENDING_RENAME_TABLE_PREFIX, "temp_5822f658-31f6-11ee-be56-0242ac120002");
 
@@ -542,6 +569,7 @@ public class PropServerConfiguration implements ServerConfiguration {
 
         this.snapshotInstanceId = getString(properties, env, PropertyKey.CAIRO_SNAPSHOT_INSTANCE_ID, "");
         this.snapshotRecoveryEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SNAPSHOT_RECOVERY_ENABLED, true);
+        this.snapshotHardLinkEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SNAPSHOT_HARD_LINK_ENABLED, false);
         this.simulateCrashEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SIMULATE_CRASH_ENABLED, false);
 
         int cpuAvailable = Runtime.getRuntime().availableProcessors();
@@ -839,6 +867,8 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.sqlSortKeyMaxPages = getIntSize(properties, env, PropertyKey.CAIRO_SQL_SORT_KEY_MAX_PAGES, Integer.MAX_VALUE);
             this.sqlSortLightValuePageSize = getLongSize(properties, env, PropertyKey.CAIRO_SQL_SORT_LIGHT_VALUE_PAGE_SIZE, 8 * 1048576);
             this.sqlSortLightValueMaxPages = getIntSize(properties, env, PropertyKey.CAIRO_SQL_SORT_LIGHT_VALUE_MAX_PAGES, Integer.MAX_VALUE);
+            this.sqlSortMemoryBudget = getLongSize(properties, env, PropertyKey.CAIRO_SQL_SORT_MEMORY_BUDGET, 512 * Numbers.SIZE_1MB);
+            this.sqlSortSpillMaxSize = getLongSize(properties, env, PropertyKey.CAIRO_SQL_SORT_SPILL_MAX_SIZE, 16 * Numbers.SIZE_1GB);
             this.sqlHashJoinValuePageSize = getIntSize(properties, env, PropertyKey.CAIRO_SQL_HASH_JOIN_VALUE_PAGE_SIZE, 16777216);
             this.sqlHashJoinValueMaxPages = getIntSize(properties, env, PropertyKey.CAIRO_SQL_HASH_JOIN_VALUE_MAX_PAGES, Integer.MAX_VALUE);
             this.sqlLatestByRowCount = getInt(properties, env, PropertyKey.CAIRO_SQL_LATEST_BY_ROW_COUNT, 1000);
@@ -868,8 +898,12 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.cairoPageFrameReduceQueueCapacity = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_REDUCE_QUEUE_CAPACITY, 64));
             this.cairoPageFrameReduceRowIdListCapacity = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_ROWID_LIST_CAPACITY, 256));
             this.cairoPageFrameReduceColumnListCapacity = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_COLUMN_LIST_CAPACITY, 16));
+            this.sqlParallelAsOfJoinEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_ASOF_JOIN_ENABLED, true);
             this.sqlParallelFilterEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_FILTER_ENABLED, true);
             this.sqlParallelFilterPreTouchEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_FILTER_PRETOUCH_ENABLED, true);
+            this.sqlParallelGroupByEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_GROUPBY_ENABLED, true);
+            this.sqlParallelHashJoinEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_HASH_JOIN_ENABLED, true);
+            this.sqlParallelSortEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_SORT_ENABLED, true);
             this.cairoPageFrameReduceShardCount = getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_SHARD_COUNT, 4);
 
             this.writerDataIndexKeyAppendPageSize = Files.ceilPageSize(getLongSize(properties, env, PropertyKey.CAIRO_WRITER_DATA_INDEX_KEY_APPEND_PAGE_SIZE, 512 * 1024));
@@ -893,6 +927,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.sqlDistinctTimestampKeyCapacity = getInt(properties, env, PropertyKey.CAIRO_SQL_DISTINCT_TIMESTAMP_KEY_CAPACITY, 512);
             this.sqlDistinctTimestampLoadFactor = getDouble(properties, env, PropertyKey.CAIRO_SQL_DISTINCT_TIMESTAMP_LOAD_FACTOR, 0.5);
             this.sqlPageFrameMinRows = getInt(properties, env, PropertyKey.CAIRO_SQL_PAGE_FRAME_MIN_ROWS, 1_000);
+            this.sqlPageFrameReadAheadCount = Math.max(0, getInt(properties, env, PropertyKey.CAIRO_SQL_PAGE_FRAME_READ_AHEAD_COUNT, 2));
             this.sqlPageFrameMaxRows = getInt(properties, env, PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, 1_000_000);
 
             this.sqlJitMode = getSqlJitMode(properties, env);
@@ -996,6 +1031,27 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.cairoMaxCrashFiles = getInt(properties, env, PropertyKey.CAIRO_MAX_CRASH_FILES, 100);
             this.o3LastPartitionMaxSplits = Math.max(1, getInt(properties, env, PropertyKey.CAIRO_O3_LAST_PARTITION_MAX_SPLITS, 20));
             this.o3PartitionSplitMinSize = getLongSize(properties, env, PropertyKey.CAIRO_O3_PARTITION_SPLIT_MIN_SIZE, 50 * Numbers.SIZE_1MB);
+            this.o3MidPartitionMaxSplits = Math.max(1, getInt(properties, env, PropertyKey.CAIRO_O3_MID_PARTITION_MAX_SPLITS, 8));
+            this.o3PartitionSquashQuietPeriod = getLong(properties, env, PropertyKey.CAIRO_O3_PARTITION_SQUASH_QUIET_PERIOD, 30_000) * 1_000;
+            this.zoneMapEnabled = getBoolean(properties, env, PropertyKey.CAIRO_ZONE_MAP_ENABLED, true);
+            this.zoneMapBlockRowCount = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_ZONE_MAP_BLOCK_ROWS, 65536));
+            this.columnChecksumEnabled = getBoolean(properties, env, PropertyKey.CAIRO_COLUMN_CHECKSUM_ENABLED, false);
+            this.columnChecksumBlockRowCount = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_COLUMN_CHECKSUM_BLOCK_ROWS, 65536));
+            this.columnScrubRate = getLongSize(properties, env, PropertyKey.CAIRO_COLUMN_SCRUB_RATE, 16 * Numbers.SIZE_1MB);
+            this.columnScrubInterval = getLong(properties, env, PropertyKey.CAIRO_COLUMN_SCRUB_INTERVAL, 24 * 3600 * 1000L) * 1_000;
+            final String partitionTieringVolume = getString(properties, env, PropertyKey.CAIRO_PARTITION_TIERING_VOLUME, null);
+            if (partitionTieringVolume != null) {
+                final CharSequence volumePath = volumeDefinitions.resolveAlias(partitionTieringVolume);
+                if (volumePath == null) {
+                    throw new ServerConfigurationException("invalid configuration value [key=" + PropertyKey.CAIRO_PARTITION_TIERING_VOLUME.getPropertyPath() +
+                            ", description=unknown volume alias, value=" + partitionTieringVolume + "]");
+                }
+                this.partitionTieringVolumePath = Chars.toString(volumePath);
+            } else {
+                this.partitionTieringVolumePath = null;
+            }
+            this.partitionTieringAge = getLong(properties, env, PropertyKey.CAIRO_PARTITION_TIERING_AGE, 7 * 24 * 3600 * 1000L) * 1_000;
+            this.partitionTieringCheckInterval = getLong(properties, env, PropertyKey.CAIRO_PARTITION_TIERING_CHECK_INTERVAL, 60_000) * 1_000;
 
             parseBindTo(properties, env, PropertyKey.LINE_UDP_BIND_TO, "0.0.0.0:9009", (a, p) -> {
                 this.lineUdpBindIPV4Address = a;
@@ -1796,6 +1852,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlColumnCastModelPoolCapacity;
         }
 
+        @Override
+        public int getColumnChecksumBlockRowCount() {
+            return columnChecksumBlockRowCount;
+        }
+
         @Override
         public int getColumnIndexerQueueCapacity() {
             return columnIndexerQueueCapacity;
@@ -1826,6 +1887,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return columnPurgeTaskPoolCapacity;
         }
 
+        @Override
+        public long getColumnScrubInterval() {
+            return columnScrubInterval;
+        }
+
+        @Override
+        public long getColumnScrubRate() {
+            return columnScrubRate;
+        }
+
         @Override
         public int getCommitMode() {
             return commitMode;
@@ -2070,6 +2141,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return Integer.MAX_VALUE;
         }
 
+        @Override
+        public int getO3MidPartitionMaxSplits() {
+            return o3MidPartitionMaxSplits;
+        }
+
         @Override
         public long getO3MinLag() {
             return o3MinLagUs;
@@ -2085,6 +2161,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return o3PartitionQueueCapacity;
         }
 
+        @Override
+        public long getO3PartitionSquashQuietPeriod() {
+            return o3PartitionSquashQuietPeriod;
+        }
+
         @Override
         public int getO3PurgeDiscoveryQueueCapacity() {
             return o3PurgeDiscoveryQueueCapacity;
@@ -2125,6 +2206,21 @@ public class PropServerConfiguration implements ServerConfiguration {
             return o3PartitionPurgeListCapacity;
         }
 
+        @Override
+        public long getPartitionTieringAge() {
+            return partitionTieringAge;
+        }
+
+        @Override
+        public long getPartitionTieringCheckInterval() {
+            return partitionTieringCheckInterval;
+        }
+
+        @Override
+        public @Nullable CharSequence getPartitionTieringVolumePath() {
+            return partitionTieringVolumePath;
+        }
+
         @Override
         public int getQueryCacheEventQueueCapacity() {
             return queryCacheEventQueueCapacity;
@@ -2395,6 +2491,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlPageFrameMinRows;
         }
 
+        @Override
+        public int getSqlPageFrameReadAheadCount() {
+            return sqlPageFrameReadAheadCount;
+        }
+
         @Override
         public int getSqlSmallMapKeyCapacity() {
             return sqlSmallMapKeyCapacity;
@@ -2425,6 +2526,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlSortLightValuePageSize;
         }
 
+        @Override
+        public long getSqlSortMemoryBudget() {
+            return sqlSortMemoryBudget;
+        }
+
+        @Override
+        public long getSqlSortSpillMaxSize() {
+            return sqlSortSpillMaxSize;
+        }
+
         @Override
         public int getSqlSortValueMaxPages() {
             return sqlSortValueMaxPages;
@@ -2494,6 +2605,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walApplyTableTimeQuota;
         }
 
+        @Override
+        public long getWalBackpressureDelay() {
+            return walBackpressureDelay;
+        }
+
+        @Override
+        public long getWalBackpressureTxnLag() {
+            return walBackpressureTxnLag;
+        }
+
         @Override
         public long getWalDataAppendPageSize() {
             return walWriterDataAppendPageSize;
@@ -2574,6 +2695,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return writerTickRowsCountMod;
         }
 
+        @Override
+        public int getZoneMapBlockRowCount() {
+            return zoneMapBlockRowCount;
+        }
+
+        @Override
+        public boolean isColumnChecksumEnabled() {
+            return columnChecksumEnabled;
+        }
+
         @Override
         public boolean isIOURingEnabled() {
             return ioURingEnabled;
@@ -2599,6 +2730,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return isReadOnlyInstance;
         }
 
+        @Override
+        public boolean isSnapshotHardLinkEnabled() {
+            return snapshotHardLinkEnabled;
+        }
+
         @Override
         public boolean isSnapshotRecoveryEnabled() {
             return snapshotRecoveryEnabled;
@@ -2609,6 +2745,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlJitDebugEnabled;
         }
 
+        @Override
+        public boolean isSqlParallelAsOfJoinEnabled() {
+            return sqlParallelAsOfJoinEnabled;
+        }
+
         @Override
         public boolean isSqlParallelFilterEnabled() {
             return sqlParallelFilterEnabled;
@@ -2619,16 +2760,42 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlParallelFilterPreTouchEnabled;
         }
 
+        @Override
+        public boolean isSqlParallelGroupByEnabled() {
+            return sqlParallelGroupByEnabled;
+        }
+
+        @Override
+        public boolean isSqlParallelHashJoinEnabled() {
+            return sqlParallelHashJoinEnabled;
+        }
+
+        @Override
+        public boolean isSqlParallelSortEnabled() {
+            return sqlParallelSortEnabled;
+        }
+
         @Override
         public boolean isTableTypeConversionEnabled() {
             return tableTypeConversionEnabled;
         }
 
+        @Override
+        public boolean isWalApplyBatchEnabled() {
+            return walApplyBatchEnabled;
+        }
+
         @Override
         public boolean isWalApplyEnabled() {
             return walApplyEnabled;
         }
 
+        @Override
+        public boolean isWalSegmentCompressionEnabled() {
+            return walSegmentCompressionEnabled;
+        }
+
+        @Override
         public boolean isWalSupported() {
             return walSupported;
         }
@@ -2638,6 +2805,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return writerMixedIOEnabled;
         }
 
+        @Override
+        public boolean isZoneMapEnabled() {
+            return zoneMapEnabled;
+        }
+
         @Override
         public boolean mangleTableDirNames() {
             return false;
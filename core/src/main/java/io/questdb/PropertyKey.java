@@ -77,6 +77,8 @@ public enum PropertyKey implements ConfigProperty {
     CAIRO_SQL_SORT_KEY_MAX_PAGES("cairo.sql.sort.key.max.pages"),
     CAIRO_SQL_SORT_LIGHT_VALUE_PAGE_SIZE("cairo.sql.sort.light.value.page.size"),
     CAIRO_SQL_SORT_LIGHT_VALUE_MAX_PAGES("cairo.sql.sort.light.value.max.pages"),
+    CAIRO_SQL_SORT_MEMORY_BUDGET("cairo.sql.sort.memory.budget"),
+    CAIRO_SQL_SORT_SPILL_MAX_SIZE("cairo.sql.sort.spill.max.size"),
     CAIRO_SQL_HASH_JOIN_VALUE_PAGE_SIZE("cairo.sql.hash.join.value.page.size"),
     CAIRO_SQL_HASH_JOIN_VALUE_MAX_PAGES("cairo.sql.hash.join.value.max.pages"),
     CAIRO_SQL_LATEST_BY_ROW_COUNT("cairo.sql.latest.by.row.count"),
@@ -89,8 +91,12 @@ public enum PropertyKey implements ConfigProperty {
     CAIRO_PAGE_FRAME_REDUCE_QUEUE_CAPACITY("cairo.page.frame.reduce.queue.capacity"),
     CAIRO_PAGE_FRAME_ROWID_LIST_CAPACITY("cairo.page.frame.rowid.list.capacity"),
     CAIRO_PAGE_FRAME_COLUMN_LIST_CAPACITY("cairo.page.frame.column.list.capacity"),
+    CAIRO_SQL_PARALLEL_ASOF_JOIN_ENABLED("cairo.sql.parallel.asof.join.enabled"),
     CAIRO_SQL_PARALLEL_FILTER_ENABLED("cairo.sql.parallel.filter.enabled"),
     CAIRO_SQL_PARALLEL_FILTER_PRETOUCH_ENABLED("cairo.sql.parallel.filter.pretouch.enabled"),
+    CAIRO_SQL_PARALLEL_GROUPBY_ENABLED("cairo.sql.parallel.groupby.enabled"),
+    CAIRO_SQL_PARALLEL_HASH_JOIN_ENABLED("cairo.sql.parallel.hash.join.enabled"),
+    CAIRO_SQL_PARALLEL_SORT_ENABLED("cairo.sql.parallel.sort.enabled"),
     CAIRO_PAGE_FRAME_SHARD_COUNT("cairo.page.frame.shard.count"),
     CAIRO_PAGE_FRAME_TASK_POOL_CAPACITY("cairo.page.frame.task.pool.capacity"),
     CAIRO_SQL_JOIN_METADATA_PAGE_SIZE("cairo.sql.join.metadata.page.size"),
@@ -405,13 +411,30 @@ public enum PropertyKey implements ConfigProperty {
     CAIRO_WAL_MAX_LAG_TXN_COUNT("cairo.wal.max.lag.txn.count"),
     CAIRO_WAL_APPLY_TABLE_TIME_QUOTA("cairo.wal.apply.table.time.quota"),
     CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT("cairo.wal.apply.look.ahead.txn.count"),
+    CAIRO_WAL_APPLY_BATCH_ENABLED("cairo.wal.apply.batch.enabled"),
+    CAIRO_WAL_BACKPRESSURE_TXN_LAG("cairo.wal.backpressure.txn.lag"),
+    CAIRO_WAL_BACKPRESSURE_DELAY("cairo.wal.backpressure.delay"),
+    CAIRO_WAL_SEGMENT_COMPRESSION_ENABLED("cairo.wal.segment.compression.enabled"),
     CAIRO_WAL_TEMP_PENDING_RENAME_TABLE_PREFIX("cairo.wal.temp.pending.rename.table.prefix"),
     READ_ONLY_INSTANCE("readonly"),
     CAIRO_TABLE_REGISTRY_AUTO_RELOAD_FREQUENCY("cairo.table.registry.auto.reload.frequency"),
     CAIRO_TABLE_REGISTRY_COMPACTION_THRESHOLD("cairo.table.registry.compaction.threshold"),
     CAIRO_REPEAT_MIGRATION_FROM_VERSION("cairo.repeat.migration.from.version"),
     CAIRO_O3_LAST_PARTITION_MAX_SPLITS("cairo.o3.last.partition.max.splits"),
-    CAIRO_O3_PARTITION_SPLIT_MIN_SIZE("cairo.o3.partition.split.min.size");
+    CAIRO_O3_MID_PARTITION_MAX_SPLITS("cairo.o3.mid.partition.max.splits"),
+    CAIRO_O3_PARTITION_SQUASH_QUIET_PERIOD("cairo.o3.partition.squash.quiet.period"),
+    CAIRO_O3_PARTITION_SPLIT_MIN_SIZE("cairo.o3.partition.split.min.size"),
+    CAIRO_ZONE_MAP_ENABLED("cairo.zone.map.enabled"),
+    CAIRO_ZONE_MAP_BLOCK_ROWS("cairo.zone.map.block.rows"),
+    CAIRO_SQL_PAGE_FRAME_READ_AHEAD_COUNT("cairo.sql.page.frame.read.ahead.count"),
+    CAIRO_PARTITION_TIERING_VOLUME("cairo.partition.tiering.volume"),
+    CAIRO_PARTITION_TIERING_AGE("cairo.partition.tiering.age"),
+    CAIRO_PARTITION_TIERING_CHECK_INTERVAL("cairo.partition.tiering.check.interval"),
+    CAIRO_SNAPSHOT_HARD_LINK_ENABLED("cairo.snapshot.hard.link.enabled"),
+    CAIRO_COLUMN_CHECKSUM_ENABLED("cairo.column.checksum.enabled"),
+    CAIRO_COLUMN_CHECKSUM_BLOCK_ROWS("cairo.column.checksum.block.rows"),
+    CAIRO_COLUMN_SCRUB_RATE("cairo.column.scrub.rate"),
+    CAIRO_COLUMN_SCRUB_INTERVAL("cairo.column.scrub.interval");
 
     private static final Map<String, PropertyKey> nameMapping;
     private final String propertyPath;
@@ -33,6 +33,7 @@ import io.questdb.cairo.security.SecurityContextFactory;
 import io.questdb.cairo.wal.ApplyWal2TableJob;
 import io.questdb.cairo.wal.CheckWalTransactionsJob;
 import io.questdb.cairo.wal.WalPurgeJob;
+import io.questdb.cairo.wal.WalSegmentCompressJob;
 import io.questdb.cutlass.Services;
 import io.questdb.cutlass.auth.AuthUtils;
 import io.questdb.cutlass.auth.DefaultLineAuthenticatorFactory;
@@ -116,6 +117,12 @@ public class ServerMain implements Closeable {
                             sharedPool.assign(walPurgeJob);
                             sharedPool.freeOnExit(walPurgeJob);
 
+                            if (cairoConfig.isWalSegmentCompressionEnabled()) {
+                                final WalSegmentCompressJob walSegmentCompressJob = new WalSegmentCompressJob(engine);
+                                sharedPool.assign(walSegmentCompressJob);
+                                sharedPool.freeOnExit(walSegmentCompressJob);
+                            }
+
                             if (walApplyEnabled && !config.getWalApplyPoolConfiguration().isEnabled()) {
                                 setupWalApplyJob(sharedPool, engine, getSharedWorkerCount());
                             }
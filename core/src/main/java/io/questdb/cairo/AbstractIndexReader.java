@@ -159,6 +159,43 @@ public abstract class AbstractIndexReader implements BitmapIndexReader {
         }
     }
 
+    /**
+     * Extends key and value memory to the size published by the index writer. Unlike {@link #of},
+     * this keeps the existing file mappings and is meant for readers of an append-only index.
+     */
+    public void updateKeyAndValueSize() {
+        int keyCount;
+        long valueMemSize;
+        final long deadline = clock.getTicks() + spinLockTimeoutUs;
+        while (true) {
+            long seq = this.keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE);
+
+            Unsafe.getUnsafe().loadFence();
+            if (this.keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE_CHECK) == seq) {
+                keyCount = this.keyMem.getInt(BitmapIndexUtils.KEY_RESERVED_OFFSET_KEY_COUNT);
+                valueMemSize = this.keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_VALUE_MEM_SIZE);
+
+                Unsafe.getUnsafe().loadFence();
+                if (seq == this.keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE)) {
+                    break;
+                }
+            }
+
+            if (clock.getTicks() > deadline) {
+                LOG.error().$(INDEX_CORRUPT).$(" [timeout=").$(spinLockTimeoutUs).utf8("ms]").$();
+                throw CairoException.critical(0).put(INDEX_CORRUPT);
+            }
+            Os.pause();
+        }
+
+        if (keyCount > this.keyCount) {
+            keyMem.extend(BitmapIndexUtils.getKeyEntryOffset(keyCount));
+            this.keyCount = keyCount;
+            this.keyCountIncludingNulls = unIndexedNullCount > 0 ? keyCount + 1 : keyCount;
+        }
+        valueMem.extend(valueMemSize);
+    }
+
     public void updateKeyCount() {
         int keyCount;
         final long deadline = clock.getTicks() + spinLockTimeoutUs;
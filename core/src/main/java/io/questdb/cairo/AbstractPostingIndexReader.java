@@ -0,0 +1,237 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryMR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.str.Path;
+
+/**
+ * Reads posting list index, see {@link PostingIndexUtils} for the format. Index files are immutable,
+ * so unlike bitmap index readers, these readers do not have to synchronize with the writer.
+ * <p>
+ * Native code, such as "latest by" search, reads bitmap index memory directly. For these callers the
+ * reader decodes posting lists into bitmap index layout on first access to the base addresses.
+ */
+public abstract class AbstractPostingIndexReader implements BitmapIndexReader {
+    private static final Log LOG = LogFactory.getLog(AbstractPostingIndexReader.class);
+    protected final MemoryMR keyMem = Vm.getMRInstance();
+    protected final MemoryMR valueMem = Vm.getMRInstance();
+    protected int keyCount;
+    protected long unIndexedNullCount;
+    private int blockValueCount;
+    private long imageKeyAddress;
+    private long imageKeySize;
+    private long imageValueAddress;
+    private long imageValueSize;
+    private int keyCountIncludingNulls;
+
+    @Override
+    public void close() {
+        freeImage();
+        if (isOpen()) {
+            Misc.free(keyMem);
+            Misc.free(valueMem);
+        }
+    }
+
+    @Override
+    public long getKeyBaseAddress() {
+        buildImage();
+        return imageKeyAddress;
+    }
+
+    @Override
+    public int getKeyCount() {
+        return keyCountIncludingNulls;
+    }
+
+    @Override
+    public long getKeyMemorySize() {
+        buildImage();
+        return imageKeySize;
+    }
+
+    @Override
+    public long getUnIndexedNullCount() {
+        return unIndexedNullCount;
+    }
+
+    @Override
+    public long getValueBaseAddress() {
+        buildImage();
+        return imageValueAddress;
+    }
+
+    @Override
+    public int getValueBlockCapacity() {
+        return blockValueCount - 1;
+    }
+
+    @Override
+    public long getValueMemorySize() {
+        buildImage();
+        return imageValueSize;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return keyMem.getFd() != -1;
+    }
+
+    @Override
+    public void of(CairoConfiguration configuration, Path path, CharSequence name, long columnNameTxn, long unIndexedNullCount) {
+        freeImage();
+        this.unIndexedNullCount = unIndexedNullCount;
+        final int plen = path.length();
+        try {
+            keyMem.wholeFile(configuration.getFilesFacade(), BitmapIndexUtils.keyFileName(path, name, columnNameTxn), MemoryTag.MMAP_INDEX_READER);
+            if (keyMem.size() < BitmapIndexUtils.KEY_FILE_RESERVED) {
+                LOG.error().$("file too short [corrupt] ").$(path).$();
+                throw CairoException.critical(0).put("Index file too short: ").put(path);
+            }
+            if (keyMem.getByte(BitmapIndexUtils.KEY_RESERVED_OFFSET_SIGNATURE) != PostingIndexUtils.SIGNATURE) {
+                LOG.error().$("unknown format [corrupt] ").$(path).$();
+                throw CairoException.critical(0).put("Unknown format: ").put(path);
+            }
+            final int keyCount = keyMem.getInt(BitmapIndexUtils.KEY_RESERVED_OFFSET_KEY_COUNT);
+            final long valueMemSize = keyMem.getLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_VALUE_MEM_SIZE);
+            if (keyMem.size() < BitmapIndexUtils.getKeyEntryOffset(keyCount)
+                    || keyMem.getInt(PostingIndexUtils.KEY_RESERVED_OFFSET_POSTING_BLOCK_VALUE_COUNT) != PostingIndexUtils.BLOCK_VALUE_COUNT) {
+                LOG.error().$("key count does not match file length [corrupt] of ").$(path).$(" [keyCount=").$(keyCount).$(']').$();
+                throw CairoException.critical(0).put("Key count does not match file length of ").put(path);
+            }
+            this.blockValueCount = keyMem.getInt(BitmapIndexUtils.KEY_RESERVED_OFFSET_BLOCK_VALUE_COUNT);
+            this.keyCount = keyCount;
+            this.keyCountIncludingNulls = unIndexedNullCount > 0 ? keyCount + 1 : keyCount;
+            valueMem.of(
+                    configuration.getFilesFacade(),
+                    BitmapIndexUtils.valueFileName(path.trimTo(plen), name, columnNameTxn),
+                    valueMemSize,
+                    valueMemSize,
+                    MemoryTag.MMAP_INDEX_READER
+            );
+        } catch (Throwable e) {
+            close();
+            throw e;
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
+    private void buildImage() {
+        if (imageKeyAddress != 0) {
+            return;
+        }
+        assert blockValueCount == Numbers.ceilPow2(blockValueCount);
+        final long blockCapacity = (long) blockValueCount * Long.BYTES + BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED;
+        long blockCount = 0;
+        for (int key = 0; key < keyCount; key++) {
+            blockCount += (getValueCount(key) + blockValueCount - 1) / blockValueCount;
+        }
+
+        final long keySize = BitmapIndexUtils.getKeyEntryOffset(keyCount);
+        final long valueSize = blockCount * blockCapacity;
+        final long keyAddress = Unsafe.calloc(keySize, MemoryTag.NATIVE_TABLE_READER);
+        final long valueAddress = valueSize > 0 ? Unsafe.malloc(valueSize, MemoryTag.NATIVE_TABLE_READER) : 0;
+        Vect.memcpy(keyAddress, keyMem.addressOf(0), BitmapIndexUtils.KEY_FILE_RESERVED);
+        Unsafe.getUnsafe().putByte(keyAddress + BitmapIndexUtils.KEY_RESERVED_OFFSET_SIGNATURE, BitmapIndexUtils.SIGNATURE);
+
+        final long[] values = new long[PostingIndexUtils.BLOCK_VALUE_COUNT];
+        long valueOffset = 0;
+        for (int key = 0; key < keyCount; key++) {
+            final long valueCount = getValueCount(key);
+            if (valueCount == 0) {
+                continue;
+            }
+            final long dataAddress = getDataAddress(key);
+            final long skipAddress = getSkipAddress(key);
+            final long firstBlockOffset = valueOffset;
+            long prevBlockOffset = 0;
+            long cell = 0;
+            for (int block = 0, n = PostingIndexUtils.getBlockCount(valueCount); block < n; block++) {
+                final int count = PostingIndexUtils.decodeBlock(dataAddress, skipAddress, valueCount, block, values);
+                for (int i = 0; i < count; i++, cell++) {
+                    if ((cell & (blockValueCount - 1)) == 0) {
+                        // link previous block to the new one
+                        if (cell > 0) {
+                            Unsafe.getUnsafe().putLong(valueAddress + valueOffset + blockCapacity - Long.BYTES, valueOffset + blockCapacity);
+                            prevBlockOffset = valueOffset;
+                            valueOffset += blockCapacity;
+                        }
+                        Unsafe.getUnsafe().putLong(valueAddress + valueOffset + blockCapacity - BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED, prevBlockOffset);
+                        Unsafe.getUnsafe().putLong(valueAddress + valueOffset + blockCapacity - Long.BYTES, 0);
+                    }
+                    Unsafe.getUnsafe().putLong(valueAddress + valueOffset + (cell & (blockValueCount - 1)) * Long.BYTES, values[i]);
+                }
+            }
+            final long keyEntry = keyAddress + BitmapIndexUtils.getKeyEntryOffset(key);
+            Unsafe.getUnsafe().putLong(keyEntry + BitmapIndexUtils.KEY_ENTRY_OFFSET_VALUE_COUNT, valueCount);
+            Unsafe.getUnsafe().putLong(keyEntry + BitmapIndexUtils.KEY_ENTRY_OFFSET_FIRST_VALUE_BLOCK_OFFSET, firstBlockOffset);
+            Unsafe.getUnsafe().putLong(keyEntry + BitmapIndexUtils.KEY_ENTRY_OFFSET_LAST_VALUE_BLOCK_OFFSET, valueOffset);
+            Unsafe.getUnsafe().putLong(keyEntry + BitmapIndexUtils.KEY_ENTRY_OFFSET_COUNT_CHECK, valueCount);
+            valueOffset += blockCapacity;
+        }
+        assert valueOffset == valueSize;
+        Unsafe.getUnsafe().putLong(keyAddress + BitmapIndexUtils.KEY_RESERVED_OFFSET_VALUE_MEM_SIZE, valueSize);
+
+        this.imageKeyAddress = keyAddress;
+        this.imageKeySize = keySize;
+        this.imageValueAddress = valueAddress;
+        this.imageValueSize = valueSize;
+    }
+
+    private void freeImage() {
+        if (imageKeyAddress != 0) {
+            Unsafe.free(imageKeyAddress, imageKeySize, MemoryTag.NATIVE_TABLE_READER);
+            imageKeyAddress = 0;
+            imageKeySize = 0;
+        }
+        if (imageValueAddress != 0) {
+            Unsafe.free(imageValueAddress, imageValueSize, MemoryTag.NATIVE_TABLE_READER);
+            imageValueAddress = 0;
+            imageValueSize = 0;
+        }
+    }
+
+    protected long getDataAddress(int key) {
+        return valueMem.addressOf(keyMem.getLong(BitmapIndexUtils.getKeyEntryOffset(key) + PostingIndexUtils.KEY_ENTRY_OFFSET_DATA_OFFSET));
+    }
+
+    protected long getSkipAddress(int key) {
+        return valueMem.addressOf(keyMem.getLong(BitmapIndexUtils.getKeyEntryOffset(key) + PostingIndexUtils.KEY_ENTRY_OFFSET_SKIP_OFFSET));
+    }
+
+    protected long getValueCount(int key) {
+        return keyMem.getLong(BitmapIndexUtils.getKeyEntryOffset(key) + PostingIndexUtils.KEY_ENTRY_OFFSET_VALUE_COUNT);
+    }
+}
@@ -34,6 +34,7 @@ public enum AttachDetachStatus {
     DETACH_ERR_COPY,
     DETACH_ERR_ALREADY_DETACHED(false),
     DETACH_ERR_MKDIR,
+    DETACH_ERR_COMPRESSED(false),
     ATTACH_ERR_PARTITION_EXISTS(false),
     ATTACH_ERR_RENAME,
     ATTACH_ERR_COPY,
@@ -174,6 +174,10 @@ public class BitmapIndexWriter implements Closeable, Mutable {
         return keyMem.getLong(MAX_VALUE_OFFSET);
     }
 
+    public int getValueBlockCapacity() {
+        return blockValueCountMod + 1;
+    }
+
     @TestOnly
     public long getValueMemSize() {
         return valueMemSize;
@@ -38,6 +38,7 @@ import io.questdb.std.datetime.microtime.MicrosecondClockImpl;
 import io.questdb.std.datetime.millitime.MillisecondClock;
 import io.questdb.std.datetime.millitime.MillisecondClockImpl;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.ThreadLocal;
 import java.util.function.LongSupplier;
@@ -92,6 +93,13 @@ public interface CairoConfiguration {
 
     int getColumnCastModelPoolCapacity();
 
+    /**
+     * Column checksums are calculated per block of this many rows. Must be a power of 2.
+     *
+     * @return number of rows in a checksum block
+     */
+    int getColumnChecksumBlockRowCount();
+
     int getColumnIndexerQueueCapacity();
 
     int getColumnPurgeQueueCapacity();
@@ -104,6 +112,19 @@ public interface CairoConfiguration {
 
     int getColumnPurgeTaskPoolCapacity();
 
+    /**
+     * @return interval in micros between the starts of scrub passes over all tables
+     */
+    long getColumnScrubInterval();
+
+    /**
+     * Scrub job reads column files at no more than this rate, so that it does not compete
+     * with queries and ingestion for disk bandwidth.
+     *
+     * @return bytes per second, 0 disables the scrub job
+     */
+    long getColumnScrubRate();
+
     int getCommitMode();
 
     @NotNull
@@ -241,12 +262,28 @@ public interface CairoConfiguration {
 
     int getO3MemMaxPages();
 
+    /**
+     * Split partitions, other than the last one, are squashed in the background. This is
+     * the maximum number of splits such partition can have before it is squashed on commit.
+     *
+     * @return maximum number of splits of a partition other than the last one
+     */
+    int getO3MidPartitionMaxSplits();
+
     long getO3MinLag();
 
     int getO3OpenColumnQueueCapacity();
 
     int getO3PartitionQueueCapacity();
 
+    /**
+     * Time in micros a split partition has to go without O3 writes before the splits
+     * are squashed in the background.
+     *
+     * @return quiet period in micros
+     */
+    long getO3PartitionSquashQuietPeriod();
+
     int getO3PurgeDiscoveryQueueCapacity();
 
     // the '+' is used to prevent overlap with table names
@@ -269,6 +306,28 @@ public interface CairoConfiguration {
 
     int getPartitionPurgeListCapacity();
 
+    /**
+     * Partitions with all rows older than this age, relative to the wall clock, are moved
+     * to the tiering volume in the background.
+     *
+     * @return partition age in micros
+     */
+    long getPartitionTieringAge();
+
+    /**
+     * @return interval in micros between the checks for partitions to move to the tiering volume
+     */
+    long getPartitionTieringCheckInterval();
+
+    /**
+     * Root of the volume cold partitions are moved to, resolved from the volume alias configured
+     * with cairo.partition.tiering.volume.
+     *
+     * @return volume root or null when partition tiering is disabled
+     */
+    @Nullable
+    CharSequence getPartitionTieringVolumePath();
+
     int getQueryCacheEventQueueCapacity();
 
     @NotNull
@@ -411,6 +470,15 @@ public interface CairoConfiguration {
 
     int getSqlPageFrameMinRows();
 
+    /**
+     * Number of page frames ahead of the dispatched one whose pages are prefetched
+     * in the background during parallel query execution, i.e. the OS is asked to start
+     * reading them from disk while the current frames are being reduced.
+     *
+     * @return number of page frames to read ahead, 0 disables the read-ahead
+     */
+    int getSqlPageFrameReadAheadCount();
+
     int getSqlSmallMapKeyCapacity();
 
     int getSqlSmallMapPageSize();
@@ -423,6 +491,10 @@ public interface CairoConfiguration {
 
     long getSqlSortLightValuePageSize();
 
+    long getSqlSortMemoryBudget();
+
+    long getSqlSortSpillMaxSize();
+
     int getSqlSortValueMaxPages();
 
     int getSqlSortValuePageSize();
@@ -455,6 +527,10 @@ public interface CairoConfiguration {
 
     long getWalApplyTableTimeQuota();
 
+    long getWalBackpressureDelay();
+
+    long getWalBackpressureTxnLag();
+
     long getWalDataAppendPageSize();
 
     boolean getWalEnabledDefault();
@@ -487,6 +563,22 @@ public interface CairoConfiguration {
 
     int getWriterTickRowsCountMod();
 
+    /**
+     * Zone maps keep min/max values of numeric columns per block of this many rows.
+     * Must be a power of 2.
+     *
+     * @return number of rows in a zone map block
+     */
+    int getZoneMapBlockRowCount();
+
+    /**
+     * When enabled, table writer maintains CRC32C checksums of column files and the scrub job
+     * verifies partitions against them in the background.
+     *
+     * @return true when column checksums are enabled
+     */
+    boolean isColumnChecksumEnabled();
+
     boolean isIOURingEnabled();
 
     boolean isMultiKeyDedupEnabled();
@@ -497,6 +589,17 @@ public interface CairoConfiguration {
 
     boolean isReadOnlyInstance();
 
+    /**
+     * When enabled, SNAPSHOT PREPARE also puts table data into the snapshot directory. Partitions
+     * are hard-linked, except for the last partition of each table which is copied. A list of the
+     * partitions changed since the previous snapshot is written to the snapshot directory. Linked
+     * files share disk blocks with the database, so the snapshot must be copied before it is modified.
+     * Defaults to {@code false}.
+     *
+     * @return enable/disable hard-link snapshot flag
+     */
+    boolean isSnapshotHardLinkEnabled();
+
     /**
      * A flag to enable/disable snapshot recovery mechanism. Defaults to {@code true}.
      *
@@ -506,18 +609,38 @@ public interface CairoConfiguration {
 
     boolean isSqlJitDebugEnabled();
 
+    boolean isSqlParallelAsOfJoinEnabled();
+
     boolean isSqlParallelFilterEnabled();
 
     boolean isSqlParallelFilterPreTouchEnabled();
 
+    boolean isSqlParallelGroupByEnabled();
+
+    boolean isSqlParallelHashJoinEnabled();
+
+    boolean isSqlParallelSortEnabled();
+
     boolean isTableTypeConversionEnabled();
 
+    boolean isWalApplyBatchEnabled();
+
     boolean isWalApplyEnabled();
 
+    boolean isWalSegmentCompressionEnabled();
+
     boolean isWalSupported();
 
     boolean isWriterMixedIOEnabled();
 
+    /**
+     * When enabled, table writer maintains min/max zone maps of numeric columns and
+     * parallel filters skip page frames that cannot match the filter.
+     *
+     * @return true when zone maps are enabled
+     */
+    boolean isZoneMapEnabled();
+
     /**
      * This is a flag to enable/disable making table directory names different to table names for non-WAL tables.
      * When it is enabled directory name of table TRADE becomes TRADE~, so that ~ sign is added at the end.
@@ -36,6 +36,7 @@ import io.questdb.std.datetime.DateLocale;
 import io.questdb.std.datetime.microtime.MicrosecondClock;
 import io.questdb.std.datetime.millitime.MillisecondClock;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.LongSupplier;
 
@@ -116,6 +117,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.getColumnCastModelPoolCapacity();
     }
 
+    @Override
+    public int getColumnChecksumBlockRowCount() {
+        return delegate.getColumnChecksumBlockRowCount();
+    }
+
     @Override
     public int getColumnIndexerQueueCapacity() {
         return delegate.getColumnIndexerQueueCapacity();
@@ -146,6 +152,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.getColumnPurgeTaskPoolCapacity();
     }
 
+    @Override
+    public long getColumnScrubInterval() {
+        return delegate.getColumnScrubInterval();
+    }
+
+    @Override
+    public long getColumnScrubRate() {
+        return delegate.getColumnScrubRate();
+    }
+
     @Override
     public int getCommitMode() {
         return delegate.getCommitMode();
@@ -396,6 +412,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.getO3MemMaxPages();
     }
 
+    @Override
+    public int getO3MidPartitionMaxSplits() {
+        return delegate.getO3MidPartitionMaxSplits();
+    }
+
     @Override
     public long getO3MinLag() {
         return delegate.getO3MinLag();
@@ -411,6 +432,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.getO3PartitionQueueCapacity();
     }
 
+    @Override
+    public long getO3PartitionSquashQuietPeriod() {
+        return delegate.getO3PartitionSquashQuietPeriod();
+    }
+
     @Override
     public int getO3PurgeDiscoveryQueueCapacity() {
         return delegate.getO3PurgeDiscoveryQueueCapacity();
@@ -451,6 +477,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.getPartitionPurgeListCapacity();
     }
 
+    @Override
+    public long getPartitionTieringAge() {
+        return delegate.getPartitionTieringAge();
+    }
+
+    @Override
+    public long getPartitionTieringCheckInterval() {
+        return delegate.getPartitionTieringCheckInterval();
+    }
+
+    @Override
+    public @Nullable CharSequence getPartitionTieringVolumePath() {
+        return delegate.getPartitionTieringVolumePath();
+    }
+
     @Override
     public int getQueryCacheEventQueueCapacity() {
         return delegate.getQueryCacheEventQueueCapacity();
@@ -721,6 +762,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.getSqlPageFrameMinRows();
     }
 
+    @Override
+    public int getSqlPageFrameReadAheadCount() {
+        return delegate.getSqlPageFrameReadAheadCount();
+    }
+
     @Override
     public int getSqlSmallMapKeyCapacity() {
         return delegate.getSqlSmallMapKeyCapacity();
@@ -751,6 +797,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.getSqlSortLightValuePageSize();
     }
 
+    @Override
+    public long getSqlSortMemoryBudget() {
+        return delegate.getSqlSortMemoryBudget();
+    }
+
+    @Override
+    public long getSqlSortSpillMaxSize() {
+        return delegate.getSqlSortSpillMaxSize();
+    }
+
     @Override
     public int getSqlSortValueMaxPages() {
         return delegate.getSqlSortValueMaxPages();
@@ -821,6 +877,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.getWalApplyTableTimeQuota();
     }
 
+    @Override
+    public long getWalBackpressureDelay() {
+        return delegate.getWalBackpressureDelay();
+    }
+
+    @Override
+    public long getWalBackpressureTxnLag() {
+        return delegate.getWalBackpressureTxnLag();
+    }
+
     @Override
     public long getWalDataAppendPageSize() {
         return delegate.getWalDataAppendPageSize();
@@ -901,6 +967,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.getWriterTickRowsCountMod();
     }
 
+    @Override
+    public int getZoneMapBlockRowCount() {
+        return delegate.getZoneMapBlockRowCount();
+    }
+
+    @Override
+    public boolean isColumnChecksumEnabled() {
+        return delegate.isColumnChecksumEnabled();
+    }
+
     @Override
     public boolean isIOURingEnabled() {
         return delegate.isIOURingEnabled();
@@ -926,6 +1002,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.isReadOnlyInstance();
     }
 
+    @Override
+    public boolean isSnapshotHardLinkEnabled() {
+        return delegate.isSnapshotHardLinkEnabled();
+    }
+
     @Override
     public boolean isSnapshotRecoveryEnabled() {
         return delegate.isSnapshotRecoveryEnabled();
@@ -936,6 +1017,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.isSqlJitDebugEnabled();
     }
 
+    @Override
+    public boolean isSqlParallelAsOfJoinEnabled() {
+        return delegate.isSqlParallelAsOfJoinEnabled();
+    }
+
     @Override
     public boolean isSqlParallelFilterEnabled() {
         return delegate.isSqlParallelFilterEnabled();
@@ -946,16 +1032,41 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.isSqlParallelFilterPreTouchEnabled();
     }
 
+    @Override
+    public boolean isSqlParallelGroupByEnabled() {
+        return delegate.isSqlParallelGroupByEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return delegate.isSqlParallelHashJoinEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelSortEnabled() {
+        return delegate.isSqlParallelSortEnabled();
+    }
+
     @Override
     public boolean isTableTypeConversionEnabled() {
         return delegate.isTableTypeConversionEnabled();
     }
 
+    @Override
+    public boolean isWalApplyBatchEnabled() {
+        return delegate.isWalApplyBatchEnabled();
+    }
+
     @Override
     public boolean isWalApplyEnabled() {
         return delegate.isWalApplyEnabled();
     }
 
+    @Override
+    public boolean isWalSegmentCompressionEnabled() {
+        return delegate.isWalSegmentCompressionEnabled();
+    }
+
     public boolean isWalSupported() {
         return delegate.isWalSupported();
     }
@@ -965,6 +1076,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return delegate.isWriterMixedIOEnabled();
     }
 
+    @Override
+    public boolean isZoneMapEnabled() {
+        return delegate.isZoneMapEnabled();
+    }
+
     @Override
     public boolean mangleTableDirNames() {
         return delegate.mangleTableDirNames();
@@ -66,6 +66,7 @@ public class CairoEngine implements Closeable, WriterSource {
     public static final String REASON_SNAPSHOT_IN_PROGRESS = "snapshotInProgress";
     private static final Log LOG = LogFactory.getLog(CairoEngine.class);
     private final AtomicLong asyncCommandCorrelationId = new AtomicLong();
+    private final ColumnScrubLog columnScrubLog = new ColumnScrubLog();
     private final CairoConfiguration configuration;
     private final CopyContext copyContext;
     private final EngineMaintenanceJob engineMaintenanceJob;
@@ -107,6 +108,7 @@ public class CairoEngine implements Closeable, WriterSource {
         this.tableSequencerAPI = new TableSequencerAPI(this, configuration);
         this.messageBus = new MessageBusImpl(configuration);
         this.metrics = metrics;
+        metrics.walMetrics().setApplyLagSource(tableSequencerAPI, configuration.getMicrosecondClock());
         // Message bus and metrics must be initialized before the pools.
         this.writerPool = new WriterPool(configuration, this);
         this.readerPool = new ReaderPool(configuration, messageBus);
@@ -141,6 +143,11 @@ public class CairoEngine implements Closeable, WriterSource {
             throw e;
         }
 
+        // Remove sort spill files left behind by a crash.
+        if (!configuration.isReadOnlyInstance()) {
+            removeSortSpillDir();
+        }
+
         try {
             tableNameRegistry = configuration.isReadOnlyInstance()
                     ? new TableNameRegistryRO(configuration, protectedTableResolver)
@@ -388,8 +395,9 @@ public class CairoEngine implements Closeable, WriterSource {
             CharSequence lockedReason = lockAll(tableToken, "removeTable", false);
             if (lockedReason == null) {
                 try {
-                    path.of(configuration.getRoot()).concat(tableToken).$();
-                    if (!configuration.getFilesFacade().unlinkOrRemove(path, LOG)) {
+                    path.of(configuration.getRoot()).concat(tableToken);
+                    TableUtils.removeMovedPartitions(configuration.getFilesFacade(), path, configuration.getPartitionTieringVolumePath(), LOG);
+                    if (!configuration.getFilesFacade().unlinkOrRemove(path.$(), LOG)) {
                         throw CairoException.critical(configuration.getFilesFacade().errno()).put("could not remove table [name=").put(tableToken)
                                 .put(", dirName=").put(tableToken.getDirName()).put(']');
                     }
@@ -456,6 +464,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return writerPool.getBusyCount();
     }
 
+    public ColumnScrubLog getColumnScrubLog() {
+        return columnScrubLog;
+    }
+
     public long getCommandCorrelationId() {
         return asyncCommandCorrelationId.incrementAndGet();
     }
@@ -1136,6 +1148,14 @@ public class CairoEngine implements Closeable, WriterSource {
         );
     }
 
+    private void removeSortSpillDir() {
+        final FilesFacade ff = configuration.getFilesFacade();
+        final Path path = Path.getThreadLocal(configuration.getRoot()).concat(TableUtils.SORT_SPILL_DIR_NAME).slash$();
+        if (ff.exists(path) && !ff.rmdir(path)) {
+            LOG.error().$("could not remove sort spill directory [path=").$(path).$(", errno=").$(ff.errno()).I$();
+        }
+    }
+
     private TableToken rename0(Path fromPath, TableToken fromTableToken, Path toPath, CharSequence toTableName) {
 
         // !!! we do not care what is inside the path1 & path2, we will reset them anyway
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Crc32c;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.Path;
+
+/**
+ * Read-only mapping of a column partition that calculates block checksums, see
+ * {@link ColumnChecksumUtils} for what a block checksum covers.
+ */
+public class ColumnChecksumSource implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(ColumnChecksumSource.class);
+    private final Crc32c crc = new Crc32c();
+    private final FilesFacade ff;
+    private final int memoryTag;
+    private long auxAddress;
+    private long auxSize;
+    private long columnTop;
+    private long dataAddress;
+    private long dataSize;
+    private int shift;
+    private boolean varSize;
+
+    public ColumnChecksumSource(FilesFacade ff, int memoryTag) {
+        this.ff = ff;
+        this.memoryTag = memoryTag;
+    }
+
+    /**
+     * Calculates checksum of the rows of a block.
+     *
+     * @param rowLo first row of the block, inclusive
+     * @param rowHi last row of the block, exclusive
+     * @return block checksum
+     */
+    public int checksum(long rowLo, long rowHi) {
+        crc.reset();
+        final long lo = Math.max(rowLo, columnTop) - columnTop;
+        final long hi = rowHi - columnTop;
+        if (lo < hi) {
+            if (varSize) {
+                crc.update(auxAddress + (lo << 3), (hi - lo) << 3);
+                final long offsetLo = getDataOffset(lo);
+                crc.update(dataAddress + offsetLo, Math.max(getDataOffset(hi) - offsetLo, 0));
+            } else {
+                crc.update(dataAddress + (lo << shift), (hi - lo) << shift);
+            }
+        }
+        return crc.getValue();
+    }
+
+    @Override
+    public void close() {
+        if (dataAddress != 0) {
+            ff.munmap(dataAddress, dataSize, memoryTag);
+            dataAddress = 0;
+        }
+        if (auxAddress != 0) {
+            ff.munmap(auxAddress, auxSize, memoryTag);
+            auxAddress = 0;
+        }
+        dataSize = 0;
+        auxSize = 0;
+    }
+
+    /**
+     * Size in bytes of the rows of a block as they are stored in the column files.
+     */
+    public long getSize(long rowLo, long rowHi) {
+        final long lo = Math.max(rowLo, columnTop) - columnTop;
+        final long hi = rowHi - columnTop;
+        if (lo >= hi) {
+            return 0;
+        }
+        if (varSize) {
+            return ((hi - lo) << 3) + Math.max(getDataOffset(hi) - getDataOffset(lo), 0);
+        }
+        return (hi - lo) << shift;
+    }
+
+    /**
+     * Maps the first rows of a column partition.
+     *
+     * @param path          partition path, it is left unchanged
+     * @param columnName    column name
+     * @param columnNameTxn column name txn
+     * @param columnType    column type
+     * @param columnTop     column top, rows above it are not stored
+     * @param rowCount      number of rows to map
+     */
+    public void of(Path path, CharSequence columnName, long columnNameTxn, int columnType, long columnTop, long rowCount) {
+        close();
+        this.columnTop = columnTop;
+        this.varSize = ColumnType.isVariableLength(columnType);
+        this.shift = varSize ? 0 : ColumnType.pow2SizeOf(columnType);
+        if (rowCount <= columnTop) {
+            return;
+        }
+        final int plen = path.length();
+        try {
+            final long storedRowCount = rowCount - columnTop;
+            if (varSize) {
+                auxSize = (storedRowCount + 1) << 3;
+                auxAddress = map(TableUtils.iFile(path.trimTo(plen), columnName, columnNameTxn), auxSize);
+                dataSize = Math.max(Unsafe.getUnsafe().getLong(auxAddress + (storedRowCount << 3)), 0);
+            } else {
+                dataSize = storedRowCount << shift;
+            }
+            if (dataSize > 0) {
+                dataAddress = map(TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn), dataSize);
+            }
+        } catch (Throwable th) {
+            close();
+            throw th;
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
+    // offsets are clamped to the mapped data, a damaged index file must not make us read past it
+    private long getDataOffset(long row) {
+        return Math.min(Math.max(Unsafe.getUnsafe().getLong(auxAddress + (row << 3)), 0), dataSize);
+    }
+
+    private long map(LPSZ path, long size) {
+        final int fd = TableUtils.openRO(ff, path, LOG);
+        try {
+            final long fileSize = ff.length(fd);
+            if (fileSize < size) {
+                throw CairoException.critical(0).put("column file is too small [file=").put(path)
+                        .put(", expectedSize=").put(size)
+                        .put(", actual=").put(fileSize)
+                        .put(']');
+            }
+            return TableUtils.mapRO(ff, fd, size, memoryTag);
+        } finally {
+            ff.close(fd);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.str.Path;
+
+import static io.questdb.cairo.TableUtils.COLUMN_NAME_TXN_NONE;
+
+/**
+ * Checksum file keeps CRC32C checksums of a column per partition and per block of rows.
+ * The file starts with a header:
+ * <pre>
+ * row count (long) | block row count (int) | column type (int)
+ * </pre>
+ * followed by a checksum per block (int). A block checksum covers the data of the rows in the
+ * block that are stored in the column files, rows above the column top are not stored and
+ * are not checksummed. The checksum of a var-size column block covers the index entries of
+ * the rows followed by their data.
+ * <p>
+ * Like zone maps, see {@link ZoneMapUtils}, blocks are only ever appended to, and the writer
+ * updates blocks first and the header last.
+ */
+public final class ColumnChecksumUtils {
+    public static final long BLOCK_ENTRY_SIZE = Integer.BYTES;
+    public static final long HEADER_OFFSET_BLOCK_ROW_COUNT = 8;
+    public static final long HEADER_OFFSET_COLUMN_TYPE = 12;
+    public static final long HEADER_OFFSET_ROW_COUNT = 0;
+    public static final long HEADER_SIZE = 16;
+
+    private ColumnChecksumUtils() {
+    }
+
+    public static Path checksumFileName(Path path, CharSequence columnName, long columnNameTxn) {
+        path.concat(columnName).put(".crc");
+        if (columnNameTxn > COLUMN_NAME_TXN_NONE) {
+            path.put('.').put(columnNameTxn);
+        }
+        return path.$();
+    }
+
+    public static long getBlockCount(long rowCount, int blockRowCount) {
+        return (rowCount + blockRowCount - 1) / blockRowCount;
+    }
+
+    public static long getBlockOffset(long block) {
+        return HEADER_SIZE + block * BLOCK_ENTRY_SIZE;
+    }
+
+    public static long getFileSize(long rowCount, int blockRowCount) {
+        return getBlockOffset(getBlockCount(rowCount, blockRowCount));
+    }
+}
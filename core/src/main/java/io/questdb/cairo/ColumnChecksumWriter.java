@@ -0,0 +1,234 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+import static io.questdb.cairo.ColumnChecksumUtils.*;
+
+/**
+ * Builds and maintains column checksum files, see {@link ColumnChecksumUtils} for the file
+ * layout. Checksums of the active partition are extended one full block at a time, checksums
+ * of other partitions also cover the trailing partial block.
+ */
+public class ColumnChecksumWriter implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(ColumnChecksumWriter.class);
+    private final int blockRowCount;
+    private final FilesFacade ff;
+    private final long fileOpenOpts;
+    private final ColumnChecksumSource source;
+    private long address;
+    private long capacity;
+
+    public ColumnChecksumWriter(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+        this.fileOpenOpts = configuration.getWriterFileOpenOpts();
+        this.blockRowCount = configuration.getColumnChecksumBlockRowCount();
+        this.source = new ColumnChecksumSource(ff, MemoryTag.MMAP_TABLE_WRITER);
+        assert Numbers.isPow2(blockRowCount);
+    }
+
+    /**
+     * Carries the checksum blocks, which cover rows below the given row count, over to another
+     * version of the partition, so that the next {@link #update} checksums only the rest of the rows.
+     * Source and target can be the same partition version, the checksums are then truncated in place.
+     * Blocks go first and the header last, same as in {@link #update}.
+     *
+     * @param srcPath       source partition path, it is left unchanged
+     * @param dstPath       target partition path, it is left unchanged
+     * @param columnName    column name
+     * @param columnNameTxn column name txn
+     * @param columnType    column type
+     * @param rowCount      number of leading rows, which are stored the same in both partition versions
+     * @return number of rows covered by the target checksums
+     */
+    public long carryOver(
+            Path srcPath,
+            Path dstPath,
+            CharSequence columnName,
+            long columnNameTxn,
+            int columnType,
+            long rowCount
+    ) {
+        final int srcLen = srcPath.length();
+        final int dstLen = dstPath.length();
+        int fd = -1;
+        try {
+            fd = ff.openRO(checksumFileName(srcPath, columnName, columnNameTxn));
+            srcPath.trimTo(srcLen);
+            if (fd < 0) {
+                return 0;
+            }
+            long coveredRowCount = readCoveredRowCount(fd, columnType);
+            ff.close(fd);
+            fd = -1;
+            if (coveredRowCount == 0) {
+                return 0;
+            }
+            if (coveredRowCount > rowCount) {
+                coveredRowCount = rowCount & -blockRowCount;
+            }
+
+            final long blockCount = getBlockCount(coveredRowCount, blockRowCount);
+            Unsafe.getUnsafe().putLong(address + HEADER_OFFSET_ROW_COUNT, coveredRowCount);
+            fd = TableUtils.openRW(ff, checksumFileName(dstPath, columnName, columnNameTxn), LOG, fileOpenOpts);
+            final long blocksSize = getBlockOffset(blockCount) - HEADER_SIZE;
+            if (ff.write(fd, address + HEADER_SIZE, blocksSize, HEADER_SIZE) != blocksSize
+                    || ff.write(fd, address, HEADER_SIZE, 0) != HEADER_SIZE) {
+                throw CairoException.critical(ff.errno()).put("could not write column checksums [file=").put(dstPath).put(']');
+            }
+            return coveredRowCount;
+        } finally {
+            if (fd != -1) {
+                ff.close(fd);
+            }
+            srcPath.trimTo(srcLen);
+            dstPath.trimTo(dstLen);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (address != 0) {
+            address = Unsafe.free(address, capacity, MemoryTag.NATIVE_TABLE_WRITER);
+            capacity = 0;
+        }
+        source.close();
+    }
+
+    public int getBlockRowCount() {
+        return blockRowCount;
+    }
+
+    /**
+     * Brings checksums of the column up to date with the partition. Rows of the partition
+     * that are already covered by the checksums must not have changed since they were written.
+     *
+     * @param path          partition path, it is left unchanged
+     * @param columnName    column name
+     * @param columnNameTxn column name txn
+     * @param columnType    column type
+     * @param columnTop     column top, rows above it are not stored
+     * @param rowCount      partition row count
+     * @param sealed        true when the partition is not going to be appended to, the trailing
+     *                      partial block is then checksummed
+     * @return number of rows covered by the checksums
+     */
+    public long update(
+            Path path,
+            CharSequence columnName,
+            long columnNameTxn,
+            int columnType,
+            long columnTop,
+            long rowCount,
+            boolean sealed
+    ) {
+        final int plen = path.length();
+        final long targetRowCount = sealed ? rowCount : rowCount & -blockRowCount;
+        int fd = -1;
+        try {
+            fd = TableUtils.openRW(ff, checksumFileName(path, columnName, columnNameTxn), LOG, fileOpenOpts);
+            long coveredRowCount = readCoveredRowCount(fd, columnType);
+            if (coveredRowCount > rowCount) {
+                // partition was truncated in place, start over
+                coveredRowCount = 0;
+            }
+            if (coveredRowCount == 0 && ff.length(fd) > 0 && !ff.truncate(fd, 0)) {
+                throw CairoException.critical(ff.errno()).put("could not truncate [file=").put(path).put(']');
+            }
+            if (targetRowCount <= coveredRowCount) {
+                return coveredRowCount;
+            }
+
+            final long firstBlock = coveredRowCount / blockRowCount;
+            final long blockCount = getBlockCount(targetRowCount, blockRowCount);
+            ensureCapacity(getBlockOffset(blockCount));
+
+            source.of(path.trimTo(plen), columnName, columnNameTxn, columnType, columnTop, targetRowCount);
+            for (long block = firstBlock; block < blockCount; block++) {
+                final long rowLo = block * blockRowCount;
+                final long rowHi = Math.min(rowLo + blockRowCount, targetRowCount);
+                Unsafe.getUnsafe().putInt(address + getBlockOffset(block), source.checksum(rowLo, rowHi));
+            }
+            Unsafe.getUnsafe().putLong(address + HEADER_OFFSET_ROW_COUNT, targetRowCount);
+            Unsafe.getUnsafe().putInt(address + HEADER_OFFSET_BLOCK_ROW_COUNT, blockRowCount);
+            Unsafe.getUnsafe().putInt(address + HEADER_OFFSET_COLUMN_TYPE, columnType);
+
+            // blocks go first, the header tells how many rows are covered
+            final long blocksOffset = getBlockOffset(firstBlock);
+            final long blocksSize = getBlockOffset(blockCount) - blocksOffset;
+            if (ff.write(fd, address + blocksOffset, blocksSize, blocksOffset) != blocksSize
+                    || ff.write(fd, address, HEADER_SIZE, 0) != HEADER_SIZE) {
+                throw CairoException.critical(ff.errno()).put("could not write column checksums [file=")
+                        .put(checksumFileName(path.trimTo(plen), columnName, columnNameTxn)).put(']');
+            }
+            return targetRowCount;
+        } finally {
+            source.close();
+            if (fd != -1) {
+                ff.close(fd);
+            }
+            path.trimTo(plen);
+        }
+    }
+
+    private void ensureCapacity(long size) {
+        if (size > capacity) {
+            final long newCapacity = Math.max(size, capacity * 2);
+            address = Unsafe.realloc(address, capacity, newCapacity, MemoryTag.NATIVE_TABLE_WRITER);
+            capacity = newCapacity;
+        }
+    }
+
+    /**
+     * Reads checksum file into the buffer.
+     *
+     * @return number of rows covered by the file or 0 when the file is empty or cannot be extended
+     */
+    private long readCoveredRowCount(int fd, int columnType) {
+        final long len = ff.length(fd);
+        if (len < HEADER_SIZE) {
+            return 0;
+        }
+        ensureCapacity(len);
+        if (ff.read(fd, address, len, 0) != len) {
+            return 0;
+        }
+        final long rowCount = Unsafe.getUnsafe().getLong(address + HEADER_OFFSET_ROW_COUNT);
+        if (
+                Unsafe.getUnsafe().getInt(address + HEADER_OFFSET_COLUMN_TYPE) != columnType
+                        || Unsafe.getUnsafe().getInt(address + HEADER_OFFSET_BLOCK_ROW_COUNT) != blockRowCount
+                        || rowCount < 0
+                        || getFileSize(rowCount, blockRowCount) > len
+        ) {
+            return 0;
+        }
+        return rowCount;
+    }
+}
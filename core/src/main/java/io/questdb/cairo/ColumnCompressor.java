@@ -0,0 +1,328 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.LPSZ;
+
+/**
+ * Compresses column files of cold partitions. Compressed file starts with a header, which is
+ * followed by the blocks of the original file deflated independently of each other:
+ * <pre>
+ * | uncompressed size (long) | codec (int) | block size (int) | block 0 | block 1 | ... |
+ * </pre>
+ * and every block is prefixed by its compressed and uncompressed sizes:
+ * <pre>
+ * | compressed size (int) | uncompressed size (int) | deflated bytes |
+ * </pre>
+ * {@link #CODEC_DELTA} stores 8-byte values as the differences to the previous value of the block
+ * before deflating them. Timestamps are mostly monotonic, so their deltas are small and repetitive
+ * and compress much better than the values themselves. {@link #CODEC_DELTA_128} does the same for
+ * 16-byte values, such as (timestamp, row index) pairs of WAL designated timestamp column, by taking
+ * the difference to the value 16 bytes back.
+ * <p>
+ * Blocks are independent, so a range of the file can be decompressed without inflating the blocks before it.
+ */
+public class ColumnCompressor implements QuietCloseable {
+    public static final int BLOCK_HEADER_SIZE = 2 * Integer.BYTES;
+    public static final int CODEC_DEFLATE = 0;
+    public static final int CODEC_DELTA = 1;
+    public static final int CODEC_DELTA_128 = 2;
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    public static final int HEADER_SIZE = Long.BYTES + 2 * Integer.BYTES;
+    private static final int HEADER_OFFSET_BLOCK_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int HEADER_OFFSET_CODEC = Long.BYTES;
+    private static final Log LOG = LogFactory.getLog(ColumnCompressor.class);
+    private final int blockSize;
+    private final long deltaBuf;
+    private final long outBuf;
+    private final int outBufSize;
+    private final long zStream;
+
+    public ColumnCompressor(int blockSize) {
+        assert blockSize > 0 && blockSize % Long.BYTES == 0;
+        this.blockSize = blockSize;
+        // raw deflate adds a few bytes per 16K of incompressible input
+        this.outBufSize = BLOCK_HEADER_SIZE + blockSize + (blockSize >>> 3) + 64;
+        final long zStream = Zip.deflateInit();
+        if (zStream < 0) {
+            throw CairoException.critical(0).put("could not initialize compressor [error=").put(zStream).put(']');
+        }
+        this.zStream = zStream;
+        this.outBuf = Unsafe.malloc(outBufSize, MemoryTag.NATIVE_TABLE_WRITER);
+        this.deltaBuf = Unsafe.malloc(blockSize, MemoryTag.NATIVE_TABLE_WRITER);
+    }
+
+    /**
+     * Decompresses mapped compressed file into the given buffer.
+     *
+     * @param src     address of the compressed file
+     * @param srcSize size of the compressed file
+     * @param dst     address of the buffer, it must be at least {@link #getUncompressedSize(long)} bytes long
+     * @return false when the file is corrupt
+     */
+    public static boolean decompress(long src, long srcSize, long dst) {
+        return srcSize >= HEADER_SIZE && decompress(src, srcSize, 0, getUncompressedSize(src), dst) == 0;
+    }
+
+    /**
+     * Decompresses the blocks of mapped compressed file, which overlap with the given range of
+     * the uncompressed file. The first decompressed block is written at the start of the buffer.
+     *
+     * @param src     address of the compressed file
+     * @param srcSize size of the compressed file
+     * @param lo      start of the range in the uncompressed file, inclusive
+     * @param hi      end of the range in the uncompressed file, exclusive
+     * @param dst     address of the buffer, it must be at least {@link #getRangeBufferSize(long, long, long)} bytes long
+     * @return offset of the first decompressed block in the uncompressed file or -1 when the file is corrupt
+     */
+    public static long decompress(long src, long srcSize, long lo, long hi, long dst) {
+        if (srcSize < HEADER_SIZE) {
+            return -1;
+        }
+        final long uncompressedSize = getUncompressedSize(src);
+        if (lo < 0 || hi > uncompressedSize) {
+            return -1;
+        }
+        if (lo >= hi) {
+            return lo;
+        }
+        final int codec = getCodec(src);
+        final long dstSize = getRangeBufferSize(src, lo, hi);
+        final long end = src + srcSize;
+        long p = src + HEADER_SIZE;
+        long offset = 0;
+        long dstLo = -1;
+        final long zStream = Zip.inflateInit(true);
+        if (zStream < 0) {
+            throw CairoException.critical(0).put("could not initialize decompressor [error=").put(zStream).put(']');
+        }
+        try {
+            while (offset < hi) {
+                if (p + BLOCK_HEADER_SIZE > end) {
+                    return -1;
+                }
+                final int compressedLen = Unsafe.getUnsafe().getInt(p);
+                final int len = Unsafe.getUnsafe().getInt(p + Integer.BYTES);
+                p += BLOCK_HEADER_SIZE;
+                if (compressedLen < 0 || len <= 0 || p + compressedLen > end || offset + len > uncompressedSize) {
+                    return -1;
+                }
+                if (offset + len > lo) {
+                    if (dstLo == -1) {
+                        dstLo = offset;
+                    }
+                    if (offset + len - dstLo > dstSize) {
+                        return -1;
+                    }
+                    if (!inflateBlock(zStream, codec, p, compressedLen, dst + offset - dstLo, len)) {
+                        return -1;
+                    }
+                }
+                p += compressedLen;
+                offset += len;
+            }
+            return dstLo;
+        } finally {
+            Zip.inflateEnd(zStream);
+        }
+    }
+
+    /**
+     * Decompresses a single block of mapped compressed file.
+     *
+     * @param zStream inflate stream created with {@code Zip.inflateInit(true)}
+     * @param src     address of the compressed file
+     * @param srcSize size of the compressed file
+     * @param block   offset of the block header in the compressed file
+     * @param dst     address of the buffer, it must be at least {@link #getBlockSize(long)} bytes long
+     * @return uncompressed size of the block or -1 when the block is corrupt
+     */
+    public static int decompressBlock(long zStream, long src, long srcSize, long block, long dst) {
+        if (block < HEADER_SIZE || block + BLOCK_HEADER_SIZE > srcSize) {
+            return -1;
+        }
+        final long p = src + block;
+        final int compressedLen = Unsafe.getUnsafe().getInt(p);
+        final int len = Unsafe.getUnsafe().getInt(p + Integer.BYTES);
+        if (compressedLen < 0 || len <= 0 || len > getBlockSize(src) || block + BLOCK_HEADER_SIZE + compressedLen > srcSize) {
+            return -1;
+        }
+        return inflateBlock(zStream, getCodec(src), p + BLOCK_HEADER_SIZE, compressedLen, dst, len) ? len : -1;
+    }
+
+    public static int getBlockSize(long address) {
+        return Unsafe.getUnsafe().getInt(address + HEADER_OFFSET_BLOCK_SIZE);
+    }
+
+    public static int getCodec(long address) {
+        return Unsafe.getUnsafe().getInt(address + HEADER_OFFSET_CODEC);
+    }
+
+    /**
+     * Returns size of the buffer, which fits all blocks overlapping with the given range of the uncompressed file.
+     *
+     * @param address address of the compressed file
+     * @param lo      start of the range in the uncompressed file, inclusive
+     * @param hi      end of the range in the uncompressed file, exclusive
+     * @return buffer size for {@link #decompress(long, long, long, long, long)}
+     */
+    public static long getRangeBufferSize(long address, long lo, long hi) {
+        if (lo >= hi) {
+            return 0;
+        }
+        final long blockSize = getBlockSize(address);
+        if (blockSize <= 0) {
+            return getUncompressedSize(address);
+        }
+        final long blockLo = lo - lo % blockSize;
+        final long blockHi = Math.min(((hi + blockSize - 1) / blockSize) * blockSize, getUncompressedSize(address));
+        return blockHi - blockLo;
+    }
+
+    public static long getUncompressedSize(long address) {
+        return Unsafe.getUnsafe().getLong(address);
+    }
+
+    @Override
+    public void close() {
+        Zip.deflateEnd(zStream);
+        Unsafe.free(outBuf, outBufSize, MemoryTag.NATIVE_TABLE_WRITER);
+        Unsafe.free(deltaBuf, blockSize, MemoryTag.NATIVE_TABLE_WRITER);
+    }
+
+    /**
+     * Writes compressed copy of the source file to the destination file.
+     *
+     * @param ff    files facade
+     * @param src   path to the source file
+     * @param dst   path to the destination file, the file is overwritten if it exists
+     * @param codec {@link #CODEC_DEFLATE}, {@link #CODEC_DELTA} or {@link #CODEC_DELTA_128}
+     * @return size of the compressed file
+     */
+    public long compress(FilesFacade ff, LPSZ src, LPSZ dst, int codec) {
+        final int srcFd = TableUtils.openRO(ff, src, LOG);
+        long srcAddr = 0;
+        long srcSize = 0;
+        try {
+            srcSize = ff.length(srcFd);
+            if (srcSize < 0) {
+                throw CairoException.critical(ff.errno()).put("could not get length: ").put(src);
+            }
+            if ((codec == CODEC_DELTA && srcSize % Long.BYTES != 0) || (codec == CODEC_DELTA_128 && srcSize % (2 * Long.BYTES) != 0)) {
+                codec = CODEC_DEFLATE;
+            }
+            if (srcSize > 0) {
+                srcAddr = TableUtils.mapRO(ff, srcFd, srcSize, MemoryTag.MMAP_TABLE_WRITER);
+            }
+
+            final int dstFd = TableUtils.openRW(ff, dst, LOG, CairoConfiguration.O_NONE);
+            try {
+                if (!ff.truncate(dstFd, 0)) {
+                    throw CairoException.critical(ff.errno()).put("could not truncate [file=").put(dst).put(']');
+                }
+                Unsafe.getUnsafe().putLong(outBuf, srcSize);
+                Unsafe.getUnsafe().putInt(outBuf + HEADER_OFFSET_CODEC, codec);
+                Unsafe.getUnsafe().putInt(outBuf + HEADER_OFFSET_BLOCK_SIZE, blockSize);
+                long dstOffset = write(ff, dstFd, dst, outBuf, HEADER_SIZE, 0);
+
+                for (long offset = 0; offset < srcSize; offset += blockSize) {
+                    final int len = (int) Math.min(blockSize, srcSize - offset);
+                    long in = srcAddr + offset;
+                    if (codec == CODEC_DELTA) {
+                        encodeDeltas(in, deltaBuf, len, Long.BYTES);
+                        in = deltaBuf;
+                    } else if (codec == CODEC_DELTA_128) {
+                        encodeDeltas(in, deltaBuf, len, 2 * Long.BYTES);
+                        in = deltaBuf;
+                    }
+                    Zip.deflateReset(zStream);
+                    Zip.setInput(zStream, in, len);
+                    final int available = outBufSize - BLOCK_HEADER_SIZE;
+                    final int ret = Zip.deflate(zStream, outBuf + BLOCK_HEADER_SIZE, available, true);
+                    if (ret != Zip.Z_STREAM_END) {
+                        throw CairoException.critical(0).put("could not compress [file=").put(src)
+                                .put(", offset=").put(offset)
+                                .put(", error=").put(ret)
+                                .put(']');
+                    }
+                    final int compressedLen = available - Zip.availOut(zStream);
+                    Unsafe.getUnsafe().putInt(outBuf, compressedLen);
+                    Unsafe.getUnsafe().putInt(outBuf + Integer.BYTES, len);
+                    dstOffset += write(ff, dstFd, dst, outBuf, BLOCK_HEADER_SIZE + compressedLen, dstOffset);
+                }
+                return dstOffset;
+            } finally {
+                ff.close(dstFd);
+            }
+        } finally {
+            if (srcAddr != 0) {
+                ff.munmap(srcAddr, srcSize, MemoryTag.MMAP_TABLE_WRITER);
+            }
+            ff.close(srcFd);
+        }
+    }
+
+    // every 8-byte value is replaced by its difference to the value stride bytes back,
+    // the first stride bytes of the block are differences to zero
+    private static void decodeDeltas(long address, int len, int stride) {
+        for (long p = address + stride, hi = address + len; p < hi; p += Long.BYTES) {
+            Unsafe.getUnsafe().putLong(p, Unsafe.getUnsafe().getLong(p) + Unsafe.getUnsafe().getLong(p - stride));
+        }
+    }
+
+    private static void encodeDeltas(long src, long dst, int len, int stride) {
+        for (long i = 0; i < len; i += Long.BYTES) {
+            final long prev = i < stride ? 0 : Unsafe.getUnsafe().getLong(src + i - stride);
+            Unsafe.getUnsafe().putLong(dst + i, Unsafe.getUnsafe().getLong(src + i) - prev);
+        }
+    }
+
+    private static boolean inflateBlock(long zStream, int codec, long src, int compressedLen, long dst, int len) {
+        Zip.inflateReset(zStream);
+        Zip.setInput(zStream, src, compressedLen);
+        if (Zip.inflate(zStream, dst, len, true) != len) {
+            return false;
+        }
+        if (codec == CODEC_DELTA) {
+            decodeDeltas(dst, len, Long.BYTES);
+        } else if (codec == CODEC_DELTA_128) {
+            decodeDeltas(dst, len, 2 * Long.BYTES);
+        }
+        return true;
+    }
+
+    private static long write(FilesFacade ff, int fd, LPSZ path, long address, long len, long offset) {
+        if (ff.write(fd, address, len, offset) != len) {
+            throw CairoException.critical(ff.errno()).put("could not write [file=").put(path)
+                    .put(", offset=").put(offset)
+                    .put(", len=").put(len)
+                    .put(']');
+        }
+        return len;
+    }
+}
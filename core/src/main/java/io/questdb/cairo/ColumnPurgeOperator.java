@@ -308,6 +308,20 @@ public class ColumnPurgeOperator implements Closeable {
                     }
                 }
 
+                if (!isSymbolRootFiles) {
+                    // column type could have been changed since, remove zone map regardless of the type, along with checksums
+                    ZoneMapUtils.zoneMapFileName(path.trimTo(pathTrimToPartition), columnName, columnVersion);
+                    if (couldNotRemove(ff, path)) {
+                        allDone = false;
+                        continue;
+                    }
+                    ColumnChecksumUtils.checksumFileName(path.trimTo(pathTrimToPartition), columnName, columnVersion);
+                    if (couldNotRemove(ff, path)) {
+                        allDone = false;
+                        continue;
+                    }
+                }
+
                 // Check if it's symbol, try remove .k and .v files in the partition
                 if (ColumnType.isSymbol(columnType)) {
                     if (isSymbolRootFiles) {
@@ -0,0 +1,375 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.str.Path;
+
+import java.io.Closeable;
+
+import static io.questdb.cairo.ColumnChecksumUtils.*;
+
+/**
+ * Verifies column files of table partitions against the checksums kept by the table writer,
+ * see {@link ColumnChecksumWriter}. The last partition of a table is still written to and
+ * is not verified.
+ * <p>
+ * The job reads no more than one checksum block per run and keeps reads within the configured
+ * rate, so it can share the worker pool with the rest of the jobs. A table reader is held while
+ * the partitions of the table are verified, the files being verified are not purged meanwhile.
+ * Results of a table are published to {@link ColumnScrubLog} once all of its partitions are
+ * verified. A new pass over all tables starts once the configured interval has passed since
+ * the start of the previous one.
+ */
+public class ColumnScrubJob extends SynchronizedJob implements Closeable {
+    private static final Log LOG = LogFactory.getLog(ColumnScrubJob.class);
+    private final MicrosecondClock clock;
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final long interval;
+    private final ColumnScrubMetrics metrics;
+    private final long rate;
+    private final ObjList<ColumnScrubLog.Entry> results = new ObjList<>();
+    private final ColumnScrubLog scrubLog;
+    private final ColumnChecksumSource source;
+    private final ObjHashSet<TableToken> tableTokens = new ObjHashSet<>();
+    private long block;
+    private long blockCount;
+    private int blockRowCount;
+    private long budget;
+    private long checksumAddress;
+    private long checksumCapacity;
+    private int columnIndex;
+    private boolean columnOpen;
+    private long coveredRowCount;
+    private ColumnScrubLog.Entry entry;
+    private long lastRunTimestamp;
+    private long passTimestamp = Long.MIN_VALUE;
+    private Path path = new Path();
+    private int partitionIndex;
+    private int partitionPathLen;
+    private TableReader reader;
+    private int tableIndex = -1;
+
+    public ColumnScrubJob(CairoEngine engine) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.ff = configuration.getFilesFacade();
+        this.clock = configuration.getMicrosecondClock();
+        this.rate = configuration.getColumnScrubRate();
+        this.interval = configuration.getColumnScrubInterval();
+        this.scrubLog = engine.getColumnScrubLog();
+        this.metrics = engine.getMetrics().columnScrub();
+        this.source = new ColumnChecksumSource(ff, MemoryTag.MMAP_DEFAULT);
+        this.lastRunTimestamp = clock.getTicks();
+        assert rate > 0;
+    }
+
+    @Override
+    public void close() {
+        closeTable();
+        if (checksumAddress != 0) {
+            checksumAddress = Unsafe.free(checksumAddress, checksumCapacity, MemoryTag.NATIVE_DEFAULT);
+            checksumCapacity = 0;
+        }
+        path = Misc.free(path);
+    }
+
+    private void closeColumn() {
+        source.close();
+        columnOpen = false;
+    }
+
+    private void closeTable() {
+        closeColumn();
+        reader = Misc.free(reader);
+        entry = null;
+    }
+
+    private void ensureCapacity(long size) {
+        if (size > checksumCapacity) {
+            final long newCapacity = Math.max(size, checksumCapacity * 2);
+            checksumAddress = Unsafe.realloc(checksumAddress, checksumCapacity, newCapacity, MemoryTag.NATIVE_DEFAULT);
+            checksumCapacity = newCapacity;
+        }
+    }
+
+    private void finishPartition() {
+        if (entry != null) {
+            entry.setVerifiedTimestamp(clock.getTicks());
+            metrics.incrementVerifiedPartitions();
+            entry = null;
+        }
+    }
+
+    private boolean isBlockCorrupt(CharSequence columnName, int columnType, long rowLo, long rowHi) {
+        if (source.checksum(rowLo, rowHi) == Unsafe.getUnsafe().getInt(checksumAddress + getBlockOffset(block))) {
+            return false;
+        }
+        // the writer could have been rewriting the checksum file, e.g. when a partition is split,
+        // read the file again to be sure
+        final long rowCount = readChecksums(columnName, reader.getColumnVersionReader().getColumnNameTxn(
+                reader.getTxFile().getPartitionTimestampByIndex(partitionIndex),
+                reader.getMetadata().getWriterIndex(columnIndex)
+        ), columnType);
+        // the block is not covered anymore when the partition has been truncated in place since
+        return rowCount >= rowHi && source.checksum(rowLo, rowHi) != Unsafe.getUnsafe().getInt(checksumAddress + getBlockOffset(block));
+    }
+
+    private boolean openNextColumn() {
+        closeColumn();
+        final TableReaderMetadata metadata = reader.getMetadata();
+        final TxReader txFile = reader.getTxFile();
+        final ColumnVersionReader columnVersionReader = reader.getColumnVersionReader();
+        final long partitionTimestamp = txFile.getPartitionTimestampByIndex(partitionIndex);
+        final long partitionSize = txFile.getPartitionSize(partitionIndex);
+        while (++columnIndex < metadata.getColumnCount()) {
+            final int writerIndex = metadata.getWriterIndex(columnIndex);
+            final long columnTop = columnVersionReader.getColumnTop(partitionTimestamp, writerIndex);
+            if (columnTop < 0 || columnTop >= partitionSize) {
+                // no data of the column in the partition
+                continue;
+            }
+            final String columnName = metadata.getColumnName(columnIndex);
+            final int columnType = metadata.getColumnType(columnIndex);
+            final long columnNameTxn = columnVersionReader.getColumnNameTxn(partitionTimestamp, writerIndex);
+            coveredRowCount = readChecksums(columnName, columnNameTxn, columnType);
+            if (coveredRowCount < partitionSize) {
+                entry.addUnverifiedColumn();
+            }
+            // rows past the partition size, as seen by the reader, could have been appended by later
+            // commits, blocks with such rows are not verified
+            final long rowCount = coveredRowCount <= partitionSize ? coveredRowCount : partitionSize & -blockRowCount;
+            blockCount = getBlockCount(rowCount, blockRowCount);
+            if (blockCount == 0) {
+                continue;
+            }
+            try {
+                source.of(path.trimTo(partitionPathLen), columnName, columnNameTxn, columnType, columnTop, rowCount);
+            } catch (CairoException ex) {
+                LOG.critical().$("could not read column files [table=").utf8(reader.getTableToken().getDirName())
+                        .$(", partition=").$ts(partitionTimestamp)
+                        .$(", column=").utf8(columnName)
+                        .$(", error=").$(ex.getFlyweightMessage())
+                        .$(", errno=").$(ex.getErrno())
+                        .I$();
+                entry.addCorruptBlock(columnName);
+                metrics.addCorruptBlocks(1);
+                continue;
+            }
+            coveredRowCount = rowCount;
+            block = 0;
+            columnOpen = true;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean openNextPartition() {
+        finishPartition();
+        final TxReader txFile = reader.getTxFile();
+        // the last partition is not verified, it is still written to
+        while (++partitionIndex < txFile.getPartitionCount() - 1) {
+            if (txFile.isPartitionCompressed(partitionIndex)) {
+                // checksums describe uncompressed data
+                continue;
+            }
+            final long partitionTimestamp = txFile.getPartitionTimestampByIndex(partitionIndex);
+            path.of(engine.getConfiguration().getRoot()).concat(reader.getTableToken());
+            TableUtils.setPathForPartition(path, reader.getPartitionedBy(), partitionTimestamp, txFile.getPartitionNameTxn(partitionIndex));
+            partitionPathLen = path.length();
+
+            final int n = results.size();
+            results.setPos(n + 1);
+            entry = results.getQuick(n);
+            if (entry == null) {
+                entry = new ColumnScrubLog.Entry();
+                results.setQuick(n, entry);
+            }
+            entry.of(reader.getTableToken().getTableName(), partitionTimestamp);
+            columnIndex = -1;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean openNextTable() {
+        closeTable();
+        while (++tableIndex < tableTokens.size()) {
+            final TableToken tableToken = tableTokens.get(tableIndex);
+            if (engine.isTableDropped(tableToken)) {
+                continue;
+            }
+            try {
+                reader = engine.getReader(tableToken);
+            } catch (CairoException ex) {
+                // the table is dropped or cannot be read at the moment, it will be verified on the next pass
+                continue;
+            }
+            if (!PartitionBy.isPartitioned(reader.getPartitionedBy())) {
+                // the only partition is the last one
+                reader = Misc.free(reader);
+                continue;
+            }
+            results.setPos(0);
+            partitionIndex = -1;
+            return true;
+        }
+        return false;
+    }
+
+    private void publish() {
+        finishPartition();
+        scrubLog.publish(reader.getTableToken(), results);
+        metrics.setCorruptPartitionCount(scrubLog.getCorruptPartitionCount());
+    }
+
+    /**
+     * Reads checksum file of the column in the current partition into the buffer.
+     *
+     * @return number of rows covered by the checksums or 0 when the file is missing or invalid
+     */
+    private long readChecksums(CharSequence columnName, long columnNameTxn, int columnType) {
+        checksumFileName(path.trimTo(partitionPathLen), columnName, columnNameTxn);
+        final int fd = ff.openRO(path);
+        path.trimTo(partitionPathLen);
+        if (fd < 0) {
+            return 0;
+        }
+        try {
+            final long len = ff.length(fd);
+            if (len < HEADER_SIZE) {
+                return 0;
+            }
+            ensureCapacity(len);
+            if (ff.read(fd, checksumAddress, len, 0) != len) {
+                return 0;
+            }
+            final long rowCount = Unsafe.getUnsafe().getLong(checksumAddress + HEADER_OFFSET_ROW_COUNT);
+            blockRowCount = Unsafe.getUnsafe().getInt(checksumAddress + HEADER_OFFSET_BLOCK_ROW_COUNT);
+            if (
+                    Unsafe.getUnsafe().getInt(checksumAddress + HEADER_OFFSET_COLUMN_TYPE) != columnType
+                            || blockRowCount <= 0
+                            || !Numbers.isPow2(blockRowCount)
+                            || rowCount < 0
+                            || getFileSize(rowCount, blockRowCount) > len
+            ) {
+                blockRowCount = 1;
+                return 0;
+            }
+            return rowCount;
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    private void startPass(long now) {
+        passTimestamp = now;
+        tableTokens.clear();
+        engine.getTableTokens(tableTokens, false);
+        scrubLog.retain(tableTokens);
+        tableIndex = -1;
+        LOG.info().$("scrub pass started [tables=").$(tableTokens.size()).I$();
+    }
+
+    private boolean step() {
+        if (reader == null) {
+            if (openNextTable()) {
+                return true;
+            }
+            tableIndex = -1;
+            LOG.info().$("scrub pass finished [tables=").$(tableTokens.size()).I$();
+            return false;
+        }
+
+        if (!columnOpen) {
+            if (entry == null || !openNextColumn()) {
+                if (!openNextPartition()) {
+                    publish();
+                    closeTable();
+                }
+            }
+            return true;
+        }
+
+        final TableReaderMetadata metadata = reader.getMetadata();
+        final String columnName = metadata.getColumnName(columnIndex);
+        final long rowLo = block * blockRowCount;
+        final long rowHi = Math.min(rowLo + blockRowCount, coveredRowCount);
+        final long size = source.getSize(rowLo, rowHi);
+        if (isBlockCorrupt(columnName, metadata.getColumnType(columnIndex), rowLo, rowHi)) {
+            LOG.critical().$("column checksum mismatch [table=").utf8(reader.getTableToken().getDirName())
+                    .$(", partition=").$ts(reader.getTxFile().getPartitionTimestampByIndex(partitionIndex))
+                    .$(", column=").utf8(columnName)
+                    .$(", rowLo=").$(rowLo)
+                    .$(", rowHi=").$(rowHi)
+                    .I$();
+            entry.addCorruptBlock(columnName);
+            metrics.addCorruptBlocks(1);
+        }
+        entry.addVerifiedBytes(size);
+        metrics.addVerifiedBytes(size);
+        budget -= size;
+        if (++block == blockCount) {
+            closeColumn();
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long now = clock.getTicks();
+        if (tableIndex < 0) {
+            if (passTimestamp != Long.MIN_VALUE && now - passTimestamp < interval) {
+                lastRunTimestamp = now;
+                return false;
+            }
+            startPass(now);
+        }
+
+        // the budget is refilled at the configured rate, it never holds more than a second worth of reads
+        final long elapsed = Math.min(Math.max(now - lastRunTimestamp, 0), 1_000_000);
+        budget = Math.min(budget + elapsed * rate / 1_000_000, rate);
+        lastRunTimestamp = now;
+        if (budget <= 0) {
+            return false;
+        }
+
+        try {
+            return step();
+        } catch (Throwable th) {
+            LOG.error().$("could not scrub table [table=").utf8(reader != null ? reader.getTableToken().getDirName() : "")
+                    .$(", error=").$(th)
+                    .I$();
+            closeTable();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.CharSequenceObjHashMap;
+import io.questdb.std.Mutable;
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.ObjList;
+
+/**
+ * Latest scrub results of table partitions, see {@link ColumnScrubJob}. The scrub job publishes
+ * results of a table once it has verified all of its partitions. The results are shown by the
+ * partition_scrub_status() function.
+ */
+public class ColumnScrubLog {
+    public static final int STATUS_CORRUPT = 2;
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_UNVERIFIED = 1;
+    private static final String[] STATUS_NAMES = {"ok", "unverified", "corrupt"};
+    private final CharSequenceObjHashMap<ObjList<Entry>> tables = new CharSequenceObjHashMap<>();
+    private int corruptPartitionCount;
+
+    public static String getStatusName(int status) {
+        return STATUS_NAMES[status];
+    }
+
+    /**
+     * Copies all results to the sink, entries of the sink are reused.
+     *
+     * @param sink list to copy the results to, it is resized to the number of results
+     */
+    public synchronized void copyTo(ObjList<Entry> sink) {
+        int n = 0;
+        final ObjList<CharSequence> keys = tables.keys();
+        for (int i = 0, k = keys.size(); i < k; i++) {
+            final ObjList<Entry> entries = tables.get(keys.getQuick(i));
+            for (int j = 0, m = entries.size(); j < m; j++) {
+                Entry entry = sink.getQuiet(n);
+                if (entry == null) {
+                    entry = new Entry();
+                    sink.extendAndSet(n, entry);
+                }
+                entry.copyFrom(entries.getQuick(j));
+                n++;
+            }
+        }
+        sink.setPos(n);
+    }
+
+    public synchronized int getCorruptPartitionCount() {
+        return corruptPartitionCount;
+    }
+
+    /**
+     * Replaces results of a table.
+     *
+     * @param tableToken table the results belong to
+     * @param results    results of the table partitions, they are copied
+     */
+    public synchronized void publish(TableToken tableToken, ObjList<Entry> results) {
+        ObjList<Entry> entries = tables.get(tableToken.getDirName());
+        if (entries == null) {
+            entries = new ObjList<>();
+            tables.put(tableToken.getDirName(), entries);
+        }
+        corruptPartitionCount -= countCorrupt(entries);
+        for (int i = 0, n = results.size(); i < n; i++) {
+            Entry entry = entries.getQuiet(i);
+            if (entry == null) {
+                entry = new Entry();
+                entries.extendAndSet(i, entry);
+            }
+            entry.copyFrom(results.getQuick(i));
+        }
+        entries.setPos(results.size());
+        corruptPartitionCount += countCorrupt(entries);
+    }
+
+    /**
+     * Removes results of the tables which are not in the set, e.g. dropped tables.
+     */
+    public synchronized void retain(ObjHashSet<TableToken> tableTokens) {
+        final ObjList<CharSequence> keys = tables.keys();
+        for (int i = keys.size() - 1; i > -1; i--) {
+            final CharSequence dirName = keys.getQuick(i);
+            boolean found = false;
+            for (int j = 0, n = tableTokens.size(); j < n; j++) {
+                if (tableTokens.get(j).getDirName().equals(dirName)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                corruptPartitionCount -= countCorrupt(tables.get(dirName));
+                tables.remove(dirName);
+            }
+        }
+    }
+
+    private static int countCorrupt(ObjList<Entry> entries) {
+        int count = 0;
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            if (entries.getQuick(i).status == STATUS_CORRUPT) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static class Entry implements Mutable {
+        private long corruptBlocks;
+        private String corruptColumn;
+        private long partitionTimestamp;
+        private int status;
+        private String tableName;
+        private int unverifiedColumns;
+        private long verifiedBytes;
+        private long verifiedTimestamp;
+
+        @Override
+        public void clear() {
+            tableName = null;
+            partitionTimestamp = Long.MIN_VALUE;
+            status = STATUS_OK;
+            verifiedTimestamp = Long.MIN_VALUE;
+            verifiedBytes = 0;
+            corruptBlocks = 0;
+            unverifiedColumns = 0;
+            corruptColumn = null;
+        }
+
+        public long getCorruptBlocks() {
+            return corruptBlocks;
+        }
+
+        public String getCorruptColumn() {
+            return corruptColumn;
+        }
+
+        public long getPartitionTimestamp() {
+            return partitionTimestamp;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public int getUnverifiedColumns() {
+            return unverifiedColumns;
+        }
+
+        public long getVerifiedBytes() {
+            return verifiedBytes;
+        }
+
+        public long getVerifiedTimestamp() {
+            return verifiedTimestamp;
+        }
+
+        public void of(String tableName, long partitionTimestamp) {
+            clear();
+            this.tableName = tableName;
+            this.partitionTimestamp = partitionTimestamp;
+        }
+
+        void addCorruptBlock(String columnName) {
+            corruptBlocks++;
+            if (corruptColumn == null) {
+                corruptColumn = columnName;
+            }
+            status = STATUS_CORRUPT;
+        }
+
+        void addUnverifiedColumn() {
+            unverifiedColumns++;
+            if (status == STATUS_OK) {
+                status = STATUS_UNVERIFIED;
+            }
+        }
+
+        void addVerifiedBytes(long bytes) {
+            verifiedBytes += bytes;
+        }
+
+        void setVerifiedTimestamp(long verifiedTimestamp) {
+            this.verifiedTimestamp = verifiedTimestamp;
+        }
+
+        private void copyFrom(Entry other) {
+            tableName = other.tableName;
+            partitionTimestamp = other.partitionTimestamp;
+            status = other.status;
+            verifiedTimestamp = other.verifiedTimestamp;
+            verifiedBytes = other.verifiedBytes;
+            corruptBlocks = other.corruptBlocks;
+            unverifiedColumns = other.unverifiedColumns;
+            corruptColumn = other.corruptColumn;
+        }
+    }
+}
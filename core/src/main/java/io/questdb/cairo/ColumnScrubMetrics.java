@@ -0,0 +1,72 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.LongGauge;
+import io.questdb.metrics.MetricsRegistry;
+
+public class ColumnScrubMetrics {
+    private final Counter corruptBlockCounter;
+    private final LongGauge corruptPartitionGauge;
+    private final Counter verifiedBytesCounter;
+    private final Counter verifiedPartitionCounter;
+
+    public ColumnScrubMetrics(MetricsRegistry metricsRegistry) {
+        this.verifiedBytesCounter = metricsRegistry.newCounter("scrub_verified_bytes");
+        this.verifiedPartitionCounter = metricsRegistry.newCounter("scrub_verified_partitions");
+        this.corruptBlockCounter = metricsRegistry.newCounter("scrub_corrupt_blocks");
+        this.corruptPartitionGauge = metricsRegistry.newLongGauge("scrub_corrupt_partitions");
+    }
+
+    public void addCorruptBlocks(long blocks) {
+        corruptBlockCounter.add(blocks);
+    }
+
+    public void addVerifiedBytes(long bytes) {
+        verifiedBytesCounter.add(bytes);
+    }
+
+    public long getCorruptBlockCount() {
+        return corruptBlockCounter.getValue();
+    }
+
+    public long getVerifiedBytes() {
+        return verifiedBytesCounter.getValue();
+    }
+
+    public long getVerifiedPartitionCount() {
+        return verifiedPartitionCounter.getValue();
+    }
+
+    public void incrementVerifiedPartitions() {
+        verifiedPartitionCounter.inc();
+    }
+
+    public void setCorruptPartitionCount(long count) {
+        corruptPartitionGauge.setValue(count);
+    }
+}
@@ -55,6 +55,7 @@ import static io.questdb.cairo.wal.seq.TableTransactionLog.MAX_TXN_OFFSET;
 public class DatabaseSnapshotAgentImpl implements DatabaseSnapshotAgent {
 
     private final static Log LOG = LogFactory.getLog(DatabaseSnapshotAgentImpl.class);
+    private static final String TMP_SUFFIX = ".tmp";
     private final CairoConfiguration configuration;
     private final CairoEngine engine;
     private final FilesFacade ff;
@@ -63,6 +64,8 @@ public class DatabaseSnapshotAgentImpl implements DatabaseSnapshotAgent {
     private final WalWriterMetadata metadata; // protected with #lock
     private final StringSink nameSink = new StringSink(); // protected with #lock
     private final Path path = new Path(); // protected with #lock
+    private final TxReader prevTxReader; // protected with #lock
+    private final Path srcPath = new Path(); // protected with #lock
     private final GrowOnlyTableNameRegistryStore tableNameRegistryStore; // protected with #lock
     private SimpleWaitingLock walPurgeJobRunLock = null; // used as a suspend/resume handler for the WalPurgeJob
 
@@ -71,6 +74,7 @@ public class DatabaseSnapshotAgentImpl implements DatabaseSnapshotAgent {
         this.configuration = engine.getConfiguration();
         this.ff = configuration.getFilesFacade();
         this.metadata = new WalWriterMetadata(ff);
+        this.prevTxReader = new TxReader(ff);
         this.tableNameRegistryStore = new GrowOnlyTableNameRegistryStore(ff);
     }
 
@@ -89,6 +93,8 @@ public class DatabaseSnapshotAgentImpl implements DatabaseSnapshotAgent {
         lock.lock();
         try {
             Misc.free(path);
+            Misc.free(srcPath);
+            Misc.free(prevTxReader);
             Misc.free(metadata);
             Misc.free(tableNameRegistryStore);
         } finally {
@@ -169,6 +175,7 @@ public class DatabaseSnapshotAgentImpl implements DatabaseSnapshotAgent {
                     }
                 }
 
+                final boolean hardLinkEnabled = configuration.isSnapshotHardLinkEnabled();
                 try {
                     // Prepare table name registry for copying.
                     path.trimTo(snapshotDbLen).$();
@@ -178,8 +185,27 @@ public class DatabaseSnapshotAgentImpl implements DatabaseSnapshotAgent {
                     try (
                             TableListRecordCursorFactory factory = new TableListRecordCursorFactory();
                             RecordCursor cursor = factory.getCursor(executionContext);
-                            MemoryCMARW mem = Vm.getCMARWInstance()
+                            MemoryCMARW mem = Vm.getCMARWInstance();
+                            MemoryCMARW changesMem = Vm.getCMARWInstance()
                     ) {
+                        if (hardLinkEnabled) {
+                            // _txn files of this snapshot are collected in snapshot/txn.tmp dir, they replace
+                            // the snapshot/txn dir of the previous snapshot once this one is prepared.
+                            path.of(configuration.getSnapshotRoot()).concat(TableUtils.SNAPSHOT_TXN_DIR).put(TMP_SUFFIX);
+                            int txnDirLen = path.length();
+                            if (ff.exists(path.slash$())) {
+                                path.trimTo(txnDirLen).$();
+                                if (!ff.rmdir(path)) {
+                                    throw CairoException.critical(ff.errno()).put("could not remove [dir=").put(path).put(']');
+                                }
+                            }
+                            if (ff.mkdirs(path.trimTo(txnDirLen).slash$(), configuration.getMkDirMode()) != 0) {
+                                throw CairoException.critical(ff.errno()).put("could not create [dir=").put(path).put(']');
+                            }
+                            path.of(configuration.getSnapshotRoot()).concat(configuration.getDbDirectory()).concat(TableUtils.SNAPSHOT_CHANGES_FILE_NAME).$();
+                            changesMem.smallFile(ff, path, MemoryTag.MMAP_DEFAULT);
+                        }
+
                         final int tableNameIndex = factory.getMetadata().getColumnIndex(TableListRecordCursorFactory.TABLE_NAME_COLUMN);
                         final Record record = cursor.getRecord();
 
@@ -224,6 +250,10 @@ public class DatabaseSnapshotAgentImpl implements DatabaseSnapshotAgent {
                                         mem.smallFile(ff, path, MemoryTag.MMAP_DEFAULT);
                                         reader.getColumnVersionReader().dumpTo(mem);
                                         mem.close(false);
+                                        if (hardLinkEnabled) {
+                                            // The reader keeps the partitions from being purged while they are linked.
+                                            snapshotPartitions(reader, tableToken, rootLen, snapshotDbLen, changesMem);
+                                        }
                                         break;
                                     } catch (EntryLockedException e) {
                                         LOG.info().$("waiting for locked table [table=").$(tableName).I$();
@@ -246,6 +276,16 @@ public class DatabaseSnapshotAgentImpl implements DatabaseSnapshotAgent {
                                     mem.smallFile(ff, path.concat(TableUtils.TXN_FILE_NAME).$(), MemoryTag.MMAP_DEFAULT);
                                     mem.putLong(lastTxn); // write lastTxn to snapshot/db/tableName/txn_seq/_txn
                                     mem.close(true, Vm.TRUNCATE_TO_POINTER);
+
+                                    if (hardLinkEnabled) {
+                                        snapshotSequencerFiles(tableToken, rootLen, lastTxn, mem);
+                                    }
+                                }
+
+                                if (hardLinkEnabled) {
+                                    // Symbol files and WAL segments are taken after the sequencer txn
+                                    // to contain everything the snapshot's _txn files refer to.
+                                    snapshotTableFiles(tableToken, rootLen, isWalTable);
                                 }
                             } else {
                                 LOG.error().$("skipping, invalid table name or missing metadata [table=").$(tableName).I$();
@@ -257,6 +297,11 @@ public class DatabaseSnapshotAgentImpl implements DatabaseSnapshotAgent {
                         mem.putStr(configuration.getSnapshotInstanceId());
                         mem.close();
 
+                        if (hardLinkEnabled) {
+                            changesMem.close(true, Vm.TRUNCATE_TO_POINTER);
+                            completeHardLinkSnapshot();
+                        }
+
                         // Flush dirty pages and filesystem metadata to disk
                         if (ff.sync() != 0) {
                             throw CairoException.critical(ff.errno()).put("Could not sync");
@@ -499,4 +544,176 @@ public class DatabaseSnapshotAgentImpl implements DatabaseSnapshotAgent {
             }
         }
     }
+
+    private static boolean isPartitionChanged(TxReader txFile, int partitionIndex, @Nullable TxReader prevTxFile) {
+        if (prevTxFile == null) {
+            return true;
+        }
+        final int prevPartitionIndex = prevTxFile.findAttachedPartitionIndexByLoTimestamp(txFile.getPartitionTimestampByIndex(partitionIndex));
+        if (prevPartitionIndex < 0) {
+            return true;
+        }
+        // O3 writes and squashing bump partition name txn, UPDATE bumps partition column version
+        return prevTxFile.getPartitionNameTxn(prevPartitionIndex) != txFile.getPartitionNameTxn(partitionIndex)
+                || prevTxFile.getPartitionSize(prevPartitionIndex) != txFile.getPartitionSize(partitionIndex)
+                || prevTxFile.getPartitionColumnVersion(prevPartitionIndex) != txFile.getPartitionColumnVersion(partitionIndex);
+    }
+
+    private static boolean isSnapshotTableFile(CharSequence fileName) {
+        // _meta, _txn and _cv are dumped from the table reader, the rest are files of a live table
+        return !Chars.startsWith(fileName, TableUtils.META_FILE_NAME)
+                && !Chars.equals(fileName, TableUtils.TXN_FILE_NAME)
+                && !Chars.equals(fileName, TableUtils.COLUMN_VERSION_FILE_NAME)
+                && !Chars.equals(fileName, TableUtils.TXN_SCOREBOARD_FILE_NAME)
+                && !Chars.equals(fileName, TableUtils.TODO_FILE_NAME);
+    }
+
+    private void completeHardLinkSnapshot() {
+        // Table index keeps table ids unique when the snapshot is started as a database.
+        srcPath.of(configuration.getRoot()).concat(TableUtils.TAB_INDEX_FILE_NAME).$();
+        if (ff.exists(srcPath)) {
+            path.of(configuration.getSnapshotRoot()).concat(configuration.getDbDirectory()).concat(TableUtils.TAB_INDEX_FILE_NAME).$();
+            copyFile();
+        }
+
+        // Replace _txn files of the previous snapshot with the ones of this snapshot.
+        path.of(configuration.getSnapshotRoot()).concat(TableUtils.SNAPSHOT_TXN_DIR);
+        final int txnDirLen = path.length();
+        if (ff.exists(path.slash$())) {
+            path.trimTo(txnDirLen).$();
+            if (!ff.rmdir(path)) {
+                throw CairoException.critical(ff.errno()).put("could not remove [dir=").put(path).put(']');
+            }
+        }
+        path.trimTo(txnDirLen).$();
+        srcPath.of(configuration.getSnapshotRoot()).concat(TableUtils.SNAPSHOT_TXN_DIR).put(TMP_SUFFIX).$();
+        if (ff.rename(srcPath, path) != Files.FILES_RENAME_OK) {
+            throw CairoException.critical(ff.errno()).put("could not rename [from=").put(srcPath).put(", to=").put(path).put(']');
+        }
+    }
+
+    private void copyDir() {
+        if (ff.copyRecursive(srcPath, path, configuration.getMkDirMode()) != 0) {
+            throw CairoException.critical(ff.errno()).put("could not copy [from=").put(srcPath).put(", to=").put(path).put(']');
+        }
+    }
+
+    private void copyFile() {
+        if (ff.copy(srcPath, path) < 0) {
+            throw CairoException.critical(ff.errno()).put("could not copy [from=").put(srcPath).put(", to=").put(path).put(']');
+        }
+    }
+
+    private void linkDir() {
+        if (ff.hardLinkDirRecursive(srcPath, path, configuration.getMkDirMode()) != 0) {
+            if (ff.isCrossDeviceCopyError(ff.errno())) {
+                // Cross drive operation, e.g. partition on another volume. Make full copy.
+                copyDir();
+            } else {
+                throw CairoException.critical(ff.errno()).put("could not create hard link [from=").put(srcPath).put(", to=").put(path).put(']');
+            }
+        }
+    }
+
+    private void snapshotPartitions(TableReader reader, TableToken tableToken, int snapshotTableLen, int snapshotDbLen, MemoryCMARW changesMem) {
+        final TxReader txFile = reader.getTxFile();
+        final int partitionBy = reader.getPartitionedBy();
+
+        // Load _txn of the previous snapshot to find partitions changed since then.
+        srcPath.of(configuration.getSnapshotRoot()).concat(TableUtils.SNAPSHOT_TXN_DIR).concat(tableToken).concat(TableUtils.TXN_FILE_NAME).$();
+        TxReader prevTxFile = null;
+        try {
+            if (ff.exists(srcPath)) {
+                prevTxReader.ofRO(srcPath, partitionBy);
+                if (prevTxReader.unsafeLoadAll()) {
+                    prevTxFile = prevTxReader;
+                }
+            }
+
+            srcPath.of(configuration.getRoot()).concat(tableToken);
+            final int tableLen = srcPath.length();
+            for (int i = 0, n = txFile.getPartitionCount(); i < n; i++) {
+                final long timestamp = txFile.getPartitionTimestampByIndex(i);
+                final long nameTxn = txFile.getPartitionNameTxn(i);
+                TableUtils.setPathForPartition(srcPath.trimTo(tableLen), partitionBy, timestamp, nameTxn);
+                if (!ff.exists(srcPath.$())) {
+                    // non-partitioned table without rows
+                    continue;
+                }
+                TableUtils.setPathForPartition(path.trimTo(snapshotTableLen), partitionBy, timestamp, nameTxn);
+                if (i < n - 1) {
+                    // Committed rows are never rewritten in place, O3 writes and updates create
+                    // new partition and column versions, so the files can be shared via hard links.
+                    // O3 writes do not split these partitions, see TableWriter.canSplitMidPartition().
+                    linkDir();
+                } else {
+                    // The writer keeps appending to the last partition, copy it to keep the snapshot
+                    // from growing along with the table.
+                    copyDir();
+                }
+                if (isPartitionChanged(txFile, i, prevTxFile)) {
+                    // snapshot/db/_snapshot_changes lists tableDir/partitionDir, one per line
+                    changesMem.putBlockOfBytes(path.address() + snapshotDbLen + 1, path.length() - snapshotDbLen - 1);
+                    changesMem.putByte((byte) '\n');
+                }
+            }
+        } finally {
+            prevTxReader.clear();
+        }
+
+        // Keep _txn of this snapshot for the next one.
+        srcPath.of(configuration.getSnapshotRoot()).concat(TableUtils.SNAPSHOT_TXN_DIR).put(TMP_SUFFIX).concat(tableToken).slash$();
+        if (ff.mkdirs(srcPath, configuration.getMkDirMode()) != 0) {
+            throw CairoException.critical(ff.errno()).put("could not create [dir=").put(srcPath).put(']');
+        }
+        srcPath.concat(TableUtils.TXN_FILE_NAME).$();
+        path.trimTo(snapshotTableLen).concat(TableUtils.TXN_FILE_NAME).$();
+        if (ff.copy(path, srcPath) < 0) {
+            throw CairoException.critical(ff.errno()).put("could not copy [from=").put(path).put(", to=").put(srcPath).put(']');
+        }
+    }
+
+    private void snapshotSequencerFiles(TableToken tableToken, int snapshotTableLen, long lastTxn, MemoryCMARW mem) {
+        srcPath.of(configuration.getRoot()).concat(tableToken).concat(WalUtils.SEQ_DIR);
+        final int srcSeqLen = srcPath.length();
+        path.trimTo(snapshotTableLen).concat(WalUtils.SEQ_DIR);
+        final int seqLen = path.length();
+        ff.iterateDir(srcPath.$(), (pUtf8NameZ, type) -> {
+            if (type == Files.DT_FILE) {
+                nameSink.clear();
+                Chars.utf8ToUtf16Z(pUtf8NameZ, nameSink);
+                // _meta is dumped from the sequencer, _txn is the snapshot's own file
+                if (!Chars.equals(nameSink, TableUtils.META_FILE_NAME) && !Chars.equals(nameSink, TableUtils.TXN_FILE_NAME)) {
+                    srcPath.trimTo(srcSeqLen).concat(pUtf8NameZ).$();
+                    path.trimTo(seqLen).concat(pUtf8NameZ).$();
+                    copyFile();
+                }
+            }
+        });
+        // The copied txn log may have transactions committed after the sequencer metadata was dumped.
+        path.trimTo(seqLen);
+        openSmallFile(ff, path, seqLen, mem, TXNLOG_FILE_NAME, MemoryTag.MMAP_TX_LOG);
+        mem.putLong(MAX_TXN_OFFSET, lastTxn);
+        mem.close(false);
+    }
+
+    private void snapshotTableFiles(TableToken tableToken, int snapshotTableLen, boolean isWalTable) {
+        srcPath.of(configuration.getRoot()).concat(tableToken);
+        final int srcTableLen = srcPath.length();
+        ff.iterateDir(srcPath.$(), (pUtf8NameZ, type) -> {
+            nameSink.clear();
+            Chars.utf8ToUtf16Z(pUtf8NameZ, nameSink);
+            if (type == Files.DT_FILE && isSnapshotTableFile(nameSink)) {
+                // symbol maps, table name file etc.
+                srcPath.trimTo(srcTableLen).concat(pUtf8NameZ).$();
+                path.trimTo(snapshotTableLen).concat(pUtf8NameZ).$();
+                copyFile();
+            } else if (isWalTable && type == Files.DT_DIR && WalUtils.matchesWalNamePattern(nameSink)) {
+                // WAL segments are only appended to, the sequencer txn log limits what's read from them
+                srcPath.trimTo(srcTableLen).concat(pUtf8NameZ);
+                path.trimTo(snapshotTableLen).concat(pUtf8NameZ);
+                linkDir();
+            }
+        });
+    }
 }
@@ -33,8 +33,10 @@ import io.questdb.std.*;
 import io.questdb.std.datetime.DateFormat;
 import io.questdb.std.datetime.DateLocale;
 import io.questdb.std.datetime.microtime.MicrosecondClockImpl;
+import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.datetime.millitime.DateFormatUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.LongSupplier;
 
@@ -133,6 +135,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 32;
     }
 
+    @Override
+    public int getColumnChecksumBlockRowCount() {
+        return 65536;
+    }
+
     @Override
     public int getColumnIndexerQueueCapacity() {
         return 1024;
@@ -163,6 +170,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return getColumnPurgeQueueCapacity();
     }
 
+    @Override
+    public long getColumnScrubInterval() {
+        return 24 * 3600 * 1_000_000L;
+    }
+
+    @Override
+    public long getColumnScrubRate() {
+        return 16 * Numbers.SIZE_1MB;
+    }
+
     @Override
     public int getCommitMode() {
         return CommitMode.NOSYNC;
@@ -404,6 +421,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return Integer.MAX_VALUE;
     }
 
+    @Override
+    public int getO3MidPartitionMaxSplits() {
+        return 8;
+    }
+
     @Override
     public long getO3MinLag() {
         return 1_000_000;
@@ -419,6 +441,12 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1024;
     }
 
+    @Override
+    public long getO3PartitionSquashQuietPeriod() {
+        // 30 sec
+        return 30_000_000L;
+    }
+
     @Override
     public int getO3PurgeDiscoveryQueueCapacity() {
         return 1024;
@@ -459,6 +487,23 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 64;
     }
 
+    @Override
+    public long getPartitionTieringAge() {
+        // 7 days
+        return 7 * Timestamps.DAY_MICROS;
+    }
+
+    @Override
+    public long getPartitionTieringCheckInterval() {
+        // 1 min
+        return 60_000_000L;
+    }
+
+    @Override
+    public @Nullable CharSequence getPartitionTieringVolumePath() {
+        return null;
+    }
+
     @Override
     public int getQueryCacheEventQueueCapacity() {
         return 4;
@@ -731,6 +776,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1_000;
     }
 
+    @Override
+    public int getSqlPageFrameReadAheadCount() {
+        return 2;
+    }
+
     @Override
     public int getSqlSmallMapKeyCapacity() {
         return 64;
@@ -761,6 +811,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 8 * Numbers.SIZE_1MB;
     }
 
+    @Override
+    public long getSqlSortMemoryBudget() {
+        return 512 * Numbers.SIZE_1MB;
+    }
+
+    @Override
+    public long getSqlSortSpillMaxSize() {
+        return 16 * Numbers.SIZE_1GB;
+    }
+
     @Override
     public int getSqlSortValueMaxPages() {
         return 1024;
@@ -831,6 +891,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1000L;
     }
 
+    @Override
+    public long getWalBackpressureDelay() {
+        return 1000L;
+    }
+
+    @Override
+    public long getWalBackpressureTxnLag() {
+        return 0;
+    }
+
     @Override
     public long getWalDataAppendPageSize() {
         return 1024 * 1024;
@@ -915,6 +985,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1024 - 1;
     }
 
+    @Override
+    public int getZoneMapBlockRowCount() {
+        return 65536;
+    }
+
+    @Override
+    public boolean isColumnChecksumEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isIOURingEnabled() {
         return true;
@@ -940,6 +1020,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return false;
     }
 
+    @Override
+    public boolean isSnapshotHardLinkEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isSnapshotRecoveryEnabled() {
         return true;
@@ -950,6 +1035,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return false;
     }
 
+    @Override
+    public boolean isSqlParallelAsOfJoinEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isSqlParallelFilterEnabled() {
         return true;
@@ -960,16 +1050,41 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isSqlParallelGroupByEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isSqlParallelSortEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isTableTypeConversionEnabled() {
         return true;
     }
 
+    @Override
+    public boolean isWalApplyBatchEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isWalApplyEnabled() {
         return true;
     }
 
+    @Override
+    public boolean isWalSegmentCompressionEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isWalSupported() {
         return true;
@@ -980,6 +1095,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return writerMixedIOEnabled;
     }
 
+    @Override
+    public boolean isZoneMapEnabled() {
+        return true;
+    }
+
     @Override
     public boolean mangleTableDirNames() {
         return false;
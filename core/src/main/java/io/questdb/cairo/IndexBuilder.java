@@ -128,6 +128,7 @@ public class IndexBuilder extends RebuildColumnBase {
             ColumnVersionReader columnVersionReader,
             int columnWriterIndex,
             CharSequence columnName,
+            int columnType,
             long partitionNameTxn,
             long partitionSize,
             long partitionTimestamp,
@@ -156,14 +157,21 @@ public class IndexBuilder extends RebuildColumnBase {
                                     ff,
                                     path,
                                     0,
-                                    (partitionSize - columnTop) * Integer.BYTES,
+                                    (partitionSize - columnTop) << ColumnType.pow2SizeOf(columnType),
                                     MemoryTag.MMAP_TABLE_WRITER
                             );
-                            try {
-                                indexer.configureWriter(path.trimTo(plen), columnName, columnNameTxn, columnTop);
-                                indexer.index(roMem, columnTop, partitionSize);
-                            } finally {
-                                indexer.clear();
+                            if (ColumnType.isSymbol(columnType)) {
+                                try {
+                                    indexer.configureWriter(path.trimTo(plen), columnName, columnNameTxn, columnTop);
+                                    indexer.index(roMem, columnTop, partitionSize);
+                                } finally {
+                                    indexer.clear();
+                                }
+                            } else {
+                                try (ValueColumnIndexer valueIndexer = new ValueColumnIndexer(configuration, columnType)) {
+                                    valueIndexer.configureWriter(path.trimTo(plen), columnName, columnNameTxn, columnTop);
+                                    valueIndexer.index(roMem, columnTop, partitionSize);
+                                }
                             }
                         }
                     } else {
@@ -204,6 +204,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
         copyTail(
                 columnCounter,
                 partCounter,
+                columnType,
                 timestampMergeIndexAddr,
                 timestampMergeIndexSize,
                 srcDataFixFd,
@@ -429,6 +430,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
     private static void copyTail(
             AtomicInteger columnCounter,
             @Nullable AtomicInteger partCounter,
+            int columnType,
             long timestampMergeIndexAddr,
             long timestampMergeIndexSize,
             int srcDataFixFd,
@@ -466,6 +468,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
             if (indexBlockCapacity > -1) {
                 updateIndex(
                         columnCounter,
+                        columnType,
                         timestampMergeIndexAddr,
                         timestampMergeIndexSize,
                         srcDataFixFd,
@@ -754,6 +757,7 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
 
     private static void updateIndex(
             AtomicInteger columnCounter,
+            int columnType,
             long timestampMergeIndexAddr,
             long timestampMergeIndexSize,
             int srcDataFixFd,
@@ -781,13 +785,18 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
     ) {
         // dstKFd & dstVFd are closed by the indexer
         try {
-            long row = dstIndexOffset / Integer.BYTES;
+            final int type = Math.abs(columnType);
+            long row = dstIndexOffset >> ColumnType.pow2SizeOf(type);
             boolean closed = !indexWriter.isOpen();
             if (closed) {
                 indexWriter.of(tableWriter.getConfiguration(), dstKFd, dstVFd, row == 0, indexBlockCapacity);
             }
             try {
-                updateIndex(dstFixAddr, dstFixSize, indexWriter, dstIndexOffset / Integer.BYTES, dstIndexAdjust);
+                if (ColumnType.isSymbol(type)) {
+                    updateIndex(dstFixAddr, dstFixSize, indexWriter, row, dstIndexAdjust);
+                } else {
+                    updateValueIndex(type, dstFixAddr, dstFixSize, indexWriter, row, dstIndexAdjust);
+                }
                 indexWriter.commit();
             } finally {
                 if (closed) {
@@ -878,6 +887,17 @@ public class O3CopyJob extends AbstractQueueConsumerJob<O3CopyTask> {
         }
     }
 
+    private static void updateValueIndex(int columnType, long dstFixAddr, long dstFixSize, BitmapIndexWriter w, long row, long rowAdjust) {
+        w.rollbackConditionally(row + rowAdjust);
+        final int shl = ColumnType.pow2SizeOf(columnType);
+        final long count = dstFixSize >> shl;
+        final int bucketMask = ValueIndexUtils.getBucketMask(w.getValueBlockCapacity());
+        for (; row < count; row++) {
+            w.add(ValueIndexUtils.getIndexKey(columnType, dstFixAddr + (row << shl), bucketMask), row + rowAdjust);
+        }
+        w.setMaxValue(row + rowAdjust);
+    }
+
     static void closeColumnIdle(
             AtomicInteger columnCounter,
             long timestampMergeIndexAddr,
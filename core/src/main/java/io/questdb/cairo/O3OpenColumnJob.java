@@ -1366,7 +1366,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             }
 
             srcDataTopOffset = srcDataTop << shl;
-            dstIndexAdjust = srcDataTopOffset >> 2;
+            dstIndexAdjust = srcDataTopOffset >> shl;
 
             dFile(pathToNewPartition.trimTo(pNewLen), columnName, columnNameTxn);
             dstFixFd = openRW(ff, pathToNewPartition, LOG, tableWriter.getConfiguration().getWriterFileOpenOpts());
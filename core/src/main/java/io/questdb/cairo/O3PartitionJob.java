@@ -507,6 +507,7 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
                 boolean partitionSplit = false;
 
                 if (prefixType == O3_BLOCK_DATA
+                        && (last || tableWriter.canSplitMidPartition())
                         && prefixHi >= tableWriter.getPartitionO3SplitThreshold()
                         && prefixHi > 2 * (mergeDataHi - mergeDataLo + suffixHi - suffixLo + mergeO3Hi - mergeO3Lo)
                 ) {
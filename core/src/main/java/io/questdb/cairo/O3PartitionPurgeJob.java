@@ -34,6 +34,7 @@ import io.questdb.std.datetime.DateFormat;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.StringSink;
 import io.questdb.tasks.O3PartitionPurgeTask;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -117,6 +118,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
     private static void processDetachedPartition(
             FilesFacade ff,
             Path path,
+            @Nullable CharSequence volumePath,
             int tableRootLen,
             TxReader txReader,
             TxnScoreboard txnScoreboard,
@@ -145,7 +147,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
                 // -1 here is to compensate +1 added when partition version parsed from folder name
                 // See comments of why +1 added there in parsePartitionDateVersion()
                 LOG.info().$("purging dropped partition directory [path=").utf8(path).I$();
-                ff.unlinkOrRemove(path, LOG);
+                TableUtils.removePartitionDir(ff, path, volumePath, LOG);
                 lastTxn = nameTxn;
             } else {
                 LOG.info().$("cannot purge partition directory, locked for reading [path=").utf8(path).I$();
@@ -157,6 +159,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
     private static void processPartition(
             FilesFacade ff,
             Path path,
+            @Nullable CharSequence volumePath,
             int tableRootLen,
             TxReader txReader,
             TxnScoreboard txnScoreboard,
@@ -171,6 +174,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
             processPartition0(
                     ff,
                     path,
+                    volumePath,
                     tableRootLen,
                     txReader,
                     txnScoreboard,
@@ -184,6 +188,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
             processDetachedPartition(
                     ff,
                     path,
+                    volumePath,
                     tableRootLen,
                     txReader,
                     txnScoreboard,
@@ -199,6 +204,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
     private static void processPartition0(
             FilesFacade ff,
             Path path,
+            @Nullable CharSequence volumePath,
             int tableRootLen,
             TxReader txReader,
             TxnScoreboard txnScoreboard,
@@ -230,7 +236,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
                     // -1 here is to compensate +1 added when partition version parsed from folder name
                     // See comments of why +1 added there in parsePartitionDateVersion()
                     LOG.info().$("purging overwritten partition directory [path=").utf8(path).I$();
-                    ff.unlinkOrRemove(path, LOG);
+                    TableUtils.removePartitionDir(ff, path, volumePath, LOG);
                 } else {
                     LOG.info().$("cannot purge overwritten partition directory, locked for reading [path=").utf8(path).I$();
                 }
@@ -291,6 +297,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
                         processPartition(
                                 ff,
                                 path,
+                                configuration.getPartitionTieringVolumePath(),
                                 tableRootLen,
                                 txReader,
                                 txnScoreboard,
@@ -310,6 +317,7 @@ public class O3PartitionPurgeJob extends AbstractQueueConsumerJob<O3PartitionPur
                 processPartition(
                         ff,
                         path,
+                        configuration.getPartitionTieringVolumePath(),
                         tableRootLen,
                         txReader,
                         txnScoreboard,
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.Os;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.tasks.O3PartitionSquashTask;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Squashes O3 partition splits off the commit path. Writers publish tables which have split
+ * partitions other than the last one. The job keeps these tables and, once a split partition
+ * receives no O3 writes for the configured quiet period, appends the splits back to the partition.
+ * Tables with the writer or the partitions being busy are retried on the next check.
+ */
+public class O3PartitionSquashJob extends SynchronizedJob {
+    public static final String SQUASH_REASON = "o3 partition squash";
+    private static final Log LOG = LogFactory.getLog(O3PartitionSquashJob.class);
+    private final long checkInterval;
+    private final MicrosecondClock clock;
+    private final CairoEngine engine;
+    private final RingQueue<O3PartitionSquashTask> inQueue;
+    private final Sequence inSubSequence;
+    private final ObjHashSet<TableToken> pendingTables = new ObjHashSet<>();
+    private final long quietPeriod;
+    private long lastCheckTimestamp;
+
+    public O3PartitionSquashJob(CairoEngine engine) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.clock = configuration.getMicrosecondClock();
+        this.inQueue = engine.getMessageBus().getO3PartitionSquashQueue();
+        this.inSubSequence = engine.getMessageBus().getO3PartitionSquashSubSeq();
+        this.quietPeriod = configuration.getO3PartitionSquashQuietPeriod();
+        // no point checking much more often than partitions can go quiet
+        this.checkInterval = quietPeriod / 4;
+    }
+
+    @TestOnly
+    public int getPendingTableCount() {
+        return pendingTables.size();
+    }
+
+    private boolean processInQueue() {
+        boolean useful = false;
+        while (true) {
+            long cursor = inSubSequence.next();
+            // -2 = there was a contest for queue index and this thread has lost
+            if (cursor < -1) {
+                Os.pause();
+                continue;
+            }
+            // -1 = queue is empty, all done
+            if (cursor < 0) {
+                break;
+            }
+            pendingTables.add(inQueue.get(cursor).getTableToken());
+            inSubSequence.done(cursor);
+            useful = true;
+        }
+        return useful;
+    }
+
+    private boolean squash(TableToken tableToken, long activityDeadline) {
+        if (engine.isTableDropped(tableToken)) {
+            return false;
+        }
+        final TableToken updatedToken = engine.getUpdatedTableToken(tableToken);
+        if (updatedToken == null) {
+            return false;
+        }
+        try (TableWriter writer = engine.getWriterUnsafe(updatedToken, SQUASH_REASON)) {
+            return writer.squashQuietSplitPartitions(activityDeadline);
+        } catch (EntryUnavailableException busy) {
+            // writer is in use, try later
+            return true;
+        } catch (CairoException ex) {
+            if (ex.isTableDropped() || engine.isTableDropped(tableToken)) {
+                return false;
+            }
+            LOG.error().$("could not squash split partitions [table=").utf8(tableToken.getDirName())
+                    .$(", error=").$(ex.getFlyweightMessage())
+                    .$(", errno=").$(ex.getErrno())
+                    .I$();
+            // splits are still capped on commit, the next O3 write to the table will schedule it again
+            return false;
+        }
+    }
+
+    @Override
+    protected boolean runSerially() {
+        boolean useful = processInQueue();
+        final long now = clock.getTicks();
+        if (pendingTables.size() == 0 || now - lastCheckTimestamp < checkInterval) {
+            return useful;
+        }
+        if (engine.getSnapshotAgent().isInProgress()) {
+            // Partitions must not be removed while a snapshot is in-flight.
+            return useful;
+        }
+        lastCheckTimestamp = now;
+
+        final long activityDeadline = now - quietPeriod;
+        for (int i = pendingTables.size() - 1; i > -1; i--) {
+            final TableToken tableToken = pendingTables.get(i);
+            if (!squash(tableToken, activityDeadline)) {
+                pendingTables.remove(tableToken);
+                useful = true;
+            }
+        }
+        return useful;
+    }
+}
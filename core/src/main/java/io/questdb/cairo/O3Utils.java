@@ -52,6 +52,17 @@ public class O3Utils {
                 workerPool.getWorkerCount()
         );
         workerPool.assign(purgeDiscoveryJob);
+        workerPool.assign(new O3PartitionSquashJob(cairoEngine));
+        if (cairoEngine.getConfiguration().getPartitionTieringVolumePath() != null) {
+            final PartitionTieringJob partitionTieringJob = new PartitionTieringJob(cairoEngine);
+            workerPool.freeOnExit(partitionTieringJob);
+            workerPool.assign(partitionTieringJob);
+        }
+        if (cairoEngine.getConfiguration().isColumnChecksumEnabled() && cairoEngine.getConfiguration().getColumnScrubRate() > 0) {
+            final ColumnScrubJob columnScrubJob = new ColumnScrubJob(cairoEngine);
+            workerPool.freeOnExit(columnScrubJob);
+            workerPool.assign(columnScrubJob);
+        }
 
         // ColumnPurgeJob has expensive init (it creates a table), disable it in some tests.
         if (!cairoEngine.getConfiguration().disableColumnPurgeJob()) {
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.pool.ex.EntryLockedException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.str.Path;
+
+import java.io.Closeable;
+
+/**
+ * Moves partitions older than the configured age to the tiering volume. Each run moves at most one
+ * partition. The partition is copied to the volume while a table reader keeps its version from being
+ * purged, the writer is only taken to link the copy into the table directory, see
+ * {@link TableWriter#linkPartitionCopy(long, long, long, long, int, Path)}. Copies of partitions
+ * changed in the meantime, or of tables with the writer being busy, are discarded and retried on
+ * the next check.
+ */
+public class PartitionTieringJob extends SynchronizedJob implements Closeable {
+    public static final String TIERING_REASON = "partition tiering";
+    private static final Log LOG = LogFactory.getLog(PartitionTieringJob.class);
+    private final long age;
+    private final long checkInterval;
+    private final MicrosecondClock clock;
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final ObjHashSet<TableToken> tableTokens = new ObjHashSet<>();
+    private final CharSequence volumePath;
+    private Path copyPath = new Path();
+    private long lastCheckTimestamp;
+    private boolean movePending;
+    private Path path = new Path();
+
+    public PartitionTieringJob(CairoEngine engine) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.engine = engine;
+        this.ff = configuration.getFilesFacade();
+        this.clock = configuration.getMicrosecondClock();
+        this.volumePath = configuration.getPartitionTieringVolumePath();
+        this.age = configuration.getPartitionTieringAge();
+        this.checkInterval = configuration.getPartitionTieringCheckInterval();
+        assert volumePath != null;
+    }
+
+    @Override
+    public void close() {
+        path = Misc.free(path);
+        copyPath = Misc.free(copyPath);
+    }
+
+    private int findColdPartitionIndex(TxReader txFile, int partitionBy, long cutoffTimestamp) {
+        final PartitionBy.PartitionCeilMethod ceilMethod = PartitionBy.getPartitionCeilMethod(partitionBy);
+        final int tableLen = path.length();
+        try {
+            // the last partition is never moved
+            for (int i = 0, n = txFile.getPartitionCount() - 1; i < n; i++) {
+                final long timestamp = txFile.getPartitionTimestampByIndex(i);
+                final long logicalTimestamp = txFile.getLogicalPartitionTimestamp(timestamp);
+                if (ceilMethod.ceil(logicalTimestamp) > cutoffTimestamp) {
+                    break;
+                }
+                if (logicalTimestamp != timestamp
+                        || txFile.getLogicalPartitionTimestamp(txFile.getPartitionTimestampByIndex(i + 1)) == logicalTimestamp) {
+                    // split partitions are not moved
+                    continue;
+                }
+                TableUtils.setPathForPartition(path.trimTo(tableLen), partitionBy, timestamp, txFile.getPartitionNameTxn(i));
+                if (!ff.isSoftLink(path.$())) {
+                    return i;
+                }
+            }
+            return -1;
+        } finally {
+            path.trimTo(tableLen);
+        }
+    }
+
+    private boolean moveColdPartition(TableToken tableToken, long cutoffTimestamp) {
+        try (TableReader reader = engine.getReader(tableToken)) {
+            final int partitionBy = reader.getPartitionedBy();
+            if (!PartitionBy.isPartitioned(partitionBy)) {
+                return false;
+            }
+            final TxReader txFile = reader.getTxFile();
+            path.of(engine.getConfiguration().getRoot()).concat(tableToken);
+            final int partitionIndex = findColdPartitionIndex(txFile, partitionBy, cutoffTimestamp);
+            if (partitionIndex < 0) {
+                return false;
+            }
+
+            // the reader keeps the partition version from being purged while it is copied
+            final long timestamp = txFile.getPartitionTimestampByIndex(partitionIndex);
+            final long nameTxn = txFile.getPartitionNameTxn(partitionIndex);
+            TableUtils.setPathForPartition(path, partitionBy, timestamp, nameTxn);
+            copyPath.of(volumePath).concat(tableToken.getDirName());
+            TableUtils.setPathForPartition(copyPath, partitionBy, timestamp, nameTxn);
+            final int copyLen = copyPath.length();
+            if (ff.exists(copyPath.$()) && !ff.rmdir(copyPath)) {
+                throw CairoException.critical(ff.errno()).put("could not remove stale partition copy [path=").put(copyPath).put(']');
+            }
+            TableUtils.createDirsOrFail(ff, copyPath.trimTo(copyLen).slash$(), engine.getConfiguration().getMkDirMode());
+            boolean linked = false;
+            try {
+                if (ff.copyRecursive(path, copyPath.trimTo(copyLen), engine.getConfiguration().getMkDirMode()) != 0) {
+                    throw CairoException.critical(ff.errno()).put("could not copy partition to volume [path=").put(path)
+                            .put(", copyPath=").put(copyPath)
+                            .put(']');
+                }
+                try (TableWriter writer = engine.getWriterUnsafe(tableToken, TIERING_REASON)) {
+                    linked = writer.linkPartitionCopy(
+                            timestamp,
+                            nameTxn,
+                            txFile.getPartitionSize(partitionIndex),
+                            txFile.getColumnVersion(),
+                            txFile.getMetadataVersion(),
+                            copyPath.trimTo(copyLen)
+                    );
+                }
+            } finally {
+                if (!linked && !ff.rmdir(copyPath.trimTo(copyLen).$())) {
+                    LOG.error().$("could not remove partition copy [path=").utf8(copyPath).$(", errno=").$(ff.errno()).I$();
+                }
+            }
+            return linked;
+        } catch (EntryLockedException | EntryUnavailableException busy) {
+            // table is locked or writer is in use, try on the next check
+            return false;
+        } catch (CairoException ex) {
+            if (!ex.isTableDropped() && !engine.isTableDropped(tableToken)) {
+                LOG.error().$("could not move partition to tiering volume [table=").utf8(tableToken.getDirName())
+                        .$(", error=").$(ex.getFlyweightMessage())
+                        .$(", errno=").$(ex.getErrno())
+                        .I$();
+            }
+            return false;
+        }
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long now = clock.getTicks();
+        if (!movePending && now - lastCheckTimestamp < checkInterval) {
+            return false;
+        }
+        if (engine.getSnapshotAgent().isInProgress()) {
+            // Partitions must not be removed while a snapshot is in-flight.
+            return false;
+        }
+        lastCheckTimestamp = now;
+        movePending = false;
+
+        final long cutoffTimestamp = now - age;
+        tableTokens.clear();
+        engine.getTableTokens(tableTokens, false);
+        for (int i = 0, n = tableTokens.size(); i < n; i++) {
+            final TableToken tableToken = tableTokens.get(i);
+            if (!engine.isTableDropped(tableToken) && moveColdPartition(tableToken, cutoffTimestamp)) {
+                // one partition per run, the next run carries on without waiting for the check interval
+                movePending = true;
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.std.str.Path;
+
+/**
+ * Cursors returned by this class are not thread-safe.
+ */
+public class PostingIndexBwdReader extends AbstractPostingIndexReader {
+    private final Cursor cursor = new Cursor();
+    private final NullCursor nullCursor = new NullCursor();
+
+    public PostingIndexBwdReader(
+            CairoConfiguration configuration,
+            Path path,
+            CharSequence name,
+            long columnNameTxn,
+            long unIndexedNullCount
+    ) {
+        of(configuration, path, name, columnNameTxn, unIndexedNullCount);
+    }
+
+    @Override
+    public RowCursor getCursor(boolean cachedInstance, int key, long minValue, long maxValue) {
+        assert minValue <= maxValue;
+
+        if (key == 0 && unIndexedNullCount > 0) {
+            final NullCursor nullCursor = getNullCursor(cachedInstance);
+            nullCursor.nullCount = unIndexedNullCount;
+            nullCursor.of(key, minValue, maxValue);
+            return nullCursor;
+        }
+
+        if (key < keyCount) {
+            final Cursor cursor = getCursor(cachedInstance);
+            cursor.of(key, minValue, maxValue);
+            return cursor;
+        }
+
+        return EmptyRowCursor.INSTANCE;
+    }
+
+    private Cursor getCursor(boolean cachedInstance) {
+        return cachedInstance ? cursor : new Cursor();
+    }
+
+    private NullCursor getNullCursor(boolean cachedInstance) {
+        return cachedInstance ? nullCursor : new NullCursor();
+    }
+
+    private class Cursor implements RowCursor {
+        private final long[] values = new long[PostingIndexUtils.BLOCK_VALUE_COUNT];
+        protected long minValue;
+        protected long next;
+        private int block;
+        private long dataAddress;
+        private int position;
+        private long skipAddress;
+        private long valueCount;
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                if (position > 0) {
+                    final long value = values[--position];
+                    if (value < minValue) {
+                        position = 0;
+                        block = 0;
+                        return false;
+                    }
+                    next = value;
+                    return true;
+                }
+                if (--block >= 0) {
+                    position = PostingIndexUtils.decodeBlock(dataAddress, skipAddress, valueCount, block, values);
+                } else {
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public long next() {
+            return next;
+        }
+
+        void of(int key, long minValue, long maxValue) {
+            this.minValue = minValue;
+            this.valueCount = key < keyCount ? getValueCount(key) : 0;
+            this.block = 0;
+            this.position = 0;
+            if (valueCount > 0) {
+                this.dataAddress = getDataAddress(key);
+                this.skipAddress = getSkipAddress(key);
+                final int block = PostingIndexUtils.findBlock(skipAddress, PostingIndexUtils.getBlockCount(valueCount), maxValue);
+                if (block > -1) {
+                    int position = PostingIndexUtils.decodeBlock(dataAddress, skipAddress, valueCount, block, values);
+                    while (position > 0 && values[position - 1] > maxValue) {
+                        position--;
+                    }
+                    this.block = block;
+                    this.position = position;
+                }
+            }
+        }
+    }
+
+    private class NullCursor extends Cursor {
+        private long nullCount;
+
+        @Override
+        public boolean hasNext() {
+            if (super.hasNext()) {
+                return true;
+            }
+
+            if (--nullCount >= minValue) {
+                this.next = nullCount;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.NullIndexFrameCursor;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+
+/**
+ * Cursors returned by this class are not thread-safe.
+ */
+public class PostingIndexFwdReader extends AbstractPostingIndexReader {
+    private final Cursor cursor = new Cursor();
+    private final FrameCursor frameCursor = new FrameCursor();
+    private final NullCursor nullCursor = new NullCursor();
+    private long frameAddress;
+
+    public PostingIndexFwdReader(
+            CairoConfiguration configuration,
+            Path path,
+            CharSequence name,
+            long columnNameTxn,
+            long unIndexedNullCount
+    ) {
+        of(configuration, path, name, columnNameTxn, unIndexedNullCount);
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        frameAddress = Unsafe.free(frameAddress, PostingIndexUtils.BLOCK_VALUE_COUNT * Long.BYTES, MemoryTag.NATIVE_TABLE_READER);
+    }
+
+    @Override
+    public RowCursor getCursor(boolean cachedInstance, int key, long minValue, long maxValue) {
+        if (key == 0 && unIndexedNullCount > 0 && minValue < unIndexedNullCount) {
+            // we need to return some nulls and the whole set of actual index values
+            final NullCursor nullCursor = getNullCursor(cachedInstance);
+            nullCursor.nullPos = minValue;
+            nullCursor.nullCount = unIndexedNullCount;
+            nullCursor.of(key, 0, maxValue);
+            return nullCursor;
+        }
+
+        if (key < keyCount) {
+            final Cursor cursor = getCursor(cachedInstance);
+            cursor.of(key, minValue, maxValue);
+            return cursor;
+        }
+
+        return EmptyRowCursor.INSTANCE;
+    }
+
+    @Override
+    public IndexFrameCursor getFrameCursor(int key, long minRowId, long maxRowId) {
+        if (key < keyCount) {
+            if (frameAddress == 0) {
+                frameAddress = Unsafe.malloc(PostingIndexUtils.BLOCK_VALUE_COUNT * Long.BYTES, MemoryTag.NATIVE_TABLE_READER);
+            }
+            frameCursor.of(key, minRowId, maxRowId);
+            return frameCursor;
+        }
+        return NullIndexFrameCursor.INSTANCE;
+    }
+
+    private Cursor getCursor(boolean cachedInstance) {
+        return cachedInstance ? cursor : new Cursor();
+    }
+
+    private NullCursor getNullCursor(boolean cachedInstance) {
+        return cachedInstance ? nullCursor : new NullCursor();
+    }
+
+    private class Cursor implements RowCursor {
+        protected final long[] values = new long[PostingIndexUtils.BLOCK_VALUE_COUNT];
+        protected int block;
+        protected int blockCount;
+        protected long dataAddress;
+        protected long maxValue;
+        protected long next;
+        protected int position;
+        protected int size;
+        protected long skipAddress;
+        protected long valueCount;
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                if (position < size) {
+                    final long value = values[position++];
+                    if (value > maxValue) {
+                        size = 0;
+                        block = blockCount;
+                        return false;
+                    }
+                    next = value;
+                    return true;
+                }
+                if (++block < blockCount) {
+                    size = PostingIndexUtils.decodeBlock(dataAddress, skipAddress, valueCount, block, values);
+                    position = 0;
+                } else {
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public long next() {
+            return next;
+        }
+
+        void of(int key, long minValue, long maxValue) {
+            this.maxValue = maxValue;
+            this.valueCount = key < keyCount ? getValueCount(key) : 0;
+            if (valueCount == 0) {
+                this.blockCount = 0;
+                this.block = 0;
+                this.size = 0;
+                this.position = 0;
+                return;
+            }
+            this.dataAddress = getDataAddress(key);
+            this.skipAddress = getSkipAddress(key);
+            this.blockCount = PostingIndexUtils.getBlockCount(valueCount);
+            this.block = Math.max(PostingIndexUtils.findBlock(skipAddress, blockCount, minValue), 0);
+            this.size = PostingIndexUtils.decodeBlock(dataAddress, skipAddress, valueCount, block, values);
+            int position = 0;
+            while (position < size && values[position] < minValue) {
+                position++;
+            }
+            this.position = position;
+        }
+    }
+
+    private class FrameCursor extends Cursor implements IndexFrameCursor {
+        private final IndexFrame indexFrame = new IndexFrame();
+
+        @Override
+        public IndexFrame getNext() {
+            while (true) {
+                if (position < size) {
+                    int n = 0;
+                    while (position < size && values[position] <= maxValue) {
+                        Unsafe.getUnsafe().putLong(frameAddress + (long) n++ * Long.BYTES, values[position++]);
+                    }
+                    if (n > 0) {
+                        return indexFrame.of(frameAddress, n);
+                    }
+                    // the rest of values are beyond max value
+                    size = 0;
+                    block = blockCount;
+                    return IndexFrame.NULL_INSTANCE;
+                }
+                if (++block < blockCount) {
+                    size = PostingIndexUtils.decodeBlock(dataAddress, skipAddress, valueCount, block, values);
+                    position = 0;
+                } else {
+                    return IndexFrame.NULL_INSTANCE;
+                }
+            }
+        }
+    }
+
+    private class NullCursor extends Cursor {
+        private long nullCount;
+        private long nullPos;
+
+        @Override
+        public boolean hasNext() {
+            if (nullPos < nullCount) {
+                next = nullPos++;
+                return true;
+            }
+            return super.hasNext();
+        }
+    }
+}
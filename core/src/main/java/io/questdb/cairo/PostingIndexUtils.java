@@ -0,0 +1,144 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.LPSZ;
+
+/**
+ * Posting list index is a read-only alternative to the bitmap index for partitions which are not
+ * written to anymore, e.g. compressed partitions. It uses the same ".k" and ".v" file names and
+ * the same key file header as the bitmap index, the header signature tells the formats apart.
+ * <p>
+ * Key file has fixed size entry per key:
+ * <pre>
+ * | value count (long) | data offset (long) | skip list offset (long) | last value (long) |
+ * </pre>
+ * Values of a key are split into blocks of {@link #BLOCK_VALUE_COUNT} values. First value of every
+ * block is stored in the skip list of the key, the rest are stored in the value file as unsigned
+ * LEB128 deltas to the previous value. Row ids of a key are increasing and mostly close to each other,
+ * so most of the deltas take one or two bytes instead of eight. Skip list entry is:
+ * <pre>
+ * | first value (long) | offset of block deltas relative to data offset (long) |
+ * </pre>
+ * Cursors binary search the skip list to find the block of the minimum or the maximum value and
+ * decode one block at a time.
+ */
+public final class PostingIndexUtils {
+    public static final int BLOCK_VALUE_COUNT = 128;
+    public static final int KEY_ENTRY_OFFSET_DATA_OFFSET = 8;
+    public static final int KEY_ENTRY_OFFSET_LAST_VALUE = 24;
+    public static final int KEY_ENTRY_OFFSET_SKIP_OFFSET = 16;
+    public static final int KEY_ENTRY_OFFSET_VALUE_COUNT = 0;
+    public static final int KEY_RESERVED_OFFSET_MAX_VALUE = 37;
+    public static final int KEY_RESERVED_OFFSET_POSTING_BLOCK_VALUE_COUNT = 45;
+    public static final byte SIGNATURE = (byte) 0xfb;
+    public static final int SKIP_ENTRY_OFFSET_BLOCK_OFFSET = 8;
+    public static final int SKIP_ENTRY_SIZE = 16;
+
+    private PostingIndexUtils() {
+    }
+
+    /**
+     * Decodes block of values.
+     *
+     * @param dataAddress address of the encoded values of the key
+     * @param skipAddress address of the skip list of the key
+     * @param valueCount  total count of values of the key
+     * @param block       block number
+     * @param values      array of at least {@link #BLOCK_VALUE_COUNT} elements to decode block to
+     * @return count of values in the block
+     */
+    public static int decodeBlock(long dataAddress, long skipAddress, long valueCount, int block, long[] values) {
+        final long skipEntry = skipAddress + (long) block * SKIP_ENTRY_SIZE;
+        long value = Unsafe.getUnsafe().getLong(skipEntry);
+        long p = dataAddress + Unsafe.getUnsafe().getLong(skipEntry + SKIP_ENTRY_OFFSET_BLOCK_OFFSET);
+        final int count = (int) Math.min(BLOCK_VALUE_COUNT, valueCount - (long) block * BLOCK_VALUE_COUNT);
+        values[0] = value;
+        for (int i = 1; i < count; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = Unsafe.getUnsafe().getByte(p++);
+                delta |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += delta;
+            values[i] = value;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the last block, which starts with a value less or equal to the given one.
+     *
+     * @param skipAddress address of the skip list of the key
+     * @param blockCount  number of blocks in the skip list
+     * @param value       value to search for
+     * @return block number or -1 when the first value of the key is greater than the given value
+     */
+    public static int findBlock(long skipAddress, int blockCount, long value) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (Unsafe.getUnsafe().getLong(skipAddress + (long) mid * SKIP_ENTRY_SIZE) <= value) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    public static int getBlockCount(long valueCount) {
+        return (int) ((valueCount + BLOCK_VALUE_COUNT - 1) / BLOCK_VALUE_COUNT);
+    }
+
+    /**
+     * Checks signature of the index key file.
+     *
+     * @param ff      files facade
+     * @param keyFile name of the key file
+     * @return true when the file is a posting list index, false when it is a bitmap index or cannot be read
+     */
+    public static boolean isPostingIndex(FilesFacade ff, LPSZ keyFile) {
+        final int fd = ff.openRO(keyFile);
+        if (fd < 0) {
+            return false;
+        }
+        final long buf = Unsafe.malloc(Byte.BYTES, MemoryTag.NATIVE_DEFAULT);
+        try {
+            return ff.read(fd, buf, Byte.BYTES, BitmapIndexUtils.KEY_RESERVED_OFFSET_SIGNATURE) == Byte.BYTES
+                    && Unsafe.getUnsafe().getByte(buf) == SIGNATURE;
+        } finally {
+            Unsafe.free(buf, Byte.BYTES, MemoryTag.NATIVE_DEFAULT);
+            ff.close(fd);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCMARW;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+/**
+ * Converts bitmap index of a partition into posting list index, see {@link PostingIndexUtils}
+ * for the format. Index is written to temporary files first, which then replace the index files in
+ * the destination partition, so that source and destination can be the same partition.
+ */
+public class PostingIndexWriter implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(PostingIndexWriter.class);
+    private static final String TMP_SUFFIX = ".tmp";
+    private final CairoConfiguration configuration;
+    private final FilesFacade ff;
+    private final MemoryCMARW keyMem = Vm.getCMARWInstance();
+    private final LongList skipList = new LongList();
+    private final Path tmpPath = new Path();
+    private final MemoryCMARW valueMem = Vm.getCMARWInstance();
+
+    public PostingIndexWriter(CairoConfiguration configuration) {
+        this.configuration = configuration;
+        this.ff = configuration.getFilesFacade();
+    }
+
+    @Override
+    public void close() {
+        Misc.free(keyMem);
+        Misc.free(valueMem);
+        Misc.free(tmpPath);
+    }
+
+    /**
+     * Converts bitmap index.
+     *
+     * @param srcPath       path to the partition with the bitmap index
+     * @param dstPath       path to the partition to write posting list index to, it can be the source partition
+     * @param name          column name
+     * @param columnNameTxn column name txn
+     * @return size of the posting list index files
+     */
+    public long convert(Path srcPath, Path dstPath, CharSequence name, long columnNameTxn) {
+        final int dlen = dstPath.length();
+        try {
+            try (BitmapIndexFwdReader reader = new BitmapIndexFwdReader(configuration, srcPath, name, columnNameTxn, 0)) {
+                keyMem.of(
+                        ff,
+                        tmpFileName(BitmapIndexUtils.keyFileName(dstPath.trimTo(dlen), name, columnNameTxn)),
+                        configuration.getDataIndexKeyAppendPageSize(),
+                        MemoryTag.MMAP_INDEX_WRITER,
+                        configuration.getWriterFileOpenOpts()
+                );
+                valueMem.of(
+                        ff,
+                        tmpFileName(BitmapIndexUtils.valueFileName(dstPath.trimTo(dlen), name, columnNameTxn)),
+                        configuration.getDataIndexValueAppendPageSize(),
+                        MemoryTag.MMAP_INDEX_WRITER,
+                        configuration.getWriterFileOpenOpts()
+                );
+                keyMem.truncate();
+                valueMem.truncate();
+                write(reader);
+            } catch (Throwable th) {
+                keyMem.close(false);
+                valueMem.close(false);
+                removeQuiet(tmpFileName(BitmapIndexUtils.keyFileName(dstPath.trimTo(dlen), name, columnNameTxn)));
+                removeQuiet(tmpFileName(BitmapIndexUtils.valueFileName(dstPath.trimTo(dlen), name, columnNameTxn)));
+                throw th;
+            }
+            final long size = keyMem.getAppendOffset() + valueMem.getAppendOffset();
+            keyMem.close(true, Vm.TRUNCATE_TO_POINTER);
+            valueMem.close(true, Vm.TRUNCATE_TO_POINTER);
+            rename(BitmapIndexUtils.keyFileName(dstPath.trimTo(dlen), name, columnNameTxn));
+            rename(BitmapIndexUtils.valueFileName(dstPath.trimTo(dlen), name, columnNameTxn));
+            return size;
+        } finally {
+            dstPath.trimTo(dlen);
+        }
+    }
+
+    private void rename(Path path) {
+        if (ff.rename(tmpFileName(path), path) != Files.FILES_RENAME_OK) {
+            throw CairoException.critical(ff.errno()).put("could not rename [from=").put(tmpPath).put(", to=").put(path).put(']');
+        }
+    }
+
+    private void removeQuiet(Path path) {
+        if (!ff.remove(path) && ff.exists(path)) {
+            LOG.error().$("could not remove [path=").$(path).$(", errno=").$(ff.errno()).I$();
+        }
+    }
+
+    private Path tmpFileName(Path path) {
+        return tmpPath.of(path).put(TMP_SUFFIX).$();
+    }
+
+    private void write(BitmapIndexFwdReader reader) {
+        final int keyCount = reader.getKeyCount();
+        keyMem.jumpTo(0);
+        keyMem.putByte(PostingIndexUtils.SIGNATURE);
+        keyMem.putLong(1); // SEQUENCE
+        keyMem.putLong(0); // VALUE MEM SIZE
+        keyMem.putInt(reader.getValueBlockCapacity() + 1); // BLOCK VALUE COUNT of the bitmap index
+        keyMem.putLong(keyCount); // KEY COUNT
+        keyMem.putLong(1); // SEQUENCE CHECK
+        assert keyMem.getAppendOffset() == PostingIndexUtils.KEY_RESERVED_OFFSET_MAX_VALUE;
+        keyMem.putLong(-1); // MAX VALUE
+        keyMem.putInt(PostingIndexUtils.BLOCK_VALUE_COUNT);
+        keyMem.jumpTo(BitmapIndexUtils.KEY_FILE_RESERVED);
+
+        long maxValue = -1;
+        for (int key = 0; key < keyCount; key++) {
+            final RowCursor cursor = reader.getCursor(true, key, 0, Long.MAX_VALUE);
+            final long dataOffset = valueMem.getAppendOffset();
+            skipList.clear();
+            long valueCount = 0;
+            long prev = 0;
+            while (cursor.hasNext()) {
+                final long value = cursor.next();
+                if (valueCount++ % PostingIndexUtils.BLOCK_VALUE_COUNT == 0) {
+                    skipList.add(value);
+                    skipList.add(valueMem.getAppendOffset() - dataOffset);
+                } else {
+                    putVarLong(value - prev);
+                }
+                prev = value;
+            }
+
+            final long skipOffset = valueMem.getAppendOffset();
+            for (int i = 0, n = skipList.size(); i < n; i++) {
+                valueMem.putLong(skipList.getQuick(i));
+            }
+            keyMem.putLong(valueCount);
+            keyMem.putLong(dataOffset);
+            keyMem.putLong(skipOffset);
+            keyMem.putLong(valueCount > 0 ? prev : -1);
+            maxValue = Math.max(maxValue, valueCount > 0 ? prev : -1);
+        }
+        keyMem.putLong(BitmapIndexUtils.KEY_RESERVED_OFFSET_VALUE_MEM_SIZE, valueMem.getAppendOffset());
+        keyMem.putLong(PostingIndexUtils.KEY_RESERVED_OFFSET_MAX_VALUE, maxValue);
+    }
+
+    private void putVarLong(long value) {
+        assert value > 0;
+        while ((value & ~0x7fL) != 0) {
+            valueMem.putByte((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        valueMem.putByte((byte) value);
+    }
+}
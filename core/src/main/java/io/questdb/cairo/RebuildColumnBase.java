@@ -128,6 +128,7 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
                 // as metadata writers' index.
                 columnIndex,
                 columnName,
+                metadata.getColumnType(columnIndex),
                 partitionNameTxn,
                 partitionSize,
                 partitionTimestamp,
@@ -163,6 +164,7 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
                 columnVersionReader,
                 metadata.getWriterIndex(columnIndex),
                 metadata.getColumnName(columnIndex),
+                metadata.getColumnType(columnIndex),
                 partitionNameTxn,
                 partitionSize,
                 partitionTimestamp,
@@ -356,6 +358,7 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
             ColumnVersionReader columnVersionReader,
             int columnWriterIndex,
             CharSequence columnName,
+            int columnType,
             long partitionNameTxn,
             long partitionSize,
             long partitionTimestamp,
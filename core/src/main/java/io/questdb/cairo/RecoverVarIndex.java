@@ -47,7 +47,7 @@ public class RecoverVarIndex extends RebuildColumnBase {
             ColumnVersionReader columnVersionReader,
             int columnWriterIndex,
             CharSequence columnName,
-
+            int columnType,
             long partitionNameTxn,
             long partitionSize,
             long partitionTimestamp,
@@ -118,7 +118,7 @@ public class SymbolColumnIndexer implements ColumnIndexer, Mutable {
         // index values have to be adjusted to partition-level row id
         writer.rollbackConditionally(loRow);
         for (long lo = Math.max(loRow, columnTop); lo < hiRow; lo++) {
-            writer.add(TableUtils.toIndexKey(mem.getInt((lo - columnTop) * Integer.BYTES)), lo);
+            writer.add(getIndexKey(mem, lo - columnTop), lo);
         }
         writer.setMaxValue(hiRow - 1);
     }
@@ -149,6 +149,10 @@ public class SymbolColumnIndexer implements ColumnIndexer, Mutable {
         return Unsafe.cas(this, SEQUENCE_OFFSET, expectedSequence, expectedSequence + 1);
     }
 
+    protected int getIndexKey(MemoryR mem, long row) {
+        return TableUtils.toIndexKey(mem.getInt(row * Integer.BYTES));
+    }
+
     static {
         SEQUENCE_OFFSET = Unsafe.getFieldOffset(SymbolColumnIndexer.class, "sequence");
     }
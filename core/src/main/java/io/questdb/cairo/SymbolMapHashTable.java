@@ -0,0 +1,171 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.std.*;
+
+import java.io.Closeable;
+
+/**
+ * Off-heap open addressing hash table from symbol values to symbol keys. Symbol values are
+ * not copied, the table stores the hash code and the key of each value, and the values are
+ * compared against the symbol map's char memory. Lookups and inserts do not allocate.
+ * <p>
+ * Each slot is a long: hash code in the high int and key + 1 in the low int, zero
+ * denotes an empty slot. The table is rehashed from the stored hash codes when it gets half full.
+ * Removed entries are not marked, the entries that follow them are shifted back instead.
+ */
+public class SymbolMapHashTable implements Closeable, Mutable {
+    private static final int MIN_CAPACITY = 16;
+    private long address;
+    private int capacity;
+    private int mask;
+    private int size;
+
+    public SymbolMapHashTable(int initialCapacity) {
+        capacity = Math.max(Numbers.ceilPow2(initialCapacity * 2), MIN_CAPACITY);
+        mask = capacity - 1;
+        address = Unsafe.calloc((long) capacity * Long.BYTES, MemoryTag.NATIVE_TABLE_WRITER);
+    }
+
+    public static int hash(CharSequence value) {
+        return Hash.spread(Chars.hashCode(value));
+    }
+
+    @Override
+    public void clear() {
+        Vect.memset(address, (long) capacity * Long.BYTES, 0);
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        address = Unsafe.free(address, (long) capacity * Long.BYTES, MemoryTag.NATIVE_TABLE_WRITER);
+        size = 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Finds the key of the value.
+     *
+     * @param value     symbol value
+     * @param hash      hash code of the value, see {@link #hash(CharSequence)}
+     * @param offsetMem symbol map offset memory
+     * @param charMem   symbol map char memory
+     * @return key of the value or {@link SymbolTable#VALUE_NOT_FOUND}
+     */
+    public int keyOf(CharSequence value, int hash, MemoryR offsetMem, MemoryR charMem) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final long entry = Unsafe.getUnsafe().getLong(address + (long) slot * Long.BYTES);
+            if (entry == 0) {
+                return SymbolTable.VALUE_NOT_FOUND;
+            }
+            if ((int) (entry >>> 32) == hash) {
+                final int key = (int) entry - 1;
+                if (Chars.equals(value, charMem.getStr(offsetMem.getLong(SymbolMapWriter.keyToOffset(key))))) {
+                    return key;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the key of a value which is not in the table.
+     *
+     * @param hash hash code of the value
+     * @param key  symbol key of the value
+     */
+    public void put(int hash, int key) {
+        if (size >= capacity >>> 1) {
+            rehash(capacity << 1);
+        }
+        putAt(address, mask, hash, key + 1);
+        size++;
+    }
+
+    /**
+     * Removes the key of a value.
+     *
+     * @param hash hash code of the value
+     * @param key  symbol key of the value
+     */
+    public void remove(int hash, int key) {
+        final long target = ((long) hash << 32) | ((key + 1) & 0xffffffffL);
+        int hole = hash & mask;
+        for (long entry; (entry = Unsafe.getUnsafe().getLong(address + (long) hole * Long.BYTES)) != target; hole = (hole + 1) & mask) {
+            if (entry == 0) {
+                return;
+            }
+        }
+        // shift back the entries which cannot be found past the hole otherwise
+        for (int slot = (hole + 1) & mask; ; slot = (slot + 1) & mask) {
+            final long entry = Unsafe.getUnsafe().getLong(address + (long) slot * Long.BYTES);
+            if (entry == 0) {
+                break;
+            }
+            final int home = (int) (entry >>> 32) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                Unsafe.getUnsafe().putLong(address + (long) hole * Long.BYTES, entry);
+                hole = slot;
+            }
+        }
+        Unsafe.getUnsafe().putLong(address + (long) hole * Long.BYTES, 0);
+        size--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static void putAt(long address, int mask, int hash, int keyPlusOne) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final long p = address + (long) slot * Long.BYTES;
+            if (Unsafe.getUnsafe().getLong(p) == 0) {
+                Unsafe.getUnsafe().putLong(p, ((long) hash << 32) | (keyPlusOne & 0xffffffffL));
+                return;
+            }
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        final long newAddress = Unsafe.calloc((long) newCapacity * Long.BYTES, MemoryTag.NATIVE_TABLE_WRITER);
+        final int newMask = newCapacity - 1;
+        for (int slot = 0; slot < capacity; slot++) {
+            final long entry = Unsafe.getUnsafe().getLong(address + (long) slot * Long.BYTES);
+            if (entry != 0) {
+                putAt(newAddress, newMask, (int) (entry >>> 32), (int) entry);
+            }
+        }
+        Unsafe.free(address, (long) capacity * Long.BYTES, MemoryTag.NATIVE_TABLE_WRITER);
+        address = newAddress;
+        capacity = newCapacity;
+        mask = newMask;
+    }
+}
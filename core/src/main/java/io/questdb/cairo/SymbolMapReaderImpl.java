@@ -203,12 +203,15 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
             // which will indicate size of the char column
             this.offsetMem.extend(maxOffset + Long.BYTES);
             this.charMem.extend(this.offsetMem.getLong(maxOffset));
+            // symbol map is append-only, the index is extended to the new values
+            // rather than re-opened, so that keyOf() calls do not remap memory
+            this.indexReader.updateKeyAndValueSize();
         } else if (symbolCount < this.symbolCount) {
             cache.remove(symbolCount + 1, this.symbolCount);
             this.symbolCount = symbolCount;
+            this.maxOffset = SymbolMapWriter.keyToOffset(symbolCount);
+            this.indexReader.of(configuration, path, columnNameSink, columnNameTxn, 0);
         }
-        // Refresh index reader to avoid memory remapping on keyOf() calls.
-        this.indexReader.of(configuration, path, columnNameSink, columnNameTxn, 0);
     }
 
     @Override
@@ -45,8 +45,10 @@ public class SymbolMapWriter implements Closeable, MapWriter {
     public static final int HEADER_CAPACITY = 0;
     public static final int HEADER_NULL_FLAG = 8;
     public static final int HEADER_SIZE = 64;
+    // number of committed symbols added to the cache on a cache miss
+    private static final int CACHE_FILL_BATCH_SIZE = 4096;
     private static final Log LOG = LogFactory.getLog(SymbolMapWriter.class);
-    private final CharSequenceIntHashMap cache;
+    private final SymbolMapHashTable cache;
     private final MemoryMARW charMem;
     private final BitmapIndexWriter indexWriter;
     private final int maxHash;
@@ -55,6 +57,9 @@ public class SymbolMapWriter implements Closeable, MapWriter {
     private boolean nullValue = false;
     private MemoryMARW offsetMem;
     private int symbolIndexInTxWriter;
+    // committed symbols with keys in [uncachedKeyLo, uncachedKeyHi) are not in the cache yet
+    private int uncachedKeyHi;
+    private int uncachedKeyLo;
 
     public SymbolMapWriter(
             CairoConfiguration configuration,
@@ -123,7 +128,10 @@ public class SymbolMapWriter implements Closeable, MapWriter {
             this.maxHash = Math.max(Numbers.ceilPow2(symbolCapacity / 2) - 1, 1);
 
             if (useCache) {
-                this.cache = new CharSequenceIntHashMap(symbolCapacity, 0.3, CharSequenceIntHashMap.NO_ENTRY_VALUE);
+                // the cache is filled with committed symbols on cache misses, once every symbol
+                // is in the cache a cache miss is a new symbol
+                this.cache = new SymbolMapHashTable(Math.max(symbolCapacity, symbolCount));
+                this.uncachedKeyHi = symbolCount;
             } else {
                 this.cache = null;
             }
@@ -165,6 +173,7 @@ public class SymbolMapWriter implements Closeable, MapWriter {
 
     @Override
     public void close() {
+        Misc.free(cache);
         Misc.free(indexWriter);
         Misc.free(charMem);
         if (offsetMem != null) {
@@ -213,21 +222,33 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         }
 
         if (cache != null) {
-            int index = cache.keyIndex(symbol);
-            return index < 0 ? cache.valueAt(index) : lookupPutAndCache(index, symbol, valueCountCollector);
+            final int hash = SymbolMapHashTable.hash(symbol);
+            final int key = cache.keyOf(symbol, hash, offsetMem, charMem);
+            if (key != SymbolTable.VALUE_NOT_FOUND) {
+                return key;
+            }
+            if (uncachedKeyLo < uncachedKeyHi) {
+                // the value may be one of the committed symbols not in the cache yet
+                final int indexedKey = lookup(symbol, Hash.boundedHash(symbol, maxHash));
+                cacheSymbols(CACHE_FILL_BATCH_SIZE);
+                if (indexedKey != SymbolTable.VALUE_NOT_FOUND) {
+                    return indexedKey;
+                }
+            }
+            return putAndCache(symbol, hash, valueCountCollector);
         }
         return lookupAndPut(symbol, valueCountCollector);
     }
 
     @Override
     public void rollback(int symbolCount) {
+        if (cache != null) {
+            uncacheSymbols(symbolCount);
+        }
         indexWriter.rollbackValues(keyToOffset(symbolCount - 1));
         offsetMem.jumpTo(keyToOffset(symbolCount) + Long.BYTES);
         jumpCharMemToSymbolCount(symbolCount);
         valueCountCollector.collectValueCount(symbolIndexInTxWriter, symbolCount);
-        if (cache != null) {
-            cache.clear();
-        }
     }
 
     @Override
@@ -254,6 +275,8 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         indexWriter.truncate();
         if (cache != null) {
             cache.clear();
+            uncachedKeyLo = 0;
+            uncachedKeyHi = 0;
         }
     }
 
@@ -268,6 +291,14 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         nullValue = flag;
     }
 
+    private void cacheSymbols(int count) {
+        final int keyHi = Math.min(uncachedKeyLo + count, uncachedKeyHi);
+        for (int key = uncachedKeyLo; key < keyHi; key++) {
+            cache.put(SymbolMapHashTable.hash(valueOf(key)), key);
+        }
+        uncachedKeyLo = keyHi;
+    }
+
     private void jumpCharMemToSymbolCount(int symbolCount) {
         if (symbolCount > 0) {
             charMem.jumpTo(offsetMem.getLong(keyToOffset(symbolCount)));
@@ -276,22 +307,30 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         }
     }
 
-    private int lookupAndPut(CharSequence symbol, SymbolValueCountCollector countCollector) {
-        int hash = Hash.boundedHash(symbol, maxHash);
+    private int lookup(CharSequence symbol, int hash) {
+        // the index is not rolled back when the writer is re-opened at a lower symbol count,
+        // it may have values of the symbols past the count
+        final long offsetOffsetHi = offsetMem.getAppendOffset() - Long.BYTES;
         RowCursor cursor = indexWriter.getCursor(hash);
         while (cursor.hasNext()) {
             long offsetOffset = cursor.next();
-            if (Chars.equals(symbol, charMem.getStr(offsetMem.getLong(offsetOffset)))) {
+            if (offsetOffset < offsetOffsetHi && Chars.equals(symbol, charMem.getStr(offsetMem.getLong(offsetOffset)))) {
                 return offsetToKey(offsetOffset);
             }
         }
-        return put0(symbol, hash, countCollector);
+        return SymbolTable.VALUE_NOT_FOUND;
+    }
+
+    private int lookupAndPut(CharSequence symbol, SymbolValueCountCollector countCollector) {
+        int hash = Hash.boundedHash(symbol, maxHash);
+        final int key = lookup(symbol, hash);
+        return key != SymbolTable.VALUE_NOT_FOUND ? key : put0(symbol, hash, countCollector);
     }
 
-    private int lookupPutAndCache(int index, CharSequence symbol, SymbolValueCountCollector countCollector) {
-        final int result = lookupAndPut(symbol, countCollector);
-        cache.putAt(index, symbol.toString(), result);
-        return result;
+    private int putAndCache(CharSequence symbol, int cacheHash, SymbolValueCountCollector countCollector) {
+        final int key = put0(symbol, Hash.boundedHash(symbol, maxHash), countCollector);
+        cache.put(cacheHash, key);
+        return key;
     }
 
     private int put0(CharSequence symbol, int hash, SymbolValueCountCollector countCollector) {
@@ -303,6 +342,23 @@ public class SymbolMapWriter implements Closeable, MapWriter {
         return symIndex;
     }
 
+    private void uncacheSymbols(int symbolCount) {
+        // the keys at or above the symbol count are removed, the symbols are still in place to hash them
+        final int count = getSymbolCount();
+        for (int key = Math.max(symbolCount, uncachedKeyHi); key < count; key++) {
+            cache.remove(SymbolMapHashTable.hash(valueOf(key)), key);
+        }
+        for (int key = symbolCount; key < uncachedKeyLo; key++) {
+            cache.remove(SymbolMapHashTable.hash(valueOf(key)), key);
+        }
+        uncachedKeyLo = Math.min(uncachedKeyLo, symbolCount);
+        uncachedKeyHi = Math.min(uncachedKeyHi, symbolCount);
+    }
+
+    private CharSequence valueOf(int key) {
+        return charMem.getStr(offsetMem.getLong(keyToOffset(key)));
+    }
+
     static long keyToOffset(int key) {
         return HEADER_SIZE + key * 8L;
     }
@@ -27,6 +27,7 @@ package io.questdb.cairo;
 import io.questdb.MessageBus;
 import io.questdb.cairo.sql.StaticSymbolTable;
 import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.vm.MemoryCMRCompressedImpl;
 import io.questdb.cairo.vm.NullMemoryMR;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryMR;
@@ -487,6 +488,32 @@ public class TableReader implements Closeable, SymbolTableSource {
         }
     }
 
+    /**
+     * Loads zone map of the column in the given open partition.
+     *
+     * @param partitionIndex index of the partition, the partition must be open
+     * @param columnIndex    index of the column
+     * @param zoneMapReader  reader to load the zone map into
+     * @return false when the zone map is not available
+     */
+    public boolean readZoneMap(int partitionIndex, int columnIndex, ZoneMapReader zoneMapReader) {
+        final long partitionTimestamp = txFile.getPartitionTimestampByIndex(partitionIndex);
+        final int writerIndex = metadata.getWriterIndex(columnIndex);
+        if (columnVersionReader.getColumnTop(partitionTimestamp, writerIndex) < 0) {
+            // the column was added after the partition was written
+            zoneMapReader.ofNulls(getPartitionRowCount(partitionIndex), metadata.getColumnType(columnIndex));
+            return true;
+        }
+        final long columnNameTxn = columnVersionReader.getColumnNameTxn(partitionTimestamp, writerIndex);
+        final Path path = pathGenPartitioned(partitionIndex);
+        try {
+            ZoneMapUtils.zoneMapFileName(path, metadata.getColumnName(columnIndex), columnNameTxn);
+            return zoneMapReader.of(ff, path, metadata.getColumnType(columnIndex));
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
     public long size() {
         return rowCount;
     }
@@ -663,9 +690,30 @@ public class TableReader implements Closeable, SymbolTableSource {
                 bitmapIndexes.setQuick(globalIndex + 1, reader);
             }
         } else {
-            Path path = pathGenPartitioned(getPartitionIndex(columnBase), txn);
+            final int partitionIndex = getPartitionIndex(columnBase);
+            Path path = pathGenPartitioned(partitionIndex, txn);
             try {
-                if (direction == BitmapIndexReader.DIR_BACKWARD) {
+                if (isPostingIndex(partitionIndex, path, metadata.getColumnName(columnIndex), columnNameTxn)) {
+                    if (direction == BitmapIndexReader.DIR_BACKWARD) {
+                        reader = new PostingIndexBwdReader(
+                                configuration,
+                                path,
+                                metadata.getColumnName(columnIndex),
+                                columnNameTxn,
+                                getColumnTop(columnBase, columnIndex)
+                        );
+                        bitmapIndexes.setQuick(globalIndex, reader);
+                    } else {
+                        reader = new PostingIndexFwdReader(
+                                configuration,
+                                path,
+                                metadata.getColumnName(columnIndex),
+                                columnNameTxn,
+                                getColumnTop(columnBase, columnIndex)
+                        );
+                        bitmapIndexes.setQuick(globalIndex + 1, reader);
+                    }
+                } else if (direction == BitmapIndexReader.DIR_BACKWARD) {
                     reader = new BitmapIndexBwdReader(
                             configuration,
                             path,
@@ -804,6 +852,19 @@ public class TableReader implements Closeable, SymbolTableSource {
 
     @NotNull
     // this method is not thread safe
+    private boolean isPostingIndex(int partitionIndex, Path path, CharSequence columnName, long columnNameTxn) {
+        // posting list indexes are written only to compressed partitions
+        if (!txFile.isPartitionCompressedByPartitionTimestamp(openPartitionInfo.getQuick(partitionIndex * PARTITIONS_SLOT_SIZE))) {
+            return false;
+        }
+        final int plen = path.length();
+        try {
+            return PostingIndexUtils.isPostingIndex(ff, BitmapIndexUtils.keyFileName(path, columnName, columnNameTxn));
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
     private SymbolMapReaderImpl newSymbolMapReader(int symbolColumnIndex, int columnIndex) {
         // symbol column index is the index of symbol column in dense array of symbol columns, e.g.
         // if table has only one symbol columns, the symbolColumnIndex is 0 regardless of column position
@@ -834,12 +895,20 @@ public class TableReader implements Closeable, SymbolTableSource {
             ObjList<MemoryMR> columns,
             int primaryIndex,
             MemoryMR mem,
-            long columnSize
+            long columnSize,
+            boolean compressed
     ) {
-        if (mem != null && mem != NullMemoryMR.INSTANCE) {
+        if (mem != null && mem != NullMemoryMR.INSTANCE && (mem instanceof MemoryCMRCompressedImpl) == compressed) {
             mem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_READER);
         } else {
-            mem = Vm.getMRInstance(ff, path, columnSize, MemoryTag.MMAP_TABLE_READER);
+            Misc.free(mem);
+            if (compressed) {
+                // compressed partitions are decompressed into native memory on open
+                mem = new MemoryCMRCompressedImpl(MemoryTag.NATIVE_TABLE_READER);
+                mem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_READER);
+            } else {
+                mem = Vm.getMRInstance(ff, path, columnSize, MemoryTag.MMAP_TABLE_READER);
+            }
             columns.setQuick(primaryIndex, mem);
         }
         return mem;
@@ -1072,6 +1141,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                 columnTxn = columnVersionReader.getDefaultColumnNameTxn(writerIndex);
             }
             final long columnRowCount = partitionRowCount - columnTop;
+            final boolean compressed = txFile.isPartitionCompressedByPartitionTimestamp(partitionTimestamp);
 
             // When column is added mid-table existence the top record is only
             // created in the current partition. Older partitions would simply have no
@@ -1083,18 +1153,18 @@ public class TableReader implements Closeable, SymbolTableSource {
                 if (ColumnType.isVariableLength(columnType)) {
                     long columnSize = columnRowCount * 8L + 8L;
                     TableUtils.iFile(path.trimTo(plen), name, columnTxn);
-                    mem2 = openOrCreateMemory(path, columns, secondaryIndex, mem2, columnSize);
+                    mem2 = openOrCreateMemory(path, columns, secondaryIndex, mem2, columnSize, compressed);
                     long column2Size = mem2.getLong(columnRowCount * 8L);
                     if (column2Size <= 0 || column2Size >= (1L << 40)) {
                         LOG.critical().$("Invalid var len column size [column=").$(name).$(", size=").$(column2Size).$(", path=").$(path).I$();
                         throw CairoException.critical(0).put("Invalid column size [column=").put(path).put(", size=").put(column2Size).put(']');
                     }
                     TableUtils.dFile(path.trimTo(plen), name, columnTxn);
-                    openOrCreateMemory(path, columns, primaryIndex, mem1, column2Size);
+                    openOrCreateMemory(path, columns, primaryIndex, mem1, column2Size, compressed);
                 } else {
                     long columnSize = columnRowCount << ColumnType.pow2SizeOf(columnType);
                     TableUtils.dFile(path.trimTo(plen), name, columnTxn);
-                    openOrCreateMemory(path, columns, primaryIndex, mem1, columnSize);
+                    openOrCreateMemory(path, columns, primaryIndex, mem1, columnSize, compressed);
                     Misc.free(columns.getAndSetQuick(secondaryIndex, null));
                 }
 
@@ -1102,7 +1172,11 @@ public class TableReader implements Closeable, SymbolTableSource {
 
                 if (metadata.isColumnIndexed(columnIndex)) {
                     BitmapIndexReader indexReader = indexReaders.getQuick(primaryIndex);
-                    if (indexReader != null) {
+                    if (compressed || indexReader instanceof AbstractPostingIndexReader) {
+                        // index format of the partition may have changed, readers are re-created lazily
+                        Misc.free(indexReaders.getAndSetQuick(primaryIndex, null));
+                        Misc.free(indexReaders.getAndSetQuick(secondaryIndex, null));
+                    } else if (indexReader != null) {
                         indexReader.of(configuration, path.trimTo(plen), name, columnTxn, columnTop);
                     }
                 } else {
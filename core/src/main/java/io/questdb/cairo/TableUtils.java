@@ -48,6 +48,7 @@ import io.questdb.std.str.CharSink;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 import io.questdb.tasks.O3PartitionPurgeTask;
+import io.questdb.tasks.O3PartitionSquashTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -102,7 +103,10 @@ public final class TableUtils {
     public static final String META_SWAP_FILE_NAME = "_meta.swp";
     public static final int MIN_INDEX_VALUE_BLOCK_SIZE = Numbers.ceilPow2(4);
     public static final int NULL_LEN = -1;
+    public static final String SNAPSHOT_CHANGES_FILE_NAME = "_snapshot_changes";
     public static final String SNAPSHOT_META_FILE_NAME = "_snapshot";
+    public static final String SNAPSHOT_TXN_DIR = "txn";
+    public static final String SORT_SPILL_DIR_NAME = ".sort_spill";
     public static final String SYMBOL_KEY_REMAP_FILE_SUFFIX = ".r";
     public static final char SYSTEM_TABLE_NAME_SUFFIX = '~';
     public static final int TABLE_DOES_NOT_EXIST = 1;
@@ -1286,12 +1290,61 @@ public final class TableUtils {
         deletedMeta.markDeleted();
     }
 
+    /**
+     * Removes the directories on the tiering volume which the moved partitions of the table link to.
+     * The links are left to be removed along with the rest of the table directory. Links to other
+     * locations, e.g. attached partitions, are not followed.
+     *
+     * @param ff         files facade
+     * @param tablePath  path to the table directory
+     * @param volumePath root of the partition tiering volume, null when partition tiering is disabled
+     * @param log        log to report the directories which cannot be removed
+     */
+    public static void removeMovedPartitions(FilesFacade ff, Path tablePath, @Nullable CharSequence volumePath, Log log) {
+        if (volumePath == null) {
+            return;
+        }
+        final int tablePathLen = tablePath.length();
+        long p = ff.findFirst(tablePath.$());
+        if (p > 0) {
+            try {
+                do {
+                    long pUtf8NameZ = ff.findName(p);
+                    if (ff.findType(p) == Files.DT_LNK && Files.notDots(pUtf8NameZ)) {
+                        removeMovedPartition(ff, tablePath.trimTo(tablePathLen).concat(pUtf8NameZ).$(), volumePath, log);
+                    }
+                } while (ff.findNext(p) > 0);
+            } finally {
+                ff.findClose(p);
+                tablePath.trimTo(tablePathLen);
+            }
+        }
+    }
+
     public static void removeOrException(FilesFacade ff, int fd, LPSZ path) {
         if (ff.exists(path) && !ff.closeRemove(fd, path)) {
             throw CairoException.critical(ff.errno()).put("Cannot remove ").put(path);
         }
     }
 
+    /**
+     * Removes partition directory. A partition moved to the tiering volume is a soft link, the
+     * directory it links to is removed along with the link. Other soft links, e.g. partitions
+     * attached from another location, are only unlinked.
+     *
+     * @param ff         files facade
+     * @param path       path to the partition directory
+     * @param volumePath root of the partition tiering volume, null when partition tiering is disabled
+     * @param log        log to report the removal
+     * @return true when the partition directory, or the link, has been removed
+     */
+    public static boolean removePartitionDir(FilesFacade ff, Path path, @Nullable CharSequence volumePath, Log log) {
+        if (volumePath != null && ff.isSoftLink(path)) {
+            removeMovedPartition(ff, path, volumePath, log);
+        }
+        return ff.unlinkOrRemove(path, log);
+    }
+
     public static void renameColumnInMetadata(
             CharSequence columnName,
             CharSequence newName,
@@ -1428,6 +1481,22 @@ public final class TableUtils {
         }
     }
 
+    public static boolean scheduleSquashO3Partitions(MessageBus messageBus, TableToken tableToken) {
+        final MPSequence seq = messageBus.getO3PartitionSquashPubSeq();
+        while (true) {
+            long cursor = seq.next();
+            if (cursor > -1) {
+                O3PartitionSquashTask task = messageBus.getO3PartitionSquashQueue().get(cursor);
+                task.of(tableToken);
+                seq.done(cursor);
+                return true;
+            } else if (cursor == -1) {
+                return false;
+            }
+            Os.pause();
+        }
+    }
+
     public static void setNull(int columnType, long addr, long count) {
         switch (ColumnType.tagOf(columnType)) {
             case ColumnType.BOOLEAN:
@@ -1565,8 +1634,8 @@ public final class TableUtils {
                 }
 
                 if (isColumnIndexed(metaMem, i)) {
-                    if (!ColumnType.isSymbol(type)) {
-                        throw validationException(metaMem).put("Index flag is only supported for SYMBOL").put(" at [").put(i).put(']');
+                    if (!ColumnType.isSymbol(type) && !ValueIndexUtils.isSupported(type)) {
+                        throw validationException(metaMem).put("Index flag is only supported for SYMBOL, INT, LONG, UUID and IPv4").put(" at [").put(i).put(']');
                     }
 
                     if (getIndexBlockCapacity(metaMem, i) < 2) {
@@ -1724,6 +1793,20 @@ public final class TableUtils {
         return metaMem.getInt(offset);
     }
 
+    private static boolean isOnVolume(Path path, CharSequence volumePath) {
+        final int len = volumePath.length();
+        return Chars.startsWith(path, volumePath)
+                && (len > 0 && volumePath.charAt(len - 1) == Files.SEPARATOR || path.length() > len && path.charAt(len) == Files.SEPARATOR);
+    }
+
+    private static void removeMovedPartition(FilesFacade ff, Path link, CharSequence volumePath, Log log) {
+        try (Path target = new Path()) {
+            if (ff.readLink(link, target) && isOnVolume(target, volumePath) && !ff.rmdir(target)) {
+                log.error().$("could not remove moved partition [path=").utf8(target).$(", errno=").$(ff.errno()).I$();
+            }
+        }
+    }
+
     // Utility method for debugging. This method is not used in production.
     @SuppressWarnings("unused")
     static boolean assertTimestampInOrder(long srcTimestampAddr, long srcDataMax) {
@@ -34,6 +34,8 @@ import io.questdb.cairo.sql.AsyncWriterCommand;
 import io.questdb.cairo.sql.SymbolTable;
 import io.questdb.cairo.sql.TableRecordMetadata;
 import io.questdb.cairo.sql.TableReferenceOutOfDateException;
+import io.questdb.cairo.vm.MemoryCMORCompressedImpl;
+import io.questdb.cairo.vm.MemoryCMRCompressedImpl;
 import io.questdb.cairo.vm.NullMapWriter;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.*;
@@ -92,13 +94,14 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     public static final int PARTITION_SINK_COL_TOP_OFFSET = PARTITION_SINK_SIZE_LONGS * Long.BYTES;
     public static final int TIMESTAMP_MERGE_ENTRY_BYTES = Long.BYTES * 2;
     private static final ObjectFactory<MemoryCMOR> GET_MEMORY_CMOR = Vm::getMemoryCMOR;
+    private static final ObjectFactory<MemoryCMOR> GET_MEMORY_CMOR_COMPRESSED = () -> new MemoryCMORCompressedImpl(MemoryTag.NATIVE_TABLE_WRITER);
     private static final long IGNORE = -1L;
     private static final Log LOG = LogFactory.getLog(TableWriter.class);
     /*
         The most recent logical partition is allowed to have up to cairo.o3.last.partition.max.splits (20 by default) splits.
-        Any other partition is allowed to have 0 splits (1 partition in total).
+        Any other partition is allowed to have up to cairo.o3.mid.partition.max.splits (8 by default) splits. These are
+        squashed by O3PartitionSquashJob once the partition receives no O3 writes for cairo.o3.partition.squash.quiet.period.
      */
-    private static final int MAX_MID_SUB_PARTITION_COUNT = 1;
     private static final Runnable NOOP = () -> {
     };
     private static final Row NOOP_ROW = new NoOpRow();
@@ -113,6 +116,11 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     // Publisher source is identified by a long value
     private final AlterOperation alterOp = new AlterOperation();
     private final LongConsumer appendTimestampSetter;
+    private final ColumnChecksumWriter columnChecksumWriter;
+    private final int columnSummaryBlockRowCount;
+    // timestamps of the partitions which zone maps and checksums are to be updated after commit
+    private final LongList columnSummaryPartitions = new LongList();
+    private final boolean columnSummariesEnabled;
     private final ColumnVersionWriter columnVersionWriter;
     private final MPSequence commandPubSeq;
     private final RingQueue<TableWriterTask> commandQueue;
@@ -167,8 +175,11 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final LongList rowValueIsNotNull = new LongList();
     private final TxReader slaveTxReader;
     private final DatabaseSnapshotAgent snapshotAgent;
+    // logical partition timestamp -> time of the last O3 write into the partition
+    private final LongLongHashMap splitPartitionActivity = new LongLongHashMap();
     private final ObjList<MapWriter> symbolMapWriters;
-    private final IntList symbolRewriteMap = new IntList();
+    // WAL symbol key -> table symbol key, per column, the maps are used by concurrent remap tasks
+    private final ObjList<IntList> symbolRewriteMaps = new ObjList<>();
     private final MemoryMARW todoMem = Vm.getMARWInstance();
     private final TxWriter txWriter;
     private final FindVisitor removePartitionDirsNotAttached = this::removePartitionDirsNotAttached;
@@ -176,7 +187,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final Uuid uuid = new Uuid();
     private final LowerCaseCharSequenceIntHashMap validationMap = new LowerCaseCharSequenceIntHashMap();
     private final WeakClosableObjectPool<MemoryCMOR> walColumnMemoryPool;
+    private final WeakClosableObjectPool<MemoryCMOR> walCompressedColumnMemoryPool;
     private final ObjList<MemoryCMOR> walMappedColumns = new ObjList<>();
+    private final ZoneMapWriter zoneMapWriter;
     private ObjList<? extends MemoryA> activeColumns;
     private ObjList<Runnable> activeNullSetters;
     private ColumnVersionReader attachColumnVersionReader;
@@ -189,6 +202,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private long avgRecordSize;
     private boolean avoidIndexOnCommit = false;
     private int columnCount;
+    // the last partition is covered by zone maps and checksums in full blocks, this is how many rows are covered
+    private long columnSummaryLastPartitionNameTxn;
+    private long columnSummaryLastPartitionRowCount;
+    private long columnSummaryLastPartitionTimestamp = Long.MIN_VALUE;
     private long committedMasterRef;
     private DedupColumnCommitAddresses dedupColumnCommitAddresses;
     private String designatedTimestampColumnName;
@@ -225,6 +242,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private PurgingOperator purgingOperator;
     private boolean removeDirOnCancelRow = true;
     private int rowAction = ROW_ACTION_OPEN_PARTITION;
+    private boolean splitPartitionsTouched;
     private TableToken tableToken;
     private final O3ColumnUpdateMethod o3MoveWalFromFilesToLastPartitionRef = this::o3MoveWalFromFilesToLastPartition;
     private final O3ColumnUpdateMethod o3SortFixColumnRef = this::o3SortFixColumn;
@@ -233,6 +251,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final O3ColumnUpdateMethod o3MoveUncommittedRef = this::o3MoveUncommitted0;
     private final O3ColumnUpdateMethod o3MoveLagRef = this::o3MoveLag0;
     private final O3ColumnUpdateMethod o3MergeFixColumnLagRef = this::o3MergeFixColumnLag;
+    private final O3ColumnUpdateMethod remapWalSymbolColumnRef = this::remapWalSymbolColumn;
     private long tempMem16b = Unsafe.malloc(16, MemoryTag.NATIVE_TABLE_WRITER);
     private LongConsumer timestampSetter;
     private long todoTxn;
@@ -259,6 +278,13 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         this.ddlListener = ddlListener;
         this.snapshotAgent = snapshotAgent;
         this.partitionFrameFactory = new PartitionFrameFactory(configuration);
+        this.zoneMapWriter = configuration.isZoneMapEnabled() ? new ZoneMapWriter(configuration) : null;
+        this.columnChecksumWriter = configuration.isColumnChecksumEnabled() ? new ColumnChecksumWriter(configuration) : null;
+        this.columnSummariesEnabled = zoneMapWriter != null || columnChecksumWriter != null;
+        this.columnSummaryBlockRowCount = Math.min(
+                zoneMapWriter != null ? zoneMapWriter.getBlockRowCount() : Integer.MAX_VALUE,
+                columnChecksumWriter != null ? columnChecksumWriter.getBlockRowCount() : Integer.MAX_VALUE
+        );
         this.mixedIOFlag = configuration.isWriterMixedIOEnabled();
         this.metrics = metrics;
         this.ownMessageBus = ownMessageBus;
@@ -339,6 +365,14 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             configureAppendPosition();
             purgeUnusedPartitions();
             minSplitPartitionTimestamp = findMinSplitPartitionTimestamp();
+            // splits could be left behind by the previous writer instance
+            splitPartitionsTouched = true;
+            scheduleSquashSplitPartitions();
+            if (columnSummariesEnabled && txWriter.getPartitionCount() > 0) {
+                // the last partition is sealed once it is not the last one anymore
+                columnSummaryLastPartitionTimestamp = txWriter.getPartitionTimestampByIndex(txWriter.getPartitionCount() - 1);
+                columnSummaryLastPartitionNameTxn = txWriter.getPartitionNameTxn(txWriter.getPartitionCount() - 1);
+            }
             clearTodoLog();
             this.slaveTxReader = new TxReader(ff);
             commandQueue = new RingQueue<>(
@@ -351,6 +385,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             commandPubSeq = new MPSequence(commandQueue.getCycle());
             commandPubSeq.then(commandSubSeq).then(commandPubSeq);
             walColumnMemoryPool = new WeakClosableObjectPool<>(GET_MEMORY_CMOR, columnCount);
+            walCompressedColumnMemoryPool = new WeakClosableObjectPool<>(GET_MEMORY_CMOR_COMPRESSED, columnCount);
             o3LastTimestampSpreads = new long[configuration.getO3LagCalculationWindowsSize()];
             Arrays.fill(o3LastTimestampSpreads, 0);
         } catch (Throwable e) {
@@ -611,13 +646,13 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         final int existingType = getColumnType(metaMem, columnIndex);
         LOG.info().$("adding index to '").utf8(columnName).$("' [").$(ColumnType.nameOf(existingType)).$(", path=").$(path).I$();
 
-        if (!ColumnType.isSymbol(existingType)) {
+        if (!ColumnType.isSymbol(existingType) && !ValueIndexUtils.isSupported(existingType)) {
             LOG.error().$("cannot create index for [column='").utf8(columnName).$(", type=").$(ColumnType.nameOf(existingType)).$(", path=").$(path).I$();
             throw CairoException.nonCritical().put("cannot create index for [column='").put(columnName).put("', type=").put(ColumnType.nameOf(existingType)).put(", path=").put(path).put(']');
         }
 
         // create indexer
-        final SymbolColumnIndexer indexer = new SymbolColumnIndexer(configuration);
+        final SymbolColumnIndexer indexer = createColumnIndexer(existingType);
 
         final long columnNameTxn = columnVersionWriter.getColumnNameTxn(txWriter.getLastPartitionTimestamp(), columnIndex);
         try {
@@ -860,6 +895,17 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    /**
+     * Partitions other than the last one may be hard-linked into snapshots. A split truncates the
+     * partition in place and the rows past the split point get overwritten by the subsequent writes
+     * into the partition, so these partitions are merged into a new partition version instead.
+     *
+     * @return true when O3 writes may split the partitions other than the last one
+     */
+    public boolean canSplitMidPartition() {
+        return !configuration.isSnapshotHardLinkEnabled();
+    }
+
     @Override
     public void changeCacheFlag(int columnIndex, boolean cache) {
         checkDistressed();
@@ -951,6 +997,11 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             if (txWriter.getLagTxnCount() >= maxLagTxnCount) {
                 // Too many txns are in the lag, so force a full commit.
                 commitToTimestamp = WalTxnDetails.FORCE_FULL_COMMIT;
+            } else if (configuration.isWalApplyBatchEnabled() && txWriter.getLagRowCount() < metadata.getMaxUncommittedRows()) {
+                // The next transaction is a data one, otherwise this one would be forced to commit in full.
+                // Copy the transaction to LAG, the run of transactions is then sorted, deduplicated
+                // and merged into the table in one go, as a single physical commit.
+                commitToTimestamp = Long.MIN_VALUE;
             } else {
                 // If committed to this timestamp, will it make any of the transactions fully committed?
                 long canCommitToTxn = walTxnDetails.getFullyCommittedTxn(txWriter.getSeqTxn(), seqTxn, commitToTimestamp);
@@ -994,6 +1045,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             txWriter.commit(denseSymbolMapWriters);
 
             squashSplitPartitions(minSplitPartitionTimestamp, txWriter.maxTimestamp, configuration.getO3LastPartitionMaxSplits());
+            scheduleSquashSplitPartitions();
+            updateColumnSummaries();
 
             // Bookmark masterRef to track how many rows is in uncommitted state
             committedMasterRef = masterRef;
@@ -1013,6 +1066,147 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return 0L;
     }
 
+    /**
+     * Rewrites the partition into block compressed column files and marks it read-only. Compressed
+     * partitions are decompressed by table readers when they are opened, so the partitions which are
+     * scanned rarely take less disk space at the price of slower first access. Active partition
+     * cannot be compressed.
+     *
+     * @param timestamp partition timestamp
+     */
+    @Override
+    public void compressPartition(long timestamp) {
+        assert metadata.getTimestampIndex() > -1;
+        assert PartitionBy.isPartitioned(partitionBy);
+
+        if (inTransaction()) {
+            LOG.info()
+                    .$("committing open transaction before applying compress partition command [table=")
+                    .utf8(tableToken.getTableName())
+                    .$(", partition=").$ts(timestamp)
+                    .I$();
+            commit();
+        }
+
+        timestamp = txWriter.getLogicalPartitionTimestamp(timestamp);
+        if (timestamp == txWriter.getLogicalPartitionTimestamp(txWriter.getMaxTimestamp())) {
+            throw CairoException.nonCritical().put("cannot compress active partition [table=").put(tableToken.getTableName())
+                    .put(", partitionTimestamp=").ts(timestamp)
+                    .put(']');
+        }
+
+        int partitionIndex = txWriter.getPartitionIndex(timestamp);
+        if (partitionIndex < 0) {
+            throw CairoException.nonCritical().put("partition does not exist [table=").put(tableToken.getTableName())
+                    .put(", partitionTimestamp=").ts(timestamp)
+                    .put(']');
+        }
+        if (txWriter.isPartitionCompressed(partitionIndex)) {
+            LOG.info().$("partition is already compressed [table=").utf8(tableToken.getTableName())
+                    .$(", partition=").$ts(timestamp)
+                    .I$();
+            return;
+        }
+        if (txWriter.isPartitionReadOnly(partitionIndex)) {
+            throw CairoException.nonCritical().put("cannot compress read-only partition [table=").put(tableToken.getTableName())
+                    .put(", partitionTimestamp=").ts(timestamp)
+                    .put(']');
+        }
+
+        // compressed partitions are never written to, merge the splits beforehand
+        squashPartitionForce(partitionIndex);
+        if (columnSummariesEnabled) {
+            // zone maps are read in place and checksums describe uncompressed data, neither is compressed
+            columnSummaryPartitions.add(timestamp);
+            updateColumnSummaries();
+        }
+
+        final long partitionNameTxn = txWriter.getPartitionNameTxn(partitionIndex);
+        final long partitionSize = txWriter.getPartitionSize(partitionIndex);
+        try {
+            setPathForPartition(path.trimTo(rootLen), partitionBy, timestamp, partitionNameTxn);
+            setPathForPartition(other.trimTo(rootLen), partitionBy, timestamp, txWriter.txn);
+            createDirsOrFail(ff, other.slash$(), configuration.getMkDirMode());
+            final int plen = path.length();
+            final int olen = other.length();
+            long compressedSize = 0;
+            long uncompressedSize = 0;
+            try (
+                    ColumnCompressor compressor = new ColumnCompressor(ColumnCompressor.DEFAULT_BLOCK_SIZE);
+                    PostingIndexWriter postingIndexWriter = new PostingIndexWriter(configuration)
+            ) {
+                for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                    final int columnType = metadata.getColumnType(i);
+                    if (columnType < 0) {
+                        // deleted column
+                        continue;
+                    }
+                    final CharSequence columnName = metadata.getColumnName(i);
+                    final long columnNameTxn = columnVersionWriter.getColumnNameTxn(timestamp, i);
+                    final int codec = ColumnType.isTimestamp(columnType) || ColumnType.tagOf(columnType) == ColumnType.DATE
+                            ? ColumnCompressor.CODEC_DELTA
+                            : ColumnCompressor.CODEC_DEFLATE;
+                    dFile(path.trimTo(plen), columnName, columnNameTxn);
+                    if (ff.exists(path)) {
+                        uncompressedSize += ff.length(path);
+                        compressedSize += compressor.compress(ff, path, dFile(other.trimTo(olen), columnName, columnNameTxn), codec);
+                    }
+                    if (ColumnType.isVariableLength(columnType)) {
+                        // offsets are increasing, deltas compress well
+                        iFile(path.trimTo(plen), columnName, columnNameTxn);
+                        if (ff.exists(path)) {
+                            uncompressedSize += ff.length(path);
+                            compressedSize += compressor.compress(ff, path, iFile(other.trimTo(olen), columnName, columnNameTxn), ColumnCompressor.CODEC_DELTA);
+                        }
+                    }
+                    if (metadata.isColumnIndexed(i)) {
+                        // index files are read in place, the partition is not written to anymore,
+                        // so the index is converted to delta encoded posting lists
+                        keyFileName(path.trimTo(plen), columnName, columnNameTxn);
+                        if (ff.exists(path)) {
+                            uncompressedSize += ff.length(path) + ff.length(valueFileName(path.trimTo(plen), columnName, columnNameTxn));
+                            compressedSize += postingIndexWriter.convert(path.trimTo(plen), other.trimTo(olen), columnName, columnNameTxn);
+                        }
+                    }
+                    if (ZoneMapUtils.isSupported(columnType)) {
+                        linkFile(ff, ZoneMapUtils.zoneMapFileName(path.trimTo(plen), columnName, columnNameTxn), ZoneMapUtils.zoneMapFileName(other.trimTo(olen), columnName, columnNameTxn));
+                    }
+                    linkFile(ff, ColumnChecksumUtils.checksumFileName(path.trimTo(plen), columnName, columnNameTxn), ColumnChecksumUtils.checksumFileName(other.trimTo(olen), columnName, columnNameTxn));
+                }
+            } catch (Throwable th) {
+                LOG.error().$("could not compress partition [table=").utf8(tableToken.getTableName())
+                        .$(", partition=").$ts(timestamp)
+                        .$(", error=").$(th)
+                        .I$();
+                if (!ff.rmdir(other.trimTo(olen).$())) {
+                    LOG.error().$("could not remove compressed partition copy [path=").$(other).$(", errno=").$(ff.errno()).I$();
+                }
+                throw th;
+            }
+
+            txWriter.updatePartitionSizeAndTxnByRawIndex(partitionIndex * LONGS_PER_TX_ATTACHED_PARTITION, partitionSize);
+            txWriter.setPartitionCompressedByTimestamp(timestamp, true);
+            txWriter.setPartitionReadOnlyByTimestamp(timestamp, true);
+            // readers have to reload the partition table to see the flags of a non-last partition
+            txWriter.bumpPartitionTableVersion();
+            partitionRemoveCandidates.add(timestamp, partitionNameTxn);
+
+            columnVersionWriter.commit();
+            txWriter.setColumnVersion(columnVersionWriter.getVersion());
+            txWriter.commit(denseSymbolMapWriters);
+            processPartitionRemoveCandidates();
+
+            LOG.info().$("partition compressed [table=").utf8(tableToken.getTableName())
+                    .$(", partition=").$ts(timestamp)
+                    .$(", size=").$(uncompressedSize)
+                    .$(", compressedSize=").$(compressedSize)
+                    .I$();
+        } finally {
+            path.trimTo(rootLen);
+            other.trimTo(rootLen);
+        }
+    }
+
     public void destroy() {
         // Closes all the files and makes this instance unusable e.g. it cannot return to the pool on close.
         LOG.info().$("closing table files [table=").utf8(tableToken.getTableName())
@@ -1045,6 +1239,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             assert !txWriter.attachedPartitionsContains(timestamp);
             return AttachDetachStatus.DETACH_ERR_MISSING_PARTITION;
         }
+        if (txWriter.isPartitionCompressed(partitionIndex)) {
+            // detached partitions are attached back as plain column files
+            return AttachDetachStatus.DETACH_ERR_COMPRESSED;
+        }
 
         // To detach the partition, squash it into single folder if required
         squashPartitionForce(partitionIndex);
@@ -1206,7 +1404,6 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             throw CairoException.invalidMetadata("column does not exist", columnName);
         }
         if (!isColumnIndexed(metaMem, columnIndex)) {
-            // if a column is indexed, it is also of type SYMBOL
             throw CairoException.invalidMetadata("column is not indexed", columnName);
         }
         final int defaultIndexValueBlockSize = Numbers.ceilPow2(configuration.getIndexValueBlockSize());
@@ -1507,6 +1704,71 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return symbolMapWriters.getQuick(columnIndex).isCached();
     }
 
+    /**
+     * Links a copy of a cold partition, made on another volume without holding the writer, into the
+     * table directory as a new partition version. The version is a soft link to the copy, the same
+     * way as partitions of tables created IN VOLUME. Readers and writers keep addressing the partition
+     * by its usual path, an O3 write which rewrites it brings it back to the table directory. The
+     * previous partition version is purged once it is not used by readers.
+     * <p>
+     * The copy is linked only when the partition has not changed since it was taken: the partition
+     * version and row count are the same and there were no column updates or structure changes.
+     *
+     * @param partitionTimestamp timestamp of the partition
+     * @param partitionNameTxn   name txn of the copied partition version
+     * @param partitionSize      row count of the copied partition version
+     * @param columnVersion      column version of the table at the time of the copy
+     * @param metadataVersion    metadata version of the table at the time of the copy
+     * @param copyPath           path to the partition copy
+     * @return true when the copy has been linked, false when the partition has changed and the copy is stale
+     */
+    public boolean linkPartitionCopy(
+            long partitionTimestamp,
+            long partitionNameTxn,
+            long partitionSize,
+            long columnVersion,
+            int metadataVersion,
+            Path copyPath
+    ) {
+        final int partitionIndex = txWriter.findAttachedPartitionIndexByLoTimestamp(partitionTimestamp);
+        if (inTransaction()
+                || partitionIndex < 0
+                // the last partition is appended to in place
+                || partitionIndex >= txWriter.getPartitionCount() - 1
+                // splits are squashed into a new partition version, let them be squashed first
+                || findLogicalPartitionIndexHi(partitionIndex) != partitionIndex + 1
+                || txWriter.getPartitionNameTxn(partitionIndex) != partitionNameTxn
+                || txWriter.getPartitionSize(partitionIndex) != partitionSize
+                || txWriter.getColumnVersion() != columnVersion
+                || txWriter.getMetadataVersion() != metadataVersion) {
+            return false;
+        }
+
+        try {
+            setPathForPartition(other.trimTo(rootLen), partitionBy, partitionTimestamp, txWriter.txn);
+            if (ff.softLink(copyPath.$(), other.$()) != 0) {
+                throw CairoException.critical(ff.errno()).put("could not link partition copy [path=").put(other)
+                        .put(", copyPath=").put(copyPath)
+                        .put(']');
+            }
+
+            txWriter.updatePartitionSizeAndTxnByRawIndex(partitionIndex * LONGS_PER_TX_ATTACHED_PARTITION, partitionSize);
+            // readers have to reload the partition table to see the new version of a non-last partition
+            txWriter.bumpPartitionTableVersion();
+            partitionRemoveCandidates.add(partitionTimestamp, partitionNameTxn);
+            txWriter.commit(denseSymbolMapWriters);
+            processPartitionRemoveCandidates();
+
+            LOG.info().$("moved partition to volume [table=").utf8(tableToken.getTableName())
+                    .$(", partition=").$ts(partitionTimestamp)
+                    .$(", path=").utf8(copyPath)
+                    .I$();
+            return true;
+        } finally {
+            other.trimTo(rootLen);
+        }
+    }
+
     public void markSeqTxnCommitted(long seqTxn) {
         setSeqTxn(seqTxn);
         txWriter.commit(denseSymbolMapWriters);
@@ -2034,6 +2296,17 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         int partitionIndex = txWriter.getPartitionIndex(logicalPartitionTimestampToDelete);
         boolean dropped = false;
         if (partitionIndex >= 0) {
+            if (
+                    partitionIndex > 0
+                            && txWriter.isPartitionCompressed(partitionIndex - 1)
+                            && logicalPartitionTimestampToDelete == txWriter.getLogicalPartitionTimestamp(txWriter.getMaxTimestamp())
+            ) {
+                // the previous partition would become the active one, and it cannot be appended to
+                throw CairoException.nonCritical().put("cannot remove active partition, previous partition is compressed [table=")
+                        .put(tableToken.getTableName())
+                        .put(", partitionTimestamp=").ts(logicalPartitionTimestampToDelete)
+                        .put(']');
+            }
             long partitionTimestamp;
             while (partitionIndex < txWriter.getPartitionCount() &&
                     txWriter.getLogicalPartitionTimestamp(
@@ -2127,6 +2400,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             try {
                 LOG.info().$("tx rollback [name=").utf8(tableToken.getTableName()).I$();
                 partitionRemoveCandidates.clear();
+                columnSummaryPartitions.clear();
                 o3CommitBatchTimestampMin = Long.MAX_VALUE;
                 if ((masterRef & 1) != 0) {
                     masterRef++;
@@ -2225,6 +2499,54 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    /**
+     * Squashes splits of the partitions, other than the last one, which did not receive O3 writes
+     * since the given time. Partitions that are being read at the moment are left split, as well as
+     * the ones with recent O3 writes, they are expected to be squashed by a later call.
+     *
+     * @param activityDeadline partitions written to after this time (in micros) are not squashed
+     * @return true if there are split partitions left to squash
+     */
+    public boolean squashQuietSplitPartitions(long activityDeadline) {
+        if (!hasMidPartitionSplits()) {
+            return false;
+        }
+        if (inTransaction()) {
+            // squashing commits the transaction, do not mix it with uncommitted data
+            return true;
+        }
+
+        boolean splitsLeft = false;
+        final long lastLogicalPartitionTimestamp = txWriter.getLogicalPartitionTimestamp(txWriter.getLastPartitionTimestamp());
+        int partitionIndexLo = txWriter.getPartitionIndex(squashPartitionTimestamp(minSplitPartitionTimestamp));
+        while (partitionIndexLo > -1 && partitionIndexLo < txWriter.getPartitionCount()) {
+            final long logicalPartitionTimestamp = txWriter.getLogicalPartitionTimestamp(txWriter.getPartitionTimestampByIndex(partitionIndexLo));
+            if (logicalPartitionTimestamp == lastLogicalPartitionTimestamp) {
+                // splits of the last partition are squashed on commit
+                break;
+            }
+            int partitionIndexHi = findLogicalPartitionIndexHi(partitionIndexLo);
+            if (partitionIndexHi > partitionIndexLo + 1) {
+                if (splitPartitionActivity.get(logicalPartitionTimestamp) < activityDeadline) {
+                    squashSplitPartitions(partitionIndexLo, partitionIndexHi, 1, false);
+                    // squashing does not happen when the partition is locked by readers
+                    partitionIndexHi = findLogicalPartitionIndexHi(partitionIndexLo);
+                    if (partitionIndexHi > partitionIndexLo + 1) {
+                        splitsLeft = true;
+                    } else {
+                        splitPartitionActivity.remove(logicalPartitionTimestamp);
+                    }
+                } else {
+                    splitsLeft = true;
+                }
+            }
+            partitionIndexLo = partitionIndexHi;
+        }
+        minSplitPartitionTimestamp = findMinSplitPartitionTimestamp();
+        updateColumnSummaries();
+        return splitsLeft;
+    }
+
     @Override
     public boolean supportsMultipleWriters() {
         return false;
@@ -2293,6 +2615,13 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     public void upsertColumnVersion(long partitionTimestamp, int columnIndex, long columnTop) {
         columnVersionWriter.upsert(partitionTimestamp, columnIndex, txWriter.txn, columnTop);
         txWriter.updatePartitionColumnVersion(partitionTimestamp);
+        if (columnSummariesEnabled) {
+            // new column version has no zone map and checksums yet
+            columnSummaryPartitions.add(partitionTimestamp);
+            if (partitionTimestamp == columnSummaryLastPartitionTimestamp) {
+                columnSummaryLastPartitionRowCount = 0;
+            }
+        }
     }
 
     /**
@@ -2570,13 +2899,13 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         txWriter.setLagRowCount(txWriter.getLagRowCount() - lagRowCount);
         txWriter.setMaxTimestamp(maxTimestamp);
         if (indexCount > 0) {
-            // To index correctly, we need to set append offset of symbol columns first.
-            // So that re-indexing can read symbol values to the correct limits.
+            // To index correctly, we need to set append offset of indexed columns first.
+            // So that re-indexing can read column values to the correct limits.
             final long newTransientRowCount = txWriter.getTransientRowCount();
-            final int shl = ColumnType.pow2SizeOf(ColumnType.SYMBOL);
             for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
-                if (metadata.getColumnType(i) == ColumnType.SYMBOL && metadata.isColumnIndexed(i)) {
-                    getPrimaryColumn(i).jumpTo(newTransientRowCount << shl);
+                final int columnType = metadata.getColumnType(i);
+                if (columnType > 0 && metadata.isColumnIndexed(i)) {
+                    getPrimaryColumn(i).jumpTo(newTransientRowCount << ColumnType.pow2SizeOf(columnType));
                 }
             }
             updateIndexesParallel(initialTransientRowCount, newTransientRowCount);
@@ -2860,7 +3189,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 }
 
                 // check column is / was indexed
-                if (ColumnType.isSymbol(tableColType)) {
+                if (ColumnType.isSymbol(tableColType) || ValueIndexUtils.isSupported(tableColType)) {
                     boolean isIndexedNow = metadata.isColumnIndexed(colIdx);
                     boolean wasIndexedAtDetached = attachMetadata.isColumnIndexed(detColIdx);
                     int indexValueBlockCapacityNow = metadata.getIndexValueBlockCapacity(colIdx);
@@ -2970,6 +3299,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     }
 
     private boolean canSquashOverwritePartitionTail(int partitionIndex) {
+        // The tail is past the partition size, which hard-linked snapshots are bound by as long as
+        // the partitions they link are not split, see canSplitMidPartition().
         if (snapshotAgent.isInProgress()) {
             // No overwrite can happen while a snapshot is in-flight.
             return true;
@@ -3067,7 +3398,11 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             MemoryCMOR mappedColumnMem = walMappedColumns.getQuick(col);
             if (mappedColumnMem != null) {
                 Misc.free(mappedColumnMem);
-                walColumnMemoryPool.push(mappedColumnMem);
+                if (mappedColumnMem instanceof MemoryCMORCompressedImpl) {
+                    walCompressedColumnMemoryPool.push(mappedColumnMem);
+                } else {
+                    walColumnMemoryPool.push(mappedColumnMem);
+                }
             }
         }
     }
@@ -3134,6 +3469,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
             // Check if partitions are split into too many pieces and merge few of them back.
             squashSplitPartitions(minSplitPartitionTimestamp, txWriter.getMaxTimestamp(), configuration.getO3LastPartitionMaxSplits());
+            // The rest of the splits are squashed in the background.
+            scheduleSquashSplitPartitions();
+            updateColumnSummaries();
 
             // Bookmark masterRef to track how many rows is in uncommitted state
             this.committedMasterRef = masterRef;
@@ -3219,7 +3557,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         configureNullSetters(o3NullSetters2, type, oooPrimary2, oooSecondary2);
 
         if (indexFlag && type > 0) {
-            indexers.extendAndSet(index, new SymbolColumnIndexer(configuration));
+            indexers.extendAndSet(index, createColumnIndexer(type));
         }
         rowValueIsNotNull.add(0);
     }
@@ -3370,6 +3708,13 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
      * @param indexValueBlockCapacity approximate number of values per index key
      * @param plen                    path length. This is used to trim shared path object to.
      */
+    private SymbolColumnIndexer createColumnIndexer(int columnType) {
+        if (ColumnType.isSymbol(columnType)) {
+            return new SymbolColumnIndexer(configuration);
+        }
+        return new ValueColumnIndexer(configuration, columnType);
+    }
+
     private void createIndexFiles(CharSequence columnName, long columnNameTxn, int indexValueBlockCapacity, int plen, boolean force) {
         try {
             keyFileName(path.trimTo(plen), columnName, columnNameTxn);
@@ -3539,6 +3884,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         lastOpenPartitionTs = Long.MIN_VALUE;
         lastOpenPartitionIsReadOnly = false;
         Misc.free(partitionFrameFactory);
+        Misc.free(zoneMapWriter);
+        Misc.free(columnChecksumWriter);
         assert !truncate || distressed || assertColumnPositionIncludeWalLag();
         freeColumns(truncate & !distressed);
         try {
@@ -3647,6 +3994,16 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return true;
     }
 
+    private int findLogicalPartitionIndexHi(int partitionIndexLo) {
+        final long logicalPartitionTimestamp = txWriter.getLogicalPartitionTimestamp(txWriter.getPartitionTimestampByIndex(partitionIndexLo));
+        int partitionIndexHi = partitionIndexLo + 1;
+        while (partitionIndexHi < txWriter.getPartitionCount()
+                && txWriter.getLogicalPartitionTimestamp(txWriter.getPartitionTimestampByIndex(partitionIndexHi)) == logicalPartitionTimestamp) {
+            partitionIndexHi++;
+        }
+        return partitionIndexHi;
+    }
+
     private long findMinSplitPartitionTimestamp() {
         for (int i = 0, n = txWriter.getPartitionCount(); i < n; i++) {
             long partitionTimestamp = txWriter.getPartitionTimestampByIndex(i);
@@ -3913,20 +4270,31 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         linkFile(ff, dFile(path.trimTo(plen), columnName, columnNameTxn), dFile(other.trimTo(plen), newName, newColumnNameTxn));
         if (ColumnType.isVariableLength(columnType)) {
             linkFile(ff, iFile(path.trimTo(plen), columnName, columnNameTxn), iFile(other.trimTo(plen), newName, newColumnNameTxn));
-        } else if (ColumnType.isSymbol(columnType) && metadata.isColumnIndexed(columnIndex)) {
+        } else if (metadata.isColumnIndexed(columnIndex)) {
             linkFile(ff, keyFileName(path.trimTo(plen), columnName, columnNameTxn), keyFileName(other.trimTo(plen), newName, newColumnNameTxn));
             linkFile(ff, valueFileName(path.trimTo(plen), columnName, columnNameTxn), valueFileName(other.trimTo(plen), newName, newColumnNameTxn));
         }
+        if (ZoneMapUtils.isSupported(columnType)) {
+            linkFile(ff, ZoneMapUtils.zoneMapFileName(path.trimTo(plen), columnName, columnNameTxn), ZoneMapUtils.zoneMapFileName(other.trimTo(plen), newName, newColumnNameTxn));
+        }
+        linkFile(ff, ColumnChecksumUtils.checksumFileName(path.trimTo(plen), columnName, columnNameTxn), ColumnChecksumUtils.checksumFileName(other.trimTo(plen), newName, newColumnNameTxn));
         path.trimTo(rootLen);
         other.trimTo(rootLen);
         purgingOperator.add(columnIndex, columnNameTxn, partitionTimestamp, partitionNameTxn);
     }
 
+    private boolean hasMidPartitionSplits() {
+        return minSplitPartitionTimestamp < txWriter.getLogicalPartitionTimestamp(txWriter.getLastPartitionTimestamp());
+    }
+
     private void indexHistoricPartitions(SymbolColumnIndexer indexer, CharSequence columnName, int indexValueBlockSize) {
         long ts = this.txWriter.getMaxTimestamp();
         if (ts > Numbers.LONG_NaN) {
             final int columnIndex = metadata.getColumnIndex(columnName);
-            try (final MemoryMR roMem = indexMem) {
+            try (
+                    final MemoryMR roMem = indexMem;
+                    final MemoryMR compressedMem = new MemoryCMRCompressedImpl(MemoryTag.NATIVE_TABLE_WRITER)
+            ) {
                 // Index last partition separately
                 for (int i = 0, n = txWriter.getPartitionCount() - 1; i < n; i++) {
 
@@ -3951,10 +4319,19 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
                             if (columnTop > -1L && partitionSize > columnTop) {
                                 TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
-                                final long columnSize = (partitionSize - columnTop) << ColumnType.pow2SizeOf(ColumnType.INT);
-                                roMem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WRITER);
+                                final long columnSize = (partitionSize - columnTop) << ColumnType.pow2SizeOf(metadata.getColumnType(columnIndex));
+                                final MemoryMR columnMem = txWriter.isPartitionCompressed(i) ? compressedMem : roMem;
+                                columnMem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WRITER);
                                 indexer.configureWriter(path.trimTo(plen), columnName, columnNameTxn, columnTop);
-                                indexer.index(roMem, columnTop, partitionSize);
+                                indexer.index(columnMem, columnTop, partitionSize);
+                            }
+
+                            if (txWriter.isPartitionCompressed(i)) {
+                                // compressed partitions keep their indexes as posting lists
+                                indexer.clear();
+                                try (PostingIndexWriter postingIndexWriter = new PostingIndexWriter(configuration)) {
+                                    postingIndexWriter.convert(path.trimTo(plen), path, columnName, columnNameTxn);
+                                }
                             }
                         }
                     }
@@ -4052,52 +4429,27 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     }
 
                     if (!ColumnType.isVariableLength(type)) {
-                        MemoryCMOR primary = walColumnMemoryPool.pop();
-
                         dFile(walPath, metadata.getColumnName(columnIndex), -1L);
-                        primary.ofOffset(
-                                configuration.getFilesFacade(),
-                                walPath,
-                                rowLo << sizeBitsPow2,
-                                rowHi << sizeBitsPow2,
-                                MemoryTag.MMAP_TABLE_WRITER,
-                                CairoConfiguration.O_NONE
-                        );
+                        MemoryCMOR primary = openWalColumn(walPath, rowLo << sizeBitsPow2, rowHi << sizeBitsPow2);
                         walPath.trimTo(walPathLen);
 
                         walMappedColumns.add(primary);
                         walMappedColumns.add(null);
                     } else {
                         sizeBitsPow2 = 3;
-                        MemoryCMOR fixed = walColumnMemoryPool.pop();
-                        MemoryCMOR var = walColumnMemoryPool.pop();
-
                         iFile(walPath, metadata.getColumnName(columnIndex), -1L);
-                        fixed.ofOffset(
-                                configuration.getFilesFacade(),
-                                walPath,
-                                rowLo << sizeBitsPow2,
-                                (rowHi + 1) << sizeBitsPow2,
-                                MemoryTag.MMAP_TABLE_WRITER,
-                                CairoConfiguration.O_NONE
-                        );
+                        MemoryCMOR fixed = openWalColumn(walPath, rowLo << sizeBitsPow2, (rowHi + 1) << sizeBitsPow2);
                         walPath.trimTo(walPathLen);
+                        // added before var memory is opened to be released by closeWalColumns() on failure
+                        walMappedColumns.add(null);
+                        walMappedColumns.add(fixed);
 
                         long varOffset = fixed.getLong(rowLo << sizeBitsPow2);
                         long varLen = fixed.getLong(rowHi << sizeBitsPow2) - varOffset;
                         dFile(walPath, metadata.getColumnName(columnIndex), -1L);
-                        var.ofOffset(
-                                configuration.getFilesFacade(),
-                                walPath,
-                                varOffset,
-                                varOffset + varLen,
-                                MemoryTag.MMAP_TABLE_WRITER,
-                                CairoConfiguration.O_NONE
-                        );
+                        MemoryCMOR var = openWalColumn(walPath, varOffset, varOffset + varLen);
                         walPath.trimTo(walPathLen);
-
-                        walMappedColumns.add(var);
-                        walMappedColumns.add(fixed);
+                        walMappedColumns.setQuick(walMappedColumns.size() - 2, var);
                     }
                 } else {
                     walMappedColumns.add(null);
@@ -4307,6 +4659,68 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return false;
     }
 
+    /**
+     * Carries zone maps and checksums of the rows, which O3 merge copies to the new partition version
+     * unchanged, over to the new version, so that only the merged rows are summarized on commit. These
+     * are the rows with timestamps below the minimum O3 timestamp. Checksums cover the stored column
+     * data, they are not carried over for columns with a column top, because the merge may fill the
+     * top with nulls.
+     */
+    private void o3CarryOverColumnSummaries(long partitionTimestamp, long srcNameTxn, long srcRowCount, long o3TimestampMin) {
+        if (!columnSummariesEnabled) {
+            return;
+        }
+        int fd = -1;
+        long address = 0;
+        final long size = srcRowCount * Long.BYTES;
+        try {
+            setPathForPartition(path.trimTo(rootLen), partitionBy, partitionTimestamp, srcNameTxn);
+            final int plen = path.length();
+            final int timestampIndex = metadata.getTimestampIndex();
+            dFile(path, metadata.getColumnName(timestampIndex), columnVersionWriter.getColumnNameTxn(partitionTimestamp, timestampIndex));
+            fd = TableUtils.openRO(ff, path, LOG);
+            address = TableUtils.mapRO(ff, fd, size, MemoryTag.MMAP_TABLE_WRITER);
+            long mergeRowCount = Vect.binarySearch64Bit(address, o3TimestampMin, 0, srcRowCount - 1, BinarySearch.SCAN_UP);
+            if (mergeRowCount < 0) {
+                mergeRowCount = -mergeRowCount - 1;
+            }
+            if (mergeRowCount < columnSummaryBlockRowCount) {
+                return;
+            }
+
+            path.trimTo(plen);
+            setPathForPartition(other.trimTo(rootLen), partitionBy, partitionTimestamp, txWriter.txn);
+            for (int i = 0; i < columnCount; i++) {
+                final int columnType = metadata.getColumnType(i);
+                final long columnTop = columnVersionWriter.getColumnTop(partitionTimestamp, i);
+                if (columnType > 0 && columnTop > -1) {
+                    final long columnNameTxn = columnVersionWriter.getColumnNameTxn(partitionTimestamp, i);
+                    if (zoneMapWriter != null && ZoneMapUtils.isSupported(columnType)) {
+                        zoneMapWriter.carryOver(path, other, metadata.getColumnName(i), columnNameTxn, columnType, mergeRowCount);
+                    }
+                    if (columnChecksumWriter != null && columnTop == 0) {
+                        columnChecksumWriter.carryOver(path, other, metadata.getColumnName(i), columnNameTxn, columnType, mergeRowCount);
+                    }
+                }
+            }
+        } catch (Throwable th) {
+            // zone maps and checksums of the new partition version are then built from scratch on commit
+            LOG.error().$("could not carry over zone maps and checksums [table=").utf8(tableToken.getTableName())
+                    .$(", partitionTimestamp=").$ts(partitionTimestamp)
+                    .$(", error=").$(th)
+                    .I$();
+        } finally {
+            if (address != 0) {
+                ff.munmap(address, size, MemoryTag.MMAP_TABLE_WRITER);
+            }
+            if (fd != -1) {
+                ff.close(fd);
+            }
+            path.trimTo(rootLen);
+            other.trimTo(rootLen);
+        }
+    }
+
     private void o3CommitPartitionAsync(
             AtomicInteger columnCounter,
             long maxTimestamp,
@@ -4386,6 +4800,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
     private void o3ConsumePartitionUpdateSink() {
         long blockIndex = -1;
+        final long o3ActivityTimestamp = configuration.getMicrosecondClock().getTicks();
 
         long commitTransientRowCount = txWriter.transientRowCount;
 
@@ -4404,6 +4819,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
                 txWriter.minTimestamp = Math.min(timestampMin, txWriter.minTimestamp);
                 int partitionIndexRaw = txWriter.findAttachedPartitionRawIndexByLoTimestamp(partitionTimestamp);
+                if (columnSummariesEnabled) {
+                    columnSummaryPartitions.add(partitionTimestamp);
+                }
 
                 final long newPartitionTimestamp = partitionTimestamp;
                 final int newPartitionIndex = partitionIndexRaw;
@@ -4415,6 +4833,12 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     partitionIndexRaw = txWriter.findAttachedPartitionRawIndexByLoTimestamp(partitionTimestamp);
                 }
 
+                final long logicalPartitionTimestamp = txWriter.getLogicalPartitionTimestamp(partitionTimestamp);
+                splitPartitionActivity.put(logicalPartitionTimestamp, o3ActivityTimestamp);
+                if (newPartitionTimestamp != partitionTimestamp || logicalPartitionTimestamp != partitionTimestamp) {
+                    splitPartitionsTouched = true;
+                }
+
                 if (partitionTimestamp == lastPartitionTimestamp && newPartitionTimestamp == partitionTimestamp) {
                     if (partitionMutates) {
                         // Last partition is rewritten.
@@ -4474,6 +4898,11 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                             .$(", part2Size=").$(o3SplitPartitionSize)
                             .I$();
                     this.minSplitPartitionTimestamp = Math.min(this.minSplitPartitionTimestamp, newPartitionTimestamp);
+                    // part1 is truncated in place, its tail may be overwritten later on
+                    truncateColumnSummaries(partitionTimestamp, srcDataNewPartitionSize);
+                    if (columnSummariesEnabled) {
+                        columnSummaryPartitions.add(partitionTimestamp);
+                    }
                     txWriter.bumpPartitionTableVersion();
                     txWriter.updateAttachedPartitionSizeByRawIndex(newPartitionIndex, newPartitionTimestamp, o3SplitPartitionSize, txWriter.txn);
                     if (partitionTimestamp == lastPartitionTimestamp) {
@@ -4489,6 +4918,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                             .$("merged partition [table=`").utf8(tableToken.getTableName())
                             .$("`, ts=").$ts(partitionTimestamp)
                             .$(", txn=").$(txWriter.txn).I$();
+                    o3CarryOverColumnSummaries(partitionTimestamp, srcNameTxn, srcDataOldPartitionSize, timestampMin);
                     txWriter.updatePartitionSizeAndTxnByRawIndex(partitionIndexRaw, srcDataNewPartitionSize);
                     partitionRemoveCandidates.add(partitionTimestamp, srcNameTxn);
                     txWriter.bumpPartitionTableVersion();
@@ -5158,7 +5588,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                         }
                     }
                 } else {
-                    if (mixedIOFlag) {
+                    // compressed WAL column is inflated into memory, its file does not hold raw column data
+                    if (mixedIOFlag && !(o3SrcDataMem instanceof MemoryCMORCompressedImpl)) {
                         MemoryCM o3SrcDataMemFile = (MemoryCMOR) o3SrcDataMem;
                         long bytesWritten = ff.copyData(o3SrcDataMemFile.getFd(), o3DstDataMem.getFd(), sourceOffset, destOffset, size);
                         if (bytesWritten != size) {
@@ -5668,6 +6099,35 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private MemoryCMOR openWalColumn(Path walPath, long lo, long hi) {
+        // WAL writer replaces column files of closed segments with their compressed copies,
+        // the compressed file is renamed into place before the raw file is removed
+        final int walPathLen = walPath.length();
+        if (!ff.exists(walPath.put(WalUtils.WAL_COMPRESSED_FILE_SUFFIX).$())) {
+            final MemoryCMOR mem = walColumnMemoryPool.pop();
+            try {
+                mem.ofOffset(ff, walPath.trimTo(walPathLen).$(), lo, hi, MemoryTag.MMAP_TABLE_WRITER, CairoConfiguration.O_NONE);
+                return mem;
+            } catch (CairoException e) {
+                walColumnMemoryPool.push(mem);
+                // segment could have been compressed after the check
+                if (!ff.exists(walPath.put(WalUtils.WAL_COMPRESSED_FILE_SUFFIX).$())) {
+                    throw e;
+                }
+            }
+        }
+        final MemoryCMOR mem = walCompressedColumnMemoryPool.pop();
+        try {
+            mem.ofOffset(ff, walPath, lo, hi, MemoryTag.MMAP_TABLE_WRITER, CairoConfiguration.O_NONE);
+        } catch (Throwable th) {
+            walCompressedColumnMemoryPool.push(mem);
+            throw th;
+        } finally {
+            walPath.trimTo(walPathLen);
+        }
+        return mem;
+    }
+
     private void performRecovery() {
         rollbackIndexes();
         rollbackSymbolTables();
@@ -6079,7 +6539,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                             txn
                     );
                     other.$();
-                    if (!ff.unlinkOrRemove(other, LOG)) {
+                    if (!removePartitionDir(ff, other, configuration.getPartitionTieringVolumePath(), LOG)) {
                         LOG.info()
                                 .$("could not purge partition version, async purge will be scheduled [path=").utf8(other)
                                 .$(", errno=").$(ff.errno()).I$();
@@ -6384,6 +6844,43 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void remapWalSymbolColumn(int columnIndex, int columnType, long srcAddr, long rowCount, long dstAddr, long cleanSymbolCount, long rowLo) {
+        if (o3ErrorCount.get() > 0) {
+            return;
+        }
+        try {
+            final IntList symbolRewriteMap = symbolRewriteMaps.getQuick(columnIndex);
+            for (long i = 0; i < rowCount; i++) {
+                int symKey = Unsafe.getUnsafe().getInt(srcAddr + (i << 2));
+                assert (symKey >= 0 || symKey == SymbolTable.VALUE_IS_NULL);
+                if (symKey >= cleanSymbolCount) {
+                    int newKey = symbolRewriteMap.getQuick((int) (symKey - cleanSymbolCount));
+                    if (newKey < 0) {
+                        // This symbol was not mapped in WAL
+                        // WAL is invalid
+                        throw CairoException.critical(0).put("WAL symbol key not mapped [columnIndex=").put(columnIndex)
+                                .put(", columnKey=").put(symKey)
+                                .put(", walRowId=").put(rowLo + i)
+                                .put(']');
+                    }
+                    symKey = newKey;
+                }
+                Unsafe.getUnsafe().putInt(dstAddr + (i << 2), symKey);
+            }
+        } catch (Throwable e) {
+            handleWorkStealingException(
+                    "cannot remap WAL symbols",
+                    columnIndex,
+                    columnType,
+                    srcAddr,
+                    rowCount,
+                    rowLo,
+                    rowLo + rowCount,
+                    e
+            );
+        }
+    }
+
     private ReadOnlyObjList<? extends MemoryCR> remapWalSymbols(
             SymbolMapDiffCursor symbolMapDiffCursor,
             long rowLo,
@@ -6392,62 +6889,91 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     ) {
         o3ColumnOverrides.clear();
         if (symbolMapDiffCursor != null) {
-            SymbolMapDiff symbolMapDiff;
-            while ((symbolMapDiff = symbolMapDiffCursor.nextSymbolMapDiff()) != null) {
-                int columnIndex = symbolMapDiff.getColumnIndex();
-                int columnType = metadata.getColumnType(columnIndex);
-                if (columnType == -ColumnType.SYMBOL) {
-                    // Scroll the cursor, don't apply, symbol is deleted
-                    symbolMapDiff.drain();
-                    continue;
-                }
+            final Sequence pubSeq = messageBus.getO3CallbackPubSeq();
+            final RingQueue<O3CallbackTask> queue = messageBus.getO3CallbackQueue();
 
-                if (!ColumnType.isSymbol(columnType)) {
-                    throw CairoException.critical(0).put("WAL column and table writer column types don't match [columnIndex=").put(columnIndex)
-                            .put(", walPath=").put(walPath)
-                            .put(']');
-                }
-                boolean identical = createWalSymbolMapping(symbolMapDiff, columnIndex, symbolRewriteMap);
+            o3DoneLatch.reset();
+            o3ErrorCount.set(0);
+            lastErrno = 0;
+            int queuedCount = 0;
+            symbolRewriteMaps.setPos(Math.max(symbolRewriteMaps.size(), columnCount));
 
-                if (!identical) {
-                    int primaryColumnIndex = getPrimaryColumnIndex(columnIndex);
-                    MemoryCR o3SymbolColumn = o3Columns.getQuick(primaryColumnIndex);
-                    final MemoryCARW symbolColumnDest;
+            try {
+                SymbolMapDiff symbolMapDiff;
+                while ((symbolMapDiff = symbolMapDiffCursor.nextSymbolMapDiff()) != null) {
+                    int columnIndex = symbolMapDiff.getColumnIndex();
+                    int columnType = metadata.getColumnType(columnIndex);
+                    if (columnType == -ColumnType.SYMBOL) {
+                        // Scroll the cursor, don't apply, symbol is deleted
+                        symbolMapDiff.drain();
+                        continue;
+                    }
+
+                    if (!ColumnType.isSymbol(columnType)) {
+                        throw CairoException.critical(0).put("WAL column and table writer column types don't match [columnIndex=").put(columnIndex)
+                                .put(", walPath=").put(walPath)
+                                .put(']');
+                    }
 
-                    // Column is read-only mapped memory, so we need to take in RAM column and remap values into it
-                    if (o3ColumnOverrides.size() == 0) {
-                        o3ColumnOverrides.addAll(o3Columns);
+                    IntList symbolRewriteMap = symbolRewriteMaps.getQuick(columnIndex);
+                    if (symbolRewriteMap == null) {
+                        symbolRewriteMap = new IntList();
+                        symbolRewriteMaps.setQuick(columnIndex, symbolRewriteMap);
                     }
+                    // symbol map writers are not thread safe, new symbols are added here,
+                    // while the keys of the previous columns are being rewritten
+                    boolean identical = createWalSymbolMapping(symbolMapDiff, columnIndex, symbolRewriteMap);
+
+                    if (!identical) {
+                        int primaryColumnIndex = getPrimaryColumnIndex(columnIndex);
+                        MemoryCR o3SymbolColumn = o3Columns.getQuick(primaryColumnIndex);
+                        final MemoryCARW symbolColumnDest;
+
+                        // Column is read-only mapped memory, so we need to take in RAM column and remap values into it
+                        if (o3ColumnOverrides.size() == 0) {
+                            o3ColumnOverrides.addAll(o3Columns);
+                        }
+
+                        symbolColumnDest = o3MemColumns.get(primaryColumnIndex);
+                        // If rowLo != 0 then we
+                        symbolColumnDest.shiftAddressRight(0);
+                        symbolColumnDest.jumpTo((rowHi - rowLo) << 2);
+                        final long srcAddr = o3SymbolColumn.addressOf(rowLo << 2);
+                        final long dstAddr = symbolColumnDest.addressOf(0);
+                        symbolColumnDest.shiftAddressRight(rowLo << 2);
+
+                        o3ColumnOverrides.setQuick(primaryColumnIndex, symbolColumnDest);
+                        final int cleanSymbolCount = symbolMapDiff.getCleanSymbolCount();
 
-                    symbolColumnDest = o3MemColumns.get(primaryColumnIndex);
-                    // If rowLo != 0 then we
-                    symbolColumnDest.shiftAddressRight(0);
-                    symbolColumnDest.jumpTo((rowHi - rowLo) << 2);
-
-                    o3ColumnOverrides.setQuick(primaryColumnIndex, symbolColumnDest);
-                    final int cleanSymbolCount = symbolMapDiff.getCleanSymbolCount();
-                    for (long rowId = rowLo; rowId < rowHi; rowId++) {
-
-                        int symKey = o3SymbolColumn.getInt(rowId << 2);
-                        assert (symKey >= 0 || symKey == SymbolTable.VALUE_IS_NULL);
-                        if (symKey >= cleanSymbolCount) {
-                            int newKey = symbolRewriteMap.getQuick(symKey - cleanSymbolCount);
-                            if (newKey < 0) {
-                                // This symbol was not mapped in WAL
-                                // WAL is invalid
-                                throw CairoException.critical(0).put("WAL symbol key not mapped [columnIndex=").put(columnIndex)
-                                        .put(", columnKey=").put(symKey)
-                                        .put(", walPath=").put(walPath)
-                                        .put(", walRowId=").put(rowId)
-                                        .put(']');
+                        long cursor = pubSeq.next();
+                        if (cursor > -1) {
+                            try {
+                                final O3CallbackTask task = queue.get(cursor);
+                                task.of(
+                                        o3DoneLatch,
+                                        columnIndex,
+                                        columnType,
+                                        srcAddr,
+                                        rowHi - rowLo,
+                                        dstAddr,
+                                        cleanSymbolCount,
+                                        rowLo,
+                                        remapWalSymbolColumnRef
+                                );
+                            } finally {
+                                queuedCount++;
+                                pubSeq.done(cursor);
                             }
-                            symKey = newKey;
+                        } else {
+                            remapWalSymbolColumn(columnIndex, columnType, srcAddr, rowHi - rowLo, dstAddr, cleanSymbolCount, rowLo);
                         }
-                        symbolColumnDest.putInt((rowId - rowLo) << 2, symKey);
                     }
-                    symbolColumnDest.shiftAddressRight(rowLo << 2);
                 }
+            } finally {
+                // the tasks write to o3 memory, they must be finished before the memory is used or released
+                dispatchO3CallbackQueue0(queue, queuedCount, messageBus.getO3CallbackSubSeq(), o3DoneLatch);
             }
+            checkO3Errors();
         }
 
         if (o3ColumnOverrides.size() == 0) {
@@ -6501,6 +7027,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             removeFileAndOrLog(ff, iFile(path.trimTo(plen), columnName, columnNameTxn));
             removeFileAndOrLog(ff, keyFileName(path.trimTo(plen), columnName, columnNameTxn));
             removeFileAndOrLog(ff, valueFileName(path.trimTo(plen), columnName, columnNameTxn));
+            removeFileAndOrLog(ff, ZoneMapUtils.zoneMapFileName(path.trimTo(plen), columnName, columnNameTxn));
+            removeFileAndOrLog(ff, ColumnChecksumUtils.checksumFileName(path.trimTo(plen), columnName, columnNameTxn));
             path.trimTo(rootLen);
         } else {
             LOG.critical()
@@ -6952,6 +7480,20 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void scheduleSquashSplitPartitions() {
+        if (splitPartitionsTouched) {
+            splitPartitionsTouched = false;
+            if (hasMidPartitionSplits()) {
+                // Squash in O3PartitionSquashJob, when the partitions go quiet
+                if (scheduleSquashO3Partitions(messageBus, tableToken)) {
+                    LOG.debug().$("scheduled to squash split partitions [table=").utf8(tableToken.getTableName()).I$();
+                } else {
+                    LOG.error().$("could not queue for squash, queue is full [table=").utf8(tableToken.getTableName()).I$();
+                }
+            }
+        }
+    }
+
     private void setAppendPosition(final long rowCount, boolean doubleAllocate) {
         long recordLength = 0;
         for (int i = 0; i < columnCount; i++) {
@@ -7092,7 +7634,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private void squashPartitionRange(int maxLastSubPartitionCount, int partitionIndexLo, int partitionIndexHi) {
         if (partitionIndexHi > partitionIndexLo) {
             int subpartitions = partitionIndexHi - partitionIndexLo;
-            int optimalPartitionCount = partitionIndexHi == txWriter.getPartitionCount() ? maxLastSubPartitionCount : MAX_MID_SUB_PARTITION_COUNT;
+            int optimalPartitionCount = partitionIndexHi == txWriter.getPartitionCount() ? maxLastSubPartitionCount : configuration.getO3MidPartitionMaxSplits();
             if (subpartitions > Math.max(1, optimalPartitionCount)) {
                 squashSplitPartitions(partitionIndexLo, partitionIndexHi, optimalPartitionCount, false);
             } else if (subpartitions == 1) {
@@ -7259,6 +7801,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                 txWriter.setColumnVersion(columnVersionWriter.getVersion());
                 txWriter.commit(denseSymbolMapWriters);
                 processPartitionRemoveCandidates();
+                if (columnSummariesEnabled) {
+                    columnSummaryPartitions.add(targetPartition);
+                }
             }
         }
     }
@@ -7384,8 +7929,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             rowAction = ROW_ACTION_OPEN_PARTITION;
         } else {
             // truncate columns, we cannot remove them
+            truncateColumnSummaries(txWriter.getLastPartitionTimestamp(), 0);
             truncateColumns();
         }
+        columnSummaryLastPartitionTimestamp = Long.MIN_VALUE;
 
         txWriter.resetTimestamp();
         columnVersionWriter.truncate();
@@ -7401,6 +7948,44 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         LOG.info().$("truncated [name=").utf8(tableToken.getTableName()).I$();
     }
 
+    /**
+     * Truncates zone maps and checksums of the partition truncated in place to the blocks below
+     * the new row count.
+     */
+    private void truncateColumnSummaries(long partitionTimestamp, long rowCount) {
+        if (!columnSummariesEnabled) {
+            return;
+        }
+        try {
+            setPathForPartition(path.trimTo(rootLen), partitionBy, partitionTimestamp, txWriter.getPartitionNameTxnByPartitionTimestamp(partitionTimestamp));
+            final int plen = path.length();
+            for (int i = 0; i < columnCount; i++) {
+                final int columnType = metadata.getColumnType(i);
+                if (columnType > 0) {
+                    final long columnNameTxn = columnVersionWriter.getColumnNameTxn(partitionTimestamp, i);
+                    if (zoneMapWriter != null && ZoneMapUtils.isSupported(columnType)) {
+                        try {
+                            zoneMapWriter.carryOver(path, path, metadata.getColumnName(i), columnNameTxn, columnType, rowCount);
+                        } catch (CairoException e) {
+                            // the zone map must not cover the rows past the new row count
+                            removeFileAndOrLog(ff, ZoneMapUtils.zoneMapFileName(path.trimTo(plen), metadata.getColumnName(i), columnNameTxn));
+                        }
+                    }
+                    if (columnChecksumWriter != null) {
+                        try {
+                            columnChecksumWriter.carryOver(path, path, metadata.getColumnName(i), columnNameTxn, columnType, rowCount);
+                        } catch (CairoException e) {
+                            // the checksums must not cover the rows past the new row count
+                            removeFileAndOrLog(ff, ColumnChecksumUtils.checksumFileName(path.trimTo(plen), metadata.getColumnName(i), columnNameTxn));
+                        }
+                    }
+                }
+            }
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
     private void truncateColumns() {
         for (int i = 0; i < columnCount; i++) {
             if (metadata.getColumnType(i) >= 0) {
@@ -7414,6 +7999,64 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    /**
+     * Brings zone maps and checksums of the partitions written to by the last commit up to date.
+     * Partitions other than the last one are covered in full. The last partition is covered in full
+     * blocks only, the rest of it is covered once the partition is not the last one anymore.
+     * Failure to write zone maps or checksums does not fail the commit, the partition is then
+     * reported as unverified by the scrub job.
+     */
+    private void updateColumnSummaries() {
+        if (!columnSummariesEnabled) {
+            return;
+        }
+        try {
+            final int lastPartitionIndex = txWriter.getPartitionCount() - 1;
+            if (lastPartitionIndex < 0) {
+                columnSummaryLastPartitionTimestamp = Long.MIN_VALUE;
+                return;
+            }
+            for (int i = 0, n = columnSummaryPartitions.size(); i < n; i++) {
+                final int partitionIndex = txWriter.getPartitionIndex(columnSummaryPartitions.getQuick(i));
+                if (partitionIndex > -1 && partitionIndex < lastPartitionIndex
+                        && txWriter.getPartitionTimestampByIndex(partitionIndex) == columnSummaryPartitions.getQuick(i)) {
+                    updatePartitionColumnSummaries(partitionIndex, txWriter.getPartitionSize(partitionIndex), true);
+                }
+            }
+
+            final long lastPartitionTimestamp = txWriter.getPartitionTimestampByIndex(lastPartitionIndex);
+            final long lastPartitionNameTxn = txWriter.getPartitionNameTxn(lastPartitionIndex);
+            if (lastPartitionTimestamp != columnSummaryLastPartitionTimestamp || lastPartitionNameTxn != columnSummaryLastPartitionNameTxn) {
+                // partitions appended to since the previous commit are not going to be appended to anymore,
+                // the timestamp is Long.MIN_VALUE when the table had no partitions
+                for (int i = lastPartitionIndex - 1; i > -1; i--) {
+                    final long partitionTimestamp = txWriter.getPartitionTimestampByIndex(i);
+                    if (partitionTimestamp < columnSummaryLastPartitionTimestamp) {
+                        break;
+                    }
+                    if (partitionTimestamp > columnSummaryLastPartitionTimestamp || txWriter.getPartitionNameTxn(i) == columnSummaryLastPartitionNameTxn) {
+                        updatePartitionColumnSummaries(i, txWriter.getPartitionSize(i), true);
+                    }
+                }
+                columnSummaryLastPartitionTimestamp = lastPartitionTimestamp;
+                columnSummaryLastPartitionNameTxn = lastPartitionNameTxn;
+                columnSummaryLastPartitionRowCount = 0;
+            }
+
+            final long transientRowCount = txWriter.getTransientRowCount();
+            if ((transientRowCount & -columnSummaryBlockRowCount) > columnSummaryLastPartitionRowCount) {
+                columnSummaryLastPartitionRowCount = updatePartitionColumnSummaries(lastPartitionIndex, transientRowCount, false);
+            }
+        } catch (Throwable th) {
+            LOG.error().$("could not update zone maps and checksums [table=").utf8(tableToken.getTableName())
+                    .$(", error=").$(th)
+                    .I$();
+        } finally {
+            columnSummaryPartitions.clear();
+            path.trimTo(rootLen);
+        }
+    }
+
     private void updateIndexes() {
         if (indexCount == 0 || avoidIndexOnCommit) {
             avoidIndexOnCommit = false;
@@ -7626,6 +8269,38 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private long updatePartitionColumnSummaries(int partitionIndex, long rowCount, boolean sealed) {
+        if (txWriter.isPartitionCompressed(partitionIndex)) {
+            // compressed partitions get zone maps and checksums before they are compressed
+            return 0;
+        }
+        final long partitionTimestamp = txWriter.getPartitionTimestampByIndex(partitionIndex);
+        setPathForPartition(path.trimTo(rootLen), partitionBy, partitionTimestamp, txWriter.getPartitionNameTxn(partitionIndex));
+        long coveredRowCount = rowCount;
+        for (int i = 0; i < columnCount; i++) {
+            final int columnType = metadata.getColumnType(i);
+            if (columnType > 0) {
+                final long columnTop = columnVersionWriter.getColumnTop(partitionTimestamp, i);
+                if (columnTop > -1) {
+                    final long columnNameTxn = columnVersionWriter.getColumnNameTxn(partitionTimestamp, i);
+                    if (zoneMapWriter != null && ZoneMapUtils.isSupported(columnType)) {
+                        coveredRowCount = Math.min(
+                                coveredRowCount,
+                                zoneMapWriter.update(path, metadata.getColumnName(i), columnNameTxn, columnType, columnTop, rowCount, sealed)
+                        );
+                    }
+                    if (columnChecksumWriter != null) {
+                        coveredRowCount = Math.min(
+                                coveredRowCount,
+                                columnChecksumWriter.update(path, metadata.getColumnName(i), columnNameTxn, columnType, columnTop, rowCount, sealed)
+                        );
+                    }
+                }
+            }
+        }
+        return coveredRowCount;
+    }
+
     private void validateSwapMeta(CharSequence columnName) {
         try {
             try {
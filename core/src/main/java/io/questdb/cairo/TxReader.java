@@ -41,15 +41,18 @@ public class TxReader implements Closeable, Mutable {
     protected static final int NONE_COL_STRUCTURE_VERSION = Integer.MIN_VALUE;
     protected static final int PARTITION_COLUMN_VERSION_OFFSET = 3;
     protected static final int PARTITION_MASKED_SIZE_OFFSET = 1;
+    protected static final int PARTITION_MASK_COMPRESSED_BIT_OFFSET = 61;
     protected static final int PARTITION_MASK_READ_ONLY_BIT_OFFSET = 62;
     protected static final int PARTITION_NAME_TX_OFFSET = 2;
     // partition size's highest possible value is 0xFFFFFFFFFFFL (15 Tera Rows):
     //
-    // | reserved | read-only | available bits | partition size |
-    // +----------+-----------+----------------+----------------+
-    // |  1 bit   |  1 bit    |  18 bits       |      44 bits   |
+    // | reserved | read-only | compressed | available bits | partition size |
+    // +----------+-----------+------------+----------------+----------------+
+    // |  1 bit   |  1 bit    |  1 bit     |  17 bits       |      44 bits   |
     //
     // when read-only bit is set, the partition is read only.
+    // when compressed bit is set, the partition column files are block compressed,
+    // such partitions are always read only.
     // we reserve the highest bit to allow negative values to
     // have meaning (in future). For instance the table reader uses
     // a negative size value to mean that the partition is not open.
@@ -364,6 +367,18 @@ public class TxReader implements Closeable, Mutable {
         return lagOrdered;
     }
 
+    public boolean isPartitionCompressed(int i) {
+        return isPartitionCompressedByRawIndex(i * LONGS_PER_TX_ATTACHED_PARTITION);
+    }
+
+    public boolean isPartitionCompressedByPartitionTimestamp(long ts) {
+        int indexRaw = findAttachedPartitionRawIndexByLoTimestamp(ts);
+        if (indexRaw > -1) {
+            return isPartitionCompressedByRawIndex(indexRaw);
+        }
+        return false;
+    }
+
     public boolean isPartitionReadOnly(int i) {
         return isPartitionReadOnlyByRawIndex(i * LONGS_PER_TX_ATTACHED_PARTITION);
     }
@@ -494,6 +509,11 @@ public class TxReader implements Closeable, Mutable {
         return partitionFloorMethod != null ? (timestamp != Long.MIN_VALUE ? partitionFloorMethod.floor(timestamp) : Long.MIN_VALUE) : DEFAULT_PARTITION_TIMESTAMP;
     }
 
+    private boolean isPartitionCompressedByRawIndex(int indexRaw) {
+        long maskedSize = attachedPartitions.getQuick(indexRaw + PARTITION_MASKED_SIZE_OFFSET);
+        return ((maskedSize >>> PARTITION_MASK_COMPRESSED_BIT_OFFSET) & 1) == 1;
+    }
+
     private boolean isPartitionReadOnlyByRawIndex(int indexRaw) {
         long maskedSize = attachedPartitions.getQuick(indexRaw + PARTITION_MASKED_SIZE_OFFSET);
         return ((maskedSize >>> PARTITION_MASK_READ_ONLY_BIT_OFFSET) & 1) == 1;
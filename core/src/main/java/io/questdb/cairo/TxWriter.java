@@ -358,6 +358,17 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         }
     }
 
+    public void setPartitionCompressedByTimestamp(long timestamp, boolean isCompressed) {
+        final int indexRaw = findAttachedPartitionRawIndex(timestamp);
+        if (indexRaw < 0) {
+            throw CairoException.nonCritical().put("bad partition index -1");
+        }
+        int offset = indexRaw + PARTITION_MASKED_SIZE_OFFSET;
+        long maskedSize = attachedPartitions.getQuick(offset);
+        attachedPartitions.setQuick(offset, updatePartitionIsCompressed(maskedSize, isCompressed));
+        recordStructureVersion++;
+    }
+
     public void setPartitionReadOnly(int partitionIndex, boolean isReadOnly) {
         setPartitionReadOnlyByRawIndex(partitionIndex * LONGS_PER_TX_ATTACHED_PARTITION, isReadOnly);
     }
@@ -466,6 +477,15 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         updateAttachedPartitionSizeByTimestamp(timestamp, rowCount, partitionNameTxn);
     }
 
+    private static long updatePartitionIsCompressed(long maskedSize, boolean isCompressed) {
+        if (isCompressed) {
+            maskedSize |= 1L << PARTITION_MASK_COMPRESSED_BIT_OFFSET;
+        } else {
+            maskedSize &= ~(1L << PARTITION_MASK_COMPRESSED_BIT_OFFSET);
+        }
+        return maskedSize;
+    }
+
     private static long updatePartitionIsReadOnly(long maskedSize, boolean isReadOnly) {
         if (isReadOnly) {
             maskedSize |= 1L << PARTITION_MASK_READ_ONLY_BIT_OFFSET;
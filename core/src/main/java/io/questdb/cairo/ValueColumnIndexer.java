@@ -0,0 +1,48 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.api.MemoryR;
+
+/**
+ * Maintains value index of INT, LONG, UUID or IPv4 column. Rows are indexed
+ * under hash bucket of the column value, see {@link ValueIndexUtils}.
+ */
+public class ValueColumnIndexer extends SymbolColumnIndexer {
+    private final int columnType;
+    private final int shl;
+
+    public ValueColumnIndexer(CairoConfiguration configuration, int columnType) {
+        super(configuration);
+        assert ValueIndexUtils.isSupported(columnType);
+        this.columnType = columnType;
+        this.shl = ColumnType.pow2SizeOf(columnType);
+    }
+
+    @Override
+    protected int getIndexKey(MemoryR mem, long row) {
+        return ValueIndexUtils.getIndexKey(columnType, mem, row << shl, ValueIndexUtils.getBucketMask(getWriter().getValueBlockCapacity()));
+    }
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.std.Hash;
+import io.questdb.std.Numbers;
+import io.questdb.std.NumericException;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Uuid;
+
+/**
+ * Value index is a bitmap index on a fixed width, non-symbol column. Column values are
+ * hashed into buckets and the bucket number is used as the index key, so that the index
+ * files and the index readers are the same as for symbol columns.
+ * <p>
+ * Key 0 holds rows with null values, keys 1..bucket count hold hash buckets. Different
+ * values can share a bucket, so index lookups have to compare column value of every row
+ * returned by the index cursor.
+ * <p>
+ * Bucket count is derived from the value block capacity of the index, which is written
+ * to the key file, so that writers and readers of the file always agree on it. Index
+ * capacity is the expected number of rows per value, the smaller it is the more distinct
+ * values the column is expected to have and the more buckets the index gets. Each bucket
+ * takes at least one value block, so the bucket count is chosen to keep the value file
+ * of an index with the default capacity the same size regardless of the capacity.
+ */
+public final class ValueIndexUtils {
+    // 1024 buckets for the default index capacity of 256
+    private static final int BUCKET_VALUE_COUNT = 256 * 1024;
+    private static final int MAX_BUCKET_COUNT = 64 * 1024;
+    private static final int MIN_BUCKET_COUNT = 64;
+
+    private ValueIndexUtils() {
+    }
+
+    /**
+     * Returns mask of the bucket number for an index with the given value block capacity.
+     *
+     * @param valueBlockCapacity number of values in the index value block, power of 2
+     * @return bucket count minus one
+     */
+    public static int getBucketMask(int valueBlockCapacity) {
+        final int bucketCount = BUCKET_VALUE_COUNT / Numbers.ceilPow2(Math.max(valueBlockCapacity, 1));
+        return Math.max(MIN_BUCKET_COUNT, Math.min(MAX_BUCKET_COUNT, bucketCount)) - 1;
+    }
+
+    public static int getIndexKey(int columnType, MemoryR mem, long offset, int bucketMask) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                return keyOfInt(mem.getInt(offset), bucketMask);
+            case ColumnType.IPv4:
+                return keyOfIPv4(mem.getIPv4(offset), bucketMask);
+            case ColumnType.LONG:
+                return keyOfLong(mem.getLong(offset), bucketMask);
+            case ColumnType.UUID:
+                return keyOfUuid(mem.getLong(offset), mem.getLong(offset + Long.BYTES), bucketMask);
+            default:
+                throw CairoException.critical(0).put("unsupported value index type [type=").put(ColumnType.nameOf(columnType)).put(']');
+        }
+    }
+
+    public static int getIndexKey(int columnType, long address, int bucketMask) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                return keyOfInt(Unsafe.getUnsafe().getInt(address), bucketMask);
+            case ColumnType.IPv4:
+                return keyOfIPv4(Unsafe.getUnsafe().getInt(address), bucketMask);
+            case ColumnType.LONG:
+                return keyOfLong(Unsafe.getUnsafe().getLong(address), bucketMask);
+            case ColumnType.UUID:
+                return keyOfUuid(Unsafe.getUnsafe().getLong(address), Unsafe.getUnsafe().getLong(address + Long.BYTES), bucketMask);
+            default:
+                throw CairoException.critical(0).put("unsupported value index type [type=").put(ColumnType.nameOf(columnType)).put(']');
+        }
+    }
+
+    public static boolean isSupported(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+            case ColumnType.IPv4:
+            case ColumnType.LONG:
+            case ColumnType.UUID:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks if the string value can be looked up in a value index of the given column type.
+     * Values that don't parse as the column type are left to the filter.
+     */
+    public static boolean isValidKey(int columnType, CharSequence value) {
+        try {
+            switch (ColumnType.tagOf(columnType)) {
+                case ColumnType.INT:
+                    Numbers.parseInt(value);
+                    return true;
+                case ColumnType.IPv4:
+                    Numbers.parseIPv4(value);
+                    return true;
+                case ColumnType.LONG:
+                    Numbers.parseLong(value);
+                    return true;
+                case ColumnType.UUID:
+                    Uuid.checkDashesAndLength(value);
+                    Uuid.parseLo(value);
+                    Uuid.parseHi(value);
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (NumericException e) {
+            return false;
+        }
+    }
+
+    public static boolean isValueIndexed(int columnType, boolean indexed) {
+        return indexed && !ColumnType.isSymbol(columnType);
+    }
+
+    public static int keyOfIPv4(int value, int bucketMask) {
+        return value == Numbers.IPv4_NULL ? 0 : bucketOf(value, bucketMask);
+    }
+
+    public static int keyOfInt(int value, int bucketMask) {
+        return value == Numbers.INT_NaN ? 0 : bucketOf(value, bucketMask);
+    }
+
+    public static int keyOfLong(long value, int bucketMask) {
+        return value == Numbers.LONG_NaN ? 0 : bucketOf(value, bucketMask);
+    }
+
+    public static int keyOfUuid(long lo, long hi, int bucketMask) {
+        return Uuid.isNull(lo, hi) ? 0 : (Hash.hash(lo, hi) & bucketMask) + 1;
+    }
+
+    private static int bucketOf(long value, int bucketMask) {
+        return (int) (Hash.fastLongMix(value) & bucketMask) + 1;
+    }
+}
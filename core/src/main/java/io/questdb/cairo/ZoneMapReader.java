@@ -0,0 +1,182 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.LPSZ;
+
+import static io.questdb.cairo.ZoneMapUtils.*;
+
+/**
+ * Reads zone map file of a column partition into memory. See {@link ZoneMapUtils} for the
+ * file layout. The file is small, it is read in full rather than mapped, so that the reader
+ * does not have to deal with the file growing concurrently.
+ */
+public class ZoneMapReader implements QuietCloseable {
+    private long address;
+    private int blockRowCount;
+    private long capacity;
+    private long rowCount;
+
+    @Override
+    public void close() {
+        if (address != 0) {
+            address = Unsafe.free(address, capacity, MemoryTag.NATIVE_TABLE_READER);
+            capacity = 0;
+        }
+        rowCount = 0;
+    }
+
+    public int getBlockRowCount() {
+        return blockRowCount;
+    }
+
+    public double getMaxDouble(long block) {
+        return Unsafe.getUnsafe().getDouble(address + getBlockOffset(block) + BLOCK_OFFSET_MAX);
+    }
+
+    public double getMaxDouble() {
+        return Unsafe.getUnsafe().getDouble(address + HEADER_OFFSET_MAX);
+    }
+
+    public long getMaxLong(long block) {
+        return Unsafe.getUnsafe().getLong(address + getBlockOffset(block) + BLOCK_OFFSET_MAX);
+    }
+
+    public long getMaxLong() {
+        return Unsafe.getUnsafe().getLong(address + HEADER_OFFSET_MAX);
+    }
+
+    public double getMinDouble(long block) {
+        return Unsafe.getUnsafe().getDouble(address + getBlockOffset(block) + BLOCK_OFFSET_MIN);
+    }
+
+    public double getMinDouble() {
+        return Unsafe.getUnsafe().getDouble(address + HEADER_OFFSET_MIN);
+    }
+
+    public long getMinLong(long block) {
+        return Unsafe.getUnsafe().getLong(address + getBlockOffset(block) + BLOCK_OFFSET_MIN);
+    }
+
+    public long getMinLong() {
+        return Unsafe.getUnsafe().getLong(address + HEADER_OFFSET_MIN);
+    }
+
+    public long getNullCount(long block) {
+        return Unsafe.getUnsafe().getLong(address + getBlockOffset(block) + BLOCK_OFFSET_NULL_COUNT);
+    }
+
+    public long getNullCount() {
+        return Unsafe.getUnsafe().getLong(address + HEADER_OFFSET_NULL_COUNT);
+    }
+
+    /**
+     * @return number of partition rows covered by the zone map, 0 when the zone map is not loaded
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Sets the reader up for a column that does not exist in the partition, all the rows are nulls then.
+     *
+     * @param rowCount   partition row count
+     * @param columnType type of the column
+     */
+    public void ofNulls(long rowCount, int columnType) {
+        final long len = HEADER_SIZE + BLOCK_ENTRY_SIZE;
+        if (len > capacity) {
+            address = Unsafe.realloc(address, capacity, len, MemoryTag.NATIVE_TABLE_READER);
+            capacity = len;
+        }
+        // min > max in both the partition summary and the only block, no value can match
+        putNulls(address + HEADER_OFFSET_MIN, rowCount, columnType);
+        putNulls(address + getBlockOffset(0), rowCount, columnType);
+        Unsafe.getUnsafe().putLong(address + HEADER_OFFSET_ROW_COUNT, rowCount);
+        Unsafe.getUnsafe().putInt(address + HEADER_OFFSET_BLOCK_ROW_COUNT, Integer.MAX_VALUE);
+        Unsafe.getUnsafe().putInt(address + HEADER_OFFSET_COLUMN_TYPE, columnType);
+        this.blockRowCount = Integer.MAX_VALUE;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Loads zone map file.
+     *
+     * @param ff         files facade
+     * @param path       zone map file path
+     * @param columnType type of the column, the zone map is ignored when it was built for another type
+     * @return false when the file does not exist or is not valid, the zone map cannot be used then
+     */
+    public boolean of(FilesFacade ff, LPSZ path, int columnType) {
+        rowCount = 0;
+        final int fd = ff.openRO(path);
+        if (fd < 0) {
+            return false;
+        }
+        try {
+            final long len = ff.length(fd);
+            if (len < HEADER_SIZE) {
+                return false;
+            }
+            if (len > capacity) {
+                address = Unsafe.realloc(address, capacity, len, MemoryTag.NATIVE_TABLE_READER);
+                capacity = len;
+            }
+            if (ff.read(fd, address, len, 0) != len) {
+                return false;
+            }
+            final long rowCount = Unsafe.getUnsafe().getLong(address + HEADER_OFFSET_ROW_COUNT);
+            final int blockRowCount = Unsafe.getUnsafe().getInt(address + HEADER_OFFSET_BLOCK_ROW_COUNT);
+            if (
+                    Unsafe.getUnsafe().getInt(address + HEADER_OFFSET_COLUMN_TYPE) != columnType
+                            || blockRowCount <= 0
+                            || rowCount < 0
+                            || getFileSize(rowCount, blockRowCount) > len
+            ) {
+                return false;
+            }
+            this.blockRowCount = blockRowCount;
+            this.rowCount = rowCount;
+            return true;
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    private static void putNulls(long address, long nullCount, int columnType) {
+        if (isFloatingPoint(columnType)) {
+            Unsafe.getUnsafe().putDouble(address + BLOCK_OFFSET_MIN, Double.POSITIVE_INFINITY);
+            Unsafe.getUnsafe().putDouble(address + BLOCK_OFFSET_MAX, Double.NEGATIVE_INFINITY);
+        } else {
+            Unsafe.getUnsafe().putLong(address + BLOCK_OFFSET_MIN, Long.MAX_VALUE);
+            Unsafe.getUnsafe().putLong(address + BLOCK_OFFSET_MAX, Long.MIN_VALUE);
+        }
+        Unsafe.getUnsafe().putLong(address + BLOCK_OFFSET_NULL_COUNT, nullCount);
+    }
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.std.str.Path;
+
+import static io.questdb.cairo.TableUtils.COLUMN_NAME_TXN_NONE;
+
+/**
+ * Zone map file keeps min/max values and null count of a numeric column per partition
+ * and per block of rows. The file starts with a header:
+ * <pre>
+ * row count (long) | block row count (int) | column type (int) | min | max | null count (long)
+ * </pre>
+ * followed by an entry per block:
+ * <pre>
+ * min | max | null count (long)
+ * </pre>
+ * Min and max of integer columns are stored as longs, min and max of floating point columns
+ * are stored as doubles. Blocks that contain only nulls have min greater than max.
+ * <p>
+ * Rows are only ever added to a block, so that its min/max values can only widen. The writer
+ * updates blocks first and the header last, which makes it safe to read the file while it
+ * is being written.
+ */
+public final class ZoneMapUtils {
+    public static final long BLOCK_ENTRY_SIZE = 24;
+    public static final long BLOCK_OFFSET_MAX = 8;
+    public static final long BLOCK_OFFSET_MIN = 0;
+    public static final long BLOCK_OFFSET_NULL_COUNT = 16;
+    public static final long HEADER_OFFSET_BLOCK_ROW_COUNT = 8;
+    public static final long HEADER_OFFSET_COLUMN_TYPE = 12;
+    public static final long HEADER_OFFSET_MAX = 24;
+    public static final long HEADER_OFFSET_MIN = 16;
+    public static final long HEADER_OFFSET_NULL_COUNT = 32;
+    public static final long HEADER_OFFSET_ROW_COUNT = 0;
+    public static final long HEADER_SIZE = 40;
+
+    private ZoneMapUtils() {
+    }
+
+    public static long getBlockCount(long rowCount, int blockRowCount) {
+        return (rowCount + blockRowCount - 1) / blockRowCount;
+    }
+
+    public static long getBlockOffset(long block) {
+        return HEADER_SIZE + block * BLOCK_ENTRY_SIZE;
+    }
+
+    public static long getFileSize(long rowCount, int blockRowCount) {
+        return getBlockOffset(getBlockCount(rowCount, blockRowCount));
+    }
+
+    public static boolean isFloatingPoint(int columnType) {
+        final int tag = ColumnType.tagOf(columnType);
+        return tag == ColumnType.FLOAT || tag == ColumnType.DOUBLE;
+    }
+
+    public static boolean isSupported(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static Path zoneMapFileName(Path path, CharSequence columnName, long columnNameTxn) {
+        path.concat(columnName).put(".zm");
+        if (columnNameTxn > COLUMN_NAME_TXN_NONE) {
+            path.put('.').put(columnNameTxn);
+        }
+        return path.$();
+    }
+}
@@ -0,0 +1,384 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+import static io.questdb.cairo.ZoneMapUtils.*;
+
+/**
+ * Builds and maintains zone map files of numeric columns, see {@link ZoneMapUtils} for the file
+ * layout. Zone map of the active partition is extended one full block at a time, zone maps of
+ * other partitions also cover the trailing partial block.
+ */
+public class ZoneMapWriter implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(ZoneMapWriter.class);
+    private final int blockRowCount;
+    private final FilesFacade ff;
+    private final long fileOpenOpts;
+    private long address;
+    private long capacity;
+
+    public ZoneMapWriter(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+        this.fileOpenOpts = configuration.getWriterFileOpenOpts();
+        this.blockRowCount = configuration.getZoneMapBlockRowCount();
+        assert Numbers.isPow2(blockRowCount);
+    }
+
+    /**
+     * Carries the zone map blocks, which cover rows below the given row count, over to another
+     * version of the partition, so that the next {@link #update} aggregates only the rest of the rows.
+     * Source and target can be the same partition version, the zone map is then truncated in place.
+     * Blocks go first and the header last, same as in {@link #update}.
+     *
+     * @param srcPath       source partition path, it is left unchanged
+     * @param dstPath       target partition path, it is left unchanged
+     * @param columnName    column name
+     * @param columnNameTxn column name txn
+     * @param columnType    column type, one of the types supported by {@link ZoneMapUtils#isSupported(int)}
+     * @param rowCount      number of leading rows, which are the same in both partition versions
+     * @return number of rows covered by the target zone map
+     */
+    public long carryOver(
+            Path srcPath,
+            Path dstPath,
+            CharSequence columnName,
+            long columnNameTxn,
+            int columnType,
+            long rowCount
+    ) {
+        assert isSupported(columnType);
+        final int srcLen = srcPath.length();
+        final int dstLen = dstPath.length();
+        int fd = -1;
+        try {
+            fd = ff.openRO(zoneMapFileName(srcPath, columnName, columnNameTxn));
+            srcPath.trimTo(srcLen);
+            if (fd < 0) {
+                return 0;
+            }
+            long coveredRowCount = readCoveredRowCount(fd, columnType);
+            ff.close(fd);
+            fd = -1;
+            if (coveredRowCount == 0) {
+                return 0;
+            }
+            if (coveredRowCount > rowCount) {
+                coveredRowCount = rowCount & -blockRowCount;
+            }
+
+            final long blockCount = getBlockCount(coveredRowCount, blockRowCount);
+            putPartitionSummary(columnType, blockCount);
+            Unsafe.getUnsafe().putLong(address + HEADER_OFFSET_ROW_COUNT, coveredRowCount);
+            fd = TableUtils.openRW(ff, zoneMapFileName(dstPath, columnName, columnNameTxn), LOG, fileOpenOpts);
+            final long blocksSize = getBlockOffset(blockCount) - HEADER_SIZE;
+            if (ff.write(fd, address + HEADER_SIZE, blocksSize, HEADER_SIZE) != blocksSize
+                    || ff.write(fd, address, HEADER_SIZE, 0) != HEADER_SIZE) {
+                throw CairoException.critical(ff.errno()).put("could not write zone map [file=").put(dstPath).put(']');
+            }
+            return coveredRowCount;
+        } finally {
+            if (fd != -1) {
+                ff.close(fd);
+            }
+            srcPath.trimTo(srcLen);
+            dstPath.trimTo(dstLen);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (address != 0) {
+            address = Unsafe.free(address, capacity, MemoryTag.NATIVE_TABLE_WRITER);
+            capacity = 0;
+        }
+    }
+
+    public int getBlockRowCount() {
+        return blockRowCount;
+    }
+
+    /**
+     * Brings zone map of the column up to date with the partition. Rows of the partition
+     * that are already covered by the zone map must not have changed since it was written.
+     *
+     * @param path          partition path, it is left unchanged
+     * @param columnName    column name
+     * @param columnNameTxn column name txn
+     * @param columnType    column type, one of the types supported by {@link ZoneMapUtils#isSupported(int)}
+     * @param columnTop     column top, rows above it are nulls
+     * @param rowCount      partition row count
+     * @param sealed        true when the partition is not going to be appended to, the trailing
+     *                      partial block is then added to the zone map
+     * @return number of rows covered by the zone map
+     */
+    public long update(
+            Path path,
+            CharSequence columnName,
+            long columnNameTxn,
+            int columnType,
+            long columnTop,
+            long rowCount,
+            boolean sealed
+    ) {
+        assert isSupported(columnType);
+        final int plen = path.length();
+        final long targetRowCount = sealed ? rowCount : rowCount & -blockRowCount;
+        int fd = -1;
+        long dataAddress = 0;
+        long dataSize = 0;
+        try {
+            fd = TableUtils.openRW(ff, zoneMapFileName(path, columnName, columnNameTxn), LOG, fileOpenOpts);
+            long coveredRowCount = readCoveredRowCount(fd, columnType);
+            if (coveredRowCount > rowCount) {
+                // partition was truncated in place, start over
+                coveredRowCount = 0;
+            }
+            if (coveredRowCount == 0 && ff.length(fd) > 0 && !ff.truncate(fd, 0)) {
+                throw CairoException.critical(ff.errno()).put("could not truncate [file=").put(path).put(']');
+            }
+            if (targetRowCount <= coveredRowCount) {
+                return coveredRowCount;
+            }
+
+            final long firstBlock = coveredRowCount / blockRowCount;
+            final long blockCount = getBlockCount(targetRowCount, blockRowCount);
+            ensureCapacity(getBlockOffset(blockCount));
+
+            final int shift = ColumnType.pow2SizeOf(columnType);
+            if (targetRowCount > columnTop) {
+                dataSize = (targetRowCount - columnTop) << shift;
+                TableUtils.dFile(path.trimTo(plen), columnName, columnNameTxn);
+                final int dataFd = TableUtils.openRO(ff, path, LOG);
+                try {
+                    dataAddress = TableUtils.mapRO(ff, dataFd, dataSize, MemoryTag.MMAP_TABLE_WRITER);
+                } finally {
+                    ff.close(dataFd);
+                }
+            }
+
+            for (long block = firstBlock; block < blockCount; block++) {
+                final long rowLo = block * blockRowCount;
+                final long rowHi = Math.min(rowLo + blockRowCount, targetRowCount);
+                final long dataLo = Math.max(rowLo, columnTop);
+                final long blockAddress = address + getBlockOffset(block);
+                long nullCount = Math.min(rowHi, columnTop) - rowLo;
+                if (nullCount < 0) {
+                    nullCount = 0;
+                }
+                if (dataLo < rowHi) {
+                    nullCount += aggregate(columnType, dataAddress + ((dataLo - columnTop) << shift), rowHi - dataLo, blockAddress);
+                } else {
+                    putEmpty(columnType, blockAddress);
+                }
+                Unsafe.getUnsafe().putLong(blockAddress + BLOCK_OFFSET_NULL_COUNT, nullCount);
+            }
+            putPartitionSummary(columnType, blockCount);
+            Unsafe.getUnsafe().putLong(address + HEADER_OFFSET_ROW_COUNT, targetRowCount);
+            Unsafe.getUnsafe().putInt(address + HEADER_OFFSET_BLOCK_ROW_COUNT, blockRowCount);
+            Unsafe.getUnsafe().putInt(address + HEADER_OFFSET_COLUMN_TYPE, columnType);
+
+            // blocks go first, readers look at the header to find out how many rows are covered
+            final long blocksOffset = getBlockOffset(firstBlock);
+            final long blocksSize = getBlockOffset(blockCount) - blocksOffset;
+            if (ff.write(fd, address + blocksOffset, blocksSize, blocksOffset) != blocksSize
+                    || ff.write(fd, address, HEADER_SIZE, 0) != HEADER_SIZE) {
+                throw CairoException.critical(ff.errno()).put("could not write zone map [file=").put(path).put(']');
+            }
+            return targetRowCount;
+        } finally {
+            if (dataAddress != 0) {
+                ff.munmap(dataAddress, dataSize, MemoryTag.MMAP_TABLE_WRITER);
+            }
+            if (fd != -1) {
+                ff.close(fd);
+            }
+            path.trimTo(plen);
+        }
+    }
+
+    private static long aggregateDouble(long lo, long count, long blockAddress) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        long nullCount = 0;
+        for (long p = lo, hi = lo + (count << 3); p < hi; p += Double.BYTES) {
+            final double value = Unsafe.getUnsafe().getDouble(p);
+            if (value != value) {
+                nullCount++;
+            } else {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        putDoubles(blockAddress, min, max);
+        return nullCount;
+    }
+
+    private static long aggregateFloat(long lo, long count, long blockAddress) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        long nullCount = 0;
+        for (long p = lo, hi = lo + (count << 2); p < hi; p += Float.BYTES) {
+            final float value = Unsafe.getUnsafe().getFloat(p);
+            if (value != value) {
+                nullCount++;
+            } else {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        putDoubles(blockAddress, min, max);
+        return nullCount;
+    }
+
+    private static long aggregateInt(long lo, long count, long blockAddress) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        long nullCount = 0;
+        for (long p = lo, hi = lo + (count << 2); p < hi; p += Integer.BYTES) {
+            final int value = Unsafe.getUnsafe().getInt(p);
+            if (value == Numbers.INT_NaN) {
+                nullCount++;
+            } else {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        putLongs(blockAddress, min, max);
+        return nullCount;
+    }
+
+    private static long aggregateLong(long lo, long count, long blockAddress) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long nullCount = 0;
+        for (long p = lo, hi = lo + (count << 3); p < hi; p += Long.BYTES) {
+            final long value = Unsafe.getUnsafe().getLong(p);
+            if (value == Numbers.LONG_NaN) {
+                nullCount++;
+            } else {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        putLongs(blockAddress, min, max);
+        return nullCount;
+    }
+
+    private static void putDoubles(long address, double min, double max) {
+        Unsafe.getUnsafe().putDouble(address + BLOCK_OFFSET_MIN, min);
+        Unsafe.getUnsafe().putDouble(address + BLOCK_OFFSET_MAX, max);
+    }
+
+    private static void putEmpty(int columnType, long address) {
+        if (isFloatingPoint(columnType)) {
+            putDoubles(address, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        } else {
+            putLongs(address, Long.MAX_VALUE, Long.MIN_VALUE);
+        }
+    }
+
+    private static void putLongs(long address, long min, long max) {
+        Unsafe.getUnsafe().putLong(address + BLOCK_OFFSET_MIN, min);
+        Unsafe.getUnsafe().putLong(address + BLOCK_OFFSET_MAX, max);
+    }
+
+    private long aggregate(int columnType, long lo, long count, long blockAddress) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                return aggregateInt(lo, count, blockAddress);
+            case ColumnType.LONG:
+                return aggregateLong(lo, count, blockAddress);
+            case ColumnType.FLOAT:
+                return aggregateFloat(lo, count, blockAddress);
+            default:
+                return aggregateDouble(lo, count, blockAddress);
+        }
+    }
+
+    private void ensureCapacity(long size) {
+        if (size > capacity) {
+            final long newCapacity = Math.max(size, capacity * 2);
+            address = Unsafe.realloc(address, capacity, newCapacity, MemoryTag.NATIVE_TABLE_WRITER);
+            capacity = newCapacity;
+        }
+    }
+
+    private void putPartitionSummary(int columnType, long blockCount) {
+        long nullCount = 0;
+        if (isFloatingPoint(columnType)) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (long block = 0; block < blockCount; block++) {
+                final long blockAddress = address + getBlockOffset(block);
+                min = Math.min(min, Unsafe.getUnsafe().getDouble(blockAddress + BLOCK_OFFSET_MIN));
+                max = Math.max(max, Unsafe.getUnsafe().getDouble(blockAddress + BLOCK_OFFSET_MAX));
+                nullCount += Unsafe.getUnsafe().getLong(blockAddress + BLOCK_OFFSET_NULL_COUNT);
+            }
+            putDoubles(address + HEADER_OFFSET_MIN, min, max);
+        } else {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (long block = 0; block < blockCount; block++) {
+                final long blockAddress = address + getBlockOffset(block);
+                min = Math.min(min, Unsafe.getUnsafe().getLong(blockAddress + BLOCK_OFFSET_MIN));
+                max = Math.max(max, Unsafe.getUnsafe().getLong(blockAddress + BLOCK_OFFSET_MAX));
+                nullCount += Unsafe.getUnsafe().getLong(blockAddress + BLOCK_OFFSET_NULL_COUNT);
+            }
+            putLongs(address + HEADER_OFFSET_MIN, min, max);
+        }
+        Unsafe.getUnsafe().putLong(address + HEADER_OFFSET_NULL_COUNT, nullCount);
+    }
+
+    /**
+     * Reads zone map file into the buffer.
+     *
+     * @return number of rows covered by the file or 0 when the file is empty or cannot be extended
+     */
+    private long readCoveredRowCount(int fd, int columnType) {
+        final long len = ff.length(fd);
+        if (len < HEADER_SIZE) {
+            return 0;
+        }
+        ensureCapacity(len);
+        if (ff.read(fd, address, len, 0) != len) {
+            return 0;
+        }
+        final long rowCount = Unsafe.getUnsafe().getLong(address + HEADER_OFFSET_ROW_COUNT);
+        if (
+                Unsafe.getUnsafe().getInt(address + HEADER_OFFSET_COLUMN_TYPE) != columnType
+                        || Unsafe.getUnsafe().getInt(address + HEADER_OFFSET_BLOCK_ROW_COUNT) != blockRowCount
+                        || rowCount < 0
+                        || getFileSize(rowCount, blockRowCount) > len
+        ) {
+            return 0;
+        }
+        return rowCount;
+    }
+}
@@ -209,6 +209,11 @@ public class CompactMap implements Map, Reopenable {
         return valueColumnCount;
     }
 
+    @Override
+    public void merge(Map srcMap, MapValueMergeFunction mergeFunc) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void reopen() {
         clear();
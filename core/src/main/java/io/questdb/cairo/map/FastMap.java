@@ -90,6 +90,7 @@ public class FastMap implements Map, Reopenable {
     private final FastMapValue value2;
     private final FastMapValue value3;
     private final int valueColumnCount;
+    private final int[] valueOffsets;
     private final int valueSize;
     private long capacity;
     private int free;
@@ -203,6 +204,7 @@ public class FastMap implements Map, Reopenable {
             valueColumnCount = 0;
         }
         this.valueSize = valueSize;
+        this.valueOffsets = valueOffsets;
         keyOffset = offset;
 
         value = new FastMapValue(valueOffsets);
@@ -262,6 +264,58 @@ public class FastMap implements Map, Reopenable {
         return valueColumnCount;
     }
 
+    @Override
+    public void merge(Map srcMap, MapValueMergeFunction mergeFunc) {
+        assert this != srcMap;
+        final FastMap src = (FastMap) srcMap;
+        assert keySize == src.keySize;
+        assert valueSize == src.valueSize;
+        if (src.size == 0) {
+            return;
+        }
+
+        // We walk the source offset list rather than the key memory, so that hash codes
+        // don't need to be recalculated. Missing key-value pairs are copied as is.
+        OUTER:
+        for (int i = 0, k = (int) src.offsets.size(); i < k; i++) {
+            final long packedSrcOffset = getPackedOffset(src.offsets, i);
+            final long srcOffset = unpackOffset(packedSrcOffset);
+            if (srcOffset < 0) {
+                continue;
+            }
+            final int hashCode = unpackHashCode(packedSrcOffset);
+            final long srcStartAddress = src.kStart + srcOffset;
+            final long entrySize = keySize != -1 ? keyOffset + keySize : Unsafe.getUnsafe().getInt(srcStartAddress);
+
+            int index = hashCode & mask;
+            long packedDestOffset;
+            long destOffset;
+            while ((destOffset = unpackOffset(packedDestOffset = getPackedOffset(offsets, index))) > -1) {
+                if (hashCode == unpackHashCode(packedDestOffset) && eqEntries(kStart + destOffset, srcStartAddress, entrySize)) {
+                    mergeFunc.merge(valueOf(kStart + destOffset, false, value), src.valueAt(srcStartAddress));
+                    continue OUTER;
+                }
+                index = (index + 1) & mask;
+            }
+
+            if (kPos + entrySize > kLimit) {
+                resize0(kPos + entrySize - kStart);
+            }
+            Vect.memcpy(kPos, srcStartAddress, entrySize);
+            setPackedOffset(offsets, index, kPos - kStart, hashCode);
+            kPos += entrySize;
+            // Align current pointer to 8 bytes, so that we can store compressed offsets.
+            if ((kPos & 0x7) != 0) {
+                kPos |= 0x7;
+                kPos++;
+            }
+            if (--free == 0) {
+                rehash();
+            }
+            size++;
+        }
+    }
+
     public void reopen() {
         if (kStart == 0) {
             // handles both mem and offsets
@@ -294,6 +348,18 @@ public class FastMap implements Map, Reopenable {
         return valueOf(address, false, value);
     }
 
+    /**
+     * Creates a key that looks values up without writing to the map memory. Unlike the key
+     * returned by {@link #withKey()}, probe keys may be used by multiple threads concurrently
+     * as long as no keys are being inserted into the map. Values can't be created via
+     * a probe key. The key holds native memory, so it has to be closed after use.
+     *
+     * @return new probe key
+     */
+    public ProbeKey newProbeKey() {
+        return keySize == -1 ? new VarSizeProbeKey() : new FixedSizeProbeKey();
+    }
+
     @Override
     public MapKey withKey() {
         return key.init();
@@ -334,6 +400,17 @@ public class FastMap implements Map, Reopenable {
         return valueOf(keyWriter.startAddress, true, value);
     }
 
+    private boolean eqEntries(long destStartAddress, long srcStartAddress, long srcEntrySize) {
+        if (keySize != -1) {
+            return Vect.memeq(destStartAddress + keyOffset, srcStartAddress + keyOffset, keySize);
+        }
+        // Check the length first.
+        if (Unsafe.getUnsafe().getInt(destStartAddress) != srcEntrySize) {
+            return false;
+        }
+        return Vect.memeq(destStartAddress + keyOffset, srcStartAddress + keyOffset, srcEntrySize - keyOffset);
+    }
+
     private FastMapValue probe0(BaseKey keyWriter, int index, int hashCode, FastMapValue value) {
         long packedOffset;
         long offset;
@@ -383,10 +460,13 @@ public class FastMap implements Map, Reopenable {
     }
 
     private void resize(int size) {
+        resize0(key.appendAddress + size - kStart);
+    }
+
+    private void resize0(long target) {
         if (nResizes < maxResizes) {
             nResizes++;
             long kCapacity = (kLimit - kStart) << 1;
-            long target = key.appendAddress + size - kStart;
             if (kCapacity < target) {
                 kCapacity = Numbers.ceilPow2(target);
             }
@@ -492,7 +572,7 @@ public class FastMap implements Map, Reopenable {
             }
         }
 
-        private MapValue findValue(FastMapValue value) {
+        protected MapValue findValue(FastMapValue value) {
             commit();
             int hashCode = hash();
             int index = hashCode & mask;
@@ -538,21 +618,21 @@ public class FastMap implements Map, Reopenable {
 
         @Override
         public void putBool(boolean value) {
-            assert appendAddress + Byte.BYTES <= kLimit;
+            assert appendAddress + Byte.BYTES <= keyLimit();
             Unsafe.getUnsafe().putByte(appendAddress, (byte) (value ? 1 : 0));
             appendAddress += Byte.BYTES;
         }
 
         @Override
         public void putByte(byte value) {
-            assert appendAddress + Byte.BYTES <= kLimit;
+            assert appendAddress + Byte.BYTES <= keyLimit();
             Unsafe.getUnsafe().putByte(appendAddress, value);
             appendAddress += Byte.BYTES;
         }
 
         @Override
         public void putChar(char value) {
-            assert appendAddress + Character.BYTES <= kLimit;
+            assert appendAddress + Character.BYTES <= keyLimit();
             Unsafe.getUnsafe().putChar(appendAddress, value);
             appendAddress += Character.BYTES;
         }
@@ -564,35 +644,35 @@ public class FastMap implements Map, Reopenable {
 
         @Override
         public void putDouble(double value) {
-            assert appendAddress + Double.BYTES <= kLimit;
+            assert appendAddress + Double.BYTES <= keyLimit();
             Unsafe.getUnsafe().putDouble(appendAddress, value);
             appendAddress += Double.BYTES;
         }
 
         @Override
         public void putFloat(float value) {
-            assert appendAddress + Float.BYTES <= kLimit;
+            assert appendAddress + Float.BYTES <= keyLimit();
             Unsafe.getUnsafe().putFloat(appendAddress, value);
             appendAddress += Float.BYTES;
         }
 
         @Override
         public void putInt(int value) {
-            assert appendAddress + Integer.BYTES <= kLimit;
+            assert appendAddress + Integer.BYTES <= keyLimit();
             Unsafe.getUnsafe().putInt(appendAddress, value);
             appendAddress += Integer.BYTES;
         }
 
         @Override
         public void putLong(long value) {
-            assert appendAddress + Long.BYTES <= kLimit;
+            assert appendAddress + Long.BYTES <= keyLimit();
             Unsafe.getUnsafe().putLong(appendAddress, value);
             appendAddress += Long.BYTES;
         }
 
         @Override
         public void putLong128(long lo, long hi) {
-            assert appendAddress + 16 <= kLimit;
+            assert appendAddress + 16 <= keyLimit();
             Unsafe.getUnsafe().putLong(appendAddress, lo);
             Unsafe.getUnsafe().putLong(appendAddress + Long.BYTES, hi);
             appendAddress += 16;
@@ -600,7 +680,7 @@ public class FastMap implements Map, Reopenable {
 
         @Override
         public void putLong256(Long256 value) {
-            assert appendAddress + Long256.BYTES <= kLimit;
+            assert appendAddress + Long256.BYTES <= keyLimit();
             Unsafe.getUnsafe().putLong(appendAddress, value.getLong0());
             Unsafe.getUnsafe().putLong(appendAddress + Long.BYTES, value.getLong1());
             Unsafe.getUnsafe().putLong(appendAddress + Long.BYTES * 2, value.getLong2());
@@ -610,7 +690,7 @@ public class FastMap implements Map, Reopenable {
 
         @Override
         public void putShort(short value) {
-            assert appendAddress + Short.BYTES <= kLimit;
+            assert appendAddress + Short.BYTES <= keyLimit();
             Unsafe.getUnsafe().putShort(appendAddress, value);
             appendAddress += Short.BYTES;
         }
@@ -640,6 +720,10 @@ public class FastMap implements Map, Reopenable {
             return Vect.memeq(kStart + offset + keyOffset, startAddress + keyOffset, keySize);
         }
 
+        protected long keyLimit() {
+            return kLimit;
+        }
+
         @Override
         protected int hash() {
             return Hash.hashMem32(startAddress + keyOffset, keySize);
@@ -844,4 +928,141 @@ public class FastMap implements Map, Reopenable {
             return Hash.hashMem32(startAddress + keyOffset, len - keyOffset);
         }
     }
+
+    /**
+     * Map key that can be used to look up values concurrently, see {@link #newProbeKey()}.
+     */
+    public interface ProbeKey extends MapKey, QuietCloseable {
+
+        ProbeKey init();
+    }
+
+    private class FixedSizeProbeKey extends FixedSizeKey implements ProbeKey {
+        private final long keyMemSize = keyOffset + keySize;
+        private final FastMapValue probeValue = new FastMapValue(valueOffsets);
+        private long keyMem;
+
+        private FixedSizeProbeKey() {
+            keyMem = Unsafe.malloc(keyMemSize, mapMemoryTag);
+        }
+
+        @Override
+        public void close() {
+            if (keyMem != 0) {
+                keyMem = Unsafe.free(keyMem, keyMemSize, mapMemoryTag);
+            }
+        }
+
+        @Override
+        public MapValue createValue() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue createValue2() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue createValue3() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue findValue() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public MapValue findValue2() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public MapValue findValue3() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public FixedSizeProbeKey init() {
+            startAddress = keyMem;
+            appendAddress = keyMem + keyOffset;
+            return this;
+        }
+
+        @Override
+        protected long keyLimit() {
+            return keyMem + keyMemSize;
+        }
+    }
+
+    private class VarSizeProbeKey extends VarSizeKey implements ProbeKey {
+        private static final long INITIAL_KEY_MEM_SIZE = 64;
+        private final FastMapValue probeValue = new FastMapValue(valueOffsets);
+        private long keyMem;
+        private long keyMemSize;
+
+        private VarSizeProbeKey() {
+            keyMemSize = Numbers.ceilPow2(keyOffset + INITIAL_KEY_MEM_SIZE);
+            keyMem = Unsafe.malloc(keyMemSize, mapMemoryTag);
+        }
+
+        @Override
+        public void close() {
+            if (keyMem != 0) {
+                keyMem = Unsafe.free(keyMem, keyMemSize, mapMemoryTag);
+                keyMemSize = 0;
+            }
+        }
+
+        @Override
+        public MapValue createValue() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue createValue2() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue createValue3() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MapValue findValue() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public MapValue findValue2() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public MapValue findValue3() {
+            return findValue(probeValue);
+        }
+
+        @Override
+        public VarSizeProbeKey init() {
+            startAddress = keyMem;
+            appendAddress = keyMem + keyOffset;
+            return this;
+        }
+
+        @Override
+        protected void checkSize(int size) {
+            final long requiredSize = appendAddress - startAddress + size;
+            if (requiredSize > keyMemSize) {
+                final long newSize = Numbers.ceilPow2(requiredSize);
+                final long newKeyMem = Unsafe.realloc(keyMem, keyMemSize, newSize, mapMemoryTag);
+                appendAddress = newKeyMem + (appendAddress - startAddress);
+                startAddress = newKeyMem;
+                keyMem = newKeyMem;
+                keyMemSize = newSize;
+            }
+        }
+    }
 }
@@ -38,6 +38,17 @@ public interface Map extends Mutable, Closeable, Reopenable {
 
     MapRecord getRecord();
 
+    /**
+     * Merges all key-value pairs from the source map into this map. Keys missing
+     * in this map are copied as is, while values of already existing keys are
+     * combined via the provided merge function. Both maps must have the same
+     * key and value structure.
+     *
+     * @param srcMap    source map
+     * @param mergeFunc merge function called for keys present in both maps
+     */
+    void merge(Map srcMap, MapValueMergeFunction mergeFunc);
+
     void restoreInitialCapacity();
 
     long size();
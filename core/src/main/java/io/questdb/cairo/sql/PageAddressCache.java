@@ -27,18 +27,21 @@ package io.questdb.cairo.sql;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnType;
 import io.questdb.std.*;
+import org.jetbrains.annotations.Nullable;
 
 public class PageAddressCache implements Mutable {
 
     private final long cacheSizeThreshold;
+    // Value size shifts of fixed size columns, -1 for variable length columns.
+    private final IntList columnSizeShifts = new IntList();
     // Index remapping for variable length columns.
     private final IntList varLenColumnIndexes = new IntList();
     private int columnCount;
-    // Index page addresses and page sizes are stored only for variable length columns.
+    // Index page addresses are stored only for variable length columns.
     private LongList indexPageAddresses = new LongList();
     private LongList pageAddresses = new LongList();
+    private LongList pageRowCounts = new LongList();
     private LongList pageRowIdOffsets = new LongList();
-    private LongList pageSizes = new LongList();
     private int varLenColumnCount;
 
     public PageAddressCache(CairoConfiguration configuration) {
@@ -53,25 +56,28 @@ public class PageAddressCache implements Mutable {
             pageAddresses.add(frame.getPageAddress(columnIndex));
             int varLenColumnIndex = varLenColumnIndexes.getQuick(columnIndex);
             if (varLenColumnIndex > -1) {
+                // page size is not requested from the frame here: it is resolved
+                // on access, so that only the columns a query reads are paged in
                 indexPageAddresses.add(frame.getIndexPageAddress(columnIndex));
-                pageSizes.add(frame.getPageSize(columnIndex));
             }
         }
+        pageRowCounts.add(frame.getPartitionHi() - frame.getPartitionLo());
         pageRowIdOffsets.add(Rows.toRowID(frame.getPartitionIndex(), frame.getPartitionLo()));
     }
 
     @Override
     public void clear() {
         varLenColumnIndexes.clear();
+        columnSizeShifts.clear();
         if (pageAddresses.size() < cacheSizeThreshold) {
             pageAddresses.clear();
             indexPageAddresses.clear();
-            pageSizes.clear();
+            pageRowCounts.clear();
             pageRowIdOffsets.clear();
         } else {
             pageAddresses = new LongList();
             indexPageAddresses = new LongList();
-            pageSizes = new LongList();
+            pageRowCounts = new LongList();
             pageRowIdOffsets = new LongList();
         }
     }
@@ -92,11 +98,17 @@ public class PageAddressCache implements Mutable {
         return pageAddresses.getQuick(columnCount * frameIndex + columnIndex);
     }
 
+    /**
+     * Returns data page size of a variable length column. The size is read from the
+     * index page entry that follows the last row of the frame.
+     */
     public long getPageSize(int frameIndex, int columnIndex) {
-        assert pageSizes.size() >= varLenColumnCount * (frameIndex + 1);
-        int varLenColumnIndex = varLenColumnIndexes.getQuick(columnIndex);
-        assert varLenColumnIndex > -1;
-        return pageSizes.getQuick(varLenColumnCount * frameIndex + varLenColumnIndex);
+        final long indexPageAddress = getIndexPageAddress(frameIndex, columnIndex);
+        return Unsafe.getUnsafe().getLong(indexPageAddress + (pageRowCounts.getQuick(frameIndex) << 3));
+    }
+
+    public int getVarLenColumnCount() {
+        return varLenColumnCount;
     }
 
     public boolean hasColumnTops(int frameIndex) {
@@ -109,14 +121,45 @@ public class PageAddressCache implements Mutable {
         return false;
     }
 
+    public boolean isVarLenColumn(int columnIndex) {
+        return varLenColumnIndexes.getQuick(columnIndex) > -1;
+    }
+
     public void of(@Transient RecordMetadata metadata) {
         this.columnCount = metadata.getColumnCount();
         this.varLenColumnIndexes.setAll(columnCount, -1);
+        this.columnSizeShifts.setAll(columnCount, -1);
         this.varLenColumnCount = 0;
         for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
             final int columnType = metadata.getColumnType(columnIndex);
             if (ColumnType.isVariableLength(columnType)) {
                 varLenColumnIndexes.setQuick(columnIndex, varLenColumnCount++);
+            } else {
+                columnSizeShifts.setQuick(columnIndex, ColumnType.pow2SizeOf(columnType));
+            }
+        }
+    }
+
+    /**
+     * Asks the OS to start reading pages of the given frame in the background, so that
+     * a subsequent scan of the frame does not stall on page faults. Fixed size column
+     * pages and variable length column index pages are prefetched. Data pages of variable
+     * length columns are left alone since their size is only known once the index
+     * is read.
+     *
+     * @param ff            files facade
+     * @param frameIndex    frame index
+     * @param columnIndexes columns to prefetch, all columns when null
+     */
+    public void readAhead(FilesFacade ff, int frameIndex, @Nullable IntList columnIndexes) {
+        assert pageAddresses.size() >= columnCount * (frameIndex + 1);
+        if (columnIndexes == null) {
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                readAhead(ff, frameIndex, columnIndex);
+            }
+        } else {
+            for (int i = 0, n = columnIndexes.size(); i < n; i++) {
+                readAhead(ff, frameIndex, columnIndexes.getQuick(i));
             }
         }
     }
@@ -124,4 +167,25 @@ public class PageAddressCache implements Mutable {
     public long toTableRowID(int frameIndex, long index) {
         return pageRowIdOffsets.get(frameIndex) + index;
     }
+
+    private static void madviseWillNeed(FilesFacade ff, long address, long size) {
+        // madvise() requires the address to be aligned to the page boundary
+        final long alignedAddress = address & -Files.PAGE_SIZE;
+        ff.madvise(alignedAddress, size + address - alignedAddress, Files.POSIX_MADV_WILLNEED);
+    }
+
+    private void readAhead(FilesFacade ff, int frameIndex, int columnIndex) {
+        final long pageAddress = getPageAddress(frameIndex, columnIndex);
+        if (pageAddress == 0) {
+            // column top
+            return;
+        }
+        final long rowCount = pageRowCounts.getQuick(frameIndex);
+        final int sizeShift = columnSizeShifts.getQuick(columnIndex);
+        if (sizeShift > -1) {
+            madviseWillNeed(ff, pageAddress, rowCount << sizeShift);
+        } else {
+            madviseWillNeed(ff, getIndexPageAddress(frameIndex, columnIndex), (rowCount + 1) << 3);
+        }
+    }
 }
@@ -25,6 +25,7 @@
 package io.questdb.cairo.sql;
 
 import io.questdb.cairo.CairoException;
+import io.questdb.cairo.GeoHashes;
 import io.questdb.cairo.TableUtils;
 import io.questdb.cairo.vm.NullMemoryMR;
 import io.questdb.cairo.vm.Vm;
@@ -135,7 +136,7 @@ public class PageAddressCacheRecord implements Record, Closeable {
     public byte getGeoByte(int columnIndex) {
         final long address = pageAddressCache.getPageAddress(frameIndex, columnIndex);
         if (address == 0) {
-            return NullMemoryMR.INSTANCE.getByte(0);
+            return GeoHashes.BYTE_NULL;
         }
         return Unsafe.getUnsafe().getByte(address + rowIndex * Byte.BYTES);
     }
@@ -144,7 +145,7 @@ public class PageAddressCacheRecord implements Record, Closeable {
     public int getGeoInt(int columnIndex) {
         final long address = pageAddressCache.getPageAddress(frameIndex, columnIndex);
         if (address == 0) {
-            return NullMemoryMR.INSTANCE.getInt(0);
+            return GeoHashes.INT_NULL;
         }
         return Unsafe.getUnsafe().getInt(address + rowIndex * Integer.BYTES);
     }
@@ -153,7 +154,7 @@ public class PageAddressCacheRecord implements Record, Closeable {
     public long getGeoLong(int columnIndex) {
         final long address = pageAddressCache.getPageAddress(frameIndex, columnIndex);
         if (address == 0) {
-            return NullMemoryMR.INSTANCE.getLong(0);
+            return GeoHashes.NULL;
         }
         return Unsafe.getUnsafe().getLong(address + rowIndex * Long.BYTES);
     }
@@ -162,7 +163,7 @@ public class PageAddressCacheRecord implements Record, Closeable {
     public short getGeoShort(int columnIndex) {
         final long address = pageAddressCache.getPageAddress(frameIndex, columnIndex);
         if (address == 0) {
-            return NullMemoryMR.INSTANCE.getShort(0);
+            return GeoHashes.SHORT_NULL;
         }
         return Unsafe.getUnsafe().getShort(address + rowIndex * Short.BYTES);
     }
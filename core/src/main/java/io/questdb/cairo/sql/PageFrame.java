@@ -25,6 +25,7 @@
 package io.questdb.cairo.sql;
 
 import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.ZoneMapReader;
 
 public interface PageFrame {
 
@@ -68,4 +69,14 @@ public interface PageFrame {
     int getPartitionIndex();
 
     long getPartitionLo();
+
+    /**
+     * Loads zone map of the column in the partition of this frame. Zone map may cover fewer
+     * rows than the partition has, or it may not exist at all.
+     *
+     * @param columnIndex   index of column
+     * @param zoneMapReader reader to load the zone map into
+     * @return false when the zone map is not available
+     */
+    boolean readZoneMap(int columnIndex, ZoneMapReader zoneMapReader);
 }
@@ -26,11 +26,14 @@ package io.questdb.cairo.sql;
 
 import io.questdb.cairo.TableToken;
 import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.cairo.vm.api.MemoryCARW;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.Plannable;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.jit.CompiledFilter;
 import io.questdb.mp.SCSequence;
+import io.questdb.std.ObjList;
 import io.questdb.std.Sinkable;
 import io.questdb.std.str.CharSink;
 
@@ -131,6 +134,34 @@ public interface RecordCursorFactory extends Closeable, Sinkable, Plannable {
         throw new UnsupportedOperationException();
     }
 
+    default ObjList<Function> getBindVarFunctions() {
+        return null;
+    }
+
+    default MemoryCARW getBindVarMemory() {
+        return null;
+    }
+
+    /**
+     * Returns the JIT-compiled filter of a filtering factory, if any. Used along with
+     * {@link #supportsFilterStealing()}, see {@link #getFilter()}.
+     *
+     * @return compiled filter or null
+     */
+    default CompiledFilter getCompiledFilter() {
+        return null;
+    }
+
+    /**
+     * Returns the filter function of a filtering factory. Used along with {@link #supportsFilterStealing()}
+     * by parent factories, such as parallel GROUP BY, to apply the filter on their own.
+     *
+     * @return filter function or null
+     */
+    default Function getFilter() {
+        return null;
+    }
+
     /**
      * Metadata of the SQL result. It includes column names, indexes and types.
      *
@@ -142,6 +173,10 @@ public interface RecordCursorFactory extends Closeable, Sinkable, Plannable {
         return null;
     }
 
+    default ObjList<Function> getPerWorkerFilters() {
+        return null;
+    }
+
     /**
      * Returns the direction of scanning used in this factory:
      * - {@link #SCAN_DIRECTION_FORWARD}, {@link #SCAN_DIRECTION_BACKWARD} - for regular data/interval frame scans
@@ -164,6 +199,14 @@ public interface RecordCursorFactory extends Closeable, Sinkable, Plannable {
         return null;
     }
 
+    /**
+     * Closes the factory except for its base factory and filter functions. Called by a parent
+     * factory that took over the filter and the base factory of this factory, see
+     * {@link #supportsFilterStealing()}.
+     */
+    default void halfClose() {
+    }
+
     /* Returns true if this factory handles limit M , N clause already and false otherwise .
      *  If true then separate limit cursor factory is not needed (and could actually cause problem by re-applying limit logic).   */
     default boolean implementsLimit() {
@@ -179,6 +222,18 @@ public interface RecordCursorFactory extends Closeable, Sinkable, Plannable {
         return false;
     }
 
+    /**
+     * True if the factory is a filter that may be taken over by a parent factory. In that
+     * case the parent factory uses {@link #getFilter()}, {@link #getPerWorkerFilters()},
+     * {@link #getCompiledFilter()} (along with bind variable functions and memory) and
+     * {@link #getBaseFactory()} directly and then calls {@link #halfClose()} on this factory.
+     *
+     * @return true if the filter can be taken over by a parent factory
+     */
+    default boolean supportsFilterStealing() {
+        return false;
+    }
+
     default boolean supportsUpdateRowId(TableToken tableName) {
         return false;
     }
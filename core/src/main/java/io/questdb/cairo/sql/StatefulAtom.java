@@ -26,9 +26,34 @@ package io.questdb.cairo.sql;
 
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.IntList;
+import org.jetbrains.annotations.Nullable;
 
 public interface StatefulAtom {
 
+    /**
+     * Checks if the page frame can be skipped without being dispatched, because none of its
+     * rows can be selected. Called by the thread that owns the page frame sequence.
+     *
+     * @param frame page frame
+     * @return true when the frame has no matching rows
+     */
+    default boolean canSkip(PageFrame frame) {
+        return false;
+    }
+
+    /**
+     * Returns indexes of the columns the reduce step reads. Only pages of these columns are
+     * read ahead by the page frame sequence. Called by the thread that owns the page frame
+     * sequence after {@link #init(SymbolTableSource, SqlExecutionContext)}.
+     *
+     * @return column indexes or null when the reduce step may read any column
+     */
+    @Nullable
+    default IntList getReadAheadColumnIndexes() {
+        return null;
+    }
+
     /**
      * Initializes state required for filtering, such as child atoms, symbol table sources,
      * bind variable values, circuit breakers, etc.
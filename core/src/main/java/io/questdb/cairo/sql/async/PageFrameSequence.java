@@ -49,10 +49,12 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private static final long LOCAL_TASK_CURSOR = Long.MAX_VALUE;
     private static final Log LOG = LogFactory.getLog(PageFrameSequence.class);
     private final MillisecondClock clock;
+    private final FilesFacade ff;
     private final LongList frameRowCounts = new LongList();
     private final PageFrameReduceTaskFactory localTaskFactory;
     private final MessageBus messageBus;
     private final PageAddressCache pageAddressCache;
+    private final int readAheadFrameCount;
     private final AtomicInteger reduceCounter = new AtomicInteger(0);
     private final PageFrameReducer reducer;
     private final AtomicBoolean valid = new AtomicBoolean(true);
@@ -68,6 +70,8 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     // Local reduce task used when there is no slots in the queue to dispatch tasks.
     private PageFrameReduceTask localTask;
     private PageFrameCursor pageFrameCursor;
+    // Frames below this index have been prefetched already.
+    private int readAheadFrameIndex;
     private boolean readyToDispatch;
     private PageAddressCacheRecord record;
     private RingQueue<PageFrameReduceTask> reduceQueue;
@@ -87,6 +91,8 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         this.reducer = reducer;
         this.clock = configuration.getMillisecondClock();
         this.localTaskFactory = localTaskFactory;
+        this.ff = configuration.getFilesFacade();
+        this.readAheadFrameCount = configuration.getSqlPageFrameReadAheadCount();
     }
 
     /**
@@ -155,6 +161,7 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         // prepare different frame sequence using the same object instance
         frameCount = 0;
         dispatchStartFrameIndex = 0;
+        readAheadFrameIndex = 0;
         collectedFrameIndex = -1;
         readyToDispatch = false;
         pageAddressCache.clear();
@@ -395,6 +402,9 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private void buildAddressCache() {
         PageFrame frame;
         while ((frame = pageFrameCursor.next()) != null) {
+            if (atom.canSkip(frame)) {
+                continue;
+            }
             pageAddressCache.add(frameCount++, frame);
             frameRowCounts.add(frame.getPartitionHi() - frame.getPartitionLo());
         }
@@ -438,6 +448,7 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
             // never get the executions results. Consumer only picks ready to go
             // tasks from the queue.
 
+            readAhead(i);
             while (true) {
                 cursor = reducePubSeq.next();
                 if (cursor > -1) {
@@ -516,6 +527,22 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         return true;
     }
 
+    /**
+     * Prefetches pages of the given frame and the next few ones, so that cold data is read
+     * from disk in the background while the already dispatched frames are being reduced.
+     * Only the columns read by the atom's reduce step are prefetched.
+     */
+    private void readAhead(int frameIndex) {
+        if (readAheadFrameCount > 0) {
+            final int hi = Math.min(frameCount, frameIndex + readAheadFrameCount + 1);
+            final IntList columnIndexes = atom.getReadAheadColumnIndexes();
+            for (int i = Math.max(readAheadFrameIndex, frameIndex); i < hi; i++) {
+                pageAddressCache.readAhead(ff, i, columnIndexes);
+            }
+            readAheadFrameIndex = Math.max(readAheadFrameIndex, hi);
+        }
+    }
+
     private void workLocally() {
         assert dispatchStartFrameIndex < frameCount;
 
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.vm;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnCompressor;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.vm.api.MemoryCMOR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.LPSZ;
+
+// contiguous readable memory with offset over a column file compressed by ColumnCompressor,
+// only the blocks overlapping with the mapped range are decompressed into a native buffer,
+// which is reused when memory is reopened
+public class MemoryCMORCompressedImpl extends AbstractMemoryCR implements MemoryCMOR {
+    private static final Log LOG = LogFactory.getLog(MemoryCMORCompressedImpl.class);
+    private final int bufferMemoryTag;
+    private long bufferOffset = 0;
+    private long capacity = 0;
+    private long offset = 0;
+
+    public MemoryCMORCompressedImpl(int bufferMemoryTag) {
+        this.bufferMemoryTag = bufferMemoryTag;
+    }
+
+    @Override
+    public long addressOf(long offset) {
+        assert offset - this.offset <= size : "offset=" + offset + ", size=" + size + ", fd=" + fd;
+        return pageAddress + offset - bufferOffset;
+    }
+
+    @Override
+    public void close() {
+        closeFile();
+        if (pageAddress != 0) {
+            Unsafe.free(pageAddress, capacity, bufferMemoryTag);
+            pageAddress = 0;
+            capacity = 0;
+        }
+    }
+
+    @Override
+    public void extend(long newSize) {
+        if (newSize > size) {
+            throw CairoException.critical(0).put("cannot extend decompressed column range [fd=").put(fd)
+                    .put(", size=").put(size)
+                    .put(", requiredSize=").put(newSize)
+                    .put(']');
+        }
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public void of(FilesFacade ff, LPSZ name, long extendSegmentSize, long size, int memoryTag, long opts, int madviseOpts) {
+        ofOffset(ff, name, 0L, size, memoryTag, opts);
+    }
+
+    @Override
+    public void ofOffset(FilesFacade ff, LPSZ name, long lo, long hi, int memoryTag, long opts) {
+        closeFile();
+        this.ff = ff;
+        fd = TableUtils.openRO(ff, name, LOG);
+        try {
+            final long fileSize = ff.length(fd);
+            if (fileSize < ColumnCompressor.HEADER_SIZE) {
+                throw CairoException.critical(ff.errno()).put("compressed column file is too short [file=").put(name)
+                        .put(", fileSize=").put(fileSize)
+                        .put(']');
+            }
+            final long fileAddress = TableUtils.mapRO(ff, fd, fileSize, memoryTag);
+            try {
+                final long uncompressedSize = ColumnCompressor.getUncompressedSize(fileAddress);
+                if (hi < 0) {
+                    hi = uncompressedSize;
+                } else if (hi > uncompressedSize) {
+                    throw CairoException.critical(0).put("compressed column file is too short [file=").put(name)
+                            .put(", size=").put(uncompressedSize)
+                            .put(", requiredSize=").put(hi)
+                            .put(']');
+                }
+                assert hi >= lo : "hi : " + hi + " lo : " + lo;
+
+                final long bufferSize = ColumnCompressor.getRangeBufferSize(fileAddress, lo, hi);
+                if (bufferSize > capacity) {
+                    pageAddress = Unsafe.realloc(pageAddress, capacity, bufferSize, bufferMemoryTag);
+                    capacity = bufferSize;
+                }
+                final long bufferOffset = ColumnCompressor.decompress(fileAddress, fileSize, lo, hi, pageAddress);
+                if (bufferOffset < 0) {
+                    throw CairoException.critical(0).put("corrupt compressed column file [file=").put(name).put(']');
+                }
+                this.bufferOffset = bufferOffset;
+            } finally {
+                ff.munmap(fileAddress, fileSize, memoryTag);
+            }
+            this.offset = lo;
+            this.size = hi - lo;
+            LOG.debug().$("decompressed [file=").$(name).$(", fd=").$(fd).$(", lo=").$(lo).$(", hi=").$(hi).$(']').$();
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    private void closeFile() {
+        clear();
+        size = 0;
+        offset = 0;
+        bufferOffset = 0;
+        if (ff != null && ff.close(fd)) {
+            LOG.debug().$("closed [fd=").$(fd).I$();
+        }
+        fd = -1;
+    }
+}
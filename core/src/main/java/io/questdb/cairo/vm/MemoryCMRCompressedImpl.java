@@ -0,0 +1,227 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.vm;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnCompressor;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.vm.api.MemoryCMR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.LPSZ;
+
+// contiguous readable memory over a column file compressed by ColumnCompressor, the file stays mapped
+// and its blocks are decompressed into a native buffer on first access, so that only the accessed parts
+// of the accessed columns are decompressed; the buffer is reused when memory is reopened
+public class MemoryCMRCompressedImpl extends AbstractMemoryCR implements MemoryCMR {
+    private static final long BLOCK_DECOMPRESSED = -1;
+    private static final Log LOG = LogFactory.getLog(MemoryCMRCompressedImpl.class);
+    // offsets of the block headers in the compressed file, BLOCK_DECOMPRESSED once the block is in the buffer
+    private final LongList blocks = new LongList();
+    private final int bufferMemoryTag;
+    private int blockSize;
+    private long capacity = 0;
+    private long fileAddress = 0;
+    private int fileMemoryTag;
+    private long fileSize = 0;
+    private long uncompressedSize = 0;
+    private long zStream = 0;
+
+    public MemoryCMRCompressedImpl(int bufferMemoryTag) {
+        this.bufferMemoryTag = bufferMemoryTag;
+    }
+
+    @Override
+    public long addressOf(long offset) {
+        // values ending at the offset are read via the address too
+        decompress(offset > 0 ? offset - 1 : 0, offset + 1);
+        return super.addressOf(offset);
+    }
+
+    @Override
+    public void close() {
+        closeFile();
+        if (pageAddress != 0) {
+            Unsafe.free(pageAddress, capacity, bufferMemoryTag);
+            pageAddress = 0;
+            capacity = 0;
+        }
+        if (zStream != 0) {
+            Zip.inflateEnd(zStream);
+            zStream = 0;
+        }
+    }
+
+    @Override
+    public void extend(long newSize) {
+        if (newSize > size) {
+            if (newSize > uncompressedSize) {
+                throw CairoException.critical(0).put("compressed column file is too short [fd=").put(fd)
+                        .put(", size=").put(uncompressedSize)
+                        .put(", requiredSize=").put(newSize)
+                        .put(']');
+            }
+            size = newSize;
+        }
+    }
+
+    @Override
+    public BinarySequence getBin(long offset, ByteSequenceView view) {
+        final long len = getLong(offset);
+        if (len > 0) {
+            decompress(offset, offset + Long.BYTES + len);
+        }
+        return MemoryCMR.super.getBin(offset, view);
+    }
+
+    @Override
+    public long getPageAddress(int pageIndex) {
+        decompress(0, uncompressedSize);
+        return pageAddress;
+    }
+
+    @Override
+    public long getPageAddress(long lo, long hi) {
+        decompress(lo, hi);
+        return pageAddress;
+    }
+
+    @Override
+    public CharSequence getStr(long offset, CharSequenceView view) {
+        final int len = getInt(offset);
+        if (len > 0) {
+            decompress(offset, offset + Vm.STRING_LENGTH_BYTES + 2L * len);
+        }
+        return MemoryCMR.super.getStr(offset, view);
+    }
+
+    @Override
+    public void of(FilesFacade ff, LPSZ name, long extendSegmentSize, long size, int memoryTag, long opts, int madviseOpts) {
+        closeFile();
+        this.ff = ff;
+        fd = TableUtils.openRO(ff, name, LOG);
+        try {
+            fileSize = ff.length(fd);
+            if (fileSize < ColumnCompressor.HEADER_SIZE) {
+                throw CairoException.critical(ff.errno()).put("compressed column file is too short [file=").put(name)
+                        .put(", fileSize=").put(fileSize)
+                        .put(']');
+            }
+            fileAddress = TableUtils.mapRO(ff, fd, fileSize, memoryTag);
+            fileMemoryTag = memoryTag;
+            uncompressedSize = ColumnCompressor.getUncompressedSize(fileAddress);
+            if (size < 0) {
+                size = uncompressedSize;
+            } else if (size > uncompressedSize) {
+                throw CairoException.critical(0).put("compressed column file is too short [file=").put(name)
+                        .put(", size=").put(uncompressedSize)
+                        .put(", requiredSize=").put(size)
+                        .put(']');
+            }
+            if (!indexBlocks()) {
+                throw CairoException.critical(0).put("corrupt compressed column file [file=").put(name).put(']');
+            }
+            if (uncompressedSize > capacity) {
+                pageAddress = Unsafe.realloc(pageAddress, capacity, uncompressedSize, bufferMemoryTag);
+                capacity = uncompressedSize;
+            }
+            this.size = size;
+            LOG.debug().$("open [file=").$(name).$(", fd=").$(fd).$(", size=").$(uncompressedSize).$(", blocks=").$(blocks.size()).$(']').$();
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    private void closeFile() {
+        clear();
+        size = 0;
+        uncompressedSize = 0;
+        blocks.clear();
+        if (fileAddress != 0) {
+            ff.munmap(fileAddress, fileSize, fileMemoryTag);
+            fileAddress = 0;
+        }
+        fileSize = 0;
+        if (ff != null && ff.close(fd)) {
+            LOG.debug().$("closed [fd=").$(fd).I$();
+        }
+        fd = -1;
+    }
+
+    private void decompress(long lo, long hi) {
+        hi = Math.min(hi, uncompressedSize);
+        if (lo >= hi) {
+            return;
+        }
+        for (long i = lo / blockSize, n = (hi + blockSize - 1) / blockSize; i < n; i++) {
+            final long block = blocks.getQuick((int) i);
+            if (block != BLOCK_DECOMPRESSED) {
+                decompressBlock((int) i, block);
+            }
+        }
+    }
+
+    private void decompressBlock(int blockIndex, long block) {
+        if (zStream == 0) {
+            final long zStream = Zip.inflateInit(true);
+            if (zStream < 0) {
+                throw CairoException.critical(0).put("could not initialize decompressor [error=").put(zStream).put(']');
+            }
+            this.zStream = zStream;
+        }
+        if (ColumnCompressor.decompressBlock(zStream, fileAddress, fileSize, block, pageAddress + (long) blockIndex * blockSize) == -1) {
+            throw CairoException.critical(0).put("corrupt compressed column file [fd=").put(fd)
+                    .put(", block=").put(blockIndex)
+                    .put(']');
+        }
+        blocks.setQuick(blockIndex, BLOCK_DECOMPRESSED);
+    }
+
+    // collects block offsets, all blocks but the last one must have the block size
+    private boolean indexBlocks() {
+        blockSize = ColumnCompressor.getBlockSize(fileAddress);
+        if (blockSize <= 0) {
+            return uncompressedSize == 0;
+        }
+        long block = ColumnCompressor.HEADER_SIZE;
+        long offset = 0;
+        while (offset < uncompressedSize) {
+            if (block + ColumnCompressor.BLOCK_HEADER_SIZE > fileSize) {
+                return false;
+            }
+            final int compressedLen = Unsafe.getUnsafe().getInt(fileAddress + block);
+            final int len = Unsafe.getUnsafe().getInt(fileAddress + block + Integer.BYTES);
+            if (compressedLen < 0 || len != Math.min(blockSize, uncompressedSize - offset)) {
+                return false;
+            }
+            blocks.add(block);
+            block += ColumnCompressor.BLOCK_HEADER_SIZE + compressedLen;
+            offset += len;
+        }
+        return block <= fileSize;
+    }
+}
@@ -119,6 +119,16 @@ public class NullMemoryMR implements MemoryMR {
     public void getLong256(long offset, CharSink sink) {
     }
 
+    @Override
+    public void getLong256(long offset, Long256Acceptor sink) {
+        sink.setAll(
+                Long256Impl.NULL_LONG256.getLong0(),
+                Long256Impl.NULL_LONG256.getLong1(),
+                Long256Impl.NULL_LONG256.getLong2(),
+                Long256Impl.NULL_LONG256.getLong3()
+        );
+    }
+
     @Override
     public Long256 getLong256A(long offset) {
         return Long256Impl.NULL_LONG256;
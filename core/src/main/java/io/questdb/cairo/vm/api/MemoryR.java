@@ -80,6 +80,19 @@ public interface MemoryR extends Closeable {
 
     long getPageAddress(int pageIndex);
 
+    /**
+     * Returns address of the single page of contiguous memory, the given range of the memory can be
+     * read via the address. Memory that loads its contents lazily loads only the range, unlike
+     * {@link #getPageAddress(int)}, which loads the whole memory.
+     *
+     * @param lo start of the range, inclusive
+     * @param hi end of the range, exclusive
+     * @return address of the page
+     */
+    default long getPageAddress(long lo, long hi) {
+        return getPageAddress(0);
+    }
+
     int getPageCount();
 
     long getPageSize();
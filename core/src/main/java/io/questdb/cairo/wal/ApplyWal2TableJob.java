@@ -110,7 +110,7 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                     int type = ff.findType(p);
                     if (ff.isDirOrSoftLinkDirNoDots(tempPath, rootLen, pUtf8NameZ, type)) {
                         if (!CairoKeywords.isTxnSeq(pUtf8NameZ) && !CairoKeywords.isWal(pUtf8NameZ)) {
-                            if (!ff.unlinkOrRemove(tempPath, LOG)) {
+                            if (!TableUtils.removePartitionDir(ff, tempPath, engine.getConfiguration().getPartitionTieringVolumePath(), LOG)) {
                                 allClean = false;
                             }
                         }
@@ -143,6 +143,11 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
         return false;
     }
 
+    private static boolean isHousekeepingLockReason(String lockReason) {
+        return O3PartitionSquashJob.SQUASH_REASON.equals(lockReason)
+                || PartitionTieringJob.TIERING_REASON.equals(lockReason);
+    }
+
     private static boolean matchesWalLock(CharSequence name) {
         if (Chars.endsWith(name, ".lock")) {
             for (int i = name.length() - ".lock".length() - 1; i > 0; i--) {
@@ -216,6 +221,8 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                 long rowsAdded = 0;
                 long physicalRowsAdded = 0;
                 long insertTimespan = 0;
+                // commit timestamp of the first transaction the job did not apply
+                long nextCommitTimestamp = Numbers.LONG_NaN;
 
                 tempPath.of(engine.getConfiguration().getRoot()).concat(tableToken).slash();
 
@@ -235,6 +242,7 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                     final long segmentTxn = transactionLogCursor.getSegmentTxn();
                     final long commitTimestamp = transactionLogCursor.getCommitTimestamp();
                     final long seqTxn = transactionLogCursor.getTxn();
+                    nextCommitTimestamp = commitTimestamp;
 
                     if (seqTxn != writer.getAppliedSeqTxn() + 1) {
                         throw CairoException.critical(0)
@@ -324,14 +332,24 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                                 iTransaction++;
                                 physicalRowsAdded += writer.getPhysicallyWrittenRowsSinceLastCommit();
                             }
+                            if (added != -2L) {
+                                nextCommitTimestamp = Numbers.LONG_NaN;
+                            }
                             if (added == -2L || isTerminating) {
                                 // transaction cursor goes beyond prepared transactionMeta or termination requested. Re-run the loop.
                                 break WHILE_TRANSACTION_CURSOR;
                             }
                     }
+                    nextCommitTimestamp = Numbers.LONG_NaN;
                 }
                 totalTransactionCount += iTransaction;
 
+                if (nextCommitTimestamp == Numbers.LONG_NaN && !finishedAll && transactionLogCursor.hasNext()) {
+                    // ejected by the time quota, the cursor stopped before the next transaction
+                    nextCommitTimestamp = transactionLogCursor.getCommitTimestamp();
+                }
+                tableSequencerAPI.notifyApplied(tableToken, rowsAdded, nextCommitTimestamp);
+
                 if (!finishedAll || isTerminating) {
                     writer.commitSeqTxn();
                 }
@@ -489,12 +507,16 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                 applyOutstandingWalTransactions(tableToken, writer, engine, operationCompiler, tempPath, runStatus);
                 lastWriterTxn = writer.getSeqTxn();
             } catch (EntryUnavailableException tableBusy) {
+                final String lockReason = tableBusy.getReason();
                 //noinspection StringEquality
-                if (tableBusy.getReason() != NO_LOCK_REASON
-                        && !WAL_2_TABLE_WRITE_REASON.equals(tableBusy.getReason())
-                        && !WAL_2_TABLE_RESUME_REASON.equals(tableBusy.getReason())) {
-                    LOG.critical().$("unsolicited table lock [table=").utf8(tableToken.getDirName()).$(", lockReason=").$(tableBusy.getReason()).I$();
-                    // This is abnormal termination but table is not set to suspended state.
+                if (lockReason != NO_LOCK_REASON
+                        && !WAL_2_TABLE_WRITE_REASON.equals(lockReason)
+                        && !WAL_2_TABLE_RESUME_REASON.equals(lockReason)) {
+                    if (!isHousekeepingLockReason(lockReason)) {
+                        LOG.critical().$("unsolicited table lock [table=").utf8(tableToken.getDirName()).$(", lockReason=").$(lockReason).I$();
+                    }
+                    // This is abnormal termination, or the writer is briefly held by a housekeeping job that doesn't
+                    // apply WAL transactions, but table is not set to suspended state.
                     // Reset state of SeqTxnTracker so that next CheckWalTransactionJob run will send job notification if necessary.
                     engine.notifyWalTxnRepublisher(tableToken);
                 }
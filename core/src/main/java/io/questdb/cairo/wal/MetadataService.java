@@ -89,6 +89,8 @@ public interface MetadataService {
 
     void changeCacheFlag(int columnIndex, boolean isCacheOn);
 
+    void compressPartition(long partitionTimestamp);
+
     AttachDetachStatus detachPartition(long partitionTimestamp);
 
     void disableDeduplication();
@@ -24,9 +24,15 @@
 
 package io.questdb.cairo.wal;
 
+import io.questdb.cairo.wal.seq.SeqTxnTracker;
+import io.questdb.cairo.wal.seq.TableSequencerAPI;
 import io.questdb.metrics.Counter;
 import io.questdb.metrics.LongGauge;
 import io.questdb.metrics.MetricsRegistry;
+import io.questdb.metrics.VirtualLongGaugeWithOneLabel;
+import io.questdb.std.Numbers;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.str.CharSink;
 
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -37,12 +43,20 @@ public class WalMetrics {
     private final Counter rowsWrittenCounter;
     private final AtomicLong totalRowsWritten = new AtomicLong();
     private final AtomicLong totalRowsWrittenTotalTime = new AtomicLong();
+    private volatile MicrosecondClock clock;
+    private volatile TableSequencerAPI tableSequencerAPI;
 
     public WalMetrics(MetricsRegistry metricsRegistry) {
         this.applyPhysicallyWrittenRowsCounter = metricsRegistry.newCounter("wal_apply_physically_written_rows");
         this.applyRowsWrittenCounter = metricsRegistry.newCounter("wal_apply_written_rows");
         this.applyRowsWriteRateGauge = metricsRegistry.newLongGauge("wal_apply_rows_per_second");
         this.rowsWrittenCounter = metricsRegistry.newCounter("wal_written_rows");
+        // per table apply lag, WAL transactions, rows and bytes not yet applied to the table
+        // and the age of the oldest of them
+        metricsRegistry.newVirtualGauge("wal_apply_lag_txns", "table", (sink, gauge) -> collectApplyLag(sink, gauge, LagStat.TXNS));
+        metricsRegistry.newVirtualGauge("wal_apply_lag_rows", "table", (sink, gauge) -> collectApplyLag(sink, gauge, LagStat.ROWS));
+        metricsRegistry.newVirtualGauge("wal_apply_lag_bytes", "table", (sink, gauge) -> collectApplyLag(sink, gauge, LagStat.BYTES));
+        metricsRegistry.newVirtualGauge("wal_apply_lag_age_micros", "table", (sink, gauge) -> collectApplyLag(sink, gauge, LagStat.AGE));
     }
 
     public void addApplyRowsWritten(long rows, long physicallyWrittenRows, long timeMicros) {
@@ -57,4 +71,35 @@ public class WalMetrics {
     public void addRowsWritten(long rows) {
         rowsWrittenCounter.add(rows);
     }
+
+    public void setApplyLagSource(TableSequencerAPI tableSequencerAPI, MicrosecondClock clock) {
+        this.clock = clock;
+        this.tableSequencerAPI = tableSequencerAPI;
+    }
+
+    private static long getLagStat(SeqTxnTracker tracker, LagStat stat, long now) {
+        switch (stat) {
+            case TXNS:
+                return tracker.getLagTxnCount();
+            case ROWS:
+                return tracker.getLagRowCount();
+            case BYTES:
+                return tracker.getLagBytes();
+            default:
+                final long oldestUnappliedTimestamp = tracker.getOldestUnappliedTimestamp();
+                return oldestUnappliedTimestamp != Numbers.LONG_NaN ? Math.max(now - oldestUnappliedTimestamp, 0) : 0;
+        }
+    }
+
+    private void collectApplyLag(CharSink sink, VirtualLongGaugeWithOneLabel gauge, LagStat stat) {
+        final TableSequencerAPI tableSequencerAPI = this.tableSequencerAPI;
+        if (tableSequencerAPI != null) {
+            final long now = clock.getTicks();
+            tableSequencerAPI.forAllTxnTrackers((tableToken, tracker) -> gauge.appendSample(sink, tableToken.getTableName(), getLagStat(tracker, stat, now)));
+        }
+    }
+
+    private enum LagStat {
+        TXNS, ROWS, BYTES, AGE
+    }
 }
@@ -115,29 +115,6 @@ public class WalPurgeJob extends SynchronizedJob implements Closeable {
         return true;
     }
 
-    /**
-     * Validate equivalent of "^wal\d+$" regex.
-     */
-    private static boolean matchesWalNamePattern(CharSequence name) {
-        final int len = name.length();
-        if (len < (WalUtils.WAL_NAME_BASE.length() + 1)) {
-            return false;
-        }
-
-        if (name.charAt(0) != 'w' || name.charAt(1) != 'a' || name.charAt(2) != 'l') {
-            return false;  // Not a "wal" prefix.
-        }
-
-        for (int i = 3; i < len; ++i) {
-            final char c = name.charAt(i);
-            if (c < '0' || c > '9') {
-                return false;  // Not a number.
-            }
-        }
-
-        return true;
-    }
-
     /**
      * Perform a broad sweep that searches for all tables that have closed
      * WAL segments across the database and deletes any which are no longer needed.
@@ -231,7 +208,7 @@ public class WalPurgeJob extends SynchronizedJob implements Closeable {
                     int type = ff.findType(p);
                     long pUtf8NameZ = ff.findName(p);
 
-                    if (type == Files.DT_DIR && matchesWalNamePattern(walName.of(pUtf8NameZ))) {
+                    if (type == Files.DT_DIR && WalUtils.matchesWalNamePattern(walName.of(pUtf8NameZ))) {
                         try {
                             final int walId = Numbers.parseInt(walName, 3, walName.length());
                             onDiskWalIDSet.add(walId);
@@ -25,6 +25,7 @@
 package io.questdb.cairo.wal;
 
 import io.questdb.cairo.*;
+import io.questdb.cairo.vm.MemoryCMRCompressedImpl;
 import io.questdb.cairo.vm.NullMemoryMR;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryMR;
@@ -205,10 +206,22 @@ public class WalReader implements Closeable {
             MemoryMR mem,
             long columnSize
     ) {
-        if (mem != null && mem != NullMemoryMR.INSTANCE) {
+        // column files of closed segments can be compressed by WAL writer
+        final int pathLen = path.length();
+        final boolean compressed = ff.exists(path.put(WalUtils.WAL_COMPRESSED_FILE_SUFFIX).$());
+        if (!compressed) {
+            path.trimTo(pathLen).$();
+        }
+        if (mem != null && mem != NullMemoryMR.INSTANCE && (mem instanceof MemoryCMRCompressedImpl) == compressed) {
             mem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WAL_READER);
         } else {
-            mem = Vm.getMRInstance(ff, path, columnSize, MemoryTag.MMAP_TABLE_WAL_READER);
+            Misc.free(mem);
+            if (compressed) {
+                mem = new MemoryCMRCompressedImpl(MemoryTag.NATIVE_TABLE_READER);
+                mem.of(ff, path, columnSize, columnSize, MemoryTag.MMAP_TABLE_WAL_READER);
+            } else {
+                mem = Vm.getMRInstance(ff, path, columnSize, MemoryTag.MMAP_TABLE_WAL_READER);
+            }
             columns.setQuick(primaryIndex, mem);
         }
         return mem;
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.wal;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.wal.seq.SequencerMetadata;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.RingQueue;
+import io.questdb.mp.Sequence;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Misc;
+import io.questdb.std.Os;
+import io.questdb.std.str.Path;
+import io.questdb.tasks.WalSegmentCompressTask;
+
+import java.io.Closeable;
+
+import static io.questdb.cairo.TableUtils.*;
+import static io.questdb.cairo.wal.WalUtils.*;
+
+/**
+ * Compresses column files of closed WAL segments off the ingest path. WAL writers publish
+ * a segment once they roll over to the next one or close. The job holds the segment lock
+ * while it works, so WAL purge leaves the segment alone, and replaces each column file with
+ * its block compressed copy. WAL apply and WAL readers decompress the row ranges they read.
+ * Segments which are purged or locked by then keep their raw files, these remain readable.
+ */
+public class WalSegmentCompressJob extends SynchronizedJob implements Closeable {
+    private static final Log LOG = LogFactory.getLog(WalSegmentCompressJob.class);
+    private static final String TMP_SUFFIX = ".tmp";
+    private final CairoConfiguration configuration;
+    private final FilesFacade ff;
+    private final RingQueue<WalSegmentCompressTask> inQueue;
+    private final Sequence inSubSequence;
+    private ColumnCompressor compressor;
+    private Path compressPath;
+    private SequencerMetadata metadata;
+    private Path path;
+
+    public WalSegmentCompressJob(CairoEngine engine) {
+        this.configuration = engine.getConfiguration();
+        this.ff = configuration.getFilesFacade();
+        this.inQueue = engine.getMessageBus().getWalSegmentCompressQueue();
+        this.inSubSequence = engine.getMessageBus().getWalSegmentCompressSubSeq();
+        try {
+            this.compressor = new ColumnCompressor(WAL_COMPRESSION_BLOCK_SIZE);
+            this.compressPath = new Path();
+            this.path = new Path();
+            this.metadata = new SequencerMetadata(ff, true);
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    @Override
+    public void close() {
+        compressor = Misc.free(compressor);
+        compressPath = Misc.free(compressPath);
+        path = Misc.free(path);
+        metadata = Misc.free(metadata);
+    }
+
+    private void compressColumnFile(int codec) {
+        if (!ff.exists(path.$())) {
+            // column was added after the segment was closed, its files are in the next segment
+            return;
+        }
+        final int len = path.length();
+        compressPath.of(path).put(TMP_SUFFIX).$();
+        compressor.compress(ff, path.$(), compressPath, codec);
+        // readers prefer the compressed file, rename makes sure they never see a partial one
+        if (ff.rename(compressPath, path.put(WAL_COMPRESSED_FILE_SUFFIX).$()) != Files.FILES_RENAME_OK) {
+            throw CairoException.critical(ff.errno()).put("could not rename [from=").put(compressPath).put(", to=").put(path).put(']');
+        }
+        if (!ff.remove(path.trimTo(len).$())) {
+            // WAL purge removes the raw file together with the segment
+            LOG.info().$("could not remove compressed WAL column file [path=").$(path).$(", errno=").$(ff.errno()).I$();
+        }
+    }
+
+    private void compressSegment(TableToken tableToken, int walId, int segmentId) {
+        path.of(configuration.getRoot()).concat(tableToken).concat(WAL_NAME_BASE).put(walId).slash().put(segmentId);
+        final int segmentPathLen = path.length();
+        if (!ff.exists(path.$())) {
+            // purged, or the table is dropped
+            return;
+        }
+
+        lockName(path);
+        final int lockFd = TableUtils.lock(ff, path, false);
+        path.trimTo(segmentPathLen);
+        if (lockFd == -1) {
+            LOG.info().$("WAL segment is locked, left uncompressed [path=").$(path).I$();
+            return;
+        }
+
+        try {
+            metadata.open(path, segmentPathLen, tableToken);
+            final int timestampIndex = metadata.getTimestampIndex();
+            for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                final int type = metadata.getColumnType(i);
+                if (type > 0) {
+                    final CharSequence name = metadata.getColumnName(i);
+                    final int codec;
+                    if (i == timestampIndex) {
+                        codec = ColumnCompressor.CODEC_DELTA_128;
+                    } else if (ColumnType.tagOf(type) == ColumnType.TIMESTAMP || ColumnType.tagOf(type) == ColumnType.DATE) {
+                        codec = ColumnCompressor.CODEC_DELTA;
+                    } else {
+                        codec = ColumnCompressor.CODEC_DEFLATE;
+                    }
+                    dFile(path.trimTo(segmentPathLen), name);
+                    compressColumnFile(codec);
+                    if (ColumnType.isVariableLength(type)) {
+                        iFile(path.trimTo(segmentPathLen), name);
+                        compressColumnFile(ColumnCompressor.CODEC_DELTA);
+                    }
+                }
+            }
+            LOG.info().$("compressed WAL segment [path=").$(path.trimTo(segmentPathLen)).I$();
+        } catch (CairoException e) {
+            // raw files that are left over remain readable
+            LOG.error().$("could not compress WAL segment [path=").$(path.trimTo(segmentPathLen))
+                    .$(", errno=").$(e.getErrno())
+                    .$(", error=").$(e.getFlyweightMessage())
+                    .I$();
+        } finally {
+            ff.close(lockFd);
+        }
+    }
+
+    @Override
+    protected boolean runSerially() {
+        long cursor;
+        // -2 = there was a contest for queue index and this thread has lost
+        while ((cursor = inSubSequence.next()) < -1) {
+            Os.pause();
+        }
+        // -1 = queue is empty, all done
+        if (cursor < 0) {
+            return false;
+        }
+        final WalSegmentCompressTask task = inQueue.get(cursor);
+        final TableToken tableToken = task.getTableToken();
+        final int walId = task.getWalId();
+        final int segmentId = task.getSegmentId();
+        inSubSequence.done(cursor);
+
+        // one segment per run, the rest of the queue waits for the next run
+        compressSegment(tableToken, walId, segmentId);
+        return true;
+    }
+}
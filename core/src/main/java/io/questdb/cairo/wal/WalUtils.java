@@ -52,9 +52,35 @@ public class WalUtils {
     public static final String TXNLOG_FILE_NAME_META_VAR = "_txnlog.meta.d";
     public static final int WALE_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
     public static final long WALE_MAX_TXN_OFFSET_32 = 0L;
+    public static final String WAL_COMPRESSED_FILE_SUFFIX = ".z";
+    // small blocks keep the decompression of a single transaction cheap, deflate window is 32K anyway
+    public static final int WAL_COMPRESSION_BLOCK_SIZE = 64 * 1024;
     public static final int WAL_FORMAT_OFFSET_32 = Integer.BYTES;
     public static final int WAL_FORMAT_VERSION = 0;
     public static final String WAL_INDEX_FILE_NAME = "_wal_index.d";
     public static final String WAL_NAME_BASE = "wal";
     public static final String WAL_PENDING_FS_MARKER = ".pending";
+
+    /**
+     * Validate equivalent of "^wal\d+$" regex.
+     */
+    public static boolean matchesWalNamePattern(CharSequence name) {
+        final int len = name.length();
+        if (len < (WAL_NAME_BASE.length() + 1)) {
+            return false;
+        }
+
+        if (name.charAt(0) != 'w' || name.charAt(1) != 'a' || name.charAt(2) != 'l') {
+            return false;  // Not a "wal" prefix.
+        }
+
+        for (int i = 3; i < len; ++i) {
+            final char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;  // Not a number.
+            }
+        }
+
+        return true;
+    }
 }
@@ -79,6 +79,7 @@ public class WalWriter implements TableWriterAPI {
     private final int rootLen;
     private final RowImpl row = new RowImpl();
     private final LongList rowValueIsNotNull = new LongList();
+    private final boolean segmentCompressionEnabled;
     private final TableSequencerAPI sequencer;
     private final MemoryMAR symbolMapMem;
     private final BoolList symbolMapNullFlags = new BoolList();
@@ -93,6 +94,8 @@ public class WalWriter implements TableWriterAPI {
     private int columnCount;
     private ColumnVersionReader columnVersionReader;
     private long currentTxnStartRowNum = -1;
+    // size of the segment column files when the current transaction started
+    private long currentTxnStartSize;
     private boolean distressed;
     private int lastSegmentTxn = -1;
     private long lastSeqTxn = NO_TXN;
@@ -132,6 +135,7 @@ public class WalWriter implements TableWriterAPI {
         this.metrics = metrics;
         this.open = true;
         this.symbolMapMem = Vm.getMARInstance(configuration.getCommitMode());
+        this.segmentCompressionEnabled = configuration.isWalSegmentCompressionEnabled();
 
         try {
             lockWal();
@@ -258,6 +262,7 @@ public class WalWriter implements TableWriterAPI {
         try {
             if (inTransaction()) {
                 final long rowsToCommit = getUncommittedRowCount();
+                final long bytesToCommit = getColumnsSize() - currentTxnStartSize;
                 lastSegmentTxn = events.appendData(currentTxnStartRowNum, segmentRowCount, txnMinTimestamp, txnMaxTimestamp, txnOutOfOrder);
                 // flush disk before getting next txn
                 final int commitMode = configuration.getCommitMode();
@@ -271,6 +276,7 @@ public class WalWriter implements TableWriterAPI {
                 resetDataTxnProperties();
                 mayRollSegmentOnNextRow();
                 metrics.walMetrics().addRowsWritten(rowsToCommit);
+                sequencer.notifyWalCommitted(tableToken, rowsToCommit, bytesToCommit, configuration.getMicrosecondClock().getTicks());
                 return seqTxn;
             }
         } catch (CairoException ex) {
@@ -298,6 +304,9 @@ public class WalWriter implements TableWriterAPI {
             freeColumns(truncate);
 
             releaseSegmentLock(segmentId, segmentLockFd, segmentRowCount);
+            if (truncate && !distressed) {
+                scheduleSegmentCompression(segmentId, segmentRowCount);
+            }
 
             try {
                 releaseWalLock();
@@ -471,6 +480,7 @@ public class WalWriter implements TableWriterAPI {
             }
             final int oldSegmentLockFd = segmentLockFd;
             segmentLockFd = -1;
+            boolean switched = false;
             try {
                 createSegmentDir(newSegmentId);
                 path.trimTo(rootLen);
@@ -522,8 +532,13 @@ public class WalWriter implements TableWriterAPI {
                 segmentId = newSegmentId;
                 segmentRowCount = uncommittedRows;
                 currentTxnStartRowNum = 0;
+                currentTxnStartSize = 0;
+                switched = true;
             } finally {
                 releaseSegmentLock(oldSegmentId, oldSegmentLockFd, oldSegmentRowCount);
+                if (switched) {
+                    scheduleSegmentCompression(oldSegmentId, oldSegmentRowCount);
+                }
             }
         } else if (segmentRowCount > 0 && uncommittedRows == 0) {
             rollSegmentOnNextRow = true;
@@ -1077,6 +1092,17 @@ public class WalWriter implements TableWriterAPI {
         return metadata.getMetadataVersion();
     }
 
+    private long getColumnsSize() {
+        long size = 0;
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            final MemoryMA column = columns.getQuick(i);
+            if (column != null) {
+                size += column.getAppendOffset();
+            }
+        }
+        return size;
+    }
+
     private MemoryMA getPrimaryColumn(int column) {
         assert column < columnCount : "Column index is out of bounds: " + column + " >= " + columnCount;
         return columns.getQuick(getPrimaryColumnIndex(column));
@@ -1182,8 +1208,10 @@ public class WalWriter implements TableWriterAPI {
         final int oldSegmentLockFd = segmentLockFd;
         segmentLockFd = -1;
         final long oldSegmentRows = segmentRowCount;
+        boolean switched = false;
         try {
             currentTxnStartRowNum = 0;
+            currentTxnStartSize = 0;
             rowValueIsNotNull.fill(0, columnCount, -1);
             final int segmentPathLen = createSegmentDir(newSegmentId);
             segmentId = newSegmentId;
@@ -1225,10 +1253,14 @@ public class WalWriter implements TableWriterAPI {
                 ff.fsyncAndClose(dirFd);
             }
             lastSegmentTxn = 0;
+            switched = true;
             LOG.info().$("opened WAL segment [path='").$(path).$('\'').I$();
         } finally {
             if (oldSegmentLockFd > -1) {
                 releaseSegmentLock(oldSegmentId, oldSegmentLockFd, oldSegmentRows);
+                if (switched) {
+                    scheduleSegmentCompression(oldSegmentId, oldSegmentRows);
+                }
             }
             path.trimTo(rootLen);
         }
@@ -1304,6 +1336,7 @@ public class WalWriter implements TableWriterAPI {
 
     private void resetDataTxnProperties() {
         currentTxnStartRowNum = segmentRowCount;
+        currentTxnStartSize = getColumnsSize();
         txnMinTimestamp = Long.MAX_VALUE;
         txnMaxTimestamp = -1;
         txnOutOfOrder = false;
@@ -1359,6 +1392,18 @@ public class WalWriter implements TableWriterAPI {
         segmentRowCount++;
     }
 
+    private void scheduleSegmentCompression(int segmentId, long segmentRowCount) {
+        if (segmentCompressionEnabled && segmentRowCount > 0) {
+            // compressed in the background, the job locks the segment once the writer has released it
+            if (!sequencer.scheduleSegmentCompression(tableToken, walId, segmentId)) {
+                LOG.info().$("WAL segment compression queue is full, segment is left uncompressed [table=").utf8(tableToken.getTableName())
+                        .$(", walId=").$(walId)
+                        .$(", segmentId=").$(segmentId)
+                        .I$();
+            }
+        }
+    }
+
     private void setAppendPosition(final long segmentRowCount) {
         for (int i = 0; i < columnCount; i++) {
             setColumnSize(i, segmentRowCount);
@@ -24,13 +24,23 @@
 
 package io.questdb.cairo.wal.seq;
 
+import io.questdb.std.Numbers;
 import io.questdb.std.Unsafe;
 import org.jetbrains.annotations.TestOnly;
 
 public class SeqTxnTracker {
+    private static final long LAG_BYTES_OFFSET;
+    private static final long LAG_ROW_COUNT_OFFSET;
+    private static final long OLDEST_UNAPPLIED_TIMESTAMP_OFFSET;
     private static final long SEQ_TXN_OFFSET;
     private static final long SUSPENDED_STATE_OFFSET;
     private static final long WRITER_TXN_OFFSET;
+    // Rows and bytes committed to WAL and not yet applied to the table.
+    // Approximate, the counters start from zero on restart and are reset when the table catches up.
+    private volatile long lagBytes;
+    private volatile long lagRowCount;
+    // commit timestamp of the oldest WAL transaction not yet applied to the table
+    private volatile long oldestUnappliedTimestamp = Numbers.LONG_NaN;
     @SuppressWarnings("FieldMayBeFinal")
     private volatile long seqTxn = -1;
     // -1 suspended
@@ -39,6 +49,25 @@ public class SeqTxnTracker {
     private volatile int suspendedState = 0;
     private volatile long writerTxn = -1;
 
+    public long getLagBytes() {
+        return Math.max(lagBytes, 0);
+    }
+
+    public long getLagRowCount() {
+        return Math.max(lagRowCount, 0);
+    }
+
+    public long getLagTxnCount() {
+        final long wtxn = writerTxn;
+        final long stxn = seqTxn;
+        // writer txn is unknown until the table is checked or applied
+        return wtxn > -1 && stxn > wtxn ? stxn - wtxn : 0;
+    }
+
+    public long getOldestUnappliedTimestamp() {
+        return getLagTxnCount() > 0 ? oldestUnappliedTimestamp : Numbers.LONG_NaN;
+    }
+
     @TestOnly
     public long getSeqTxn() {
         return seqTxn;
@@ -71,12 +100,35 @@ public class SeqTxnTracker {
         return suspendedState < 0;
     }
 
+    public void notifyApplied(long rowCount, long nextCommitTimestamp) {
+        // Called by the apply job after a run, nextCommitTimestamp is the commit timestamp
+        // of the first transaction left in WAL or NaN when the job did not see one
+        if (rowCount > 0) {
+            final long rows = lagRowCount;
+            final long bytes = lagBytes;
+            if (rows > 0) {
+                // WAL bytes are not known at apply time, assume the applied rows are of average size
+                Unsafe.getUnsafe().getAndAddLong(this, LAG_BYTES_OFFSET, -(long) ((double) bytes * Math.min(rowCount, rows) / rows));
+            }
+            Unsafe.getUnsafe().getAndAddLong(this, LAG_ROW_COUNT_OFFSET, -rowCount);
+        }
+        if (nextCommitTimestamp != Numbers.LONG_NaN) {
+            oldestUnappliedTimestamp = nextCommitTimestamp;
+        }
+    }
+
     public boolean notifyCommitReadable(long newWriterTxn) {
         // This is only called under TableWriter lock
         // with no threads race
         writerTxn = newWriterTxn;
         if (newWriterTxn > -1) {
             suspendedState = 1;
+            if (newWriterTxn >= seqTxn) {
+                // table caught up, nothing left to apply
+                lagRowCount = 0;
+                lagBytes = 0;
+                oldestUnappliedTimestamp = Numbers.LONG_NaN;
+            }
         }
         return newWriterTxn < seqTxn;
     }
@@ -106,6 +158,13 @@ public class SeqTxnTracker {
         return (stxn == -1 || writerTxn == (newSeqTxn - 1)) && suspendedState >= 0;
     }
 
+    public void notifyWalCommitted(long rowCount, long bytes, long commitTimestamp) {
+        Unsafe.getUnsafe().getAndAddLong(this, LAG_ROW_COUNT_OFFSET, rowCount);
+        Unsafe.getUnsafe().getAndAddLong(this, LAG_BYTES_OFFSET, bytes);
+        // keeps the timestamp of the earlier commit when there is one
+        Unsafe.cas(this, OLDEST_UNAPPLIED_TIMESTAMP_OFFSET, Numbers.LONG_NaN, commitTimestamp);
+    }
+
     public void setSuspended() {
         this.suspendedState = -1;
     }
@@ -115,6 +174,9 @@ public class SeqTxnTracker {
     }
 
     static {
+        LAG_BYTES_OFFSET = Unsafe.getFieldOffset(SeqTxnTracker.class, "lagBytes");
+        LAG_ROW_COUNT_OFFSET = Unsafe.getFieldOffset(SeqTxnTracker.class, "lagRowCount");
+        OLDEST_UNAPPLIED_TIMESTAMP_OFFSET = Unsafe.getFieldOffset(SeqTxnTracker.class, "oldestUnappliedTimestamp");
         SEQ_TXN_OFFSET = Unsafe.getFieldOffset(SeqTxnTracker.class, "seqTxn");
         WRITER_TXN_OFFSET = Unsafe.getFieldOffset(SeqTxnTracker.class, "writerTxn");
         SUSPENDED_STATE_OFFSET = Unsafe.getFieldOffset(SeqTxnTracker.class, "suspendedState");
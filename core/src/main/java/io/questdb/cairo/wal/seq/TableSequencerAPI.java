@@ -24,20 +24,25 @@
 
 package io.questdb.cairo.wal.seq;
 
+import io.questdb.MessageBus;
 import io.questdb.cairo.*;
 import io.questdb.cairo.pool.ex.PoolClosedException;
 import io.questdb.griffin.engine.ops.AlterOperation;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.MPSequence;
+import io.questdb.std.Chars;
 import io.questdb.std.ConcurrentHashMap;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.ObjHashSet;
+import io.questdb.std.Os;
 import io.questdb.std.QuietCloseable;
 import io.questdb.std.str.Path;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.TestOnly;
 
 import java.util.Iterator;
+import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -67,12 +72,34 @@ public class TableSequencerAPI implements QuietCloseable {
         this.createTxnTracker = dir -> new SeqTxnTracker();
     }
 
+    public static CairoException applyLagExceeded(TableToken tableToken, long txnLag, long maxTxnLag) {
+        return CairoException.nonCritical().put("WAL apply lag is above backpressure threshold, retry later [table=").put(tableToken.getTableName())
+                .put(", txnLag=").put(txnLag)
+                .put(", maxTxnLag=").put(maxTxnLag)
+                .put(']');
+    }
+
     @Override
     public void close() {
         closed = true;
         releaseAll();
     }
 
+    /**
+     * Rejects the write when the number of WAL transactions not yet applied to the table is above
+     * cairo.wal.backpressure.txn.lag. The check does not wait for the lag to go down, it is called
+     * on network threads, and the client is expected to retry the write later on.
+     */
+    public void checkApplyLag(final TableToken tableToken) {
+        final long maxTxnLag = configuration.getWalBackpressureTxnLag();
+        if (maxTxnLag > 0) {
+            final long txnLag = getApplyLagTxnCount(tableToken);
+            if (txnLag > maxTxnLag) {
+                throw applyLagExceeded(tableToken, txnLag, maxTxnLag);
+            }
+        }
+    }
+
     @TestOnly
     public void closeSequencer(TableToken tableToken) {
         try (TableSequencerImpl sequencer = openSequencerLocked(tableToken, SequencerLockType.WRITE)) {
@@ -171,6 +198,21 @@ public class TableSequencerAPI implements QuietCloseable {
         }
     }
 
+    public void forAllTxnTrackers(TxnTrackerCallback callback) {
+        for (Map.Entry<CharSequence, SeqTxnTracker> entry : seqTxnTrackers.entrySet()) {
+            final TableToken tableToken = engine.getTableTokenByDirName(Chars.toString(entry.getKey()));
+            if (tableToken != null && !engine.isTableDropped(tableToken)) {
+                callback.onTable(tableToken, entry.getValue());
+            }
+        }
+    }
+
+    public long getApplyLagTxnCount(final TableToken tableToken) {
+        // does not create a tracker for non-WAL tables
+        final SeqTxnTracker seqTxnTracker = seqTxnTrackers.get(tableToken.getDirName());
+        return seqTxnTracker != null ? seqTxnTracker.getLagTxnCount() : 0;
+    }
+
     public @NotNull TransactionLogCursor getCursor(final TableToken tableToken, long seqTxn) {
         try (TableSequencerImpl tableSequencer = openSequencerLocked(tableToken, SequencerLockType.READ)) {
             TransactionLogCursor cursor;
@@ -276,6 +318,10 @@ public class TableSequencerAPI implements QuietCloseable {
         }
     }
 
+    public void notifyApplied(final TableToken tableToken, long rowCount, long nextCommitTimestamp) {
+        getSeqTxnTracker(tableToken).notifyApplied(rowCount, nextCommitTimestamp);
+    }
+
     public boolean notifyCommitReadable(final TableToken tableToken, long writerTxn) {
         return getSeqTxnTracker(tableToken).notifyCommitReadable(writerTxn);
     }
@@ -290,6 +336,10 @@ public class TableSequencerAPI implements QuietCloseable {
         engine.getWalListener().segmentClosed(tableToken, txn, walId, segmentId);
     }
 
+    public void notifyWalCommitted(final TableToken tableToken, long rowCount, long bytes, long commitTimestamp) {
+        getSeqTxnTracker(tableToken).notifyWalCommitted(rowCount, bytes, commitTimestamp);
+    }
+
     @TestOnly
     public void openSequencer(TableToken tableToken) {
         try (TableSequencerImpl sequencer = openSequencerLocked(tableToken, SequencerLockType.WRITE)) {
@@ -383,6 +433,22 @@ public class TableSequencerAPI implements QuietCloseable {
         }
     }
 
+    public boolean scheduleSegmentCompression(TableToken tableToken, int walId, int segmentId) {
+        final MessageBus messageBus = engine.getMessageBus();
+        final MPSequence seq = messageBus.getWalSegmentCompressPubSeq();
+        while (true) {
+            long cursor = seq.next();
+            if (cursor > -1) {
+                messageBus.getWalSegmentCompressQueue().get(cursor).of(tableToken, walId, segmentId);
+                seq.done(cursor);
+                return true;
+            } else if (cursor == -1) {
+                return false;
+            }
+            Os.pause();
+        }
+    }
+
     @TestOnly
     public void setDistressed(TableToken tableToken) {
         try (TableSequencerImpl sequencer = openSequencerLocked(tableToken, SequencerLockType.WRITE)) {
@@ -499,6 +565,11 @@ public class TableSequencerAPI implements QuietCloseable {
         void onTable(int tableId, final TableToken tableName, long lastTxn);
     }
 
+    @FunctionalInterface
+    public interface TxnTrackerCallback {
+        void onTable(TableToken tableToken, SeqTxnTracker seqTxnTracker);
+    }
+
     private static class TableSequencerEntry extends TableSequencerImpl {
         private final TableSequencerAPI pool;
         private volatile long releaseTime = Long.MAX_VALUE;
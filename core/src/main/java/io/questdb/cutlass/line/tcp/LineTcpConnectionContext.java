@@ -70,6 +70,8 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
     private long lastQueueFullLogMillis = 0;
     private long nextCheckIdleTime;
     private long nextCommitTime;
+    // time until which the connection is held back by WAL apply lag of a table
+    private long walBackpressureDeadline = Long.MAX_VALUE;
 
     public LineTcpConnectionContext(LineTcpReceiverConfiguration configuration, LineTcpMeasurementScheduler scheduler, Metrics metrics) {
         super(
@@ -113,6 +115,7 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
         authenticator.clear();
         recvBufStart = recvBufEnd = recvBufPos = Unsafe.free(recvBufStart, recvBufEnd - recvBufStart, MemoryTag.NATIVE_ILP_RSS);
         peerDisconnected = false;
+        walBackpressureDeadline = Long.MAX_VALUE;
         resetParser();
         ObjList<ByteCharSequence> keys = tableUpdateDetailsUtf8.keys();
         for (int n = keys.size() - 1; n >= 0; --n) {
@@ -178,6 +181,10 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
         return tableUpdateDetailsUtf8.get(tableName);
     }
 
+    public long getWalBackpressureDeadline() {
+        return walBackpressureDeadline;
+    }
+
     public IOContextResult handleIO(NetworkIOJob netIoJob) {
         if (authenticator.isAuthenticated()) {
             read();
@@ -222,6 +229,10 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
         return this;
     }
 
+    public void setWalBackpressureDeadline(long walBackpressureDeadline) {
+        this.walBackpressureDeadline = walBackpressureDeadline;
+    }
+
     private boolean checkQueueFullLogHysteresis() {
         long millis = milliClock.getTicks();
         if ((millis - lastQueueFullLogMillis) >= QUEUE_FULL_LOG_HYSTERESIS_IN_MS) {
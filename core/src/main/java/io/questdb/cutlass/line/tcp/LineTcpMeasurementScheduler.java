@@ -31,6 +31,7 @@ import io.questdb.cairo.*;
 import io.questdb.cairo.sql.TableRecordMetadata;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryMARW;
+import io.questdb.cairo.wal.seq.TableSequencerAPI;
 import io.questdb.cutlass.line.LineTcpTimestampAdapter;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
@@ -298,6 +299,11 @@ public class LineTcpMeasurementScheduler implements Closeable {
         }
 
         if (tud.isWal()) {
+            if (isWalApplyLagged(ctx, tud)) {
+                // Hold the connection back, the measurement is scheduled again
+                // once the network job gets back to the busy context
+                return true;
+            }
             try {
                 while (true) {
                     try {
@@ -795,6 +801,28 @@ public class LineTcpMeasurementScheduler implements Closeable {
         return null != pubSeq;
     }
 
+    private boolean isWalApplyLagged(LineTcpConnectionContext ctx, TableUpdateDetails tud) {
+        final long maxTxnLag = cairoConfiguration.getWalBackpressureTxnLag();
+        if (maxTxnLag > 0) {
+            final long txnLag = engine.getTableSequencerAPI().getApplyLagTxnCount(tud.getTableToken());
+            if (txnLag > maxTxnLag) {
+                final long now = cairoConfiguration.getMillisecondClock().getTicks();
+                long deadline = ctx.getWalBackpressureDeadline();
+                if (deadline == Long.MAX_VALUE) {
+                    deadline = now + cairoConfiguration.getWalBackpressureDelay();
+                    ctx.setWalBackpressureDeadline(deadline);
+                }
+                if (now < deadline) {
+                    return true;
+                }
+                ctx.setWalBackpressureDeadline(Long.MAX_VALUE);
+                throw TableSequencerAPI.applyLagExceeded(tud.getTableToken(), txnLag, maxTxnLag);
+            }
+        }
+        ctx.setWalBackpressureDeadline(Long.MAX_VALUE);
+        return false;
+    }
+
     @NotNull
     private TableUpdateDetails unsafeAssignTableToWriterThread(
             int tudKeyIndex,
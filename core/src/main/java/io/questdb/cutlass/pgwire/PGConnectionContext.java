@@ -434,6 +434,8 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         if (index < 0) {
             return pendingWriters.valueAt(index);
         }
+        // rejects the insert while WAL apply of the table is behind, network thread must not wait for it
+        engine.getTableSequencerAPI().checkApplyLag(tableToken);
         return engine.getTableWriterAPI(tableToken, lockReason);
     }
 
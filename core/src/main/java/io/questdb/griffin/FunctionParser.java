@@ -28,6 +28,7 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.ImplicitCastException;
 import io.questdb.cairo.sql.*;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
 import io.questdb.griffin.engine.functions.AbstractUnaryTimestampFunction;
 import io.questdb.griffin.engine.functions.CursorFunction;
 import io.questdb.griffin.engine.functions.GroupByFunction;
@@ -517,14 +518,26 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         assert node.queryModel != null;
         // Disable async offload for in (select ...) sub-queries to avoid infinite loops
         // due to nested reduce calls. See SqlCodeGenerator#testBug484() for the reproducer.
+        boolean currentAsOfJoinEnabled = sqlExecutionContext.isParallelAsOfJoinEnabled();
         boolean currentFilterEnabled = sqlExecutionContext.isParallelFilterEnabled();
+        boolean currentGroupByEnabled = sqlExecutionContext.isParallelGroupByEnabled();
+        boolean currentHashJoinEnabled = sqlExecutionContext.isParallelHashJoinEnabled();
+        boolean currentSortEnabled = sqlExecutionContext.isParallelSortEnabled();
+        sqlExecutionContext.setParallelAsOfJoinEnabled(false);
         sqlExecutionContext.setParallelFilterEnabled(false);
+        sqlExecutionContext.setParallelGroupByEnabled(false);
+        sqlExecutionContext.setParallelHashJoinEnabled(false);
+        sqlExecutionContext.setParallelSortEnabled(false);
         // Make sure to override timestamp required flag from base query.
         sqlExecutionContext.pushTimestampRequiredFlag(false);
         try {
             return new CursorFunction(sqlCodeGenerator.generate(node.queryModel, sqlExecutionContext));
         } finally {
+            sqlExecutionContext.setParallelAsOfJoinEnabled(currentAsOfJoinEnabled);
             sqlExecutionContext.setParallelFilterEnabled(currentFilterEnabled);
+            sqlExecutionContext.setParallelGroupByEnabled(currentGroupByEnabled);
+            sqlExecutionContext.setParallelHashJoinEnabled(currentHashJoinEnabled);
+            sqlExecutionContext.setParallelSortEnabled(currentSortEnabled);
             sqlExecutionContext.popTimestampRequiredFlag();
         }
     }
@@ -557,9 +570,37 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
             }
         }
 
+        // Aggregate functions, such as avg(), exist both as group-by and as window
+        // functions. When the name is overloaded this way, OVER clause decides.
+        final AnalyticContext analyticContext = sqlExecutionContext.getAnalyticContext();
+        final boolean isAnalyticContext = analyticContext != null && !analyticContext.isEmpty();
+        boolean filterByWindow = false;
+        int windowMaxArgCount = -1;
+        for (int i = 0, n = overload.size(); i < n; i++) {
+            final FunctionFactoryDescriptor descriptor = overload.getQuick(i);
+            if (descriptor.getFactory().isWindow() == isAnalyticContext) {
+                filterByWindow = true;
+                if (isAnalyticContext) {
+                    final int sigArgCount = descriptor.getSigArgCount();
+                    if (sigArgCount > 0 && FunctionFactoryDescriptor.toType(descriptor.getArgTypeMask(sigArgCount - 1)) == ColumnType.VAR_ARG) {
+                        windowMaxArgCount = Integer.MAX_VALUE;
+                    } else {
+                        windowMaxArgCount = Math.max(windowMaxArgCount, sigArgCount);
+                    }
+                }
+            }
+        }
+
+        if (isAnalyticContext && filterByWindow && argCount > windowMaxArgCount) {
+            throw SqlException.$(node.position, "too many arguments");
+        }
+
         for (int i = 0, n = overload.size(); i < n; i++) {
             final FunctionFactoryDescriptor descriptor = overload.getQuick(i);
             final FunctionFactory factory = descriptor.getFactory();
+            if (filterByWindow && factory.isWindow() != isAnalyticContext) {
+                continue;
+            }
             int sigArgCount = descriptor.getSigArgCount();
 
             final boolean sigVarArg;
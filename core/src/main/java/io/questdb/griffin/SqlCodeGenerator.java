@@ -35,6 +35,7 @@ import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCARW;
 import io.questdb.griffin.engine.*;
 import io.questdb.griffin.engine.analytic.AnalyticFunction;
+import io.questdb.griffin.engine.analytic.AnalyticRecordCursorFactory;
 import io.questdb.griffin.engine.analytic.CachedAnalyticRecordCursorFactory;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.SymbolFunction;
@@ -43,10 +44,12 @@ import io.questdb.griffin.engine.functions.bind.NamedParameterLinkFunction;
 import io.questdb.griffin.engine.functions.cast.*;
 import io.questdb.griffin.engine.functions.columns.*;
 import io.questdb.griffin.engine.functions.constants.*;
+import io.questdb.griffin.engine.functions.math.DoubleExpressionFactory;
 import io.questdb.griffin.engine.groupby.*;
 import io.questdb.griffin.engine.groupby.vect.GroupByRecordCursorFactory;
 import io.questdb.griffin.engine.groupby.vect.*;
 import io.questdb.griffin.engine.join.*;
+import io.questdb.griffin.engine.orderby.AsyncSortedLightRecordCursorFactory;
 import io.questdb.griffin.engine.orderby.LimitedSizeSortedLightRecordCursorFactory;
 import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
 import io.questdb.griffin.engine.orderby.SortedLightRecordCursorFactory;
@@ -60,6 +63,7 @@ import io.questdb.jit.JitUtil;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.Timestamps;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -121,6 +125,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     private final ArrayDeque<ExpressionNode> sqlNodeStack = new ArrayDeque<>();
     private final WhereClauseSymbolEstimator symbolEstimator = new WhereClauseSymbolEstimator();
     private final IntList tempAggIndex = new IntList();
+    private final IntList tempGroupByFunctionPositions = new IntList();
     private final IntList tempKeyIndex = new IntList();
     private final IntList tempKeyIndexesInBase = new IntList();
     private final IntList tempKeyKinds = new IntList();
@@ -478,12 +483,28 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             RecordCursorFactory slave,
             RecordSink slaveKeySink,
             int columnSplit,
-            JoinContext joinContext
+            JoinContext joinContext,
+            SqlExecutionContext executionContext
     ) {
         valueTypes.clear();
         valueTypes.add(ColumnType.LONG);
         valueTypes.add(ColumnType.LONG);
 
+        final RecordCursorFactory parallelFactory = generateParallelAsOfJoin(
+                metadata,
+                master,
+                masterKeySink,
+                slave,
+                slaveKeySink,
+                columnSplit,
+                joinContext,
+                false,
+                executionContext
+        );
+        if (parallelFactory != null) {
+            return parallelFactory;
+        }
+
         return new AsOfJoinLightRecordCursorFactory(
                 configuration,
                 metadata,
@@ -634,7 +655,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             RecordCursorFactory slave,
             int joinType,
             Function filter,
-            JoinContext context
+            JoinContext context,
+            SqlExecutionContext executionContext
     ) {
         /*
          * JoinContext provides the following information:
@@ -669,6 +691,21 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         valueTypes.add(ColumnType.LONG); // record count for the key
 
         if (slave.recordCursorSupportsRandomAccess() && !fullFatJoins) {
+            final RecordCursorFactory parallelFactory = generateParallelHashJoin(
+                    metadata,
+                    master,
+                    slave,
+                    joinType,
+                    filter,
+                    context,
+                    masterKeySink,
+                    slaveKeySink,
+                    executionContext
+            );
+            if (parallelFactory != null) {
+                return parallelFactory;
+            }
+
             if (joinType == JOIN_INNER) {
                 return new HashJoinLightRecordCursorFactory(
                         configuration,
@@ -816,12 +853,28 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             RecordCursorFactory slave,
             RecordSink slaveKeySink,
             int columnSplit,
-            JoinContext joinContext
+            JoinContext joinContext,
+            SqlExecutionContext executionContext
     ) {
         valueTypes.clear();
         valueTypes.add(ColumnType.LONG);
         valueTypes.add(ColumnType.LONG);
 
+        final RecordCursorFactory parallelFactory = generateParallelAsOfJoin(
+                metadata,
+                master,
+                masterKeySink,
+                slave,
+                slaveKeySink,
+                columnSplit,
+                joinContext,
+                true,
+                executionContext
+        );
+        if (parallelFactory != null) {
+            return parallelFactory;
+        }
+
         return new LtJoinLightRecordCursorFactory(
                 configuration,
                 metadata,
@@ -865,6 +918,66 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         );
     }
 
+    private long evaluateAnalyticFrameBound(
+            ExpressionNode expr,
+            char timeUnit,
+            int kind,
+            int framingMode,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        if (kind == AnalyticColumn.CURRENT) {
+            return 0;
+        }
+        if (expr == null) {
+            // UNBOUNDED
+            return kind == AnalyticColumn.PRECEDING ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+
+        final long value;
+        final Function f = functionParser.parseFunction(expr, EmptyRecordMetadata.INSTANCE, executionContext);
+        try {
+            final int tag = ColumnType.tagOf(f.getType());
+            if (!f.isConstant() || (tag != ColumnType.BYTE && tag != ColumnType.SHORT && tag != ColumnType.INT && tag != ColumnType.LONG)) {
+                throw SqlException.$(expr.position, "non-negative integer constant expected");
+            }
+            value = f.getLong(null);
+        } finally {
+            Misc.free(f);
+        }
+        if (value < 0) {
+            throw SqlException.$(expr.position, "non-negative integer constant expected");
+        }
+
+        long multiplier = 1;
+        if (framingMode == AnalyticColumn.FRAMING_RANGE) {
+            switch (timeUnit) {
+                case 'T':
+                    multiplier = Timestamps.MILLI_MICROS;
+                    break;
+                case 's':
+                    multiplier = Timestamps.SECOND_MICROS;
+                    break;
+                case 'm':
+                    multiplier = Timestamps.MINUTE_MICROS;
+                    break;
+                case 'h':
+                    multiplier = Timestamps.HOUR_MICROS;
+                    break;
+                case 'd':
+                    multiplier = Timestamps.DAY_MICROS;
+                    break;
+                default:
+                    // microseconds
+                    break;
+            }
+        }
+        // Long.MIN_VALUE and Long.MAX_VALUE are reserved for UNBOUNDED
+        if (value > (Long.MAX_VALUE - 1) / multiplier) {
+            throw SqlException.$(expr.position, "frame offset is too large");
+        }
+        return kind == AnalyticColumn.PRECEDING ? -value * multiplier : value * multiplier;
+    }
+
     private ObjList<Function> generateCastFunctions(
             RecordMetadata castToMetadata,
             RecordMetadata castFromMetadata,
@@ -1388,6 +1501,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         final boolean enableParallelFilter = executionContext.isParallelFilterEnabled();
         final boolean preTouchColumns = configuration.isSqlParallelFilterPreTouchEnabled();
         if (enableParallelFilter && factory.supportPageFrameCursor()) {
+            final ZoneMapFilter zoneMapFilter = configuration.isZoneMapEnabled()
+                    ? ZoneMapFilter.of(filterExpr, factory.getMetadata())
+                    : null;
             final boolean useJit = executionContext.getJitMode() != SqlJitMode.JIT_MODE_DISABLED
                     && (!model.isUpdate() || executionContext.isWalApplication());
             final boolean canCompile = factory.supportPageFrameCursor() && JitUtil.isJitSupported();
@@ -1429,7 +1545,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                             limitLoFunction,
                             limitLoPos,
                             preTouchColumns,
-                            executionContext.getSharedWorkerCount()
+                            executionContext.getSharedWorkerCount(),
+                            AsyncFilterUtils.collectFilterColumnIndexes(filterExpr, factory.getMetadata()),
+                            zoneMapFilter
                     );
                 } catch (SqlException | LimitOverflowException ex) {
                     Misc.free(jitFilter);
@@ -1448,6 +1566,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             try {
                 limitLoFunction = getLimitLoFunctionOnly(model, executionContext);
             } catch (Throwable e) {
+                Misc.free(zoneMapFilter);
                 Misc.free(filter);
                 Misc.free(factory);
                 throw e;
@@ -1469,7 +1588,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     limitLoFunction,
                     limitLoPos,
                     preTouchColumns,
-                    executionContext.getSharedWorkerCount()
+                    executionContext.getSharedWorkerCount(),
+                    AsyncFilterUtils.collectFilterColumnIndexes(filterExpr, factory.getMetadata()),
+                    zoneMapFilter
             );
         }
         return new FilteredRecordCursorFactory(factory, filter);
@@ -1632,7 +1753,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                                         true
                                                 ),
                                                 masterMetadata.getColumnCount(),
-                                                slaveModel.getContext()
+                                                slaveModel.getContext(),
+                                                executionContext
                                         );
                                     } else {
                                         master = new AsOfJoinNoKeyRecordCursorFactory(
@@ -1683,7 +1805,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                                         true
                                                 ),
                                                 masterMetadata.getColumnCount(),
-                                                slaveModel.getContext()
+                                                slaveModel.getContext(),
+                                                executionContext
                                         );
                                     } else {
                                         master = new LtJoinNoKeyRecordCursorFactory(
@@ -1773,7 +1896,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                         slave,
                                         joinType,
                                         filter,
-                                        slaveModel.getContext()
+                                        slaveModel.getContext(),
+                                        executionContext
                                 );
                                 masterAlias = null;
                                 break;
@@ -1815,7 +1939,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                 null,
                                 0,
                                 false,
-                                executionContext.getSharedWorkerCount()
+                                executionContext.getSharedWorkerCount(),
+                                AsyncFilterUtils.collectFilterColumnIndexes(filterExpr, master.getMetadata()),
+                                null
                         );
                     } else {
                         master = new FilteredRecordCursorFactory(
@@ -2305,6 +2431,10 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                 listColumnFilterA.copy()
                         );
                     } else {
+                        final RecordCursorFactory parallelSortFactory = generateParallelOrderBy(recordCursorFactory, orderedMetadata, executionContext);
+                        if (parallelSortFactory != null) {
+                            return parallelSortFactory;
+                        }
                         return new SortedLightRecordCursorFactory(
                                 configuration,
                                 orderedMetadata,
@@ -2341,6 +2471,185 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    /**
+     * Returns parallel light ASOF or LT join factory when both join sides support page frames,
+     * or null otherwise. Expects valueTypes to hold the map value types.
+     */
+    @Nullable
+    private RecordCursorFactory generateParallelAsOfJoin(
+            RecordMetadata metadata,
+            RecordCursorFactory master,
+            RecordSink masterKeySink,
+            RecordCursorFactory slave,
+            RecordSink slaveKeySink,
+            int columnSplit,
+            JoinContext joinContext,
+            boolean strict,
+            SqlExecutionContext executionContext
+    ) {
+        final int workerCount = executionContext.getSharedWorkerCount();
+        if (
+                !executionContext.isParallelAsOfJoinEnabled()
+                        || workerCount == 0
+                        || !master.supportPageFrameCursor()
+                        || !slave.supportPageFrameCursor()
+                        || master.getScanDirection() != RecordCursorFactory.SCAN_DIRECTION_FORWARD
+                        || slave.getScanDirection() != RecordCursorFactory.SCAN_DIRECTION_FORWARD
+        ) {
+            return null;
+        }
+
+        return new AsyncAsOfJoinLightRecordCursorFactory(
+                configuration,
+                executionContext.getMessageBus(),
+                metadata,
+                master,
+                slave,
+                keyTypes,
+                valueTypes,
+                masterKeySink,
+                slaveKeySink,
+                columnSplit,
+                joinContext,
+                strict,
+                reduceTaskFactory,
+                workerCount
+        );
+    }
+
+    /**
+     * Returns parallel light hash join factory when the join type and the master factory allow it,
+     * or null otherwise. Outer joins with a join filter are left to the serial factory.
+     */
+    @Nullable
+    private RecordCursorFactory generateParallelHashJoin(
+            RecordMetadata metadata,
+            RecordCursorFactory master,
+            RecordCursorFactory slave,
+            int joinType,
+            Function filter,
+            JoinContext context,
+            RecordSink masterKeySink,
+            RecordSink slaveKeySink,
+            SqlExecutionContext executionContext
+    ) {
+        final int workerCount = executionContext.getSharedWorkerCount();
+        if (
+                !executionContext.isParallelHashJoinEnabled()
+                        || workerCount == 0
+                        || (joinType != JOIN_INNER && filter != null)
+                        || master.getScanDirection() != RecordCursorFactory.SCAN_DIRECTION_FORWARD
+                        || !Chars.equalsLowerCaseAscii(configuration.getDefaultMapType(), "fast")
+        ) {
+            return null;
+        }
+
+        final boolean stealFilter = master.supportsFilterStealing()
+                && master.getBaseFactory().supportPageFrameCursor();
+        if (!stealFilter && !master.supportPageFrameCursor()) {
+            return null;
+        }
+
+        CompiledFilter compiledFilter = null;
+        MemoryCARW bindVarMemory = null;
+        ObjList<Function> bindVarFunctions = null;
+        Function masterFilter = null;
+        ObjList<Function> perWorkerFilters = null;
+        if (stealFilter) {
+            // take over the master filter, so that rows are filtered and probed in a single pass
+            compiledFilter = master.getCompiledFilter();
+            bindVarMemory = master.getBindVarMemory();
+            bindVarFunctions = master.getBindVarFunctions();
+            masterFilter = master.getFilter();
+            perWorkerFilters = master.getPerWorkerFilters();
+            final RecordCursorFactory filterFactory = master;
+            master = master.getBaseFactory();
+            filterFactory.halfClose();
+        }
+
+        return new AsyncHashJoinLightRecordCursorFactory(
+                configuration,
+                executionContext.getMessageBus(),
+                metadata,
+                master,
+                slave,
+                keyTypes,
+                valueTypes,
+                masterKeySink,
+                slaveKeySink,
+                master.getMetadata().getColumnCount(),
+                joinType == JOIN_INNER ? null : NullRecordFactory.getInstance(slave.getMetadata()),
+                context,
+                compiledFilter,
+                bindVarMemory,
+                bindVarFunctions,
+                masterFilter,
+                reduceTaskFactory,
+                perWorkerFilters,
+                workerCount
+        );
+    }
+
+    /**
+     * Returns parallel ORDER BY factory when the sort key and the base factory allow it, or null otherwise.
+     * Expects listColumnFilterA to hold the sort columns.
+     */
+    @Nullable
+    private RecordCursorFactory generateParallelOrderBy(
+            RecordCursorFactory factory,
+            RecordMetadata orderedMetadata,
+            SqlExecutionContext executionContext
+    ) {
+        final int workerCount = executionContext.getSharedWorkerCount();
+        if (
+                !executionContext.isParallelSortEnabled()
+                        || workerCount == 0
+                        || listColumnFilterA.size() != 1
+                        || factory.getScanDirection() != RecordCursorFactory.SCAN_DIRECTION_FORWARD
+                        || !AsyncSortedLightRecordCursorFactory.isSortKeySupported(factory.getMetadata().getColumnType(listColumnFilterA.getColumnIndexFactored(0)))
+        ) {
+            return null;
+        }
+
+        final boolean stealFilter = factory.supportsFilterStealing()
+                && factory.getBaseFactory().supportPageFrameCursor();
+        if (!stealFilter && !factory.supportPageFrameCursor()) {
+            return null;
+        }
+
+        CompiledFilter compiledFilter = null;
+        MemoryCARW bindVarMemory = null;
+        ObjList<Function> bindVarFunctions = null;
+        Function filter = null;
+        ObjList<Function> perWorkerFilters = null;
+        if (stealFilter) {
+            // take over the filter, so that rows are filtered and sorted in a single pass
+            compiledFilter = factory.getCompiledFilter();
+            bindVarMemory = factory.getBindVarMemory();
+            bindVarFunctions = factory.getBindVarFunctions();
+            filter = factory.getFilter();
+            perWorkerFilters = factory.getPerWorkerFilters();
+            final RecordCursorFactory filterFactory = factory;
+            factory = factory.getBaseFactory();
+            filterFactory.halfClose();
+        }
+
+        return new AsyncSortedLightRecordCursorFactory(
+                configuration,
+                executionContext.getMessageBus(),
+                orderedMetadata,
+                factory,
+                listColumnFilterA.copy(),
+                compiledFilter,
+                bindVarMemory,
+                bindVarFunctions,
+                filter,
+                reduceTaskFactory,
+                perWorkerFilters,
+                workerCount
+        );
+    }
+
     private RecordCursorFactory generateQuery(QueryModel model, SqlExecutionContext executionContext, boolean processJoins) throws SqlException {
         RecordCursorFactory factory = generateQuery0(model, executionContext, processJoins);
         if (model.getUnionModel() != null) {
@@ -2468,56 +2777,15 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             valueTypes.clear();
             listColumnFilterA.clear();
 
-            if (fillCount == 1 && Chars.equalsLowerCaseAscii(sampleByFill.getQuick(0).token, "linear")) {
-
-                final int columnCount = metadata.getColumnCount();
-                final ObjList<GroupByFunction> groupByFunctions = new ObjList<>(columnCount);
-                final ObjList<Function> recordFunctions = new ObjList<>(columnCount);
-
-                valueTypes.add(ColumnType.BYTE); // gap flag
-
-                GroupByUtils.prepareGroupByFunctions(
-                        model,
-                        metadata,
-                        functionParser,
-                        executionContext,
-                        groupByFunctions,
-                        groupByFunctionPositions,
-                        valueTypes
-                );
-
-                final GenericRecordMetadata groupByMetadata = new GenericRecordMetadata();
-                GroupByUtils.prepareGroupByRecordFunctions(
-                        model,
-                        metadata,
-                        listColumnFilterA,
-                        groupByFunctions,
-                        groupByFunctionPositions,
-                        recordFunctions,
-                        recordFunctionPositions,
-                        groupByMetadata,
-                        keyTypes,
-                        valueTypes.getColumnCount(),
-                        false,
-                        timestampIndex
-                );
-
-                return new SampleByInterpolateRecordCursorFactory(
-                        asm,
-                        configuration,
-                        factory,
-                        groupByMetadata,
-                        groupByFunctions,
-                        recordFunctions,
-                        timestampSampler,
-                        model,
-                        listColumnFilterA,
-                        keyTypes,
-                        valueTypes,
-                        entityColumnFilter,
-                        groupByFunctionPositions,
-                        timestampIndex
-                );
+            final boolean isLinearFill = fillCount == 1 && isLinearKeyword(sampleByFill.getQuick(0).token);
+            final int workerCount = executionContext.getSharedWorkerCount();
+            final boolean parallelSampleByCandidate = executionContext.isParallelGroupByEnabled()
+                    && workerCount > 0
+                    // interval boundaries have to be calculated for each row independently
+                    && timezoneName == null
+                    && timestampSampler instanceof MicroTimestampSampler;
+            if (isLinearFill && !parallelSampleByCandidate) {
+                return generateSampleByLinearFill(model, executionContext, factory, timestampSampler, timestampIndex);
             }
 
             final int columnCount = model.getColumns().size();
@@ -2578,6 +2846,106 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 }
             }
 
+            final boolean keyed = keyTypes.getColumnCount() > 0;
+            if (
+                    parallelSampleByCandidate
+                            // FILL(LINEAR) is always aligned to the first observation
+                            && (isLinearFill || offset == null || offsetFunc.isConstant())
+                            && (!keyed || Chars.equalsLowerCaseAscii(configuration.getDefaultMapType(), "fast"))
+                            && GroupByUtils.isParallelismSupported(groupByFunctions)
+                            && (isFillNone || AsyncSampleByRecordCursorFactory.isFillSupported(groupByFunctions, sampleByFill))
+            ) {
+                // alignment to the first observation requires the first row to be known before the dispatch,
+                // so we don't steal the filter in this case
+                final boolean stealFilter = !isLinearFill
+                        && offset != null
+                        && factory.supportsFilterStealing()
+                        && factory.getBaseFactory().supportPageFrameCursor();
+                if (stealFilter || factory.supportPageFrameCursor()) {
+                    final ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions = new ObjList<>(workerCount);
+                    final ObjList<Function> placeholderFunctions;
+                    try {
+                        placeholderFunctions = isFillNone || isLinearFill ? null : AsyncSampleByRecordCursorFactory.createPlaceholderFunctions(
+                                groupByFunctions,
+                                recordFunctions,
+                                recordFunctionPositions,
+                                sampleByFill
+                        );
+                        for (int i = 0; i < workerCount; i++) {
+                            final ObjList<GroupByFunction> workerGroupByFunctions = new ObjList<>(groupByFunctions.size());
+                            perWorkerGroupByFunctions.extendAndSet(i, workerGroupByFunctions);
+                            arrayColumnTypes.clear();
+                            arrayColumnTypes.add(ColumnType.TIMESTAMP); // same value layout as the owner's functions
+                            GroupByUtils.prepareGroupByFunctions(
+                                    model,
+                                    metadata,
+                                    functionParser,
+                                    executionContext,
+                                    workerGroupByFunctions,
+                                    tempGroupByFunctionPositions,
+                                    arrayColumnTypes
+                            );
+                        }
+                    } catch (Throwable e) {
+                        for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+                            Misc.freeObjList(perWorkerGroupByFunctions.getQuick(i));
+                        }
+                        Misc.freeObjList(recordFunctions);
+                        throw e;
+                    }
+
+                    CompiledFilter compiledFilter = null;
+                    MemoryCARW bindVarMemory = null;
+                    ObjList<Function> bindVarFunctions = null;
+                    Function filter = null;
+                    ObjList<Function> perWorkerFilters = null;
+                    if (stealFilter) {
+                        // take over the filter, so that rows are filtered and aggregated in a single pass
+                        compiledFilter = factory.getCompiledFilter();
+                        bindVarMemory = factory.getBindVarMemory();
+                        bindVarFunctions = factory.getBindVarFunctions();
+                        filter = factory.getFilter();
+                        perWorkerFilters = factory.getPerWorkerFilters();
+                        final RecordCursorFactory filterFactory = factory;
+                        factory = factory.getBaseFactory();
+                        filterFactory.halfClose();
+                    }
+
+                    return new AsyncSampleByRecordCursorFactory(
+                            asm,
+                            configuration,
+                            executionContext.getMessageBus(),
+                            factory,
+                            groupByMetadata,
+                            listColumnFilterA,
+                            keyTypes,
+                            valueTypes,
+                            groupByFunctions,
+                            perWorkerGroupByFunctions,
+                            recordFunctions,
+                            placeholderFunctions,
+                            sampleByFill,
+                            timestampSampler,
+                            isLinearFill ? StrConstant.NULL : offsetFunc,
+                            offsetFuncPos,
+                            timestampIndex,
+                            compiledFilter,
+                            bindVarMemory,
+                            bindVarFunctions,
+                            filter,
+                            reduceTaskFactory,
+                            perWorkerFilters,
+                            workerCount
+                    );
+                }
+            }
+
+            if (isLinearFill) {
+                // parallel execution is not possible, fall back to the serial factory
+                Misc.freeObjList(recordFunctions);
+                return generateSampleByLinearFill(model, executionContext, factory, timestampSampler, timestampIndex);
+            }
+
             if (fillCount == 1 && Chars.equalsLowerCaseAscii(sampleByFill.getQuick(0).token, "prev")) {
                 if (keyTypes.getColumnCount() == 0) {
                     return new SampleByFillPrevNotKeyedRecordCursorFactory(
@@ -2739,6 +3107,68 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    private RecordCursorFactory generateSampleByLinearFill(
+            QueryModel model,
+            SqlExecutionContext executionContext,
+            RecordCursorFactory factory,
+            TimestampSampler timestampSampler,
+            int timestampIndex
+    ) throws SqlException {
+        final RecordMetadata metadata = factory.getMetadata();
+        keyTypes.clear();
+        valueTypes.clear();
+        listColumnFilterA.clear();
+
+        final int columnCount = metadata.getColumnCount();
+        final ObjList<GroupByFunction> groupByFunctions = new ObjList<>(columnCount);
+        final ObjList<Function> recordFunctions = new ObjList<>(columnCount);
+
+        valueTypes.add(ColumnType.BYTE); // gap flag
+
+        GroupByUtils.prepareGroupByFunctions(
+                model,
+                metadata,
+                functionParser,
+                executionContext,
+                groupByFunctions,
+                groupByFunctionPositions,
+                valueTypes
+        );
+
+        final GenericRecordMetadata groupByMetadata = new GenericRecordMetadata();
+        GroupByUtils.prepareGroupByRecordFunctions(
+                model,
+                metadata,
+                listColumnFilterA,
+                groupByFunctions,
+                groupByFunctionPositions,
+                recordFunctions,
+                recordFunctionPositions,
+                groupByMetadata,
+                keyTypes,
+                valueTypes.getColumnCount(),
+                false,
+                timestampIndex
+        );
+
+        return new SampleByInterpolateRecordCursorFactory(
+                asm,
+                configuration,
+                factory,
+                groupByMetadata,
+                groupByFunctions,
+                recordFunctions,
+                timestampSampler,
+                model,
+                listColumnFilterA,
+                keyTypes,
+                valueTypes,
+                entityColumnFilter,
+                groupByFunctionPositions,
+                timestampIndex
+        );
+    }
+
     private RecordCursorFactory generateSelect(
             QueryModel model,
             SqlExecutionContext executionContext,
@@ -2830,118 +3260,181 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         // analytic columns recursively
 
         deferredAnalyticMetadata.clear();
-        for (int i = 0; i < columnCount; i++) {
-            final QueryColumn qc = columns.getQuick(i);
-            if (qc instanceof AnalyticColumn) {
-                final AnalyticColumn ac = (AnalyticColumn) qc;
-                final ExpressionNode ast = qc.getAst();
-                if (ast.paramCount > 1) {
-                    Misc.free(base);
-                    throw SqlException.$(ast.position, "too many arguments");
-                }
+        final ObjList<AnalyticFunction> analyticFunctions = new ObjList<>();
+        final ObjList<Function> analyticColumnFunctions = new ObjList<>(columnCount);
+        // input can be streamed through the analytic functions, i.e. without caching, when
+        // all of them are computed from preceding rows only and the base cursor follows their order
+        boolean streaming = true;
+        try {
+            for (int i = 0; i < columnCount; i++) {
+                final QueryColumn qc = columns.getQuick(i);
+                if (qc instanceof AnalyticColumn) {
+                    final AnalyticColumn ac = (AnalyticColumn) qc;
+                    final ExpressionNode ast = qc.getAst();
+                    final int osz = ac.getOrderBy().size();
+
+                    // frame offsets are resolved to row counts (ROWS) or timestamp deltas (RANGE)
+                    int timestampIndex = -1;
+                    if (osz == 1 && ac.getOrderByDirection().getQuick(0) == ORDER_DIRECTION_ASCENDING) {
+                        final int orderByIndex = chainMetadata.getColumnIndexQuiet(ac.getOrderBy().getQuick(0).token);
+                        if (orderByIndex > -1 && ColumnType.isTimestamp(chainMetadata.getColumnType(orderByIndex))) {
+                            timestampIndex = orderByIndex;
+                        }
+                    }
+                    final int framingMode = ac.getFramingMode();
+                    long rowsLo;
+                    long rowsHi;
+                    if (framingMode == AnalyticColumn.FRAMING_RANGE && osz == 0) {
+                        // all rows are peers of the current row when there is no order
+                        if (ac.getRowsLoExpr() != null || ac.getRowsHiExpr() != null) {
+                            throw SqlException.$(ac.getRowsLoKindPos(), "RANGE with offset PRECEDING/FOLLOWING requires an ORDER BY clause");
+                        }
+                        rowsLo = Long.MIN_VALUE;
+                        rowsHi = Long.MAX_VALUE;
+                    } else {
+                        if (framingMode == AnalyticColumn.FRAMING_RANGE
+                                && timestampIndex == -1
+                                && (ac.getRowsLoExpr() != null || ac.getRowsHiExpr() != null)) {
+                            throw SqlException.$(ac.getRowsLoKindPos(), "RANGE with offset PRECEDING/FOLLOWING requires ORDER BY on a single ascending timestamp column");
+                        }
+                        rowsLo = evaluateAnalyticFrameBound(ac.getRowsLoExpr(), ac.getRowsLoExprTimeUnit(), ac.getRowsLoKind(), framingMode, executionContext);
+                        rowsHi = evaluateAnalyticFrameBound(ac.getRowsHiExpr(), ac.getRowsHiExprTimeUnit(), ac.getRowsHiKind(), framingMode, executionContext);
+                        if (rowsLo > rowsHi) {
+                            throw SqlException.$(ac.getRowsLoKindPos(), "frame start must not be after frame end");
+                        }
+                    }
 
-                ObjList<Function> partitionBy = null;
-                int psz = ac.getPartitionBy().size();
-                if (psz > 0) {
-                    partitionBy = new ObjList<>(psz);
-                    for (int j = 0; j < psz; j++) {
-                        partitionBy.add(
-                                functionParser.parseFunction(ac.getPartitionBy().getQuick(j), chainMetadata, executionContext)
-                        );
+                    ObjList<Function> partitionBy = null;
+                    int psz = ac.getPartitionBy().size();
+                    if (psz > 0) {
+                        partitionBy = new ObjList<>(psz);
+                        for (int j = 0; j < psz; j++) {
+                            partitionBy.add(
+                                    functionParser.parseFunction(ac.getPartitionBy().getQuick(j), chainMetadata, executionContext)
+                            );
+                        }
                     }
-                }
 
-                final VirtualRecord partitionByRecord;
-                final RecordSink partitionBySink;
+                    final VirtualRecord partitionByRecord;
+                    final RecordSink partitionBySink;
 
-                if (partitionBy != null) {
-                    partitionByRecord = new VirtualRecord(partitionBy);
-                    keyTypes.clear();
-                    final int partitionByCount = partitionBy.size();
+                    if (partitionBy != null) {
+                        partitionByRecord = new VirtualRecord(partitionBy);
+                        keyTypes.clear();
+                        final int partitionByCount = partitionBy.size();
 
-                    for (int j = 0; j < partitionByCount; j++) {
-                        keyTypes.add(partitionBy.getQuick(j).getType());
+                        for (int j = 0; j < partitionByCount; j++) {
+                            keyTypes.add(partitionBy.getQuick(j).getType());
+                        }
+                        entityColumnFilter.of(partitionByCount);
+                        // create sink
+                        partitionBySink = RecordSinkFactory.getInstance(
+                                asm,
+                                keyTypes,
+                                entityColumnFilter,
+                                false
+                        );
+                    } else {
+                        partitionByRecord = null;
+                        partitionBySink = null;
                     }
-                    entityColumnFilter.of(partitionByCount);
-                    // create sink
-                    partitionBySink = RecordSinkFactory.getInstance(
-                            asm,
+
+                    executionContext.configureAnalyticContext(
+                            partitionByRecord,
+                            partitionBySink,
                             keyTypes,
-                            entityColumnFilter,
-                            false
+                            osz > 0,
+                            base.recordCursorSupportsRandomAccess(),
+                            framingMode,
+                            rowsLo,
+                            ac.getRowsLoKindPos(),
+                            rowsHi,
+                            ac.getRowsHiKindPos(),
+                            timestampIndex
                     );
-                } else {
-                    partitionByRecord = null;
-                    partitionBySink = null;
-                }
-
-
-                final int osz = ac.getOrderBy().size();
-                executionContext.configureAnalyticContext(
-                        partitionByRecord,
-                        partitionBySink,
-                        keyTypes,
-                        osz > 0,
-                        base.recordCursorSupportsRandomAccess()
-                );
-                final Function f;
-                try {
-                    f = functionParser.parseFunction(ast, baseMetadata, executionContext);
-                    if (!(f instanceof AnalyticFunction)) {
-                        Misc.free(base);
-                        throw SqlException.$(ast.position, "non-analytic function called in analytic context");
+                    final Function f;
+                    try {
+                        // arguments are resolved against chain metadata, that's the record analytic functions are fed with
+                        f = functionParser.parseFunction(ast, chainMetadata, executionContext);
+                        if (!(f instanceof AnalyticFunction)) {
+                            Misc.free(f);
+                            throw SqlException.$(ast.position, "non-analytic function called in analytic context");
+                        }
+                    } finally {
+                        executionContext.clearAnalyticContext();
                     }
-                } finally {
-                    executionContext.clearAnalyticContext();
-                }
 
-                AnalyticFunction analyticFunction = (AnalyticFunction) f;
-
-                // analyze order by clause on the current model and optimise out
-                // order by on analytic function if it matches the one on the model
-                final LowerCaseCharSequenceIntHashMap orderHash = model.getOrderHash();
-                boolean dismissOrder = false;
-                if (base.followedOrderByAdvice() && osz > 0 && orderHash.size() > 0) {
-                    dismissOrder = true;
-                    for (int j = 0; j < osz; j++) {
-                        ExpressionNode node = ac.getOrderBy().getQuick(j);
-                        int direction = ac.getOrderByDirection().getQuick(j);
-                        if (orderHash.get(node.token) != direction) {
-                            dismissOrder = false;
-                            break;
+                    AnalyticFunction analyticFunction = (AnalyticFunction) f;
+                    analyticFunctions.add(analyticFunction);
+                    analyticColumnFunctions.extendAndSet(i, analyticFunction);
+
+                    // analyze order by clause on the current model and optimise out
+                    // order by on analytic function if it matches the one on the model
+                    final LowerCaseCharSequenceIntHashMap orderHash = model.getOrderHash();
+                    boolean dismissOrder = false;
+                    if (base.followedOrderByAdvice() && osz > 0 && orderHash.size() > 0) {
+                        dismissOrder = true;
+                        for (int j = 0; j < osz; j++) {
+                            ExpressionNode node = ac.getOrderBy().getQuick(j);
+                            int direction = ac.getOrderByDirection().getQuick(j);
+                            if (orderHash.get(node.token) != direction) {
+                                dismissOrder = false;
+                                break;
+                            }
                         }
                     }
-                }
 
-                if (osz > 0 && !dismissOrder) {
-                    IntList order = toOrderIndices(chainMetadata, ac.getOrderBy(), ac.getOrderByDirection());
-                    // init comparator if we need
-                    analyticFunction.initRecordComparator(recordComparatorCompiler, chainTypes, order);
-                    ObjList<AnalyticFunction> funcs = groupedAnalytic.get(order);
-                    if (funcs == null) {
-                        groupedAnalytic.put(order, funcs = new ObjList<>());
-                    }
-                    funcs.add(analyticFunction);
-                } else {
-                    if (naturalOrderFunctions == null) {
-                        naturalOrderFunctions = new ObjList<>();
+                    if (osz > 0 && !dismissOrder) {
+                        IntList order = toOrderIndices(chainMetadata, ac.getOrderBy(), ac.getOrderByDirection());
+                        // init comparator if we need
+                        analyticFunction.initRecordComparator(recordComparatorCompiler, chainTypes, order);
+                        ObjList<AnalyticFunction> funcs = groupedAnalytic.get(order);
+                        if (funcs == null) {
+                            groupedAnalytic.put(order, funcs = new ObjList<>());
+                        }
+                        funcs.add(analyticFunction);
+                    } else {
+                        if (osz > 0 && analyticFunction.getPassCount() == AnalyticFunction.THREE_PASS) {
+                            // input is already ordered, comparator is still needed to find peers of the current row
+                            analyticFunction.initRecordComparator(
+                                    recordComparatorCompiler,
+                                    chainTypes,
+                                    toOrderIndices(chainMetadata, ac.getOrderBy(), ac.getOrderByDirection())
+                            );
+                        }
+                        if (naturalOrderFunctions == null) {
+                            naturalOrderFunctions = new ObjList<>();
+                        }
+                        naturalOrderFunctions.add(analyticFunction);
                     }
-                    naturalOrderFunctions.add(analyticFunction);
-                }
 
-                analyticFunction.setColumnIndex(i);
+                    streaming &= analyticFunction.getPassCount() == AnalyticFunction.STREAM
+                            && (
+                            osz == 0
+                                    || dismissOrder
+                                    || (timestampIndex != -1
+                                    && columnIndexes.getQuick(timestampIndex) == baseMetadata.getTimestampIndex()
+                                    && base.getScanDirection() == RecordCursorFactory.SCAN_DIRECTION_FORWARD)
+                    );
 
-                deferredAnalyticMetadata.extendAndSet(i, new TableColumnMetadata(
-                        Chars.toString(qc.getAlias()),
-                        analyticFunction.getType(),
-                        false,
-                        0,
-                        false,
-                        null
-                ));
+                    analyticFunction.setColumnIndex(i);
 
-                listColumnFilterA.extendAndSet(i, -i - 1);
+                    deferredAnalyticMetadata.extendAndSet(i, new TableColumnMetadata(
+                            Chars.toString(qc.getAlias()),
+                            analyticFunction.getType(),
+                            false,
+                            0,
+                            false,
+                            null
+                    ));
+
+                    listColumnFilterA.extendAndSet(i, -i - 1);
+                }
             }
+        } catch (Throwable th) {
+            Misc.freeObjList(analyticFunctions);
+            Misc.free(base);
+            throw th;
         }
 
         // after all columns are processed we can re-insert deferred metadata
@@ -2953,6 +3446,29 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             }
         }
 
+        if (streaming) {
+            final ObjList<Function> functions = new ObjList<>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                final Function f = analyticColumnFunctions.getQuiet(i);
+                if (f != null) {
+                    functions.add(f);
+                } else {
+                    functions.add(FunctionParser.createColumn(
+                            columns.getQuick(i).getAst().position,
+                            chainMetadata.getColumnName(i),
+                            chainMetadata
+                    ));
+                }
+            }
+            return new AnalyticRecordCursorFactory(
+                    factoryMetadata,
+                    base,
+                    functions,
+                    analyticFunctions,
+                    columnIndexes
+            );
+        }
+
         final ObjList<RecordComparator> analyticComparators = new ObjList<>(groupedAnalytic.size());
         final ObjList<ObjList<AnalyticFunction>> functionGroups = new ObjList<>(groupedAnalytic.size());
         for (ObjObjHashMap.Entry<IntList, ObjList<AnalyticFunction>> e : groupedAnalytic) {
@@ -3451,7 +3967,107 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 throw e;
             }
 
-            if (keyTypes.getColumnCount() == 0) {
+            final boolean keyed = keyTypes.getColumnCount() > 0;
+            final int workerCount = executionContext.getSharedWorkerCount();
+            if (
+                    executionContext.isParallelGroupByEnabled()
+                            && workerCount > 0
+                            && (!keyed || Chars.equalsLowerCaseAscii(configuration.getDefaultMapType(), "fast"))
+                            && GroupByUtils.isParallelismSupported(groupByFunctions)
+            ) {
+                final boolean stealFilter = factory.supportsFilterStealing()
+                        && factory.getBaseFactory().supportPageFrameCursor();
+                if (stealFilter || factory.supportPageFrameCursor()) {
+                    final ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions = new ObjList<>(workerCount);
+                    try {
+                        for (int i = 0; i < workerCount; i++) {
+                            final ObjList<GroupByFunction> workerGroupByFunctions = new ObjList<>(groupByFunctions.size());
+                            perWorkerGroupByFunctions.extendAndSet(i, workerGroupByFunctions);
+                            arrayColumnTypes.clear();
+                            GroupByUtils.prepareGroupByFunctions(
+                                    model,
+                                    metadata,
+                                    functionParser,
+                                    executionContext,
+                                    workerGroupByFunctions,
+                                    tempGroupByFunctionPositions,
+                                    arrayColumnTypes
+                            );
+                        }
+                    } catch (Throwable e) {
+                        for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+                            Misc.freeObjList(perWorkerGroupByFunctions.getQuick(i));
+                        }
+                        if (keyed) {
+                            Misc.freeObjList(recordFunctions);
+                        } else {
+                            Misc.freeObjList(groupByFunctions);
+                        }
+                        throw e;
+                    }
+
+                    CompiledFilter compiledFilter = null;
+                    MemoryCARW bindVarMemory = null;
+                    ObjList<Function> bindVarFunctions = null;
+                    Function filter = null;
+                    ObjList<Function> perWorkerFilters = null;
+                    if (stealFilter) {
+                        // take over the filter, so that rows are filtered and aggregated in a single pass
+                        compiledFilter = factory.getCompiledFilter();
+                        bindVarMemory = factory.getBindVarMemory();
+                        bindVarFunctions = factory.getBindVarFunctions();
+                        filter = factory.getFilter();
+                        perWorkerFilters = factory.getPerWorkerFilters();
+                        final RecordCursorFactory filterFactory = factory;
+                        factory = factory.getBaseFactory();
+                        filterFactory.halfClose();
+                    }
+
+                    if (!keyed) {
+                        return new AsyncGroupByNotKeyedRecordCursorFactory(
+                                asm,
+                                configuration,
+                                executionContext.getMessageBus(),
+                                factory,
+                                groupByMetadata,
+                                groupByFunctions,
+                                perWorkerGroupByFunctions,
+                                recordFunctions,
+                                valueTypes.getColumnCount(),
+                                compiledFilter,
+                                bindVarMemory,
+                                bindVarFunctions,
+                                filter,
+                                reduceTaskFactory,
+                                perWorkerFilters,
+                                workerCount
+                        );
+                    }
+
+                    return new AsyncGroupByRecordCursorFactory(
+                            asm,
+                            configuration,
+                            executionContext.getMessageBus(),
+                            factory,
+                            groupByMetadata,
+                            listColumnFilterA,
+                            keyTypes,
+                            valueTypes,
+                            groupByFunctions,
+                            perWorkerGroupByFunctions,
+                            recordFunctions,
+                            compiledFilter,
+                            bindVarMemory,
+                            bindVarFunctions,
+                            filter,
+                            reduceTaskFactory,
+                            perWorkerFilters,
+                            workerCount
+                    );
+                }
+            }
+
+            if (!keyed) {
                 return new GroupByNotKeyedRecordCursorFactory(
                         asm,
                         factory,
@@ -3547,6 +4163,11 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     }
                 }
 
+                if (executionContext.getJitMode() != SqlJitMode.JIT_MODE_DISABLED) {
+                    // fuse double arithmetic into a single generated function
+                    function = DoubleExpressionFactory.compile(asm, function);
+                }
+
                 functions.add(function);
 
                 if (columnType == ColumnType.SYMBOL) {
@@ -3946,7 +4567,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     functionParser,
                     myMeta,
                     executionContext,
-                    latestByColumnCount > 1,
+                    // only 'latest by' on a single symbol column can use key column, otherwise key predicate has to stay in the filter
+                    latestByColumnCount > 1 || (latestByColumnCount == 1 && preferredKeyColumn == null),
                     reader
             );
 
@@ -4108,6 +4730,42 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                             filter = Misc.free(filter);
                         }
                     }
+                    final int keyColumnType = metadata.getColumnType(keyColumnIndex);
+                    if (!ColumnType.isSymbol(keyColumnType)) {
+                        // value index lookup, values are resolved when cursor is created
+                        if (nKeyValues == 1) {
+                            return new DataFrameRecordCursorFactory(
+                                    configuration,
+                                    myMeta,
+                                    dfcFactory,
+                                    new ValueIndexRowCursorFactory(
+                                            keyColumnIndex,
+                                            keyColumnType,
+                                            intrinsicModel.keyValueFuncs.get(0),
+                                            filter,
+                                            true,
+                                            indexDirection,
+                                            columnIndexes
+                                    ),
+                                    orderByKeyColumn || orderByTimestamp,
+                                    filter,
+                                    false,
+                                    columnIndexes,
+                                    columnSizes,
+                                    supportsRandomAccess
+                            );
+                        }
+                        return new FilterOnValueIndexRecordCursorFactory(
+                                myMeta,
+                                dfcFactory,
+                                intrinsicModel.keyValueFuncs,
+                                keyColumnIndex,
+                                keyColumnType,
+                                filter,
+                                orderByTimestamp,
+                                columnIndexes
+                        );
+                    }
                     if (nKeyValues == 1) {
                         final RowCursorFactory rcf;
                         final Function symbolFunc = intrinsicModel.keyValueFuncs.get(0);
@@ -4233,7 +4891,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     assert columnIndex > -1;
 
                     // this is our kind of column
-                    if (myMeta.isColumnIndexed(columnIndex)) {
+                    if (myMeta.isColumnIndexed(columnIndex) && ColumnType.isSymbol(myMeta.getColumnType(columnIndex))) {
                         boolean orderByKeyColumn = false;
                         int indexDirection = BitmapIndexReader.DIR_FORWARD;
                         if (orderByAdviceSize == 1) {
@@ -4319,7 +4977,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         // listColumnFilterA = latest by column indexes
         if (latestByColumnCount == 1) {
             int latestByColumnIndex = listColumnFilterA.getColumnIndexFactored(0);
-            if (myMeta.isColumnIndexed(latestByColumnIndex)) {
+            if (myMeta.isColumnIndexed(latestByColumnIndex) && ColumnType.isSymbol(myMeta.getColumnType(latestByColumnIndex))) {
                 return new LatestByAllIndexedRecordCursorFactory(
                         myMeta,
                         configuration,
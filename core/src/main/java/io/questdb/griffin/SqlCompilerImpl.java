@@ -402,7 +402,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable {
         final SecurityContext securityContext = executionContext.getSecurityContext();
 
         try (TableRecordMetadata tableMetadata = executionContext.getMetadata(tableToken)) {
-            final String expectedTokenDescription = "'add', 'alter', 'attach', 'detach', 'drop', 'resume', 'rename', 'set' or 'squash'";
+            final String expectedTokenDescription = "'add', 'alter', 'attach', 'compress', 'detach', 'drop', 'resume', 'rename', 'set' or 'squash'";
             tok = expectToken(lexer, expectedTokenDescription);
 
             if (SqlKeywords.isAddKeyword(tok)) {
@@ -433,6 +433,14 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable {
                 } else {
                     throw SqlException.$(lexer.lastTokenPosition(), "'partition' expected");
                 }
+            } else if (SqlKeywords.isCompressKeyword(tok)) {
+                tok = expectToken(lexer, "'partition'");
+                if (SqlKeywords.isPartitionKeyword(tok)) {
+                    securityContext.authorizeAlterTableDetachPartition(tableToken);
+                    alterTableDropDetachOrAttachPartition(tableMetadata, tableToken, PartitionAction.COMPRESS, executionContext);
+                } else {
+                    throw SqlException.$(lexer.lastTokenPosition(), "'partition' expected");
+                }
             } else if (SqlKeywords.isDetachKeyword(tok)) {
                 tok = expectToken(lexer, "'partition'");
                 if (SqlKeywords.isPartitionKeyword(tok)) {
@@ -811,8 +819,8 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable {
         }
 
         final int type = metadata.getColumnType(columnIndex);
-        if (!ColumnType.isSymbol(type)) {
-            throw SqlException.position(columnNamePosition).put("indexes are only supported for symbol type [column=").put(columnName).put(", type=").put(ColumnType.nameOf(type)).put(']');
+        if (!ColumnType.isSymbol(type) && !ValueIndexUtils.isSupported(type)) {
+            throw SqlException.position(columnNamePosition).put("indexes are only supported for SYMBOL, INT, LONG, UUID and IPv4 types [column=").put(columnName).put(", type=").put(ColumnType.nameOf(type)).put(']');
         }
 
         if (indexValueBlockSize == -1) {
@@ -873,8 +881,8 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable {
         }
 
         final int type = metadata.getColumnType(columnIndex);
-        if (!ColumnType.isSymbol(type)) {
-            throw SqlException.position(columnNamePosition).put("indexes are only supported for symbol type [column=").put(columnName).put(", type=").put(ColumnType.nameOf(type)).put(']');
+        if (!ColumnType.isSymbol(type) && !ValueIndexUtils.isSupported(type)) {
+            throw SqlException.position(columnNamePosition).put("indexes are only supported for SYMBOL, INT, LONG, UUID and IPv4 types [column=").put(columnName).put(", type=").put(ColumnType.nameOf(type)).put(']');
         }
 
         alterOperationBuilder.ofDropIndex(tableNamePosition, tableToken, metadata.getTableId(), columnName, columnNamePosition);
@@ -1025,8 +1033,11 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable {
                     case PartitionAction.DETACH:
                         alterOperationBuilder = this.alterOperationBuilder.ofDetachPartition(pos, tableToken, tableMetadata.getTableId());
                         break;
+                    case PartitionAction.COMPRESS:
+                        alterOperationBuilder = this.alterOperationBuilder.ofCompressPartition(pos, tableToken, tableMetadata.getTableId());
+                        break;
                     default:
-                        throw SqlException.$(pos, "WHERE clause can only be used with command DROP PARTITION, or DETACH PARTITION");
+                        throw SqlException.$(pos, "WHERE clause can only be used with command DROP PARTITION, DETACH PARTITION or COMPRESS PARTITION");
                 }
 
                 final int functionPosition = lexer.getPosition();
@@ -1086,6 +1097,9 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable {
                 // attach
                 alterOperationBuilder = this.alterOperationBuilder.ofAttachPartition(pos, tableToken, tableMetadata.getTableId());
                 break;
+            case PartitionAction.COMPRESS:
+                alterOperationBuilder = this.alterOperationBuilder.ofCompressPartition(pos, tableToken, tableMetadata.getTableId());
+                break;
             default:
                 alterOperationBuilder = null;
                 assert false;
@@ -2752,8 +2766,8 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable {
             int to = ccm.getColumnType();
             if (isCompatibleCase(from, to)) {
                 int modelColumnIndex = model.getColumnIndex(columnName);
-                if (!ColumnType.isSymbol(to) && model.isIndexed(modelColumnIndex)) {
-                    throw SqlException.$(ccm.getColumnTypePos(), "indexes are supported only for SYMBOL columns: ").put(columnName);
+                if (!ColumnType.isSymbol(to) && !ValueIndexUtils.isSupported(to) && model.isIndexed(modelColumnIndex)) {
+                    throw SqlException.$(ccm.getColumnTypePos(), "indexes are supported only for SYMBOL, INT, LONG, UUID and IPv4 columns: ").put(columnName);
                 }
                 typeCast.put(index, to);
             } else {
@@ -2761,7 +2775,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable {
             }
         }
 
-        // validate that all indexes are specified only on columns with symbol type
+        // validate that all indexes are specified only on columns of supported types
         for (int i = 0, n = model.getColumnCount(); i < n; i++) {
             CharSequence columnName = model.getColumnName(i);
             ColumnCastModel ccm = castModels.get(columnName);
@@ -2771,8 +2785,9 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable {
             }
             int index = metadata.getColumnIndexQuiet(columnName);
             assert index > -1 : "wtf? " + columnName;
-            if (!ColumnType.isSymbol(metadata.getColumnType(index)) && model.isIndexed(i)) {
-                throw SqlException.$(0, "indexes are supported only for SYMBOL columns: ").put(columnName);
+            final int columnType = metadata.getColumnType(index);
+            if (!ColumnType.isSymbol(columnType) && !ValueIndexUtils.isSupported(columnType) && model.isIndexed(i)) {
+                throw SqlException.$(0, "indexes are supported only for SYMBOL, INT, LONG, UUID and IPv4 columns: ").put(columnName);
             }
         }
 
@@ -2946,6 +2961,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable {
 
     public final static class PartitionAction {
         public static final int ATTACH = 2;
+        public static final int COMPRESS = 4;
         public static final int DETACH = 3;
         public static final int DROP = 1;
     }
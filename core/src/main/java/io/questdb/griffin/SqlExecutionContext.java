@@ -53,7 +53,13 @@ public interface SqlExecutionContext extends Closeable {
             @Nullable RecordSink partitionBySink,
             @Transient @Nullable ColumnTypes keyTypes,
             boolean isOrdered,
-            boolean baseSupportsRandomAccess
+            boolean baseSupportsRandomAccess,
+            int framingMode,
+            long rowsLo,
+            int rowsLoKindPos,
+            long rowsHi,
+            int rowsHiKindPos,
+            int timestampIndex
     );
 
     default void containsSecret(boolean b) {
@@ -145,8 +151,16 @@ public interface SqlExecutionContext extends Closeable {
 
     boolean isColumnPreTouchEnabled();
 
+    boolean isParallelAsOfJoinEnabled();
+
     boolean isParallelFilterEnabled();
 
+    boolean isParallelGroupByEnabled();
+
+    boolean isParallelHashJoinEnabled();
+
+    boolean isParallelSortEnabled();
+
     boolean isTimestampRequired();
 
     default boolean isUninterruptible() {
@@ -167,8 +181,16 @@ public interface SqlExecutionContext extends Closeable {
 
     void setNowAndFixClock(long now);
 
+    void setParallelAsOfJoinEnabled(boolean parallelAsOfJoinEnabled);
+
     void setParallelFilterEnabled(boolean parallelFilterEnabled);
 
+    void setParallelGroupByEnabled(boolean parallelGroupByEnabled);
+
+    void setParallelHashJoinEnabled(boolean parallelHashJoinEnabled);
+
+    void setParallelSortEnabled(boolean parallelSortEnabled);
+
     void setRandom(Rnd rnd);
 
     default void storeTelemetry(short event, short origin) {
@@ -59,7 +59,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
     private int jitMode;
     private long now;
     private final MicrosecondClock nowClock = () -> now;
+    private boolean parallelAsOfJoinEnabled;
     private boolean parallelFilterEnabled;
+    private boolean parallelGroupByEnabled;
+    private boolean parallelHashJoinEnabled;
+    private boolean parallelSortEnabled;
     private Rnd random;
     private long requestFd = -1;
     private SecurityContext securityContext;
@@ -75,7 +79,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         clock = cairoConfiguration.getMicrosecondClock();
         securityContext = DenyAllSecurityContext.INSTANCE;
         jitMode = cairoConfiguration.getSqlJitMode();
+        parallelAsOfJoinEnabled = cairoConfiguration.isSqlParallelAsOfJoinEnabled();
         parallelFilterEnabled = cairoConfiguration.isSqlParallelFilterEnabled();
+        parallelGroupByEnabled = cairoConfiguration.isSqlParallelGroupByEnabled();
+        parallelHashJoinEnabled = cairoConfiguration.isSqlParallelHashJoinEnabled();
+        parallelSortEnabled = cairoConfiguration.isSqlParallelSortEnabled();
         telemetry = cairoEngine.getTelemetry();
         telemetryFacade = telemetry.isEnabled() ? this::doStoreTelemetry : this::storeTelemetryNoop;
         this.containsSecret = false;
@@ -96,9 +104,27 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
             @Nullable RecordSink partitionBySink,
             @Transient @Nullable ColumnTypes partitionByKeyTypes,
             boolean ordered,
-            boolean baseSupportsRandomAccess
+            boolean baseSupportsRandomAccess,
+            int framingMode,
+            long rowsLo,
+            int rowsLoKindPos,
+            long rowsHi,
+            int rowsHiKindPos,
+            int timestampIndex
     ) {
-        analyticContext.of(partitionByRecord, partitionBySink, partitionByKeyTypes, ordered, baseSupportsRandomAccess);
+        analyticContext.of(
+                partitionByRecord,
+                partitionBySink,
+                partitionByKeyTypes,
+                ordered,
+                baseSupportsRandomAccess,
+                framingMode,
+                rowsLo,
+                rowsLoKindPos,
+                rowsHi,
+                rowsHiKindPos,
+                timestampIndex
+        );
     }
 
     @Override
@@ -191,11 +217,31 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         return columnPreTouchEnabled;
     }
 
+    @Override
+    public boolean isParallelAsOfJoinEnabled() {
+        return parallelAsOfJoinEnabled;
+    }
+
     @Override
     public boolean isParallelFilterEnabled() {
         return parallelFilterEnabled;
     }
 
+    @Override
+    public boolean isParallelGroupByEnabled() {
+        return parallelGroupByEnabled;
+    }
+
+    @Override
+    public boolean isParallelHashJoinEnabled() {
+        return parallelHashJoinEnabled;
+    }
+
+    @Override
+    public boolean isParallelSortEnabled() {
+        return parallelSortEnabled;
+    }
+
     @Override
     public boolean isTimestampRequired() {
         return timestampRequiredStack.notEmpty() && timestampRequiredStack.peek() == 1;
@@ -237,11 +283,31 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         clock = nowClock;
     }
 
+    @Override
+    public void setParallelAsOfJoinEnabled(boolean parallelAsOfJoinEnabled) {
+        this.parallelAsOfJoinEnabled = parallelAsOfJoinEnabled;
+    }
+
     @Override
     public void setParallelFilterEnabled(boolean parallelFilterEnabled) {
         this.parallelFilterEnabled = parallelFilterEnabled;
     }
 
+    @Override
+    public void setParallelGroupByEnabled(boolean parallelGroupByEnabled) {
+        this.parallelGroupByEnabled = parallelGroupByEnabled;
+    }
+
+    @Override
+    public void setParallelHashJoinEnabled(boolean parallelHashJoinEnabled) {
+        this.parallelHashJoinEnabled = parallelHashJoinEnabled;
+    }
+
+    @Override
+    public void setParallelSortEnabled(boolean parallelSortEnabled) {
+        this.parallelSortEnabled = parallelSortEnabled;
+    }
+
     @Override
     public void setRandom(Rnd rnd) {
         this.random = rnd;
@@ -2753,7 +2753,8 @@ public class SqlOptimiser implements Mutable {
                         && orderByMnemonic != OrderByMnemonic.ORDER_BY_INVARIANT) {
                     for (int i = 0; i < n; i++) {
                         QueryColumn col = columns.getQuick(i);
-                        if (hasAggregates(col.getAst())) {
+                        // analytic functions, e.g. avg() over (), depend on the order of their input
+                        if (!(col instanceof AnalyticColumn) && hasAggregates(col.getAst())) {
                             orderByMnemonic = OrderByMnemonic.ORDER_BY_INVARIANT;
                             break;
                         }
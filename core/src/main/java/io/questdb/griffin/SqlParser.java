@@ -28,6 +28,7 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.PartitionBy;
 import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.ValueIndexUtils;
 import io.questdb.cutlass.text.Atomicity;
 import io.questdb.griffin.model.*;
 import io.questdb.std.*;
@@ -143,6 +144,28 @@ public class SqlParser {
         }
     }
 
+    private static char toFrameTimeUnit(CharSequence tok) {
+        if (isMicrosecondKeyword(tok) || isMicrosecondsKeyword(tok)) {
+            return 'U';
+        }
+        if (isMillisecondKeyword(tok) || isMillisecondsKeyword(tok)) {
+            return 'T';
+        }
+        if (isSecondKeyword(tok) || isSecondsKeyword(tok)) {
+            return 's';
+        }
+        if (isMinuteKeyword(tok) || isMinutesKeyword(tok)) {
+            return 'm';
+        }
+        if (isHourKeyword(tok) || isHoursKeyword(tok)) {
+            return 'h';
+        }
+        if (isDayKeyword(tok) || isDaysKeyword(tok)) {
+            return 'd';
+        }
+        return 0;
+    }
+
     private void addConcatArgs(ObjList<ExpressionNode> args, ExpressionNode leaf) {
         if (leaf.type != ExpressionNode.FUNCTION || !isConcatKeyword(leaf.token)) {
             args.add(leaf);
@@ -377,6 +400,85 @@ public class SqlParser {
         return tok;
     }
 
+    private void parseAnalyticFrame(GenericLexer lexer, AnalyticColumn col) throws SqlException {
+        final CharSequence tok = tok(lexer, "'between', 'unbounded', 'current' or expression");
+        if (isBetweenKeyword(tok)) {
+            parseAnalyticFrameBound(lexer, col, true);
+            expectTok(lexer, "and");
+            parseAnalyticFrameBound(lexer, col, false);
+        } else {
+            // short form, e.g. "rows 10 preceding", implies "and current row"
+            lexer.unparseLast();
+            parseAnalyticFrameBound(lexer, col, true);
+        }
+
+        if (col.getRowsLoKind() == AnalyticColumn.CURRENT && col.getRowsHiKind() == AnalyticColumn.PRECEDING) {
+            throw SqlException.$(col.getRowsHiKindPos(), "frame starting from current row cannot have preceding rows");
+        }
+        if (col.getRowsLoKind() == AnalyticColumn.FOLLOWING && col.getRowsHiKind() != AnalyticColumn.FOLLOWING) {
+            throw SqlException.$(col.getRowsHiKindPos(), "frame starting from following row cannot have preceding rows");
+        }
+    }
+
+    private void parseAnalyticFrameBound(GenericLexer lexer, AnalyticColumn col, boolean lo) throws SqlException {
+        CharSequence tok = tok(lexer, "'unbounded', 'current' or expression");
+        ExpressionNode expr = null;
+        char timeUnit = 0;
+        final int kind;
+        if (isUnboundedKeyword(tok)) {
+            tok = tok(lexer, "'preceding' or 'following'");
+            if (isPrecedingKeyword(tok)) {
+                if (!lo) {
+                    throw SqlException.$(lexer.lastTokenPosition(), "frame end cannot be UNBOUNDED PRECEDING");
+                }
+                kind = AnalyticColumn.PRECEDING;
+            } else if (isFollowingKeyword(tok)) {
+                if (lo) {
+                    throw SqlException.$(lexer.lastTokenPosition(), "frame start cannot be UNBOUNDED FOLLOWING");
+                }
+                kind = AnalyticColumn.FOLLOWING;
+            } else {
+                throw SqlException.$(lexer.lastTokenPosition(), "'preceding' or 'following' expected");
+            }
+        } else if (isCurrentKeyword(tok)) {
+            final int pos = lexer.lastTokenPosition();
+            tok = tok(lexer, "'row'");
+            if (!isRowKeyword(tok)) {
+                throw SqlException.$(lexer.lastTokenPosition(), "'row' expected");
+            }
+            if (lo) {
+                col.setRowsLo(null, (char) 0, AnalyticColumn.CURRENT, pos);
+            } else {
+                col.setRowsHi(null, (char) 0, AnalyticColumn.CURRENT, pos);
+            }
+            return;
+        } else {
+            lexer.unparseLast();
+            expr = expectExpr(lexer);
+            tok = tok(lexer, "'preceding' or 'following'");
+            timeUnit = toFrameTimeUnit(tok);
+            if (timeUnit != 0) {
+                if (col.getFramingMode() != AnalyticColumn.FRAMING_RANGE) {
+                    throw SqlException.$(lexer.lastTokenPosition(), "time unit is only allowed in RANGE mode");
+                }
+                tok = tok(lexer, "'preceding' or 'following'");
+            }
+            if (isPrecedingKeyword(tok)) {
+                kind = AnalyticColumn.PRECEDING;
+            } else if (isFollowingKeyword(tok)) {
+                kind = AnalyticColumn.FOLLOWING;
+            } else {
+                throw SqlException.$(lexer.lastTokenPosition(), "'preceding' or 'following' expected");
+            }
+        }
+
+        if (lo) {
+            col.setRowsLo(expr, timeUnit, kind, lexer.lastTokenPosition());
+        } else {
+            col.setRowsHi(expr, timeUnit, kind, lexer.lastTokenPosition());
+        }
+    }
+
     private QueryModel parseAsSubQueryAndExpectClosingBrace(GenericLexer lexer,
                                                             LowerCaseCharSequenceObjHashMap<WithClauseModel> withClauses,
                                                             boolean useTopLevelWithClauses)
@@ -843,8 +945,8 @@ public class SqlParser {
         final int position = lexer.lastTokenPosition();
         final int columnIndex = getCreateTableColumnIndex(model, columnName, position);
         final int columnType = model.getColumnType(columnIndex);
-        if (columnType > -1 && !ColumnType.isSymbol(columnType)) {
-            throw SqlException.$(position, "indexes are supported only for SYMBOL columns: ").put(columnName);
+        if (columnType > -1 && !ColumnType.isSymbol(columnType) && !ValueIndexUtils.isSupported(columnType)) {
+            throw SqlException.$(position, "indexes are supported only for SYMBOL, INT, LONG, UUID and IPv4 columns: ").put(columnName);
         }
 
         if (isCapacityKeyword(tok(lexer, "'capacity'"))) {
@@ -1743,7 +1845,7 @@ public class SqlParser {
                     expectTok(lexer, '(');
 
                     col = analyticColumnPool.next().of(null, expr);
-                    tok = tokIncludingLocalBrace(lexer, "'partition' or 'order' or ')'");
+                    tok = tokIncludingLocalBrace(lexer, "'partition' or 'order' or 'rows' or 'range' or ')'");
 
                     if (isPartitionKeyword(tok)) {
                         expectTok(lexer, "by");
@@ -1783,6 +1885,13 @@ public class SqlParser {
                             }
                         } while (Chars.equals(tok, ','));
                     }
+
+                    if (isRowsKeyword(tok) || isRangeKeyword(tok)) {
+                        final AnalyticColumn ac = (AnalyticColumn) col;
+                        ac.setFramingMode(isRowsKeyword(tok) ? AnalyticColumn.FRAMING_ROWS : AnalyticColumn.FRAMING_RANGE);
+                        parseAnalyticFrame(lexer, ac);
+                        tok = tokIncludingLocalBrace(lexer, "')'");
+                    }
                     expectTok(tok, lexer.lastTokenPosition(), ')');
                     tok = optTok(lexer);
 
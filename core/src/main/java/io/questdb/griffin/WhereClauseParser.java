@@ -28,6 +28,7 @@ import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.GeoHashes;
 import io.questdb.cairo.SymbolMapReader;
 import io.questdb.cairo.TableReader;
+import io.questdb.cairo.ValueIndexUtils;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.griffin.engine.functions.AbstractGeoHashFunction;
@@ -232,8 +233,15 @@ public final class WhereClauseParser implements Mutable {
      * or has higher capacity than the current key column.
      */
     private static boolean isMoreSelective(IntrinsicModel model, RecordMetadata meta, TableReader reader, int idx) {
+        final int keyIdx = meta.getColumnIndex(model.keyColumn);
+        final boolean symbol = ColumnType.isSymbol(meta.getColumnType(idx));
+        final boolean keySymbol = ColumnType.isSymbol(meta.getColumnType(keyIdx));
+        if (!symbol || !keySymbol) {
+            // value indexes have no symbol counts, we assume they are more selective than symbol indexes
+            return !symbol && keySymbol;
+        }
         SymbolMapReader colReader = reader.getSymbolMapReader(idx);
-        SymbolMapReader keyReader = reader.getSymbolMapReader(meta.getColumnIndex(model.keyColumn));
+        SymbolMapReader keyReader = reader.getSymbolMapReader(keyIdx);
         int colCount = colReader.getSymbolCount();
         int keyCount = keyReader.getSymbolCount();
         return colCount > keyCount
@@ -244,6 +252,10 @@ public final class WhereClauseParser implements Mutable {
         return (typeA == ExpressionNode.BIND_VARIABLE) != (typeB == ExpressionNode.BIND_VARIABLE);
     }
 
+    private static boolean isValueIndexed(RecordMetadata m, int columnIndex) {
+        return ValueIndexUtils.isValueIndexed(m.getColumnType(columnIndex), m.isColumnIndexed(columnIndex));
+    }
+
     private static boolean nodesEqual(ExpressionNode left, ExpressionNode right) {
         return (left.type == ExpressionNode.LITERAL || left.type == ExpressionNode.CONSTANT)
                 && (right.type == ExpressionNode.LITERAL || right.type == ExpressionNode.CONSTANT)
@@ -435,13 +447,21 @@ public final class WhereClauseParser implements Mutable {
                     case ColumnType.STRING:
                     case ColumnType.LONG:
                     case ColumnType.INT:
-                        if (columnIsPreferredOrIndexedAndNotPartOfMultiColumnLatestBy(columnName, m, latestByMultiColumn)) {
+                    case ColumnType.UUID:
+                    case ColumnType.IPv4:
+                        if (columnIsPreferredOrIndexedAndNotPartOfMultiColumnLatestBy(columnName, m, latestByMultiColumn)
+                                && isIndexKeyValue(m, index, b)) {
                             CharSequence value = isNullKeyword(b.token) ? null : unquote(b.token);
                             if (Chars.equalsIgnoreCaseNc(columnName, model.keyColumn)) {
                                 if (!isCorrectType(b.type)) {
                                     node.intrinsicValue = IntrinsicModel.FALSE;
                                     return false;
                                 }
+                                // value index keys are not normalized, so they can't be intersected as strings
+                                if (isValueIndexed(m, index) && tempKeyValues.size() > 0) {
+                                    node.intrinsicValue = IntrinsicModel.FALSE;
+                                    return false;
+                                }
                                 // IN sets can't be merged if either contains a bind variable (even if it's the same),
                                 // so we've to push new set to filter
                                 if (!allKeyValuesAreKnown || (b.type == ExpressionNode.BIND_VARIABLE && tempKeyValues.size() > 0)) {
@@ -689,7 +709,7 @@ public final class WhereClauseParser implements Mutable {
     ) throws SqlException {
 
         int columnIndex = m.getColumnIndex(columnName);
-        if (columnIsPreferredOrIndexedAndNotPartOfMultiColumnLatestBy(columnName, m, latestByMultiColumn)) {
+        if (!isValueIndexed(m, columnIndex) && columnIsPreferredOrIndexedAndNotPartOfMultiColumnLatestBy(columnName, m, latestByMultiColumn)) {
             if (preferredKeyColumn != null && !Chars.equalsIgnoreCase(columnName, preferredKeyColumn)) {
                 return false;
             }
@@ -783,6 +803,24 @@ public final class WhereClauseParser implements Mutable {
                 return false;
             }
 
+            if (isValueIndexed(meta, columnIndex)) {
+                // value index keys are not normalized, so they can't be intersected as strings
+                if (!newColumn && tempKeyValues.size() > 0) {
+                    return false;
+                }
+                if (node.paramCount == 2) {
+                    if (node.rhs == null || !isIndexKeyValue(meta, columnIndex, node.rhs)) {
+                        return false;
+                    }
+                } else {
+                    for (int j = node.paramCount - 2; j > -1; j--) {
+                        if (!isIndexKeyValue(meta, columnIndex, node.args.getQuick(j))) {
+                            return false;
+                        }
+                    }
+                }
+            }
+
             int i = node.paramCount - 1;
             tempKeys.clear();
             tempPos.clear();
@@ -982,7 +1020,7 @@ public final class WhereClauseParser implements Mutable {
                     case ColumnType.STRING:
                     case ColumnType.LONG:
                     case ColumnType.INT:
-                        if (columnIsPreferredOrIndexedAndNotPartOfMultiColumnLatestBy(columnName, m, latestByMultiColumn)) {
+                        if (!isValueIndexed(m, index) && columnIsPreferredOrIndexedAndNotPartOfMultiColumnLatestBy(columnName, m, latestByMultiColumn)) {
                             CharSequence value = isNullKeyword(b.token) ? null : unquote(b.token);
                             if (Chars.equalsIgnoreCaseNc(columnName, model.keyColumn)) {
                                 if (!isCorrectType(b.type)) {
@@ -1123,7 +1161,7 @@ public final class WhereClauseParser implements Mutable {
     ) throws SqlException {
         final int columnIndex = m.getColumnIndex(columnName);
         boolean newColumn = true;
-        if (columnIsPreferredOrIndexedAndNotPartOfMultiColumnLatestBy(columnName, m, latestByMultiColumn)) {
+        if (!isValueIndexed(m, columnIndex) && columnIsPreferredOrIndexedAndNotPartOfMultiColumnLatestBy(columnName, m, latestByMultiColumn)) {
             if (model.keyColumn != null
                     && (newColumn = !Chars.equalsIgnoreCase(model.keyColumn, columnName))
                     && !isMoreSelective(model, m, reader, columnIndex)) {
@@ -1659,6 +1697,21 @@ public final class WhereClauseParser implements Mutable {
 
     }
 
+    private boolean isIndexKeyValue(RecordMetadata m, int columnIndex, ExpressionNode value) {
+        if (!isValueIndexed(m, columnIndex)) {
+            return true;
+        }
+        // value indexes are looked up with constants and bind variables only
+        switch (value.type) {
+            case ExpressionNode.BIND_VARIABLE:
+                return true;
+            case ExpressionNode.CONSTANT:
+                return isNullKeyword(value.token) || ValueIndexUtils.isValidKey(m.getColumnType(columnIndex), unquote(value.token));
+            default:
+                return false;
+        }
+    }
+
     private boolean isGeoHashConstFunction(Function fn) {
         return (fn instanceof AbstractGeoHashFunction) && fn.isConstant();
     }
@@ -31,12 +31,41 @@ import io.questdb.cairo.sql.VirtualRecord;
 public interface AnalyticContext {
     boolean baseSupportsRandomAccess();
 
+    int getFramingMode();
+
     ColumnTypes getPartitionByKeyTypes();
 
     VirtualRecord getPartitionByRecord();
 
     RecordSink getPartitionBySink();
 
+    /**
+     * Upper bound of the frame relative to the current row. Negative value stands
+     * for PRECEDING, positive for FOLLOWING, Long.MAX_VALUE for UNBOUNDED FOLLOWING.
+     * In ROWS mode the bound is number of rows, in RANGE mode - timestamp delta in microseconds.
+     *
+     * @return frame upper bound
+     */
+    long getRowsHi();
+
+    int getRowsHiKindPos();
+
+    /**
+     * Lower bound of the frame relative to the current row, Long.MIN_VALUE stands for
+     * UNBOUNDED PRECEDING. See {@link #getRowsHi()} for the value semantics.
+     *
+     * @return frame lower bound
+     */
+    long getRowsLo();
+
+    int getRowsLoKindPos();
+
+    /**
+     * @return index of the timestamp column analytic function is ordered by
+     * or -1 when ORDER BY is not a single ascending timestamp column
+     */
+    int getTimestampIndex();
+
     boolean isEmpty();
 
     boolean isOrdered();
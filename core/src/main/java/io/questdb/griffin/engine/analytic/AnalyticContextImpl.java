@@ -27,6 +27,7 @@ package io.questdb.griffin.engine.analytic;
 import io.questdb.cairo.ColumnTypes;
 import io.questdb.cairo.RecordSink;
 import io.questdb.cairo.sql.VirtualRecord;
+import io.questdb.griffin.model.AnalyticColumn;
 import io.questdb.std.Mutable;
 import io.questdb.std.Transient;
 import org.jetbrains.annotations.Nullable;
@@ -34,10 +35,16 @@ import org.jetbrains.annotations.Nullable;
 public class AnalyticContextImpl implements AnalyticContext, Mutable {
     private boolean baseSupportsRandomAccess;
     private boolean empty = true;
+    private int framingMode = AnalyticColumn.FRAMING_RANGE;
     private boolean ordered;
     private ColumnTypes partitionByKeyTypes;
     private VirtualRecord partitionByRecord;
     private RecordSink partitionBySink;
+    private long rowsHi;
+    private int rowsHiKindPos;
+    private long rowsLo = Long.MIN_VALUE;
+    private int rowsLoKindPos;
+    private int timestampIndex = -1;
 
     @Override
     public boolean baseSupportsRandomAccess() {
@@ -52,6 +59,17 @@ public class AnalyticContextImpl implements AnalyticContext, Mutable {
         this.partitionByKeyTypes = null;
         this.ordered = false;
         this.baseSupportsRandomAccess = false;
+        this.framingMode = AnalyticColumn.FRAMING_RANGE;
+        this.rowsLo = Long.MIN_VALUE;
+        this.rowsLoKindPos = 0;
+        this.rowsHi = 0;
+        this.rowsHiKindPos = 0;
+        this.timestampIndex = -1;
+    }
+
+    @Override
+    public int getFramingMode() {
+        return framingMode;
     }
 
     @Override
@@ -69,6 +87,31 @@ public class AnalyticContextImpl implements AnalyticContext, Mutable {
         return partitionBySink;
     }
 
+    @Override
+    public long getRowsHi() {
+        return rowsHi;
+    }
+
+    @Override
+    public int getRowsHiKindPos() {
+        return rowsHiKindPos;
+    }
+
+    @Override
+    public long getRowsLo() {
+        return rowsLo;
+    }
+
+    @Override
+    public int getRowsLoKindPos() {
+        return rowsLoKindPos;
+    }
+
+    @Override
+    public int getTimestampIndex() {
+        return timestampIndex;
+    }
+
     @Override
     public boolean isEmpty() {
         return empty;
@@ -84,7 +127,13 @@ public class AnalyticContextImpl implements AnalyticContext, Mutable {
             @Nullable RecordSink partitionBySink,
             @Transient @Nullable ColumnTypes partitionByKeyTypes,
             boolean ordered,
-            boolean baseSupportsRandomAccess
+            boolean baseSupportsRandomAccess,
+            int framingMode,
+            long rowsLo,
+            int rowsLoKindPos,
+            long rowsHi,
+            int rowsHiKindPos,
+            int timestampIndex
     ) {
         this.empty = false;
         this.partitionByRecord = partitionByRecord;
@@ -92,5 +141,11 @@ public class AnalyticContextImpl implements AnalyticContext, Mutable {
         this.partitionByKeyTypes = partitionByKeyTypes;
         this.ordered = ordered;
         this.baseSupportsRandomAccess = baseSupportsRandomAccess;
+        this.framingMode = framingMode;
+        this.rowsLo = rowsLo;
+        this.rowsLoKindPos = rowsLoKindPos;
+        this.rowsHi = rowsHi;
+        this.rowsHiKindPos = rowsHiKindPos;
+        this.timestampIndex = timestampIndex;
     }
 }
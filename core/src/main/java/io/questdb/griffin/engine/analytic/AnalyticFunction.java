@@ -37,11 +37,36 @@ public interface AnalyticFunction extends Function {
     int THREE_PASS = 3;
     int TWO_PASS = 2;
 
+    /**
+     * Computes function value for the current row of a streamed (not cached) input.
+     * The value is then served by the getXXX() methods. Only functions returning
+     * {@link #STREAM} pass count are required to implement this method.
+     *
+     * @param record current record, input must be ordered as per function's ORDER BY clause
+     */
+    default void computeNext(Record record) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the number of passes over the input this function requires:
+     * <ul>
+     * <li>{@link #STREAM} - value can be computed by looking at the current row and the previous ones, see {@link #computeNext(Record)}</li>
+     * <li>{@link #TWO_PASS} - input has to be cached, values are written on pass1</li>
+     * <li>{@link #THREE_PASS} - input has to be cached, values are written on pass2 once all rows are seen on pass1</li>
+     * </ul>
+     *
+     * @return pass count
+     */
+    default int getPassCount() {
+        return TWO_PASS;
+    }
+
     void initRecordComparator(RecordComparatorCompiler recordComparatorCompiler, ArrayColumnTypes chainTypes, IntList order);
 
     void pass1(Record record, long recordOffset, AnalyticSPI spi);
 
-    void pass2(Record record);
+    void pass2(Record record, long recordOffset, AnalyticSPI spi);
 
     void preparePass2(RecordCursor cursor);
 
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.analytic;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.groupby.GroupByUtils;
+import io.questdb.griffin.engine.table.SelectedRecord;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+
+/**
+ * Evaluates analytic functions on the fly, without caching the base cursor. This is only possible
+ * when all functions can be computed by looking at the current and previous rows, e.g.
+ * avg(price) over (partition by symbol order by ts rows between 100 preceding and current row),
+ * and the base cursor returns rows in the order required by the functions.
+ * Each function keeps its per-partition state (and frame buffer if necessary) off-heap.
+ */
+public class AnalyticRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final ObjList<AnalyticFunction> analyticFunctions;
+    private final RecordCursorFactory base;
+    private final IntList columnIndexes;
+    private final AnalyticRecordCursor cursor;
+    private final ObjList<Function> functions;
+    private boolean closed = false;
+
+    /**
+     * @param metadata          factory metadata
+     * @param base              base factory, its cursor must follow the order of analytic functions
+     * @param functions         output column functions, both analytic and plain ones, addressing columns in chain layout
+     * @param analyticFunctions analytic functions, subset of the output functions
+     * @param columnIndexes     chain column index to base column index mapping
+     */
+    public AnalyticRecordCursorFactory(
+            RecordMetadata metadata,
+            RecordCursorFactory base,
+            ObjList<Function> functions,
+            ObjList<AnalyticFunction> analyticFunctions,
+            IntList columnIndexes
+    ) {
+        super(metadata);
+        this.base = base;
+        this.functions = functions;
+        this.analyticFunctions = analyticFunctions;
+        this.columnIndexes = columnIndexes;
+        this.cursor = new AnalyticRecordCursor(functions, columnIndexes);
+    }
+
+    @Override
+    public boolean followedOrderByAdvice() {
+        return base.followedOrderByAdvice();
+    }
+
+    @Override
+    public String getBaseColumnName(int idx) {
+        return base.getMetadata().getColumnName(columnIndexes.getQuick(idx));
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final RecordCursor baseCursor = base.getCursor(executionContext);
+        try {
+            cursor.of(baseCursor, executionContext);
+            return cursor;
+        } catch (Throwable th) {
+            cursor.close();
+            throw th;
+        }
+    }
+
+    @Override
+    public int getScanDirection() {
+        return base.getScanDirection();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Analytic");
+        sink.optAttr("functions", analyticFunctions, true);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+
+    @Override
+    protected void _close() {
+        if (closed) {
+            return;
+        }
+        Misc.free(base);
+        Misc.free(cursor);
+        Misc.freeObjList(functions);
+        closed = true;
+    }
+
+    private void resetFunctions() {
+        for (int i = 0, n = analyticFunctions.size(); i < n; i++) {
+            analyticFunctions.getQuick(i).reset();
+        }
+    }
+
+    class AnalyticRecordCursor implements RecordCursor {
+        private final IntList columnIndexes; // Used for symbol table lookups.
+        private final SelectedRecord chainRecord;
+        private final VirtualRecord record;
+        private RecordCursor baseCursor;
+        private boolean isOpen;
+
+        public AnalyticRecordCursor(ObjList<Function> functions, IntList columnIndexes) {
+            this.columnIndexes = columnIndexes;
+            this.chainRecord = new SelectedRecord(columnIndexes);
+            this.record = new VirtualRecord(functions);
+            this.record.of(chainRecord);
+            this.isOpen = true;
+        }
+
+        @Override
+        public void close() {
+            if (isOpen) {
+                baseCursor = Misc.free(baseCursor);
+                resetFunctions();
+                isOpen = false;
+            }
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public Record getRecordB() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            return baseCursor.getSymbolTable(columnIndexes.getQuick(columnIndex));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (baseCursor.hasNext()) {
+                for (int i = 0, n = analyticFunctions.size(); i < n; i++) {
+                    analyticFunctions.getQuick(i).computeNext(chainRecord);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public SymbolTable newSymbolTable(int columnIndex) {
+            return baseCursor.newSymbolTable(columnIndexes.getQuick(columnIndex));
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long size() {
+            return baseCursor.size();
+        }
+
+        @Override
+        public void toTop() {
+            baseCursor.toTop();
+            GroupByUtils.toTop(functions);
+        }
+
+        private void of(RecordCursor baseCursor, SqlExecutionContext executionContext) throws SqlException {
+            this.baseCursor = baseCursor;
+            if (!isOpen) {
+                for (int i = 0, n = analyticFunctions.size(); i < n; i++) {
+                    final AnalyticFunction function = analyticFunctions.getQuick(i);
+                    if (function instanceof Reopenable) {
+                        ((Reopenable) function).reopen();
+                    }
+                }
+                isOpen = true;
+            }
+            chainRecord.of(baseCursor.getRecord());
+            Function.init(functions, this, executionContext);
+            GroupByUtils.toTop(functions);
+        }
+    }
+}
@@ -43,11 +43,14 @@ import org.jetbrains.annotations.Nullable;
 public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFactory {
     private final ObjList<AnalyticFunction> allFunctions;
     private final RecordCursorFactory base;
+    private final IntList columnIndexes;
     private final ObjList<RecordComparator> comparators;
     private final CachedAnalyticRecordCursor cursor;
     private final ObjList<ObjList<AnalyticFunction>> orderedFunctions;
     private final int orderedGroupCount;
     @Nullable
+    private final ObjList<AnalyticFunction> threePassFunctions;
+    @Nullable
     private final ObjList<AnalyticFunction> unorderedFunctions;
     private boolean closed = false;
 
@@ -89,6 +92,7 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
         }
 
         this.cursor = new CachedAnalyticRecordCursor(columnIndexes, recordChain, orderedSources);
+        this.columnIndexes = columnIndexes;
 
         this.allFunctions = new ObjList<>();
         for (int i = 0, n = orderedFunctions.size(); i < n; i++) {
@@ -99,6 +103,18 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
         }
 
         this.unorderedFunctions = unorderedFunctions;
+
+        ObjList<AnalyticFunction> threePassFunctions = null;
+        for (int i = 0, n = allFunctions.size(); i < n; i++) {
+            final AnalyticFunction function = allFunctions.getQuick(i);
+            if (function.getPassCount() == AnalyticFunction.THREE_PASS) {
+                if (threePassFunctions == null) {
+                    threePassFunctions = new ObjList<>();
+                }
+                threePassFunctions.add(function);
+            }
+        }
+        this.threePassFunctions = threePassFunctions;
     }
 
     @Override
@@ -106,6 +122,11 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
         return base.followedOrderByAdvice();
     }
 
+    @Override
+    public String getBaseColumnName(int idx) {
+        return base.getMetadata().getColumnName(columnIndexes.getQuick(idx));
+    }
+
     @Override
     public RecordCursorFactory getBaseFactory() {
         return base;
@@ -114,8 +135,13 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
         final RecordCursor baseCursor = base.getCursor(executionContext);
-        cursor.of(baseCursor, executionContext);
-        return cursor;
+        try {
+            cursor.of(baseCursor, executionContext);
+            return cursor;
+        } catch (Throwable th) {
+            cursor.close();
+            throw th;
+        }
     }
 
     @Override
@@ -126,7 +152,7 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
     @Override
     public void toPlan(PlanSink sink) {
         sink.type("CachedAnalytic");
-        sink.optAttr("functions", allFunctions);
+        sink.optAttr("functions", allFunctions, true);
         sink.child(base);
     }
 
@@ -284,10 +310,26 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
                 }
             }
 
+            // step #3: run pass2 for functions that need to see the whole partition
+            // before they can write values, e.g. avg() over (partition by x)
+            if (threePassFunctions != null) {
+                final int functionCount = threePassFunctions.size();
+                for (int j = 0; j < functionCount; j++) {
+                    threePassFunctions.getQuick(j).preparePass2(recordChain);
+                }
+                recordChain.toTop();
+                while (recordChain.hasNext()) {
+                    circuitBreaker.statefulThrowExceptionIfTripped();
+                    for (int j = 0; j < functionCount; j++) {
+                        threePassFunctions.getQuick(j).pass2(chainRecord, chainRecord.getRowId(), recordChain);
+                    }
+                }
+            }
+
             recordChain.toTop();
         }
 
-        private void of(RecordCursor base, SqlExecutionContext context) {
+        private void of(RecordCursor base, SqlExecutionContext context) throws SqlException {
             this.base = base;
             isRecordChainBuilt = false;
             recordChainOffset = -1;
@@ -299,6 +341,7 @@ public class CachedAnalyticRecordCursorFactory extends AbstractRecordCursorFacto
                 reopen(allFunctions);
                 isOpen = true;
             }
+            Function.init(allFunctions, this, context);
         }
 
         private void reopen(ObjList<?> list) {
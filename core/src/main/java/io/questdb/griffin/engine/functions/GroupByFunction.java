@@ -40,6 +40,15 @@ public interface GroupByFunction extends Function, Mutable {
 
     void computeNext(MapValue mapValue, Record record);
 
+    /**
+     * Called on the owner and per-worker copies of the function before a parallel
+     * execution starts. Records passed to the compute methods after this call come
+     * from page frames, so functions may rely on {@link Record#getRowId()} to keep
+     * the state needed by {@link #merge(MapValue, MapValue)}.
+     */
+    default void enableParallelism() {
+    }
+
     default void interpolateBoundary(MapValue mapValue1,
                                      MapValue mapValue2,
                                      long boundaryTimestamp,
@@ -58,12 +67,46 @@ public interface GroupByFunction extends Function, Mutable {
         return false;
     }
 
+    /**
+     * Returns true if the function can be computed in parallel, i.e. partial
+     * values computed independently for disjoint sets of rows can be combined
+     * with {@link #merge(MapValue, MapValue)}.
+     *
+     * @return true if the function supports parallel execution
+     */
+    default boolean isParallelismSupported() {
+        return false;
+    }
+
     default boolean isScalar() {
         return true;
     }
 
+    /**
+     * Merges the partial value accumulated in the source map value into the destination
+     * map value. Both values are expected to be initialized by {@link #computeFirst(MapValue, Record)}
+     * calls. Must be implemented by functions that support parallel execution.
+     *
+     * @param destValue destination map value
+     * @param srcValue  source map value
+     */
+    default void merge(MapValue destValue, MapValue srcValue) {
+        throw new UnsupportedOperationException();
+    }
+
     void pushValueTypes(ArrayColumnTypes columnTypes);
 
+    /**
+     * Called on per-worker copies of the function after {@link #enableParallelism()}.
+     * {@link #merge(MapValue, MapValue)} is always called on the owner copy, so functions
+     * that keep part of their state outside of map values use this call to make the state
+     * of worker copies reachable from the owner copy.
+     *
+     * @param ownerFunction owner copy of the function
+     */
+    default void setParallelOwner(GroupByFunction ownerFunction) {
+    }
+
     default void setByte(MapValue mapValue, byte value) {
         throw new UnsupportedOperationException();
     }
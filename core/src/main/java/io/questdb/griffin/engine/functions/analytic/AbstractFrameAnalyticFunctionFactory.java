@@ -0,0 +1,103 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Function;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+
+/**
+ * Base class for aggregate functions evaluated over a window frame, e.g.
+ * <code>avg(price) over (partition by symbol order by ts rows between 10 preceding and current row)</code>
+ */
+public abstract class AbstractFrameAnalyticFunctionFactory implements FunctionFactory {
+
+    @Override
+    public boolean isWindow() {
+        return true;
+    }
+
+    static AnalyticContext checkContext(int position, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        final AnalyticContext analyticContext = sqlExecutionContext.getAnalyticContext();
+        if (analyticContext.isEmpty()) {
+            throw SqlException.$(position, "analytic function called in non-analytic context, make sure to add OVER clause");
+        }
+        return analyticContext;
+    }
+
+    static AnalyticContext checkFrame(int position, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        final AnalyticContext analyticContext = checkContext(position, sqlExecutionContext);
+        final long hi = analyticContext.getRowsHi();
+        if (hi == Long.MAX_VALUE) {
+            if (analyticContext.getRowsLo() != Long.MIN_VALUE) {
+                throw SqlException.$(analyticContext.getRowsHiKindPos(), "frame ending with UNBOUNDED FOLLOWING must start with UNBOUNDED PRECEDING");
+            }
+        } else if (hi > 0) {
+            throw SqlException.$(analyticContext.getRowsHiKindPos(), "frame ending with FOLLOWING offset is not supported");
+        }
+        return analyticContext;
+    }
+
+    /**
+     * Validates lag() and lead() style arguments: value, optional constant offset and optional default value.
+     *
+     * @return default value function, null constant when not provided
+     */
+    static Function getDefaultValue(ObjList<Function> args, IntList argPositions) throws SqlException {
+        if (args.size() > 3) {
+            throw SqlException.$(argPositions.getQuick(3), "too many arguments");
+        }
+        if (args.size() < 3) {
+            return null;
+        }
+        final Function defaultValue = args.getQuick(2);
+        final int type = defaultValue.getType();
+        if (!ColumnType.isDouble(type) && !ColumnType.isBuiltInWideningCast(type, ColumnType.DOUBLE)) {
+            throw SqlException.$(argPositions.getQuick(2), "numeric default value expected");
+        }
+        return defaultValue;
+    }
+
+    static long getOffset(ObjList<Function> args, IntList argPositions) throws SqlException {
+        if (args.size() < 2) {
+            return 1;
+        }
+        final Function offset = args.getQuick(1);
+        final int tag = ColumnType.tagOf(offset.getType());
+        if (!offset.isConstant() || (tag != ColumnType.BYTE && tag != ColumnType.SHORT && tag != ColumnType.INT && tag != ColumnType.LONG)) {
+            throw SqlException.$(argPositions.getQuick(1), "integer constant expected");
+        }
+        final long value = offset.getLong(null);
+        if (value < 0) {
+            throw SqlException.$(argPositions.getQuick(1), "non-negative offset expected");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,670 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.AnalyticSPI;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.sql.VirtualRecord;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.griffin.engine.groupby.SimpleMapValue;
+import io.questdb.griffin.model.AnalyticColumn;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Maintains aggregate value over a sliding window frame, e.g. ROWS BETWEEN 10 PRECEDING AND CURRENT ROW
+ * or RANGE BETWEEN '1' HOUR PRECEDING AND CURRENT ROW, for each partition. Rows are expected to arrive in
+ * the frame order, i.e. ordered by the designated timestamp for RANGE frames.
+ * <p>
+ * Each partition has a ring buffer of (key, value) entries, where key is either row number within
+ * the partition (ROWS) or row timestamp (RANGE). The buffer holds rows that are in the frame and rows that
+ * are yet to enter the frame (when frame ends before the current row). Ring buffers of all partitions share
+ * single off-heap memory block. Frames starting with UNBOUNDED PRECEDING and ending at CURRENT ROW do not
+ * need the buffer at all.
+ * <p>
+ * SUM, AVG and COUNT are updated incrementally as rows enter and leave the frame, MIN and MAX rescan the frame.
+ * <p>
+ * RANGE frames ending at CURRENT ROW include the peers of the current row, i.e. rows with the same ORDER BY
+ * values that come after it. Such frames are computed over cached input: offsets of the current peer group are
+ * collected and the values are written once the group ends, see {@link #computePeer(Record, long, AnalyticSPI, int)}.
+ */
+class AnalyticFrameAggregator implements Closeable {
+    static final int AVG = 0;
+    static final int COUNT = 1;
+    static final int COUNT_ROWS = 2;
+    static final int FIRST_VALUE = 3;
+    static final int LAST_VALUE = 4;
+    static final int MAX = 5;
+    static final int MIN = 6;
+    static final int SUM = 7;
+    private static final int ENTRY_SIZE = 2 * Long.BYTES;
+    private static final int INITIAL_CAPACITY = 16;
+    // partition state slots
+    private static final int SLOT_ACC = 0;
+    private static final int SLOT_BUF_CAPACITY = 5;
+    private static final int SLOT_BUF_HEAD = 6;
+    private static final int SLOT_BUF_OFFSET = 4;
+    private static final int SLOT_BUF_SIZE = 7;
+    private static final int SLOT_FRAME_SIZE = 8;
+    private static final int SLOT_NON_NULL = 1;
+    private static final int SLOT_ROWS = 2;
+    private static final int SLOT_ROW_NUM = 3;
+    private static final ArrayColumnTypes VALUE_TYPES = new ArrayColumnTypes();
+    private final Function arg;
+    private final MemoryCARW buffer;
+    private final int framingMode;
+    private final long hi;
+    private final int kind;
+    private final long lo;
+    private final Map map;
+    private final String name;
+    private final VirtualRecord partitionByRecord;
+    private final boolean peerAware;
+    private final DirectLongList peerOffsets;
+    private final RecordSink partitionBySink;
+    private final SimpleMapValue simpleValue;
+    private final int timestampIndex;
+    private long count;
+    private long frameRows;
+    private long peerGroup;
+    private RecordComparator peerComparator;
+    private AnalyticSPI peerSpi;
+    private double result;
+    private boolean simpleValueInitialized;
+
+    AnalyticFrameAggregator(
+            CairoConfiguration configuration,
+            AnalyticContext analyticContext,
+            String name,
+            int kind,
+            @Nullable Function arg
+    ) {
+        this(
+                configuration,
+                analyticContext,
+                name,
+                kind,
+                arg,
+                analyticContext.getFramingMode(),
+                analyticContext.getRowsLo(),
+                analyticContext.getRowsHi()
+        );
+    }
+
+    AnalyticFrameAggregator(
+            CairoConfiguration configuration,
+            AnalyticContext analyticContext,
+            String name,
+            int kind,
+            @Nullable Function arg,
+            int framingMode,
+            long lo,
+            long hi
+    ) {
+        this.name = name;
+        this.kind = kind;
+        this.arg = arg;
+        this.framingMode = framingMode;
+        this.lo = lo;
+        this.hi = hi;
+        this.timestampIndex = analyticContext.getTimestampIndex();
+        this.partitionByRecord = analyticContext.getPartitionByRecord();
+        this.partitionBySink = analyticContext.getPartitionBySink();
+        if (partitionByRecord != null) {
+            this.map = MapFactory.createMap(configuration, analyticContext.getPartitionByKeyTypes(), VALUE_TYPES);
+            this.simpleValue = null;
+        } else {
+            this.map = null;
+            this.simpleValue = new SimpleMapValue(VALUE_TYPES.getColumnCount());
+        }
+        this.buffer = isBufferless() ? null : Vm.getCARWInstance(
+                configuration.getSqlAnalyticStorePageSize(),
+                configuration.getSqlAnalyticStoreMaxPages(),
+                MemoryTag.NATIVE_ANALYTIC
+        );
+        this.peerAware = framingMode == AnalyticColumn.FRAMING_RANGE && hi == 0 && analyticContext.isOrdered();
+        this.peerOffsets = peerAware ? new DirectLongList(INITIAL_CAPACITY, MemoryTag.NATIVE_ANALYTIC) : null;
+    }
+
+    /**
+     * Adds record to the partition aggregate without producing a value, used when frame spans
+     * the whole partition. Result is available via {@link #computeWholePartition(Record)} once all rows are seen.
+     *
+     * @param record partition row
+     */
+    public void accumulate(Record record) {
+        add(partitionValue(record), getArgValue(record));
+    }
+
+    @Override
+    public void close() {
+        Misc.free(map);
+        Misc.free(buffer);
+        Misc.free(peerOffsets);
+        Misc.free(arg);
+        if (partitionByRecord != null) {
+            Misc.freeObjList(partitionByRecord.getFunctions());
+        }
+    }
+
+    public void computeNext(Record record) {
+        final MapValue value = partitionValue(record);
+        final double d = getArgValue(record);
+        if (lo == Long.MIN_VALUE && hi == 0) {
+            // running aggregate, every row enters the frame immediately and never leaves
+            add(value, d);
+            setResult(value);
+            return;
+        }
+
+        final long key = nextKey(value, record);
+        push(value, key, d);
+        final long frameLo = saturatingAdd(key, lo);
+        final long frameHi = saturatingAdd(key, hi);
+        final long offset = value.getLong(SLOT_BUF_OFFSET);
+        final long mask = value.getLong(SLOT_BUF_CAPACITY) - 1;
+        long head = value.getLong(SLOT_BUF_HEAD);
+        long size = value.getLong(SLOT_BUF_SIZE);
+
+        if (lo == Long.MIN_VALUE) {
+            // frame ends before the current row; buffer holds rows yet to enter the frame
+            while (size > 0) {
+                final long address = buffer.addressOf(offset + head * ENTRY_SIZE);
+                if (Unsafe.getUnsafe().getLong(address) > frameHi) {
+                    break;
+                }
+                add(value, Unsafe.getUnsafe().getDouble(address + Long.BYTES));
+                head = (head + 1) & mask;
+                size--;
+            }
+            value.putLong(SLOT_BUF_HEAD, head);
+            value.putLong(SLOT_BUF_SIZE, size);
+            setResult(value);
+            return;
+        }
+
+        // bounded frame; first frameSize buffer entries are in the frame, the rest are yet to enter it
+        final boolean invertible = isInvertible();
+        long frameSize = value.getLong(SLOT_FRAME_SIZE);
+        while (size > 0) {
+            final long address = buffer.addressOf(offset + head * ENTRY_SIZE);
+            if (Unsafe.getUnsafe().getLong(address) >= frameLo) {
+                break;
+            }
+            if (frameSize > 0) {
+                if (invertible) {
+                    remove(value, Unsafe.getUnsafe().getDouble(address + Long.BYTES));
+                }
+                frameSize--;
+            }
+            head = (head + 1) & mask;
+            size--;
+        }
+        while (frameSize < size) {
+            final long address = buffer.addressOf(offset + ((head + frameSize) & mask) * ENTRY_SIZE);
+            if (Unsafe.getUnsafe().getLong(address) > frameHi) {
+                break;
+            }
+            if (invertible) {
+                add(value, Unsafe.getUnsafe().getDouble(address + Long.BYTES));
+            }
+            frameSize++;
+        }
+        value.putLong(SLOT_BUF_HEAD, head);
+        value.putLong(SLOT_BUF_SIZE, size);
+        value.putLong(SLOT_FRAME_SIZE, frameSize);
+
+        if (invertible) {
+            setResult(value);
+        } else {
+            scanFrame(offset, head, mask, frameSize);
+        }
+    }
+
+    /**
+     * Adds cached record to the frame of a peer-aware function. Values are written to the record chain
+     * once the peer group of the record ends, so the chain must be iterated in the frame order.
+     *
+     * @param record       current record
+     * @param recordOffset offset of the record in the chain
+     * @param spi          record chain
+     * @param columnIndex  index of the function column in the chain
+     */
+    public void computePeer(Record record, long recordOffset, AnalyticSPI spi, int columnIndex) {
+        if (peerOffsets.size() > 0) {
+            if (peerComparator != null) {
+                peerComparator.setLeft(record);
+                if (peerComparator.compare(spi.getRecordAt(peerOffsets.get(0))) != 0) {
+                    flushPeers(spi, columnIndex);
+                    peerGroup++;
+                }
+            } else {
+                flushPeers(spi, columnIndex);
+                peerGroup++;
+            }
+        }
+        peerSpi = spi;
+        computeNext(record);
+        peerOffsets.add(recordOffset);
+    }
+
+    public void computeWholePartition(Record record) {
+        setResult(partitionValue(record));
+    }
+
+    /**
+     * Writes values of the last peer group, called once all rows are seen by {@link #computePeer(Record, long, AnalyticSPI, int)}.
+     *
+     * @param columnIndex index of the function column in the record chain
+     */
+    public void flushPeers(int columnIndex) {
+        if (peerSpi != null) {
+            flushPeers(peerSpi, columnIndex);
+        }
+    }
+
+    public double getDouble() {
+        return result;
+    }
+
+    public long getLong() {
+        return count;
+    }
+
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        if (arg != null) {
+            arg.init(symbolTableSource, executionContext);
+        }
+        if (partitionByRecord != null) {
+            Function.init(partitionByRecord.getFunctions(), symbolTableSource, executionContext);
+        }
+    }
+
+    /**
+     * @return true when the last computed frame has no rows
+     */
+    public boolean isFrameEmpty() {
+        return frameRows == 0;
+    }
+
+    /**
+     * @return true when the frame ends at the current row's last peer, such frames cannot be streamed
+     */
+    public boolean isPeerAware() {
+        return peerAware;
+    }
+
+    public boolean isWholePartition() {
+        return lo == Long.MIN_VALUE && hi == Long.MAX_VALUE;
+    }
+
+    public void reopen() {
+        if (map != null) {
+            map.reopen();
+        }
+        if (peerOffsets != null) {
+            peerOffsets.reopen();
+        }
+        resetPeers();
+        simpleValueInitialized = false;
+    }
+
+    public void reset() {
+        if (map != null) {
+            map.close();
+        }
+        if (buffer != null) {
+            buffer.close();
+        }
+        if (peerOffsets != null) {
+            peerOffsets.close();
+        }
+        resetPeers();
+        simpleValueInitialized = false;
+    }
+
+    public void setPeerComparator(RecordComparator peerComparator) {
+        this.peerComparator = peerComparator;
+    }
+
+    public void toPlan(PlanSink sink) {
+        sink.val(name).val('(');
+        if (arg != null) {
+            sink.val(arg);
+        }
+        sink.val(')');
+        overToPlan(sink, true);
+    }
+
+    public void overToPlan(PlanSink sink, boolean includeFrame) {
+        sink.val(" over (");
+        if (partitionByRecord != null) {
+            sink.val("partition by ").val(partitionByRecord.getFunctions());
+            if (includeFrame) {
+                sink.val(' ');
+            }
+        }
+        if (includeFrame) {
+            sink.val(framingMode == AnalyticColumn.FRAMING_ROWS ? "rows" : "range").val(" between ");
+            boundToPlan(sink, lo);
+            sink.val(" and ");
+            boundToPlan(sink, hi);
+        }
+        sink.val(')');
+    }
+
+    public void toTop() {
+        if (map != null) {
+            map.clear();
+        }
+        if (buffer != null) {
+            buffer.truncate();
+        }
+        if (peerOffsets != null) {
+            peerOffsets.clear();
+        }
+        resetPeers();
+        simpleValueInitialized = false;
+    }
+
+    private static void boundToPlan(PlanSink sink, long bound) {
+        if (bound == Long.MIN_VALUE) {
+            sink.val("unbounded preceding");
+        } else if (bound == Long.MAX_VALUE) {
+            sink.val("unbounded following");
+        } else if (bound == 0) {
+            sink.val("current row");
+        } else if (bound < 0) {
+            sink.val(-bound).val(" preceding");
+        } else {
+            sink.val(bound).val(" following");
+        }
+    }
+
+    private static long saturatingAdd(long key, long offset) {
+        final long r = key + offset;
+        // offsets are never positive at the moment, guard against underflow only
+        return offset < 0 && r > key ? Long.MIN_VALUE : r;
+    }
+
+    private void add(MapValue value, double d) {
+        final long rows = value.getLong(SLOT_ROWS);
+        final long nonNull = value.getLong(SLOT_NON_NULL);
+        final boolean isNull = Double.isNaN(d);
+        switch (kind) {
+            case FIRST_VALUE:
+                if (rows == 0) {
+                    value.putDouble(SLOT_ACC, d);
+                }
+                break;
+            case LAST_VALUE:
+                value.putDouble(SLOT_ACC, d);
+                break;
+            case MIN:
+                if (!isNull && (nonNull == 0 || d < value.getDouble(SLOT_ACC))) {
+                    value.putDouble(SLOT_ACC, d);
+                }
+                break;
+            case MAX:
+                if (!isNull && (nonNull == 0 || d > value.getDouble(SLOT_ACC))) {
+                    value.putDouble(SLOT_ACC, d);
+                }
+                break;
+            case AVG:
+            case SUM:
+                if (!isNull) {
+                    value.addDouble(SLOT_ACC, d);
+                }
+                break;
+            default:
+                break;
+        }
+        value.putLong(SLOT_ROWS, rows + 1);
+        if (!isNull) {
+            value.putLong(SLOT_NON_NULL, nonNull + 1);
+        }
+    }
+
+    private void computeCurrent(MapValue value) {
+        if (buffer == null || isInvertible()) {
+            setResult(value);
+        } else {
+            scanFrame(
+                    value.getLong(SLOT_BUF_OFFSET),
+                    value.getLong(SLOT_BUF_HEAD),
+                    value.getLong(SLOT_BUF_CAPACITY) - 1,
+                    value.getLong(SLOT_FRAME_SIZE)
+            );
+        }
+    }
+
+    private void flushPeers(AnalyticSPI spi, int columnIndex) {
+        // all peers have entered their partition frames, frame state is the same for each of them
+        for (long i = 0, n = peerOffsets.size(); i < n; i++) {
+            final long offset = peerOffsets.get(i);
+            computeCurrent(partitionValue(spi.getRecordAt(offset)));
+            putResult(spi.getAddress(offset, columnIndex));
+        }
+        peerOffsets.clear();
+    }
+
+    private double getArgValue(Record record) {
+        return arg != null ? arg.getDouble(record) : 0;
+    }
+
+    private boolean isBufferless() {
+        return lo == Long.MIN_VALUE && (hi == 0 || hi == Long.MAX_VALUE);
+    }
+
+    private boolean isInvertible() {
+        return kind == AVG || kind == SUM || kind == COUNT || kind == COUNT_ROWS;
+    }
+
+    private long nextKey(MapValue value, Record record) {
+        if (framingMode == AnalyticColumn.FRAMING_ROWS) {
+            final long rowNum = value.getLong(SLOT_ROW_NUM);
+            value.putLong(SLOT_ROW_NUM, rowNum + 1);
+            return rowNum;
+        }
+        // peers share the key, so RANGE frames without a timestamp order are keyed by peer group
+        return timestampIndex != -1 ? record.getTimestamp(timestampIndex) : peerGroup;
+    }
+
+    private MapValue partitionValue(Record record) {
+        final MapValue value;
+        if (map != null) {
+            partitionByRecord.of(record);
+            final MapKey key = map.withKey();
+            key.put(partitionByRecord, partitionBySink);
+            value = key.createValue();
+            if (!value.isNew()) {
+                return value;
+            }
+        } else {
+            value = simpleValue;
+            if (simpleValueInitialized) {
+                return value;
+            }
+            simpleValueInitialized = true;
+        }
+        value.putDouble(SLOT_ACC, 0);
+        value.putLong(SLOT_NON_NULL, 0);
+        value.putLong(SLOT_ROWS, 0);
+        value.putLong(SLOT_ROW_NUM, 0);
+        value.putLong(SLOT_BUF_OFFSET, -1);
+        value.putLong(SLOT_BUF_CAPACITY, 0);
+        value.putLong(SLOT_BUF_HEAD, 0);
+        value.putLong(SLOT_BUF_SIZE, 0);
+        value.putLong(SLOT_FRAME_SIZE, 0);
+        return value;
+    }
+
+    private void push(MapValue value, long key, double d) {
+        long offset = value.getLong(SLOT_BUF_OFFSET);
+        long capacity = value.getLong(SLOT_BUF_CAPACITY);
+        long head = value.getLong(SLOT_BUF_HEAD);
+        final long size = value.getLong(SLOT_BUF_SIZE);
+        if (size == capacity) {
+            // grow the ring by moving it to the end of the buffer; old region is abandoned until toTop()
+            final long newCapacity = capacity == 0 ? INITIAL_CAPACITY : capacity * 2;
+            final long newOffset = buffer.getAppendOffset();
+            buffer.appendAddressFor(newCapacity * ENTRY_SIZE);
+            if (size > 0) {
+                final long tailLen = Math.min(size, capacity - head);
+                Vect.memcpy(buffer.addressOf(newOffset), buffer.addressOf(offset + head * ENTRY_SIZE), tailLen * ENTRY_SIZE);
+                if (tailLen < size) {
+                    Vect.memcpy(buffer.addressOf(newOffset + tailLen * ENTRY_SIZE), buffer.addressOf(offset), (size - tailLen) * ENTRY_SIZE);
+                }
+            }
+            offset = newOffset;
+            capacity = newCapacity;
+            head = 0;
+            value.putLong(SLOT_BUF_OFFSET, offset);
+            value.putLong(SLOT_BUF_CAPACITY, capacity);
+            value.putLong(SLOT_BUF_HEAD, head);
+        }
+        final long address = buffer.addressOf(offset + ((head + size) & (capacity - 1)) * ENTRY_SIZE);
+        Unsafe.getUnsafe().putLong(address, key);
+        Unsafe.getUnsafe().putDouble(address + Long.BYTES, d);
+        value.putLong(SLOT_BUF_SIZE, size + 1);
+    }
+
+    private void putResult(long address) {
+        if (kind == COUNT || kind == COUNT_ROWS) {
+            Unsafe.getUnsafe().putLong(address, count);
+        } else {
+            Unsafe.getUnsafe().putDouble(address, result);
+        }
+    }
+
+    private void remove(MapValue value, double d) {
+        value.putLong(SLOT_ROWS, value.getLong(SLOT_ROWS) - 1);
+        if (!Double.isNaN(d)) {
+            final long nonNull = value.getLong(SLOT_NON_NULL) - 1;
+            value.putLong(SLOT_NON_NULL, nonNull);
+            if (nonNull == 0) {
+                // avoid accumulating rounding error once the frame runs empty
+                value.putDouble(SLOT_ACC, 0);
+            } else {
+                value.addDouble(SLOT_ACC, -d);
+            }
+        }
+    }
+
+    private void resetPeers() {
+        peerGroup = 0;
+        peerSpi = null;
+    }
+
+    private void scanFrame(long offset, long head, long mask, long frameSize) {
+        long nonNull = 0;
+        double acc = Double.NaN;
+        for (long i = 0; i < frameSize; i++) {
+            final double d = Unsafe.getUnsafe().getDouble(buffer.addressOf(offset + ((head + i) & mask) * ENTRY_SIZE) + Long.BYTES);
+            switch (kind) {
+                case FIRST_VALUE:
+                    if (i == 0) {
+                        acc = d;
+                    }
+                    break;
+                case LAST_VALUE:
+                    acc = d;
+                    break;
+                case MIN:
+                    if (!Double.isNaN(d) && (nonNull == 0 || d < acc)) {
+                        acc = d;
+                    }
+                    break;
+                default:
+                    if (!Double.isNaN(d) && (nonNull == 0 || d > acc)) {
+                        acc = d;
+                    }
+                    break;
+            }
+            if (!Double.isNaN(d)) {
+                nonNull++;
+            }
+        }
+        frameRows = frameSize;
+        result = acc;
+    }
+
+    private void setResult(MapValue value) {
+        final long nonNull = value.getLong(SLOT_NON_NULL);
+        frameRows = value.getLong(SLOT_ROWS);
+        switch (kind) {
+            case AVG:
+                result = nonNull > 0 ? value.getDouble(SLOT_ACC) / nonNull : Double.NaN;
+                break;
+            case COUNT:
+                count = nonNull;
+                break;
+            case COUNT_ROWS:
+                count = frameRows;
+                break;
+            case FIRST_VALUE:
+            case LAST_VALUE:
+                result = frameRows > 0 ? value.getDouble(SLOT_ACC) : Double.NaN;
+                break;
+            default:
+                result = nonNull > 0 ? value.getDouble(SLOT_ACC) : Double.NaN;
+                break;
+        }
+    }
+
+    static {
+        VALUE_TYPES.add(ColumnType.DOUBLE); // acc
+        VALUE_TYPES.add(ColumnType.LONG); // non-null count
+        VALUE_TYPES.add(ColumnType.LONG); // row count in frame
+        VALUE_TYPES.add(ColumnType.LONG); // row number
+        VALUE_TYPES.add(ColumnType.LONG); // buffer offset
+        VALUE_TYPES.add(ColumnType.LONG); // buffer capacity
+        VALUE_TYPES.add(ColumnType.LONG); // buffer head
+        VALUE_TYPES.add(ColumnType.LONG); // buffer size
+        VALUE_TYPES.add(ColumnType.LONG); // frame size
+    }
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.sql.AnalyticSPI;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.ScalarFunction;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticFunction;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
+import io.questdb.std.IntList;
+import io.questdb.std.Unsafe;
+
+/**
+ * Double-valued analytic function computed over a window frame, e.g. avg() or first_value().
+ */
+class DoubleFrameAnalyticFunction extends DoubleFunction implements ScalarFunction, AnalyticFunction, Reopenable {
+    protected final AnalyticFrameAggregator aggregator;
+    private int columnIndex;
+
+    DoubleFrameAnalyticFunction(AnalyticFrameAggregator aggregator) {
+        this.aggregator = aggregator;
+    }
+
+    @Override
+    public void close() {
+        aggregator.close();
+    }
+
+    @Override
+    public void computeNext(Record record) {
+        aggregator.computeNext(record);
+    }
+
+    @Override
+    public double getDouble(Record rec) {
+        return aggregator.getDouble();
+    }
+
+    @Override
+    public int getPassCount() {
+        return aggregator.isWholePartition() || aggregator.isPeerAware() ? THREE_PASS : STREAM;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        aggregator.init(symbolTableSource, executionContext);
+    }
+
+    @Override
+    public void initRecordComparator(RecordComparatorCompiler recordComparatorCompiler, ArrayColumnTypes chainTypes, IntList order) {
+        if (aggregator.isPeerAware()) {
+            aggregator.setPeerComparator(recordComparatorCompiler.compile(chainTypes, order));
+        }
+    }
+
+    @Override
+    public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
+        if (aggregator.isWholePartition()) {
+            aggregator.accumulate(record);
+        } else if (aggregator.isPeerAware()) {
+            aggregator.computePeer(record, recordOffset, spi, columnIndex);
+        } else {
+            computeNext(record);
+            Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), getDouble(record));
+        }
+    }
+
+    @Override
+    public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
+        if (aggregator.isPeerAware()) {
+            // values are written by pass1 and preparePass2
+            return;
+        }
+        aggregator.computeWholePartition(record);
+        Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), getDouble(record));
+    }
+
+    @Override
+    public void preparePass2(RecordCursor cursor) {
+        aggregator.flushPeers(columnIndex);
+    }
+
+    @Override
+    public void reopen() {
+        aggregator.reopen();
+    }
+
+    @Override
+    public void reset() {
+        aggregator.reset();
+    }
+
+    @Override
+    public void setColumnIndex(int columnIndex) {
+        this.columnIndex = columnIndex;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        aggregator.toPlan(sink);
+    }
+
+    @Override
+    public void toTop() {
+        aggregator.toTop();
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.model.AnalyticColumn;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+
+/**
+ * lag(value [, offset [, default]]) - value of the row that is offset rows before the current row
+ * within the partition, or the default value (null unless specified) when there is no such row.
+ * Window frame, if specified, is ignored.
+ */
+public class LagDoubleAnalyticFunctionFactory extends AbstractFrameAnalyticFunctionFactory {
+    private static final String NAME = "lag";
+
+    @Override
+    public String getSignature() {
+        return NAME + "(DV)";
+    }
+
+    @Override
+    public Function newInstance(
+            int position,
+            ObjList<Function> args,
+            IntList argPositions,
+            CairoConfiguration configuration,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        final long offset = getOffset(args, argPositions);
+        final Function defaultValue = getDefaultValue(args, argPositions);
+        return new LagFunction(
+                new AnalyticFrameAggregator(
+                        configuration,
+                        checkContext(position, sqlExecutionContext),
+                        NAME,
+                        AnalyticFrameAggregator.FIRST_VALUE,
+                        args.getQuick(0),
+                        AnalyticColumn.FRAMING_ROWS,
+                        -offset,
+                        -offset
+                ),
+                args.getQuick(0),
+                offset,
+                defaultValue
+        );
+    }
+
+    private static class LagFunction extends DoubleFrameAnalyticFunction {
+        private final Function arg;
+        private final Function defaultValue;
+        private final long offset;
+        private double value;
+
+        public LagFunction(AnalyticFrameAggregator aggregator, Function arg, long offset, Function defaultValue) {
+            super(aggregator);
+            this.arg = arg;
+            this.offset = offset;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            Misc.free(defaultValue);
+        }
+
+        @Override
+        public void computeNext(Record record) {
+            aggregator.computeNext(record);
+            if (!aggregator.isFrameEmpty()) {
+                value = aggregator.getDouble();
+            } else {
+                value = defaultValue != null ? defaultValue.getDouble(record) : Double.NaN;
+            }
+        }
+
+        @Override
+        public double getDouble(Record rec) {
+            return value;
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            super.init(symbolTableSource, executionContext);
+            if (defaultValue != null) {
+                defaultValue.init(symbolTableSource, executionContext);
+            }
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(NAME).val('(').val(arg).val(',').val(offset);
+            if (defaultValue != null) {
+                sink.val(',').val(defaultValue);
+            }
+            sink.val(')');
+            aggregator.overToPlan(sink, false);
+        }
+    }
+}
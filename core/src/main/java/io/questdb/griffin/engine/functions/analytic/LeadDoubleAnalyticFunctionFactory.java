@@ -0,0 +1,255 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.analytic;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.analytic.AnalyticContext;
+import io.questdb.griffin.engine.analytic.AnalyticFunction;
+import io.questdb.griffin.engine.functions.DoubleFunction;
+import io.questdb.griffin.engine.groupby.SimpleMapValue;
+import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
+import io.questdb.std.*;
+
+/**
+ * lead(value [, offset [, default]]) - value of the row that is offset rows after the current row
+ * within the partition, or the default value (null unless specified) when there is no such row.
+ * Window frame, if specified, is ignored.
+ * <p>
+ * Input is cached; each partition keeps a ring of the last offset record chain offsets, so that
+ * the value of the current row can be written to the row offset rows back.
+ */
+public class LeadDoubleAnalyticFunctionFactory extends AbstractFrameAnalyticFunctionFactory {
+    private static final String NAME = "lead";
+    private static final ArrayColumnTypes VALUE_TYPES = new ArrayColumnTypes();
+
+    @Override
+    public String getSignature() {
+        return NAME + "(DV)";
+    }
+
+    @Override
+    public Function newInstance(
+            int position,
+            ObjList<Function> args,
+            IntList argPositions,
+            CairoConfiguration configuration,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        final long offset = getOffset(args, argPositions);
+        final Function defaultValue = getDefaultValue(args, argPositions);
+        final AnalyticContext analyticContext = checkContext(position, sqlExecutionContext);
+        Map map = null;
+        if (analyticContext.getPartitionByRecord() != null) {
+            map = MapFactory.createMap(configuration, analyticContext.getPartitionByKeyTypes(), VALUE_TYPES);
+        }
+        return new LeadFunction(
+                configuration,
+                map,
+                analyticContext.getPartitionByRecord(),
+                analyticContext.getPartitionBySink(),
+                args.getQuick(0),
+                offset,
+                defaultValue
+        );
+    }
+
+    private static class LeadFunction extends DoubleFunction implements ScalarFunction, AnalyticFunction, Reopenable {
+        private final Function arg;
+        private final Function defaultValue;
+        private final Map map;
+        private final long offset;
+        private final VirtualRecord partitionByRecord;
+        private final RecordSink partitionBySink;
+        private final MemoryCARW rings;
+        private final SimpleMapValue simpleValue;
+        private int columnIndex;
+        private boolean simpleValueInitialized;
+
+        public LeadFunction(
+                CairoConfiguration configuration,
+                Map map,
+                VirtualRecord partitionByRecord,
+                RecordSink partitionBySink,
+                Function arg,
+                long offset,
+                Function defaultValue
+        ) {
+            this.map = map;
+            this.partitionByRecord = partitionByRecord;
+            this.partitionBySink = partitionBySink;
+            this.arg = arg;
+            this.offset = offset;
+            this.defaultValue = defaultValue;
+            this.simpleValue = map == null ? new SimpleMapValue(VALUE_TYPES.getColumnCount()) : null;
+            this.rings = Vm.getCARWInstance(
+                    configuration.getSqlAnalyticStorePageSize(),
+                    configuration.getSqlAnalyticStoreMaxPages(),
+                    MemoryTag.NATIVE_ANALYTIC
+            );
+        }
+
+        @Override
+        public void close() {
+            Misc.free(map);
+            Misc.free(rings);
+            Misc.free(arg);
+            Misc.free(defaultValue);
+            if (partitionByRecord != null) {
+                Misc.freeObjList(partitionByRecord.getFunctions());
+            }
+        }
+
+        @Override
+        public double getDouble(Record rec) {
+            // not called
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            arg.init(symbolTableSource, executionContext);
+            if (defaultValue != null) {
+                defaultValue.init(symbolTableSource, executionContext);
+            }
+            if (partitionByRecord != null) {
+                Function.init(partitionByRecord.getFunctions(), symbolTableSource, executionContext);
+            }
+        }
+
+        @Override
+        public void initRecordComparator(RecordComparatorCompiler recordComparatorCompiler, ArrayColumnTypes chainTypes, IntList order) {
+        }
+
+        @Override
+        public void pass1(Record record, long recordOffset, AnalyticSPI spi) {
+            final double d = arg.getDouble(record);
+            if (offset == 0) {
+                Unsafe.getUnsafe().putDouble(spi.getAddress(recordOffset, columnIndex), d);
+                return;
+            }
+            // the value stays unless there is a row offset rows ahead in the partition
+            Unsafe.getUnsafe().putDouble(
+                    spi.getAddress(recordOffset, columnIndex),
+                    defaultValue != null ? defaultValue.getDouble(record) : Double.NaN
+            );
+
+            final MapValue value = partitionValue(record);
+            final long count = value.getLong(0);
+            final long slotAddress = rings.addressOf(value.getLong(1) + (count % offset) * Long.BYTES);
+            if (count >= offset) {
+                Unsafe.getUnsafe().putDouble(spi.getAddress(Unsafe.getUnsafe().getLong(slotAddress), columnIndex), d);
+            }
+            Unsafe.getUnsafe().putLong(slotAddress, recordOffset);
+            value.putLong(0, count + 1);
+        }
+
+        @Override
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
+        }
+
+        @Override
+        public void preparePass2(RecordCursor cursor) {
+        }
+
+        @Override
+        public void reopen() {
+            if (map != null) {
+                map.reopen();
+            }
+            simpleValueInitialized = false;
+        }
+
+        @Override
+        public void reset() {
+            if (map != null) {
+                map.close();
+            }
+            rings.close();
+            simpleValueInitialized = false;
+        }
+
+        @Override
+        public void setColumnIndex(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(NAME).val('(').val(arg).val(',').val(offset);
+            if (defaultValue != null) {
+                sink.val(',').val(defaultValue);
+            }
+            sink.val(") over (");
+            if (partitionByRecord != null) {
+                sink.val("partition by ").val(partitionByRecord.getFunctions());
+            }
+            sink.val(')');
+        }
+
+        private MapValue partitionValue(Record record) {
+            final MapValue value;
+            if (map != null) {
+                partitionByRecord.of(record);
+                final MapKey key = map.withKey();
+                key.put(partitionByRecord, partitionBySink);
+                value = key.createValue();
+                if (!value.isNew()) {
+                    return value;
+                }
+            } else {
+                value = simpleValue;
+                if (simpleValueInitialized) {
+                    return value;
+                }
+                simpleValueInitialized = true;
+            }
+            final long ringOffset = rings.getAppendOffset();
+            rings.appendAddressFor(offset * Long.BYTES);
+            value.putLong(0, 0);
+            value.putLong(1, ringOffset);
+            return value;
+        }
+    }
+
+    static {
+        VALUE_TYPES.add(ColumnType.LONG); // row count
+        VALUE_TYPES.add(ColumnType.LONG); // ring offset
+    }
+}
@@ -135,7 +135,7 @@ public class RankFunctionFactory implements FunctionFactory {
         }
 
         @Override
-        public void pass2(Record record) {
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
         }
 
         @Override
@@ -238,7 +238,7 @@ public class RankFunctionFactory implements FunctionFactory {
         }
 
         @Override
-        public void pass2(Record record) {
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
         }
 
         @Override
@@ -293,7 +293,7 @@ public class RankFunctionFactory implements FunctionFactory {
         }
 
         @Override
-        public void pass2(Record record) {
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
         }
 
         @Override
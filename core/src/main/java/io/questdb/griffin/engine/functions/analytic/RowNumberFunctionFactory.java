@@ -117,7 +117,7 @@ public class RowNumberFunctionFactory implements FunctionFactory {
         }
 
         @Override
-        public void pass2(Record record) {
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
         }
 
         @Override
@@ -190,7 +190,7 @@ public class RowNumberFunctionFactory implements FunctionFactory {
         }
 
         @Override
-        public void pass2(Record record) {
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
         }
 
         @Override
@@ -243,7 +243,7 @@ public class RowNumberFunctionFactory implements FunctionFactory {
         }
 
         @Override
-        public void pass2(Record record) {
+        public void pass2(Record record, long recordOffset, AnalyticSPI spi) {
         }
 
         @Override
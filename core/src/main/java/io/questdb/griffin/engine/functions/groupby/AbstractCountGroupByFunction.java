@@ -59,6 +59,16 @@ public abstract class AbstractCountGroupByFunction extends LongFunction implemen
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        destValue.addLong(valueIndex, srcValue.getLong(valueIndex));
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
@@ -93,6 +93,41 @@ public abstract class AbstractStdDevGroupByFunction extends DoubleFunction imple
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    /**
+     * Combines two partial aggregates using the pairwise update formula of Chan et al.
+     *
+     * @see <a href="https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Parallel_algorithm">Parallel algorithm</a>
+     */
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcCount = srcValue.getLong(valueIndex + 2);
+        if (srcCount == 0) {
+            return;
+        }
+        final double srcMean = srcValue.getDouble(valueIndex);
+        final double srcSum = srcValue.getDouble(valueIndex + 1);
+        final long destCount = destValue.getLong(valueIndex + 2);
+        if (destCount == 0) {
+            destValue.putDouble(valueIndex, srcMean);
+            destValue.putDouble(valueIndex + 1, srcSum);
+            destValue.putLong(valueIndex + 2, srcCount);
+            return;
+        }
+        final double destMean = destValue.getDouble(valueIndex);
+        final double destSum = destValue.getDouble(valueIndex + 1);
+
+        final long count = destCount + srcCount;
+        final double delta = srcMean - destMean;
+        destValue.putDouble(valueIndex, destMean + delta * srcCount / count);
+        destValue.putDouble(valueIndex + 1, destSum + srcSum + delta * delta * ((double) destCount * srcCount / count));
+        destValue.putLong(valueIndex + 2, count);
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
@@ -37,7 +37,11 @@ import io.questdb.std.*;
 public class CountDistinctLong256GroupByFunction extends LongFunction implements UnaryFunction, GroupByFunction {
     private final Function arg;
     private final ObjList<Long256HashSet> sets = new ObjList<>();
+    // per-worker copies of the function, registered with the owner copy for merge()
+    private final ObjList<CountDistinctLong256GroupByFunction> workerFunctions = new ObjList<>();
     private int setIndex;
+    // 0 for the owner copy, position in the owner's list of worker copies plus one otherwise
+    private int setOwnerId;
     private int valueIndex;
 
     public CountDistinctLong256GroupByFunction(Function arg) {
@@ -67,12 +71,12 @@ public class CountDistinctLong256GroupByFunction extends LongFunction implements
         } else {
             mapValue.putLong(valueIndex, 0L);
         }
-        mapValue.putInt(valueIndex + 1, setIndex++);
+        mapValue.putLong(valueIndex + 1, Numbers.encodeLowHighInts(setIndex++, setOwnerId));
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        final Long256HashSet set = sets.getQuick(mapValue.getInt(valueIndex + 1));
+        final Long256HashSet set = sets.getQuick(Numbers.decodeLowInt(mapValue.getLong(valueIndex + 1)));
         final Long256 val = arg.getLong256A(record);
         if (isNotNull(val)) {
             final int index = set.keyIndex(val.getLong0(), val.getLong1(), val.getLong2(), val.getLong3());
@@ -104,16 +108,28 @@ public class CountDistinctLong256GroupByFunction extends LongFunction implements
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
     @Override
     public boolean isReadThreadSafe() {
         return false;
     }
 
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final Long256HashSet destSet = getSet(destValue.getLong(valueIndex + 1));
+        destSet.addAll(getSet(srcValue.getLong(valueIndex + 1)));
+        destValue.putLong(valueIndex, destSet.size());
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.LONG);
-        columnTypes.add(ColumnType.INT);
+        columnTypes.add(ColumnType.LONG);
     }
 
     @Override
@@ -131,6 +147,13 @@ public class CountDistinctLong256GroupByFunction extends LongFunction implements
         mapValue.putLong(valueIndex, Numbers.LONG_NaN);
     }
 
+    @Override
+    public void setParallelOwner(GroupByFunction ownerFunction) {
+        final CountDistinctLong256GroupByFunction owner = (CountDistinctLong256GroupByFunction) ownerFunction;
+        owner.workerFunctions.add(this);
+        setOwnerId = owner.workerFunctions.size();
+    }
+
     @Override
     public void toTop() {
         UnaryFunction.super.toTop();
@@ -144,4 +167,10 @@ public class CountDistinctLong256GroupByFunction extends LongFunction implements
                 value.getLong2() != Numbers.LONG_NaN ||
                 value.getLong3() != Numbers.LONG_NaN);
     }
+
+    private Long256HashSet getSet(long setId) {
+        final int setOwnerId = Numbers.decodeHighInt(setId);
+        final CountDistinctLong256GroupByFunction setOwner = setOwnerId == 0 ? this : workerFunctions.getQuick(setOwnerId - 1);
+        return setOwner.sets.getQuick(Numbers.decodeLowInt(setId));
+    }
 }
@@ -39,7 +39,11 @@ import io.questdb.std.ObjList;
 public class CountDistinctLongGroupByFunction extends LongFunction implements UnaryFunction, GroupByFunction {
     private final Function arg;
     private final ObjList<CompactLongHashSet> sets = new ObjList<>();
+    // per-worker copies of the function, registered with the owner copy for merge()
+    private final ObjList<CountDistinctLongGroupByFunction> workerFunctions = new ObjList<>();
     private int setIndex;
+    // 0 for the owner copy, position in the owner's list of worker copies plus one otherwise
+    private int setOwnerId;
     private int valueIndex;
 
     public CountDistinctLongGroupByFunction(Function arg) {
@@ -69,12 +73,12 @@ public class CountDistinctLongGroupByFunction extends LongFunction implements Un
         } else {
             mapValue.putLong(valueIndex, 0L);
         }
-        mapValue.putInt(valueIndex + 1, setIndex++);
+        mapValue.putLong(valueIndex + 1, Numbers.encodeLowHighInts(setIndex++, setOwnerId));
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        final CompactLongHashSet set = sets.getQuick(mapValue.getInt(valueIndex + 1));
+        final CompactLongHashSet set = sets.getQuick(Numbers.decodeLowInt(mapValue.getLong(valueIndex + 1)));
         final long val = arg.getLong(record);
         if (val != Numbers.LONG_NaN) {
             final int index = set.keyIndex(val);
@@ -106,16 +110,28 @@ public class CountDistinctLongGroupByFunction extends LongFunction implements Un
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
     @Override
     public boolean isReadThreadSafe() {
         return false;
     }
 
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final CompactLongHashSet destSet = getSet(destValue.getLong(valueIndex + 1));
+        destSet.addAll(getSet(srcValue.getLong(valueIndex + 1)));
+        destValue.putLong(valueIndex, destSet.size());
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.LONG);
-        columnTypes.add(ColumnType.INT);
+        columnTypes.add(ColumnType.LONG);
     }
 
     @Override
@@ -133,9 +149,22 @@ public class CountDistinctLongGroupByFunction extends LongFunction implements Un
         mapValue.putLong(valueIndex, Numbers.LONG_NaN);
     }
 
+    @Override
+    public void setParallelOwner(GroupByFunction ownerFunction) {
+        final CountDistinctLongGroupByFunction owner = (CountDistinctLongGroupByFunction) ownerFunction;
+        owner.workerFunctions.add(this);
+        setOwnerId = owner.workerFunctions.size();
+    }
+
     @Override
     public void toTop() {
         UnaryFunction.super.toTop();
         setIndex = 0;
     }
+
+    private CompactLongHashSet getSet(long setId) {
+        final int setOwnerId = Numbers.decodeHighInt(setId);
+        final CountDistinctLongGroupByFunction setOwner = setOwnerId == 0 ? this : workerFunctions.getQuick(setOwnerId - 1);
+        return setOwner.sets.getQuick(Numbers.decodeLowInt(setId));
+    }
 }
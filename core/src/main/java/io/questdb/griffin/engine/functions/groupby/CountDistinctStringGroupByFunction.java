@@ -40,7 +40,11 @@ import io.questdb.std.ObjList;
 public class CountDistinctStringGroupByFunction extends LongFunction implements UnaryFunction, GroupByFunction {
     private final Function arg;
     private final ObjList<CompactCharSequenceHashSet> sets = new ObjList<>();
+    // per-worker copies of the function, registered with the owner copy for merge()
+    private final ObjList<CountDistinctStringGroupByFunction> workerFunctions = new ObjList<>();
     private int setIndex = 0;
+    // 0 for the owner copy, position in the owner's list of worker copies plus one otherwise
+    private int setOwnerId;
     private int valueIndex;
 
     public CountDistinctStringGroupByFunction(Function arg) {
@@ -70,12 +74,12 @@ public class CountDistinctStringGroupByFunction extends LongFunction implements
         } else {
             mapValue.putLong(valueIndex, 0L);
         }
-        mapValue.putInt(valueIndex + 1, setIndex++);
+        mapValue.putLong(valueIndex + 1, Numbers.encodeLowHighInts(setIndex++, setOwnerId));
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        final CompactCharSequenceHashSet set = sets.getQuick(mapValue.getInt(valueIndex + 1));
+        final CompactCharSequenceHashSet set = sets.getQuick(Numbers.decodeLowInt(mapValue.getLong(valueIndex + 1)));
         final CharSequence val = arg.getStr(record);
         if (val != null) {
             final int index = set.keyIndex(val);
@@ -107,16 +111,28 @@ public class CountDistinctStringGroupByFunction extends LongFunction implements
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
     @Override
     public boolean isReadThreadSafe() {
         return false;
     }
 
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final CompactCharSequenceHashSet destSet = getSet(destValue.getLong(valueIndex + 1));
+        destSet.addAll(getSet(srcValue.getLong(valueIndex + 1)));
+        destValue.putLong(valueIndex, destSet.size());
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.LONG);
-        columnTypes.add(ColumnType.INT);
+        columnTypes.add(ColumnType.LONG);
     }
 
     @Override
@@ -134,9 +150,22 @@ public class CountDistinctStringGroupByFunction extends LongFunction implements
         mapValue.putLong(valueIndex, Numbers.LONG_NaN);
     }
 
+    @Override
+    public void setParallelOwner(GroupByFunction ownerFunction) {
+        final CountDistinctStringGroupByFunction owner = (CountDistinctStringGroupByFunction) ownerFunction;
+        owner.workerFunctions.add(this);
+        setOwnerId = owner.workerFunctions.size();
+    }
+
     @Override
     public void toTop() {
         UnaryFunction.super.toTop();
         setIndex = 0;
     }
+
+    private CompactCharSequenceHashSet getSet(long setId) {
+        final int setOwnerId = Numbers.decodeHighInt(setId);
+        final CountDistinctStringGroupByFunction setOwner = setOwnerId == 0 ? this : workerFunctions.getQuick(setOwnerId - 1);
+        return setOwner.sets.getQuick(Numbers.decodeLowInt(setId));
+    }
 }
@@ -31,6 +31,7 @@ import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.LongFunction;
+import io.questdb.griffin.engine.functions.SymbolFunction;
 import io.questdb.griffin.engine.functions.UnaryFunction;
 import io.questdb.std.CompactIntHashSet;
 import io.questdb.std.Numbers;
@@ -41,7 +42,11 @@ import static io.questdb.cairo.sql.SymbolTable.VALUE_IS_NULL;
 public class CountDistinctSymbolGroupByFunction extends LongFunction implements UnaryFunction, GroupByFunction {
     private final Function arg;
     private final ObjList<CompactIntHashSet> sets = new ObjList<>();
+    // per-worker copies of the function, registered with the owner copy for merge()
+    private final ObjList<CountDistinctSymbolGroupByFunction> workerFunctions = new ObjList<>();
     private int setIndex;
+    // 0 for the owner copy, position in the owner's list of worker copies plus one otherwise
+    private int setOwnerId;
     private int valueIndex;
 
     public CountDistinctSymbolGroupByFunction(Function arg) {
@@ -71,12 +76,12 @@ public class CountDistinctSymbolGroupByFunction extends LongFunction implements
         } else {
             mapValue.putLong(valueIndex, 0L);
         }
-        mapValue.putInt(valueIndex + 1, setIndex++);
+        mapValue.putLong(valueIndex + 1, Numbers.encodeLowHighInts(setIndex++, setOwnerId));
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        final CompactIntHashSet set = sets.getQuick(mapValue.getInt(valueIndex + 1));
+        final CompactIntHashSet set = sets.getQuick(Numbers.decodeLowInt(mapValue.getLong(valueIndex + 1)));
         final int val = arg.getInt(record);
         if (val != VALUE_IS_NULL) {
             final int index = set.keyIndex(val);
@@ -108,16 +113,29 @@ public class CountDistinctSymbolGroupByFunction extends LongFunction implements
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        // symbol keys of worker copies must match the keys of the owner copy
+        return arg instanceof SymbolFunction && ((SymbolFunction) arg).isSymbolTableStatic();
+    }
+
     @Override
     public boolean isReadThreadSafe() {
         return false;
     }
 
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final CompactIntHashSet destSet = getSet(destValue.getLong(valueIndex + 1));
+        destSet.addAll(getSet(srcValue.getLong(valueIndex + 1)));
+        destValue.putLong(valueIndex, destSet.size());
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.LONG);
-        columnTypes.add(ColumnType.INT);
+        columnTypes.add(ColumnType.LONG);
     }
 
     @Override
@@ -135,9 +153,22 @@ public class CountDistinctSymbolGroupByFunction extends LongFunction implements
         mapValue.putLong(valueIndex, Numbers.LONG_NaN);
     }
 
+    @Override
+    public void setParallelOwner(GroupByFunction ownerFunction) {
+        final CountDistinctSymbolGroupByFunction owner = (CountDistinctSymbolGroupByFunction) ownerFunction;
+        owner.workerFunctions.add(this);
+        setOwnerId = owner.workerFunctions.size();
+    }
+
     @Override
     public void toTop() {
         UnaryFunction.super.toTop();
         setIndex = 0;
     }
+
+    private CompactIntHashSet getSet(long setId) {
+        final int setOwnerId = Numbers.decodeHighInt(setId);
+        final CountDistinctSymbolGroupByFunction setOwner = setOwnerId == 0 ? this : workerFunctions.getQuick(setOwnerId - 1);
+        return setOwner.sets.getQuick(Numbers.decodeLowInt(setId));
+    }
 }
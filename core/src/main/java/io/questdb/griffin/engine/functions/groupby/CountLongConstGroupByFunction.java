@@ -51,6 +51,16 @@ public class CountLongConstGroupByFunction extends LongFunction implements Group
         return rec.getLong(valueIndex);
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        destValue.addLong(valueIndex, srcValue.getLong(valueIndex));
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
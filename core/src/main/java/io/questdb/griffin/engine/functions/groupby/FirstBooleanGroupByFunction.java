@@ -36,7 +36,9 @@ import org.jetbrains.annotations.NotNull;
 
 public class FirstBooleanGroupByFunction extends BooleanFunction implements GroupByFunction, UnaryFunction {
     private final Function arg;
-    private int valueIndex;
+    protected boolean parallel;
+    protected int rowIdIndex;
+    protected int valueIndex;
 
     public FirstBooleanGroupByFunction(@NotNull Function arg) {
         this.arg = arg;
@@ -45,11 +47,22 @@ public class FirstBooleanGroupByFunction extends BooleanFunction implements Grou
     @Override
     public void computeFirst(MapValue mapValue, Record record) {
         mapValue.putBool(this.valueIndex, this.arg.getBool(record));
+        if (this.parallel) {
+            mapValue.putLong(this.rowIdIndex, record.getRowId());
+        }
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        // empty
+        // a worker may pick up page frames out of order
+        if (this.parallel && record.getRowId() < mapValue.getLong(this.rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
+    }
+
+    @Override
+    public void enableParallelism() {
+        this.parallel = true;
     }
 
     @Override
@@ -67,10 +80,26 @@ public class FirstBooleanGroupByFunction extends BooleanFunction implements Grou
         return "first";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(this.rowIdIndex);
+        if (srcRowId < destValue.getLong(this.rowIdIndex)) {
+            destValue.putBool(this.valueIndex, srcValue.getBool(this.valueIndex));
+            destValue.putLong(this.rowIdIndex, srcRowId);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.BOOLEAN);
+        this.rowIdIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG);
     }
 
     public void setBool(MapValue mapValue, boolean value) {
@@ -36,7 +36,9 @@ import org.jetbrains.annotations.NotNull;
 
 public class FirstByteGroupByFunction extends ByteFunction implements GroupByFunction, UnaryFunction {
     private final Function arg;
-    private int valueIndex;
+    protected boolean parallel;
+    protected int rowIdIndex;
+    protected int valueIndex;
 
     public FirstByteGroupByFunction(@NotNull Function arg) {
         this.arg = arg;
@@ -45,11 +47,22 @@ public class FirstByteGroupByFunction extends ByteFunction implements GroupByFun
     @Override
     public void computeFirst(MapValue mapValue, Record record) {
         mapValue.putByte(this.valueIndex, this.arg.getByte(record));
+        if (this.parallel) {
+            mapValue.putLong(this.rowIdIndex, record.getRowId());
+        }
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        // empty
+        // a worker may pick up page frames out of order
+        if (this.parallel && record.getRowId() < mapValue.getLong(this.rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
+    }
+
+    @Override
+    public void enableParallelism() {
+        this.parallel = true;
     }
 
     @Override
@@ -67,10 +80,26 @@ public class FirstByteGroupByFunction extends ByteFunction implements GroupByFun
         return "first";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(this.rowIdIndex);
+        if (srcRowId < destValue.getLong(this.rowIdIndex)) {
+            destValue.putByte(this.valueIndex, srcValue.getByte(this.valueIndex));
+            destValue.putLong(this.rowIdIndex, srcRowId);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.BYTE);
+        this.rowIdIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG);
     }
 
     public void setByte(MapValue mapValue, byte value) {
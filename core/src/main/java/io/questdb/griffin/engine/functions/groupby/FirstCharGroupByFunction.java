@@ -36,7 +36,9 @@ import org.jetbrains.annotations.NotNull;
 
 public class FirstCharGroupByFunction extends CharFunction implements GroupByFunction, UnaryFunction {
     private final Function arg;
-    private int valueIndex;
+    protected boolean parallel;
+    protected int rowIdIndex;
+    protected int valueIndex;
 
     public FirstCharGroupByFunction(@NotNull Function arg) {
         this.arg = arg;
@@ -45,11 +47,22 @@ public class FirstCharGroupByFunction extends CharFunction implements GroupByFun
     @Override
     public void computeFirst(MapValue mapValue, Record record) {
         mapValue.putChar(this.valueIndex, this.arg.getChar(record));
+        if (this.parallel) {
+            mapValue.putLong(this.rowIdIndex, record.getRowId());
+        }
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        // empty
+        // a worker may pick up page frames out of order
+        if (this.parallel && record.getRowId() < mapValue.getLong(this.rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
+    }
+
+    @Override
+    public void enableParallelism() {
+        this.parallel = true;
     }
 
     @Override
@@ -67,10 +80,26 @@ public class FirstCharGroupByFunction extends CharFunction implements GroupByFun
         return "first";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(this.rowIdIndex);
+        if (srcRowId < destValue.getLong(this.rowIdIndex)) {
+            destValue.putChar(this.valueIndex, srcValue.getChar(this.valueIndex));
+            destValue.putLong(this.rowIdIndex, srcRowId);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.SHORT);
+        this.rowIdIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG);
     }
 
     public void setChar(MapValue mapValue, char value) {
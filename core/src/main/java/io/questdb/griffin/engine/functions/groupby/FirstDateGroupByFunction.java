@@ -37,7 +37,9 @@ import org.jetbrains.annotations.NotNull;
 
 public class FirstDateGroupByFunction extends DateFunction implements GroupByFunction, UnaryFunction {
     private final Function arg;
-    private int valueIndex;
+    protected boolean parallel;
+    protected int rowIdIndex;
+    protected int valueIndex;
 
     public FirstDateGroupByFunction(@NotNull Function arg) {
         this.arg = arg;
@@ -46,11 +48,22 @@ public class FirstDateGroupByFunction extends DateFunction implements GroupByFun
     @Override
     public void computeFirst(MapValue mapValue, Record record) {
         mapValue.putLong(this.valueIndex, this.arg.getDate(record));
+        if (this.parallel) {
+            mapValue.putLong(this.rowIdIndex, record.getRowId());
+        }
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        // empty
+        // a worker may pick up page frames out of order
+        if (this.parallel && record.getRowId() < mapValue.getLong(this.rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
+    }
+
+    @Override
+    public void enableParallelism() {
+        this.parallel = true;
     }
 
     @Override
@@ -68,10 +81,26 @@ public class FirstDateGroupByFunction extends DateFunction implements GroupByFun
         return "first";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(this.rowIdIndex);
+        if (srcRowId < destValue.getLong(this.rowIdIndex)) {
+            destValue.putLong(this.valueIndex, srcValue.getLong(this.valueIndex));
+            destValue.putLong(this.rowIdIndex, srcRowId);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.DATE);
+        this.rowIdIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG);
     }
 
     @Override
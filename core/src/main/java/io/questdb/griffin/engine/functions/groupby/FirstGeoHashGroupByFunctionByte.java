@@ -36,6 +36,8 @@ import io.questdb.griffin.engine.functions.UnaryFunction;
 
 public class FirstGeoHashGroupByFunctionByte extends GeoByteFunction implements GroupByFunction, UnaryFunction {
     protected final Function function;
+    protected boolean parallel;
+    protected int rowIdIndex;
     protected int valueIndex;
 
     public FirstGeoHashGroupByFunctionByte(int type, Function function) {
@@ -46,11 +48,22 @@ public class FirstGeoHashGroupByFunctionByte extends GeoByteFunction implements
     @Override
     public void computeFirst(MapValue mapValue, Record record) {
         mapValue.putByte(valueIndex, function.getGeoByte(record));
+        if (parallel) {
+            mapValue.putLong(rowIdIndex, record.getRowId());
+        }
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        // empty
+        // a worker may pick up page frames out of order
+        if (parallel && record.getRowId() < mapValue.getLong(rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
+    }
+
+    @Override
+    public void enableParallelism() {
+        parallel = true;
     }
 
     @Override
@@ -68,10 +81,26 @@ public class FirstGeoHashGroupByFunctionByte extends GeoByteFunction implements
         return "first";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(rowIdIndex);
+        if (srcRowId < destValue.getLong(rowIdIndex)) {
+            destValue.putByte(valueIndex, srcValue.getByte(valueIndex));
+            destValue.putLong(rowIdIndex, srcRowId);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.BYTE);
+        rowIdIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG);
     }
 
     @Override
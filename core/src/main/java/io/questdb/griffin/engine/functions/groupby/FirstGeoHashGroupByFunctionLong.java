@@ -36,6 +36,8 @@ import io.questdb.griffin.engine.functions.UnaryFunction;
 
 class FirstGeoHashGroupByFunctionLong extends GeoByteFunction implements GroupByFunction, UnaryFunction {
     protected final Function function;
+    protected boolean parallel;
+    protected int rowIdIndex;
     protected int valueIndex;
 
     public FirstGeoHashGroupByFunctionLong(int type, Function function) {
@@ -46,11 +48,22 @@ class FirstGeoHashGroupByFunctionLong extends GeoByteFunction implements GroupBy
     @Override
     public void computeFirst(MapValue mapValue, Record record) {
         mapValue.putLong(valueIndex, function.getGeoLong(record));
+        if (parallel) {
+            mapValue.putLong(rowIdIndex, record.getRowId());
+        }
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        // empty
+        // a worker may pick up page frames out of order
+        if (parallel && record.getRowId() < mapValue.getLong(rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
+    }
+
+    @Override
+    public void enableParallelism() {
+        parallel = true;
     }
 
     @Override
@@ -73,10 +86,26 @@ class FirstGeoHashGroupByFunctionLong extends GeoByteFunction implements GroupBy
         return "first";
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(rowIdIndex);
+        if (srcRowId < destValue.getLong(rowIdIndex)) {
+            destValue.putLong(valueIndex, srcValue.getLong(valueIndex));
+            destValue.putLong(rowIdIndex, srcRowId);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.LONG);
+        rowIdIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG);
     }
 
     @Override
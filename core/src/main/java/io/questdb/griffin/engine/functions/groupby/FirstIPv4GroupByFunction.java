@@ -38,7 +38,9 @@ import org.jetbrains.annotations.NotNull;
 public class FirstIPv4GroupByFunction extends IPv4Function implements GroupByFunction, UnaryFunction {
 
     private final Function arg;
-    private int valueIndex;
+    protected boolean parallel;
+    protected int rowIdIndex;
+    protected int valueIndex;
 
     public FirstIPv4GroupByFunction(@NotNull Function arg) {
         super();
@@ -48,10 +50,22 @@ public class FirstIPv4GroupByFunction extends IPv4Function implements GroupByFun
     @Override
     public void computeFirst(MapValue mapValue, Record record) {
         mapValue.putInt(valueIndex, arg.getIPv4(record));
+        if (parallel) {
+            mapValue.putLong(rowIdIndex, record.getRowId());
+        }
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
+        // a worker may pick up page frames out of order
+        if (parallel && record.getRowId() < mapValue.getLong(rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
+    }
+
+    @Override
+    public void enableParallelism() {
+        parallel = true;
     }
 
     @Override
@@ -74,10 +88,26 @@ public class FirstIPv4GroupByFunction extends IPv4Function implements GroupByFun
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(rowIdIndex);
+        if (srcRowId < destValue.getLong(rowIdIndex)) {
+            destValue.putInt(valueIndex, srcValue.getInt(valueIndex));
+            destValue.putLong(rowIdIndex, srcRowId);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.IPv4);
+        rowIdIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG);
     }
 
     @Override
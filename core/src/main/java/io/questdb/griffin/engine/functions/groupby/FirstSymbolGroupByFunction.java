@@ -39,7 +39,9 @@ import org.jetbrains.annotations.Nullable;
 
 public class FirstSymbolGroupByFunction extends SymbolFunction implements GroupByFunction, UnaryFunction {
     private final SymbolFunction arg;
-    private int valueIndex;
+    protected boolean parallel;
+    protected int rowIdIndex;
+    protected int valueIndex;
 
     public FirstSymbolGroupByFunction(@NotNull SymbolFunction arg) {
         this.arg = arg;
@@ -48,10 +50,22 @@ public class FirstSymbolGroupByFunction extends SymbolFunction implements GroupB
     @Override
     public void computeFirst(MapValue mapValue, Record record) {
         mapValue.putInt(this.valueIndex, this.arg.getInt(record));
+        if (this.parallel) {
+            mapValue.putLong(this.rowIdIndex, record.getRowId());
+        }
     }
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
+        // a worker may pick up page frames out of order
+        if (this.parallel && record.getRowId() < mapValue.getLong(this.rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
+    }
+
+    @Override
+    public void enableParallelism() {
+        this.parallel = true;
     }
 
     @Override
@@ -84,11 +98,25 @@ public class FirstSymbolGroupByFunction extends SymbolFunction implements GroupB
         return arg.valueBOf(getInt(rec));
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
     @Override
     public boolean isSymbolTableStatic() {
         return arg.isSymbolTableStatic();
     }
 
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(this.rowIdIndex);
+        if (srcRowId < destValue.getLong(this.rowIdIndex)) {
+            destValue.putInt(this.valueIndex, srcValue.getInt(this.valueIndex));
+            destValue.putLong(this.rowIdIndex, srcRowId);
+        }
+    }
+
     @Override
     public @Nullable SymbolTable newSymbolTable() {
         // this implementation does not have its own symbol table
@@ -100,6 +128,8 @@ public class FirstSymbolGroupByFunction extends SymbolFunction implements GroupB
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
         columnTypes.add(ColumnType.INT);
+        this.rowIdIndex = columnTypes.getColumnCount();
+        columnTypes.add(ColumnType.LONG);
     }
 
     @Override
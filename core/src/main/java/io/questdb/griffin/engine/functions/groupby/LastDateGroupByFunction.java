@@ -37,11 +37,23 @@ public class LastDateGroupByFunction extends FirstDateGroupByFunction {
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        super.computeFirst(mapValue, record);
+        // a worker may pick up page frames out of order
+        if (!parallel || record.getRowId() > mapValue.getLong(rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
     }
 
     @Override
     public String getName() {
         return "last";
     }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(this.rowIdIndex);
+        if (srcRowId > destValue.getLong(this.rowIdIndex)) {
+            destValue.putLong(this.valueIndex, srcValue.getLong(this.valueIndex));
+            destValue.putLong(this.rowIdIndex, srcRowId);
+        }
+    }
 }
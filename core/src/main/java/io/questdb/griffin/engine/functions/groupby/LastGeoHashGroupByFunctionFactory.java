@@ -56,49 +56,97 @@ public class LastGeoHashGroupByFunctionFactory implements FunctionFactory {
                 return new FirstGeoHashGroupByFunctionByte(type, function) {
                     @Override
                     public void computeNext(MapValue mapValue, Record record) {
-                        mapValue.putByte(this.valueIndex, this.function.getGeoByte(record));
+                        // a worker may pick up page frames out of order
+                        if (!this.parallel || record.getRowId() > mapValue.getLong(this.rowIdIndex)) {
+                            computeFirst(mapValue, record);
+                        }
                     }
 
                     @Override
                     public String getName() {
                         return "last";
                     }
+
+                    @Override
+                    public void merge(MapValue destValue, MapValue srcValue) {
+                        final long srcRowId = srcValue.getLong(this.rowIdIndex);
+                        if (srcRowId > destValue.getLong(this.rowIdIndex)) {
+                            destValue.putByte(this.valueIndex, srcValue.getByte(this.valueIndex));
+                            destValue.putLong(this.rowIdIndex, srcRowId);
+                        }
+                    }
                 };
             case ColumnType.GEOSHORT:
                 return new FirstGeoHashGroupByFunctionShort(type, function) {
                     @Override
                     public void computeNext(MapValue mapValue, Record record) {
-                        mapValue.putShort(this.valueIndex, this.function.getGeoShort(record));
+                        // a worker may pick up page frames out of order
+                        if (!this.parallel || record.getRowId() > mapValue.getLong(this.rowIdIndex)) {
+                            computeFirst(mapValue, record);
+                        }
                     }
 
                     @Override
                     public String getName() {
                         return "last";
                     }
+
+                    @Override
+                    public void merge(MapValue destValue, MapValue srcValue) {
+                        final long srcRowId = srcValue.getLong(this.rowIdIndex);
+                        if (srcRowId > destValue.getLong(this.rowIdIndex)) {
+                            destValue.putShort(this.valueIndex, srcValue.getShort(this.valueIndex));
+                            destValue.putLong(this.rowIdIndex, srcRowId);
+                        }
+                    }
                 };
             case ColumnType.GEOINT:
                 return new FirstGeoHashGroupByFunctionInt(type, function) {
                     @Override
                     public void computeNext(MapValue mapValue, Record record) {
-                        mapValue.putInt(this.valueIndex, this.function.getGeoInt(record));
+                        // a worker may pick up page frames out of order
+                        if (!this.parallel || record.getRowId() > mapValue.getLong(this.rowIdIndex)) {
+                            computeFirst(mapValue, record);
+                        }
                     }
 
                     @Override
                     public String getName() {
                         return "last";
                     }
+
+                    @Override
+                    public void merge(MapValue destValue, MapValue srcValue) {
+                        final long srcRowId = srcValue.getLong(this.rowIdIndex);
+                        if (srcRowId > destValue.getLong(this.rowIdIndex)) {
+                            destValue.putInt(this.valueIndex, srcValue.getInt(this.valueIndex));
+                            destValue.putLong(this.rowIdIndex, srcRowId);
+                        }
+                    }
                 };
             default:
                 return new FirstGeoHashGroupByFunctionLong(type, function) {
                     @Override
                     public void computeNext(MapValue mapValue, Record record) {
-                        mapValue.putLong(this.valueIndex, this.function.getGeoLong(record));
+                        // a worker may pick up page frames out of order
+                        if (!this.parallel || record.getRowId() > mapValue.getLong(this.rowIdIndex)) {
+                            computeFirst(mapValue, record);
+                        }
                     }
 
                     @Override
                     public String getName() {
                         return "last";
                     }
+
+                    @Override
+                    public void merge(MapValue destValue, MapValue srcValue) {
+                        final long srcRowId = srcValue.getLong(this.rowIdIndex);
+                        if (srcRowId > destValue.getLong(this.rowIdIndex)) {
+                            destValue.putLong(this.valueIndex, srcValue.getLong(this.valueIndex));
+                            destValue.putLong(this.rowIdIndex, srcRowId);
+                        }
+                    }
                 };
         }
     }
@@ -37,11 +37,23 @@ public class LastIntGroupByFunction extends FirstIntGroupByFunction {
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        super.computeFirst(mapValue, record);
+        // a worker may pick up page frames out of order
+        if (!parallel || record.getRowId() > mapValue.getLong(rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
     }
 
     @Override
     public String getName() {
         return "last";
     }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(rowIdIndex);
+        if (srcRowId > destValue.getLong(rowIdIndex)) {
+            destValue.putInt(valueIndex, srcValue.getInt(valueIndex));
+            destValue.putLong(rowIdIndex, srcRowId);
+        }
+    }
 }
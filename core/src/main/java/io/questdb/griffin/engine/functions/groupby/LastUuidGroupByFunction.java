@@ -37,11 +37,23 @@ public final class LastUuidGroupByFunction extends FirstUuidGroupByFunction {
 
     @Override
     public void computeNext(MapValue mapValue, Record record) {
-        super.computeFirst(mapValue, record);
+        // a worker may pick up page frames out of order
+        if (!parallel || record.getRowId() > mapValue.getLong(rowIdIndex)) {
+            computeFirst(mapValue, record);
+        }
     }
 
     @Override
     public String getName() {
         return "last";
     }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcRowId = srcValue.getLong(rowIdIndex);
+        if (srcRowId > destValue.getLong(rowIdIndex)) {
+            destValue.putLong128(valueIndex, srcValue.getLong128Lo(valueIndex), srcValue.getLong128Hi(valueIndex));
+            destValue.putLong(rowIdIndex, srcRowId);
+        }
+    }
 }
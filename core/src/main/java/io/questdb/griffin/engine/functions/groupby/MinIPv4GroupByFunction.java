@@ -78,6 +78,20 @@ public class MinIPv4GroupByFunction extends IPv4Function implements GroupByFunct
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        long srcMin = Numbers.ipv4ToLong(srcValue.getIPv4(valueIndex));
+        long destMin = Numbers.ipv4ToLong(destValue.getIPv4(valueIndex));
+        if (srcMin != Numbers.IPv4_NULL && (srcMin < destMin || destMin == Numbers.IPv4_NULL)) {
+            destValue.putInt(valueIndex, (int) srcMin);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
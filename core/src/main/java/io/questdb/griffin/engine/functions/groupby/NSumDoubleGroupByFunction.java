@@ -81,6 +81,21 @@ public class NSumDoubleGroupByFunction extends DoubleFunction implements GroupBy
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final long srcCount = srcValue.getLong(valueIndex + 2);
+        if (srcCount > 0) {
+            sum(destValue, srcValue.getDouble(valueIndex), destValue.getDouble(valueIndex), destValue.getDouble(valueIndex + 1));
+            destValue.addDouble(valueIndex + 1, srcValue.getDouble(valueIndex + 1));
+            destValue.addLong(valueIndex + 2, srcCount);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
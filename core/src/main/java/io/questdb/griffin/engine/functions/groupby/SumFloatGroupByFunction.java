@@ -80,6 +80,19 @@ public class SumFloatGroupByFunction extends FloatFunction implements GroupByFun
         return false;
     }
 
+    @Override
+    public boolean isParallelismSupported() {
+        return true;
+    }
+
+    @Override
+    public void merge(MapValue destValue, MapValue srcValue) {
+        final float srcSum = srcValue.getFloat(valueIndex);
+        if (srcSum == srcSum) {
+            destValue.addFloat(valueIndex, srcSum);
+        }
+    }
+
     @Override
     public void pushValueTypes(ArrayColumnTypes columnTypes) {
         this.valueIndex = columnTypes.getColumnCount();
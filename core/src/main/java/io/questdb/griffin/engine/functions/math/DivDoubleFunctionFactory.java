@@ -46,7 +46,7 @@ public class DivDoubleFunctionFactory implements FunctionFactory {
         return new Func(args.getQuick(0), args.getQuick(1));
     }
 
-    private static class Func extends DoubleFunction implements BinaryFunction {
+    private static class Func extends DoubleFunction implements BinaryFunction, DoubleArithmeticFunction {
         private final Function left;
         private final Function right;
 
@@ -55,6 +55,11 @@ public class DivDoubleFunctionFactory implements FunctionFactory {
             this.right = right;
         }
 
+        @Override
+        public int getArithmeticOperator() {
+            return OP_DIV;
+        }
+
         @Override
         public double getDouble(Record rec) {
             return left.getDouble(rec) / right.getDouble(rec);
@@ -0,0 +1,270 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.math;
+
+import io.questdb.cairo.sql.Function;
+import io.questdb.griffin.engine.functions.BinaryFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.DoubleList;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+
+public class DoubleExpressionFactory {
+    private static final int FIELD_POOL_OFFSET = 3;
+    private static final int KIND_CONSTANT = 1;
+    private static final int KIND_LEAF = 0;
+    private static final int KIND_OPERATOR = 2;
+    // bigger expressions are left as they are, so that generated methods stay small
+    private static final int MAX_NODE_COUNT = 256;
+
+    private DoubleExpressionFactory() {
+    }
+
+    /**
+     * Fuses a tree of double arithmetic operators into a single function. Returns the
+     * original function when it is not an arithmetic operator or when the tree is too large.
+     *
+     * @param asm      BytecodeAssembler instance
+     * @param function projection function
+     * @return CompiledDoubleFunction instance or the original function
+     */
+    public static Function compile(BytecodeAssembler asm, Function function) {
+        if (!(function instanceof DoubleArithmeticFunction)) {
+            return function;
+        }
+        final IntList kinds = new IntList();
+        final IntList args = new IntList();
+        final ObjList<Function> leaves = new ObjList<>();
+        final DoubleList constants = new DoubleList();
+        if (!flatten(function, kinds, args, leaves, constants)) {
+            return function;
+        }
+        return new CompiledDoubleFunction(function, getInstance(asm, kinds, args, leaves, constants));
+    }
+
+    private static boolean flatten(Function function, IntList kinds, IntList args, ObjList<Function> leaves, DoubleList constants) {
+        if (kinds.size() > MAX_NODE_COUNT) {
+            return false;
+        }
+        if (function instanceof DoubleArithmeticFunction) {
+            final int op = ((DoubleArithmeticFunction) function).getArithmeticOperator();
+            if (op == DoubleArithmeticFunction.OP_NEG) {
+                if (!flatten(((UnaryFunction) function).getArg(), kinds, args, leaves, constants)) {
+                    return false;
+                }
+            } else {
+                final BinaryFunction binaryFunction = (BinaryFunction) function;
+                if (
+                        !flatten(binaryFunction.getLeft(), kinds, args, leaves, constants)
+                                || !flatten(binaryFunction.getRight(), kinds, args, leaves, constants)
+                ) {
+                    return false;
+                }
+            }
+            kinds.add(KIND_OPERATOR);
+            args.add(op);
+        } else if (function.isConstant()) {
+            kinds.add(KIND_CONSTANT);
+            args.add(constants.size());
+            constants.add(function.getDouble(null));
+        } else {
+            kinds.add(KIND_LEAF);
+            args.add(leaves.size());
+            leaves.add(function);
+        }
+        return true;
+    }
+
+    /**
+     * Creates a DoubleExpression instance that evaluates the flattened (postfix) expression.
+     * The generated class has a field Function f0, f1 ... fn per non-constant leaf of the
+     * expression, so each leaf is called from a call site of its own. Constant leaves are
+     * inlined into the bytecode. For example, "(a + b) * 0.5" is evaluated as:
+     * <code>
+     * return (f0.getDouble(rec) + f1.getDouble(rec)) * 0.5;
+     * </code>
+     * No branches are generated, so the method does not need stack map frames.
+     */
+    private static DoubleExpression getInstance(
+            BytecodeAssembler asm,
+            IntList kinds,
+            IntList args,
+            ObjList<Function> leaves,
+            DoubleList constants
+    ) {
+        asm.init(DoubleExpression.class);
+        asm.setupPool();
+        final int thisClassIndex = asm.poolClass(asm.poolUtf8("io/questdb/griffin/engine/functions/math/DoubleExpressionAsm"));
+        final int superclassIndex = asm.poolClass(Object.class);
+        final int interfaceClassIndex = asm.poolClass(DoubleExpression.class);
+
+        final int superIndex = asm.poolMethod(superclassIndex, "<init>", "()V");
+
+        final int typeIndex = asm.poolUtf8("Lio/questdb/cairo/sql/Function;");
+        final int leafCount = leaves.size();
+
+        int firstFieldNameIndex = 0;
+        int firstFieldIndex = 0;
+        for (int i = 0; i < leafCount; i++) {
+            // if you change pool calls then you will likely need to change the FIELD_POOL_OFFSET constant
+            int fieldNameIndex = asm.poolUtf8().put("f").put(i).$();
+            int nameAndType = asm.poolNameAndType(fieldNameIndex, typeIndex);
+            int fieldIndex = asm.poolField(thisClassIndex, nameAndType);
+            if (i == 0) {
+                firstFieldNameIndex = fieldNameIndex;
+                firstFieldIndex = fieldIndex;
+            }
+        }
+
+        final IntList constantIndexes = new IntList(constants.size());
+        for (int i = 0, n = constants.size(); i < n; i++) {
+            constantIndexes.add(asm.poolDoubleConst(constants.getQuick(i)));
+        }
+
+        final int getDoubleIndex = asm.poolInterfaceMethod(Function.class, "getDouble", "(Lio/questdb/cairo/sql/Record;)D");
+        final int getDoubleNameIndex = asm.poolUtf8("getDouble");
+        final int getDoubleSigIndex = asm.poolUtf8("(Lio/questdb/cairo/sql/Record;)D");
+        final int setFunctionsIndex = asm.poolUtf8("setFunctions");
+        final int setFunctionsSigIndex = asm.poolUtf8("(Lio/questdb/std/ObjList;)V");
+
+        final int getIndex = asm.poolMethod(ObjList.class, "get", "(I)Ljava/lang/Object;");
+
+        asm.finishPool();
+
+        asm.defineClass(thisClassIndex, superclassIndex);
+        asm.interfaceCount(1);
+        asm.putShort(interfaceClassIndex);
+        asm.fieldCount(leafCount);
+        for (int i = 0; i < leafCount; i++) {
+            asm.defineField(firstFieldNameIndex + (i * FIELD_POOL_OFFSET), typeIndex);
+        }
+        asm.methodCount(3);
+        asm.defineDefaultConstructor(superIndex);
+
+        generateGetDouble(asm, kinds, args, constantIndexes, firstFieldIndex, getDoubleIndex, getDoubleNameIndex, getDoubleSigIndex);
+        generateSetFunctions(asm, leafCount, firstFieldIndex, setFunctionsIndex, setFunctionsSigIndex, getIndex);
+
+        // class attribute count
+        asm.putShort(0);
+
+        DoubleExpression expression = asm.newInstance();
+        expression.setFunctions(leaves);
+        return expression;
+    }
+
+    private static void generateGetDouble(
+            BytecodeAssembler asm,
+            IntList kinds,
+            IntList args,
+            IntList constantIndexes,
+            int firstFieldIndex,
+            int getDoubleIndex,
+            int getDoubleNameIndex,
+            int getDoubleSigIndex
+    ) {
+        // max stack is measured in slots, each double takes two of them
+        int depth = 0;
+        int maxStack = 0;
+        for (int i = 0, n = kinds.size(); i < n; i++) {
+            switch (kinds.getQuick(i)) {
+                case KIND_LEAF:
+                    // function reference and record are on top of the values
+                    maxStack = Math.max(maxStack, 2 * depth + 2);
+                    depth++;
+                    break;
+                case KIND_CONSTANT:
+                    depth++;
+                    break;
+                default:
+                    if (args.getQuick(i) != DoubleArithmeticFunction.OP_NEG) {
+                        depth--;
+                    }
+                    break;
+            }
+            maxStack = Math.max(maxStack, 2 * depth);
+        }
+
+        asm.startMethod(getDoubleNameIndex, getDoubleSigIndex, maxStack, 2);
+        for (int i = 0, n = kinds.size(); i < n; i++) {
+            final int arg = args.getQuick(i);
+            switch (kinds.getQuick(i)) {
+                case KIND_LEAF:
+                    asm.aload(0);
+                    asm.getfield(firstFieldIndex + (arg * FIELD_POOL_OFFSET));
+                    asm.aload(1); // record
+                    asm.invokeInterface(getDoubleIndex, 1);
+                    break;
+                case KIND_CONSTANT:
+                    asm.ldc2_w(constantIndexes.getQuick(arg));
+                    break;
+                default:
+                    switch (arg) {
+                        case DoubleArithmeticFunction.OP_ADD:
+                            asm.dadd();
+                            break;
+                        case DoubleArithmeticFunction.OP_SUB:
+                            asm.dsub();
+                            break;
+                        case DoubleArithmeticFunction.OP_MUL:
+                            asm.dmul();
+                            break;
+                        case DoubleArithmeticFunction.OP_DIV:
+                            asm.ddiv();
+                            break;
+                        default:
+                            asm.dneg();
+                            break;
+                    }
+                    break;
+            }
+        }
+        asm.dreturn();
+        asm.endMethodCode();
+        // exceptions
+        asm.putShort(0);
+        // attributes
+        asm.putShort(0);
+        asm.endMethod();
+    }
+
+    private static void generateSetFunctions(BytecodeAssembler asm, int leafCount, int firstFieldIndex, int setFunctionsIndex, int setFunctionsSigIndex, int getIndex) {
+        asm.startMethod(setFunctionsIndex, setFunctionsSigIndex, 3, 2);
+        for (int i = 0; i < leafCount; i++) {
+            asm.aload(0);
+            asm.aload(1);
+            asm.iconst(i);
+            asm.invokeVirtual(getIndex);
+            asm.putfield(firstFieldIndex + (i * FIELD_POOL_OFFSET));
+        }
+        asm.return_();
+        asm.endMethodCode();
+        // exceptions
+        asm.putShort(0);
+        // attributes
+        asm.putShort(0);
+        asm.endMethod();
+    }
+}
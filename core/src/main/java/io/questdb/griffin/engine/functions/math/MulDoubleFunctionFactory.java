@@ -46,7 +46,7 @@ public class MulDoubleFunctionFactory implements FunctionFactory {
         return new Func(args.getQuick(0), args.getQuick(1));
     }
 
-    private static final class Func extends DoubleFunction implements BinaryFunction {
+    private static final class Func extends DoubleFunction implements BinaryFunction, DoubleArithmeticFunction {
         private final Function left;
         private final Function right;
 
@@ -55,6 +55,11 @@ public class MulDoubleFunctionFactory implements FunctionFactory {
             this.right = right;
         }
 
+        @Override
+        public int getArithmeticOperator() {
+            return OP_MUL;
+        }
+
         @Override
         public double getDouble(Record rec) {
             return left.getDouble(rec) * right.getDouble(rec);
@@ -46,13 +46,18 @@ public class NegDoubleFunctionFactory implements FunctionFactory {
         return new Func(args.getQuick(0));
     }
 
-    private static class Func extends DoubleFunction implements UnaryFunction {
+    private static class Func extends DoubleFunction implements UnaryFunction, DoubleArithmeticFunction {
         final Function arg;
 
         public Func(Function arg) {
             this.arg = arg;
         }
 
+        @Override
+        public int getArithmeticOperator() {
+            return OP_NEG;
+        }
+
         @Override
         public Function getArg() {
             return arg;
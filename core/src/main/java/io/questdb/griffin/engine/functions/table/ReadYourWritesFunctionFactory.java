@@ -0,0 +1,69 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.sql.Function;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.CursorFunction;
+import io.questdb.griffin.engine.table.WalTailRecordCursorFactory;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+
+/**
+ * Scans a WAL table along with the transactions that are committed but not yet applied to it.
+ */
+public class ReadYourWritesFunctionFactory implements FunctionFactory {
+    @Override
+    public String getSignature() {
+        return "read_your_writes(s)";
+    }
+
+    @Override
+    public boolean isCursor() {
+        return true;
+    }
+
+    @Override
+    public Function newInstance(int position, ObjList<Function> args, IntList argPos, CairoConfiguration config, SqlExecutionContext context) throws SqlException {
+        final TableToken tt;
+        try {
+            tt = context.getTableToken(args.getQuick(0).getStr(null));
+        } catch (CairoException e) {
+            throw SqlException.$(argPos.getQuick(0), e.getFlyweightMessage());
+        }
+        if (!tt.isWal()) {
+            throw SqlException.$(argPos.getQuick(0), tt.getTableName()).put(" is not a WAL table");
+        }
+        try (TableReader reader = context.getReader(tt)) {
+            return new CursorFunction(new WalTailRecordCursorFactory(config, tt, reader.getMetadata()));
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapValueMergeFunction;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.PerWorkerLocks;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.table.AsyncFilterUtils;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Holds per-worker state of the parallel keyed GROUP BY: a hash table, a copy of group by
+ * functions and, optionally, a filter per worker. The query owner thread uses its own
+ * set of objects. Once all page frames are aggregated, per-worker maps are merged into
+ * the owner map by the owner thread.
+ */
+public class AsyncGroupByAtom implements StatefulAtom, Closeable {
+    private final ObjList<Function> bindVarFunctions;
+    private final MemoryCARW bindVarMemory;
+    private final CompiledFilter compiledFilter;
+    private final Function filter;
+    private final RecordSink mapSink;
+    private final MapValueMergeFunction mergeFunction;
+    private final GroupByFunctionsUpdater ownerFunctionUpdater;
+    private final ObjList<GroupByFunction> ownerGroupByFunctions;
+    private final Map ownerMap;
+    private final ObjList<Function> perWorkerFilters;
+    private final ObjList<GroupByFunctionsUpdater> perWorkerFunctionUpdaters;
+    private final ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions;
+    private final PerWorkerLocks perWorkerLocks;
+    private final ObjList<Map> perWorkerMaps;
+    private SqlExecutionCircuitBreaker ownerCircuitBreaker;
+
+    public AsyncGroupByAtom(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ArrayColumnTypes keyTypes,
+            @Transient @NotNull ArrayColumnTypes valueTypes,
+            @NotNull RecordSink mapSink,
+            @NotNull ObjList<GroupByFunction> ownerGroupByFunctions,
+            @NotNull ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions,
+            @Nullable CompiledFilter compiledFilter,
+            @Nullable MemoryCARW bindVarMemory,
+            @Nullable ObjList<Function> bindVarFunctions,
+            @Nullable Function filter,
+            @Nullable ObjList<Function> perWorkerFilters,
+            int workerCount
+    ) {
+        assert perWorkerGroupByFunctions.size() == workerCount;
+        assert perWorkerFilters == null || perWorkerFilters.size() == workerCount;
+        try {
+            this.mapSink = mapSink;
+            this.compiledFilter = compiledFilter;
+            this.bindVarMemory = bindVarMemory;
+            this.bindVarFunctions = bindVarFunctions;
+            this.filter = filter;
+            this.perWorkerFilters = perWorkerFilters;
+            this.ownerGroupByFunctions = ownerGroupByFunctions;
+            this.perWorkerGroupByFunctions = perWorkerGroupByFunctions;
+            GroupByUtils.enableParallelism(ownerGroupByFunctions);
+            ownerFunctionUpdater = GroupByFunctionsUpdaterFactory.getInstance(asm, ownerGroupByFunctions);
+            mergeFunction = ownerFunctionUpdater::merge;
+            perWorkerFunctionUpdaters = new ObjList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                GroupByUtils.enableParallelism(perWorkerGroupByFunctions.getQuick(i), ownerGroupByFunctions);
+                perWorkerFunctionUpdaters.extendAndSet(i, GroupByFunctionsUpdaterFactory.getInstance(asm, perWorkerGroupByFunctions.getQuick(i)));
+            }
+            perWorkerLocks = new PerWorkerLocks(configuration, workerCount);
+            ownerMap = MapFactory.createMap(configuration, keyTypes, valueTypes);
+            perWorkerMaps = new ObjList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerMaps.extendAndSet(i, MapFactory.createMap(configuration, keyTypes, valueTypes));
+            }
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use its own private filter, function updaters, etc. anytime.
+            return -1;
+        }
+        return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
+    }
+
+    /**
+     * Releases memory held by the hash tables and resets state of group by functions.
+     * {@link #reopen()} has to be called before the atom is used again.
+     */
+    public void clear() {
+        Misc.free(ownerMap);
+        Misc.freeObjListAndKeepObjects(perWorkerMaps);
+        Misc.clearObjList(ownerGroupByFunctions);
+        for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+            Misc.clearObjList(perWorkerGroupByFunctions.getQuick(i));
+        }
+    }
+
+    @Override
+    public void close() {
+        Misc.free(ownerMap);
+        Misc.freeObjList(perWorkerMaps);
+        Misc.free(compiledFilter);
+        Misc.free(bindVarMemory);
+        Misc.freeObjList(bindVarFunctions);
+        Misc.free(filter);
+        Misc.freeObjList(perWorkerFilters);
+        for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+            Misc.freeObjList(perWorkerGroupByFunctions.getQuick(i));
+        }
+    }
+
+    public ObjList<Function> getBindVarFunctions() {
+        return bindVarFunctions;
+    }
+
+    public MemoryCARW getBindVarMemory() {
+        return bindVarMemory;
+    }
+
+    public CompiledFilter getCompiledFilter() {
+        return compiledFilter;
+    }
+
+    public Function getFilter(int slotId) {
+        if (slotId == -1 || perWorkerFilters == null) {
+            return filter;
+        }
+        return perWorkerFilters.getQuick(slotId);
+    }
+
+    public GroupByFunctionsUpdater getFunctionUpdater(int slotId) {
+        if (slotId == -1) {
+            return ownerFunctionUpdater;
+        }
+        return perWorkerFunctionUpdaters.getQuick(slotId);
+    }
+
+    public Map getMap(int slotId) {
+        final Map map = slotId == -1 ? ownerMap : perWorkerMaps.getQuick(slotId);
+        // Per-worker maps are allocated lazily, so that idle workers don't hold any memory.
+        map.reopen();
+        return map;
+    }
+
+    public RecordSink getMapSink() {
+        return mapSink;
+    }
+
+    public SqlExecutionCircuitBreaker getOwnerCircuitBreaker() {
+        return ownerCircuitBreaker;
+    }
+
+    public Map getOwnerMap() {
+        return ownerMap;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        ownerCircuitBreaker = executionContext.getCircuitBreaker();
+        if (filter != null) {
+            filter.init(symbolTableSource, executionContext);
+        }
+        if (bindVarFunctions != null) {
+            Function.init(bindVarFunctions, symbolTableSource, executionContext);
+            AsyncFilterUtils.prepareBindVarMemory(executionContext, symbolTableSource, bindVarFunctions, bindVarMemory);
+        }
+        final boolean current = executionContext.getCloneSymbolTables();
+        executionContext.setCloneSymbolTables(true);
+        try {
+            if (perWorkerFilters != null) {
+                Function.init(perWorkerFilters, symbolTableSource, executionContext);
+            }
+            for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+                Function.init(perWorkerGroupByFunctions.getQuick(i), symbolTableSource, executionContext);
+            }
+        } finally {
+            executionContext.setCloneSymbolTables(current);
+        }
+    }
+
+    @Override
+    public void initCursor() {
+        if (filter != null) {
+            filter.initCursor();
+        }
+        if (perWorkerFilters != null) {
+            // Initialize all per-worker filters on the query owner thread to avoid
+            // DataUnavailableException thrown on worker threads when filtering.
+            Function.initCursor(perWorkerFilters);
+        }
+    }
+
+    /**
+     * Merges all per-worker maps into the owner map. Must be called by the query owner
+     * thread once all page frames are aggregated.
+     */
+    public void mergeWorkerMaps() {
+        for (int i = 0, n = perWorkerMaps.size(); i < n; i++) {
+            final Map workerMap = perWorkerMaps.getQuick(i);
+            if (workerMap.size() > 0) {
+                ownerCircuitBreaker.statefulThrowExceptionIfTripped();
+                ownerMap.merge(workerMap, mergeFunction);
+                // The worker map is no longer needed, so release the memory.
+                workerMap.close();
+            }
+        }
+    }
+
+    public void release(int slotId) {
+        perWorkerLocks.releaseSlot(slotId);
+    }
+
+    public void reopen() {
+        ownerMap.reopen();
+    }
+}
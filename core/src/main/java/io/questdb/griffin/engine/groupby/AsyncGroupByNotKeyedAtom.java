@@ -0,0 +1,259 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.PerWorkerLocks;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.table.AsyncFilterUtils;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.std.BoolList;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Holds per-worker state of the parallel non-keyed GROUP BY: an aggregate value, a copy
+ * of group by functions and, optionally, a filter per worker. The query owner thread uses
+ * its own set of objects. Once all page frames are aggregated, per-worker values are merged
+ * into the owner value by the owner thread.
+ */
+public class AsyncGroupByNotKeyedAtom implements StatefulAtom, Closeable {
+    private final ObjList<Function> bindVarFunctions;
+    private final MemoryCARW bindVarMemory;
+    private final CompiledFilter compiledFilter;
+    private final Function filter;
+    private final GroupByFunctionsUpdater ownerFunctionUpdater;
+    private final ObjList<GroupByFunction> ownerGroupByFunctions;
+    private final SimpleMapValue ownerMapValue;
+    private final ObjList<Function> perWorkerFilters;
+    private final ObjList<GroupByFunctionsUpdater> perWorkerFunctionUpdaters;
+    private final ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions;
+    private final PerWorkerLocks perWorkerLocks;
+    private final ObjList<SimpleMapValue> perWorkerMapValues;
+    // true for the values that have no rows aggregated yet; the owner value is stored at index 0
+    private final BoolList valueIsNew = new BoolList();
+    private SqlExecutionCircuitBreaker ownerCircuitBreaker;
+
+    public AsyncGroupByNotKeyedAtom(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @NotNull ObjList<GroupByFunction> ownerGroupByFunctions,
+            @NotNull ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions,
+            int valueCount,
+            @Nullable CompiledFilter compiledFilter,
+            @Nullable MemoryCARW bindVarMemory,
+            @Nullable ObjList<Function> bindVarFunctions,
+            @Nullable Function filter,
+            @Nullable ObjList<Function> perWorkerFilters,
+            int workerCount
+    ) {
+        assert perWorkerGroupByFunctions.size() == workerCount;
+        assert perWorkerFilters == null || perWorkerFilters.size() == workerCount;
+        try {
+            this.compiledFilter = compiledFilter;
+            this.bindVarMemory = bindVarMemory;
+            this.bindVarFunctions = bindVarFunctions;
+            this.filter = filter;
+            this.perWorkerFilters = perWorkerFilters;
+            this.ownerGroupByFunctions = ownerGroupByFunctions;
+            this.perWorkerGroupByFunctions = perWorkerGroupByFunctions;
+            GroupByUtils.enableParallelism(ownerGroupByFunctions);
+            ownerFunctionUpdater = GroupByFunctionsUpdaterFactory.getInstance(asm, ownerGroupByFunctions);
+            perWorkerFunctionUpdaters = new ObjList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                GroupByUtils.enableParallelism(perWorkerGroupByFunctions.getQuick(i), ownerGroupByFunctions);
+                perWorkerFunctionUpdaters.extendAndSet(i, GroupByFunctionsUpdaterFactory.getInstance(asm, perWorkerGroupByFunctions.getQuick(i)));
+            }
+            perWorkerLocks = new PerWorkerLocks(configuration, workerCount);
+            ownerMapValue = new SimpleMapValue(valueCount);
+            perWorkerMapValues = new ObjList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerMapValues.extendAndSet(i, new SimpleMapValue(valueCount));
+            }
+            valueIsNew.setAll(workerCount + 1, true);
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use its own private filter, function updaters, etc. anytime.
+            return -1;
+        }
+        return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
+    }
+
+    /**
+     * Resets state of the aggregate values and group by functions.
+     */
+    public void clear() {
+        valueIsNew.setAll(perWorkerMapValues.size() + 1, true);
+        Misc.clearObjList(ownerGroupByFunctions);
+        for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+            Misc.clearObjList(perWorkerGroupByFunctions.getQuick(i));
+        }
+    }
+
+    @Override
+    public void close() {
+        Misc.free(compiledFilter);
+        Misc.free(bindVarMemory);
+        Misc.freeObjList(bindVarFunctions);
+        Misc.free(filter);
+        Misc.freeObjList(perWorkerFilters);
+        for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+            Misc.freeObjList(perWorkerGroupByFunctions.getQuick(i));
+        }
+    }
+
+    public ObjList<Function> getBindVarFunctions() {
+        return bindVarFunctions;
+    }
+
+    public MemoryCARW getBindVarMemory() {
+        return bindVarMemory;
+    }
+
+    public CompiledFilter getCompiledFilter() {
+        return compiledFilter;
+    }
+
+    public Function getFilter(int slotId) {
+        if (slotId == -1 || perWorkerFilters == null) {
+            return filter;
+        }
+        return perWorkerFilters.getQuick(slotId);
+    }
+
+    public GroupByFunctionsUpdater getFunctionUpdater(int slotId) {
+        if (slotId == -1) {
+            return ownerFunctionUpdater;
+        }
+        return perWorkerFunctionUpdaters.getQuick(slotId);
+    }
+
+    public SimpleMapValue getMapValue(int slotId) {
+        if (slotId == -1) {
+            return ownerMapValue;
+        }
+        return perWorkerMapValues.getQuick(slotId);
+    }
+
+    public SqlExecutionCircuitBreaker getOwnerCircuitBreaker() {
+        return ownerCircuitBreaker;
+    }
+
+    public SimpleMapValue getOwnerMapValue() {
+        return ownerMapValue;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        ownerCircuitBreaker = executionContext.getCircuitBreaker();
+        if (filter != null) {
+            filter.init(symbolTableSource, executionContext);
+        }
+        if (bindVarFunctions != null) {
+            Function.init(bindVarFunctions, symbolTableSource, executionContext);
+            AsyncFilterUtils.prepareBindVarMemory(executionContext, symbolTableSource, bindVarFunctions, bindVarMemory);
+        }
+        final boolean current = executionContext.getCloneSymbolTables();
+        executionContext.setCloneSymbolTables(true);
+        try {
+            if (perWorkerFilters != null) {
+                Function.init(perWorkerFilters, symbolTableSource, executionContext);
+            }
+            for (int i = 0, n = perWorkerGroupByFunctions.size(); i < n; i++) {
+                Function.init(perWorkerGroupByFunctions.getQuick(i), symbolTableSource, executionContext);
+            }
+        } finally {
+            executionContext.setCloneSymbolTables(current);
+        }
+    }
+
+    @Override
+    public void initCursor() {
+        if (filter != null) {
+            filter.initCursor();
+        }
+        if (perWorkerFilters != null) {
+            // Initialize all per-worker filters on the query owner thread to avoid
+            // DataUnavailableException thrown on worker threads when filtering.
+            Function.initCursor(perWorkerFilters);
+        }
+    }
+
+    public boolean isNew(int slotId) {
+        return valueIsNew.get(slotId + 1);
+    }
+
+    /**
+     * Merges all per-worker values into the owner value. Must be called by the query owner
+     * thread once all page frames are aggregated.
+     */
+    public void mergeWorkerValues() {
+        for (int i = 0, n = perWorkerMapValues.size(); i < n; i++) {
+            if (isNew(i)) {
+                continue;
+            }
+            ownerCircuitBreaker.statefulThrowExceptionIfTripped();
+            final SimpleMapValue workerValue = perWorkerMapValues.getQuick(i);
+            if (isNew(-1)) {
+                ownerMapValue.copy(workerValue);
+                setNotNew(-1);
+            } else {
+                ownerFunctionUpdater.merge(ownerMapValue, workerValue);
+            }
+        }
+        if (isNew(-1)) {
+            // no rows matched, so produce a single row of empty values
+            ownerFunctionUpdater.updateEmpty(ownerMapValue);
+        }
+    }
+
+    public void release(int slotId) {
+        perWorkerLocks.releaseSlot(slotId);
+    }
+
+    public void setNotNew(int slotId) {
+        valueIsNew.set(slotId + 1, false);
+    }
+}
@@ -0,0 +1,229 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReduceTaskFactory;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.table.AsyncFilterUtils;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+
+/**
+ * Non-keyed GROUP BY executed in parallel over page frames. Each worker aggregates the frames
+ * it picks up into its own value, then the query owner thread merges per-worker values into
+ * the final result. Unlike the vectorized non-keyed GROUP BY, this factory supports arbitrary
+ * mergeable group by functions and filters, including JIT-compiled ones.
+ */
+public class AsyncGroupByNotKeyedRecordCursorFactory extends AbstractRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncGroupByNotKeyedRecordCursorFactory::aggregate;
+
+    private final AsyncGroupByNotKeyedAtom atom;
+    private final RecordCursorFactory base;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncGroupByNotKeyedRecordCursor cursor;
+    private final PageFrameSequence<AsyncGroupByNotKeyedAtom> frameSequence;
+    private final ObjList<GroupByFunction> groupByFunctions;
+    private final int workerCount;
+
+    public AsyncGroupByNotKeyedRecordCursorFactory(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordCursorFactory base,
+            @NotNull RecordMetadata groupByMetadata,
+            @NotNull ObjList<GroupByFunction> groupByFunctions,
+            @NotNull ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions,
+            @NotNull ObjList<Function> recordFunctions,
+            int valueCount,
+            @Nullable CompiledFilter compiledFilter,
+            @Nullable MemoryCARW bindVarMemory,
+            @Nullable ObjList<Function> bindVarFunctions,
+            @Nullable Function filter,
+            @NotNull PageFrameReduceTaskFactory reduceTaskFactory,
+            @Nullable ObjList<Function> perWorkerFilters,
+            int workerCount
+    ) {
+        super(groupByMetadata);
+        try {
+            this.base = base;
+            this.groupByFunctions = groupByFunctions;
+            this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, reduceTaskFactory);
+            this.cursor = new AsyncGroupByNotKeyedRecordCursor(groupByFunctions, recordFunctions);
+            this.workerCount = workerCount;
+            this.atom = new AsyncGroupByNotKeyedAtom(
+                    asm,
+                    configuration,
+                    groupByFunctions,
+                    perWorkerGroupByFunctions,
+                    valueCount,
+                    compiledFilter,
+                    bindVarMemory,
+                    bindVarFunctions,
+                    filter,
+                    perWorkerFilters,
+                    workerCount
+            );
+        } catch (Throwable e) {
+            Misc.freeObjList(groupByFunctions);
+            throw e;
+        }
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final PageFrameSequence<AsyncGroupByNotKeyedAtom> frameSequence = this.frameSequence.of(base, executionContext, collectSubSeq, atom, ORDER_ASC);
+        try {
+            cursor.of(frameSequence, executionContext);
+            return cursor;
+        } catch (Throwable e) {
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(atom.getCompiledFilter() != null ? "Async JIT Group By" : "Async Group By");
+        sink.meta("workers").val(workerCount);
+        sink.optAttr("values", groupByFunctions, true);
+        sink.optAttr("filter", atom.getFilter(-1), true);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return atom.getCompiledFilter() != null || base.usesCompiledFilter();
+    }
+
+    private static void aggregate(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final long frameRowCount = task.getFrameRowCount();
+        final AsyncGroupByNotKeyedAtom atom = task.getFrameSequence(AsyncGroupByNotKeyedAtom.class).getAtom();
+
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        final GroupByFunctionsUpdater functionUpdater = atom.getFunctionUpdater(slotId);
+        final SimpleMapValue value = atom.getMapValue(slotId);
+        final SqlExecutionCircuitBreaker ownerCircuitBreaker = atom.getOwnerCircuitBreaker();
+        final PageFrameSequence<?> frameSequence = task.getFrameSequence();
+        try {
+            final CompiledFilter compiledFilter = atom.getCompiledFilter();
+            final Function filter = atom.getFilter(slotId);
+            if (compiledFilter == null || task.getPageAddressCache().hasColumnTops(task.getFrameIndex())) {
+                // Use Java-based filter, if any, when there is no compiled filter or the frame has column tops.
+                long r = 0;
+                if (atom.isNew(slotId)) {
+                    for (; r < frameRowCount; r++) {
+                        if (GroupByUtils.isReduceInterrupted(r, owner, ownerCircuitBreaker, circuitBreaker, frameSequence)) {
+                            return;
+                        }
+                        record.setRowIndex(r);
+                        if (filter == null || filter.getBool(record)) {
+                            functionUpdater.updateNew(value, record);
+                            atom.setNotNew(slotId);
+                            r++;
+                            break;
+                        }
+                    }
+                }
+                for (; r < frameRowCount; r++) {
+                    if (GroupByUtils.isReduceInterrupted(r, owner, ownerCircuitBreaker, circuitBreaker, frameSequence)) {
+                        return;
+                    }
+                    record.setRowIndex(r);
+                    if (filter == null || filter.getBool(record)) {
+                        functionUpdater.updateExisting(value, record);
+                    }
+                }
+            } else {
+                final DirectLongList rows = task.getRows();
+                rows.clear();
+                AsyncFilterUtils.applyCompiledFilter(compiledFilter, atom.getBindVarMemory(), atom.getBindVarFunctions(), task);
+                long p = 0;
+                final long n = rows.size();
+                if (n > 0 && atom.isNew(slotId)) {
+                    record.setRowIndex(rows.get(p++));
+                    functionUpdater.updateNew(value, record);
+                    atom.setNotNew(slotId);
+                }
+                for (; p < n; p++) {
+                    if (GroupByUtils.isReduceInterrupted(p, owner, ownerCircuitBreaker, circuitBreaker, frameSequence)) {
+                        return;
+                    }
+                    record.setRowIndex(rows.get(p));
+                    functionUpdater.updateExisting(value, record);
+                }
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(cursor);
+        Misc.free(base);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+        Misc.freeObjList(groupByFunctions);
+    }
+}
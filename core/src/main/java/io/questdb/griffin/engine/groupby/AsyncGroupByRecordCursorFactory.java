@@ -0,0 +1,240 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ListColumnFilter;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.RecordSinkFactory;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReduceTaskFactory;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.table.AsyncFilterUtils;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+
+/**
+ * Keyed GROUP BY executed in parallel over page frames. Each worker aggregates the frames it
+ * picks up into its own hash table, then the query owner thread merges per-worker tables
+ * into the final result.
+ */
+public class AsyncGroupByRecordCursorFactory extends AbstractRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncGroupByRecordCursorFactory::aggregate;
+
+    private final AsyncGroupByAtom atom;
+    private final RecordCursorFactory base;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncGroupByRecordCursor cursor;
+    private final PageFrameSequence<AsyncGroupByAtom> frameSequence;
+    private final ObjList<GroupByFunction> groupByFunctions;
+    private final ObjList<Function> recordFunctions;
+    private final int workerCount;
+
+    public AsyncGroupByRecordCursorFactory(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordCursorFactory base,
+            @NotNull RecordMetadata groupByMetadata,
+            @Transient @NotNull ListColumnFilter listColumnFilter,
+            @Transient @NotNull ArrayColumnTypes keyTypes,
+            @Transient @NotNull ArrayColumnTypes valueTypes,
+            @NotNull ObjList<GroupByFunction> groupByFunctions,
+            @NotNull ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions,
+            @NotNull ObjList<Function> recordFunctions,
+            @Nullable CompiledFilter compiledFilter,
+            @Nullable MemoryCARW bindVarMemory,
+            @Nullable ObjList<Function> bindVarFunctions,
+            @Nullable Function filter,
+            @NotNull PageFrameReduceTaskFactory reduceTaskFactory,
+            @Nullable ObjList<Function> perWorkerFilters,
+            int workerCount
+    ) {
+        super(groupByMetadata);
+        try {
+            this.base = base;
+            this.groupByFunctions = groupByFunctions;
+            this.recordFunctions = recordFunctions;
+            this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, reduceTaskFactory);
+            this.cursor = new AsyncGroupByRecordCursor(recordFunctions, groupByFunctions);
+            this.workerCount = workerCount;
+            // sink will be storing record columns to map key
+            final RecordSink mapSink = RecordSinkFactory.getInstance(asm, base.getMetadata(), listColumnFilter, false);
+            this.atom = new AsyncGroupByAtom(
+                    asm,
+                    configuration,
+                    keyTypes,
+                    valueTypes,
+                    mapSink,
+                    groupByFunctions,
+                    perWorkerGroupByFunctions,
+                    compiledFilter,
+                    bindVarMemory,
+                    bindVarFunctions,
+                    filter,
+                    perWorkerFilters,
+                    workerCount
+            );
+        } catch (Throwable e) {
+            Misc.freeObjList(recordFunctions);
+            throw e;
+        }
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final PageFrameSequence<AsyncGroupByAtom> frameSequence = this.frameSequence.of(base, executionContext, collectSubSeq, atom, ORDER_ASC);
+        try {
+            cursor.of(frameSequence, executionContext);
+            return cursor;
+        } catch (Throwable e) {
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(atom.getCompiledFilter() != null ? "Async JIT Group By" : "Async Group By");
+        sink.meta("workers").val(workerCount);
+        sink.optAttr("keys", GroupByRecordCursorFactory.getKeys(recordFunctions, getMetadata()));
+        sink.optAttr("values", groupByFunctions, true);
+        sink.optAttr("filter", atom.getFilter(-1), true);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return atom.getCompiledFilter() != null || base.usesCompiledFilter();
+    }
+
+    static void aggregate(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final long frameRowCount = task.getFrameRowCount();
+        final AsyncGroupByAtom atom = task.getFrameSequence(AsyncGroupByAtom.class).getAtom();
+
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        final Function filter = atom.getFilter(slotId);
+        final GroupByFunctionsUpdater functionUpdater = atom.getFunctionUpdater(slotId);
+        final RecordSink mapSink = atom.getMapSink();
+        final SqlExecutionCircuitBreaker ownerCircuitBreaker = atom.getOwnerCircuitBreaker();
+        final PageFrameSequence<?> frameSequence = task.getFrameSequence();
+        try {
+            final Map map = atom.getMap(slotId);
+            final CompiledFilter compiledFilter = atom.getCompiledFilter();
+            if (compiledFilter == null || task.getPageAddressCache().hasColumnTops(task.getFrameIndex())) {
+                // Use Java-based filter, if any, when there is no compiled filter or the frame has column tops.
+                for (long r = 0; r < frameRowCount; r++) {
+                    if (GroupByUtils.isReduceInterrupted(r, owner, ownerCircuitBreaker, circuitBreaker, frameSequence)) {
+                        return;
+                    }
+                    record.setRowIndex(r);
+                    if (filter != null && !filter.getBool(record)) {
+                        continue;
+                    }
+                    aggregateRecord(map, mapSink, functionUpdater, record);
+                }
+            } else {
+                final DirectLongList rows = task.getRows();
+                rows.clear();
+                AsyncFilterUtils.applyCompiledFilter(compiledFilter, atom.getBindVarMemory(), atom.getBindVarFunctions(), task);
+                for (long p = 0, n = rows.size(); p < n; p++) {
+                    if (GroupByUtils.isReduceInterrupted(p, owner, ownerCircuitBreaker, circuitBreaker, frameSequence)) {
+                        return;
+                    }
+                    record.setRowIndex(rows.get(p));
+                    aggregateRecord(map, mapSink, functionUpdater, record);
+                }
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    private static void aggregateRecord(
+            Map map,
+            RecordSink mapSink,
+            GroupByFunctionsUpdater functionUpdater,
+            PageAddressCacheRecord record
+    ) {
+        final MapKey key = map.withKey();
+        mapSink.copy(record, key);
+        final MapValue value = key.createValue();
+        if (value.isNew()) {
+            functionUpdater.updateNew(value, record);
+        } else {
+            functionUpdater.updateExisting(value, record);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(cursor);
+        Misc.free(base);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+        Misc.freeObjList(recordFunctions);
+    }
+}
@@ -0,0 +1,716 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.map.*;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.AbstractVirtualFunctionRecordCursor;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.functions.TimestampFunction;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.datetime.microtime.Timestamps;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.std.datetime.microtime.Timestamps.MINUTE_MICROS;
+
+class AsyncSampleByRecordCursor extends AbstractVirtualFunctionRecordCursor {
+    private static final long GAP = 1;
+    private static final Log LOG = LogFactory.getLog(AsyncSampleByRecordCursor.class);
+    private static final long NO_ROW_ID = -1;
+    // gaps of FILL(LINEAR) keyed by the sample by keys and the start of the sample interval
+    private final Map gapMap;
+    private final ObjList<GroupByFunction> groupByFunctions;
+    private final ObjList<InterpolationUtil.InterpolatorFunction> interpolatorFunctions;
+    private final boolean isLinearFill;
+    // copies key columns of a map record to a map key; map records list value columns first
+    private final RecordSink keySink;
+    // sample by keys in the order of their first observation, used to fill the gaps of keyed queries
+    private final Map keyMap;
+    private final Function offsetFunc;
+    private final int offsetFuncPos;
+    private final ObjList<Function> recordFunctions;
+    // pairs of (min row id, map record row id) sorted by the min row id
+    private final DirectLongList sortedRows;
+    // switches between group values and FILL(NULL|PREV|<value>) placeholders
+    private final SplitVirtualRecord splitRecord;
+    private final ObjList<InterpolationUtil.StoreYFunction> storeYFunctions;
+    private final int timestampIndex;
+    // index of the sample interval start in map records
+    private final int timestampKeyIndex;
+    private final TimestampSampler timestampSampler;
+    private SqlExecutionCircuitBreaker circuitBreaker;
+    private long cursor = -1;
+    // start of the sample interval being emitted when gaps are filled
+    private long fillTimestamp;
+    private long fixedOffset;
+    private int frameLimit;
+    private PageFrameSequence<AsyncGroupByAtom> frameSequence;
+    private RecordCursor gapCursor;
+    private MapRecord gapRecord;
+    private boolean hasGap;
+    private long hiTimestamp;
+    private boolean isDataMapBuilt;
+    private boolean isGapPeeked;
+    private boolean isOpen;
+    private RecordCursor keyCursor;
+    private MapRecord keyRecord;
+    private long loTimestamp;
+    private Map map;
+    private MapRecord mapRecord;
+    private long prevRowId;
+    private long sortedRowIndex;
+    private long yData;
+
+    public AsyncSampleByRecordCursor(
+            CairoConfiguration configuration,
+            ObjList<Function> recordFunctions,
+            @Nullable ObjList<Function> placeholderFunctions,
+            ObjList<GroupByFunction> groupByFunctions,
+            @Transient ArrayColumnTypes keyTypes,
+            @Transient ArrayColumnTypes valueTypes,
+            @Nullable RecordSink keySink,
+            boolean isLinearFill,
+            TimestampSampler timestampSampler,
+            Function offsetFunc,
+            int offsetFuncPos,
+            int timestampIndex
+    ) {
+        super(recordFunctions, false);
+        this.recordFunctions = recordFunctions;
+        this.groupByFunctions = groupByFunctions;
+        this.keySink = keySink;
+        this.isLinearFill = isLinearFill;
+        this.timestampSampler = timestampSampler;
+        this.offsetFunc = offsetFunc;
+        this.offsetFuncPos = offsetFuncPos;
+        this.timestampIndex = timestampIndex;
+        this.timestampKeyIndex = valueTypes.getColumnCount() + keyTypes.getColumnCount();
+        this.sortedRows = new DirectLongList(configuration.getSqlSortKeyPageSize() / Long.BYTES, MemoryTag.NATIVE_SAMPLE_BY_LONG_LIST);
+
+        if (placeholderFunctions != null) {
+            final FillTimestampFunction fillTimestampFunction = new FillTimestampFunction();
+            for (int i = 0, n = placeholderFunctions.size(); i < n; i++) {
+                if (placeholderFunctions.getQuick(i) == null) {
+                    placeholderFunctions.setQuick(i, fillTimestampFunction);
+                }
+            }
+            this.splitRecord = new SplitVirtualRecord(recordFunctions, placeholderFunctions);
+        } else {
+            this.splitRecord = null;
+        }
+
+        final boolean isFilled = placeholderFunctions != null || isLinearFill;
+        this.keyMap = isFilled && keyTypes.getColumnCount() > 0 ? MapFactory.createMap(configuration, keyTypes, valueTypes) : null;
+        if (isLinearFill) {
+            final ArrayColumnTypes gapKeyTypes = new ArrayColumnTypes();
+            for (int i = 0, n = keyTypes.getColumnCount(); i < n; i++) {
+                gapKeyTypes.add(keyTypes.getColumnType(i));
+            }
+            gapKeyTypes.add(ColumnType.TIMESTAMP);
+            this.gapMap = MapFactory.createMap(configuration, gapKeyTypes, valueTypes);
+            this.storeYFunctions = new ObjList<>(groupByFunctions.size());
+            this.interpolatorFunctions = new ObjList<>(groupByFunctions.size());
+            for (int i = 0, n = groupByFunctions.size(); i < n; i++) {
+                final int type = groupByFunctions.getQuick(i).getType();
+                storeYFunctions.add(getStoreYFunction(type));
+                interpolatorFunctions.add(getInterpolatorFunction(type));
+            }
+        } else {
+            this.gapMap = null;
+            this.storeYFunctions = null;
+            this.interpolatorFunctions = null;
+        }
+        isOpen = true;
+    }
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            isOpen = false;
+            // map cursor is owned by the atom's map, so we don't close it
+            baseCursor = null;
+            Misc.free(sortedRows);
+            Misc.free(keyMap);
+            Misc.free(gapMap);
+            freeYData();
+
+            if (frameSequence != null) {
+                LOG.debug()
+                        .$("closing [shard=").$(frameSequence.getShard())
+                        .$(", frameCount=").$(frameLimit)
+                        .$(", frameId=").$(frameSequence.getId())
+                        .$(", cursor=").$(cursor)
+                        .I$();
+
+                collectCursor(true);
+                if (frameLimit > -1) {
+                    frameSequence.await();
+                }
+                frameSequence.clear();
+                frameSequence.getAtom().clear();
+            }
+            Misc.clearObjList(groupByFunctions);
+        }
+    }
+
+    @Override
+    public Record getRecord() {
+        return splitRecord != null ? splitRecord : recordA;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!isDataMapBuilt) {
+            buildMap();
+        }
+        if (splitRecord != null) {
+            return keyMap != null ? hasNextFilledKeyed() : hasNextFilled();
+        }
+        if (isLinearFill) {
+            return hasNextInterpolated();
+        }
+        if (sortedRowIndex < sortedRows.size()) {
+            baseCursor.recordAt(mapRecord, sortedRows.get(sortedRowIndex + 1));
+            sortedRowIndex += 2;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void recordAt(Record record, long atRowId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long size() {
+        return -1;
+    }
+
+    @Override
+    public void toTop() {
+        // the map is built and sorted once, so we simply rewind the sorted rows
+        sortedRowIndex = 0;
+        if (isDataMapBuilt) {
+            toTopFill();
+        }
+        GroupByUtils.toTop(recordFunctions);
+    }
+
+    private static InterpolationUtil.InterpolatorFunction getInterpolatorFunction(int type) {
+        switch (ColumnType.tagOf(type)) {
+            case ColumnType.BYTE:
+                return InterpolationUtil.INTERPOLATE_BYTE;
+            case ColumnType.SHORT:
+                return InterpolationUtil.INTERPOLATE_SHORT;
+            case ColumnType.INT:
+                return InterpolationUtil.INTERPOLATE_INT;
+            case ColumnType.LONG:
+                return InterpolationUtil.INTERPOLATE_LONG;
+            case ColumnType.DOUBLE:
+                return InterpolationUtil.INTERPOLATE_DOUBLE;
+            case ColumnType.FLOAT:
+                return InterpolationUtil.INTERPOLATE_FLOAT;
+            default:
+                return null;
+        }
+    }
+
+    private static InterpolationUtil.StoreYFunction getStoreYFunction(int type) {
+        switch (ColumnType.tagOf(type)) {
+            case ColumnType.BYTE:
+                return InterpolationUtil.STORE_Y_BYTE;
+            case ColumnType.SHORT:
+                return InterpolationUtil.STORE_Y_SHORT;
+            case ColumnType.INT:
+                return InterpolationUtil.STORE_Y_INT;
+            case ColumnType.LONG:
+                return InterpolationUtil.STORE_Y_LONG;
+            case ColumnType.DOUBLE:
+                return InterpolationUtil.STORE_Y_DOUBLE;
+            case ColumnType.FLOAT:
+                return InterpolationUtil.STORE_Y_FLOAT;
+            default:
+                return null;
+        }
+    }
+
+    private void buildMap() {
+        if (frameLimit == -1) {
+            frameSequence.prepareForDispatch();
+            frameLimit = frameSequence.getFrameCount() - 1;
+            initSampler();
+        }
+
+        int frameIndex = -1;
+        boolean allFramesActive = true;
+        try {
+            do {
+                cursor = frameSequence.next();
+                if (cursor > -1) {
+                    PageFrameReduceTask task = frameSequence.getTask(cursor);
+                    LOG.debug()
+                            .$("collected [shard=").$(frameSequence.getShard())
+                            .$(", frameIndex=").$(task.getFrameIndex())
+                            .$(", frameCount=").$(frameSequence.getFrameCount())
+                            .$(", frameId=").$(frameSequence.getId())
+                            .$(", active=").$(frameSequence.isActive())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+                    if (task.hasError()) {
+                        throw CairoException.nonCritical().put(task.getErrorMsg());
+                    }
+
+                    allFramesActive &= frameSequence.isActive();
+                    frameIndex = task.getFrameIndex();
+
+                    collectCursor(false);
+                    circuitBreaker.statefulThrowExceptionIfTripped();
+                } else if (cursor == -2) {
+                    break; // No frames to aggregate
+                } else {
+                    Os.pause();
+                }
+            } while (frameIndex < frameLimit);
+        } catch (Throwable e) {
+            LOG.error().$("sample by error [ex=").$(e).I$();
+            if (e instanceof CairoException) {
+                CairoException ce = (CairoException) e;
+                if (ce.isInterruption()) {
+                    throwTimeoutException();
+                } else {
+                    throw ce;
+                }
+            }
+            throw CairoException.nonCritical().put(e.getMessage());
+        }
+
+        if (!allFramesActive) {
+            throwTimeoutException();
+        }
+
+        // all frames are aggregated, so it's time to merge per-worker maps
+        final AsyncGroupByAtom atom = frameSequence.getAtom();
+        atom.mergeWorkerMaps();
+        map = atom.getOwnerMap();
+        final RecordCursor mapCursor = map.getCursor();
+        super.of(mapCursor);
+        mapRecord = (MapRecord) mapCursor.getRecord();
+
+        // Order the groups by their first row. Since page frames are in timestamp order, this gives
+        // us the order of sample intervals and, within an interval, the order in which the serial
+        // cursor would have seen the keys.
+        sortedRows.clear();
+        while (mapCursor.hasNext()) {
+            sortedRows.add(mapRecord.getLong(0));
+            sortedRows.add(mapRecord.getRowId());
+        }
+        Vect.sortLongIndexAscInPlace(sortedRows.getAddress(), sortedRows.size() / 2);
+        sortedRowIndex = 0;
+        if (sortedRows.size() > 0 && (splitRecord != null || isLinearFill)) {
+            buildFill();
+        }
+        isDataMapBuilt = true;
+    }
+
+    private void buildFill() {
+        baseCursor.recordAt(mapRecord, sortedRows.get(1));
+        loTimestamp = mapRecord.getTimestamp(timestampKeyIndex);
+        baseCursor.recordAt(mapRecord, sortedRows.get(sortedRows.size() - 1));
+        hiTimestamp = mapRecord.getTimestamp(timestampKeyIndex);
+
+        if (keyMap != null) {
+            keyMap.clear();
+            for (long i = 1, n = sortedRows.size(); i < n; i += 2) {
+                circuitBreaker.statefulThrowExceptionIfTripped();
+                baseCursor.recordAt(mapRecord, sortedRows.get(i));
+                final MapKey key = keyMap.withKey();
+                keySink.copy(mapRecord, key);
+                final MapValue value = key.createValue();
+                if (value.isNew()) {
+                    // until the key is observed, its FILL(PREV) values are nulls
+                    value.putLong(0, NO_ROW_ID);
+                    for (int j = 0, m = groupByFunctions.size(); j < m; j++) {
+                        groupByFunctions.getQuick(j).setNull(value);
+                    }
+                }
+            }
+            keyCursor = keyMap.getCursor();
+            keyRecord = (MapRecord) keyCursor.getRecord();
+        }
+
+        if (isLinearFill) {
+            fillGaps();
+            gapCursor = gapMap.getCursor();
+            gapRecord = (MapRecord) gapCursor.getRecord();
+            if (keyMap != null) {
+                keyCursor.toTop();
+                while (keyCursor.hasNext()) {
+                    interpolateGaps();
+                }
+            } else {
+                interpolateGaps();
+            }
+        } else if (keyMap == null) {
+            splitRecord.of(mapRecord);
+        }
+        toTopFill();
+    }
+
+    private void collectCursor(boolean forceCollect) {
+        if (cursor > -1) {
+            frameSequence.collect(cursor, forceCollect);
+            // It is necessary to clear 'cursor' value
+            // because we updated frameIndex and loop can exit due to lack of frames.
+            // Non-update of 'cursor' could cause double-free.
+            cursor = -1;
+        }
+    }
+
+    private void fillGaps() {
+        // gaps are added in the order of sample intervals and, within an interval, in the order
+        // of the keys, so that the gap map cursor returns them in the order the serial cursor does
+        gapMap.clear();
+        for (long timestamp = loTimestamp; timestamp <= hiTimestamp; timestamp = timestampSampler.nextTimestamp(timestamp)) {
+            if (keyMap != null) {
+                keyCursor.toTop();
+                while (keyCursor.hasNext()) {
+                    fillGap(timestamp);
+                }
+            } else {
+                fillGap(timestamp);
+            }
+        }
+    }
+
+    private void fillGap(long timestamp) {
+        circuitBreaker.statefulThrowExceptionIfTripped();
+        if (withKey(map, timestamp).findValue() == null) {
+            withKey(gapMap, timestamp).createValue().putLong(0, GAP);
+        }
+    }
+
+    private MapValue findValue(long timestamp) {
+        final MapValue value = withKey(map, timestamp).findValue();
+        return value != null ? value : withKey(gapMap, timestamp).findValue();
+    }
+
+    private void freeYData() {
+        if (yData != 0) {
+            Unsafe.free(yData, groupByFunctions.size() * 16L, MemoryTag.NATIVE_FUNC_RSS);
+            yData = 0;
+        }
+    }
+
+    private boolean hasNextFilled() {
+        if (sortedRows.size() == 0 || !nextFillTimestamp()) {
+            return false;
+        }
+        // non-keyed query has a single group per sample interval
+        if (sortedRowIndex < sortedRows.size()) {
+            final long rowId = sortedRows.get(sortedRowIndex + 1);
+            baseCursor.recordAt(mapRecord, rowId);
+            if (mapRecord.getTimestamp(timestampKeyIndex) == fillTimestamp) {
+                sortedRowIndex += 2;
+                prevRowId = rowId;
+                splitRecord.setActiveA();
+                return true;
+            }
+        }
+        // the first interval always has data, so there is a previous group to fill the gap with
+        baseCursor.recordAt(mapRecord, prevRowId);
+        splitRecord.setActiveB();
+        return true;
+    }
+
+    private boolean hasNextFilledKeyed() {
+        if (sortedRows.size() == 0) {
+            return false;
+        }
+        while (true) {
+            if (fillTimestamp != Long.MIN_VALUE && keyCursor.hasNext()) {
+                final MapValue keyValue = keyRecord.getValue();
+                final MapValue value = withKey(map, fillTimestamp).findValue();
+                if (value != null) {
+                    keyValue.putLong(0, value.getAddress());
+                    baseCursor.recordAt(mapRecord, value.getAddress());
+                    splitRecord.of(mapRecord);
+                    splitRecord.setActiveA();
+                } else {
+                    final long rowId = keyValue.getLong(0);
+                    if (rowId != NO_ROW_ID) {
+                        baseCursor.recordAt(mapRecord, rowId);
+                        splitRecord.of(mapRecord);
+                    } else {
+                        splitRecord.of(keyRecord);
+                    }
+                    splitRecord.setActiveB();
+                }
+                return true;
+            }
+            if (!nextFillTimestamp()) {
+                return false;
+            }
+            keyCursor.toTop();
+        }
+    }
+
+    private boolean hasNextInterpolated() {
+        if (sortedRows.size() == 0) {
+            return false;
+        }
+        while (true) {
+            if (fillTimestamp != Long.MIN_VALUE) {
+                // groups with data go first, in the order of their first rows
+                if (sortedRowIndex < sortedRows.size()) {
+                    baseCursor.recordAt(mapRecord, sortedRows.get(sortedRowIndex + 1));
+                    if (mapRecord.getTimestamp(timestampKeyIndex) == fillTimestamp) {
+                        sortedRowIndex += 2;
+                        recordA.of(mapRecord);
+                        return true;
+                    }
+                }
+                // then the gaps
+                if (!isGapPeeked) {
+                    hasGap = gapCursor.hasNext();
+                    isGapPeeked = true;
+                }
+                if (hasGap && gapRecord.getTimestamp(timestampKeyIndex) == fillTimestamp) {
+                    isGapPeeked = false;
+                    recordA.of(gapRecord);
+                    return true;
+                }
+            }
+            if (!nextFillTimestamp()) {
+                return false;
+            }
+        }
+    }
+
+    private void initSampler() {
+        if (fixedOffset != Long.MIN_VALUE) {
+            timestampSampler.setStart(fixedOffset);
+            return;
+        }
+        // align sample intervals to the first observation; the factory guarantees
+        // that the base factory is not filtered, so it's the first row of the first non-empty frame
+        for (int i = 0, n = frameSequence.getFrameCount(); i < n; i++) {
+            if (frameSequence.getFrameRowCount(i) > 0) {
+                final long address = frameSequence.getPageAddressCache().getPageAddress(i, timestampIndex);
+                timestampSampler.setStart(Unsafe.getUnsafe().getLong(address));
+                return;
+            }
+        }
+    }
+
+    private void interpolate(long lo, long hi, long x1, long x2) {
+        storeY(x1, 0);
+        storeY(x2, 8);
+        for (long x = lo; x < hi; x = timestampSampler.nextTimestamp(x)) {
+            final MapValue value = withKey(gapMap, x).findValue();
+            assert value != null && value.getLong(0) == GAP;
+            for (int i = 0, n = groupByFunctions.size(); i < n; i++) {
+                interpolatorFunctions.getQuick(i).interpolateAndStore(groupByFunctions.getQuick(i), value, x, x1, x2, yData + i * 16L, yData + i * 16L + 8);
+            }
+            value.putLong(0, 0);
+        }
+    }
+
+    // Same rules as the serial FILL(LINEAR) cursor: gaps between two data points are interpolated,
+    // leading and trailing gaps are extrapolated from the nearest two points, and a key
+    // with a single data point gets nulls.
+    private void interpolateGaps() {
+        final long hi = timestampSampler.nextTimestamp(hiTimestamp);
+        for (long sample = loTimestamp, prevSample = loTimestamp; sample < hi; prevSample = sample, sample = timestampSampler.nextTimestamp(sample)) {
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            if (!isGap(sample)) {
+                continue;
+            }
+
+            long x2 = timestampSampler.nextTimestamp(sample);
+            while (x2 < hi && isGap(x2)) {
+                x2 = timestampSampler.nextTimestamp(x2);
+            }
+
+            if (x2 < hi) {
+                if (sample == loTimestamp) {
+                    // no data point before the gap, extrapolate from the first two points
+                    final long x1 = x2;
+                    do {
+                        x2 = timestampSampler.nextTimestamp(x2);
+                    } while (x2 < hi && isGap(x2));
+
+                    if (x2 < hi) {
+                        interpolate(loTimestamp, x1, x1, x2);
+                    } else {
+                        nullifyRange(loTimestamp, x1);
+                        nullifyRange(timestampSampler.nextTimestamp(x1), hi);
+                    }
+                } else {
+                    interpolate(sample, x2, prevSample, x2);
+                }
+            } else {
+                // no data point after the gap, extrapolate from the last two points
+                final long x1 = timestampSampler.previousTimestamp(prevSample);
+                if (x1 < loTimestamp) {
+                    nullifyRange(sample, hi);
+                } else {
+                    interpolate(sample, hi, x1, prevSample);
+                }
+            }
+        }
+    }
+
+    private boolean isGap(long timestamp) {
+        return withKey(map, timestamp).findValue() == null && withKey(gapMap, timestamp).findValue().getLong(0) == GAP;
+    }
+
+    private boolean nextFillTimestamp() {
+        if (fillTimestamp == Long.MIN_VALUE) {
+            fillTimestamp = loTimestamp;
+            return true;
+        }
+        if (fillTimestamp < hiTimestamp) {
+            fillTimestamp = timestampSampler.nextTimestamp(fillTimestamp);
+            return true;
+        }
+        return false;
+    }
+
+    private void nullifyRange(long lo, long hi) {
+        for (long x = lo; x < hi; x = timestampSampler.nextTimestamp(x)) {
+            final MapValue value = withKey(gapMap, x).findValue();
+            assert value != null && value.getLong(0) == GAP;
+            for (int i = 0, n = groupByFunctions.size(); i < n; i++) {
+                groupByFunctions.getQuick(i).setNull(value);
+            }
+            value.putLong(0, 0);
+        }
+    }
+
+    private void storeY(long timestamp, long offset) {
+        final MapValue value = findValue(timestamp);
+        for (int i = 0, n = groupByFunctions.size(); i < n; i++) {
+            storeYFunctions.getQuick(i).store(groupByFunctions.getQuick(i), value, yData + i * 16L + offset);
+        }
+    }
+
+    private void throwTimeoutException() {
+        throw CairoException.nonCritical().put("timeout, query aborted").setInterruption(true);
+    }
+
+    private void toTopFill() {
+        fillTimestamp = Long.MIN_VALUE;
+        if (keyMap != null) {
+            if (splitRecord != null) {
+                keyCursor.toTop();
+                while (keyCursor.hasNext()) {
+                    keyRecord.getValue().putLong(0, NO_ROW_ID);
+                }
+            }
+            keyCursor.toTop();
+        }
+        if (gapCursor != null) {
+            gapCursor.toTop();
+            isGapPeeked = false;
+        }
+    }
+
+    // key columns are taken from the key being processed
+    private MapKey withKey(Map map, long timestamp) {
+        final MapKey key = map.withKey();
+        if (keyMap != null) {
+            keySink.copy(keyRecord, key);
+        }
+        key.putTimestamp(timestamp);
+        return key;
+    }
+
+    void of(PageFrameSequence<AsyncGroupByAtom> frameSequence, SqlExecutionContext executionContext) throws SqlException {
+        final AsyncGroupByAtom atom = frameSequence.getAtom();
+        if (!isOpen) {
+            isOpen = true;
+            atom.reopen();
+            sortedRows.reopen();
+            if (keyMap != null) {
+                keyMap.reopen();
+            }
+            if (gapMap != null) {
+                gapMap.reopen();
+            }
+        }
+        if (isLinearFill && yData == 0) {
+            yData = Unsafe.malloc(groupByFunctions.size() * 16L, MemoryTag.NATIVE_FUNC_RSS);
+        }
+        this.frameSequence = frameSequence;
+        this.circuitBreaker = executionContext.getCircuitBreaker();
+        Function.init(recordFunctions, frameSequence.getSymbolTableSource(), executionContext);
+
+        offsetFunc.init(frameSequence.getSymbolTableSource(), executionContext);
+        final CharSequence offset = offsetFunc.getStr(null);
+        if (offset != null) {
+            final long val = Timestamps.parseOffset(offset);
+            if (val == Numbers.LONG_NaN) {
+                // bad value for offset
+                throw SqlException.$(offsetFuncPos, "invalid offset: ").put(offset);
+            }
+            fixedOffset = Numbers.decodeLowInt(val) * MINUTE_MICROS;
+        } else {
+            fixedOffset = Long.MIN_VALUE;
+        }
+
+        isDataMapBuilt = false;
+        frameLimit = -1;
+        gapCursor = null;
+    }
+
+    private class FillTimestampFunction extends TimestampFunction {
+
+        @Override
+        public long getTimestamp(Record rec) {
+            return fillTimestamp;
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val("Timestamp");
+        }
+    }
+}
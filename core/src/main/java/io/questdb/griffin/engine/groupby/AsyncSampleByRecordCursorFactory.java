@@ -0,0 +1,364 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.groupby;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ListColumnFilter;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.RecordSinkFactory;
+import io.questdb.cairo.RecordSinkSPI;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTaskFactory;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlKeywords;
+import io.questdb.griffin.engine.functions.GroupByFunction;
+import io.questdb.griffin.engine.functions.columns.TimestampColumn;
+import io.questdb.griffin.model.ExpressionNode;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+
+/**
+ * SAMPLE BY executed in parallel over page frames. Workers aggregate the frames they pick up
+ * into their own hash tables keyed by the sample by keys and the start of the sample interval,
+ * then the query owner thread merges per-worker tables. Each group also tracks the lowest row id
+ * it has seen, so that the merged groups can be emitted in the same order as the serial cursor
+ * would emit them.
+ * <p>
+ * FILL(NULL), FILL(PREV), FILL(LINEAR) and fill values are applied to the merged groups by the cursor,
+ * once all frames are aggregated. FILL(LINEAR) ignores offset the same way the serial factory does,
+ * i.e. sample intervals are always aligned to the first observation.
+ * <p>
+ * Sample intervals must have a fixed size and no time zone, so that interval boundaries
+ * can be calculated for each row independently. When the intervals are aligned to the first
+ * observation, the base factory must not be filtered, so that the first observation is simply
+ * the first row of the first page frame.
+ */
+public class AsyncSampleByRecordCursorFactory extends AbstractRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncGroupByRecordCursorFactory::aggregate;
+
+    private final AsyncGroupByAtom atom;
+    private final RecordCursorFactory base;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncSampleByRecordCursor cursor;
+    private final String fill;
+    private final PageFrameSequence<AsyncGroupByAtom> frameSequence;
+    private final ObjList<GroupByFunction> groupByFunctions;
+    private final Function offsetFunc;
+    private final ObjList<Function> recordFunctions;
+    private final int workerCount;
+
+    public AsyncSampleByRecordCursorFactory(
+            @Transient @NotNull BytecodeAssembler asm,
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordCursorFactory base,
+            @NotNull RecordMetadata groupByMetadata,
+            @Transient @NotNull ListColumnFilter listColumnFilter,
+            @Transient @NotNull ArrayColumnTypes keyTypes,
+            @Transient @NotNull ArrayColumnTypes valueTypes,
+            @NotNull ObjList<GroupByFunction> groupByFunctions,
+            @NotNull ObjList<ObjList<GroupByFunction>> perWorkerGroupByFunctions,
+            @NotNull ObjList<Function> recordFunctions,
+            @Nullable ObjList<Function> placeholderFunctions,
+            @Transient @NotNull ObjList<ExpressionNode> sampleByFill,
+            @NotNull TimestampSampler timestampSampler,
+            @NotNull Function offsetFunc,
+            int offsetFuncPos,
+            int timestampIndex,
+            @Nullable CompiledFilter compiledFilter,
+            @Nullable MemoryCARW bindVarMemory,
+            @Nullable ObjList<Function> bindVarFunctions,
+            @Nullable Function filter,
+            @NotNull PageFrameReduceTaskFactory reduceTaskFactory,
+            @Nullable ObjList<Function> perWorkerFilters,
+            int workerCount
+    ) {
+        super(groupByMetadata);
+        try {
+            this.base = base;
+            this.groupByFunctions = groupByFunctions;
+            this.recordFunctions = recordFunctions;
+            this.offsetFunc = offsetFunc;
+            this.workerCount = workerCount;
+            this.fill = getFillMode(sampleByFill);
+            final boolean isLinearFill = "linear".equals(fill);
+
+            // The first value slot is reserved by the sample by code generator, we use it for the min row id.
+            // The start of the sample interval is stored as the last key column.
+            final ArrayColumnTypes mapKeyTypes = new ArrayColumnTypes();
+            for (int i = 0, n = keyTypes.getColumnCount(); i < n; i++) {
+                mapKeyTypes.add(keyTypes.getColumnType(i));
+            }
+            mapKeyTypes.add(ColumnType.TIMESTAMP);
+            final int timestampKeyIndex = valueTypes.getColumnCount() + keyTypes.getColumnCount();
+            for (int i = 0, n = recordFunctions.size(); i < n; i++) {
+                if (recordFunctions.getQuick(i) == null) {
+                    recordFunctions.setQuick(i, TimestampColumn.newInstance(timestampKeyIndex));
+                }
+            }
+
+            final ObjList<GroupByFunction> ownerFunctions = withRowIdFunction(groupByFunctions);
+            final ObjList<ObjList<GroupByFunction>> perWorkerFunctions = new ObjList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerFunctions.extendAndSet(i, withRowIdFunction(perWorkerGroupByFunctions.getQuick(i)));
+            }
+
+            final RecordSink keySink = RecordSinkFactory.getInstance(asm, base.getMetadata(), listColumnFilter, false);
+            RecordSink mapKeySink = null;
+            if (fill != null && keyTypes.getColumnCount() > 0) {
+                // copies key columns of merged map records, where value columns go first
+                final ArrayColumnTypes mapColumnTypes = new ArrayColumnTypes();
+                for (int i = 0, n = valueTypes.getColumnCount(); i < n; i++) {
+                    mapColumnTypes.add(valueTypes.getColumnType(i));
+                }
+                for (int i = 0, n = keyTypes.getColumnCount(); i < n; i++) {
+                    mapColumnTypes.add(keyTypes.getColumnType(i));
+                }
+                final ListColumnFilter mapKeyFilter = new ListColumnFilter();
+                for (int i = 0, n = keyTypes.getColumnCount(); i < n; i++) {
+                    mapKeyFilter.add(valueTypes.getColumnCount() + i + 1);
+                }
+                mapKeySink = RecordSinkFactory.getInstance(asm, mapColumnTypes, mapKeyFilter, false);
+            }
+            this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, reduceTaskFactory);
+            this.atom = new AsyncGroupByAtom(
+                    asm,
+                    configuration,
+                    mapKeyTypes,
+                    valueTypes,
+                    new SampleByMapSink(keySink, timestampSampler, timestampIndex),
+                    ownerFunctions,
+                    perWorkerFunctions,
+                    compiledFilter,
+                    bindVarMemory,
+                    bindVarFunctions,
+                    filter,
+                    perWorkerFilters,
+                    workerCount
+            );
+            this.cursor = new AsyncSampleByRecordCursor(
+                    configuration,
+                    recordFunctions,
+                    placeholderFunctions,
+                    groupByFunctions,
+                    keyTypes,
+                    valueTypes,
+                    mapKeySink,
+                    isLinearFill,
+                    timestampSampler,
+                    offsetFunc,
+                    offsetFuncPos,
+                    timestampIndex
+            );
+        } catch (Throwable e) {
+            Misc.free(offsetFunc);
+            Misc.freeObjList(recordFunctions);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates functions used in place of record functions for sample intervals where a key has no data.
+     * Null entries stand for the sample interval start and are resolved by the cursor.
+     */
+    public static ObjList<Function> createPlaceholderFunctions(
+            ObjList<GroupByFunction> groupByFunctions,
+            ObjList<Function> recordFunctions,
+            @Transient IntList recordFunctionPositions,
+            @Transient ObjList<ExpressionNode> sampleByFill
+    ) throws SqlException {
+        if (sampleByFill.size() == 1) {
+            final CharSequence token = sampleByFill.getQuick(0).token;
+            if (SqlKeywords.isPrevKeyword(token)) {
+                return new ObjList<>(recordFunctions);
+            }
+            if (SqlKeywords.isNullKeyword(token)) {
+                return SampleByFillNullRecordCursorFactory.createPlaceholderFunctions(recordFunctions, recordFunctionPositions);
+            }
+        }
+        return SampleByFillValueRecordCursorFactory.createPlaceholderFunctions(
+                groupByFunctions,
+                recordFunctions,
+                recordFunctionPositions,
+                sampleByFill,
+                false
+        );
+    }
+
+    /**
+     * Returns true if the fill can be applied to merged groups, i.e. it is not a list of
+     * fill values mixed with LINEAR, and all group by functions can be interpolated for FILL(LINEAR).
+     */
+    public static boolean isFillSupported(ObjList<GroupByFunction> groupByFunctions, ObjList<ExpressionNode> sampleByFill) {
+        if (sampleByFill.size() == 1 && SqlKeywords.isLinearKeyword(sampleByFill.getQuick(0).token)) {
+            for (int i = 0, n = groupByFunctions.size(); i < n; i++) {
+                final GroupByFunction function = groupByFunctions.getQuick(i);
+                if (!function.isScalar()) {
+                    return false;
+                }
+                switch (ColumnType.tagOf(function.getType())) {
+                    case ColumnType.BYTE:
+                    case ColumnType.SHORT:
+                    case ColumnType.INT:
+                    case ColumnType.LONG:
+                    case ColumnType.DOUBLE:
+                    case ColumnType.FLOAT:
+                        break;
+                    default:
+                        return false;
+                }
+            }
+            return true;
+        }
+        for (int i = 0, n = sampleByFill.size(); i < n; i++) {
+            if (SqlKeywords.isLinearKeyword(sampleByFill.getQuick(i).token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final PageFrameSequence<AsyncGroupByAtom> frameSequence = this.frameSequence.of(base, executionContext, collectSubSeq, atom, ORDER_ASC);
+        try {
+            cursor.of(frameSequence, executionContext);
+            return cursor;
+        } catch (Throwable e) {
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(atom.getCompiledFilter() != null ? "Async JIT Sample By" : "Async Sample By");
+        sink.meta("workers").val(workerCount);
+        if (fill != null) {
+            sink.attr("fill").val(fill);
+        }
+        sink.optAttr("keys", GroupByRecordCursorFactory.getKeys(recordFunctions, getMetadata()));
+        sink.optAttr("values", groupByFunctions, true);
+        sink.optAttr("filter", atom.getFilter(-1), true);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return atom.getCompiledFilter() != null || base.usesCompiledFilter();
+    }
+
+    private static String getFillMode(ObjList<ExpressionNode> sampleByFill) {
+        if (sampleByFill.size() == 0) {
+            return null;
+        }
+        if (sampleByFill.size() == 1) {
+            final CharSequence token = sampleByFill.getQuick(0).token;
+            if (SqlKeywords.isNoneKeyword(token)) {
+                return null;
+            }
+            if (SqlKeywords.isLinearKeyword(token)) {
+                return "linear";
+            }
+            if (SqlKeywords.isPrevKeyword(token)) {
+                return "prev";
+            }
+            if (SqlKeywords.isNullKeyword(token)) {
+                return "null";
+            }
+        }
+        return "value";
+    }
+
+    private static ObjList<GroupByFunction> withRowIdFunction(ObjList<GroupByFunction> groupByFunctions) {
+        final ObjList<GroupByFunction> functions = new ObjList<>(groupByFunctions.size() + 1);
+        functions.add(new MinRowIdGroupByFunction(0));
+        functions.addAll(groupByFunctions);
+        return functions;
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(cursor);
+        Misc.free(base);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+        Misc.free(offsetFunc);
+        Misc.freeObjList(recordFunctions);
+    }
+
+    /**
+     * Copies key columns to the map key followed by the start of the sample interval
+     * the record belongs to.
+     */
+    private static class SampleByMapSink implements RecordSink {
+        private final RecordSink keySink;
+        private final int timestampIndex;
+        private final TimestampSampler timestampSampler;
+
+        private SampleByMapSink(RecordSink keySink, TimestampSampler timestampSampler, int timestampIndex) {
+            this.keySink = keySink;
+            this.timestampSampler = timestampSampler;
+            this.timestampIndex = timestampIndex;
+        }
+
+        @Override
+        public void copy(Record r, RecordSinkSPI w) {
+            keySink.copy(r, w);
+            w.putTimestamp(timestampSampler.round(r.getTimestamp(timestampIndex)));
+        }
+    }
+}
@@ -44,6 +44,7 @@ public class GroupByFunctionsUpdaterFactory {
      * <li>updateNew(MapValue value, Record record) - calls f0, f1, f2 ... fn.computeFirst(value, record) for each group by function</li>
      * <li>updateExisting(MapValue value, Record record) - calls f0, f1, f2 ... fn.computeNext(value, record) for each group by function</li>
      * <li>updateEmpty(MapValue value) - calls f0, f1, f2 ... fn.setEmpty(value) for each group by function</li>
+     * <li>merge(MapValue destValue, MapValue srcValue) - calls f0, f1, f2 ... fn.merge(destValue, srcValue) for each group by function</li>
      * <li>setFunctions(ObjList&lt;GroupByFunction&gt; groupByFunctions) - sets the group by functions to the fields. This method is called by the factory and should not be called by the caller.</li>
      * </ul>
      *
@@ -83,6 +84,7 @@ public class GroupByFunctionsUpdaterFactory {
         final int computeFirstIndex = asm.poolInterfaceMethod(GroupByFunction.class, "computeFirst", "(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;)V");
         final int computeNextIndex = asm.poolInterfaceMethod(GroupByFunction.class, "computeNext", "(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;)V");
         final int setEmptyIndex = asm.poolInterfaceMethod(GroupByFunction.class, "setEmpty", "(Lio/questdb/cairo/map/MapValue;)V");
+        final int mergeIndex = asm.poolInterfaceMethod(GroupByFunction.class, "merge", "(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/map/MapValue;)V");
 
         final int updateNewIndex = asm.poolUtf8("updateNew");
         final int updateNewSigIndex = asm.poolUtf8("(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;)V");
@@ -90,6 +92,8 @@ public class GroupByFunctionsUpdaterFactory {
         final int updateExistingSigIndex = asm.poolUtf8("(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/sql/Record;)V");
         final int updateEmptyIndex = asm.poolUtf8("updateEmpty");
         final int updateEmptySigIndex = asm.poolUtf8("(Lio/questdb/cairo/map/MapValue;)V");
+        final int mergeNameIndex = asm.poolUtf8("merge");
+        final int mergeSigIndex = asm.poolUtf8("(Lio/questdb/cairo/map/MapValue;Lio/questdb/cairo/map/MapValue;)V");
         final int setFunctionsIndex = asm.poolUtf8("setFunctions");
         final int setFunctionsSigIndex = asm.poolUtf8("(Lio/questdb/std/ObjList;)V");
 
@@ -104,12 +108,13 @@ public class GroupByFunctionsUpdaterFactory {
         for (int i = 0; i < functionSize; i++) {
             asm.defineField(firstFieldNameIndex + (i * FIELD_POOL_OFFSET), typeIndex);
         }
-        asm.methodCount(5);
+        asm.methodCount(6);
         asm.defineDefaultConstructor(superIndex);
 
         generateUpdateNew(asm, functionSize, firstFieldIndex, computeFirstIndex, updateNewIndex, updateNewSigIndex);
         generateUpdateExisting(asm, functionSize, firstFieldIndex, computeNextIndex, updateExistingIndex, updateExistingSigIndex);
         generateUpdateEmpty(asm, functionSize, firstFieldIndex, setEmptyIndex, updateEmptyIndex, updateEmptySigIndex);
+        generateMerge(asm, functionSize, firstFieldIndex, mergeIndex, mergeNameIndex, mergeSigIndex);
         generateSetFunction(asm, functionSize, firstFieldIndex, setFunctionsIndex, setFunctionsSigIndex, getIndex);
 
         // class attribute count
@@ -121,6 +126,31 @@ public class GroupByFunctionsUpdaterFactory {
         return updater;
     }
 
+    private static void generateMerge(
+            BytecodeAssembler asm,
+            int fieldCount,
+            int firstFieldIndex,
+            int mergeIndex,
+            int mergeNameIndex,
+            int mergeSigIndex
+    ) {
+        asm.startMethod(mergeNameIndex, mergeSigIndex, 3, 3);
+        for (int i = 0; i < fieldCount; i++) {
+            asm.aload(0);
+            asm.getfield(firstFieldIndex + (i * FIELD_POOL_OFFSET));
+            asm.aload(1); // dest map value
+            asm.aload(2); // src map value
+            asm.invokeInterface(mergeIndex, 2);
+        }
+        asm.return_();
+        asm.endMethodCode();
+        // exceptions
+        asm.putShort(0);
+        // attributes
+        asm.putShort(0);
+        asm.endMethod();
+    }
+
     private static void generateSetFunction(BytecodeAssembler asm, int functionSize, int firstFieldIndex, int setFunctionsIndex, int setFunctionsSigIndex, int getIndex) {
         asm.startMethod(setFunctionsIndex, setFunctionsSigIndex, 3, 3);
         for (int i = 0; i < functionSize; i++) {
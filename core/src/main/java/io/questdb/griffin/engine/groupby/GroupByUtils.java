@@ -27,6 +27,8 @@ package io.questdb.griffin.engine.groupby;
 import io.questdb.cairo.*;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.async.PageFrameSequence;
 import io.questdb.griffin.FunctionParser;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
@@ -43,6 +45,59 @@ import io.questdb.std.Transient;
 import org.jetbrains.annotations.NotNull;
 
 public class GroupByUtils {
+    // workers check query timeout and connection once per this many rows of a frame
+    private static final long REDUCE_CIRCUIT_BREAKER_CHECK_MASK = 4096 - 1;
+
+    public static void enableParallelism(ObjList<GroupByFunction> functions) {
+        for (int i = 0, n = functions.size(); i < n; i++) {
+            functions.getQuick(i).enableParallelism();
+        }
+    }
+
+    public static void enableParallelism(ObjList<GroupByFunction> functions, ObjList<GroupByFunction> ownerFunctions) {
+        for (int i = 0, n = functions.size(); i < n; i++) {
+            final GroupByFunction function = functions.getQuick(i);
+            function.enableParallelism();
+            function.setParallelOwner(ownerFunctions.getQuick(i));
+        }
+    }
+
+    public static boolean isParallelismSupported(ObjList<GroupByFunction> functions) {
+        for (int i = 0, n = functions.size(); i < n; i++) {
+            if (!functions.getQuick(i).isParallelismSupported()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks the circuit breaker from the reduce loop of a parallel group by. The query owner
+     * thread checks its execution context circuit breaker, which throttles checks on its own,
+     * just like serial group by does. Workers check timeout and connection of the query every
+     * few thousand rows and cancel the frame sequence once the breaker is tripped.
+     *
+     * @return true when the reduce loop should stop since the query is cancelled
+     */
+    public static boolean isReduceInterrupted(
+            long rowIndex,
+            boolean owner,
+            SqlExecutionCircuitBreaker ownerCircuitBreaker,
+            SqlExecutionCircuitBreaker circuitBreaker,
+            PageFrameSequence<?> frameSequence
+    ) {
+        if (owner) {
+            ownerCircuitBreaker.statefulThrowExceptionIfTripped();
+            return false;
+        }
+        if ((rowIndex & REDUCE_CIRCUIT_BREAKER_CHECK_MASK) != 0) {
+            return false;
+        }
+        if (!frameSequence.isUninterruptible() && circuitBreaker.checkIfTripped(frameSequence.getStartTime(), frameSequence.getCircuitBreakerFd())) {
+            frameSequence.cancel();
+        }
+        return !frameSequence.isActive();
+    }
 
     public static void prepareGroupByFunctions(
             QueryModel model,
@@ -0,0 +1,413 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.map.FastMap;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapRecord;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.engine.LimitOverflowException;
+import io.questdb.griffin.engine.PerWorkerLocks;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.LongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Rows;
+import io.questdb.std.Transient;
+import io.questdb.std.Unsafe;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+
+/**
+ * Holds state of the parallel ASOF and LT joins shared by the workers. Slave page frame
+ * addresses are collected on the query owner thread before any master page frame is
+ * dispatched, so that workers are free to look up and scan slave rows. Each worker owns
+ * a map of the latest slave row per join key and a record to read slave rows with.
+ * <p>
+ * Join keys that are not found by a short backward scan are resolved with the slave key index
+ * shared by the workers. The index lists slave row ids of each join key. It is built by the query
+ * owner thread along with the slave page frame addresses, so workers only read it, each with its
+ * own probe key. Building the index takes a full pass over the slave join keys and memory
+ * proportional to the slave row count, the latter is limited the same way as the row id chain
+ * of the light hash join.
+ */
+class AsyncAsOfJoinAtom implements StatefulAtom, Closeable {
+    /**
+     * Map value of a join key that has no slave row preceding the master frame.
+     */
+    static final long NO_SLAVE_ROW = -2;
+    private static final int INDEX_INITIAL_CAPACITY = 16;
+    private static final int INDEX_VALUE_COUNT = 1;
+    private static final int INDEX_VALUE_OFFSET = 0;
+    private static final ArrayColumnTypes INDEX_VALUE_TYPES = new ArrayColumnTypes();
+    private final RecordSink masterKeySink;
+    private final int masterTimestampIndex;
+    private final Map ownerMap;
+    private final FastMap.ProbeKey ownerProbeKey;
+    private final PageAddressCacheRecord ownerSlaveRecord;
+    private final PerWorkerLocks perWorkerLocks;
+    private final ObjList<Map> perWorkerMaps;
+    private final ObjList<FastMap.ProbeKey> perWorkerProbeKeys;
+    private final ObjList<PageAddressCacheRecord> perWorkerSlaveRecords;
+    private final LongList slaveFrameRowCounts = new LongList();
+    // join key -> (offset in slaveKeyIndexRowIds, row count)
+    private final FastMap slaveKeyIndex;
+    private final int slaveKeyIndexMaxPages;
+    private final long slaveKeyIndexMaxRowIds;
+    private final PageAddressCacheRecord slaveKeyIndexRecord;
+    private final DirectLongList slaveKeyIndexRowIds;
+    private final RecordSink slaveKeySink;
+    private final PageAddressCache slavePageAddressCache;
+    private final int slaveTimestampIndex;
+    private final boolean strict;
+
+    AsyncAsOfJoinAtom(
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ColumnTypes joinColumnTypes,
+            @Transient @NotNull ColumnTypes valueTypes,
+            @NotNull RecordSink masterKeySink,
+            @NotNull RecordSink slaveKeySink,
+            int masterTimestampIndex,
+            int slaveTimestampIndex,
+            boolean strict,
+            int workerCount
+    ) {
+        this.masterKeySink = masterKeySink;
+        this.slaveKeySink = slaveKeySink;
+        this.masterTimestampIndex = masterTimestampIndex;
+        this.slaveTimestampIndex = slaveTimestampIndex;
+        this.strict = strict;
+        this.slavePageAddressCache = new PageAddressCache(configuration);
+        this.perWorkerLocks = new PerWorkerLocks(configuration, workerCount);
+        this.ownerSlaveRecord = new PageAddressCacheRecord();
+        this.slaveKeyIndexRecord = new PageAddressCacheRecord();
+        this.perWorkerMaps = new ObjList<>(workerCount);
+        this.perWorkerProbeKeys = new ObjList<>(workerCount);
+        this.perWorkerSlaveRecords = new ObjList<>(workerCount);
+        // row ids are limited the same way as in the light hash join chain
+        this.slaveKeyIndexMaxPages = configuration.getSqlHashJoinLightValueMaxPages();
+        this.slaveKeyIndexMaxRowIds = (long) configuration.getSqlHashJoinLightValuePageSize() * slaveKeyIndexMaxPages / Long.BYTES;
+        this.slaveKeyIndexRowIds = new DirectLongList(INDEX_INITIAL_CAPACITY, MemoryTag.NATIVE_JOIN_MAP);
+        try {
+            ownerMap = MapFactory.createMap(configuration, joinColumnTypes, valueTypes);
+            slaveKeyIndex = new FastMap(
+                    configuration.getSqlSmallMapPageSize(),
+                    joinColumnTypes,
+                    INDEX_VALUE_TYPES,
+                    configuration.getSqlSmallMapKeyCapacity(),
+                    configuration.getSqlFastMapLoadFactor(),
+                    configuration.getSqlMapMaxResizes()
+            );
+            ownerProbeKey = slaveKeyIndex.newProbeKey();
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerMaps.extendAndSet(i, MapFactory.createMap(configuration, joinColumnTypes, valueTypes));
+                perWorkerProbeKeys.extendAndSet(i, slaveKeyIndex.newProbeKey());
+                perWorkerSlaveRecords.extendAndSet(i, new PageAddressCacheRecord());
+            }
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use its own private map and record anytime.
+            return -1;
+        }
+        return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
+    }
+
+    /**
+     * Releases memory held by the maps and the slave symbol tables and forgets slave page frames.
+     * Maps are reopened lazily, when they are used again.
+     */
+    public void clear() {
+        Misc.free(ownerMap);
+        Misc.freeObjListAndKeepObjects(perWorkerMaps);
+        Misc.free(ownerSlaveRecord);
+        Misc.freeObjListAndKeepObjects(perWorkerSlaveRecords);
+        Misc.free(slaveKeyIndex);
+        Misc.free(slaveKeyIndexRowIds);
+        Misc.free(slaveKeyIndexRecord);
+        slavePageAddressCache.clear();
+        slaveFrameRowCounts.clear();
+    }
+
+    @Override
+    public void close() {
+        Misc.free(ownerMap);
+        Misc.freeObjList(perWorkerMaps);
+        Misc.free(ownerProbeKey);
+        Misc.freeObjList(perWorkerProbeKeys);
+        Misc.free(ownerSlaveRecord);
+        Misc.freeObjList(perWorkerSlaveRecords);
+        Misc.free(slaveKeyIndex);
+        Misc.free(slaveKeyIndexRowIds);
+        Misc.free(slaveKeyIndexRecord);
+    }
+
+    /**
+     * Finds the last slave row with the timestamp not greater than (or, for LT join, less than)
+     * the given timestamp.
+     *
+     * @param timestamp master timestamp
+     * @return slave row id in (frame index, row index) format or -1 if there is no such row
+     */
+    public long findSlaveRow(long timestamp) {
+        // find the last frame starting at or before the timestamp
+        int lo = 0;
+        int hi = slaveFrameRowCounts.size() - 1;
+        int frameIndex = -1;
+        while (lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (isSlaveTimestampMatching(getSlaveTimestamp(mid, 0), timestamp)) {
+                frameIndex = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (frameIndex == -1) {
+            return -1;
+        }
+        // then the last row of the frame
+        long rowLo = 0;
+        long rowHi = slaveFrameRowCounts.getQuick(frameIndex) - 1;
+        long rowIndex = 0;
+        while (rowLo <= rowHi) {
+            final long mid = (rowLo + rowHi) >>> 1;
+            if (isSlaveTimestampMatching(getSlaveTimestamp(frameIndex, mid), timestamp)) {
+                rowIndex = mid;
+                rowLo = mid + 1;
+            } else {
+                rowHi = mid - 1;
+            }
+        }
+        return Rows.toRowID(frameIndex, rowIndex);
+    }
+
+    public Map getMap(int slotId) {
+        final Map map = slotId == -1 ? ownerMap : perWorkerMaps.getQuick(slotId);
+        // Per-worker maps are allocated lazily, so that idle workers don't hold any memory.
+        map.reopen();
+        return map;
+    }
+
+    public RecordSink getMasterKeySink() {
+        return masterKeySink;
+    }
+
+    public int getMasterTimestampIndex() {
+        return masterTimestampIndex;
+    }
+
+    public int getSlaveFrameCount() {
+        return slaveFrameRowCounts.size();
+    }
+
+    public long getSlaveFrameRowCount(int frameIndex) {
+        return slaveFrameRowCounts.getQuick(frameIndex);
+    }
+
+    public RecordSink getSlaveKeySink() {
+        return slaveKeySink;
+    }
+
+    public PageAddressCache getSlavePageAddressCache() {
+        return slavePageAddressCache;
+    }
+
+    public PageAddressCacheRecord getSlaveRecord(int slotId) {
+        return slotId == -1 ? ownerSlaveRecord : perWorkerSlaveRecords.getQuick(slotId);
+    }
+
+    public long getSlaveTimestamp(int frameIndex, long rowIndex) {
+        return Unsafe.getUnsafe().getLong(slavePageAddressCache.getPageAddress(frameIndex, slaveTimestampIndex) + rowIndex * Long.BYTES);
+    }
+
+    public boolean isSlaveTimestampMatching(long slaveTimestamp, long masterTimestamp) {
+        return strict ? slaveTimestamp < masterTimestamp : slaveTimestamp <= masterTimestamp;
+    }
+
+    public boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     * Collects addresses of all slave page frames and builds the slave key index. Must be called
+     * by the query owner thread before master page frames are dispatched.
+     *
+     * @param slavePageFrameCursor slave page frame cursor
+     * @param slaveMetadata        slave metadata
+     * @param circuitBreaker       circuit breaker of the query owner
+     */
+    public void ofSlave(PageFrameCursor slavePageFrameCursor, RecordMetadata slaveMetadata, SqlExecutionCircuitBreaker circuitBreaker) {
+        slavePageAddressCache.of(slaveMetadata);
+        slaveFrameRowCounts.clear();
+        PageFrame frame;
+        while ((frame = slavePageFrameCursor.next()) != null) {
+            final long frameRowCount = frame.getPartitionHi() - frame.getPartitionLo();
+            if (frameRowCount > 0) {
+                slavePageAddressCache.add(slaveFrameRowCounts.size(), frame);
+                slaveFrameRowCounts.add(frameRowCount);
+            }
+        }
+        ownerSlaveRecord.of(slavePageFrameCursor, slavePageAddressCache);
+        slaveKeyIndexRecord.of(slavePageFrameCursor, slavePageAddressCache);
+        for (int i = 0, n = perWorkerSlaveRecords.size(); i < n; i++) {
+            perWorkerSlaveRecords.getQuick(i).of(slavePageFrameCursor, slavePageAddressCache);
+        }
+        buildSlaveKeyIndex(circuitBreaker);
+    }
+
+    public void release(int slotId) {
+        perWorkerLocks.releaseSlot(slotId);
+    }
+
+    /**
+     * Resolves join keys of the master frame left unresolved by the backward scan. Each such key gets
+     * the last slave row at or before the seed row, or {@link #NO_SLAVE_ROW} when there is none.
+     *
+     * @param map            per-frame map of join keys, unresolved keys have -1 value
+     * @param record         master frame record
+     * @param frameRowCount  master frame row count
+     * @param seedRowId      last slave row preceding the first master row
+     * @param slotId         slot id returned by {@link #acquire(int, boolean, SqlExecutionCircuitBreaker)}
+     */
+    public void resolveKeys(Map map, PageAddressCacheRecord record, long frameRowCount, long seedRowId, int slotId) {
+        final FastMap.ProbeKey probeKey = slotId == -1 ? ownerProbeKey : perWorkerProbeKeys.getQuick(slotId);
+        for (long r = 0; r < frameRowCount; r++) {
+            record.setRowIndex(r);
+            final MapKey key = map.withKey();
+            key.put(record, masterKeySink);
+            final MapValue value = key.findValue();
+            if (value.getLong(0) != -1) {
+                continue;
+            }
+            probeKey.init();
+            probeKey.put(record, masterKeySink);
+            final MapValue indexValue = probeKey.findValue();
+            value.putLong(0, indexValue != null ? findLastRowId(indexValue, seedRowId) : NO_SLAVE_ROW);
+        }
+    }
+
+    private void buildSlaveKeyIndex(SqlExecutionCircuitBreaker circuitBreaker) {
+        slaveKeyIndex.reopen();
+        slaveKeyIndex.clear();
+        slaveKeyIndexRowIds.reopen();
+
+        final int frameCount = slaveFrameRowCounts.size();
+        long slaveRowCount = 0;
+        for (int f = 0; f < frameCount; f++) {
+            slaveRowCount += slaveFrameRowCounts.getQuick(f);
+        }
+        if (slaveRowCount > slaveKeyIndexMaxRowIds) {
+            throw LimitOverflowException.instance()
+                    .put("Maximum number of pages (").put(slaveKeyIndexMaxPages).put(") breached in ASOF join slave key index");
+        }
+
+        // count slave rows per join key
+        for (int f = 0; f < frameCount; f++) {
+            slaveKeyIndexRecord.setFrameIndex(f);
+            for (long r = 0, n = slaveFrameRowCounts.getQuick(f); r < n; r++) {
+                circuitBreaker.statefulThrowExceptionIfTripped();
+                slaveKeyIndexRecord.setRowIndex(r);
+                final MapKey key = slaveKeyIndex.withKey();
+                key.put(slaveKeyIndexRecord, slaveKeySink);
+                final MapValue value = key.createValue();
+                if (value.isNew()) {
+                    value.putLong(INDEX_VALUE_OFFSET, 0);
+                    value.putLong(INDEX_VALUE_COUNT, 1);
+                } else {
+                    value.addLong(INDEX_VALUE_COUNT, 1);
+                }
+            }
+        }
+
+        // lay out row id lists of the keys one after another
+        long offset = 0;
+        final RecordCursor cursor = slaveKeyIndex.getCursor();
+        final MapRecord record = (MapRecord) cursor.getRecord();
+        while (cursor.hasNext()) {
+            final MapValue value = record.getValue();
+            final long count = value.getLong(INDEX_VALUE_COUNT);
+            value.putLong(INDEX_VALUE_OFFSET, offset);
+            value.putLong(INDEX_VALUE_COUNT, 0);
+            offset += count;
+        }
+        if (slaveKeyIndexRowIds.getCapacity() < offset) {
+            slaveKeyIndexRowIds.setCapacity(offset);
+        }
+        slaveKeyIndexRowIds.setPos(offset);
+
+        // fill the lists in slave order, so that row ids of each key are ascending
+        for (int f = 0; f < frameCount; f++) {
+            slaveKeyIndexRecord.setFrameIndex(f);
+            for (long r = 0, n = slaveFrameRowCounts.getQuick(f); r < n; r++) {
+                circuitBreaker.statefulThrowExceptionIfTripped();
+                slaveKeyIndexRecord.setRowIndex(r);
+                final MapKey key = slaveKeyIndex.withKey();
+                key.put(slaveKeyIndexRecord, slaveKeySink);
+                final MapValue value = key.findValue();
+                final long count = value.getLong(INDEX_VALUE_COUNT);
+                slaveKeyIndexRowIds.set(value.getLong(INDEX_VALUE_OFFSET) + count, Rows.toRowID(f, r));
+                value.putLong(INDEX_VALUE_COUNT, count + 1);
+            }
+        }
+    }
+
+    private long findLastRowId(MapValue indexValue, long seedRowId) {
+        long lo = indexValue.getLong(INDEX_VALUE_OFFSET);
+        long hi = lo + indexValue.getLong(INDEX_VALUE_COUNT) - 1;
+        long rowId = NO_SLAVE_ROW;
+        while (lo <= hi) {
+            final long mid = (lo + hi) >>> 1;
+            final long midRowId = slaveKeyIndexRowIds.get(mid);
+            if (midRowId <= seedRowId) {
+                rowId = midRowId;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return rowId;
+    }
+
+    static {
+        INDEX_VALUE_TYPES.add(ColumnType.LONG); // offset
+        INDEX_VALUE_TYPES.add(ColumnType.LONG); // count
+    }
+}
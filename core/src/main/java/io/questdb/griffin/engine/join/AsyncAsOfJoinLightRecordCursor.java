@@ -0,0 +1,280 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Os;
+import io.questdb.std.Rows;
+
+/**
+ * Returns rows of a parallel ASOF or LT join. Each task holds slave row ids of its master
+ * page frame, one per master row. Frames are collected in their natural order, so the output
+ * order is the same as in the serial join.
+ */
+class AsyncAsOfJoinLightRecordCursor implements NoRandomAccessRecordCursor {
+    private static final Log LOG = LogFactory.getLog(AsyncAsOfJoinLightRecordCursor.class);
+    private final int columnSplit;
+    private final PageAddressCacheRecord masterRecord;
+    private final OuterJoinRecord record;
+    private final RecordMetadata slaveMetadata;
+    private final PageAddressCacheRecord slaveRecord;
+    private boolean allFramesActive;
+    private long cursor = -1;
+    private int frameIndex;
+    private int frameLimit;
+    private long frameRowCount;
+    private long frameRowIndex;
+    private PageFrameSequence<AsyncAsOfJoinAtom> frameSequence;
+    private boolean isOpen;
+    private DirectLongList rows;
+    private PageFrameCursor slavePageFrameCursor;
+
+    public AsyncAsOfJoinLightRecordCursor(int columnSplit, Record nullRecord, RecordMetadata slaveMetadata) {
+        this.columnSplit = columnSplit;
+        this.slaveMetadata = slaveMetadata;
+        this.masterRecord = new PageAddressCacheRecord();
+        this.slaveRecord = new PageAddressCacheRecord();
+        this.record = new OuterJoinRecord(columnSplit, nullRecord);
+        record.of(masterRecord, slaveRecord);
+    }
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            isOpen = false;
+            if (frameSequence != null) {
+                LOG.debug()
+                        .$("closing [shard=").$(frameSequence.getShard())
+                        .$(", frameIndex=").$(frameIndex)
+                        .$(", frameCount=").$(frameLimit)
+                        .$(", frameId=").$(frameSequence.getId())
+                        .$(", cursor=").$(cursor)
+                        .I$();
+
+                collectCursor(true);
+                if (frameLimit > -1) {
+                    frameSequence.await();
+                }
+                frameSequence.clear();
+                frameSequence.getAtom().clear();
+            }
+            Misc.free(slaveRecord);
+            slavePageFrameCursor = Misc.free(slavePageFrameCursor);
+        }
+    }
+
+    public void freeRecords() {
+        Misc.free(masterRecord);
+        Misc.free(slaveRecord);
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        if (columnIndex < columnSplit) {
+            return frameSequence.getSymbolTableSource().getSymbolTable(columnIndex);
+        }
+        return slavePageFrameCursor.getSymbolTable(columnIndex - columnSplit);
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Check for the first hasNext call.
+        if (frameIndex == -1) {
+            fetchNextFrame();
+        }
+
+        while (true) {
+            if (frameRowIndex < frameRowCount) {
+                nextMasterRow();
+                return true;
+            }
+
+            // Release the previous queue item.
+            collectCursor(false);
+
+            if (frameIndex < frameLimit) {
+                fetchNextFrame();
+                continue;
+            }
+
+            if (!allFramesActive) {
+                throwTimeoutException();
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public SymbolTable newSymbolTable(int columnIndex) {
+        if (columnIndex < columnSplit) {
+            return frameSequence.getSymbolTableSource().newSymbolTable(columnIndex);
+        }
+        return slavePageFrameCursor.newSymbolTable(columnIndex - columnSplit);
+    }
+
+    @Override
+    public long size() {
+        // each master row is returned exactly once, same as in the serial join
+        prepareForDispatch();
+        long size = 0;
+        for (int i = 0, n = frameSequence.getFrameCount(); i < n; i++) {
+            size += frameSequence.getFrameRowCount(i);
+        }
+        return size;
+    }
+
+    @Override
+    public void toTop() {
+        // Check if we at the top already and there is nothing to do.
+        if (frameIndex == -1 || (frameIndex == 0 && frameRowIndex == 0)) {
+            return;
+        }
+        collectCursor(false);
+        frameSequence.toTop();
+        frameIndex = -1;
+        frameRowCount = 0;
+        frameRowIndex = 0;
+        allFramesActive = true;
+    }
+
+    private void collectCursor(boolean forceCollect) {
+        if (cursor > -1) {
+            frameSequence.collect(cursor, forceCollect);
+            // It is necessary to clear 'cursor' value
+            // because we updated frameIndex and loop can exit due to lack of frames.
+            // Non-update of 'cursor' could cause double-free.
+            cursor = -1;
+        }
+    }
+
+    private void fetchNextFrame() {
+        prepareForDispatch();
+
+        try {
+            do {
+                cursor = frameSequence.next();
+                if (cursor > -1) {
+                    PageFrameReduceTask task = frameSequence.getTask(cursor);
+                    LOG.debug()
+                            .$("collected [shard=").$(frameSequence.getShard())
+                            .$(", frameIndex=").$(task.getFrameIndex())
+                            .$(", frameCount=").$(frameSequence.getFrameCount())
+                            .$(", frameId=").$(frameSequence.getId())
+                            .$(", active=").$(frameSequence.isActive())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+                    if (task.hasError()) {
+                        throw CairoException.nonCritical().put(task.getErrorMsg());
+                    }
+
+                    allFramesActive &= frameSequence.isActive();
+                    rows = task.getRows();
+                    // the rows hold slave row ids, one per master row
+                    frameRowCount = rows.size();
+                    frameIndex = task.getFrameIndex();
+                    frameRowIndex = 0;
+                    if (frameRowCount > 0 && frameSequence.isActive()) {
+                        masterRecord.setFrameIndex(task.getFrameIndex());
+                        break;
+                    } else {
+                        // Force reset frame size if frameSequence was canceled or failed.
+                        frameRowCount = 0;
+                        collectCursor(false);
+                    }
+                } else if (cursor == -2) {
+                    break; // No frames to join
+                } else {
+                    Os.pause();
+                }
+            } while (frameIndex < frameLimit);
+        } catch (Throwable e) {
+            LOG.error().$("as of join error [ex=").$(e).I$();
+            if (e instanceof CairoException) {
+                CairoException ce = (CairoException) e;
+                if (ce.isInterruption()) {
+                    throwTimeoutException();
+                } else {
+                    throw ce;
+                }
+            }
+            throw CairoException.nonCritical().put(e.getMessage());
+        }
+    }
+
+    private void nextMasterRow() {
+        masterRecord.setRowIndex(frameRowIndex);
+        final long slaveRowId = rows.get(frameRowIndex++);
+        if (slaveRowId != -1) {
+            slaveRecord.setFrameIndex(Rows.toPartitionIndex(slaveRowId));
+            slaveRecord.setRowIndex(Rows.toLocalRowID(slaveRowId));
+            record.hasSlave(true);
+        } else {
+            record.hasSlave(false);
+        }
+    }
+
+    private void prepareForDispatch() {
+        if (frameLimit == -1) {
+            // slave page frames have to be known before any master page frame is dispatched to the workers
+            frameSequence.getAtom().ofSlave(
+                    slavePageFrameCursor,
+                    slaveMetadata,
+                    frameSequence.getSqlExecutionContext().getCircuitBreaker()
+            );
+            frameSequence.prepareForDispatch();
+            frameLimit = frameSequence.getFrameCount() - 1;
+        }
+    }
+
+    private void throwTimeoutException() {
+        throw CairoException.nonCritical().put("timeout, query aborted").setInterruption(true);
+    }
+
+    void of(PageFrameSequence<AsyncAsOfJoinAtom> frameSequence, PageFrameCursor slavePageFrameCursor) {
+        isOpen = true;
+        this.frameSequence = frameSequence;
+        this.slavePageFrameCursor = slavePageFrameCursor;
+        masterRecord.of(frameSequence.getSymbolTableSource(), frameSequence.getPageAddressCache());
+        slaveRecord.of(slavePageFrameCursor, frameSequence.getAtom().getSlavePageAddressCache());
+        frameIndex = -1;
+        frameLimit = -1;
+        frameRowCount = 0;
+        frameRowIndex = 0;
+        allFramesActive = true;
+    }
+}
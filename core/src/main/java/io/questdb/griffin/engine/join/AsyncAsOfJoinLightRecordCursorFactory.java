@@ -0,0 +1,291 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReduceTaskFactory;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.model.JoinContext;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Rows;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+
+/**
+ * ASOF or LT join executed in parallel over master page frames. Each master frame is joined
+ * independently: the worker collects join keys of the frame, seeds them with the latest slave
+ * rows by scanning the slave table backward from the first master timestamp and then merges
+ * the rest of the frame with the following slave rows, same as
+ * {@link AsOfJoinLightRecordCursorFactory} and {@link LtJoinLightRecordCursorFactory} do.
+ * <p>
+ * The backward scan stops once all keys of the frame are found, so it is short when the keys
+ * are frequent in the slave table. It is limited to the master frame row count; keys that are
+ * still missing are then resolved with the slave key index, so that keys rare or missing in
+ * the slave table don't make each frame scan the slave table. The index is built by the query
+ * owner thread before master frames are dispatched, which costs a pass over the slave table.
+ */
+public class AsyncAsOfJoinLightRecordCursorFactory extends AbstractJoinRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncAsOfJoinLightRecordCursorFactory::join;
+
+    private final AsyncAsOfJoinAtom atom;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncAsOfJoinLightRecordCursor cursor;
+    private final PageFrameSequence<AsyncAsOfJoinAtom> frameSequence;
+    private final int workerCount;
+
+    public AsyncAsOfJoinLightRecordCursorFactory(
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordMetadata metadata,
+            @NotNull RecordCursorFactory masterFactory,
+            @NotNull RecordCursorFactory slaveFactory,
+            @Transient @NotNull ColumnTypes joinColumnTypes,
+            @Transient @NotNull ColumnTypes valueTypes, // this expected to be just LONG, we store slave row ids in map
+            @NotNull RecordSink masterKeySink,
+            @NotNull RecordSink slaveKeySink,
+            int columnSplit,
+            @NotNull JoinContext joinContext,
+            boolean strict, // LT join when true
+            @NotNull PageFrameReduceTaskFactory reduceTaskFactory,
+            int workerCount
+    ) {
+        super(metadata, joinContext, masterFactory, slaveFactory);
+        this.workerCount = workerCount;
+        this.atom = new AsyncAsOfJoinAtom(
+                configuration,
+                joinColumnTypes,
+                valueTypes,
+                masterKeySink,
+                slaveKeySink,
+                masterFactory.getMetadata().getTimestampIndex(),
+                slaveFactory.getMetadata().getTimestampIndex(),
+                strict,
+                workerCount
+        );
+        this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, reduceTaskFactory);
+        this.cursor = new AsyncAsOfJoinLightRecordCursor(
+                columnSplit,
+                NullRecordFactory.getInstance(slaveFactory.getMetadata()),
+                slaveFactory.getMetadata()
+        );
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        PageFrameCursor slavePageFrameCursor = slaveFactory.getPageFrameCursor(executionContext, ORDER_ASC);
+        try {
+            final PageFrameSequence<AsyncAsOfJoinAtom> frameSequence = this.frameSequence.of(masterFactory, executionContext, collectSubSeq, atom, ORDER_ASC);
+            cursor.of(frameSequence, slavePageFrameCursor);
+            return cursor;
+        } catch (Throwable e) {
+            Misc.free(slavePageFrameCursor);
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getScanDirection() {
+        return masterFactory.getScanDirection();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(atom.isStrict() ? "Async Lt Join Light" : "Async AsOf Join Light");
+        sink.meta("workers").val(workerCount);
+        sink.attr("condition").val(joinContext);
+        sink.child(masterFactory);
+        sink.child(slaveFactory);
+    }
+
+    private static void join(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final long frameRowCount = task.getFrameRowCount();
+        final AsyncAsOfJoinAtom atom = task.getFrameSequence(AsyncAsOfJoinAtom.class).getAtom();
+
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        final RecordSink masterKeySink = atom.getMasterKeySink();
+        final RecordSink slaveKeySink = atom.getSlaveKeySink();
+        final int masterTimestampIndex = atom.getMasterTimestampIndex();
+        try {
+            // the rows list is filled with slave row ids, one per master row, -1 means no match
+            final DirectLongList rows = task.getRows();
+            rows.clear();
+            if (frameRowCount == 0) {
+                return;
+            }
+            if (rows.getCapacity() < frameRowCount) {
+                rows.setCapacity(frameRowCount);
+            }
+
+            final Map map = atom.getMap(slotId);
+            final PageAddressCacheRecord slaveRecord = atom.getSlaveRecord(slotId);
+            map.clear();
+
+            // collect join keys of the frame, none of them has a slave row yet
+            long unresolvedKeyCount = 0;
+            for (long r = 0; r < frameRowCount; r++) {
+                record.setRowIndex(r);
+                final MapKey key = map.withKey();
+                key.put(record, masterKeySink);
+                final MapValue value = key.createValue();
+                if (value.isNew()) {
+                    value.putLong(0, -1);
+                    unresolvedKeyCount++;
+                }
+            }
+
+            // seed the keys with the latest slave rows preceding the first master row
+            record.setRowIndex(0);
+            final long seedRowId = atom.findSlaveRow(record.getTimestamp(masterTimestampIndex));
+            int slaveFrameIndex = 0;
+            long slaveRowIndex = 0;
+            if (seedRowId != -1) {
+                slaveFrameIndex = Rows.toPartitionIndex(seedRowId);
+                slaveRowIndex = Rows.toLocalRowID(seedRowId);
+                if (lookBack(atom, map, slaveRecord, slaveKeySink, slaveFrameIndex, slaveRowIndex, unresolvedKeyCount, frameRowCount)) {
+                    atom.resolveKeys(map, record, frameRowCount, seedRowId, slotId);
+                }
+                // the merge starts with the row following the seed one
+                if (++slaveRowIndex == atom.getSlaveFrameRowCount(slaveFrameIndex)) {
+                    slaveFrameIndex++;
+                    slaveRowIndex = 0;
+                }
+            }
+
+            // merge master rows with the following slave rows
+            final int slaveFrameCount = atom.getSlaveFrameCount();
+            long slaveTimestamp = slaveFrameIndex < slaveFrameCount ? atom.getSlaveTimestamp(slaveFrameIndex, slaveRowIndex) : Long.MAX_VALUE;
+            for (long r = 0; r < frameRowCount; r++) {
+                record.setRowIndex(r);
+                final long masterTimestamp = record.getTimestamp(masterTimestampIndex);
+                while (slaveFrameIndex < slaveFrameCount && atom.isSlaveTimestampMatching(slaveTimestamp, masterTimestamp)) {
+                    slaveRecord.setFrameIndex(slaveFrameIndex);
+                    slaveRecord.setRowIndex(slaveRowIndex);
+                    final MapKey key = map.withKey();
+                    key.put(slaveRecord, slaveKeySink);
+                    final MapValue value = key.findValue();
+                    if (value != null) {
+                        value.putLong(0, Rows.toRowID(slaveFrameIndex, slaveRowIndex));
+                    }
+                    if (++slaveRowIndex == atom.getSlaveFrameRowCount(slaveFrameIndex)) {
+                        slaveFrameIndex++;
+                        slaveRowIndex = 0;
+                    }
+                    if (slaveFrameIndex < slaveFrameCount) {
+                        slaveTimestamp = atom.getSlaveTimestamp(slaveFrameIndex, slaveRowIndex);
+                    }
+                }
+                final MapKey key = map.withKey();
+                key.put(record, masterKeySink);
+                final MapValue value = key.findValue();
+                // all master keys are in the map
+                rows.add(Math.max(value.getLong(0), -1));
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    /**
+     * Scans slave rows backward from the seed row until all keys are found, the slave table start
+     * or the scan limit is reached.
+     *
+     * @return true when the scan limit is reached with keys still unresolved
+     */
+    private static boolean lookBack(
+            AsyncAsOfJoinAtom atom,
+            Map map,
+            PageAddressCacheRecord slaveRecord,
+            RecordSink slaveKeySink,
+            int slaveFrameIndex,
+            long slaveRowIndex,
+            long unresolvedKeyCount,
+            long scanLimit
+    ) {
+        slaveRecord.setFrameIndex(slaveFrameIndex);
+        while (unresolvedKeyCount > 0) {
+            if (scanLimit-- == 0) {
+                return true;
+            }
+            slaveRecord.setRowIndex(slaveRowIndex);
+            final MapKey key = map.withKey();
+            key.put(slaveRecord, slaveKeySink);
+            final MapValue value = key.findValue();
+            if (value != null && value.getLong(0) == -1) {
+                value.putLong(0, Rows.toRowID(slaveFrameIndex, slaveRowIndex));
+                unresolvedKeyCount--;
+            }
+            if (--slaveRowIndex < 0) {
+                if (--slaveFrameIndex < 0) {
+                    break;
+                }
+                slaveRecord.setFrameIndex(slaveFrameIndex);
+                slaveRowIndex = atom.getSlaveFrameRowCount(slaveFrameIndex) - 1;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void _close() {
+        ((JoinRecordMetadata) getMetadata()).close();
+        Misc.free(cursor);
+        Misc.free(masterFactory);
+        Misc.free(slaveFactory);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+        cursor.freeRecords();
+    }
+}
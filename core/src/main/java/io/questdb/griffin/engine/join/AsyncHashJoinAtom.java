@@ -0,0 +1,250 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.map.FastMap;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.PerWorkerLocks;
+import io.questdb.griffin.engine.table.AsyncFilterUtils;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Holds state of the parallel hash join shared by the workers. The join key map and the slave
+ * row id chain are built on the query owner thread before any master page frame is dispatched,
+ * so that workers only read them. Each worker probes the map with its own key.
+ */
+class AsyncHashJoinAtom implements StatefulAtom, Closeable {
+    private static final long FILTERED_ROWS_INITIAL_CAPACITY = 16;
+    private final ObjList<Function> bindVarFunctions;
+    private final MemoryCARW bindVarMemory;
+    private final CompiledFilter compiledFilter;
+    private final Function filter;
+    private final FastMap joinKeyMap;
+    private final RecordSink masterKeySink;
+    private final boolean outer;
+    private final DirectLongList ownerFilteredRows;
+    private final FastMap.ProbeKey ownerProbeKey;
+    private final ObjList<DirectLongList> perWorkerFilteredRows;
+    private final ObjList<Function> perWorkerFilters;
+    private final PerWorkerLocks perWorkerLocks;
+    private final ObjList<FastMap.ProbeKey> perWorkerProbeKeys;
+    private final LongChain slaveChain;
+
+    AsyncHashJoinAtom(
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ColumnTypes joinColumnTypes,
+            @Transient @NotNull ColumnTypes valueTypes,
+            @NotNull RecordSink masterKeySink,
+            boolean outer,
+            @Nullable CompiledFilter compiledFilter,
+            @Nullable MemoryCARW bindVarMemory,
+            @Nullable ObjList<Function> bindVarFunctions,
+            @Nullable Function filter,
+            @Nullable ObjList<Function> perWorkerFilters,
+            int workerCount
+    ) {
+        assert perWorkerFilters == null || perWorkerFilters.size() == workerCount;
+        this.masterKeySink = masterKeySink;
+        this.outer = outer;
+        this.compiledFilter = compiledFilter;
+        this.bindVarMemory = bindVarMemory;
+        this.bindVarFunctions = bindVarFunctions;
+        this.filter = filter;
+        this.perWorkerFilters = perWorkerFilters;
+        this.perWorkerLocks = new PerWorkerLocks(configuration, workerCount);
+        this.perWorkerProbeKeys = new ObjList<>(workerCount);
+        this.perWorkerFilteredRows = new ObjList<>(workerCount);
+        try {
+            joinKeyMap = new FastMap(
+                    configuration.getSqlSmallMapPageSize(),
+                    joinColumnTypes,
+                    valueTypes,
+                    configuration.getSqlSmallMapKeyCapacity(),
+                    configuration.getSqlFastMapLoadFactor(),
+                    configuration.getSqlMapMaxResizes()
+            );
+            slaveChain = new LongChain(configuration.getSqlHashJoinLightValuePageSize(), configuration.getSqlHashJoinLightValueMaxPages());
+            ownerProbeKey = joinKeyMap.newProbeKey();
+            ownerFilteredRows = new DirectLongList(FILTERED_ROWS_INITIAL_CAPACITY, MemoryTag.NATIVE_LONG_LIST);
+            for (int i = 0; i < workerCount; i++) {
+                perWorkerProbeKeys.extendAndSet(i, joinKeyMap.newProbeKey());
+                perWorkerFilteredRows.extendAndSet(i, new DirectLongList(FILTERED_ROWS_INITIAL_CAPACITY, MemoryTag.NATIVE_LONG_LIST));
+            }
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use its own private filter and key anytime.
+            return -1;
+        }
+        return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
+    }
+
+    /**
+     * Releases memory held by the join key map, the chain and the per-worker buffers.
+     * {@link #reopen()} has to be called before the atom is used again.
+     */
+    public void clear() {
+        Misc.free(joinKeyMap);
+        Misc.free(slaveChain);
+        Misc.free(ownerFilteredRows);
+        Misc.freeObjListAndKeepObjects(perWorkerFilteredRows);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(ownerProbeKey);
+        Misc.freeObjList(perWorkerProbeKeys);
+        Misc.free(joinKeyMap);
+        Misc.free(slaveChain);
+        Misc.free(ownerFilteredRows);
+        Misc.freeObjList(perWorkerFilteredRows);
+        Misc.free(compiledFilter);
+        Misc.free(bindVarMemory);
+        Misc.freeObjList(bindVarFunctions);
+        Misc.free(filter);
+        Misc.freeObjList(perWorkerFilters);
+    }
+
+    public ObjList<Function> getBindVarFunctions() {
+        return bindVarFunctions;
+    }
+
+    public MemoryCARW getBindVarMemory() {
+        return bindVarMemory;
+    }
+
+    public CompiledFilter getCompiledFilter() {
+        return compiledFilter;
+    }
+
+    public Function getFilter(int slotId) {
+        if (slotId == -1 || perWorkerFilters == null) {
+            return filter;
+        }
+        return perWorkerFilters.getQuick(slotId);
+    }
+
+    public DirectLongList getFilteredRows(int slotId) {
+        final DirectLongList rows = slotId == -1 ? ownerFilteredRows : perWorkerFilteredRows.getQuick(slotId);
+        // The buffers are allocated lazily, so that idle workers don't hold any memory.
+        rows.reopen();
+        return rows;
+    }
+
+    public FastMap getJoinKeyMap() {
+        return joinKeyMap;
+    }
+
+    public RecordSink getMasterKeySink() {
+        return masterKeySink;
+    }
+
+    public FastMap.ProbeKey getProbeKey(int slotId) {
+        return slotId == -1 ? ownerProbeKey : perWorkerProbeKeys.getQuick(slotId);
+    }
+
+    public LongChain getSlaveChain() {
+        return slaveChain;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        if (filter != null) {
+            filter.init(symbolTableSource, executionContext);
+        }
+        if (bindVarFunctions != null) {
+            Function.init(bindVarFunctions, symbolTableSource, executionContext);
+            AsyncFilterUtils.prepareBindVarMemory(executionContext, symbolTableSource, bindVarFunctions, bindVarMemory);
+        }
+        if (perWorkerFilters != null) {
+            final boolean current = executionContext.getCloneSymbolTables();
+            executionContext.setCloneSymbolTables(true);
+            try {
+                Function.init(perWorkerFilters, symbolTableSource, executionContext);
+            } finally {
+                executionContext.setCloneSymbolTables(current);
+            }
+        }
+    }
+
+    @Override
+    public void initCursor() {
+        if (filter != null) {
+            filter.initCursor();
+        }
+        if (perWorkerFilters != null) {
+            // Initialize all per-worker filters on the query owner thread to avoid
+            // DataUnavailableException thrown on worker threads when filtering.
+            Function.initCursor(perWorkerFilters);
+        }
+    }
+
+    public boolean isOuter() {
+        return outer;
+    }
+
+    public void release(int slotId) {
+        perWorkerLocks.releaseSlot(slotId);
+    }
+
+    public void reopen() {
+        joinKeyMap.reopen();
+        slaveChain.reopen();
+    }
+
+    public void toTop() {
+        if (filter != null) {
+            filter.toTop();
+        }
+        if (perWorkerFilters != null) {
+            for (int i = 0, n = perWorkerFilters.size(); i < n; i++) {
+                perWorkerFilters.getQuick(i).toTop();
+            }
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Os;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Returns rows of a parallel hash join. Master page frames are probed by workers, each
+ * task holds (row index, slave chain head) pairs of the frame. Frames are collected in
+ * their natural order, so the output order is the same as in the serial hash join.
+ */
+class AsyncHashJoinLightRecordCursor implements NoRandomAccessRecordCursor {
+    private static final Log LOG = LogFactory.getLog(AsyncHashJoinLightRecordCursor.class);
+    private final int columnSplit;
+    private final PageAddressCacheRecord masterRecord;
+    private final OuterJoinRecord outerRecord;
+    private final JoinRecord record;
+    private final RecordSink slaveKeySink;
+    private boolean allFramesActive;
+    private SqlExecutionCircuitBreaker circuitBreaker;
+    private long cursor = -1;
+    private int frameIndex;
+    private int frameLimit;
+    private long frameRowCount;
+    private long frameRowIndex;
+    private PageFrameSequence<AsyncHashJoinAtom> frameSequence;
+    private boolean isMapBuilt;
+    private boolean isOpen;
+    private DirectLongList rows;
+    private LongChain.TreeCursor slaveChainCursor;
+    private RecordCursor slaveCursor;
+    private Record slaveRecord;
+    private long size;
+
+    public AsyncHashJoinLightRecordCursor(int columnSplit, RecordSink slaveKeySink, @Nullable Record nullRecord) {
+        this.columnSplit = columnSplit;
+        this.slaveKeySink = slaveKeySink;
+        this.masterRecord = new PageAddressCacheRecord();
+        if (nullRecord != null) {
+            this.outerRecord = new OuterJoinRecord(columnSplit, nullRecord);
+            this.record = outerRecord;
+        } else {
+            this.outerRecord = null;
+            this.record = new JoinRecord(columnSplit);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            isOpen = false;
+            if (frameSequence != null) {
+                LOG.debug()
+                        .$("closing [shard=").$(frameSequence.getShard())
+                        .$(", frameIndex=").$(frameIndex)
+                        .$(", frameCount=").$(frameLimit)
+                        .$(", frameId=").$(frameSequence.getId())
+                        .$(", cursor=").$(cursor)
+                        .I$();
+
+                collectCursor(true);
+                if (frameLimit > -1) {
+                    frameSequence.await();
+                }
+                frameSequence.clear();
+                frameSequence.getAtom().clear();
+            }
+            slaveCursor = Misc.free(slaveCursor);
+        }
+    }
+
+    public void freeRecords() {
+        Misc.free(masterRecord);
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        if (columnIndex < columnSplit) {
+            return frameSequence.getSymbolTableSource().getSymbolTable(columnIndex);
+        }
+        return slaveCursor.getSymbolTable(columnIndex - columnSplit);
+    }
+
+    @Override
+    public boolean hasNext() {
+        buildMapOfSlaveRecords();
+
+        if (slaveChainCursor != null && slaveChainCursor.hasNext()) {
+            slaveCursor.recordAt(slaveRecord, slaveChainCursor.next());
+            return true;
+        }
+
+        // Check for the first hasNext call.
+        if (frameIndex == -1) {
+            fetchNextFrame();
+        }
+
+        while (true) {
+            if (frameRowIndex < frameRowCount) {
+                nextMasterRow();
+                return true;
+            }
+
+            // Release the previous queue item.
+            collectCursor(false);
+
+            if (frameIndex < frameLimit) {
+                fetchNextFrame();
+                continue;
+            }
+
+            if (!allFramesActive) {
+                throwTimeoutException();
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public SymbolTable newSymbolTable(int columnIndex) {
+        if (columnIndex < columnSplit) {
+            return frameSequence.getSymbolTableSource().newSymbolTable(columnIndex);
+        }
+        return slaveCursor.newSymbolTable(columnIndex - columnSplit);
+    }
+
+    @Override
+    public long size() {
+        if (size > -1) {
+            return size;
+        }
+        if (outerRecord != null) {
+            // same as the serial outer join
+            return -1;
+        }
+        buildMapOfSlaveRecords();
+        // run through all master frames and count slave rows in the matching chains
+        toTop();
+        if (frameIndex == -1) {
+            fetchNextFrame();
+        }
+        final LongChain slaveChain = frameSequence.getAtom().getSlaveChain();
+        long count = 0;
+        while (true) {
+            for (long r = frameRowIndex; r < frameRowCount; r++) {
+                final LongChain.TreeCursor chainCursor = slaveChain.getCursor(rows.get(2 * r + 1));
+                while (chainCursor.hasNext()) {
+                    chainCursor.next();
+                    count++;
+                }
+            }
+            frameRowIndex = frameRowCount;
+            collectCursor(false);
+            if (frameIndex < frameLimit) {
+                fetchNextFrame();
+                continue;
+            }
+            break;
+        }
+        if (!allFramesActive) {
+            throwTimeoutException();
+        }
+        toTop();
+        return size = count;
+    }
+
+    @Override
+    public void toTop() {
+        slaveChainCursor = null;
+        // Check if we at the top already and there is nothing to do.
+        if (frameIndex == -1 || (frameIndex == 0 && frameRowIndex == 0)) {
+            return;
+        }
+        collectCursor(false);
+        frameSequence.toTop();
+        frameSequence.getAtom().toTop();
+        frameIndex = -1;
+        frameRowCount = 0;
+        frameRowIndex = 0;
+        allFramesActive = true;
+    }
+
+    private void buildMapOfSlaveRecords() {
+        if (!isMapBuilt) {
+            // the map has to be complete before any master frame is dispatched to the workers
+            final AsyncHashJoinAtom atom = frameSequence.getAtom();
+            TableUtils.populateRowIDHashMap(circuitBreaker, slaveCursor, atom.getJoinKeyMap(), slaveKeySink, atom.getSlaveChain());
+            isMapBuilt = true;
+        }
+    }
+
+    private void collectCursor(boolean forceCollect) {
+        if (cursor > -1) {
+            frameSequence.collect(cursor, forceCollect);
+            // It is necessary to clear 'cursor' value
+            // because we updated frameIndex and loop can exit due to lack of frames.
+            // Non-update of 'cursor' could cause double-free.
+            cursor = -1;
+        }
+    }
+
+    private void fetchNextFrame() {
+        if (frameLimit == -1) {
+            frameSequence.prepareForDispatch();
+            frameLimit = frameSequence.getFrameCount() - 1;
+        }
+
+        try {
+            do {
+                cursor = frameSequence.next();
+                if (cursor > -1) {
+                    PageFrameReduceTask task = frameSequence.getTask(cursor);
+                    LOG.debug()
+                            .$("collected [shard=").$(frameSequence.getShard())
+                            .$(", frameIndex=").$(task.getFrameIndex())
+                            .$(", frameCount=").$(frameSequence.getFrameCount())
+                            .$(", frameId=").$(frameSequence.getId())
+                            .$(", active=").$(frameSequence.isActive())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+                    if (task.hasError()) {
+                        throw CairoException.nonCritical().put(task.getErrorMsg());
+                    }
+
+                    allFramesActive &= frameSequence.isActive();
+                    rows = task.getRows();
+                    // the rows hold (row index, slave chain head) pairs
+                    frameRowCount = rows.size() / 2;
+                    frameIndex = task.getFrameIndex();
+                    frameRowIndex = 0;
+                    if (frameRowCount > 0 && frameSequence.isActive()) {
+                        masterRecord.setFrameIndex(task.getFrameIndex());
+                        break;
+                    } else {
+                        // Force reset frame size if frameSequence was canceled or failed.
+                        frameRowCount = 0;
+                        collectCursor(false);
+                    }
+                } else if (cursor == -2) {
+                    break; // No frames to join
+                } else {
+                    Os.pause();
+                }
+            } while (frameIndex < frameLimit);
+        } catch (Throwable e) {
+            LOG.error().$("hash join error [ex=").$(e).I$();
+            if (e instanceof CairoException) {
+                CairoException ce = (CairoException) e;
+                if (ce.isInterruption()) {
+                    throwTimeoutException();
+                } else {
+                    throw ce;
+                }
+            }
+            throw CairoException.nonCritical().put(e.getMessage());
+        }
+    }
+
+    private void nextMasterRow() {
+        final long p = 2 * frameRowIndex++;
+        masterRecord.setRowIndex(rows.get(p));
+        final long chainHead = rows.get(p + 1);
+        if (chainHead != -1) {
+            slaveChainCursor = frameSequence.getAtom().getSlaveChain().getCursor(chainHead);
+            // we know cursor has values
+            // advance to get the first value
+            slaveChainCursor.hasNext();
+            slaveCursor.recordAt(slaveRecord, slaveChainCursor.next());
+            if (outerRecord != null) {
+                outerRecord.hasSlave(true);
+            }
+        } else {
+            // only outer join emits master rows without a match
+            slaveChainCursor = null;
+            outerRecord.hasSlave(false);
+        }
+    }
+
+    private void throwTimeoutException() {
+        throw CairoException.nonCritical().put("timeout, query aborted").setInterruption(true);
+    }
+
+    void of(PageFrameSequence<AsyncHashJoinAtom> frameSequence, RecordCursor slaveCursor, SqlExecutionContext executionContext) {
+        if (!isOpen) {
+            isOpen = true;
+            frameSequence.getAtom().reopen();
+        }
+        this.frameSequence = frameSequence;
+        this.slaveCursor = slaveCursor;
+        this.circuitBreaker = executionContext.getCircuitBreaker();
+        masterRecord.of(frameSequence.getSymbolTableSource(), frameSequence.getPageAddressCache());
+        slaveRecord = slaveCursor.getRecordB();
+        record.of(masterRecord, slaveRecord);
+        slaveChainCursor = null;
+        isMapBuilt = false;
+        size = -1;
+        frameIndex = -1;
+        frameLimit = -1;
+        frameRowCount = 0;
+        frameRowIndex = 0;
+        allFramesActive = true;
+    }
+}
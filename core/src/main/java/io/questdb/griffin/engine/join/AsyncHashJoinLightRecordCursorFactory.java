@@ -0,0 +1,254 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.map.FastMap;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReduceTaskFactory;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.table.AsyncFilterUtils;
+import io.questdb.griffin.model.JoinContext;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import io.questdb.std.Vect;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+
+/**
+ * Inner or outer hash join executed in parallel over master page frames. The slave side is
+ * hashed on the query owner thread, then workers probe the join key map with master rows of
+ * the frames they pick up. The query owner thread emits joined rows frame by frame, so the
+ * output order is the same as in {@link HashJoinLightRecordCursorFactory} and
+ * {@link HashOuterJoinLightRecordCursorFactory}.
+ */
+public class AsyncHashJoinLightRecordCursorFactory extends AbstractJoinRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncHashJoinLightRecordCursorFactory::probe;
+
+    private final AsyncHashJoinAtom atom;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncHashJoinLightRecordCursor cursor;
+    private final PageFrameSequence<AsyncHashJoinAtom> frameSequence;
+    private final int workerCount;
+
+    public AsyncHashJoinLightRecordCursorFactory(
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordMetadata metadata,
+            @NotNull RecordCursorFactory masterFactory,
+            @NotNull RecordCursorFactory slaveFactory,
+            @Transient @NotNull ColumnTypes joinColumnTypes,
+            @Transient @NotNull ColumnTypes valueTypes, // this expected to be just LONG, we store chain references in map
+            @NotNull RecordSink masterKeySink,
+            @NotNull RecordSink slaveKeySink,
+            int columnSplit,
+            @Nullable Record nullRecord, // outer join when not null
+            @NotNull JoinContext joinContext,
+            @Nullable CompiledFilter compiledFilter,
+            @Nullable MemoryCARW bindVarMemory,
+            @Nullable ObjList<Function> bindVarFunctions,
+            @Nullable Function filter,
+            @NotNull PageFrameReduceTaskFactory reduceTaskFactory,
+            @Nullable ObjList<Function> perWorkerFilters,
+            int workerCount
+    ) {
+        super(metadata, joinContext, masterFactory, slaveFactory);
+        this.workerCount = workerCount;
+        this.atom = new AsyncHashJoinAtom(
+                configuration,
+                joinColumnTypes,
+                valueTypes,
+                masterKeySink,
+                nullRecord != null,
+                compiledFilter,
+                bindVarMemory,
+                bindVarFunctions,
+                filter,
+                perWorkerFilters,
+                workerCount
+        );
+        this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, reduceTaskFactory);
+        this.cursor = new AsyncHashJoinLightRecordCursor(columnSplit, slaveKeySink, nullRecord);
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        RecordCursor slaveCursor = slaveFactory.getCursor(executionContext);
+        try {
+            final PageFrameSequence<AsyncHashJoinAtom> frameSequence = this.frameSequence.of(masterFactory, executionContext, collectSubSeq, atom, ORDER_ASC);
+            cursor.of(frameSequence, slaveCursor, executionContext);
+            return cursor;
+        } catch (Throwable e) {
+            Misc.free(slaveCursor);
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getScanDirection() {
+        return masterFactory.getScanDirection();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsUpdateRowId(TableToken tableToken) {
+        // only inner join rows are backed by the master table rows, same as in the serial join
+        return !atom.isOuter() && masterFactory.supportsUpdateRowId(tableToken);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        if (atom.isOuter()) {
+            sink.type(atom.getCompiledFilter() != null ? "Async JIT Hash Outer Join Light" : "Async Hash Outer Join Light");
+        } else {
+            sink.type(atom.getCompiledFilter() != null ? "Async JIT Hash Join Light" : "Async Hash Join Light");
+        }
+        sink.meta("workers").val(workerCount);
+        sink.optAttr("condition", joinContext);
+        sink.optAttr("filter", atom.getFilter(-1));
+        sink.child(masterFactory);
+        sink.child("Hash", slaveFactory);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return atom.getCompiledFilter() != null || masterFactory.usesCompiledFilter();
+    }
+
+    private static void probe(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final long frameRowCount = task.getFrameRowCount();
+        final AsyncHashJoinAtom atom = task.getFrameSequence(AsyncHashJoinAtom.class).getAtom();
+
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        final Function filter = atom.getFilter(slotId);
+        final FastMap.ProbeKey probeKey = atom.getProbeKey(slotId);
+        final RecordSink masterKeySink = atom.getMasterKeySink();
+        final boolean outer = atom.isOuter();
+        try {
+            // the rows list is filled with (row index, slave chain head) pairs
+            final DirectLongList rows = task.getRows();
+            final CompiledFilter compiledFilter = atom.getCompiledFilter();
+            if (compiledFilter == null || task.getPageAddressCache().hasColumnTops(task.getFrameIndex())) {
+                // Use Java-based filter, if any, when there is no compiled filter or the frame has column tops.
+                rows.clear();
+                if (rows.getCapacity() < 2 * frameRowCount) {
+                    rows.setCapacity(2 * frameRowCount);
+                }
+                for (long r = 0; r < frameRowCount; r++) {
+                    record.setRowIndex(r);
+                    if (filter != null && !filter.getBool(record)) {
+                        continue;
+                    }
+                    probeRow(probeKey, masterKeySink, record, r, rows, outer);
+                }
+            } else {
+                rows.clear();
+                AsyncFilterUtils.applyCompiledFilter(compiledFilter, atom.getBindVarMemory(), atom.getBindVarFunctions(), task);
+                // move filtered row indexes aside, so that the pairs can be written to the task's list
+                final long filteredRowCount = rows.size();
+                final DirectLongList filteredRows = atom.getFilteredRows(slotId);
+                if (filteredRows.getCapacity() < filteredRowCount) {
+                    filteredRows.setCapacity(filteredRowCount);
+                }
+                Vect.memcpy(filteredRows.getAddress(), rows.getAddress(), filteredRowCount * Long.BYTES);
+                filteredRows.setPos(filteredRowCount);
+
+                rows.clear();
+                if (rows.getCapacity() < 2 * filteredRowCount) {
+                    rows.setCapacity(2 * filteredRowCount);
+                }
+                for (long p = 0; p < filteredRowCount; p++) {
+                    final long r = filteredRows.get(p);
+                    record.setRowIndex(r);
+                    probeRow(probeKey, masterKeySink, record, r, rows, outer);
+                }
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    private static void probeRow(
+            FastMap.ProbeKey probeKey,
+            RecordSink masterKeySink,
+            PageAddressCacheRecord record,
+            long rowIndex,
+            DirectLongList rows,
+            boolean outer
+    ) {
+        probeKey.init();
+        probeKey.put(record, masterKeySink);
+        final MapValue value = probeKey.findValue();
+        if (value != null) {
+            rows.add(rowIndex);
+            rows.add(value.getLong(0));
+        } else if (outer) {
+            rows.add(rowIndex);
+            rows.add(-1);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        ((JoinRecordMetadata) getMetadata()).close();
+        Misc.free(cursor);
+        Misc.free(masterFactory);
+        Misc.free(slaveFactory);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+        cursor.freeRecords();
+    }
+}
@@ -58,6 +58,7 @@ public class AlterOperation extends AbstractOperation implements Mutable {
     public final static short RENAME_TABLE = SQUASH_PARTITIONS + 1; // 14
     public final static short SET_DEDUP_ENABLE = RENAME_TABLE + 1; // 15
     public final static short SET_DEDUP_DISABLE = SET_DEDUP_ENABLE + 1; // 16
+    public final static short COMPRESS_PARTITION = SET_DEDUP_DISABLE + 1; // 17
     private static final long BIT_INDEXED = 0x1L;
     private static final long BIT_DEDUP_KEY = BIT_INDEXED << 1;
     private final static Log LOG = LogFactory.getLog(AlterOperation.class);
@@ -151,6 +152,9 @@ public class AlterOperation extends AbstractOperation implements Mutable {
                 case SET_DEDUP_DISABLE:
                     svc.disableDeduplication();
                     break;
+                case COMPRESS_PARTITION:
+                    applyCompressPartition(svc);
+                    break;
                 default:
                     LOG.error()
                             .$("invalid alter table command [code=").$(command)
@@ -386,6 +390,18 @@ public class AlterOperation extends AbstractOperation implements Mutable {
         }
     }
 
+    private void applyCompressPartition(MetadataService svc) {
+        // long list is a set of two longs per partition - (timestamp, partitionNamePosition)
+        for (int i = 0, n = extraInfo.size() / 2; i < n; i++) {
+            try {
+                svc.compressPartition(extraInfo.getQuick(i * 2));
+            } catch (CairoException e) {
+                e.position((int) extraInfo.getQuick(i * 2 + 1));
+                throw e;
+            }
+        }
+    }
+
     private void applyDetachPartition(MetadataService svc) {
         for (int i = 0, n = extraInfo.size() / 2; i < n; i++) {
             final long partitionTimestamp = extraInfo.getQuick(i * 2);
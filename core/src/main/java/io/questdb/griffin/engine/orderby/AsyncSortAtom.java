@@ -0,0 +1,275 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.PerWorkerLocks;
+import io.questdb.griffin.engine.table.AsyncFilterUtils;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+
+/**
+ * Holds state of the parallel ORDER BY shared by the workers: the sort key, optional
+ * filter taken over from the base factory and per-worker scratch buffers used by radix sort.
+ * The query owner thread uses its own filter and buffer.
+ */
+class AsyncSortAtom implements StatefulAtom, Closeable {
+    private static final long SCRATCH_INITIAL_CAPACITY = 16;
+    private final ObjList<Function> bindVarFunctions;
+    private final MemoryCARW bindVarMemory;
+    private final CompiledFilter compiledFilter;
+    private final boolean descending;
+    private final Function filter;
+    private final int keyColumnIndex;
+    private final int keyColumnTag;
+    private final DirectLongList ownerScratch;
+    private final ObjList<Function> perWorkerFilters;
+    private final PerWorkerLocks perWorkerLocks;
+    private final ObjList<DirectLongList> perWorkerScratches;
+
+    AsyncSortAtom(
+            @NotNull CairoConfiguration configuration,
+            int keyColumnIndex,
+            int keyColumnType,
+            boolean descending,
+            @Nullable CompiledFilter compiledFilter,
+            @Nullable MemoryCARW bindVarMemory,
+            @Nullable ObjList<Function> bindVarFunctions,
+            @Nullable Function filter,
+            @Nullable ObjList<Function> perWorkerFilters,
+            int workerCount
+    ) {
+        assert isKeyTypeSupported(keyColumnType);
+        assert perWorkerFilters == null || perWorkerFilters.size() == workerCount;
+        this.keyColumnIndex = keyColumnIndex;
+        this.keyColumnTag = ColumnType.tagOf(keyColumnType);
+        this.descending = descending;
+        this.compiledFilter = compiledFilter;
+        this.bindVarMemory = bindVarMemory;
+        this.bindVarFunctions = bindVarFunctions;
+        this.filter = filter;
+        this.perWorkerFilters = perWorkerFilters;
+        this.perWorkerLocks = new PerWorkerLocks(configuration, workerCount);
+        this.ownerScratch = new DirectLongList(SCRATCH_INITIAL_CAPACITY, MemoryTag.NATIVE_SORT_RUNS);
+        this.perWorkerScratches = new ObjList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            perWorkerScratches.extendAndSet(i, new DirectLongList(SCRATCH_INITIAL_CAPACITY, MemoryTag.NATIVE_SORT_RUNS));
+        }
+    }
+
+    /**
+     * Returns true when values of the column type can be mapped to order-preserving
+     * 64-bit radix keys.
+     */
+    static boolean isKeyTypeSupported(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BOOLEAN:
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+            case ColumnType.INT:
+            case ColumnType.IPv4:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+            case ColumnType.GEOBYTE:
+            case ColumnType.GEOSHORT:
+            case ColumnType.GEOINT:
+            case ColumnType.GEOLONG:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public int acquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use its own private filter and buffer anytime.
+            return -1;
+        }
+        return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
+    }
+
+    /**
+     * Releases memory held by the scratch buffers. The buffers are reallocated on demand.
+     */
+    public void clear() {
+        Misc.free(ownerScratch);
+        Misc.freeObjListAndKeepObjects(perWorkerScratches);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(ownerScratch);
+        Misc.freeObjList(perWorkerScratches);
+        Misc.free(compiledFilter);
+        Misc.free(bindVarMemory);
+        Misc.freeObjList(bindVarFunctions);
+        Misc.free(filter);
+        Misc.freeObjList(perWorkerFilters);
+    }
+
+    /**
+     * Maps the sort key of the record to an unsigned 64-bit value, so that unsigned
+     * order of the values matches the order of the original values in ORDER BY
+     * direction, including nulls and NaNs.
+     */
+    public long encodeKey(Record record) {
+        long key;
+        switch (keyColumnTag) {
+            case ColumnType.BOOLEAN:
+                key = record.getBool(keyColumnIndex) ? 1 : 0;
+                break;
+            case ColumnType.BYTE:
+                key = record.getByte(keyColumnIndex);
+                break;
+            case ColumnType.SHORT:
+                key = record.getShort(keyColumnIndex);
+                break;
+            case ColumnType.CHAR:
+                key = record.getChar(keyColumnIndex);
+                break;
+            case ColumnType.INT:
+                key = record.getInt(keyColumnIndex);
+                break;
+            case ColumnType.IPv4:
+                key = Numbers.ipv4ToLong(record.getIPv4(keyColumnIndex));
+                break;
+            case ColumnType.DATE:
+                key = record.getDate(keyColumnIndex);
+                break;
+            case ColumnType.TIMESTAMP:
+                key = record.getTimestamp(keyColumnIndex);
+                break;
+            case ColumnType.FLOAT:
+                // Flip value bits of negative floats, so that integer order matches Numbers.compare(float, float).
+                final int floatBits = Float.floatToIntBits(record.getFloat(keyColumnIndex));
+                key = floatBits < 0 ? floatBits ^ Integer.MAX_VALUE : floatBits;
+                break;
+            case ColumnType.DOUBLE:
+                final long doubleBits = Double.doubleToLongBits(record.getDouble(keyColumnIndex));
+                key = doubleBits < 0 ? doubleBits ^ Long.MAX_VALUE : doubleBits;
+                break;
+            case ColumnType.GEOBYTE:
+                key = record.getGeoByte(keyColumnIndex);
+                break;
+            case ColumnType.GEOSHORT:
+                key = record.getGeoShort(keyColumnIndex);
+                break;
+            case ColumnType.GEOINT:
+                key = record.getGeoInt(keyColumnIndex);
+                break;
+            default:
+                // LONG and GEOLONG
+                key = record.getLong(keyColumnIndex);
+                break;
+        }
+        if (descending) {
+            key = ~key;
+        }
+        // radix sort compares keys as unsigned values
+        return key ^ Long.MIN_VALUE;
+    }
+
+    public ObjList<Function> getBindVarFunctions() {
+        return bindVarFunctions;
+    }
+
+    public MemoryCARW getBindVarMemory() {
+        return bindVarMemory;
+    }
+
+    public CompiledFilter getCompiledFilter() {
+        return compiledFilter;
+    }
+
+    public Function getFilter(int slotId) {
+        if (slotId == -1 || perWorkerFilters == null) {
+            return filter;
+        }
+        return perWorkerFilters.getQuick(slotId);
+    }
+
+    public DirectLongList getScratch(int slotId) {
+        final DirectLongList scratch = slotId == -1 ? ownerScratch : perWorkerScratches.getQuick(slotId);
+        scratch.reopen();
+        return scratch;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+        if (filter != null) {
+            filter.init(symbolTableSource, executionContext);
+        }
+        if (bindVarFunctions != null) {
+            Function.init(bindVarFunctions, symbolTableSource, executionContext);
+            AsyncFilterUtils.prepareBindVarMemory(executionContext, symbolTableSource, bindVarFunctions, bindVarMemory);
+        }
+        if (perWorkerFilters != null) {
+            final boolean current = executionContext.getCloneSymbolTables();
+            executionContext.setCloneSymbolTables(true);
+            try {
+                Function.init(perWorkerFilters, symbolTableSource, executionContext);
+            } finally {
+                executionContext.setCloneSymbolTables(current);
+            }
+        }
+    }
+
+    @Override
+    public void initCursor() {
+        if (filter != null) {
+            filter.initCursor();
+        }
+        if (perWorkerFilters != null) {
+            // Initialize all per-worker filters on the query owner thread to avoid
+            // DataUnavailableException thrown on worker threads when filtering.
+            Function.initCursor(perWorkerFilters);
+        }
+    }
+
+    public void release(int slotId) {
+        perWorkerLocks.releaseSlot(slotId);
+    }
+}
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Os;
+import io.questdb.std.Rows;
+
+class AsyncSortedLightRecordCursor implements RecordCursor {
+    private static final Log LOG = LogFactory.getLog(AsyncSortedLightRecordCursor.class);
+    private final boolean hasFilter;
+    private final PageAddressCacheRecord record;
+    private final SortedRuns sortedRuns;
+    private SqlExecutionCircuitBreaker circuitBreaker;
+    private long cursor = -1;
+    private int frameLimit;
+    private PageFrameSequence<AsyncSortAtom> frameSequence;
+    private boolean isOpen;
+    private boolean isSorted;
+    private PageAddressCacheRecord recordB;
+
+    public AsyncSortedLightRecordCursor(SortedRuns sortedRuns, boolean hasFilter) {
+        this.sortedRuns = sortedRuns;
+        this.hasFilter = hasFilter;
+        this.record = new PageAddressCacheRecord();
+        this.isOpen = true;
+    }
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            isOpen = false;
+            if (frameSequence != null) {
+                LOG.debug()
+                        .$("closing [shard=").$(frameSequence.getShard())
+                        .$(", frameCount=").$(frameLimit)
+                        .$(", frameId=").$(frameSequence.getId())
+                        .$(", cursor=").$(cursor)
+                        .I$();
+
+                collectCursor(true);
+                if (frameLimit > -1) {
+                    frameSequence.await();
+                }
+                frameSequence.clear();
+                frameSequence.getAtom().clear();
+            }
+            Misc.free(sortedRuns);
+        }
+    }
+
+    public void freeRecords() {
+        Misc.free(record);
+        Misc.free(recordB);
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public Record getRecordB() {
+        if (recordB != null) {
+            return recordB;
+        }
+        recordB = new PageAddressCacheRecord(record);
+        return recordB;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return frameSequence.getSymbolTableSource().getSymbolTable(columnIndex);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!isSorted) {
+            sort();
+        }
+        if (sortedRuns.hasNext()) {
+            // rows are merged lazily, so check the circuit breaker per row as the serial sort does
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            recordAt(record, sortedRuns.next());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public SymbolTable newSymbolTable(int columnIndex) {
+        return frameSequence.getSymbolTableSource().newSymbolTable(columnIndex);
+    }
+
+    @Override
+    public void recordAt(Record record, long atRowId) {
+        ((PageAddressCacheRecord) record).setFrameIndex(Rows.toPartitionIndex(atRowId));
+        ((PageAddressCacheRecord) record).setRowIndex(Rows.toLocalRowID(atRowId));
+    }
+
+    @Override
+    public long size() {
+        // same as the serial sort: filtered row count is not known upfront
+        if (hasFilter) {
+            return -1;
+        }
+        if (!isSorted) {
+            sort();
+        }
+        return sortedRuns.size();
+    }
+
+    @Override
+    public void toTop() {
+        // runs are sorted once, so we simply restart the merge
+        if (isSorted) {
+            sortedRuns.toTop();
+        }
+    }
+
+    private void collectCursor(boolean forceCollect) {
+        if (cursor > -1) {
+            frameSequence.collect(cursor, forceCollect);
+            // It is necessary to clear 'cursor' value
+            // because we updated frameIndex and loop can exit due to lack of frames.
+            // Non-update of 'cursor' could cause double-free.
+            cursor = -1;
+        }
+    }
+
+    private void sort() {
+        if (frameLimit == -1) {
+            frameSequence.prepareForDispatch();
+            frameLimit = frameSequence.getFrameCount() - 1;
+        }
+
+        int frameIndex = -1;
+        boolean allFramesActive = true;
+        try {
+            do {
+                cursor = frameSequence.next();
+                if (cursor > -1) {
+                    PageFrameReduceTask task = frameSequence.getTask(cursor);
+                    LOG.debug()
+                            .$("collected [shard=").$(frameSequence.getShard())
+                            .$(", frameIndex=").$(task.getFrameIndex())
+                            .$(", frameCount=").$(frameSequence.getFrameCount())
+                            .$(", frameId=").$(frameSequence.getId())
+                            .$(", active=").$(frameSequence.isActive())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+                    if (task.hasError()) {
+                        throw CairoException.nonCritical().put(task.getErrorMsg());
+                    }
+
+                    allFramesActive &= frameSequence.isActive();
+                    frameIndex = task.getFrameIndex();
+
+                    if (allFramesActive) {
+                        // the task holds a sorted run of (key, row id) pairs
+                        final DirectLongList rows = task.getRows();
+                        sortedRuns.add(rows.getAddress(), rows.size() / 2);
+                    }
+
+                    collectCursor(false);
+                    circuitBreaker.statefulThrowExceptionIfTripped();
+                } else if (cursor == -2) {
+                    break; // No frames to sort
+                } else {
+                    Os.pause();
+                }
+            } while (frameIndex < frameLimit);
+        } catch (Throwable e) {
+            LOG.error().$("sort error [ex=").$(e).I$();
+            if (e instanceof CairoException) {
+                CairoException ce = (CairoException) e;
+                if (ce.isInterruption()) {
+                    throwTimeoutException();
+                } else {
+                    throw ce;
+                }
+            }
+            throw CairoException.nonCritical().put(e.getMessage());
+        }
+
+        if (!allFramesActive) {
+            throwTimeoutException();
+        }
+
+        sortedRuns.toTop();
+        isSorted = true;
+    }
+
+    private void throwTimeoutException() {
+        throw CairoException.nonCritical().put("timeout, query aborted").setInterruption(true);
+    }
+
+    void of(PageFrameSequence<AsyncSortAtom> frameSequence, SqlExecutionContext executionContext) {
+        if (!isOpen) {
+            isOpen = true;
+            sortedRuns.reopen();
+        }
+        this.frameSequence = frameSequence;
+        this.circuitBreaker = executionContext.getCircuitBreaker();
+        record.of(frameSequence.getSymbolTableSource(), frameSequence.getPageAddressCache());
+        if (recordB != null) {
+            recordB.of(frameSequence.getSymbolTableSource(), frameSequence.getPageAddressCache());
+        }
+        isSorted = false;
+        frameLimit = -1;
+    }
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ListColumnFilter;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReduceTaskFactory;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.table.AsyncFilterUtils;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Rows;
+import io.questdb.std.Vect;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+
+/**
+ * ORDER BY on a single fixed-size column executed in parallel over page frames. Workers
+ * radix sort (key, row id) pairs of the frames they pick up, then the query owner thread
+ * k-way merges the sorted runs. The runs are spilled to disk once they exceed the sort
+ * memory budget.
+ */
+public class AsyncSortedLightRecordCursorFactory extends AbstractRecordCursorFactory {
+
+    private static final PageFrameReducer REDUCER = AsyncSortedLightRecordCursorFactory::sort;
+
+    private final AsyncSortAtom atom;
+    private final RecordCursorFactory base;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncSortedLightRecordCursor cursor;
+    private final PageFrameSequence<AsyncSortAtom> frameSequence;
+    private final ListColumnFilter sortColumnFilter;
+    private final int workerCount;
+
+    public AsyncSortedLightRecordCursorFactory(
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordMetadata metadata,
+            @NotNull RecordCursorFactory base,
+            @NotNull ListColumnFilter sortColumnFilter,
+            @Nullable CompiledFilter compiledFilter,
+            @Nullable MemoryCARW bindVarMemory,
+            @Nullable ObjList<Function> bindVarFunctions,
+            @Nullable Function filter,
+            @NotNull PageFrameReduceTaskFactory reduceTaskFactory,
+            @Nullable ObjList<Function> perWorkerFilters,
+            int workerCount
+    ) {
+        super(metadata);
+        assert sortColumnFilter.size() == 1;
+        this.base = base;
+        this.sortColumnFilter = sortColumnFilter;
+        this.workerCount = workerCount;
+        final int sortColumn = sortColumnFilter.getColumnIndexFactored(0);
+        this.atom = new AsyncSortAtom(
+                configuration,
+                sortColumn,
+                base.getMetadata().getColumnType(sortColumn),
+                sortColumnFilter.get(0) < 0,
+                compiledFilter,
+                bindVarMemory,
+                bindVarFunctions,
+                filter,
+                perWorkerFilters,
+                workerCount
+        );
+        this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, reduceTaskFactory);
+        this.cursor = new AsyncSortedLightRecordCursor(new SortedRuns(configuration), filter != null);
+    }
+
+    /**
+     * Returns true when ORDER BY on the given key column can be executed by this factory.
+     */
+    public static boolean isSortKeySupported(int columnType) {
+        return AsyncSortAtom.isKeyTypeSupported(columnType);
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final PageFrameSequence<AsyncSortAtom> frameSequence = this.frameSequence.of(base, executionContext, collectSubSeq, atom, ORDER_ASC);
+        try {
+            cursor.of(frameSequence, executionContext);
+            return cursor;
+        } catch (Throwable e) {
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getScanDirection() {
+        return SortedRecordCursorFactory.getScanDirection(sortColumnFilter);
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type(atom.getCompiledFilter() != null ? "Async JIT Sort light" : "Async Sort light");
+        sink.meta("workers").val(workerCount);
+        SortedLightRecordCursorFactory.addSortKeys(sink, sortColumnFilter);
+        sink.optAttr("filter", atom.getFilter(-1), true);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return atom.getCompiledFilter() != null || base.usesCompiledFilter();
+    }
+
+    static void sort(
+            int workerId,
+            @NotNull PageAddressCacheRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final long frameRowCount = task.getFrameRowCount();
+        final int frameIndex = task.getFrameIndex();
+        final AsyncSortAtom atom = task.getFrameSequence(AsyncSortAtom.class).getAtom();
+
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+        final int slotId = atom.acquire(workerId, owner, circuitBreaker);
+        final Function filter = atom.getFilter(slotId);
+        try {
+            // the rows list is filled with (key, row id) pairs
+            final DirectLongList rows = task.getRows();
+            rows.clear();
+            final CompiledFilter compiledFilter = atom.getCompiledFilter();
+            if (compiledFilter == null || task.getPageAddressCache().hasColumnTops(frameIndex)) {
+                // Use Java-based filter, if any, when there is no compiled filter or the frame has column tops.
+                if (rows.getCapacity() < 2 * frameRowCount) {
+                    rows.setCapacity(2 * frameRowCount);
+                }
+                // rows are added in reverse order, so that stable sort keeps rows with equal keys
+                // in descending row id order, same as the serial sort does
+                for (long r = frameRowCount - 1; r > -1; r--) {
+                    record.setRowIndex(r);
+                    if (filter != null && !filter.getBool(record)) {
+                        continue;
+                    }
+                    rows.add(atom.encodeKey(record));
+                    rows.add(Rows.toRowID(frameIndex, r));
+                }
+            } else {
+                AsyncFilterUtils.applyCompiledFilter(compiledFilter, atom.getBindVarMemory(), atom.getBindVarFunctions(), task);
+                final long rowCount = rows.size();
+                if (rows.getCapacity() < 2 * rowCount) {
+                    rows.setCapacity(2 * rowCount);
+                }
+                // reverse the row indexes for the same reason as above
+                for (long lo = 0, hi = rowCount - 1; lo < hi; lo++, hi--) {
+                    final long r = rows.get(lo);
+                    rows.set(lo, rows.get(hi));
+                    rows.set(hi, r);
+                }
+                // expand row indexes into pairs in place, going backwards
+                // to avoid overwriting the indexes that are yet to be read
+                for (long p = rowCount - 1; p > -1; p--) {
+                    final long r = rows.get(p);
+                    record.setRowIndex(r);
+                    rows.set(2 * p + 1, Rows.toRowID(frameIndex, r));
+                    rows.set(2 * p, atom.encodeKey(record));
+                }
+                rows.setPos(2 * rowCount);
+            }
+
+            final long entryCount = rows.size() / 2;
+            if (entryCount > 1) {
+                final DirectLongList scratch = atom.getScratch(slotId);
+                if (scratch.getCapacity() < 2 * entryCount) {
+                    scratch.setCapacity(2 * entryCount);
+                }
+                Vect.radixSortLongIndexAscInPlace(rows.getAddress(), entryCount, scratch.getAddress());
+            }
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(cursor);
+        Misc.free(base);
+        Misc.free(atom);
+        Misc.free(frameSequence);
+        cursor.freeRecords();
+    }
+}
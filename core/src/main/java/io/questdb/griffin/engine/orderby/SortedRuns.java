@@ -0,0 +1,301 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.TableUtils;
+import io.questdb.griffin.engine.LimitOverflowException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sorted runs of (key, row id) entries produced by the parallel ORDER BY. Runs are kept in
+ * memory until their total size exceeds the configured budget, after that they are written
+ * to a spill file under the database root, up to the configured spill size. Read-only instances
+ * do not spill, the budget is a hard limit for them. Runs kept in memory are also subject to the
+ * sort key memory limit of the serial sort. Reading k-way merges all runs. Keys are compared
+ * as unsigned longs and ties are broken by row id in descending order, which matches the order
+ * of rows with equal keys in {@link LongTreeChain}.
+ */
+class SortedRuns implements Reopenable {
+    static final int ENTRY_SIZE = 2 * Long.BYTES;
+    private static final long INITIAL_CAPACITY = 16 * 1024;
+    private static final Log LOG = LogFactory.getLog(SortedRuns.class);
+    private static final AtomicLong SPILL_FILE_ID = new AtomicLong(Os.currentTimeMicros());
+    private final CairoConfiguration configuration;
+    private final FilesFacade ff;
+    // binary min-heap of run indexes ordered by the current entry of each run
+    private final IntList heap = new IntList();
+    private final long memoryBudget;
+    private final long memoryLimit;
+    private final int memoryMaxPages;
+    // entries of the runs that have not been spilled yet
+    private final DirectLongList memoryRuns;
+    private final LongList runLimits = new LongList();
+    // run start offsets, in the spill file for the first spilledRunCount runs and in memory runs for the rest
+    private final LongList runOffsets = new LongList();
+    private final LongList runPositions = new LongList();
+    private final LongList runSizes = new LongList();
+    private final boolean spillEnabled;
+    private final long spillMaxSize;
+    private long size;
+    private long spillAddress;
+    private int spillFd = -1;
+    private long spillFileId;
+    private long spillSize;
+    private int spilledRunCount;
+
+    SortedRuns(CairoConfiguration configuration) {
+        this.configuration = configuration;
+        this.ff = configuration.getFilesFacade();
+        this.memoryBudget = configuration.getSqlSortMemoryBudget();
+        this.memoryMaxPages = configuration.getSqlSortKeyMaxPages();
+        final long keyPageSize = configuration.getSqlSortKeyPageSize();
+        this.memoryLimit = memoryMaxPages > Long.MAX_VALUE / keyPageSize ? Long.MAX_VALUE : keyPageSize * memoryMaxPages;
+        // read-only instances are not allowed to write under the database root
+        this.spillEnabled = !configuration.isReadOnlyInstance();
+        this.spillMaxSize = configuration.getSqlSortSpillMaxSize();
+        this.memoryRuns = new DirectLongList(INITIAL_CAPACITY, MemoryTag.NATIVE_SORT_RUNS);
+    }
+
+    /**
+     * Copies a sorted run from native memory. The runs accumulated in memory are spilled
+     * to disk when the new run does not fit into the memory budget.
+     *
+     * @throws LimitOverflowException when the runs exceed the memory or spill limits
+     *
+     * @param address    address of the first entry
+     * @param entryCount number of 16-byte entries in the run
+     */
+    void add(long address, long entryCount) {
+        if (entryCount == 0) {
+            return;
+        }
+        final long runSize = entryCount * ENTRY_SIZE;
+        long memorySize = memoryRuns.size() * Long.BYTES;
+        if (memorySize + runSize > memoryBudget) {
+            if (!spillEnabled) {
+                throw LimitOverflowException.instance()
+                        .put("sort memory budget exceeded on read-only instance [budget=").put(memoryBudget)
+                        .put(", size=").put(memorySize + runSize)
+                        .put(']');
+            }
+            if (memorySize > 0) {
+                for (int i = spilledRunCount, n = runOffsets.size(); i < n; i++) {
+                    runOffsets.setQuick(i, runOffsets.getQuick(i) + spillSize);
+                }
+                spill(memoryRuns.getAddress(), memorySize);
+                spilledRunCount = runOffsets.size();
+                memoryRuns.clear();
+                memorySize = 0;
+            }
+            if (runSize > memoryBudget) {
+                // the run alone exceeds the budget, write it without copying
+                runOffsets.add(spillSize);
+                runSizes.add(runSize);
+                spill(address, runSize);
+                spilledRunCount = runOffsets.size();
+                size += entryCount;
+                return;
+            }
+        }
+
+        // the run is held by the frame buffer until the frame is collected, so it counts twice
+        // against the key memory limit, which is sqlSortKeyPageSize * sqlSortKeyMaxPages as in the serial sort
+        if (memorySize + 2 * runSize > memoryLimit) {
+            throw LimitOverflowException.instance()
+                    .put("Maximum number of pages (").put(memoryMaxPages).put(") breached in sort runs");
+        }
+
+        final long longCount = memoryRuns.size() + 2 * entryCount;
+        if (memoryRuns.getCapacity() < longCount) {
+            memoryRuns.setCapacity(Math.max(longCount, 2 * memoryRuns.getCapacity()));
+        }
+        Vect.memcpy(memoryRuns.getAddress() + memorySize, address, runSize);
+        memoryRuns.setPos(longCount);
+        runOffsets.add(memorySize);
+        runSizes.add(runSize);
+        size += entryCount;
+    }
+
+    /**
+     * Releases memory and removes the spill file, if any. {@link #reopen()} has to be
+     * called before the runs are used again.
+     */
+    @Override
+    public void close() {
+        Misc.free(memoryRuns);
+        if (spillAddress != 0) {
+            ff.munmap(spillAddress, spillSize, MemoryTag.MMAP_DEFAULT);
+            spillAddress = 0;
+        }
+        if (spillFd != -1) {
+            ff.close(spillFd);
+            spillFd = -1;
+            final Path path = spillFilePath();
+            if (!ff.remove(path)) {
+                LOG.error().$("could not remove sort spill file [path=").$(path).$(", errno=").$(ff.errno()).I$();
+            }
+        }
+        spillSize = 0;
+        spilledRunCount = 0;
+        size = 0;
+        runOffsets.clear();
+        runSizes.clear();
+        runPositions.clear();
+        runLimits.clear();
+        heap.clear();
+    }
+
+    boolean hasNext() {
+        return heap.size() > 0;
+    }
+
+    boolean isSpilled() {
+        return spillFd != -1;
+    }
+
+    /**
+     * Returns row id of the next entry in the merged order. Must be called only when
+     * {@link #hasNext()} returns true.
+     */
+    long next() {
+        final int run = heap.getQuick(0);
+        final long position = runPositions.getQuick(run);
+        final long rowId = Unsafe.getUnsafe().getLong(position + Long.BYTES);
+        final long nextPosition = position + ENTRY_SIZE;
+        if (nextPosition < runLimits.getQuick(run)) {
+            runPositions.setQuick(run, nextPosition);
+        } else {
+            // the run is exhausted, replace it with the last heap element
+            final int last = heap.size() - 1;
+            heap.setQuick(0, heap.getQuick(last));
+            heap.setPos(last);
+        }
+        if (heap.size() > 1) {
+            siftDown(0);
+        }
+        return rowId;
+    }
+
+    @Override
+    public void reopen() {
+        memoryRuns.reopen();
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Positions the merge at the first entry. Must be called once all runs are added.
+     */
+    void toTop() {
+        if (spillFd != -1 && spillAddress == 0) {
+            spillAddress = TableUtils.mapRO(ff, spillFd, spillSize, MemoryTag.MMAP_DEFAULT);
+            ff.madvise(spillAddress, spillSize, Files.POSIX_MADV_SEQUENTIAL);
+        }
+
+        runPositions.clear();
+        runLimits.clear();
+        heap.clear();
+        for (int i = 0, n = runOffsets.size(); i < n; i++) {
+            final long start = (i < spilledRunCount ? spillAddress : memoryRuns.getAddress()) + runOffsets.getQuick(i);
+            runPositions.add(start);
+            runLimits.add(start + runSizes.getQuick(i));
+            heap.add(i);
+        }
+        for (int i = heap.size() / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    private boolean less(int runA, int runB) {
+        final long positionA = runPositions.getQuick(runA);
+        final long positionB = runPositions.getQuick(runB);
+        final long keyA = Unsafe.getUnsafe().getLong(positionA);
+        final long keyB = Unsafe.getUnsafe().getLong(positionB);
+        if (keyA != keyB) {
+            return Long.compareUnsigned(keyA, keyB) < 0;
+        }
+        return Unsafe.getUnsafe().getLong(positionA + Long.BYTES) > Unsafe.getUnsafe().getLong(positionB + Long.BYTES);
+    }
+
+    private void siftDown(int index) {
+        final int heapSize = heap.size();
+        final int run = heap.getQuick(index);
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && less(heap.getQuick(child + 1), heap.getQuick(child))) {
+                child++;
+            }
+            final int childRun = heap.getQuick(child);
+            if (!less(childRun, run)) {
+                break;
+            }
+            heap.setQuick(index, childRun);
+            index = child;
+        }
+        heap.setQuick(index, run);
+    }
+
+    private void spill(long address, long len) {
+        if (spillSize + len > spillMaxSize) {
+            throw LimitOverflowException.instance()
+                    .put("sort spill size limit exceeded [limit=").put(spillMaxSize)
+                    .put(", size=").put(spillSize + len)
+                    .put(']');
+        }
+        if (spillFd == -1) {
+            final Path path = Path.getThreadLocal(configuration.getRoot()).concat(TableUtils.SORT_SPILL_DIR_NAME).slash$();
+            if (!ff.exists(path) && ff.mkdirs(path, configuration.getMkDirMode()) != 0) {
+                throw CairoException.critical(ff.errno()).put("could not create sort spill directory [path=").put(path).put(']');
+            }
+            spillFileId = SPILL_FILE_ID.incrementAndGet();
+            spillFd = TableUtils.openRW(ff, spillFilePath(), LOG, configuration.getWriterFileOpenOpts());
+        }
+        if (ff.write(spillFd, address, len, spillSize) != len) {
+            throw CairoException.critical(ff.errno()).put("could not write sort spill file [fd=").put(spillFd)
+                    .put(", offset=").put(spillSize)
+                    .put(", size=").put(len)
+                    .put(']');
+        }
+        LOG.debug().$("spilled sort runs [fd=").$(spillFd).$(", offset=").$(spillSize).$(", size=").$(len).I$();
+        spillSize += len;
+    }
+
+    private Path spillFilePath() {
+        return Path.getThreadLocal(configuration.getRoot()).concat(TableUtils.SORT_SPILL_DIR_NAME).concat("sort_").put(spillFileId).put(".d").$();
+    }
+}
@@ -44,18 +44,23 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
     public static final LongAdder PRE_TOUCH_BLACK_HOLE = new LongAdder();
 
     private final Function filter;
+    private final IntList filterColumnIndexes;
     private final ObjList<Function> perWorkerFilters;
     private final PerWorkerLocks perWorkerLocks;
     private final IntList preTouchColumnTypes;
+    private final ZoneMapFilter zoneMapFilter;
     private boolean preTouchEnabled;
 
     public AsyncFilterAtom(
             @NotNull CairoConfiguration configuration,
             @NotNull Function filter,
             @Nullable ObjList<Function> perWorkerFilters,
-            @Nullable IntList preTouchColumnTypes
+            @Nullable IntList preTouchColumnTypes,
+            @Nullable IntList filterColumnIndexes,
+            @Nullable ZoneMapFilter zoneMapFilter
     ) {
         this.filter = filter;
+        this.filterColumnIndexes = filterColumnIndexes;
         this.perWorkerFilters = perWorkerFilters;
         if (perWorkerFilters != null) {
             perWorkerLocks = new PerWorkerLocks(configuration, perWorkerFilters.size());
@@ -63,6 +68,7 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
             perWorkerLocks = null;
         }
         this.preTouchColumnTypes = preTouchColumnTypes;
+        this.zoneMapFilter = zoneMapFilter;
     }
 
     public int acquireFilter(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
@@ -76,10 +82,16 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
         return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
     }
 
+    @Override
+    public boolean canSkip(PageFrame frame) {
+        return zoneMapFilter != null && zoneMapFilter.canSkip(frame);
+    }
+
     @Override
     public void close() {
         Misc.free(filter);
         Misc.freeObjList(perWorkerFilters);
+        Misc.free(zoneMapFilter);
     }
 
     public Function getFilter(int filterId) {
@@ -90,6 +102,15 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
         return perWorkerFilters.getQuick(filterId);
     }
 
+    public ObjList<Function> getPerWorkerFilters() {
+        return perWorkerFilters;
+    }
+
+    @Override
+    public IntList getReadAheadColumnIndexes() {
+        return filterColumnIndexes;
+    }
+
     @Override
     public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
         filter.init(symbolTableSource, executionContext);
@@ -103,6 +124,9 @@ public class AsyncFilterAtom implements StatefulAtom, Closeable, Plannable {
             }
         }
         preTouchEnabled = executionContext.isColumnPreTouchEnabled();
+        if (zoneMapFilter != null) {
+            zoneMapFilter.clear();
+        }
     }
 
     @Override
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageAddressCache;
+import io.questdb.cairo.sql.PageAddressCacheRecord;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.bind.CompiledFilterSymbolBindVariable;
+import io.questdb.griffin.model.ExpressionNode;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Filtering routines shared by the factories that evaluate a (possibly JIT-compiled) filter
+ * on page frames in parallel, such as async filter and async GROUP BY.
+ */
+public final class AsyncFilterUtils {
+
+    private AsyncFilterUtils() {
+    }
+
+    /**
+     * Evaluates the JIT-compiled filter on the task's page frame and stores the matching
+     * row indexes in the task's row list.
+     */
+    public static void applyCompiledFilter(
+            @NotNull CompiledFilter compiledFilter,
+            @NotNull MemoryCARW bindVarMemory,
+            @NotNull ObjList<Function> bindVarFunctions,
+            @NotNull PageFrameReduceTask task
+    ) {
+        final DirectLongList rows = task.getRows();
+        final DirectLongList columns = task.getColumns();
+        final PageAddressCache pageAddressCache = task.getPageAddressCache();
+
+        final int columnCount = pageAddressCache.getColumnCount();
+        final int varLenColumnCount = pageAddressCache.getVarLenColumnCount();
+        if (columns.getCapacity() < columnCount + varLenColumnCount) {
+            columns.setCapacity(columnCount + varLenColumnCount);
+        }
+        columns.clear();
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            columns.add(pageAddressCache.getPageAddress(task.getFrameIndex(), columnIndex));
+        }
+        // index pages of var-size columns follow the data pages, string matches in the compiled filter read both
+        if (varLenColumnCount > 0) {
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                if (pageAddressCache.isVarLenColumn(columnIndex)) {
+                    columns.add(pageAddressCache.getIndexPageAddress(task.getFrameIndex(), columnIndex));
+                }
+            }
+        }
+
+        final long rowCount = task.getFrameRowCount();
+        if (rows.getCapacity() < rowCount) {
+            rows.setCapacity(rowCount);
+        }
+
+        long hi = compiledFilter.call(
+                columns.getAddress(),
+                columns.size(),
+                bindVarMemory.getAddress(),
+                bindVarFunctions.size(),
+                rows.getAddress(),
+                rowCount,
+                0
+        );
+        rows.setPos(hi);
+    }
+
+    /**
+     * Evaluates the Java filter on all rows of the page frame and appends the matching
+     * row indexes to the given list.
+     */
+    public static void applyFilter(
+            @NotNull Function filter,
+            @NotNull DirectLongList rows,
+            @NotNull PageAddressCacheRecord record,
+            long frameRowCount
+    ) {
+        for (long r = 0; r < frameRowCount; r++) {
+            record.setRowIndex(r);
+            if (filter.getBool(record)) {
+                rows.add(r);
+            }
+        }
+    }
+
+    /**
+     * Collects indexes of the columns the filter expression reads. Sub-queries are not
+     * inspected since they read other tables.
+     *
+     * @param filterExpr filter expression
+     * @param metadata   metadata of the page frames the filter applies to
+     * @return column indexes or null when a column name cannot be resolved
+     */
+    @Nullable
+    public static IntList collectFilterColumnIndexes(@NotNull ExpressionNode filterExpr, @NotNull RecordMetadata metadata) {
+        final IntList columnIndexes = new IntList();
+        return collectFilterColumnIndexes(filterExpr, metadata, columnIndexes) ? columnIndexes : null;
+    }
+
+    /**
+     * Writes values of bind variables used by a JIT-compiled filter to the given memory.
+     */
+    public static void prepareBindVarMemory(
+            SqlExecutionContext executionContext,
+            SymbolTableSource symbolTableSource,
+            ObjList<Function> bindVarFunctions,
+            MemoryCARW bindVarMemory
+    ) throws SqlException {
+        // don't trigger memory allocation if there are no variables
+        if (bindVarFunctions.size() > 0) {
+            bindVarMemory.truncate();
+            for (int i = 0, n = bindVarFunctions.size(); i < n; i++) {
+                Function function = bindVarFunctions.getQuick(i);
+                writeBindVarFunction(bindVarMemory, function, symbolTableSource, executionContext);
+            }
+        }
+    }
+
+    private static boolean collectFilterColumnIndexes(ExpressionNode node, RecordMetadata metadata, IntList columnIndexes) {
+        if (node == null || node.type == ExpressionNode.QUERY) {
+            return true;
+        }
+        if (node.type == ExpressionNode.LITERAL) {
+            final int columnIndex = metadata.getColumnIndexQuiet(node.token);
+            if (columnIndex < 0) {
+                return false;
+            }
+            if (!columnIndexes.contains(columnIndex)) {
+                columnIndexes.add(columnIndex);
+            }
+            return true;
+        }
+        for (int i = 0, n = node.args.size(); i < n; i++) {
+            if (!collectFilterColumnIndexes(node.args.getQuick(i), metadata, columnIndexes)) {
+                return false;
+            }
+        }
+        return collectFilterColumnIndexes(node.lhs, metadata, columnIndexes)
+                && collectFilterColumnIndexes(node.rhs, metadata, columnIndexes);
+    }
+
+    private static void writeBindVarFunction(
+            MemoryCARW bindVarMemory,
+            Function function,
+            SymbolTableSource symbolTableSource,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        final int columnType = function.getType();
+        final int columnTypeTag = ColumnType.tagOf(columnType);
+        switch (columnTypeTag) {
+            case ColumnType.BOOLEAN:
+                bindVarMemory.putLong(function.getBool(null) ? 1 : 0);
+                return;
+            case ColumnType.BYTE:
+                bindVarMemory.putLong(function.getByte(null));
+                return;
+            case ColumnType.GEOBYTE:
+                bindVarMemory.putLong(function.getGeoByte(null));
+                return;
+            case ColumnType.SHORT:
+                bindVarMemory.putLong(function.getShort(null));
+                return;
+            case ColumnType.GEOSHORT:
+                bindVarMemory.putLong(function.getGeoShort(null));
+                return;
+            case ColumnType.CHAR:
+                bindVarMemory.putLong(function.getChar(null));
+                return;
+            case ColumnType.INT:
+                bindVarMemory.putLong(function.getInt(null));
+                return;
+            case ColumnType.IPv4:
+                bindVarMemory.putLong(function.getIPv4(null));
+                return;
+            case ColumnType.GEOINT:
+                bindVarMemory.putLong(function.getGeoInt(null));
+                return;
+            case ColumnType.SYMBOL:
+                assert function instanceof CompiledFilterSymbolBindVariable;
+                function.init(symbolTableSource, executionContext);
+                bindVarMemory.putLong(function.getInt(null));
+                return;
+            case ColumnType.FLOAT:
+                // compiled filter function will read only the first word
+                bindVarMemory.putFloat(function.getFloat(null));
+                bindVarMemory.putFloat(Float.NaN);
+                return;
+            case ColumnType.LONG:
+                bindVarMemory.putLong(function.getLong(null));
+                return;
+            case ColumnType.GEOLONG:
+                bindVarMemory.putLong(function.getGeoLong(null));
+                return;
+            case ColumnType.DATE:
+                bindVarMemory.putLong(function.getDate(null));
+                return;
+            case ColumnType.TIMESTAMP:
+                bindVarMemory.putLong(function.getTimestamp(null));
+                return;
+            case ColumnType.DOUBLE:
+                bindVarMemory.putDouble(function.getDouble(null));
+                return;
+            default:
+                throw SqlException.position(0).put("unsupported bind variable type: ").put(ColumnType.nameOf(columnTypeTag));
+        }
+    }
+}
@@ -69,7 +69,9 @@ public class AsyncFilteredRecordCursorFactory extends AbstractRecordCursorFactor
             @Nullable Function limitLoFunction,
             int limitLoPos,
             boolean preTouchColumns,
-            int workerCount
+            int workerCount,
+            @Nullable IntList filterColumnIndexes,
+            @Nullable ZoneMapFilter zoneMapFilter
     ) {
         super(base.getMetadata());
         assert !(base instanceof AsyncFilteredRecordCursorFactory);
@@ -84,7 +86,7 @@ public class AsyncFilteredRecordCursorFactory extends AbstractRecordCursorFactor
                 preTouchColumnTypes.add(columnType);
             }
         }
-        this.filterAtom = new AsyncFilterAtom(configuration, filter, perWorkerFilters, preTouchColumnTypes);
+        this.filterAtom = new AsyncFilterAtom(configuration, filter, perWorkerFilters, preTouchColumnTypes, filterColumnIndexes, zoneMapFilter);
         this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, reduceTaskFactory);
         this.limitLoFunction = limitLoFunction;
         this.limitLoPos = limitLoPos;
@@ -143,16 +145,39 @@ public class AsyncFilteredRecordCursorFactory extends AbstractRecordCursorFactor
         return cursor;
     }
 
+    @Override
+    public Function getFilter() {
+        return filterAtom.getFilter(-1);
+    }
+
+    @Override
+    public ObjList<Function> getPerWorkerFilters() {
+        return filterAtom.getPerWorkerFilters();
+    }
+
     @Override
     public int getScanDirection() {
         return base.getScanDirection();
     }
 
+    @Override
+    public void halfClose() {
+        Misc.free(frameSequence);
+        negativeLimitRows = Misc.free(negativeLimitRows);
+        cursor.freeRecords();
+        negativeLimitCursor.freeRecords();
+    }
+
     @Override
     public boolean recordCursorSupportsRandomAccess() {
         return base.recordCursorSupportsRandomAccess();
     }
 
+    @Override
+    public boolean supportsFilterStealing() {
+        return limitLoFunction == null;
+    }
+
     @Override
     public boolean supportsUpdateRowId(TableToken tableToken) {
         return base.supportsUpdateRowId(tableToken);
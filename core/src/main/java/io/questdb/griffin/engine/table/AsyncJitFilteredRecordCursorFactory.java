@@ -73,7 +73,9 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
             @Nullable Function limitLoFunction,
             int limitLoPos,
             boolean preTouchColumns,
-            int workerCount
+            int workerCount,
+            @Nullable IntList filterColumnIndexes,
+            @Nullable ZoneMapFilter zoneMapFilter
     ) {
         super(base.getMetadata());
         assert !(base instanceof FilteredRecordCursorFactory);
@@ -101,7 +103,9 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
                 compiledFilter,
                 bindVarMemory,
                 bindVarFunctions,
-                preTouchColumnTypes
+                preTouchColumnTypes,
+                filterColumnIndexes,
+                zoneMapFilter
         );
         this.frameSequence = new PageFrameSequence<>(configuration, messageBus, REDUCER, reduceTaskFactory);
         this.limitLoFunction = limitLoFunction;
@@ -125,6 +129,21 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
         return base;
     }
 
+    @Override
+    public ObjList<Function> getBindVarFunctions() {
+        return filterAtom.bindVarFunctions;
+    }
+
+    @Override
+    public MemoryCARW getBindVarMemory() {
+        return filterAtom.bindVarMemory;
+    }
+
+    @Override
+    public CompiledFilter getCompiledFilter() {
+        return filterAtom.compiledFilter;
+    }
+
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
         long rowsRemaining;
@@ -161,16 +180,39 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
         return cursor;
     }
 
+    @Override
+    public Function getFilter() {
+        return filterAtom.getFilter(-1);
+    }
+
+    @Override
+    public ObjList<Function> getPerWorkerFilters() {
+        return filterAtom.getPerWorkerFilters();
+    }
+
     @Override
     public int getScanDirection() {
         return base.getScanDirection();
     }
 
+    @Override
+    public void halfClose() {
+        Misc.free(frameSequence);
+        negativeLimitRows = Misc.free(negativeLimitRows);
+        cursor.freeRecords();
+        negativeLimitCursor.freeRecords();
+    }
+
     @Override
     public boolean recordCursorSupportsRandomAccess() {
         return true;
     }
 
+    @Override
+    public boolean supportsFilterStealing() {
+        return limitLoFunction == null;
+    }
+
     @Override
     public boolean supportsUpdateRowId(TableToken tableToken) {
         return base.supportsUpdateRowId(tableToken);
@@ -221,25 +263,18 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
             @Nullable PageFrameSequence<?> stealingFrameSequence
     ) {
         final DirectLongList rows = task.getRows();
-        final DirectLongList columns = task.getColumns();
         final long frameRowCount = task.getFrameRowCount();
         final AsyncJitFilterAtom atom = task.getFrameSequence(AsyncJitFilterAtom.class).getAtom();
-        final PageAddressCache pageAddressCache = task.getPageAddressCache();
 
         rows.clear();
 
-        if (pageAddressCache.hasColumnTops(task.getFrameIndex())) {
+        if (task.getPageAddressCache().hasColumnTops(task.getFrameIndex())) {
             // Use Java-based filter in case of a page frame with column tops.
             final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
             final int filterId = atom.acquireFilter(workerId, owner, circuitBreaker);
             final Function filter = atom.getFilter(filterId);
             try {
-                for (long r = 0; r < frameRowCount; r++) {
-                    record.setRowIndex(r);
-                    if (filter.getBool(record)) {
-                        rows.add(r);
-                    }
-                }
+                AsyncFilterUtils.applyFilter(filter, rows, record, frameRowCount);
                 return;
             } finally {
                 atom.releaseFilter(filterId);
@@ -247,31 +282,7 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
         }
 
         // Use JIT-compiled filter.
-
-        final long columnCount = pageAddressCache.getColumnCount();
-        if (columns.getCapacity() < columnCount) {
-            columns.setCapacity(columnCount);
-        }
-        columns.clear();
-        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
-            columns.add(pageAddressCache.getPageAddress(task.getFrameIndex(), columnIndex));
-        }
-
-        final long rowCount = task.getFrameRowCount();
-        if (rows.getCapacity() < rowCount) {
-            rows.setCapacity(rowCount);
-        }
-
-        long hi = atom.compiledFilter.call(
-                columns.getAddress(),
-                columns.size(),
-                atom.bindVarMemory.getAddress(),
-                atom.bindVarFunctions.size(),
-                rows.getAddress(),
-                rowCount,
-                0
-        );
-        rows.setPos(hi);
+        AsyncFilterUtils.applyCompiledFilter(atom.compiledFilter, atom.bindVarMemory, atom.bindVarFunctions, task);
 
         // Pre-touch fixed-size columns, if asked.
         atom.preTouchColumns(record, rows);
@@ -300,9 +311,11 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
                 CompiledFilter compiledFilter,
                 MemoryCARW bindVarMemory,
                 ObjList<Function> bindVarFunctions,
-                @Nullable IntList preTouchColumnTypes
+                @Nullable IntList preTouchColumnTypes,
+                @Nullable IntList filterColumnIndexes,
+                @Nullable ZoneMapFilter zoneMapFilter
         ) {
-            super(configuration, filter, perWorkerFilters, preTouchColumnTypes);
+            super(configuration, filter, perWorkerFilters, preTouchColumnTypes, filterColumnIndexes, zoneMapFilter);
             this.compiledFilter = compiledFilter;
             this.bindVarMemory = bindVarMemory;
             this.bindVarFunctions = bindVarFunctions;
@@ -320,83 +333,7 @@ public class AsyncJitFilteredRecordCursorFactory extends AbstractRecordCursorFac
         public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
             super.init(symbolTableSource, executionContext);
             Function.init(bindVarFunctions, symbolTableSource, executionContext);
-            prepareBindVarMemory(symbolTableSource, executionContext);
-        }
-
-        private void prepareBindVarMemory(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
-            //don't trigger memory allocation if there are no variables 
-            if (bindVarFunctions.size() > 0) {
-                bindVarMemory.truncate();
-                for (int i = 0, n = bindVarFunctions.size(); i < n; i++) {
-                    Function function = bindVarFunctions.getQuick(i);
-                    writeBindVarFunction(function, symbolTableSource, executionContext);
-                }
-            }
-        }
-
-        private void writeBindVarFunction(
-                Function function,
-                SymbolTableSource symbolTableSource,
-                SqlExecutionContext executionContext
-        ) throws SqlException {
-            final int columnType = function.getType();
-            final int columnTypeTag = ColumnType.tagOf(columnType);
-            switch (columnTypeTag) {
-                case ColumnType.BOOLEAN:
-                    bindVarMemory.putLong(function.getBool(null) ? 1 : 0);
-                    return;
-                case ColumnType.BYTE:
-                    bindVarMemory.putLong(function.getByte(null));
-                    return;
-                case ColumnType.GEOBYTE:
-                    bindVarMemory.putLong(function.getGeoByte(null));
-                    return;
-                case ColumnType.SHORT:
-                    bindVarMemory.putLong(function.getShort(null));
-                    return;
-                case ColumnType.GEOSHORT:
-                    bindVarMemory.putLong(function.getGeoShort(null));
-                    return;
-                case ColumnType.CHAR:
-                    bindVarMemory.putLong(function.getChar(null));
-                    return;
-                case ColumnType.INT:
-                    bindVarMemory.putLong(function.getInt(null));
-                    return;
-                case ColumnType.IPv4:
-                    bindVarMemory.putLong(function.getIPv4(null));
-                    return;
-                case ColumnType.GEOINT:
-                    bindVarMemory.putLong(function.getGeoInt(null));
-                    return;
-                case ColumnType.SYMBOL:
-                    assert function instanceof CompiledFilterSymbolBindVariable;
-                    function.init(symbolTableSource, executionContext);
-                    bindVarMemory.putLong(function.getInt(null));
-                    return;
-                case ColumnType.FLOAT:
-                    // compiled filter function will read only the first word
-                    bindVarMemory.putFloat(function.getFloat(null));
-                    bindVarMemory.putFloat(Float.NaN);
-                    return;
-                case ColumnType.LONG:
-                    bindVarMemory.putLong(function.getLong(null));
-                    return;
-                case ColumnType.GEOLONG:
-                    bindVarMemory.putLong(function.getGeoLong(null));
-                    return;
-                case ColumnType.DATE:
-                    bindVarMemory.putLong(function.getDate(null));
-                    return;
-                case ColumnType.TIMESTAMP:
-                    bindVarMemory.putLong(function.getTimestamp(null));
-                    return;
-                case ColumnType.DOUBLE:
-                    bindVarMemory.putDouble(function.getDouble(null));
-                    return;
-                default:
-                    throw SqlException.position(0).put("unsupported bind variable type: ").put(ColumnType.nameOf(columnTypeTag));
-            }
+            AsyncFilterUtils.prepareBindVarMemory(executionContext, symbolTableSource, bindVarFunctions, bindVarMemory);
         }
     }
 }
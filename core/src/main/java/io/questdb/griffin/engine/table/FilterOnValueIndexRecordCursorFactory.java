@@ -0,0 +1,156 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.sql.*;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Looks up a list of values in the value index of INT, LONG, UUID or IPv4 column.
+ * Rows are returned in table order.
+ */
+public class FilterOnValueIndexRecordCursorFactory extends AbstractDataFrameRecordCursorFactory {
+    private final DataFrameRecordCursorImpl cursor;
+    private final ObjList<ValueIndexRowCursorFactory> cursorFactories;
+    private final int[] cursorFactoriesIdx;
+    private final Function filter;
+    private final boolean followedOrderByAdvice;
+    private final RowCursorFactory rowCursorFactory;
+
+    public FilterOnValueIndexRecordCursorFactory(
+            @NotNull RecordMetadata metadata,
+            @NotNull DataFrameCursorFactory dataFrameCursorFactory,
+            @NotNull @Transient ObjList<Function> keyValues,
+            int columnIndex,
+            int columnType,
+            @Nullable Function filter,
+            boolean orderByTimestamp,
+            @NotNull IntList columnIndexes
+    ) {
+        super(metadata, dataFrameCursorFactory);
+        final int nKeyValues = keyValues.size();
+        this.filter = filter;
+        cursorFactories = new ObjList<>(nKeyValues);
+        cursorFactoriesIdx = new int[]{nKeyValues};
+        for (int i = 0; i < nKeyValues; i++) {
+            cursorFactories.add(
+                    new ValueIndexRowCursorFactory(
+                            columnIndex,
+                            columnType,
+                            keyValues.getQuick(i),
+                            filter,
+                            i == 0,
+                            BitmapIndexReader.DIR_FORWARD,
+                            columnIndexes
+                    )
+            );
+        }
+        rowCursorFactory = new HeapRowCursorFactory(cursorFactories, cursorFactoriesIdx);
+        cursor = new DataFrameRecordCursorImpl(rowCursorFactory, false, filter, columnIndexes);
+        followedOrderByAdvice = orderByTimestamp;
+    }
+
+    @Override
+    public boolean followedOrderByAdvice() {
+        return followedOrderByAdvice;
+    }
+
+    @Override
+    public int getScanDirection() {
+        if (dataFrameCursorFactory.getOrder() == DataFrameCursorFactory.ORDER_ASC) {
+            return SCAN_DIRECTION_FORWARD;
+        }
+        return SCAN_DIRECTION_OTHER;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("FilterOnValues");
+        sink.child(rowCursorFactory);
+        sink.child(dataFrameCursorFactory);
+    }
+
+    private boolean isDuplicate(int idx) {
+        final ValueIndexRowCursorFactory factory = cursorFactories.getQuick(idx);
+        for (int i = 0; i < idx; i++) {
+            final ValueIndexRowCursorFactory other = cursorFactories.getQuick(i);
+            if (other.getValueLo() == factory.getValueLo() && other.getValueHi() == factory.getValueHi()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeDuplicates() {
+        // values of bind variables and differently spelled constants might repeat,
+        // so move duplicates and values that can't match to the end of the list
+        int max = cursorFactories.size();
+        int idx = 0;
+        while (idx < max) {
+            final ValueIndexRowCursorFactory factory = cursorFactories.getQuick(idx);
+            if (!factory.isFound() || isDuplicate(idx)) {
+                cursorFactories.remove(idx);
+                cursorFactories.add(factory);
+                max--;
+            } else {
+                idx++;
+            }
+        }
+        cursorFactoriesIdx[0] = max;
+    }
+
+    @Override
+    protected void _close() {
+        super._close();
+        Misc.free(filter);
+    }
+
+    @Override
+    protected RecordCursor getCursorInstance(
+            DataFrameCursor dataFrameCursor,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        cursor.of(dataFrameCursor, sqlExecutionContext);
+        removeDuplicates();
+        if (filter != null) {
+            filter.init(cursor, sqlExecutionContext);
+        }
+        return cursor;
+    }
+}
@@ -26,7 +26,9 @@ package io.questdb.griffin.engine.table;
 
 import io.questdb.cairo.BitmapIndexReader;
 import io.questdb.cairo.TableReader;
+import io.questdb.cairo.ZoneMapReader;
 import io.questdb.cairo.sql.*;
+import io.questdb.cairo.vm.MemoryCMRCompressedImpl;
 import io.questdb.cairo.vm.NullMemoryMR;
 import io.questdb.cairo.vm.api.MemoryR;
 import io.questdb.std.*;
@@ -160,23 +162,30 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
                 if (sh > -1) {
                     // this assumes reader uses single page to map the whole column
                     // non-negative sh means fixed length column
-                    long address = col.getPageAddress(0);
                     long addressSize = partitionHiAdjusted << sh;
                     long offset = partitionLoAdjusted << sh;
+                    long address = col.getPageAddress(offset, addressSize);
                     columnPageAddress.setQuick(i * 2, address + offset);
                     pageSizes.setQuick(i * 2, addressSize - offset);
                 } else {
                     final MemoryR fixCol = reader.getColumn(readerColIndex + 1);
-                    long fixAddress = fixCol.getPageAddress(0);
                     long fixAddressSize = partitionHiAdjusted << 3;
                     long fixOffset = partitionLoAdjusted << 3;
+                    long fixAddress = fixCol.getPageAddress(fixOffset, fixAddressSize + Long.BYTES);
 
-                    long varAddress = col.getPageAddress(0);
-                    long varAddressSize = Unsafe.getUnsafe().getLong(fixAddress + fixAddressSize);
+                    long varAddress;
+                    if (col instanceof MemoryCMRCompressedImpl) {
+                        // only var data of the frame rows is decompressed
+                        varAddress = col.getPageAddress(fixCol.getLong(fixOffset), fixCol.getLong(fixAddressSize));
+                    } else {
+                        varAddress = col.getPageAddress(0);
+                    }
 
                     columnPageAddress.setQuick(i * 2, varAddress);
                     columnPageAddress.setQuick(i * 2 + 1, fixAddress + fixOffset);
-                    pageSizes.setQuick(i * 2, varAddressSize);
+                    // var data size is read from the index file on demand, so that
+                    // columns which are never accessed are not paged in
+                    pageSizes.setQuick(i * 2, -1);
                     pageSizes.setQuick(i * 2 + 1, fixAddressSize - fixOffset);
                 }
             } else {
@@ -230,7 +239,12 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
 
         @Override
         public long getPageSize(int columnIndex) {
-            return pageSizes.getQuick(columnIndex * 2);
+            long pageSize = pageSizes.getQuick(columnIndex * 2);
+            if (pageSize < 0) {
+                pageSize = Unsafe.getUnsafe().getLong(columnPageAddress.getQuick(columnIndex * 2 + 1) + ((partitionHi - partitionLo) << 3));
+                pageSizes.setQuick(columnIndex * 2, pageSize);
+            }
+            return pageSize;
         }
 
         @Override
@@ -247,5 +261,10 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
         public long getPartitionLo() {
             return partitionLo;
         }
+
+        @Override
+        public boolean readZoneMap(int columnIndex, ZoneMapReader zoneMapReader) {
+            return reader.readZoneMap(partitionIndex, columnIndexes.getQuick(columnIndex), zoneMapReader);
+        }
     }
 }
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.sql.NoRandomAccessRecordCursor;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.ObjList;
+
+public final class PartitionScrubStatusRecordCursorFactory extends AbstractRecordCursorFactory {
+    private static final int CORRUPT_BLOCKS_COLUMN_INDEX = 5;
+    private static final int CORRUPT_COLUMN_COLUMN_INDEX = 7;
+    private static final RecordMetadata METADATA;
+    private static final int PARTITION_TS_COLUMN_INDEX = 1;
+    private static final int STATUS_COLUMN_INDEX = 2;
+    private static final int TABLE_NAME_COLUMN_INDEX = 0;
+    private static final int UNVERIFIED_COLUMNS_COLUMN_INDEX = 6;
+    private static final int VERIFIED_AT_COLUMN_INDEX = 3;
+    private static final int VERIFIED_BYTES_COLUMN_INDEX = 4;
+    private final ScrubStatusCursor cursor = new ScrubStatusCursor();
+    private final ColumnScrubLog scrubLog;
+
+    public PartitionScrubStatusRecordCursorFactory(CairoEngine engine) {
+        super(METADATA);
+        this.scrubLog = engine.getColumnScrubLog();
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        cursor.of(scrubLog);
+        return cursor;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("partition_scrub_status");
+    }
+
+    private static class ScrubStatusCursor implements NoRandomAccessRecordCursor {
+        private final ObjList<ColumnScrubLog.Entry> entries = new ObjList<>();
+        private final ScrubStatusRecord record = new ScrubStatusRecord();
+        private ColumnScrubLog.Entry entry;
+        private int index;
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (index < entries.size()) {
+                entry = entries.getQuick(index++);
+                return true;
+            }
+            return false;
+        }
+
+        public void of(ColumnScrubLog scrubLog) {
+            scrubLog.copyTo(entries);
+            toTop();
+        }
+
+        @Override
+        public long size() {
+            return entries.size();
+        }
+
+        @Override
+        public void toTop() {
+            index = 0;
+        }
+
+        private class ScrubStatusRecord implements Record {
+            @Override
+            public int getInt(int col) {
+                assert col == UNVERIFIED_COLUMNS_COLUMN_INDEX;
+                return entry.getUnverifiedColumns();
+            }
+
+            @Override
+            public long getLong(int col) {
+                switch (col) {
+                    case VERIFIED_BYTES_COLUMN_INDEX:
+                        return entry.getVerifiedBytes();
+                    case CORRUPT_BLOCKS_COLUMN_INDEX:
+                        return entry.getCorruptBlocks();
+                    default:
+                        throw CairoException.nonCritical().put("unsupported column number. [column=").put(col).put("]");
+                }
+            }
+
+            @Override
+            public CharSequence getStr(int col) {
+                switch (col) {
+                    case TABLE_NAME_COLUMN_INDEX:
+                        return entry.getTableName();
+                    case STATUS_COLUMN_INDEX:
+                        return ColumnScrubLog.getStatusName(entry.getStatus());
+                    case CORRUPT_COLUMN_COLUMN_INDEX:
+                        return entry.getCorruptColumn();
+                    default:
+                        throw CairoException.nonCritical().put("unsupported column number. [column=").put(col).put("]");
+                }
+            }
+
+            @Override
+            public CharSequence getStrB(int col) {
+                return getStr(col);
+            }
+
+            @Override
+            public int getStrLen(int col) {
+                CharSequence s = getStr(col);
+                return s != null ? s.length() : TableUtils.NULL_LEN;
+            }
+
+            @Override
+            public long getTimestamp(int col) {
+                switch (col) {
+                    case PARTITION_TS_COLUMN_INDEX:
+                        return entry.getPartitionTimestamp();
+                    case VERIFIED_AT_COLUMN_INDEX:
+                        return entry.getVerifiedTimestamp();
+                    default:
+                        throw CairoException.nonCritical().put("unsupported column number. [column=").put(col).put("]");
+                }
+            }
+        }
+    }
+
+    static {
+        final GenericRecordMetadata metadata = new GenericRecordMetadata();
+        metadata.add(TABLE_NAME_COLUMN_INDEX, new TableColumnMetadata("table_name", ColumnType.STRING))
+                .add(PARTITION_TS_COLUMN_INDEX, new TableColumnMetadata("partition_ts", ColumnType.TIMESTAMP))
+                .add(STATUS_COLUMN_INDEX, new TableColumnMetadata("status", ColumnType.STRING))
+                .add(VERIFIED_AT_COLUMN_INDEX, new TableColumnMetadata("verified_at", ColumnType.TIMESTAMP))
+                .add(VERIFIED_BYTES_COLUMN_INDEX, new TableColumnMetadata("verified_bytes", ColumnType.LONG))
+                .add(CORRUPT_BLOCKS_COLUMN_INDEX, new TableColumnMetadata("corrupt_blocks", ColumnType.LONG))
+                .add(UNVERIFIED_COLUMNS_COLUMN_INDEX, new TableColumnMetadata("unverified_columns", ColumnType.INT))
+                .add(CORRUPT_COLUMN_COLUMN_INDEX, new TableColumnMetadata("corrupt_column", ColumnType.STRING));
+        METADATA = metadata;
+    }
+}
@@ -27,6 +27,7 @@ package io.questdb.griffin.engine.table;
 import io.questdb.cairo.AbstractRecordCursorFactory;
 import io.questdb.cairo.BitmapIndexReader;
 import io.questdb.cairo.TableToken;
+import io.questdb.cairo.ZoneMapReader;
 import io.questdb.cairo.sql.*;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.SqlException;
@@ -174,6 +175,11 @@ public class SelectedRecordCursorFactory extends AbstractRecordCursorFactory {
             this.baseFrame = basePageFrame;
             return this;
         }
+
+        @Override
+        public boolean readZoneMap(int columnIndex, ZoneMapReader zoneMapReader) {
+            return baseFrame.readZoneMap(columnCrossIndex.getQuick(columnIndex), zoneMapReader);
+        }
     }
 
     private static class SelectedPageFrameCursor implements PageFrameCursor {
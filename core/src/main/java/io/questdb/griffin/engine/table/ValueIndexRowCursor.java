@@ -0,0 +1,165 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableReaderRecord;
+import io.questdb.cairo.TableReaderSelectedColumnRecord;
+import io.questdb.cairo.ValueIndexUtils;
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.std.IntList;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Returns rows of the value index bucket which hold the looked up value. Buckets
+ * are shared by different values, so column value is compared for every row.
+ */
+class ValueIndexRowCursor implements RowCursor {
+    private final boolean cachedIndexReaderCursor;
+    private final int columnIndex;
+    private final int columnType;
+    private final Function filter;
+    private final TableReaderSelectedColumnRecord filterRecord;
+    private final int indexDirection;
+    private final TableReaderRecord record = new TableReaderRecord();
+    private RowCursor rowCursor;
+    private long rowid;
+    private long valueHi;
+    private long valueLo;
+
+    ValueIndexRowCursor(
+            int columnIndex,
+            int columnType,
+            @Nullable Function filter,
+            boolean cachedIndexReaderCursor,
+            int indexDirection,
+            IntList columnIndexes
+    ) {
+        this.columnIndex = columnIndex;
+        this.columnType = columnType;
+        this.filter = filter;
+        this.cachedIndexReaderCursor = cachedIndexReaderCursor;
+        this.indexDirection = indexDirection;
+        this.filterRecord = filter != null ? new TableReaderSelectedColumnRecord(columnIndexes) : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (rowCursor.hasNext()) {
+            final long rowid = rowCursor.next();
+            record.setRecordIndex(rowid);
+            if (matches()) {
+                if (filter != null) {
+                    filterRecord.setRecordIndex(rowid);
+                    if (!filter.getBool(filterRecord)) {
+                        continue;
+                    }
+                }
+                this.rowid = rowid;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long next() {
+        return rowid;
+    }
+
+    public void of(long valueLo, long valueHi) {
+        this.valueLo = valueLo;
+        this.valueHi = valueHi;
+    }
+
+    public ValueIndexRowCursor of(DataFrame dataFrame) {
+        final BitmapIndexReader indexReader = dataFrame.getBitmapIndexReader(columnIndex, indexDirection);
+        // bucket count is a property of the index files, so the key is resolved per partition
+        final int indexKey = getIndexKey(ValueIndexUtils.getBucketMask(indexReader.getValueBlockCapacity() + 1));
+        this.rowCursor = indexReader.getCursor(cachedIndexReaderCursor, indexKey, dataFrame.getRowLo(), dataFrame.getRowHi() - 1);
+        record.jumpTo(dataFrame.getPartitionIndex(), 0);
+        if (filterRecord != null) {
+            filterRecord.jumpTo(dataFrame.getPartitionIndex(), 0);
+        }
+        return this;
+    }
+
+    int getColumnIndex() {
+        return columnIndex;
+    }
+
+    Function getFilter() {
+        return filter;
+    }
+
+    int getIndexDirection() {
+        return indexDirection;
+    }
+
+    long getValueHi() {
+        return valueHi;
+    }
+
+    long getValueLo() {
+        return valueLo;
+    }
+
+    void prepare(TableReader tableReader) {
+        record.of(tableReader);
+        if (filterRecord != null) {
+            filterRecord.of(tableReader);
+        }
+    }
+
+    private int getIndexKey(int bucketMask) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                return ValueIndexUtils.keyOfInt((int) valueLo, bucketMask);
+            case ColumnType.IPv4:
+                return ValueIndexUtils.keyOfIPv4((int) valueLo, bucketMask);
+            case ColumnType.LONG:
+                return ValueIndexUtils.keyOfLong(valueLo, bucketMask);
+            default:
+                return ValueIndexUtils.keyOfUuid(valueLo, valueHi, bucketMask);
+        }
+    }
+
+    private boolean matches() {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                return record.getInt(columnIndex) == (int) valueLo;
+            case ColumnType.IPv4:
+                return record.getIPv4(columnIndex) == (int) valueLo;
+            case ColumnType.LONG:
+                return record.getLong(columnIndex) == valueLo;
+            default:
+                return record.getLong128Lo(columnIndex) == valueLo && record.getLong128Hi(columnIndex) == valueHi;
+        }
+    }
+}
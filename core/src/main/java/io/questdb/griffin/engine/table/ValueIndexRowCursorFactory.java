@@ -0,0 +1,229 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.EmptyRowCursor;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.sql.DataFrame;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.IntList;
+import io.questdb.std.Numbers;
+import io.questdb.std.NumericException;
+import io.questdb.std.Uuid;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Looks up rows of INT, LONG, UUID and IPv4 columns in the value index. Key value
+ * is resolved when the cursor is initialized, so that bind variables are supported.
+ */
+public class ValueIndexRowCursorFactory implements FunctionBasedRowCursorFactory {
+    private final int columnType;
+    private final ValueIndexRowCursor cursor;
+    private final Function valueFunction;
+    private boolean found;
+
+    public ValueIndexRowCursorFactory(
+            int columnIndex,
+            int columnType,
+            Function valueFunction,
+            @Nullable Function filter,
+            boolean cachedIndexReaderCursor,
+            int indexDirection,
+            IntList columnIndexes
+    ) {
+        this.columnType = columnType;
+        this.valueFunction = valueFunction;
+        this.cursor = new ValueIndexRowCursor(columnIndex, columnType, filter, cachedIndexReaderCursor, indexDirection, columnIndexes);
+    }
+
+    @Override
+    public RowCursor getCursor(DataFrame dataFrame) {
+        if (!found) {
+            return EmptyRowCursor.INSTANCE;
+        }
+        return cursor.of(dataFrame);
+    }
+
+    @Override
+    public Function getFunction() {
+        return valueFunction;
+    }
+
+    @Override
+    public void init(TableReader tableReader, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        valueFunction.init(tableReader, sqlExecutionContext);
+        found = resolveValue();
+    }
+
+    @Override
+    public boolean isEntity() {
+        return false;
+    }
+
+    @Override
+    public boolean isUsingIndex() {
+        return true;
+    }
+
+    @Override
+    public void prepareCursor(TableReader tableReader) {
+        if (found) {
+            cursor.prepare(tableReader);
+        }
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Index ").type(BitmapIndexReader.nameOf(cursor.getIndexDirection())).type(" scan").meta("on").putBaseColumnName(cursor.getColumnIndex());
+        sink.attr("filter").putBaseColumnName(cursor.getColumnIndex()).val('=').val(valueFunction);
+        if (cursor.getFilter() != null) {
+            sink.val(" and ").val(cursor.getFilter());
+        }
+    }
+
+    long getValueHi() {
+        return cursor.getValueHi();
+    }
+
+    long getValueLo() {
+        return cursor.getValueLo();
+    }
+
+    boolean isFound() {
+        return found;
+    }
+
+    private boolean ofIPv4(int value) {
+        if (ColumnType.tagOf(columnType) != ColumnType.IPv4) {
+            return false;
+        }
+        cursor.of(value, 0);
+        return true;
+    }
+
+    private boolean ofLong(long value) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE || value == Numbers.INT_NaN) {
+                    return false;
+                }
+                cursor.of(value, 0);
+                return true;
+            case ColumnType.LONG:
+                cursor.of(value, 0);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean ofNull() {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.INT:
+                cursor.of(Numbers.INT_NaN, 0);
+                return true;
+            case ColumnType.IPv4:
+                cursor.of(Numbers.IPv4_NULL, 0);
+                return true;
+            case ColumnType.LONG:
+                cursor.of(Numbers.LONG_NaN, 0);
+                return true;
+            default:
+                cursor.of(Numbers.LONG_NaN, Numbers.LONG_NaN);
+                return true;
+        }
+    }
+
+    private boolean ofStr(CharSequence value) {
+        if (value == null) {
+            return ofNull();
+        }
+        try {
+            switch (ColumnType.tagOf(columnType)) {
+                case ColumnType.INT:
+                case ColumnType.LONG:
+                    return ofLong(Numbers.parseLong(value));
+                case ColumnType.IPv4:
+                    return ofIPv4(Numbers.parseIPv4(value));
+                default:
+                    Uuid.checkDashesAndLength(value);
+                    return ofUuid(Uuid.parseLo(value), Uuid.parseHi(value));
+            }
+        } catch (NumericException e) {
+            // value of a different type can't match any row
+            return false;
+        }
+    }
+
+    private boolean ofUuid(long lo, long hi) {
+        if (ColumnType.tagOf(columnType) != ColumnType.UUID) {
+            return false;
+        }
+        cursor.of(lo, hi);
+        return true;
+    }
+
+    private boolean resolveValue() throws SqlException {
+        final int valueType = valueFunction.getType();
+        switch (ColumnType.tagOf(valueType)) {
+            case ColumnType.NULL:
+                return ofNull();
+            case ColumnType.STRING:
+                return ofStr(valueFunction.getStr(null));
+            case ColumnType.SYMBOL:
+                return ofStr(valueFunction.getSymbol(null));
+            case ColumnType.BYTE:
+                return ofLong(valueFunction.getByte(null));
+            case ColumnType.SHORT:
+                return ofLong(valueFunction.getShort(null));
+            case ColumnType.INT: {
+                final int value = valueFunction.getInt(null);
+                return value == Numbers.INT_NaN ? ofNull() : ofLong(value);
+            }
+            case ColumnType.LONG: {
+                final long value = valueFunction.getLong(null);
+                return value == Numbers.LONG_NaN ? ofNull() : ofLong(value);
+            }
+            case ColumnType.IPv4: {
+                final int value = valueFunction.getIPv4(null);
+                return value == Numbers.IPv4_NULL ? ofNull() : ofIPv4(value);
+            }
+            case ColumnType.UUID: {
+                final long lo = valueFunction.getLong128Lo(null);
+                final long hi = valueFunction.getLong128Hi(null);
+                return Uuid.isNull(lo, hi) ? ofNull() : ofUuid(lo, hi);
+            }
+            default:
+                throw SqlException.$(0, "unsupported index key type [keyType=").put(ColumnType.nameOf(valueType))
+                        .put(", columnType=").put(ColumnType.nameOf(columnType)).put(']');
+        }
+    }
+}
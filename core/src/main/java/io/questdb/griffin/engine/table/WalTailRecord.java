@@ -0,0 +1,296 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.wal.WalDataRecord;
+import io.questdb.std.BinarySequence;
+import io.questdb.std.IntList;
+import io.questdb.std.Long256;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.CharSink;
+
+/**
+ * Record of {@link WalTailRecordCursorFactory}. Reads either the table reader record or the WAL record.
+ * Column indexes of the WAL record are writer indexes, hence the mapping. Symbol keys of the WAL record
+ * are translated to the keys of {@link WalTailSymbolTable} by {@link WalTailSymbolKeys}.
+ */
+class WalTailRecord implements Record {
+    private final WalTailSymbolKeys symbolKeys;
+    private final ObjList<WalTailSymbolTable> symbolTables;
+    private final int walTimestampIndex;
+    private final IntList writerIndexes;
+    private Record baseRecord;
+    private boolean isTail;
+    private int txnIndex;
+    private WalDataRecord walRecord;
+
+    WalTailRecord(
+            IntList writerIndexes,
+            int walTimestampIndex,
+            ObjList<WalTailSymbolTable> symbolTables,
+            WalTailSymbolKeys symbolKeys
+    ) {
+        this.writerIndexes = writerIndexes;
+        this.walTimestampIndex = walTimestampIndex;
+        this.symbolTables = symbolTables;
+        this.symbolKeys = symbolKeys;
+    }
+
+    @Override
+    public BinarySequence getBin(int col) {
+        if (isTail) {
+            return walRecord.getBin(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getBin(col);
+    }
+
+    @Override
+    public long getBinLen(int col) {
+        if (isTail) {
+            return walRecord.getBinLen(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getBinLen(col);
+    }
+
+    @Override
+    public boolean getBool(int col) {
+        if (isTail) {
+            return walRecord.getBool(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getBool(col);
+    }
+
+    @Override
+    public byte getByte(int col) {
+        if (isTail) {
+            return walRecord.getByte(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getByte(col);
+    }
+
+    @Override
+    public char getChar(int col) {
+        if (isTail) {
+            return walRecord.getChar(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getChar(col);
+    }
+
+    @Override
+    public long getDate(int col) {
+        if (isTail) {
+            return walRecord.getLong(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getDate(col);
+    }
+
+    @Override
+    public double getDouble(int col) {
+        if (isTail) {
+            return walRecord.getDouble(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getDouble(col);
+    }
+
+    @Override
+    public float getFloat(int col) {
+        if (isTail) {
+            return walRecord.getFloat(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getFloat(col);
+    }
+
+    @Override
+    public byte getGeoByte(int col) {
+        if (isTail) {
+            return walRecord.getGeoByte(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getGeoByte(col);
+    }
+
+    @Override
+    public int getGeoInt(int col) {
+        if (isTail) {
+            return walRecord.getGeoInt(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getGeoInt(col);
+    }
+
+    @Override
+    public long getGeoLong(int col) {
+        if (isTail) {
+            return walRecord.getGeoLong(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getGeoLong(col);
+    }
+
+    @Override
+    public short getGeoShort(int col) {
+        if (isTail) {
+            return walRecord.getGeoShort(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getGeoShort(col);
+    }
+
+    @Override
+    public int getIPv4(int col) {
+        if (isTail) {
+            return walRecord.getIPv4(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getIPv4(col);
+    }
+
+    @Override
+    public int getInt(int col) {
+        if (isTail) {
+            final int walKey = walRecord.getInt(writerIndexes.getQuick(col));
+            return symbolKeys.isSymbol(col) ? symbolKeys.getKey(txnIndex, col, walKey) : walKey;
+        }
+        return baseRecord.getInt(col);
+    }
+
+    @Override
+    public long getLong(int col) {
+        if (isTail) {
+            final int writerIndex = writerIndexes.getQuick(col);
+            // designated timestamp is stored along with the row index in WAL segments
+            return writerIndex == walTimestampIndex ? walRecord.getTimestamp(writerIndex) : walRecord.getLong(writerIndex);
+        }
+        return baseRecord.getLong(col);
+    }
+
+    @Override
+    public long getLong128Hi(int col) {
+        if (isTail) {
+            return walRecord.getLong128Hi(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getLong128Hi(col);
+    }
+
+    @Override
+    public long getLong128Lo(int col) {
+        if (isTail) {
+            return walRecord.getLong128Lo(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getLong128Lo(col);
+    }
+
+    @Override
+    public void getLong256(int col, CharSink sink) {
+        if (isTail) {
+            walRecord.getLong256(writerIndexes.getQuick(col), sink);
+        } else {
+            baseRecord.getLong256(col, sink);
+        }
+    }
+
+    @Override
+    public Long256 getLong256A(int col) {
+        if (isTail) {
+            return walRecord.getLong256A(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getLong256A(col);
+    }
+
+    @Override
+    public Long256 getLong256B(int col) {
+        if (isTail) {
+            return walRecord.getLong256B(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getLong256B(col);
+    }
+
+    @Override
+    public short getShort(int col) {
+        if (isTail) {
+            return walRecord.getShort(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getShort(col);
+    }
+
+    @Override
+    public CharSequence getStr(int col) {
+        if (isTail) {
+            return walRecord.getStr(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getStr(col);
+    }
+
+    @Override
+    public CharSequence getStrB(int col) {
+        if (isTail) {
+            return walRecord.getStrB(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getStrB(col);
+    }
+
+    @Override
+    public int getStrLen(int col) {
+        if (isTail) {
+            return walRecord.getStrLen(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getStrLen(col);
+    }
+
+    @Override
+    public CharSequence getSym(int col) {
+        if (isTail) {
+            return symbolTables.getQuick(col).valueOf(getInt(col));
+        }
+        return baseRecord.getSym(col);
+    }
+
+    @Override
+    public CharSequence getSymB(int col) {
+        if (isTail) {
+            return symbolTables.getQuick(col).valueBOf(getInt(col));
+        }
+        return baseRecord.getSymB(col);
+    }
+
+    @Override
+    public long getTimestamp(int col) {
+        if (isTail) {
+            return walRecord.getTimestamp(writerIndexes.getQuick(col));
+        }
+        return baseRecord.getTimestamp(col);
+    }
+
+    void of(Record baseRecord, WalDataRecord walRecord) {
+        this.baseRecord = baseRecord;
+        this.walRecord = walRecord;
+        this.isTail = false;
+    }
+
+    void toBase() {
+        isTail = false;
+    }
+
+    void toTail(int txnIndex) {
+        this.txnIndex = txnIndex;
+        isTail = true;
+    }
+}
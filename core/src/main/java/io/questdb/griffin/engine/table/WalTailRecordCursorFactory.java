@@ -0,0 +1,554 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.sql.*;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.wal.WalDataRecord;
+import io.questdb.cairo.wal.WalEventCursor;
+import io.questdb.cairo.wal.WalEventReader;
+import io.questdb.cairo.wal.WalReader;
+import io.questdb.cairo.wal.seq.TransactionLogCursor;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+
+import static io.questdb.cairo.wal.WalTxnType.DATA;
+import static io.questdb.cairo.wal.WalUtils.WAL_FORMAT_VERSION;
+import static io.questdb.cairo.wal.WalUtils.WAL_NAME_BASE;
+
+/**
+ * Read-your-writes scan of a WAL table, see {@code read_your_writes()}. Merges rows of the table reader
+ * with rows of the data transactions that are committed to the sequencer but not yet applied to the table.
+ * Rows are returned in designated timestamp order and, when the table has upsert keys, the last row of
+ * each key wins, same as once the transactions are applied.
+ * <p>
+ * The tail ends at the first transaction that cannot be represented with the reader metadata, e.g.
+ * a structure change, an UPDATE or a TRUNCATE, so that the result is always a consistent prefix of
+ * the transaction log. A segment purged before the cursor opens it has been applied to the table,
+ * the reader is reloaded to read its rows from the table instead.
+ */
+public class WalTailRecordCursorFactory extends AbstractRecordCursorFactory {
+    private static final Log LOG = LogFactory.getLog(WalTailRecordCursorFactory.class);
+    private final WalTailRecordCursor cursor;
+    private final TableToken tableToken;
+
+    public WalTailRecordCursorFactory(CairoConfiguration configuration, TableToken tableToken, TableReaderMetadata readerMetadata) {
+        super(toTailMetadata(readerMetadata));
+        this.tableToken = tableToken;
+        final int columnCount = readerMetadata.getColumnCount();
+        final IntList writerIndexes = new IntList(columnCount);
+        final ObjList<WalTailSymbolTable> symbolTables = new ObjList<>(columnCount);
+        final IntList dedupKeyColumns = new IntList();
+        final ArrayColumnTypes dedupKeyTypes = new ArrayColumnTypes();
+        for (int i = 0; i < columnCount; i++) {
+            final int columnType = readerMetadata.getColumnType(i);
+            writerIndexes.add(readerMetadata.getWriterIndex(i));
+            symbolTables.extendAndSet(i, ColumnType.isSymbol(columnType) ? new WalTailSymbolTable() : null);
+            if (readerMetadata.isDedupKey(i)) {
+                dedupKeyColumns.add(i);
+                dedupKeyTypes.add(columnType);
+            }
+        }
+
+        final int timestampIndex = readerMetadata.getTimestampIndex();
+        final int walTimestampIndex = readerMetadata.getWriterIndex(timestampIndex);
+        Map dedupMap = null;
+        try {
+            if (dedupKeyColumns.size() > 0) {
+                final ArrayColumnTypes valueTypes = new ArrayColumnTypes();
+                valueTypes.add(ColumnType.LONG);
+                dedupMap = MapFactory.createMap(configuration, dedupKeyTypes, valueTypes);
+            }
+            this.cursor = new WalTailRecordCursor(
+                    configuration,
+                    tableToken,
+                    readerMetadata.getMetadataVersion(),
+                    timestampIndex,
+                    walTimestampIndex,
+                    symbolTables,
+                    new WalTailSymbolKeys(symbolTables, writerIndexes),
+                    writerIndexes,
+                    dedupMap,
+                    dedupKeyColumns,
+                    dedupKeyTypes
+            );
+        } catch (Throwable th) {
+            Misc.free(dedupMap);
+            throw th;
+        }
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) {
+        try {
+            cursor.of(executionContext);
+            return cursor;
+        } catch (Throwable e) {
+            cursor.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("read_your_writes").meta("of").val(tableToken);
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(cursor);
+        cursor.free();
+    }
+
+    private static GenericRecordMetadata toTailMetadata(TableReaderMetadata readerMetadata) {
+        final GenericRecordMetadata metadata = new GenericRecordMetadata();
+        for (int i = 0, n = readerMetadata.getColumnCount(); i < n; i++) {
+            // symbol tables get values of the WAL tail as the cursor reads it, so they are not static
+            metadata.add(
+                    new TableColumnMetadata(
+                            readerMetadata.getColumnName(i),
+                            readerMetadata.getColumnType(i),
+                            false,
+                            0,
+                            false,
+                            null,
+                            readerMetadata.getWriterIndex(i),
+                            readerMetadata.isDedupKey(i)
+                    )
+            );
+        }
+        metadata.setTimestampIndex(readerMetadata.getTimestampIndex());
+        return metadata;
+    }
+
+    private static class WalTailRecordCursor implements NoRandomAccessRecordCursor {
+        private static final int MAX_RELOAD_ATTEMPTS = 10;
+        private static final long ROW_MASK = (1L << 40) - 1;
+        private static final int TXN_ENTRY_SIZE = 4;
+        private static final int TXN_SHIFT = 40;
+        private final TableReaderRecordCursor baseCursor = new TableReaderRecordCursor();
+        private final CairoConfiguration configuration;
+        private final IntList dedupKeyColumns;
+        private final ColumnTypes dedupKeyTypes;
+        private final Map dedupMap;
+        private final long metadataVersion;
+        private final Path path = new Path();
+        private final WalTailRecord record;
+        private final LongLongHashMap segmentRowCounts = new LongLongHashMap();
+        private final LongIntHashMap segmentSlots = new LongIntHashMap();
+        private final WalTailSymbolKeys symbolKeys;
+        private final ObjList<WalTailSymbolTable> symbolTables;
+        private final TableToken tableToken;
+        // designated timestamp and location of every tail row, sorted by timestamp;
+        // location is the tail transaction index in the high bits and the segment row in the low bits
+        private final DirectLongList tailRows;
+        private final DirectLongList tailRowsCopy;
+        private final IntList tailTxnSlots = new IntList();
+        // walId, segmentId, start row and end row of every tail transaction
+        private final LongList tailTxns = new LongList();
+        private final int timestampIndex;
+        private final WalEventReader walEventReader;
+        private final ObjList<WalReader> walReaders = new ObjList<>();
+        private final WalDataRecord walRecord = new WalDataRecord();
+        private final int walTimestampIndex;
+        private boolean baseHasNext;
+        private boolean isBaseFetched;
+        private TableReader reader;
+        private long tailIndex;
+        private long tailRowCount;
+        private int walSlot = -1;
+
+        private WalTailRecordCursor(
+                CairoConfiguration configuration,
+                TableToken tableToken,
+                long metadataVersion,
+                int timestampIndex,
+                int walTimestampIndex,
+                ObjList<WalTailSymbolTable> symbolTables,
+                WalTailSymbolKeys symbolKeys,
+                IntList writerIndexes,
+                Map dedupMap,
+                IntList dedupKeyColumns,
+                ColumnTypes dedupKeyTypes
+        ) {
+            this.configuration = configuration;
+            this.tableToken = tableToken;
+            this.metadataVersion = metadataVersion;
+            this.timestampIndex = timestampIndex;
+            this.walTimestampIndex = walTimestampIndex;
+            this.symbolTables = symbolTables;
+            this.symbolKeys = symbolKeys;
+            this.record = new WalTailRecord(writerIndexes, walTimestampIndex, symbolTables, symbolKeys);
+            this.dedupMap = dedupMap;
+            this.dedupKeyColumns = dedupKeyColumns;
+            this.dedupKeyTypes = dedupKeyTypes;
+            this.walEventReader = new WalEventReader(configuration.getFilesFacade());
+            this.tailRows = new DirectLongList(configuration.getSqlSortLightValuePageSize() / Long.BYTES, MemoryTag.NATIVE_LONG_LIST);
+            this.tailRowsCopy = new DirectLongList(configuration.getSqlSortLightValuePageSize() / Long.BYTES, MemoryTag.NATIVE_LONG_LIST);
+        }
+
+        @Override
+        public void close() {
+            // closes the reader
+            Misc.free(baseCursor);
+            reader = null;
+            freeWalReaders();
+            Misc.free(dedupMap);
+            Misc.free(tailRows);
+            Misc.free(tailRowsCopy);
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            return symbolTables.getQuick(columnIndex);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                if (!isBaseFetched) {
+                    baseHasNext = baseCursor.hasNext();
+                    isBaseFetched = true;
+                }
+
+                final long tailTimestamp = tailIndex < tailRowCount ? tailRows.get(2 * tailIndex) : Long.MAX_VALUE;
+                if (baseHasNext) {
+                    // rows of the table go first, tail rows of the same timestamp were committed later
+                    final long baseTimestamp = baseCursor.getRecord().getTimestamp(timestampIndex);
+                    if (tailIndex >= tailRowCount || baseTimestamp <= tailTimestamp) {
+                        isBaseFetched = false;
+                        record.toBase();
+                        // upsert keys include designated timestamp, so only a tail row of the same timestamp can replace the row
+                        if (dedupMap != null && baseTimestamp == tailTimestamp && findDedupKey() != null) {
+                            continue;
+                        }
+                        return true;
+                    }
+                }
+
+                if (tailIndex >= tailRowCount) {
+                    return false;
+                }
+                final long location = tailRows.get(2 * tailIndex + 1);
+                final int txnIndex = (int) (location >>> TXN_SHIFT);
+                tailIndex++;
+                switchSegment(tailTxnSlots.getQuick(txnIndex));
+                walRecord.jumpTo(location & ROW_MASK);
+                record.toTail(txnIndex);
+                if (dedupMap != null && findDedupKey().getLong(0) != location) {
+                    // replaced by a later row of the same key
+                    continue;
+                }
+                return true;
+            }
+        }
+
+        @Override
+        public SymbolTable newSymbolTable(int columnIndex) {
+            return symbolTables.getQuick(columnIndex).newSymbolTable(reader.newSymbolTable(columnIndex));
+        }
+
+        @Override
+        public long size() {
+            // replaced rows are not known upfront
+            return dedupMap == null ? baseCursor.size() + tailRowCount : -1;
+        }
+
+        @Override
+        public void toTop() {
+            baseCursor.toTop();
+            isBaseFetched = false;
+            tailIndex = 0;
+        }
+
+        private void buildTail() {
+            tailRows.clear();
+            for (int i = 0, n = tailTxnSlots.size(); i < n; i++) {
+                final int p = i * TXN_ENTRY_SIZE;
+                switchSegment(tailTxnSlots.getQuick(i));
+                record.toTail(i);
+                for (long row = tailTxns.getQuick(p + 2), hi = tailTxns.getQuick(p + 3); row < hi; row++) {
+                    walRecord.jumpTo(row);
+                    final long location = ((long) i << TXN_SHIFT) | row;
+                    tailRows.add(walRecord.getTimestamp(walTimestampIndex));
+                    tailRows.add(location);
+                    if (dedupMap != null) {
+                        // rows are visited in commit order, the last row of the key wins
+                        final MapKey key = dedupMap.withKey();
+                        putDedupKey(key);
+                        key.createValue().putLong(0, location);
+                    }
+                }
+            }
+
+            tailRowCount = tailRows.size() / 2;
+            if (tailRowCount > 1) {
+                // radix sort is stable, rows of the same timestamp stay in commit order
+                if (tailRowsCopy.getCapacity() < tailRows.size()) {
+                    tailRowsCopy.setCapacity(tailRows.size());
+                }
+                Vect.radixSortLongIndexAscInPlace(tailRows.getAddress(), tailRowCount, tailRowsCopy.getAddress());
+            }
+        }
+
+        private boolean collectTail(CairoEngine engine, long seqTxn) {
+            tailTxns.clear();
+            segmentRowCounts.clear();
+
+            final long structureVersion = reader.getTxFile().getColumnStructureVersion();
+            try (TransactionLogCursor txnCursor = engine.getTableSequencerAPI().getCursor(tableToken, seqTxn)) {
+                path.of(configuration.getRoot()).concat(tableToken);
+                final int rootLen = path.length();
+                while (txnCursor.hasNext()) {
+                    final int walId = txnCursor.getWalId();
+                    if (walId < 1 || txnCursor.getStructureVersion() != structureVersion) {
+                        // structure change, table drop, or data of the newer structure
+                        break;
+                    }
+
+                    final int segmentId = txnCursor.getSegmentId();
+                    path.trimTo(rootLen).concat(WAL_NAME_BASE).put(walId).slash().put(segmentId);
+                    try (WalEventReader eventReader = walEventReader) {
+                        final WalEventCursor eventCursor = eventReader.of(path, WAL_FORMAT_VERSION, txnCursor.getSegmentTxn());
+                        if (eventCursor.getType() != DATA) {
+                            break;
+                        }
+                        final WalEventCursor.DataInfo dataInfo = eventCursor.getDataInfo();
+                        if (!symbolKeys.add(tailTxns.size() / TXN_ENTRY_SIZE, dataInfo)) {
+                            // symbols of the transaction are applied to the table after the reader was opened
+                            return false;
+                        }
+                        tailTxns.add(walId, segmentId, dataInfo.getStartRowID(), dataInfo.getEndRowID());
+                        // map the segment up to the last row the tail reads from it
+                        final long segmentKey = Numbers.encodeLowHighInts(segmentId, walId);
+                        segmentRowCounts.put(segmentKey, Math.max(segmentRowCounts.get(segmentKey), dataInfo.getEndRowID()));
+                    }
+                }
+            } catch (CairoException e) {
+                LOG.info().$("could not read WAL tail [table=").utf8(tableToken.getTableName())
+                        .$(", msg=").$(e.getFlyweightMessage())
+                        .$(", errno=").$(e.getErrno())
+                        .I$();
+                return false;
+            } finally {
+                path.trimTo(0);
+            }
+            return true;
+        }
+
+        private MapValue findDedupKey() {
+            final MapKey key = dedupMap.withKey();
+            putDedupKey(key);
+            return key.findValue();
+        }
+
+        private void free() {
+            Misc.free(walEventReader);
+            Misc.free(path);
+        }
+
+        private void freeWalReaders() {
+            Misc.freeObjListAndClear(walReaders);
+            walSlot = -1;
+        }
+
+        private void of(SqlExecutionContext executionContext) {
+            reader = executionContext.getReader(tableToken, metadataVersion);
+            baseCursor.of(reader);
+            openTail(executionContext.getCairoEngine());
+            tailRows.reopen();
+            tailRowsCopy.reopen();
+            if (dedupMap != null) {
+                dedupMap.reopen();
+            }
+            record.of(baseCursor.getRecord(), walRecord);
+            buildTail();
+            toTop();
+        }
+
+        /**
+         * Opens segments of the tail transactions in commit order.
+         *
+         * @return number of transactions whose segments are open, less than the transaction
+         * count when a segment no longer exists
+         */
+        private int openSegments() {
+            segmentSlots.clear();
+            tailTxnSlots.clear();
+            for (int i = 0, n = tailTxns.size(); i < n; i += TXN_ENTRY_SIZE) {
+                final int walId = (int) tailTxns.getQuick(i);
+                final int segmentId = (int) tailTxns.getQuick(i + 1);
+                final long segmentKey = Numbers.encodeLowHighInts(segmentId, walId);
+                final int keyIndex = segmentSlots.keyIndex(segmentKey);
+                final int slot;
+                if (keyIndex > -1) {
+                    try {
+                        walReaders.add(new WalReader(configuration, tableToken, WAL_NAME_BASE + walId, segmentId, segmentRowCounts.get(segmentKey)));
+                    } catch (CairoException e) {
+                        LOG.info().$("could not open WAL tail segment [table=").utf8(tableToken.getTableName())
+                                .$(", walId=").$(walId)
+                                .$(", segmentId=").$(segmentId)
+                                .$(", msg=").$(e.getFlyweightMessage())
+                                .$(", errno=").$(e.getErrno())
+                                .I$();
+                        return i / TXN_ENTRY_SIZE;
+                    }
+                    slot = walReaders.size() - 1;
+                    segmentSlots.putAt(keyIndex, segmentKey, slot);
+                } else {
+                    slot = segmentSlots.valueAt(keyIndex);
+                }
+                tailTxnSlots.add(slot);
+            }
+            return tailTxns.size() / TXN_ENTRY_SIZE;
+        }
+
+        private void openTail(CairoEngine engine) {
+            for (int attempt = 0; ; attempt++) {
+                for (int i = 0, n = symbolTables.size(); i < n; i++) {
+                    final WalTailSymbolTable symbolTable = symbolTables.getQuick(i);
+                    if (symbolTable != null) {
+                        symbolTable.of(reader.getSymbolMapReader(i));
+                    }
+                }
+                final long seqTxn = reader.getTxFile().getSeqTxn();
+                final boolean isComplete = collectTail(engine, seqTxn);
+                final int openTxnCount = openSegments();
+                if ((isComplete && openTxnCount == tailTxns.size() / TXN_ENTRY_SIZE) || attempt == MAX_RELOAD_ATTEMPTS || !reload(seqTxn)) {
+                    // transactions before the missing segment are still a consistent prefix
+                    tailTxns.setPos(openTxnCount * TXN_ENTRY_SIZE);
+                    return;
+                }
+                // the segment has been applied and purged since the reader was opened,
+                // or the transaction refers to symbols that are applied since then,
+                // the reloaded reader has both
+                freeWalReaders();
+            }
+        }
+
+        private void putDedupKey(MapKey key) {
+            for (int i = 0, n = dedupKeyColumns.size(); i < n; i++) {
+                final int columnIndex = dedupKeyColumns.getQuick(i);
+                final int columnType = dedupKeyTypes.getColumnType(i);
+                switch (ColumnType.tagOf(columnType)) {
+                    case ColumnType.BOOLEAN:
+                        key.putBool(record.getBool(columnIndex));
+                        break;
+                    case ColumnType.BYTE:
+                        key.putByte(record.getByte(columnIndex));
+                        break;
+                    case ColumnType.GEOBYTE:
+                        key.putByte(record.getGeoByte(columnIndex));
+                        break;
+                    case ColumnType.SHORT:
+                        key.putShort(record.getShort(columnIndex));
+                        break;
+                    case ColumnType.GEOSHORT:
+                        key.putShort(record.getGeoShort(columnIndex));
+                        break;
+                    case ColumnType.CHAR:
+                        key.putChar(record.getChar(columnIndex));
+                        break;
+                    case ColumnType.INT:
+                    case ColumnType.SYMBOL:
+                        key.putInt(record.getInt(columnIndex));
+                        break;
+                    case ColumnType.IPv4:
+                        key.putInt(record.getIPv4(columnIndex));
+                        break;
+                    case ColumnType.GEOINT:
+                        key.putInt(record.getGeoInt(columnIndex));
+                        break;
+                    case ColumnType.FLOAT:
+                        key.putFloat(record.getFloat(columnIndex));
+                        break;
+                    case ColumnType.LONG:
+                        key.putLong(record.getLong(columnIndex));
+                        break;
+                    case ColumnType.GEOLONG:
+                        key.putLong(record.getGeoLong(columnIndex));
+                        break;
+                    case ColumnType.DATE:
+                        key.putDate(record.getDate(columnIndex));
+                        break;
+                    case ColumnType.TIMESTAMP:
+                        key.putTimestamp(record.getTimestamp(columnIndex));
+                        break;
+                    case ColumnType.DOUBLE:
+                        key.putDouble(record.getDouble(columnIndex));
+                        break;
+                    case ColumnType.LONG128:
+                    case ColumnType.UUID:
+                        key.putLong128(record.getLong128Lo(columnIndex), record.getLong128Hi(columnIndex));
+                        break;
+                    case ColumnType.LONG256:
+                        key.putLong256(record.getLong256A(columnIndex));
+                        break;
+                    default:
+                        throw CairoException.critical(0).put("unsupported upsert key type [table=").put(tableToken.getTableName())
+                                .put(", type=").put(ColumnType.nameOf(columnType))
+                                .put(']');
+                }
+            }
+        }
+
+        private boolean reload(long seqTxn) {
+            if (!reader.reload() || reader.getTxFile().getSeqTxn() <= seqTxn) {
+                return false;
+            }
+            if (reader.getMetadataVersion() != metadataVersion) {
+                final int tableId = reader.getMetadata().getTableId();
+                throw TableReferenceOutOfDateException.of(tableToken, tableId, tableId, metadataVersion, reader.getMetadataVersion());
+            }
+            return true;
+        }
+
+        private void switchSegment(int slot) {
+            if (slot != walSlot) {
+                walRecord.of(walReaders.getQuick(slot));
+                walSlot = slot;
+            }
+        }
+    }
+}
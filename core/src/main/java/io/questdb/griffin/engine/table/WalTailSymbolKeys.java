@@ -0,0 +1,109 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.wal.SymbolMapDiff;
+import io.questdb.cairo.wal.SymbolMapDiffEntry;
+import io.questdb.cairo.wal.WalEventCursor;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+
+/**
+ * Translates symbol keys of WAL transactions to the keys of {@link WalTailSymbolTable}. Keys below
+ * the clean symbol count of a transaction are keys of the table symbol map, keys past that count are
+ * local to the transaction and are resolved through its symbol map diff.
+ */
+class WalTailSymbolKeys {
+    private final IntList cleanSymbolCounts = new IntList();
+    // local key translations of every transaction and symbol column, reused between cursors
+    private final ObjList<IntList> localKeys = new ObjList<>();
+    private final int symbolColumnCount;
+    private final IntList symbolOrdinals;
+    private final ObjList<WalTailSymbolTable> symbolTables;
+    private final IntList writerToColumnIndex = new IntList();
+
+    WalTailSymbolKeys(ObjList<WalTailSymbolTable> symbolTables, IntList writerIndexes) {
+        this.symbolTables = symbolTables;
+        this.symbolOrdinals = new IntList(symbolTables.size());
+        int symbolColumnCount = 0;
+        for (int i = 0, n = symbolTables.size(); i < n; i++) {
+            symbolOrdinals.add(symbolTables.getQuick(i) != null ? symbolColumnCount++ : -1);
+            writerToColumnIndex.extendAndSet(writerIndexes.getQuick(i), i);
+        }
+        this.symbolColumnCount = symbolColumnCount;
+    }
+
+    /**
+     * Reads symbol map diffs of a transaction.
+     *
+     * @return false when the transaction refers to table symbols the reader does not have yet
+     */
+    boolean add(int txnIndex, WalEventCursor.DataInfo dataInfo) {
+        final int lo = txnIndex * symbolColumnCount;
+        for (int p = lo, hi = lo + symbolColumnCount; p < hi; p++) {
+            // no diff means the transaction has no symbols other than null in the column
+            cleanSymbolCounts.extendAndSet(p, 0);
+            if (localKeys.getQuiet(p) == null) {
+                localKeys.extendAndSet(p, new IntList());
+            }
+            localKeys.getQuick(p).clear();
+        }
+
+        SymbolMapDiff symbolDiff = dataInfo.nextSymbolMapDiff();
+        while (symbolDiff != null) {
+            final int columnIndex = writerToColumnIndex.getQuick(symbolDiff.getColumnIndex());
+            final WalTailSymbolTable symbolTable = symbolTables.getQuick(columnIndex);
+            final int cleanSymbolCount = symbolDiff.getCleanSymbolCount();
+            if (cleanSymbolCount > symbolTable.getReaderSymbolCount()) {
+                return false;
+            }
+
+            final int p = lo + symbolOrdinals.getQuick(columnIndex);
+            cleanSymbolCounts.setQuick(p, cleanSymbolCount);
+            final IntList keys = localKeys.getQuick(p);
+            SymbolMapDiffEntry entry = symbolDiff.nextEntry();
+            while (entry != null) {
+                keys.extendAndSet(entry.getKey() - cleanSymbolCount, symbolTable.keyOf(entry.getSymbol()));
+                entry = symbolDiff.nextEntry();
+            }
+            symbolDiff = dataInfo.nextSymbolMapDiff();
+        }
+        return true;
+    }
+
+    int getKey(int txnIndex, int columnIndex, int walKey) {
+        final int p = txnIndex * symbolColumnCount + symbolOrdinals.getQuick(columnIndex);
+        final int cleanSymbolCount = cleanSymbolCounts.getQuick(p);
+        // null key is negative and stays as it is
+        if (walKey < cleanSymbolCount) {
+            return walKey;
+        }
+        return localKeys.getQuick(p).getQuick(walKey - cleanSymbolCount);
+    }
+
+    boolean isSymbol(int columnIndex) {
+        return symbolOrdinals.getQuick(columnIndex) > -1;
+    }
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.sql.StaticSymbolTable;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.std.CharSequenceIntHashMap;
+import io.questdb.std.Chars;
+import io.questdb.std.ObjList;
+
+/**
+ * Symbol table of a {@link WalTailRecordCursorFactory} column. Keys of the table reader symbol table
+ * are kept as they are, values that are only found in WAL segments get keys past the reader symbol count.
+ * Views returned by {@link #newSymbolTable(StaticSymbolTable)} share the tail values with this table.
+ */
+class WalTailSymbolTable implements SymbolTable {
+    private final CharSequenceIntHashMap tailKeys;
+    private final ObjList<String> tailValues;
+    private int readerSymbolCount;
+    private StaticSymbolTable readerSymbolTable;
+
+    WalTailSymbolTable() {
+        this(new CharSequenceIntHashMap(), new ObjList<>());
+    }
+
+    private WalTailSymbolTable(CharSequenceIntHashMap tailKeys, ObjList<String> tailValues) {
+        this.tailKeys = tailKeys;
+        this.tailValues = tailValues;
+    }
+
+    @Override
+    public CharSequence valueBOf(int key) {
+        if (key < readerSymbolCount) {
+            return readerSymbolTable.valueBOf(key);
+        }
+        return tailValues.getQuick(key - readerSymbolCount);
+    }
+
+    @Override
+    public CharSequence valueOf(int key) {
+        if (key < readerSymbolCount) {
+            return readerSymbolTable.valueOf(key);
+        }
+        return tailValues.getQuick(key - readerSymbolCount);
+    }
+
+    int getReaderSymbolCount() {
+        return readerSymbolCount;
+    }
+
+    int keyOf(CharSequence value) {
+        final int key = readerSymbolTable.keyOf(value);
+        if (key != SymbolTable.VALUE_NOT_FOUND) {
+            return key;
+        }
+        final int index = tailKeys.keyIndex(value);
+        if (index < 0) {
+            return tailKeys.valueAt(index);
+        }
+        final String tailValue = Chars.toString(value);
+        final int tailKey = readerSymbolCount + tailValues.size();
+        tailKeys.putAt(index, tailValue, tailKey);
+        tailValues.add(tailValue);
+        return tailKey;
+    }
+
+    WalTailSymbolTable newSymbolTable(StaticSymbolTable readerSymbolTable) {
+        final WalTailSymbolTable symbolTable = new WalTailSymbolTable(tailKeys, tailValues);
+        symbolTable.readerSymbolTable = readerSymbolTable;
+        symbolTable.readerSymbolCount = readerSymbolCount;
+        return symbolTable;
+    }
+
+    void of(StaticSymbolTable readerSymbolTable) {
+        this.readerSymbolTable = readerSymbolTable;
+        this.readerSymbolCount = readerSymbolTable.getSymbolCount();
+        tailKeys.clear();
+        tailValues.clear();
+    }
+}
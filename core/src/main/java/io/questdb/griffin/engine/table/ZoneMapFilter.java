@@ -0,0 +1,343 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ZoneMapReader;
+import io.questdb.cairo.ZoneMapUtils;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.griffin.SqlKeywords;
+import io.questdb.griffin.model.ExpressionNode;
+import io.questdb.std.*;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Skips page frames with the help of min/max zone maps. The filter is built from the top-level
+ * conjunction of comparisons of INT, LONG, FLOAT and DOUBLE columns with numeric literals, e.g.
+ * <code>price &gt; 1000 and account_id = 42</code>. Every such comparison is a necessary condition
+ * for a row to be selected, so the frame is skipped when zone map blocks overlapping the frame
+ * show that one of the comparisons cannot hold. Comparisons with NULL never hold, so nulls
+ * are not taken into account.
+ * <p>
+ * Zone maps are read by the thread that owns the page frame sequence, the filter is not thread-safe.
+ */
+public class ZoneMapFilter implements QuietCloseable, Mutable {
+    // column values are compared as doubles
+    private static final int KIND_DOUBLE = 1;
+    // INT or LONG column is compared to an integer literal
+    private static final int KIND_LONG = 0;
+    private static final int OP_EQ = 0;
+    private static final int OP_GE = 1;
+    private static final int OP_GT = 2;
+    private static final int OP_LE = 3;
+    private static final int OP_LT = 4;
+    // Numbers.equals() treats values closer than 1e-10 as equal
+    private static final double EQ_TOLERANCE = 2E-10;
+    private final IntList columnIndexes = new IntList();
+    private final IntList loadedPartitionIndexes = new IntList();
+    private final DoubleList predicateDoubleHi = new DoubleList();
+    private final DoubleList predicateDoubleLo = new DoubleList();
+    private final IntList predicateKinds = new IntList();
+    private final LongList predicateLongHi = new LongList();
+    private final LongList predicateLongLo = new LongList();
+    private final IntList predicateReaders = new IntList();
+    private final ObjList<ZoneMapReader> readers = new ObjList<>();
+    private final IntList readerColumnTypes = new IntList();
+    private double constantDouble;
+    private boolean constantIsLong;
+    private long constantLong;
+
+    private ZoneMapFilter() {
+    }
+
+    /**
+     * Creates zone map filter for the filter expression.
+     *
+     * @param filterExpr filter expression
+     * @param metadata   metadata of the page frames the filter applies to
+     * @return null when there are no comparisons the zone maps can help with
+     */
+    @Nullable
+    public static ZoneMapFilter of(ExpressionNode filterExpr, RecordMetadata metadata) {
+        final ZoneMapFilter zoneMapFilter = new ZoneMapFilter();
+        zoneMapFilter.addPredicates(filterExpr, metadata);
+        return zoneMapFilter.predicateKinds.size() > 0 ? zoneMapFilter : null;
+    }
+
+    /**
+     * @param frame page frame
+     * @return true when none of the frame rows can satisfy the filter
+     */
+    public boolean canSkip(PageFrame frame) {
+        final int partitionIndex = frame.getPartitionIndex();
+        final long lo = frame.getPartitionLo();
+        final long hi = frame.getPartitionHi();
+        for (int i = 0, n = predicateKinds.size(); i < n; i++) {
+            final int readerIndex = predicateReaders.getQuick(i);
+            final ZoneMapReader reader = readers.getQuick(readerIndex);
+            if (loadedPartitionIndexes.getQuick(readerIndex) != partitionIndex) {
+                frame.readZoneMap(columnIndexes.getQuick(readerIndex), reader);
+                loadedPartitionIndexes.setQuick(readerIndex, partitionIndex);
+            }
+            // zone map is not available when the row count is 0
+            if (hi <= reader.getRowCount() && excludes(i, reader, readerColumnTypes.getQuick(readerIndex), lo, hi)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        loadedPartitionIndexes.setAll(loadedPartitionIndexes.size(), -1);
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjListAndKeepObjects(readers);
+        clear();
+    }
+
+    private static int flip(int op) {
+        switch (op) {
+            case OP_GE:
+                return OP_LE;
+            case OP_GT:
+                return OP_LT;
+            case OP_LE:
+                return OP_GE;
+            case OP_LT:
+                return OP_GT;
+            default:
+                return op;
+        }
+    }
+
+    private static int getOperator(CharSequence token) {
+        if (Chars.equals(token, '=')) {
+            return OP_EQ;
+        }
+        if (Chars.equals(token, '<')) {
+            return OP_LT;
+        }
+        if (Chars.equals(token, '>')) {
+            return OP_GT;
+        }
+        if (Chars.equals(token, "<=")) {
+            return OP_LE;
+        }
+        if (Chars.equals(token, ">=")) {
+            return OP_GE;
+        }
+        return -1;
+    }
+
+    private void addDoublePredicate(int readerIndex, int op, double value, int columnType) {
+        // float column values are compared after they are widened to double, the literal
+        // may be compared to the float value as is, so leave room for float rounding
+        double tolerance = ColumnType.tagOf(columnType) == ColumnType.FLOAT ? Math.ulp((float) value) : 0;
+        double lo = Double.NEGATIVE_INFINITY;
+        double hi = Double.POSITIVE_INFINITY;
+        switch (op) {
+            case OP_EQ:
+                tolerance += EQ_TOLERANCE;
+                lo = value - tolerance;
+                hi = value + tolerance;
+                break;
+            case OP_GE:
+            case OP_GT:
+                lo = value - tolerance;
+                break;
+            default:
+                hi = value + tolerance;
+                break;
+        }
+        predicateKinds.add(KIND_DOUBLE);
+        predicateReaders.add(readerIndex);
+        predicateLongLo.add(0);
+        predicateLongHi.add(0);
+        predicateDoubleLo.add(lo);
+        predicateDoubleHi.add(hi);
+    }
+
+    private void addLongPredicate(int readerIndex, int op, long value) {
+        long lo = Long.MIN_VALUE;
+        long hi = Long.MAX_VALUE;
+        switch (op) {
+            case OP_EQ:
+                lo = value;
+                hi = value;
+                break;
+            case OP_GE:
+                lo = value;
+                break;
+            case OP_GT:
+                if (value == Long.MAX_VALUE) {
+                    return;
+                }
+                lo = value + 1;
+                break;
+            case OP_LE:
+                hi = value;
+                break;
+            default:
+                hi = value - 1;
+                break;
+        }
+        predicateKinds.add(KIND_LONG);
+        predicateReaders.add(readerIndex);
+        predicateLongLo.add(lo);
+        predicateLongHi.add(hi);
+        predicateDoubleLo.add(0);
+        predicateDoubleHi.add(0);
+    }
+
+    private void addPredicates(ExpressionNode node, RecordMetadata metadata) {
+        if (node == null || node.type != ExpressionNode.OPERATION) {
+            return;
+        }
+        if (SqlKeywords.isAndKeyword(node.token)) {
+            addPredicates(node.lhs, metadata);
+            addPredicates(node.rhs, metadata);
+            return;
+        }
+        if (node.paramCount != 2) {
+            return;
+        }
+        int op = getOperator(node.token);
+        if (op == -1) {
+            return;
+        }
+        ExpressionNode column = node.lhs;
+        ExpressionNode constant = node.rhs;
+        if (column.type != ExpressionNode.LITERAL) {
+            column = node.rhs;
+            constant = node.lhs;
+            op = flip(op);
+        }
+        if (column.type != ExpressionNode.LITERAL || !parseConstant(constant)) {
+            return;
+        }
+        final int columnIndex = metadata.getColumnIndexQuiet(column.token);
+        if (columnIndex < 0) {
+            return;
+        }
+        final int columnType = metadata.getColumnType(columnIndex);
+        if (!ZoneMapUtils.isSupported(columnType)) {
+            return;
+        }
+
+        int readerIndex = columnIndexes.indexOf(columnIndex, 0, columnIndexes.size());
+        if (readerIndex < 0) {
+            readerIndex = columnIndexes.size();
+            columnIndexes.add(columnIndex);
+            readerColumnTypes.add(columnType);
+            readers.add(new ZoneMapReader());
+            loadedPartitionIndexes.add(-1);
+        }
+        if (constantIsLong && !ZoneMapUtils.isFloatingPoint(columnType)) {
+            addLongPredicate(readerIndex, op, constantLong);
+        } else {
+            addDoublePredicate(readerIndex, op, constantIsLong ? constantLong : constantDouble, columnType);
+        }
+    }
+
+    private boolean excludes(int predicateIndex, ZoneMapReader reader, int columnType, long lo, long hi) {
+        final long blockLo = lo / reader.getBlockRowCount();
+        final long blockHi = (hi - 1) / reader.getBlockRowCount();
+        if (predicateKinds.getQuick(predicateIndex) == KIND_LONG) {
+            final long valueLo = predicateLongLo.getQuick(predicateIndex);
+            final long valueHi = predicateLongHi.getQuick(predicateIndex);
+            if (reader.getMinLong() > valueHi || reader.getMaxLong() < valueLo) {
+                return true;
+            }
+            for (long block = blockLo; block <= blockHi; block++) {
+                if (reader.getMinLong(block) <= valueHi && reader.getMaxLong(block) >= valueLo) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        final double valueLo = predicateDoubleLo.getQuick(predicateIndex);
+        final double valueHi = predicateDoubleHi.getQuick(predicateIndex);
+        if (ZoneMapUtils.isFloatingPoint(columnType)) {
+            if (reader.getMinDouble() > valueHi || reader.getMaxDouble() < valueLo) {
+                return true;
+            }
+            for (long block = blockLo; block <= blockHi; block++) {
+                if (reader.getMinDouble(block) <= valueHi && reader.getMaxDouble(block) >= valueLo) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // integer column compared to a double literal
+        if (reader.getMinLong() > valueHi || reader.getMaxLong() < valueLo) {
+            return true;
+        }
+        for (long block = blockLo; block <= blockHi; block++) {
+            if (reader.getMinLong(block) <= valueHi && reader.getMaxLong(block) >= valueLo) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean parseConstant(ExpressionNode node) {
+        boolean negate = false;
+        if (node.type == ExpressionNode.OPERATION && node.paramCount == 1 && Chars.equals(node.token, '-')) {
+            negate = true;
+            node = node.rhs != null ? node.rhs : node.lhs;
+        }
+        if (node == null || node.type != ExpressionNode.CONSTANT) {
+            return false;
+        }
+        try {
+            final long value = Numbers.parseLong(node.token);
+            // these literals are NULLs
+            if (value == Numbers.LONG_NaN || value == Numbers.INT_NaN) {
+                return false;
+            }
+            constantLong = negate ? -value : value;
+            constantIsLong = true;
+            return true;
+        } catch (NumericException ignore) {
+        }
+        try {
+            final double value = Numbers.parseDouble(node.token);
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return false;
+            }
+            constantDouble = negate ? -value : value;
+            constantIsLong = false;
+            return true;
+        } catch (NumericException ignore) {
+            return false;
+        }
+    }
+}
@@ -47,6 +47,10 @@ import java.util.Arrays;
  * | opcode | options | payload |
  * | int    | int     | long    |
  * </pre>
+ * <p>
+ * IN_SET and STR_MATCH instructions are followed by raw data, i.e. hash set slots
+ * and pattern chars, padded to the instruction size. The data is skipped by the
+ * backend when it walks the instructions.
  */
 public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Visitor, Mutable {
 
@@ -67,6 +71,8 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
     public static final int I8_TYPE = 4;
     // Constants
     public static final int IMM = 1;
+    // Hash set lookup: a in (v1, ... vn)
+    public static final int IN_SET = 19;
     public static final int LE = 11;  // a <= b
     public static final int LT = 10;  // a <  b
     // Columns
@@ -80,13 +86,30 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
     // Opcodes:
     // Return code. Breaks the loop
     public static final int RET = 0; // ret
+    // String match against a constant: a like 'abc', a like 'abc%', a like '%abc'
+    public static final int STR_MATCH = 20;
+    // String match kinds
+    public static final int STR_MATCH_EQUALS = 0;
+    public static final int STR_MATCH_PREFIX = 1;
+    public static final int STR_MATCH_SUFFIX = 2;
     public static final int SUB = 15;  // a - b
     // Bind variables and deferred symbols
     public static final int VAR = 3;
+    // Longer IN lists are serialized as a hash set lookup instead of an EQ/OR chain
+    static final int IN_LIST_MAX_SIZE = 16;
+    // Fibonacci hashing multiplier, the backend uses the same one to probe the set
+    static final long IN_SET_HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    // Hash sets are embedded into the compiled code, so larger ones are left to the Java filter
+    static final int IN_SET_MAX_SIZE = 4096;
+    static final int INSTRUCTION_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES;
+    static final int LIKE_PATTERN_MAX_LENGTH = 64;
     // Stub value for opcodes and options
     static final int UNDEFINED_CODE = -1;
     // contains <memory_offset, constant_node> pairs for backfilling purposes
     private final LongObjHashMap<ExpressionNode> backfillNodes = new LongObjHashMap<>();
+    private final LongList inSetSlots = new LongList();
+    private final LongList inSetValues = new LongList();
+    private final IntList inSetVarIndexes = new IntList();
     private final PredicateContext predicateContext = new PredicateContext();
     private final PostOrderTreeTraversalAlgo traverseAlgo = new PostOrderTreeTraversalAlgo();
     private ObjList<Function> bindVarFunctions;
@@ -106,6 +129,9 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         forceScalarMode = false;
         predicateContext.clear();
         backfillNodes.clear();
+        inSetSlots.clear();
+        inSetValues.clear();
+        inSetVarIndexes.clear();
     }
 
     @Override
@@ -119,14 +145,25 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         // Check if we're at the start of an arithmetic expression
         predicateContext.onNodeDescended(node);
 
+        // IN list is serialized as a whole, so there is no need to descend
+        if (isInOperation(node)) {
+            serializeIn(node);
+            onNodeVisited(node);
+            return false;
+        }
+
+        // LIKE is serialized as a whole, the pattern is not a standalone constant
+        if (isLikeOperation(node)) {
+            serializeLike(node);
+            onNodeVisited(node);
+            return false;
+        }
+
         // Look ahead for negative const
-        if (node.type == ExpressionNode.OPERATION && node.paramCount == 1 && Chars.equals(node.token, "-")) {
-            ExpressionNode nextNode = node.lhs != null ? node.lhs : node.rhs;
-            if (nextNode != null && nextNode.paramCount == 0 && nextNode.type == ExpressionNode.CONSTANT) {
-                // Store negation node for later backfilling
-                serializeConstantStub(node);
-                return false;
-            }
+        if (isNegativeConstant(node)) {
+            // Store negation node for later backfilling
+            serializeConstantStub(node);
+            return false;
         }
 
         return true;
@@ -215,6 +252,10 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
             serializeOperator(node.position, node.token, argCount);
         }
 
+        onNodeVisited(node);
+    }
+
+    private void onNodeVisited(ExpressionNode node) throws SqlException {
         boolean predicateLeft = predicateContext.onNodeVisited(node);
 
         if (predicateLeft) {
@@ -317,6 +358,42 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         return Chars.equals(token, "/");
     }
 
+    private static boolean isInColumnTypeSupported(int columnTypeTag) {
+        switch (columnTypeTag) {
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.SYMBOL:
+            case ColumnType.GEOBYTE:
+            case ColumnType.GEOSHORT:
+            case ColumnType.GEOINT:
+            case ColumnType.GEOLONG:
+                return true;
+            default:
+                // floating point values don't have exact equality in JIT and
+                // date/timestamp IN lists stand for intervals rather than values
+                return false;
+        }
+    }
+
+    private static boolean isInOperation(ExpressionNode node) {
+        return node.type == ExpressionNode.FUNCTION && node.paramCount > 1 && SqlKeywords.isInKeyword(node.token);
+    }
+
+    private static boolean isLikeOperation(ExpressionNode node) {
+        return node.type == ExpressionNode.OPERATION && node.paramCount == 2 && SqlKeywords.isLikeKeyword(node.token);
+    }
+
+    private static boolean isNegativeConstant(ExpressionNode node) {
+        if (node.type == ExpressionNode.OPERATION && node.paramCount == 1 && Chars.equals(node.token, "-")) {
+            ExpressionNode nextNode = node.lhs != null ? node.lhs : node.rhs;
+            return nextNode != null && nextNode.paramCount == 0 && nextNode.type == ExpressionNode.CONSTANT;
+        }
+        return false;
+    }
+
     private static boolean isTopLevelOperation(ExpressionNode node) {
         final CharSequence token = node.token;
         if (SqlKeywords.isNotKeyword(token)) {
@@ -325,6 +402,12 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         if (node.paramCount < 2) {
             return false;
         }
+        if (SqlKeywords.isInKeyword(token)) {
+            return true;
+        }
+        if (SqlKeywords.isLikeKeyword(token)) {
+            return true;
+        }
         if (Chars.equals(token, "=")) {
             return true;
         }
@@ -343,6 +426,20 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         return Chars.equals(token, ">=");
     }
 
+    private static long normalizeInSetValue(long value, int typeCode) {
+        // the backend sign-extends column values before the lookup
+        switch (typeCode) {
+            case I1_TYPE:
+                return (byte) value;
+            case I2_TYPE:
+                return (short) value;
+            case I4_TYPE:
+                return (int) value;
+            default:
+                return value;
+        }
+    }
+
     private void backfillConstant(long offset, final ExpressionNode node) throws SqlException {
         int position = node.position;
         CharSequence token = node.token;
@@ -492,6 +589,13 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         memory.putLong(0L);
     }
 
+    private void putOperand(int opcode, int type, long lo, long hi) {
+        memory.putInt(opcode);
+        memory.putInt(type);
+        memory.putLong(lo);
+        memory.putLong(hi);
+    }
+
     private void putOperand(long offset, int opcode, int type, long payload) {
         putOperand(offset, opcode, type, payload, 0L);
     }
@@ -511,6 +615,15 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         memory.putLong(0L);
     }
 
+    private void putPadding(long dataSize) {
+        final int tail = (int) (dataSize % INSTRUCTION_SIZE);
+        if (tail > 0) {
+            for (int i = tail; i < INSTRUCTION_SIZE; i++) {
+                memory.putByte((byte) 0);
+            }
+        }
+    }
+
     private void serializeBindVariable(final ExpressionNode node) throws SqlException {
         if (!predicateContext.isActive()) {
             throw SqlException.position(node.position)
@@ -692,6 +805,224 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         }
     }
 
+    /**
+     * Serializes "column in (v1, v2, ... vn)" as "column = v1 or column = v2 ... or column = vn".
+     * Constants are backfilled once the predicate is left, the same way as for plain equality.
+     * Lists longer than {@link #IN_LIST_MAX_SIZE} are serialized as a hash set lookup.
+     */
+    private void serializeIn(final ExpressionNode node) throws SqlException {
+        final ExpressionNode column = node.paramCount == 2 ? node.lhs : node.args.getLast();
+        if (column == null || column.type != ExpressionNode.LITERAL) {
+            throw SqlException.position(node.position)
+                    .put("unsupported IN operand, column expected");
+        }
+        final int columnIndex = metadata.getColumnIndexQuiet(column.token);
+        if (columnIndex == -1) {
+            throw SqlException.invalidColumn(column.position, column.token);
+        }
+        final int columnTypeTag = ColumnType.tagOf(metadata.getColumnType(columnIndex));
+        if (!isInColumnTypeSupported(columnTypeTag)) {
+            throw SqlException.position(column.position)
+                    .put("unsupported IN column type: ")
+                    .put(ColumnType.nameOf(columnTypeTag));
+        }
+
+        final int valueCount = node.paramCount - 1;
+        if (valueCount > IN_LIST_MAX_SIZE) {
+            serializeInSet(node, column, columnTypeCode(columnTypeTag));
+            return;
+        }
+        for (int i = 0; i < valueCount; i++) {
+            final ExpressionNode value = node.paramCount == 2 ? node.rhs : node.args.getQuick(valueCount - 1 - i);
+            if ((value.type == ExpressionNode.CONSTANT && value.paramCount == 0) || isNegativeConstant(value)) {
+                serializeConstantStub(value);
+            } else if (value.type == ExpressionNode.BIND_VARIABLE) {
+                serializeBindVariable(value);
+                predicateContext.onNodeVisited(value);
+            } else {
+                throw SqlException.position(value.position)
+                        .put("unsupported IN value: ")
+                        .put(value.token);
+            }
+            serializeColumn(column.position, column.token);
+            predicateContext.onNodeVisited(column);
+            putOperator(EQ);
+            if (i > 0) {
+                putOperator(OR);
+            }
+        }
+    }
+
+    /**
+     * Serializes a long "column in (v1, v2, ... vn)" list as a lookup in an open addressing
+     * hash set of the constant values. Constants are parsed the same way as in the EQ/OR chain,
+     * but right away, since the set is written as a whole. Bind variables and unknown symbols
+     * can't be hashed upfront, so they are OR-ed to the lookup as equality checks.
+     */
+    private void serializeInSet(final ExpressionNode node, final ExpressionNode column, int typeCode) throws SqlException {
+        serializeColumn(column.position, column.token);
+        predicateContext.onNodeVisited(column);
+
+        final int valueCount = node.paramCount - 1;
+        inSetValues.clear();
+        inSetVarIndexes.clear();
+        int bindVariableCount = 0;
+        for (int i = 0; i < valueCount; i++) {
+            final ExpressionNode value = node.args.getQuick(valueCount - 1 - i);
+            if (value.type == ExpressionNode.BIND_VARIABLE) {
+                bindVariableCount++;
+                continue;
+            }
+            if ((value.type != ExpressionNode.CONSTANT || value.paramCount != 0) && !isNegativeConstant(value)) {
+                throw SqlException.position(value.position)
+                        .put("unsupported IN value: ")
+                        .put(value.token);
+            }
+            // write the constant as an operand and move it to the set
+            final long offset = memory.getAppendOffset();
+            putOperand(UNDEFINED_CODE, UNDEFINED_CODE, 0);
+            backfillConstant(offset, value);
+            final int opcode = memory.getInt(offset);
+            final int type = memory.getInt(offset + Integer.BYTES);
+            final long payload = memory.getLong(offset + 2 * Integer.BYTES);
+            memory.jumpTo(offset);
+            if (opcode == VAR) {
+                // unknown symbol
+                inSetVarIndexes.add((int) payload);
+            } else if (opcode == IMM && type != F4_TYPE && type != F8_TYPE && type != I16_TYPE) {
+                inSetValues.add(normalizeInSetValue(payload, typeCode));
+            } else {
+                throw SqlException.position(value.position)
+                        .put("unsupported IN value: ")
+                        .put(value.token);
+            }
+        }
+
+        final int nonConstantCount = inSetVarIndexes.size() + bindVariableCount;
+        if (nonConstantCount > IN_LIST_MAX_SIZE) {
+            throw SqlException.position(node.position)
+                    .put("IN list has too many non-constant values [size=").put(nonConstantCount)
+                    .put(", max=").put(IN_LIST_MAX_SIZE).put(']');
+        }
+        if (inSetValues.size() > IN_SET_MAX_SIZE) {
+            throw SqlException.position(node.position)
+                    .put("IN list is too long [size=").put(inSetValues.size())
+                    .put(", max=").put(IN_SET_MAX_SIZE).put(']');
+        }
+
+        // pick the smallest value that is not in the set to mark empty slots
+        inSetValues.sort();
+        long emptySlot = Long.MIN_VALUE;
+        for (int i = 0, n = inSetValues.size(); i < n; i++) {
+            final long value = inSetValues.getQuick(i);
+            if (value > emptySlot) {
+                break;
+            }
+            if (value == emptySlot) {
+                emptySlot++;
+            }
+        }
+
+        final int capacity = Math.max(Numbers.ceilPow2(2 * inSetValues.size()), 16);
+        final int shift = 64 - Numbers.msb(capacity);
+        final int mask = capacity - 1;
+        inSetSlots.setAll(capacity, emptySlot);
+        for (int i = 0, n = inSetValues.size(); i < n; i++) {
+            final long value = inSetValues.getQuick(i);
+            int slot = (int) ((value * IN_SET_HASH_MULTIPLIER) >>> shift);
+            long slotValue;
+            while ((slotValue = inSetSlots.getQuick(slot)) != emptySlot && slotValue != value) {
+                slot = (slot + 1) & mask;
+            }
+            inSetSlots.setQuick(slot, value);
+        }
+
+        putOperand(IN_SET, typeCode, (long) capacity, emptySlot);
+        for (int i = 0; i < capacity; i++) {
+            memory.putLong(inSetSlots.getQuick(i));
+        }
+        putPadding((long) capacity * Long.BYTES);
+        // the lookup is a probing loop, there is no SIMD flavour of it
+        forceScalarMode = true;
+
+        for (int i = 0, n = inSetVarIndexes.size(); i < n; i++) {
+            putOperand(VAR, bindVariableTypeCode(ColumnType.STRING), inSetVarIndexes.getQuick(i));
+            serializeColumn(column.position, column.token);
+            putOperator(EQ);
+            putOperator(OR);
+        }
+        for (int i = 0; i < valueCount; i++) {
+            final ExpressionNode value = node.args.getQuick(valueCount - 1 - i);
+            if (value.type == ExpressionNode.BIND_VARIABLE) {
+                serializeBindVariable(value);
+                predicateContext.onNodeVisited(value);
+                serializeColumn(column.position, column.token);
+                putOperator(EQ);
+                putOperator(OR);
+            }
+        }
+    }
+
+    /**
+     * Serializes "column like 'abc'", "column like 'abc%'" and "column like '%abc'" on a string
+     * column as a single STR_MATCH instruction followed by the pattern chars. The instruction
+     * refers to both the data and the index page of the column. Other patterns are rejected,
+     * so that the Java filter is used.
+     */
+    private void serializeLike(final ExpressionNode node) throws SqlException {
+        final ExpressionNode column = node.lhs;
+        final ExpressionNode pattern = node.rhs;
+        if (column == null || column.type != ExpressionNode.LITERAL) {
+            throw SqlException.position(node.position)
+                    .put("unsupported LIKE operand, column expected");
+        }
+        final int columnIndex = metadata.getColumnIndexQuiet(column.token);
+        if (columnIndex == -1) {
+            throw SqlException.invalidColumn(column.position, column.token);
+        }
+        final int columnTypeTag = ColumnType.tagOf(metadata.getColumnType(columnIndex));
+        if (columnTypeTag != ColumnType.STRING) {
+            throw SqlException.position(column.position)
+                    .put("unsupported LIKE column type: ")
+                    .put(ColumnType.nameOf(columnTypeTag));
+        }
+        if (pattern == null || pattern.type != ExpressionNode.CONSTANT || !Chars.isQuoted(pattern.token)) {
+            throw SqlException.position(node.position)
+                    .put("unsupported LIKE pattern, string constant expected");
+        }
+
+        final CharSequence token = pattern.token;
+        int lo = 1;
+        int hi = token.length() - 1;
+        int kind = STR_MATCH_EQUALS;
+        if (hi > lo && token.charAt(hi - 1) == '%') {
+            kind = STR_MATCH_PREFIX;
+            hi--;
+        } else if (hi > lo && token.charAt(lo) == '%') {
+            kind = STR_MATCH_SUFFIX;
+            lo++;
+        }
+        final int len = hi - lo;
+        // an empty pattern matches nothing, the Java filter folds it to a constant
+        if ((kind == STR_MATCH_EQUALS && len == 0) || len > LIKE_PATTERN_MAX_LENGTH) {
+            throw SqlException.position(pattern.position).put("unsupported LIKE pattern: ").put(token);
+        }
+        for (int i = lo; i < hi; i++) {
+            final char c = token.charAt(i);
+            if (c == '%' || c == '_' || c == '\\' || c == '\'') {
+                throw SqlException.position(pattern.position).put("unsupported LIKE pattern: ").put(token);
+            }
+        }
+
+        putOperand(STR_MATCH, kind, columnIndex | ((long) varSizeColumnSlot(columnIndex) << 32), len);
+        for (int i = lo; i < hi; i++) {
+            memory.putChar(token.charAt(i));
+        }
+        putPadding((long) len * Character.BYTES);
+        // strings are matched row by row, there is no SIMD flavour of it
+        forceScalarMode = true;
+    }
+
     private void serializeNull(long offset, int position, int typeCode, PredicateType predicateType) throws SqlException {
         switch (typeCode) {
             case I1_TYPE:
@@ -912,6 +1243,21 @@ public class CompiledFilterIRSerializer implements PostOrderTreeTraversalAlgo.Vi
         throw SqlException.position(position).put("unexpected non-numeric constant: ").put(token);
     }
 
+    /**
+     * Returns the slot of the column's index page address in the columns array passed
+     * to the compiled filter. Index pages of var-size columns follow the data pages
+     * of all columns, see AsyncFilterUtils#applyCompiledFilter.
+     */
+    private int varSizeColumnSlot(int columnIndex) {
+        int slot = metadata.getColumnCount();
+        for (int i = 0; i < columnIndex; i++) {
+            if (ColumnType.isVariableLength(metadata.getColumnType(i))) {
+                slot++;
+            }
+        }
+        return slot;
+    }
+
     private enum PredicateType {
         NUMERIC, CHAR, SYMBOL, BOOLEAN, GEO_HASH, UUID, IPv4
     }
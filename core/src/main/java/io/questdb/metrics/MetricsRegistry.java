@@ -43,4 +43,6 @@ public interface MetricsRegistry extends Scrapable {
     LongGauge newLongGauge(int memoryTag);
 
     LongGauge newVirtualGauge(CharSequence name, VirtualLongGauge.StatProvider provider);
+
+    void newVirtualGauge(CharSequence name, CharSequence labelName0, VirtualLongGaugeWithOneLabel.StatProvider provider);
 }
@@ -86,6 +86,11 @@ public class MetricsRegistryImpl implements MetricsRegistry {
         return gauge;
     }
 
+    @Override
+    public void newVirtualGauge(CharSequence name, CharSequence labelName0, VirtualLongGaugeWithOneLabel.StatProvider provider) {
+        metrics.add(new VirtualLongGaugeWithOneLabel(name, labelName0, provider));
+    }
+
     @Override
     public void scrapeIntoPrometheus(CharSink sink) {
         for (int i = 0, n = metrics.size(); i < n; i++) {
@@ -69,6 +69,10 @@ public class NullMetricsRegistry implements MetricsRegistry {
         return NullLongGauge.INSTANCE;
     }
 
+    @Override
+    public void newVirtualGauge(CharSequence name, CharSequence labelName0, VirtualLongGaugeWithOneLabel.StatProvider provider) {
+    }
+
     @Override
     public void scrapeIntoPrometheus(CharSink sink) {
     }
@@ -121,10 +121,18 @@ public class BytecodeAssembler {
         putShort(0x8F);
     }
 
+    public void dadd() {
+        putByte(0x63);
+    }
+
     public void dcmpg() {
         putByte(0x98);
     }
 
+    public void ddiv() {
+        putByte(0x6f);
+    }
+
     public void defineClass(int thisClassIndex) {
         defineClass(thisClassIndex, objectClassIndex);
     }
@@ -166,6 +174,22 @@ public class BytecodeAssembler {
         putShort(0);
     }
 
+    public void dmul() {
+        putByte(0x6b);
+    }
+
+    public void dneg() {
+        putByte(0x77);
+    }
+
+    public void dreturn() {
+        putByte(0xaf);
+    }
+
+    public void dsub() {
+        putByte(0x67);
+    }
+
     public void dump(String path) {
         try (FileOutputStream fos = new FileOutputStream(path)) {
             int p = buf.position();
@@ -602,7 +626,7 @@ public class BytecodeAssembler {
     }
 
     public void putDouble(double value) {
-        if (buf.remaining() < 4) {
+        if (buf.remaining() < 8) {
             resize();
         }
         buf.putDouble(value);
@@ -626,7 +650,7 @@ public class BytecodeAssembler {
     }
 
     public void putLong(long value) {
-        if (buf.remaining() < 4) {
+        if (buf.remaining() < 8) {
             resize();
         }
         buf.putLong(value);
@@ -63,6 +63,16 @@ public class CompactCharSequenceHashSet extends AbstractCharSequenceHashSet {
         return true;
     }
 
+    public void addAll(CompactCharSequenceHashSet that) {
+        final CharSequence[] thatKeys = that.keys;
+        for (int i = 0, n = thatKeys.length; i < n; i++) {
+            final CharSequence key = thatKeys[i];
+            if (key != noEntryKey) {
+                add(key);
+            }
+        }
+    }
+
     public void addAt(int index, CharSequence key) {
         final String s = Chars.toString(key);
         keys[index] = s;
@@ -63,6 +63,16 @@ public class CompactIntHashSet extends AbstractIntHashSet {
         return true;
     }
 
+    public void addAll(CompactIntHashSet that) {
+        final int[] thatKeys = that.keys;
+        for (int i = 0, n = thatKeys.length; i < n; i++) {
+            final int key = thatKeys[i];
+            if (key != that.noEntryKeyValue) {
+                add(key);
+            }
+        }
+    }
+
     public void addAt(int index, int key) {
         keys[index] = key;
         if (--free < 1) {
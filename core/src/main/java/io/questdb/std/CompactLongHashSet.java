@@ -63,6 +63,16 @@ public class CompactLongHashSet extends AbstractLongHashSet {
         return true;
     }
 
+    public void addAll(CompactLongHashSet that) {
+        final long[] thatKeys = that.keys;
+        for (int i = 0, n = thatKeys.length; i < n; i++) {
+            final long key = thatKeys[i];
+            if (key != that.noEntryKeyValue) {
+                add(key);
+            }
+        }
+    }
+
     public void addAt(int index, long key) {
         keys[index] = key;
         if (--free < 1) {
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.std;
+
+import java.util.zip.CRC32C;
+
+/**
+ * CRC32C of native memory. The checksum is calculated by {@link CRC32C}, which the JVM
+ * compiles down to the CRC32 instructions of the CPU where available. {@link CRC32C} does not
+ * read native memory, so the memory is copied to a small heap buffer, which stays in the CPU
+ * cache, one chunk at a time.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class Crc32c {
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private final CRC32C crc = new CRC32C();
+
+    public int getValue() {
+        return (int) crc.getValue();
+    }
+
+    public void reset() {
+        crc.reset();
+    }
+
+    public void update(long address, long len) {
+        while (len > 0) {
+            final int n = (int) Math.min(len, CHUNK_SIZE);
+            Unsafe.getUnsafe().copyMemory(null, address, chunk, Unsafe.BYTE_OFFSET, n);
+            crc.update(chunk, 0, n);
+            address += n;
+            len -= n;
+        }
+    }
+}
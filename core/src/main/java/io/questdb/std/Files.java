@@ -57,6 +57,8 @@ public final class Files {
     // wasted disk read ops.
     public static final int POSIX_MADV_RANDOM;
     public static final int POSIX_MADV_SEQUENTIAL;
+    // Used to start reading pages of mapped files in the background ahead of the access.
+    public static final int POSIX_MADV_WILLNEED;
     public static final char SEPARATOR;
     public static final Charset UTF_8;
     public static final int WINDOWS_ERROR_FILE_EXISTS = 0x50;
@@ -653,11 +655,14 @@ public final class Files {
             POSIX_FADV_SEQUENTIAL = getPosixFadvSequential();
             POSIX_MADV_RANDOM = getPosixMadvRandom();
             POSIX_MADV_SEQUENTIAL = getPosixMadvSequential();
+            // the value is the same in glibc and musl, there is no native getter for it
+            POSIX_MADV_WILLNEED = 3;
         } else {
             POSIX_FADV_SEQUENTIAL = -1;
             POSIX_FADV_RANDOM = -1;
             POSIX_MADV_SEQUENTIAL = -1;
             POSIX_MADV_RANDOM = -1;
+            POSIX_MADV_WILLNEED = -1;
         }
     }
 }
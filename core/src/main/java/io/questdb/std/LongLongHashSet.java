@@ -112,6 +112,22 @@ public final class LongLongHashSet implements Mutable, Sinkable {
         return true;
     }
 
+    /**
+     * Adds all tuples of the given set to this set.
+     *
+     * @param that set to add tuples from
+     */
+    public void addAll(LongLongHashSet that) {
+        final long[] thatValues = that.values;
+        for (int i = 0, n = thatValues.length; i < n; i += 2) {
+            final long key1 = thatValues[i];
+            final long key2 = thatValues[i + 1];
+            if (key1 != that.noEntryKeyValue || key2 != that.noEntryKeyValue) {
+                add(key1, key2);
+            }
+        }
+    }
+
     /**
      * Store key1 and key2 at slot. This method does not check if slot is occupied.
      *
@@ -41,6 +41,7 @@ public final class MemoryTag {
     public static final int MMAP_TX_LOG = 53;
     public static final int MMAP_TX_LOG_CURSOR = 52;
     public static final int MMAP_UPDATE = 27;
+    public static final int NATIVE_ANALYTIC = 55;
     public static final int NATIVE_CB1 = 28;
     public static final int NATIVE_CB2 = 29;
     public static final int NATIVE_CB3 = 30;
@@ -74,13 +75,14 @@ public final class MemoryTag {
     public static final int NATIVE_REPL = 17;
     public static final int NATIVE_ROSTI = 35;
     public static final int NATIVE_SAMPLE_BY_LONG_LIST = 18;
+    public static final int NATIVE_SORT_RUNS = 56;
     public static final int NATIVE_SQL_COMPILER = 42;
     public static final int NATIVE_TABLE_READER = 25;
     public static final int NATIVE_TABLE_WRITER = 26;
     public static final int NATIVE_TEXT_PARSER_RSS = 48;
     public static final int NATIVE_TLS_RSS = 47;
     public static final int NATIVE_TREE_CHAIN = 6;
-    public static final int SIZE = NATIVE_DIRECT_BYTE_SINK + 1;
+    public static final int SIZE = NATIVE_SORT_RUNS + 1;
     private static final ObjList<String> tagNameMap = new ObjList<>(SIZE);
 
     public static String nameOf(int tag) {
@@ -140,6 +142,8 @@ public final class MemoryTag {
         tagNameMap.extendAndSet(NATIVE_FUNC_RSS, "NATIVE_FUNC_RSS");
         tagNameMap.extendAndSet(NATIVE_DIRECT_CHAR_SINK, "NATIVE_DIRECT_CHAR_SINK");
         tagNameMap.extendAndSet(NATIVE_DIRECT_BYTE_SINK, "NATIVE_DIRECT_BYTE_SINK");
+        tagNameMap.extendAndSet(NATIVE_ANALYTIC, "NATIVE_ANALYTIC");
+        tagNameMap.extendAndSet(NATIVE_SORT_RUNS, "NATIVE_SORT_RUNS");
         tagNameMap.extendAndSet(MMAP_TX_LOG_CURSOR, "MMAP_TX_LOG_CURSOR");
         tagNameMap.extendAndSet(MMAP_TX_LOG, "MMAP_TX_LOG");
         tagNameMap.extendAndSet(NATIVE_SQL_COMPILER, "NATIVE_SQL_COMPILER");
@@ -728,6 +728,8 @@ open module io.questdb {
             io.questdb.griffin.engine.functions.table.WriterPoolFunctionFactory,
             io.questdb.griffin.engine.functions.table.TableWriterMetricsFunctionFactory,
             io.questdb.griffin.engine.functions.table.MemoryMetricsFunctionFactory,
+            io.questdb.griffin.engine.functions.table.PartitionScrubStatusFunctionFactory,
+            io.questdb.griffin.engine.functions.table.ReadYourWritesFunctionFactory,
 
             // first
             io.questdb.griffin.engine.functions.groupby.FirstSymbolGroupByFunctionFactory,
@@ -768,6 +770,16 @@ open module io.questdb {
             // analytic functions
             io.questdb.griffin.engine.functions.analytic.RowNumberFunctionFactory,
             io.questdb.griffin.engine.functions.analytic.RankFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.AvgDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.CountAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.CountDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.FirstValueDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.LagDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.LastValueDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.LeadDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.MaxDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.MinDoubleAnalyticFunctionFactory,
+            io.questdb.griffin.engine.functions.analytic.SumDoubleAnalyticFunctionFactory,
 
             // metadata functions
             io.questdb.griffin.engine.functions.metadata.BuildFunctionFactory,
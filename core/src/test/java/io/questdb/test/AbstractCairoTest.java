@@ -451,7 +451,11 @@ public abstract class AbstractCairoTest extends AbstractTest {
         TestFilesFacadeImpl.resetTracking();
         memoryUsage = -1;
         forEachNode(QuestDBTestNode::setUpGriffin);
+        sqlExecutionContext.setParallelAsOfJoinEnabled(configuration.isSqlParallelAsOfJoinEnabled());
         sqlExecutionContext.setParallelFilterEnabled(configuration.isSqlParallelFilterEnabled());
+        sqlExecutionContext.setParallelGroupByEnabled(configuration.isSqlParallelGroupByEnabled());
+        sqlExecutionContext.setParallelHashJoinEnabled(configuration.isSqlParallelHashJoinEnabled());
+        sqlExecutionContext.setParallelSortEnabled(configuration.isSqlParallelSortEnabled());
     }
 
     @After
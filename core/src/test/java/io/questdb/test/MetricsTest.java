@@ -101,6 +101,19 @@ public class MetricsTest {
         TestUtils.assertContains(sink, "jvm_unknown_gc_time");
     }
 
+    @Test
+    public void testMetricNamesContainWalApplyLag() {
+        Metrics metrics = new Metrics(true, new MetricsRegistryImpl());
+
+        StringSink sink = new StringSink();
+        metrics.scrapeIntoPrometheus(sink);
+
+        TestUtils.assertContains(sink, "# TYPE questdb_wal_apply_lag_txns gauge");
+        TestUtils.assertContains(sink, "# TYPE questdb_wal_apply_lag_rows gauge");
+        TestUtils.assertContains(sink, "# TYPE questdb_wal_apply_lag_bytes gauge");
+        TestUtils.assertContains(sink, "# TYPE questdb_wal_apply_lag_age_micros gauge");
+    }
+
     @Test
     public void testMetricUniqueness() {
         SpyingMetricsRegistry metricsRegistry = new SpyingMetricsRegistry();
@@ -183,6 +196,13 @@ public class MetricsTest {
             return delegate.newVirtualGauge(name, provider);
         }
 
+        @Override
+        public void newVirtualGauge(CharSequence name, CharSequence labelName0, VirtualLongGaugeWithOneLabel.StatProvider provider) {
+            addMetricName(name);
+            addLabelNames(name, Collections.singletonList(labelName0));
+            delegate.newVirtualGauge(name, labelName0, provider);
+        }
+
         @Override
         public void scrapeIntoPrometheus(CharSink sink) {
             delegate.scrapeIntoPrometheus(sink);
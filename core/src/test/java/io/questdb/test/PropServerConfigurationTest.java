@@ -37,6 +37,7 @@ import io.questdb.network.NetworkFacadeImpl;
 import io.questdb.network.SelectFacadeImpl;
 import io.questdb.std.*;
 import io.questdb.std.datetime.microtime.MicrosecondClockImpl;
+import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.datetime.millitime.MillisecondClockImpl;
 import io.questdb.std.str.StringSink;
 import io.questdb.test.tools.TestUtils;
@@ -239,6 +240,7 @@ public class PropServerConfigurationTest {
         Assert.assertTrue(configuration.getCairoConfiguration().isSqlParallelFilterPreTouchEnabled());
         Assert.assertEquals(1_000_000, configuration.getCairoConfiguration().getSqlPageFrameMaxRows());
         Assert.assertEquals(1000, configuration.getCairoConfiguration().getSqlPageFrameMinRows());
+        Assert.assertEquals(2, configuration.getCairoConfiguration().getSqlPageFrameReadAheadCount());
         Assert.assertEquals(4, configuration.getCairoConfiguration().getPageFrameReduceShardCount());
         Assert.assertEquals(64, configuration.getCairoConfiguration().getPageFrameReduceQueueCapacity());
         Assert.assertEquals(256, configuration.getCairoConfiguration().getPageFrameReduceRowIdListCapacity());
@@ -276,6 +278,7 @@ public class PropServerConfigurationTest {
 
         Assert.assertEquals("", configuration.getCairoConfiguration().getSnapshotInstanceId());
         Assert.assertTrue(configuration.getCairoConfiguration().isSnapshotRecoveryEnabled());
+        Assert.assertFalse(configuration.getCairoConfiguration().isSnapshotHardLinkEnabled());
 
         // assert mime types
         TestUtils.assertEquals("application/json", configuration.getHttpServerConfiguration().getStaticContentProcessorConfiguration().getMimeTypesCache().get("json"));
@@ -398,12 +401,27 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(200_000, configuration.getCairoConfiguration().getWalSegmentRolloverRowCount());
         Assert.assertEquals(20.0d, configuration.getCairoConfiguration().getWalSquashUncommittedRowsMultiplier(), 0.00001);
         Assert.assertEquals(20, configuration.getCairoConfiguration().getWalMaxLagTxnCount());
+        Assert.assertTrue(configuration.getCairoConfiguration().isWalApplyBatchEnabled());
+        Assert.assertEquals(0, configuration.getCairoConfiguration().getWalBackpressureTxnLag());
+        Assert.assertEquals(1000, configuration.getCairoConfiguration().getWalBackpressureDelay());
+        Assert.assertFalse(configuration.getCairoConfiguration().isWalSegmentCompressionEnabled());
         Assert.assertEquals(1048576, configuration.getCairoConfiguration().getWalDataAppendPageSize());
         Assert.assertTrue(configuration.getCairoConfiguration().isTableTypeConversionEnabled());
 
 
         Assert.assertEquals(20, configuration.getCairoConfiguration().getO3LastPartitionMaxSplits());
         Assert.assertEquals(50 * Numbers.SIZE_1MB, configuration.getCairoConfiguration().getPartitionO3SplitMinSize());
+        Assert.assertEquals(8, configuration.getCairoConfiguration().getO3MidPartitionMaxSplits());
+        Assert.assertEquals(30_000_000, configuration.getCairoConfiguration().getO3PartitionSquashQuietPeriod());
+        Assert.assertTrue(configuration.getCairoConfiguration().isZoneMapEnabled());
+        Assert.assertEquals(65536, configuration.getCairoConfiguration().getZoneMapBlockRowCount());
+        Assert.assertFalse(configuration.getCairoConfiguration().isColumnChecksumEnabled());
+        Assert.assertEquals(65536, configuration.getCairoConfiguration().getColumnChecksumBlockRowCount());
+        Assert.assertEquals(16 * Numbers.SIZE_1MB, configuration.getCairoConfiguration().getColumnScrubRate());
+        Assert.assertEquals(Timestamps.DAY_MICROS, configuration.getCairoConfiguration().getColumnScrubInterval());
+        Assert.assertNull(configuration.getCairoConfiguration().getPartitionTieringVolumePath());
+        Assert.assertEquals(7 * Timestamps.DAY_MICROS, configuration.getCairoConfiguration().getPartitionTieringAge());
+        Assert.assertEquals(60_000_000, configuration.getCairoConfiguration().getPartitionTieringCheckInterval());
     }
 
     @Test
@@ -892,6 +910,30 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(PartitionBy.YEAR, configuration.getLineUdpReceiverConfiguration().getDefaultPartitionBy());
     }
 
+    @Test
+    public void testPartitionTieringVolume() throws Exception {
+        File volume = temp.newFolder("cold");
+        try {
+            Properties properties = new Properties();
+            sink.clear();
+            loadVolumePath("cold", volume.getAbsolutePath());
+            properties.setProperty(PropertyKey.CAIRO_VOLUMES.getPropertyPath(), sink.toString());
+            properties.setProperty(PropertyKey.CAIRO_PARTITION_TIERING_VOLUME.getPropertyPath(), "COLD");
+            CairoConfiguration cairoConfig = newPropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder()).getCairoConfiguration();
+            TestUtils.assertEquals(cairoConfig.getVolumeDefinitions().resolveAlias("cold"), cairoConfig.getPartitionTieringVolumePath());
+
+            properties.setProperty(PropertyKey.CAIRO_PARTITION_TIERING_VOLUME.getPropertyPath(), "banana");
+            try {
+                newPropServerConfiguration(root, properties, null, LOG, new BuildInformationHolder());
+                Assert.fail();
+            } catch (ServerConfigurationException e) {
+                TestUtils.assertContains(e.getMessage(), "unknown volume alias, value=banana");
+            }
+        } finally {
+            Assert.assertTrue(volume.delete());
+        }
+    }
+
     @Test
     public void testSetAllFromFile() throws Exception {
         try (InputStream is = PropServerConfigurationTest.class.getResourceAsStream("/server.conf")) {
@@ -984,6 +1026,7 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(3, configuration.getCairoConfiguration().getFloatToStrCastScale());
             Assert.assertEquals("test-id-42", configuration.getCairoConfiguration().getSnapshotInstanceId());
             Assert.assertFalse(configuration.getCairoConfiguration().isSnapshotRecoveryEnabled());
+            Assert.assertTrue(configuration.getCairoConfiguration().isSnapshotHardLinkEnabled());
 
             Assert.assertEquals(CommitMode.ASYNC, configuration.getCairoConfiguration().getCommitMode());
             Assert.assertEquals(12, configuration.getCairoConfiguration().getCreateAsSelectRetryCount());
@@ -1078,6 +1121,7 @@ public class PropServerConfigurationTest {
             Assert.assertFalse(configuration.getCairoConfiguration().isSqlParallelFilterPreTouchEnabled());
             Assert.assertEquals(1000, configuration.getCairoConfiguration().getSqlPageFrameMaxRows());
             Assert.assertEquals(100, configuration.getCairoConfiguration().getSqlPageFrameMinRows());
+            Assert.assertEquals(4, configuration.getCairoConfiguration().getSqlPageFrameReadAheadCount());
             Assert.assertEquals(128, configuration.getCairoConfiguration().getPageFrameReduceShardCount());
             Assert.assertEquals(1024, configuration.getCairoConfiguration().getPageFrameReduceQueueCapacity());
             Assert.assertEquals(8, configuration.getCairoConfiguration().getPageFrameReduceRowIdListCapacity());
@@ -1203,11 +1247,25 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(100, configuration.getCairoConfiguration().getWalSegmentRolloverRowCount());
             Assert.assertEquals(42.2d, configuration.getCairoConfiguration().getWalSquashUncommittedRowsMultiplier(), 0.00001);
             Assert.assertEquals(4242, configuration.getCairoConfiguration().getWalMaxLagTxnCount());
+            Assert.assertFalse(configuration.getCairoConfiguration().isWalApplyBatchEnabled());
+            Assert.assertEquals(500, configuration.getCairoConfiguration().getWalBackpressureTxnLag());
+            Assert.assertEquals(250, configuration.getCairoConfiguration().getWalBackpressureDelay());
+            Assert.assertTrue(configuration.getCairoConfiguration().isWalSegmentCompressionEnabled());
             Assert.assertEquals(262144, configuration.getCairoConfiguration().getWalDataAppendPageSize());
 
             Assert.assertEquals(1, configuration.getCairoConfiguration().getO3LastPartitionMaxSplits());
             final long TB = (long) Numbers.SIZE_1MB * Numbers.SIZE_1MB;
             Assert.assertEquals(TB, configuration.getCairoConfiguration().getPartitionO3SplitMinSize());
+            Assert.assertEquals(1, configuration.getCairoConfiguration().getO3MidPartitionMaxSplits());
+            Assert.assertEquals(5_000_000, configuration.getCairoConfiguration().getO3PartitionSquashQuietPeriod());
+            Assert.assertFalse(configuration.getCairoConfiguration().isZoneMapEnabled());
+            Assert.assertEquals(4096, configuration.getCairoConfiguration().getZoneMapBlockRowCount());
+            Assert.assertTrue(configuration.getCairoConfiguration().isColumnChecksumEnabled());
+            Assert.assertEquals(4096, configuration.getCairoConfiguration().getColumnChecksumBlockRowCount());
+            Assert.assertEquals(Numbers.SIZE_1MB, configuration.getCairoConfiguration().getColumnScrubRate());
+            Assert.assertEquals(Timestamps.HOUR_MICROS, configuration.getCairoConfiguration().getColumnScrubInterval());
+            Assert.assertEquals(Timestamps.HOUR_MICROS, configuration.getCairoConfiguration().getPartitionTieringAge());
+            Assert.assertEquals(1_000_000, configuration.getCairoConfiguration().getPartitionTieringCheckInterval());
         }
     }
 
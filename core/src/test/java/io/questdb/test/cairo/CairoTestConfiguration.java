@@ -77,6 +77,11 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getCircuitBreakerConfiguration() != null ? overrides.getCircuitBreakerConfiguration() : super.getCircuitBreakerConfiguration();
     }
 
+    @Override
+    public int getColumnChecksumBlockRowCount() {
+        return overrides.getColumnChecksumBlockRowCount() < 0 ? super.getColumnChecksumBlockRowCount() : overrides.getColumnChecksumBlockRowCount();
+    }
+
     @Override
     public int getColumnPurgeQueueCapacity() {
         return overrides.getColumnVersionPurgeQueueCapacity() < 0 ? super.getColumnPurgeQueueCapacity() : overrides.getColumnVersionPurgeQueueCapacity();
@@ -178,6 +183,16 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getO3MinLag() >= 0 ? overrides.getO3MinLag() : super.getO3MinLag();
     }
 
+    @Override
+    public int getO3MidPartitionMaxSplits() {
+        return overrides.getO3MidPartitionMaxSplits() >= 0 ? overrides.getO3MidPartitionMaxSplits() : super.getO3MidPartitionMaxSplits();
+    }
+
+    @Override
+    public long getO3PartitionSquashQuietPeriod() {
+        return overrides.getO3PartitionSquashQuietPeriod() >= 0 ? overrides.getO3PartitionSquashQuietPeriod() : super.getO3PartitionSquashQuietPeriod();
+    }
+
     @Override
     public int getPageFrameReduceQueueCapacity() {
         return overrides.getPageFrameReduceQueueCapacity() < 0 ? super.getPageFrameReduceQueueCapacity() : overrides.getPageFrameReduceQueueCapacity();
@@ -199,6 +214,16 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return 512;
     }
 
+    @Override
+    public long getPartitionTieringAge() {
+        return overrides.getPartitionTieringAge() > -1L ? overrides.getPartitionTieringAge() : super.getPartitionTieringAge();
+    }
+
+    @Override
+    public CharSequence getPartitionTieringVolumePath() {
+        return overrides.getPartitionTieringVolumePath() != null ? overrides.getPartitionTieringVolumePath() : super.getPartitionTieringVolumePath();
+    }
+
     @Override
     public int getQueryCacheEventQueueCapacity() {
         return overrides.getQueryCacheEventQueueCapacity() < 0 ? super.getQueryCacheEventQueueCapacity() : overrides.getQueryCacheEventQueueCapacity();
@@ -274,11 +299,26 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getSqlJoinMetadataPageSize() > -1 ? overrides.getSqlJoinMetadataPageSize() : super.getSqlJoinMetadataPageSize();
     }
 
+    @Override
+    public long getSqlSortMemoryBudget() {
+        return overrides.getSqlSortMemoryBudget() > -1 ? overrides.getSqlSortMemoryBudget() : super.getSqlSortMemoryBudget();
+    }
+
+    @Override
+    public long getSqlSortSpillMaxSize() {
+        return overrides.getSqlSortSpillMaxSize() > -1 ? overrides.getSqlSortSpillMaxSize() : super.getSqlSortSpillMaxSize();
+    }
+
     @Override
     public int getSqlPageFrameMaxRows() {
         return overrides.getPageFrameMaxRows() < 0 ? super.getSqlPageFrameMaxRows() : overrides.getPageFrameMaxRows();
     }
 
+    @Override
+    public int getSqlPageFrameReadAheadCount() {
+        return overrides.getPageFrameReadAheadCount() < 0 ? super.getSqlPageFrameReadAheadCount() : overrides.getPageFrameReadAheadCount();
+    }
+
     @Override
     public int getTableRegistryCompactionThreshold() {
         return overrides.getTableRegistryCompactionThreshold() > 0 ? overrides.getTableRegistryCompactionThreshold() : super.getTableRegistryCompactionThreshold();
@@ -299,6 +339,16 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getWalApplyTableTimeQuota() >= 0 ? overrides.getWalApplyTableTimeQuota() : super.getWalApplyTableTimeQuota();
     }
 
+    @Override
+    public long getWalBackpressureDelay() {
+        return overrides.getWalBackpressureDelay() >= 0 ? overrides.getWalBackpressureDelay() : super.getWalBackpressureDelay();
+    }
+
+    @Override
+    public long getWalBackpressureTxnLag() {
+        return overrides.getWalBackpressureTxnLag() >= 0 ? overrides.getWalBackpressureTxnLag() : super.getWalBackpressureTxnLag();
+    }
+
     @Override
     public boolean getWalEnabledDefault() {
         return overrides.getDefaultTableWriteMode() < 0 ? super.getWalEnabledDefault() : overrides.getDefaultTableWriteMode() == 1;
@@ -349,6 +399,16 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.getWriterCommandQueueSlotSize();
     }
 
+    @Override
+    public int getZoneMapBlockRowCount() {
+        return overrides.getZoneMapBlockRowCount() < 0 ? super.getZoneMapBlockRowCount() : overrides.getZoneMapBlockRowCount();
+    }
+
+    @Override
+    public boolean isColumnChecksumEnabled() {
+        return overrides.isColumnChecksumEnabled() != null ? overrides.isColumnChecksumEnabled() : super.isColumnChecksumEnabled();
+    }
+
     @Override
     public boolean isIOURingEnabled() {
         return overrides.isIoURingEnabled() != null ? overrides.isIoURingEnabled() : super.isIOURingEnabled();
@@ -364,11 +424,21 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.isO3QuickSortEnabled();
     }
 
+    @Override
+    public boolean isSnapshotHardLinkEnabled() {
+        return overrides.getSnapshotHardLinkEnabled() == null ? super.isSnapshotHardLinkEnabled() : overrides.getSnapshotHardLinkEnabled();
+    }
+
     @Override
     public boolean isSnapshotRecoveryEnabled() {
         return overrides.getSnapshotRecoveryEnabled() == null ? super.isSnapshotRecoveryEnabled() : overrides.getSnapshotRecoveryEnabled();
     }
 
+    @Override
+    public boolean isSqlParallelAsOfJoinEnabled() {
+        return overrides.isParallelAsOfJoinEnabled() != null ? overrides.isParallelAsOfJoinEnabled() : super.isSqlParallelAsOfJoinEnabled();
+    }
+
     @Override
     public boolean isSqlParallelFilterEnabled() {
         return overrides.isParallelFilterEnabled() != null ? overrides.isParallelFilterEnabled() : super.isSqlParallelFilterEnabled();
@@ -379,11 +449,41 @@ public class CairoTestConfiguration extends DefaultTestCairoConfiguration {
         return overrides.isColumnPreTouchEnabled() != null ? overrides.isColumnPreTouchEnabled() : super.isSqlParallelFilterPreTouchEnabled();
     }
 
+    @Override
+    public boolean isSqlParallelGroupByEnabled() {
+        return overrides.isParallelGroupByEnabled() != null ? overrides.isParallelGroupByEnabled() : super.isSqlParallelGroupByEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return overrides.isParallelHashJoinEnabled() != null ? overrides.isParallelHashJoinEnabled() : super.isSqlParallelHashJoinEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelSortEnabled() {
+        return overrides.isParallelSortEnabled() != null ? overrides.isParallelSortEnabled() : super.isSqlParallelSortEnabled();
+    }
+
+    @Override
+    public boolean isWalApplyBatchEnabled() {
+        return overrides.isWalApplyBatchEnabled() != null ? overrides.isWalApplyBatchEnabled() : super.isWalApplyBatchEnabled();
+    }
+
+    @Override
+    public boolean isWalSegmentCompressionEnabled() {
+        return overrides.isWalSegmentCompressionEnabled() != null ? overrides.isWalSegmentCompressionEnabled() : super.isWalSegmentCompressionEnabled();
+    }
+
     @Override
     public boolean isWriterMixedIOEnabled() {
         return overrides.isWriterMixedIOEnabled() != null ? overrides.isWriterMixedIOEnabled() : super.isWriterMixedIOEnabled();
     }
 
+    @Override
+    public boolean isZoneMapEnabled() {
+        return overrides.isZoneMapEnabled() != null ? overrides.isZoneMapEnabled() : super.isZoneMapEnabled();
+    }
+
     @Override
     public boolean mangleTableDirNames() {
         return overrides.mangleTableDirNames();
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnCompressor;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.vm.MemoryCMORCompressedImpl;
+import io.questdb.cairo.vm.MemoryCMRCompressedImpl;
+import io.questdb.cairo.vm.api.MemoryCMOR;
+import io.questdb.cairo.vm.api.MemoryCMR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractTest;
+import io.questdb.test.std.TestFilesFacadeImpl;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnCompressorTest extends AbstractTest {
+    private static final int BLOCK_SIZE = 4096;
+    private static final FilesFacade FF = TestFilesFacadeImpl.INSTANCE;
+    private static final Log LOG = LogFactory.getLog(ColumnCompressorTest.class);
+
+    @Test
+    public void testCorruptFile() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try (
+                    Path src = new Path().of(root).concat("x.d").$();
+                    Path dst = new Path().of(root).concat("x.d.z").$();
+                    ColumnCompressor compressor = new ColumnCompressor(BLOCK_SIZE);
+                    MemoryCMR mem = new MemoryCMRCompressedImpl(MemoryTag.NATIVE_DEFAULT)
+            ) {
+                final Rnd rnd = new Rnd();
+                final long size = 3 * BLOCK_SIZE;
+                final long address = Unsafe.malloc(size, MemoryTag.NATIVE_DEFAULT);
+                try {
+                    for (long i = 0; i < size; i += Long.BYTES) {
+                        Unsafe.getUnsafe().putLong(address + i, rnd.nextLong(1000));
+                    }
+                    writeFile(src, address, size);
+                } finally {
+                    Unsafe.free(address, size, MemoryTag.NATIVE_DEFAULT);
+                }
+                final long compressedSize = compressor.compress(FF, src, dst, ColumnCompressor.CODEC_DEFLATE);
+
+                // cut the last block short
+                final int fd = TableUtils.openRW(FF, dst, LOG, 0);
+                try {
+                    Assert.assertTrue(FF.truncate(fd, compressedSize - 10));
+                } finally {
+                    FF.close(fd);
+                }
+                try {
+                    mem.of(FF, dst, 0, -1, MemoryTag.MMAP_DEFAULT);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "corrupt compressed column file");
+                }
+                Assert.assertEquals(-1, mem.getFd());
+            }
+        });
+    }
+
+    @Test
+    public void testDeflate() throws Exception {
+        final Rnd rnd = new Rnd();
+        // strings of a small alphabet
+        assertRoundTrip(ColumnCompressor.CODEC_DEFLATE, 5 * BLOCK_SIZE + 13, (address, size) -> {
+            for (long i = 0; i < size; i++) {
+                Unsafe.getUnsafe().putByte(address + i, (byte) ('a' + rnd.nextInt(4)));
+            }
+        }, true);
+    }
+
+    @Test
+    public void testDelta() throws Exception {
+        final Rnd rnd = new Rnd();
+        assertRoundTrip(ColumnCompressor.CODEC_DELTA, 7 * BLOCK_SIZE + 64, (address, size) -> {
+            long timestamp = 1_577_836_800_000_000L;
+            for (long i = 0; i < size; i += Long.BYTES) {
+                timestamp += rnd.nextInt(3) * 1_000_000L;
+                Unsafe.getUnsafe().putLong(address + i, timestamp);
+            }
+        }, true);
+    }
+
+    @Test
+    public void testDelta128() throws Exception {
+        // (timestamp, row index) pairs of WAL designated timestamp column
+        final Rnd rnd = new Rnd();
+        assertRoundTrip(ColumnCompressor.CODEC_DELTA_128, 3 * BLOCK_SIZE + 48, (address, size) -> {
+            long timestamp = 1_577_836_800_000_000L;
+            for (long i = 0; i < size; i += 2 * Long.BYTES) {
+                timestamp += rnd.nextInt(3) * 1_000L;
+                Unsafe.getUnsafe().putLong(address + i, timestamp);
+                Unsafe.getUnsafe().putLong(address + i + Long.BYTES, i >> 4);
+            }
+        }, true);
+    }
+
+    @Test
+    public void testDeltaExtremeValues() throws Exception {
+        final Rnd rnd = new Rnd();
+        assertRoundTrip(ColumnCompressor.CODEC_DELTA, 2 * BLOCK_SIZE, (address, size) -> {
+            for (long i = 0; i < size; i += Long.BYTES) {
+                final long value;
+                switch (rnd.nextInt(3)) {
+                    case 0:
+                        value = Long.MIN_VALUE;
+                        break;
+                    case 1:
+                        value = Long.MAX_VALUE;
+                        break;
+                    default:
+                        value = rnd.nextLong();
+                        break;
+                }
+                Unsafe.getUnsafe().putLong(address + i, value);
+            }
+        }, false);
+    }
+
+    @Test
+    public void testDeltaFallsBackToDeflate() throws Exception {
+        // size is not a multiple of 8
+        final Rnd rnd = new Rnd();
+        assertRoundTrip(ColumnCompressor.CODEC_DELTA, BLOCK_SIZE + 3, (address, size) -> {
+            for (long i = 0; i < size; i++) {
+                Unsafe.getUnsafe().putByte(address + i, rnd.nextByte());
+            }
+        }, false);
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        assertRoundTrip(ColumnCompressor.CODEC_DEFLATE, 0, (address, size) -> {
+        }, false);
+    }
+
+    private static void assertRoundTrip(int codec, long size, FileContent content, boolean compressible) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final long expected = Unsafe.malloc(Math.max(size, 1), MemoryTag.NATIVE_DEFAULT);
+            try (
+                    Path src = new Path().of(root).concat("x.d").$();
+                    Path dst = new Path().of(root).concat("x.d.z").$();
+                    ColumnCompressor compressor = new ColumnCompressor(BLOCK_SIZE);
+                    MemoryCMR mem = new MemoryCMRCompressedImpl(MemoryTag.NATIVE_DEFAULT);
+                    MemoryCMOR rangeMem = new MemoryCMORCompressedImpl(MemoryTag.NATIVE_DEFAULT)
+            ) {
+                content.fill(expected, size);
+                writeFile(src, expected, size);
+                final long compressedSize = compressor.compress(FF, src, dst, codec);
+                Assert.assertEquals(compressedSize, FF.length(dst));
+                if (compressible) {
+                    Assert.assertTrue(compressedSize < size / 2);
+                }
+
+                // reopen to make sure the buffer is reused
+                for (int i = 0; i < 2; i++) {
+                    mem.of(FF, dst, 0, -1, MemoryTag.MMAP_DEFAULT);
+                    Assert.assertEquals(size, mem.size());
+                    for (long offset = 0; offset < size; offset++) {
+                        Assert.assertEquals(Unsafe.getUnsafe().getByte(expected + offset), mem.getByte(offset));
+                    }
+                }
+
+                // blocks are decompressed on access, page address of a range is readable within the range
+                mem.of(FF, dst, 0, -1, MemoryTag.MMAP_DEFAULT);
+                final long pageLo = size / 3;
+                final long pageHi = Math.min(size, pageLo + BLOCK_SIZE + 1);
+                long pageAddress = mem.getPageAddress(pageLo, pageHi);
+                for (long offset = pageLo; offset < pageHi; offset++) {
+                    Assert.assertEquals(Unsafe.getUnsafe().getByte(expected + offset), Unsafe.getUnsafe().getByte(pageAddress + offset));
+                }
+                pageAddress = mem.getPageAddress(0);
+                for (long offset = 0; offset < size; offset++) {
+                    Assert.assertEquals(Unsafe.getUnsafe().getByte(expected + offset), Unsafe.getUnsafe().getByte(pageAddress + offset));
+                }
+
+                // smaller size is visible until memory is extended
+                if (size > 16) {
+                    mem.of(FF, dst, 0, 16, MemoryTag.MMAP_DEFAULT);
+                    Assert.assertEquals(16, mem.size());
+                    mem.extend(size);
+                    Assert.assertEquals(size, mem.size());
+                }
+                try {
+                    mem.extend(size + 1);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "compressed column file is too short");
+                }
+
+                // ranges, as WAL apply maps them, decompress only the blocks they overlap
+                final long[] ranges = {0, size, size / 3, size / 2, BLOCK_SIZE - 1, BLOCK_SIZE + 1, size - 5, size, 7, 7};
+                for (int r = 0; r < ranges.length; r += 2) {
+                    final long lo = Math.max(0, Math.min(ranges[r], size));
+                    final long hi = Math.max(lo, Math.min(ranges[r + 1], size));
+                    rangeMem.ofOffset(FF, dst, lo, hi, MemoryTag.MMAP_DEFAULT);
+                    Assert.assertEquals(lo, rangeMem.getOffset());
+                    Assert.assertEquals(hi - lo, rangeMem.size());
+                    for (long offset = lo; offset < hi; offset++) {
+                        Assert.assertEquals(Unsafe.getUnsafe().getByte(expected + offset), rangeMem.getByte(offset));
+                    }
+                }
+            } finally {
+                Unsafe.free(expected, Math.max(size, 1), MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
+    private static void writeFile(Path path, long address, long size) {
+        final int fd = TableUtils.openRW(FF, path, LOG, 0);
+        try {
+            Assert.assertTrue(FF.truncate(fd, 0));
+            Assert.assertEquals(size, FF.write(fd, address, size, 0));
+        } finally {
+            FF.close(fd);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FileContent {
+        void fill(long address, long size);
+    }
+}
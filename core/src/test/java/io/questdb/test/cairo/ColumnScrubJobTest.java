@@ -0,0 +1,245 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo;
+
+import io.questdb.cairo.*;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnScrubJobTest extends AbstractCairoTest {
+    private static final String STATUS_QUERY = "select table_name, partition_ts, status, corrupt_blocks, unverified_columns, corrupt_column from partition_scrub_status()";
+    private long now;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        node1.getConfigurationOverrides().setColumnChecksumEnabled(true);
+        node1.getConfigurationOverrides().setColumnChecksumBlockRowCount(256);
+        now = 0;
+        node1.getConfigurationOverrides().setCurrentMicros(now);
+    }
+
+    @Test
+    public void testCorruptBlock() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            try (ColumnScrubJob job = new ColumnScrubJob(engine)) {
+                scrub(job);
+                corrupt("x", 1, 100);
+
+                // the next pass starts once the interval has passed
+                now += configuration.getColumnScrubInterval();
+                scrub(job);
+            }
+            assertSql(
+                    "table_name\tpartition_ts\tstatus\tcorrupt_blocks\tunverified_columns\tcorrupt_column\n" +
+                            "x\t2020-01-01T00:00:00.000000Z\tok\t0\t0\t\n" +
+                            "x\t2020-01-02T00:00:00.000000Z\tcorrupt\t1\t0\tx\n",
+                    STATUS_QUERY
+            );
+        });
+    }
+
+    @Test
+    public void testDroppedTable() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            try (ColumnScrubJob job = new ColumnScrubJob(engine)) {
+                scrub(job);
+                drop("drop table x");
+                now += configuration.getColumnScrubInterval();
+                scrub(job);
+            }
+            assertSql("table_name\tpartition_ts\tstatus\tcorrupt_blocks\tunverified_columns\tcorrupt_column\n", STATUS_QUERY);
+        });
+    }
+
+    @Test
+    public void testNoChecksums() throws Exception {
+        node1.getConfigurationOverrides().setColumnChecksumEnabled(false);
+        assertMemoryLeak(() -> {
+            createTable();
+            engine.releaseAllWriters();
+            node1.getConfigurationOverrides().setColumnChecksumEnabled(true);
+            insert("insert into x values (0, 'abc', '2020-01-03T12:00:00.000000Z')");
+
+            try (ColumnScrubJob job = new ColumnScrubJob(engine)) {
+                scrub(job);
+            }
+            // partitions written before checksums were enabled are not verified
+            assertSql(
+                    "table_name\tpartition_ts\tstatus\tcorrupt_blocks\tunverified_columns\tcorrupt_column\n" +
+                            "x\t2020-01-01T00:00:00.000000Z\tunverified\t0\t3\t\n" +
+                            "x\t2020-01-02T00:00:00.000000Z\tunverified\t0\t3\t\n",
+                    STATUS_QUERY
+            );
+        });
+    }
+
+    @Test
+    public void testO3Merge() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            // rewrites the first partition, the checksums are rewritten along with it
+            insert("insert into x values (-1, 'abc', '2020-01-01T12:00:00.500000Z')");
+            corrupt("s", 1, 2000);
+
+            try (ColumnScrubJob job = new ColumnScrubJob(engine)) {
+                scrub(job);
+            }
+            assertSql(
+                    "table_name\tpartition_ts\tstatus\tcorrupt_blocks\tunverified_columns\tcorrupt_column\n" +
+                            "x\t2020-01-01T00:00:00.000000Z\tok\t0\t0\t\n" +
+                            "x\t2020-01-02T00:00:00.000000Z\tcorrupt\t1\t0\ts\n",
+                    STATUS_QUERY
+            );
+        });
+    }
+
+    @Test
+    public void testO3MergeTail() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            // checksums of the blocks below the merge point are carried over to the new partition version
+            insert("insert into x values (-1, 'abc', '2020-01-01T23:00:00.500000Z')");
+            insert("insert into x values (-2, 'abcd', '2020-01-01T23:30:00.500000Z')");
+            corrupt("x", 0, 800);
+
+            try (ColumnScrubJob job = new ColumnScrubJob(engine)) {
+                scrub(job);
+            }
+            assertSql(
+                    "table_name\tpartition_ts\tstatus\tcorrupt_blocks\tunverified_columns\tcorrupt_column\n" +
+                            "x\t2020-01-01T00:00:00.000000Z\tcorrupt\t1\t0\tx\n" +
+                            "x\t2020-01-02T00:00:00.000000Z\tok\t0\t0\t\n",
+                    STATUS_QUERY
+            );
+        });
+    }
+
+    @Test
+    public void testOk() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            try (ColumnScrubJob job = new ColumnScrubJob(engine)) {
+                scrub(job);
+            }
+            // the last partition is not verified
+            assertSql(
+                    "table_name\tpartition_ts\tstatus\tcorrupt_blocks\tunverified_columns\tcorrupt_column\n" +
+                            "x\t2020-01-01T00:00:00.000000Z\tok\t0\t0\t\n" +
+                            "x\t2020-01-02T00:00:00.000000Z\tok\t0\t0\t\n",
+                    STATUS_QUERY
+            );
+        });
+    }
+
+    @Test
+    public void testRate() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            try (ColumnScrubJob job = new ColumnScrubJob(engine)) {
+                // no reads without the budget
+                Assert.assertFalse(job.run(0));
+                assertSql("count\n0\n", "select count() from partition_scrub_status()");
+                scrub(job);
+            }
+            assertSql(
+                    "count\n" +
+                            "2\n",
+                    "select count() from partition_scrub_status() where status = 'ok'"
+            );
+        });
+    }
+
+    @Test
+    public void testSplitPartition() throws Exception {
+        node1.getConfigurationOverrides().setPartitionO3SplitThreshold(100);
+        assertMemoryLeak(() -> {
+            createTable();
+            // the partition is truncated in place, its checksums are truncated along with it
+            insert("insert into x select -x, 'zz', timestamp_sequence('2020-01-01T23:00:00.5', 60000000L) from long_sequence(10)");
+            insert("insert into x select -x, 'yy', timestamp_sequence('2020-01-01T23:30:00.5', 60000000L) from long_sequence(10)");
+
+            try (ColumnScrubJob job = new ColumnScrubJob(engine)) {
+                scrub(job);
+            }
+            assertSql(
+                    "table_name\tpartition_ts\tstatus\tcorrupt_blocks\tunverified_columns\tcorrupt_column\n" +
+                            "x\t2020-01-01T00:00:00.000000Z\tok\t0\t0\t\n" +
+                            "x\t2020-01-01T23:00:00.000001Z\tok\t0\t0\t\n" +
+                            "x\t2020-01-02T00:00:00.000000Z\tok\t0\t0\t\n",
+                    STATUS_QUERY
+            );
+        });
+    }
+
+    private static void createTable() throws Exception {
+        ddl("create table x as (" +
+                "select x, rnd_str(2, 10, 1) s, timestamp_sequence('2020-01-01', 60000000L) ts from long_sequence(4320)" +
+                ") timestamp(ts) partition by DAY");
+    }
+
+    // overwrites bytes of the data file of the column in the partition
+    private static void corrupt(String columnName, int partitionIndex, long offset) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        final TableToken tableToken = engine.verifyTableName("x");
+        try (Path path = new Path(); TableReader reader = engine.getReader(tableToken)) {
+            final TxReader txFile = reader.getTxFile();
+            path.of(configuration.getRoot()).concat(tableToken);
+            TableUtils.setPathForPartition(path, reader.getPartitionedBy(), txFile.getPartitionTimestampByIndex(partitionIndex), txFile.getPartitionNameTxn(partitionIndex));
+            final TableReaderMetadata metadata = reader.getMetadata();
+            final long columnNameTxn = reader.getColumnVersionReader().getColumnNameTxn(
+                    txFile.getPartitionTimestampByIndex(partitionIndex),
+                    metadata.getWriterIndex(metadata.getColumnIndex(columnName))
+            );
+            final int fd = ff.openRW(TableUtils.dFile(path, columnName, columnNameTxn), configuration.getWriterFileOpenOpts());
+            Assert.assertTrue(fd > -1);
+            final long buf = Unsafe.malloc(Long.BYTES, MemoryTag.NATIVE_DEFAULT);
+            try {
+                Unsafe.getUnsafe().putLong(buf, 0x5555555555555555L);
+                Assert.assertEquals(Long.BYTES, ff.write(fd, buf, Long.BYTES, offset));
+            } finally {
+                Unsafe.free(buf, Long.BYTES, MemoryTag.NATIVE_DEFAULT);
+                ff.close(fd);
+            }
+        }
+    }
+
+    // runs the job until the pass is over, the clock is moved forward to refill the read budget
+    private void scrub(ColumnScrubJob job) {
+        do {
+            now += Timestamps.SECOND_MICROS;
+            node1.getConfigurationOverrides().setCurrentMicros(now);
+        } while (job.run(0));
+    }
+}
@@ -45,6 +45,8 @@ public interface ConfigurationOverrides {
 
     SqlExecutionCircuitBreakerConfiguration getCircuitBreakerConfiguration();
 
+    int getColumnChecksumBlockRowCount();
+
     long getColumnPurgeRetryDelay();
 
     int getColumnVersionPurgeQueueCapacity();
@@ -83,10 +85,16 @@ public interface ConfigurationOverrides {
 
     long getO3MinLag();
 
+    int getO3MidPartitionMaxSplits();
+
     int getO3PartitionSplitMaxCount();
 
+    long getO3PartitionSquashQuietPeriod();
+
     int getPageFrameMaxRows();
 
+    int getPageFrameReadAheadCount();
+
     int getPageFrameReduceQueueCapacity();
 
     int getPageFrameReduceShardCount();
@@ -95,6 +103,10 @@ public interface ConfigurationOverrides {
 
     long getPartitionO3SplitThreshold();
 
+    long getPartitionTieringAge();
+
+    CharSequence getPartitionTieringVolumePath();
+
     int getQueryCacheEventQueueCapacity();
 
     int getRecreateDistressedSequencerAttempts();
@@ -111,6 +123,8 @@ public interface ConfigurationOverrides {
 
     String getSnapshotInstanceId();
 
+    Boolean getSnapshotHardLinkEnabled();
+
     Boolean getSnapshotRecoveryEnabled();
 
     long getSpinLockTimeout();
@@ -121,12 +135,20 @@ public interface ConfigurationOverrides {
 
     int getSqlJoinMetadataPageSize();
 
+    long getSqlSortMemoryBudget();
+
+    long getSqlSortSpillMaxSize();
+
     int getTableRegistryCompactionThreshold();
 
     MicrosecondClock getTestMicrosClock();
 
     long getWalApplyTableTimeQuota();
 
+    long getWalBackpressureDelay();
+
+    long getWalBackpressureTxnLag();
+
     int getWalMaxLagTxnCount();
 
     long getWalPurgeInterval();
@@ -143,6 +165,10 @@ public interface ConfigurationOverrides {
 
     long getWriterCommandQueueSlotSize();
 
+    int getZoneMapBlockRowCount();
+
+    Boolean isColumnChecksumEnabled();
+
     Boolean isColumnPreTouchEnabled();
 
     boolean isHidingTelemetryTable();
@@ -151,10 +177,24 @@ public interface ConfigurationOverrides {
 
     boolean isO3QuickSortEnabled();
 
+    Boolean isParallelAsOfJoinEnabled();
+
     Boolean isParallelFilterEnabled();
 
+    Boolean isParallelGroupByEnabled();
+
+    Boolean isParallelHashJoinEnabled();
+
+    Boolean isParallelSortEnabled();
+
+    Boolean isWalApplyBatchEnabled();
+
+    Boolean isWalSegmentCompressionEnabled();
+
     Boolean isWriterMixedIOEnabled();
 
+    Boolean isZoneMapEnabled();
+
     boolean mangleTableDirNames();
 
     void reset();
@@ -171,6 +211,10 @@ public interface ConfigurationOverrides {
 
     void setCircuitBreakerConfiguration(SqlExecutionCircuitBreakerConfiguration circuitBreakerConfiguration);
 
+    void setColumnChecksumBlockRowCount(int columnChecksumBlockRowCount);
+
+    void setColumnChecksumEnabled(Boolean columnChecksumEnabled);
+
     void setColumnPreTouchEnabled(Boolean columnPreTouchEnabled);
 
     void setColumnPurgeRetryDelay(long columnPurgeRetryDelay);
@@ -217,22 +261,40 @@ public interface ConfigurationOverrides {
 
     void setO3MinLag(long minLag);
 
+    void setO3MidPartitionMaxSplits(int o3MidPartitionMaxSplits);
+
     void setO3PartitionSplitMaxCount(int o3PartitionSplitMaxCount);
 
+    void setO3PartitionSquashQuietPeriod(long o3PartitionSquashQuietPeriod);
+
     void setO3QuickSortEnabled(boolean o3QuickSortEnabled);
 
     void setPageFrameMaxRows(int pageFrameMaxRows);
 
+    void setPageFrameReadAheadCount(int pageFrameReadAheadCount);
+
     void setPageFrameReduceQueueCapacity(int pageFrameReduceQueueCapacity);
 
     void setPageFrameReduceShardCount(int pageFrameReduceShardCount);
 
+    void setParallelAsOfJoinEnabled(Boolean parallelAsOfJoinEnabled);
+
     void setParallelFilterEnabled(Boolean parallelFilterEnabled);
 
+    void setParallelGroupByEnabled(Boolean parallelGroupByEnabled);
+
+    void setParallelHashJoinEnabled(Boolean parallelHashJoinEnabled);
+
+    void setParallelSortEnabled(Boolean parallelSortEnabled);
+
     void setParallelImportStatusLogKeepNDays(int parallelImportStatusLogKeepNDays);
 
     void setPartitionO3SplitThreshold(long value);
 
+    void setPartitionTieringAge(long partitionTieringAge);
+
+    void setPartitionTieringVolumePath(CharSequence partitionTieringVolumePath);
+
     void setQueryCacheEventQueueCapacity(int queryCacheEventQueueCapacity);
 
     void setRecreateDistressedSequencerAttempts(int recreateDistressedSequencerAttempts);
@@ -251,6 +313,8 @@ public interface ConfigurationOverrides {
 
     void setSnapshotInstanceId(String snapshotInstanceId);
 
+    void setSnapshotHardLinkEnabled(Boolean snapshotHardLinkEnabled);
+
     void setSnapshotRecoveryEnabled(Boolean snapshotRecoveryEnabled);
 
     void setSpinLockTimeout(long spinLockTimeout);
@@ -261,14 +325,26 @@ public interface ConfigurationOverrides {
 
     void setSqlJoinMetadataPageSize(int sqlJoinMetadataPageSize);
 
+    void setSqlSortMemoryBudget(long sqlSortMemoryBudget);
+
+    void setSqlSortSpillMaxSize(long sqlSortSpillMaxSize);
+
     void setTestMicrosClock(MicrosecondClock testMicrosClock);
 
+    void setWalApplyBatchEnabled(Boolean walApplyBatchEnabled);
+
     void setWalApplyTableTimeQuota(long walApplyTableTimeQuota);
 
+    void setWalBackpressureDelay(long walBackpressureDelay);
+
+    void setWalBackpressureTxnLag(long walBackpressureTxnLag);
+
     void setWalMaxLagTxnCount(int walMaxLagTxnCount);
 
     void setWalPurgeInterval(long walPurgeInterval);
 
+    void setWalSegmentCompressionEnabled(Boolean walSegmentCompressionEnabled);
+
     void setWalSegmentRolloverRowCount(long walSegmentRolloverRowCount);
 
     void setWalTxnNotificationQueueCapacity(int walTxnNotificationQueueCapacity);
@@ -282,4 +358,8 @@ public interface ConfigurationOverrides {
     void setWriterCommandQueueSlotSize(long writerCommandQueueSlotSize);
 
     void setWriterMixedIOEnabled(Boolean writerMixedIOEnabled);
+
+    void setZoneMapBlockRowCount(int zoneMapBlockRowCount);
+
+    void setZoneMapEnabled(Boolean zoneMapEnabled);
 }
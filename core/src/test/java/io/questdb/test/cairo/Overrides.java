@@ -41,6 +41,8 @@ public class Overrides implements ConfigurationOverrides {
     private int binaryEncodingMaxLength = -1;
     private int capacity = -1;
     private SqlExecutionCircuitBreakerConfiguration circuitBreakerConfiguration;
+    private int columnChecksumBlockRowCount = -1;
+    private Boolean columnChecksumEnabled = null;
     private Boolean columnPreTouchEnabled = null;
     private long columnPurgeRetryDelay = -1;
     private int columnVersionPurgeQueueCapacity = -1;
@@ -65,15 +67,24 @@ public class Overrides implements ConfigurationOverrides {
     private int maxUncommittedRows = -1;
     private int o3ColumnMemorySize = -1;
     private long o3MaxLag = -1;
+    private int o3MidPartitionMaxSplits = -1;
     private long o3MinLag = -1;
     private int o3PartitionSplitMaxCount = -1;
+    private long o3PartitionSquashQuietPeriod = -1;
     private boolean o3QuickSortEnabled = false;
     private int pageFrameMaxRows = -1;
+    private int pageFrameReadAheadCount = -1;
     private int pageFrameReduceQueueCapacity = -1;
     private int pageFrameReduceShardCount = -1;
+    private Boolean parallelAsOfJoinEnabled = null;
     private Boolean parallelFilterEnabled = null;
+    private Boolean parallelGroupByEnabled = null;
+    private Boolean parallelHashJoinEnabled = null;
+    private Boolean parallelSortEnabled = null;
     private int parallelImportStatusLogKeepNDays = -1;
     private long partitionO3SplitThreshold;
+    private long partitionTieringAge = -1;
+    private CharSequence partitionTieringVolumePath = null;
     private int queryCacheEventQueueCapacity = -1;
     private int recreateDistressedSequencerAttempts = 3;
     private int repeatMigrationsFromVersion = -1;
@@ -82,15 +93,22 @@ public class Overrides implements ConfigurationOverrides {
     private RostiAllocFacade rostiAllocFacade = null;
     private int sampleByIndexSearchPageSize;
     private String snapshotInstanceId = null;
+    private Boolean snapshotHardLinkEnabled = null;
     private Boolean snapshotRecoveryEnabled = null;
     private long spinLockTimeout = -1;
     private int sqlCopyBufferSize = 1024 * 1024;
     private int sqlJoinMetadataMaxResizes = -1;
     private int sqlJoinMetadataPageSize = -1;
+    private long sqlSortMemoryBudget = -1;
+    private long sqlSortSpillMaxSize = -1;
     private int tableRegistryCompactionThreshold;
+    private Boolean walApplyBatchEnabled = null;
     private long walApplyTableTimeQuota = -1;
+    private long walBackpressureDelay = -1;
+    private long walBackpressureTxnLag = -1;
     private int walMaxLagTxnCount = -1;
     private long walPurgeInterval = -1;
+    private Boolean walSegmentCompressionEnabled = null;
     private long walSegmentRolloverRowCount = -1;
     private int walTxnNotificationQueueCapacity = -1;
     private long writerAsyncCommandBusyWaitTimeout = -1;
@@ -98,6 +116,8 @@ public class Overrides implements ConfigurationOverrides {
     private int writerCommandQueueCapacity = 4;
     private long writerCommandQueueSlotSize = 2048L;
     private Boolean writerMixedIOEnabled = null;
+    private int zoneMapBlockRowCount = -1;
+    private Boolean zoneMapEnabled = null;
 
     @Override
     public String getAttachableDirSuffix() {
@@ -129,6 +149,11 @@ public class Overrides implements ConfigurationOverrides {
         return circuitBreakerConfiguration;
     }
 
+    @Override
+    public int getColumnChecksumBlockRowCount() {
+        return columnChecksumBlockRowCount;
+    }
+
     @Override
     public long getColumnPurgeRetryDelay() {
         return columnPurgeRetryDelay;
@@ -224,16 +249,31 @@ public class Overrides implements ConfigurationOverrides {
         return o3MinLag;
     }
 
+    @Override
+    public int getO3MidPartitionMaxSplits() {
+        return o3MidPartitionMaxSplits;
+    }
+
     @Override
     public int getO3PartitionSplitMaxCount() {
         return o3PartitionSplitMaxCount;
     }
 
+    @Override
+    public long getO3PartitionSquashQuietPeriod() {
+        return o3PartitionSquashQuietPeriod;
+    }
+
     @Override
     public int getPageFrameMaxRows() {
         return pageFrameMaxRows;
     }
 
+    @Override
+    public int getPageFrameReadAheadCount() {
+        return pageFrameReadAheadCount;
+    }
+
     @Override
     public int getPageFrameReduceQueueCapacity() {
         return pageFrameReduceQueueCapacity;
@@ -254,6 +294,16 @@ public class Overrides implements ConfigurationOverrides {
         return partitionO3SplitThreshold;
     }
 
+    @Override
+    public long getPartitionTieringAge() {
+        return partitionTieringAge;
+    }
+
+    @Override
+    public CharSequence getPartitionTieringVolumePath() {
+        return partitionTieringVolumePath;
+    }
+
     @Override
     public int getQueryCacheEventQueueCapacity() {
         return queryCacheEventQueueCapacity;
@@ -294,6 +344,11 @@ public class Overrides implements ConfigurationOverrides {
         return snapshotInstanceId;
     }
 
+    @Override
+    public Boolean getSnapshotHardLinkEnabled() {
+        return snapshotHardLinkEnabled;
+    }
+
     @Override
     public Boolean getSnapshotRecoveryEnabled() {
         return snapshotRecoveryEnabled;
@@ -319,6 +374,16 @@ public class Overrides implements ConfigurationOverrides {
         return sqlJoinMetadataPageSize;
     }
 
+    @Override
+    public long getSqlSortMemoryBudget() {
+        return sqlSortMemoryBudget;
+    }
+
+    @Override
+    public long getSqlSortSpillMaxSize() {
+        return sqlSortSpillMaxSize;
+    }
+
     @Override
     public int getTableRegistryCompactionThreshold() {
         return tableRegistryCompactionThreshold;
@@ -334,6 +399,16 @@ public class Overrides implements ConfigurationOverrides {
         return walApplyTableTimeQuota;
     }
 
+    @Override
+    public long getWalBackpressureDelay() {
+        return walBackpressureDelay;
+    }
+
+    @Override
+    public long getWalBackpressureTxnLag() {
+        return walBackpressureTxnLag;
+    }
+
     @Override
     public int getWalMaxLagTxnCount() {
         return walMaxLagTxnCount;
@@ -374,6 +449,16 @@ public class Overrides implements ConfigurationOverrides {
         return writerCommandQueueSlotSize;
     }
 
+    @Override
+    public int getZoneMapBlockRowCount() {
+        return zoneMapBlockRowCount;
+    }
+
+    @Override
+    public Boolean isColumnChecksumEnabled() {
+        return columnChecksumEnabled;
+    }
+
     @Override
     public Boolean isColumnPreTouchEnabled() {
         return columnPreTouchEnabled;
@@ -394,16 +479,51 @@ public class Overrides implements ConfigurationOverrides {
         return o3QuickSortEnabled;
     }
 
+    @Override
+    public Boolean isParallelAsOfJoinEnabled() {
+        return parallelAsOfJoinEnabled;
+    }
+
     @Override
     public Boolean isParallelFilterEnabled() {
         return parallelFilterEnabled;
     }
 
+    @Override
+    public Boolean isParallelGroupByEnabled() {
+        return parallelGroupByEnabled;
+    }
+
+    @Override
+    public Boolean isParallelHashJoinEnabled() {
+        return parallelHashJoinEnabled;
+    }
+
+    @Override
+    public Boolean isParallelSortEnabled() {
+        return parallelSortEnabled;
+    }
+
+    @Override
+    public Boolean isWalApplyBatchEnabled() {
+        return walApplyBatchEnabled;
+    }
+
+    @Override
+    public Boolean isWalSegmentCompressionEnabled() {
+        return walSegmentCompressionEnabled;
+    }
+
     @Override
     public Boolean isWriterMixedIOEnabled() {
         return writerMixedIOEnabled;
     }
 
+    @Override
+    public Boolean isZoneMapEnabled() {
+        return zoneMapEnabled;
+    }
+
     @Override
     public boolean mangleTableDirNames() {
         return mangleTableDirNames;
@@ -415,6 +535,8 @@ public class Overrides implements ConfigurationOverrides {
         maxUncommittedRows = -1;
         o3MaxLag = -1;
         o3MinLag = -1;
+        o3MidPartitionMaxSplits = -1;
+        o3PartitionSquashQuietPeriod = -1;
         currentMicros = -1;
         testMicrosClock = defaultMicrosecondClock;
         sampleByIndexSearchPageSize = -1;
@@ -422,14 +544,26 @@ public class Overrides implements ConfigurationOverrides {
         writerAsyncCommandBusyWaitTimeout = -1;
         writerAsyncCommandMaxTimeout = -1;
         pageFrameMaxRows = -1;
+        pageFrameReadAheadCount = -1;
+        partitionTieringAge = -1;
+        partitionTieringVolumePath = null;
         jitMode = SqlJitMode.JIT_MODE_ENABLED;
         rndFunctionMemoryPageSize = -1;
         rndFunctionMemoryMaxPages = -1;
         spinLockTimeout = -1;
         snapshotInstanceId = null;
         snapshotRecoveryEnabled = null;
+        snapshotHardLinkEnabled = null;
+        parallelAsOfJoinEnabled = null;
         parallelFilterEnabled = null;
+        parallelGroupByEnabled = null;
+        parallelHashJoinEnabled = null;
+        parallelSortEnabled = null;
         writerMixedIOEnabled = null;
+        zoneMapEnabled = null;
+        zoneMapBlockRowCount = -1;
+        columnChecksumEnabled = null;
+        columnChecksumBlockRowCount = -1;
         columnPreTouchEnabled = null;
         writerCommandQueueCapacity = 4;
         queryCacheEventQueueCapacity = -1;
@@ -441,6 +575,8 @@ public class Overrides implements ConfigurationOverrides {
         sqlCopyBufferSize = 1024 * 1024;
         sqlJoinMetadataPageSize = -1;
         sqlJoinMetadataMaxResizes = -1;
+        sqlSortMemoryBudget = -1;
+        sqlSortSpillMaxSize = -1;
         ioURingEnabled = null;
         parallelImportStatusLogKeepNDays = -1;
         defaultTableWriteMode = SqlWalMode.WAL_NOT_SET;
@@ -455,7 +591,11 @@ public class Overrides implements ConfigurationOverrides {
         tableRegistryCompactionThreshold = -1;
         maxOpenPartitions = -1;
         walApplyTableTimeQuota = -1;
+        walApplyBatchEnabled = null;
+        walBackpressureDelay = -1;
+        walBackpressureTxnLag = -1;
         walMaxLagTxnCount = -1;
+        walSegmentCompressionEnabled = null;
         repeatMigrationsFromVersion = -1;
         factoryProvider = null;
     }
@@ -490,6 +630,16 @@ public class Overrides implements ConfigurationOverrides {
         this.circuitBreakerConfiguration = circuitBreakerConfiguration;
     }
 
+    @Override
+    public void setColumnChecksumBlockRowCount(int columnChecksumBlockRowCount) {
+        this.columnChecksumBlockRowCount = columnChecksumBlockRowCount;
+    }
+
+    @Override
+    public void setColumnChecksumEnabled(Boolean columnChecksumEnabled) {
+        this.columnChecksumEnabled = columnChecksumEnabled;
+    }
+
     @Override
     public void setColumnPreTouchEnabled(Boolean columnPreTouchEnabled) {
         this.columnPreTouchEnabled = columnPreTouchEnabled;
@@ -605,11 +755,21 @@ public class Overrides implements ConfigurationOverrides {
         o3MinLag = minLag;
     }
 
+    @Override
+    public void setO3MidPartitionMaxSplits(int o3MidPartitionMaxSplits) {
+        this.o3MidPartitionMaxSplits = o3MidPartitionMaxSplits;
+    }
+
     @Override
     public void setO3PartitionSplitMaxCount(int o3PartitionSplitMaxCount) {
         this.o3PartitionSplitMaxCount = o3PartitionSplitMaxCount;
     }
 
+    @Override
+    public void setO3PartitionSquashQuietPeriod(long o3PartitionSquashQuietPeriod) {
+        this.o3PartitionSquashQuietPeriod = o3PartitionSquashQuietPeriod;
+    }
+
     @Override
     public void setO3QuickSortEnabled(boolean o3QuickSortEnabled) {
         this.o3QuickSortEnabled = o3QuickSortEnabled;
@@ -620,6 +780,11 @@ public class Overrides implements ConfigurationOverrides {
         this.pageFrameMaxRows = pageFrameMaxRows;
     }
 
+    @Override
+    public void setPageFrameReadAheadCount(int pageFrameReadAheadCount) {
+        this.pageFrameReadAheadCount = pageFrameReadAheadCount;
+    }
+
     @Override
     public void setPageFrameReduceQueueCapacity(int pageFrameReduceQueueCapacity) {
         this.pageFrameReduceQueueCapacity = pageFrameReduceQueueCapacity;
@@ -630,11 +795,31 @@ public class Overrides implements ConfigurationOverrides {
         this.pageFrameReduceShardCount = pageFrameReduceShardCount;
     }
 
+    @Override
+    public void setParallelAsOfJoinEnabled(Boolean parallelAsOfJoinEnabled) {
+        this.parallelAsOfJoinEnabled = parallelAsOfJoinEnabled;
+    }
+
     @Override
     public void setParallelFilterEnabled(Boolean parallelFilterEnabled) {
         this.parallelFilterEnabled = parallelFilterEnabled;
     }
 
+    @Override
+    public void setParallelGroupByEnabled(Boolean parallelGroupByEnabled) {
+        this.parallelGroupByEnabled = parallelGroupByEnabled;
+    }
+
+    @Override
+    public void setParallelHashJoinEnabled(Boolean parallelHashJoinEnabled) {
+        this.parallelHashJoinEnabled = parallelHashJoinEnabled;
+    }
+
+    @Override
+    public void setParallelSortEnabled(Boolean parallelSortEnabled) {
+        this.parallelSortEnabled = parallelSortEnabled;
+    }
+
     @Override
     public void setParallelImportStatusLogKeepNDays(int parallelImportStatusLogKeepNDays) {
         this.parallelImportStatusLogKeepNDays = parallelImportStatusLogKeepNDays;
@@ -645,6 +830,16 @@ public class Overrides implements ConfigurationOverrides {
         this.partitionO3SplitThreshold = value;
     }
 
+    @Override
+    public void setPartitionTieringAge(long partitionTieringAge) {
+        this.partitionTieringAge = partitionTieringAge;
+    }
+
+    @Override
+    public void setPartitionTieringVolumePath(CharSequence partitionTieringVolumePath) {
+        this.partitionTieringVolumePath = partitionTieringVolumePath;
+    }
+
     @Override
     public void setQueryCacheEventQueueCapacity(int queryCacheEventQueueCapacity) {
         this.queryCacheEventQueueCapacity = queryCacheEventQueueCapacity;
@@ -690,6 +885,11 @@ public class Overrides implements ConfigurationOverrides {
         this.snapshotInstanceId = snapshotInstanceId;
     }
 
+    @Override
+    public void setSnapshotHardLinkEnabled(Boolean snapshotHardLinkEnabled) {
+        this.snapshotHardLinkEnabled = snapshotHardLinkEnabled;
+    }
+
     @Override
     public void setSnapshotRecoveryEnabled(Boolean snapshotRecoveryEnabled) {
         this.snapshotRecoveryEnabled = snapshotRecoveryEnabled;
@@ -715,16 +915,41 @@ public class Overrides implements ConfigurationOverrides {
         this.sqlJoinMetadataPageSize = sqlJoinMetadataPageSize;
     }
 
+    @Override
+    public void setSqlSortMemoryBudget(long sqlSortMemoryBudget) {
+        this.sqlSortMemoryBudget = sqlSortMemoryBudget;
+    }
+
+    @Override
+    public void setSqlSortSpillMaxSize(long sqlSortSpillMaxSize) {
+        this.sqlSortSpillMaxSize = sqlSortSpillMaxSize;
+    }
+
     @Override
     public void setTestMicrosClock(MicrosecondClock testMicrosClock) {
         this.testMicrosClock = testMicrosClock;
     }
 
+    @Override
+    public void setWalApplyBatchEnabled(Boolean walApplyBatchEnabled) {
+        this.walApplyBatchEnabled = walApplyBatchEnabled;
+    }
+
     @Override
     public void setWalApplyTableTimeQuota(long walApplyTableTimeQuota) {
         this.walApplyTableTimeQuota = walApplyTableTimeQuota;
     }
 
+    @Override
+    public void setWalBackpressureDelay(long walBackpressureDelay) {
+        this.walBackpressureDelay = walBackpressureDelay;
+    }
+
+    @Override
+    public void setWalBackpressureTxnLag(long walBackpressureTxnLag) {
+        this.walBackpressureTxnLag = walBackpressureTxnLag;
+    }
+
     public void setWalMaxLagTxnCount(int walMaxLagTxnCount) {
         this.walMaxLagTxnCount = walMaxLagTxnCount;
     }
@@ -734,6 +959,11 @@ public class Overrides implements ConfigurationOverrides {
         this.walPurgeInterval = walPurgeInterval;
     }
 
+    @Override
+    public void setWalSegmentCompressionEnabled(Boolean walSegmentCompressionEnabled) {
+        this.walSegmentCompressionEnabled = walSegmentCompressionEnabled;
+    }
+
     @Override
     public void setWalSegmentRolloverRowCount(long walSegmentRolloverRowCount) {
         this.walSegmentRolloverRowCount = walSegmentRolloverRowCount;
@@ -768,4 +998,14 @@ public class Overrides implements ConfigurationOverrides {
     public void setWriterMixedIOEnabled(Boolean writerMixedIOEnabled) {
         this.writerMixedIOEnabled = writerMixedIOEnabled;
     }
+
+    @Override
+    public void setZoneMapBlockRowCount(int zoneMapBlockRowCount) {
+        this.zoneMapBlockRowCount = zoneMapBlockRowCount;
+    }
+
+    @Override
+    public void setZoneMapEnabled(Boolean zoneMapEnabled) {
+        this.zoneMapEnabled = zoneMapEnabled;
+    }
 }
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo;
+
+import io.questdb.cairo.*;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.griffin.engine.functions.geohash.GeoHashNative;
+import io.questdb.griffin.engine.table.LatestByArguments;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.questdb.cairo.TableUtils.COLUMN_NAME_TXN_NONE;
+
+public class PostingIndexTest extends AbstractCairoTest {
+    private static final int KEY_COUNT = 100;
+    private static final int ROW_COUNT = 100_000;
+    private Path path;
+    private Path postingPath;
+
+    @Override
+    @Before
+    public void setUp() {
+        path = new Path().of(configuration.getRoot());
+        postingPath = new Path().of(configuration.getRoot()).concat("posting").slash$();
+        super.setUp();
+        Assert.assertEquals(0, configuration.getFilesFacade().mkdirs(postingPath, configuration.getMkDirMode()));
+        postingPath.of(configuration.getRoot()).concat("posting");
+    }
+
+    @Override
+    @After
+    public void tearDown() throws Exception {
+        path = Misc.free(path);
+        postingPath = Misc.free(postingPath);
+        super.tearDown();
+    }
+
+    @Test
+    public void testBitmapIndexIsNotPostingIndex() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createBitmapIndex(new Rnd());
+            final int plen = path.length();
+            Assert.assertFalse(PostingIndexUtils.isPostingIndex(configuration.getFilesFacade(), BitmapIndexUtils.keyFileName(path, "x", COLUMN_NAME_TXN_NONE)));
+            try {
+                new PostingIndexFwdReader(configuration, path.trimTo(plen), "x", COLUMN_NAME_TXN_NONE, 0);
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "Unknown format");
+            }
+        });
+    }
+
+    @Test
+    public void testConvert() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createBitmapIndex(new Rnd());
+            final long bitmapSize = indexSize(path);
+            final long postingSize = convert();
+            Assert.assertEquals(postingSize, indexSize(postingPath));
+            // row ids of a key are close to each other, deltas take a byte or two
+            Assert.assertTrue(postingSize * 3 < bitmapSize);
+
+            final FilesFacade ff = configuration.getFilesFacade();
+            final int plen = postingPath.length();
+            Assert.assertTrue(PostingIndexUtils.isPostingIndex(ff, BitmapIndexUtils.keyFileName(postingPath, "x", COLUMN_NAME_TXN_NONE)));
+            postingPath.trimTo(plen);
+        });
+    }
+
+    @Test
+    public void testCursors() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final Rnd rnd = new Rnd();
+            createBitmapIndex(rnd);
+            convert();
+            assertCursors(rnd, 0);
+            // column top
+            assertCursors(rnd, 10);
+        });
+    }
+
+    @Test
+    public void testFrameCursor() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final Rnd rnd = new Rnd();
+            createBitmapIndex(rnd);
+            convert();
+            final LongList expected = new LongList();
+            final LongList actual = new LongList();
+            try (
+                    BitmapIndexFwdReader bitmapReader = new BitmapIndexFwdReader(configuration, path, "x", COLUMN_NAME_TXN_NONE, 0);
+                    PostingIndexFwdReader postingReader = new PostingIndexFwdReader(configuration, postingPath, "x", COLUMN_NAME_TXN_NONE, 0)
+            ) {
+                for (int i = 0; i < 100; i++) {
+                    final int key = rnd.nextInt(KEY_COUNT + 2);
+                    final long lo = rnd.nextLong(ROW_COUNT);
+                    final long hi = lo + rnd.nextLong(ROW_COUNT / 10);
+                    expected.clear();
+                    final RowCursor cursor = bitmapReader.getCursor(true, key, lo, hi);
+                    while (cursor.hasNext()) {
+                        expected.add(cursor.next());
+                    }
+
+                    actual.clear();
+                    final IndexFrameCursor frameCursor = postingReader.getFrameCursor(key, lo, hi);
+                    for (IndexFrame frame = frameCursor.getNext(); frame.getSize() > 0; frame = frameCursor.getNext()) {
+                        for (long j = 0; j < frame.getSize(); j++) {
+                            actual.add(Unsafe.getUnsafe().getLong(frame.getAddress() + j * Long.BYTES));
+                        }
+                    }
+                    TestUtils.assertEquals(expected, actual);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testLatestByScan() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            createBitmapIndex(new Rnd());
+            convert();
+            try (
+                    BitmapIndexBwdReader bitmapReader = new BitmapIndexBwdReader(configuration, path, "x", COLUMN_NAME_TXN_NONE, 0);
+                    PostingIndexBwdReader postingReader = new PostingIndexBwdReader(configuration, postingPath, "x", COLUMN_NAME_TXN_NONE, 0)
+            ) {
+                Assert.assertEquals(bitmapReader.getKeyCount(), postingReader.getKeyCount());
+                Assert.assertEquals(bitmapReader.getValueBlockCapacity(), postingReader.getValueBlockCapacity());
+                final long maxValue = ROW_COUNT / 2;
+                TestUtils.assertEquals(latestScan(bitmapReader, maxValue), latestScan(postingReader, maxValue));
+            }
+        });
+    }
+
+    private static LongList latestScan(BitmapIndexReader reader, long maxValue) {
+        final int keyCount = reader.getKeyCount();
+        final LongList result = new LongList();
+        try (DirectLongList rows = new DirectLongList(keyCount, MemoryTag.NATIVE_LONG_LIST)) {
+            rows.setCapacity(keyCount);
+            rows.setPos(rows.getCapacity());
+            GeoHashNative.iota(rows.getAddress(), rows.getCapacity(), 0);
+
+            final long argsAddress = LatestByArguments.allocateMemory();
+            try {
+                LatestByArguments.setRowsAddress(argsAddress, rows.getAddress());
+                LatestByArguments.setRowsCapacity(argsAddress, rows.getCapacity());
+                LatestByArguments.setKeyLo(argsAddress, 0);
+                LatestByArguments.setKeyHi(argsAddress, keyCount);
+                LatestByArguments.setRowsSize(argsAddress, 0);
+                BitmapIndexUtilsNative.latestScanBackward(
+                        reader.getKeyBaseAddress(),
+                        reader.getKeyMemorySize(),
+                        reader.getValueBaseAddress(),
+                        reader.getValueMemorySize(),
+                        argsAddress,
+                        reader.getUnIndexedNullCount(),
+                        maxValue,
+                        0,
+                        0,
+                        reader.getValueBlockCapacity()
+                );
+                for (long i = 0, n = LatestByArguments.getRowsSize(argsAddress); i < n; i++) {
+                    result.add(Rows.toLocalRowID(rows.get(i) - 1));
+                }
+            } finally {
+                LatestByArguments.releaseMemory(argsAddress);
+            }
+        }
+        result.sort();
+        return result;
+    }
+
+    private void assertCursors(Rnd rnd, long unIndexedNullCount) {
+        final LongList expected = new LongList();
+        final LongList actual = new LongList();
+        try (
+                BitmapIndexFwdReader bitmapFwdReader = new BitmapIndexFwdReader(configuration, path, "x", COLUMN_NAME_TXN_NONE, unIndexedNullCount);
+                BitmapIndexBwdReader bitmapBwdReader = new BitmapIndexBwdReader(configuration, path, "x", COLUMN_NAME_TXN_NONE, unIndexedNullCount);
+                PostingIndexFwdReader postingFwdReader = new PostingIndexFwdReader(configuration, postingPath, "x", COLUMN_NAME_TXN_NONE, unIndexedNullCount);
+                PostingIndexBwdReader postingBwdReader = new PostingIndexBwdReader(configuration, postingPath, "x", COLUMN_NAME_TXN_NONE, unIndexedNullCount)
+        ) {
+            Assert.assertEquals(bitmapFwdReader.getKeyCount(), postingFwdReader.getKeyCount());
+            for (int key = 0; key < KEY_COUNT + 2; key++) {
+                assertCursor(expected, actual, bitmapFwdReader, postingFwdReader, key, 0, Long.MAX_VALUE);
+                assertCursor(expected, actual, bitmapBwdReader, postingBwdReader, key, 0, Long.MAX_VALUE);
+            }
+            for (int i = 0; i < 1000; i++) {
+                final int key = rnd.nextInt(KEY_COUNT + 2);
+                final long lo = rnd.nextLong(ROW_COUNT);
+                final long hi = lo + rnd.nextLong(ROW_COUNT / 10);
+                assertCursor(expected, actual, bitmapFwdReader, postingFwdReader, key, lo, hi);
+                assertCursor(expected, actual, bitmapBwdReader, postingBwdReader, key, lo, hi);
+            }
+        }
+    }
+
+    private void assertCursor(LongList expected, LongList actual, BitmapIndexReader bitmapReader, BitmapIndexReader postingReader, int key, long lo, long hi) {
+        expected.clear();
+        RowCursor cursor = bitmapReader.getCursor(true, key, lo, hi);
+        while (cursor.hasNext()) {
+            expected.add(cursor.next());
+        }
+        actual.clear();
+        cursor = postingReader.getCursor(false, key, lo, hi);
+        while (cursor.hasNext()) {
+            actual.add(cursor.next());
+        }
+        TestUtils.assertEquals(expected, actual);
+    }
+
+    private long convert() {
+        try (PostingIndexWriter writer = new PostingIndexWriter(configuration)) {
+            return writer.convert(path, postingPath, "x", COLUMN_NAME_TXN_NONE);
+        }
+    }
+
+    private long indexSize(Path dir) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        final int plen = dir.length();
+        try {
+            return ff.length(BitmapIndexUtils.keyFileName(dir, "x", COLUMN_NAME_TXN_NONE))
+                    + ff.length(BitmapIndexUtils.valueFileName(dir.trimTo(plen), "x", COLUMN_NAME_TXN_NONE));
+        } finally {
+            dir.trimTo(plen);
+        }
+    }
+
+    private void createBitmapIndex(Rnd rnd) {
+        BitmapIndexTest.create(configuration, path, "x", 64);
+        try (BitmapIndexWriter writer = new BitmapIndexWriter(configuration, path, "x", COLUMN_NAME_TXN_NONE)) {
+            for (int row = 0; row < ROW_COUNT; row++) {
+                // skewed key distribution, keys 1 and 3 are empty
+                int key = rnd.nextInt(KEY_COUNT) * rnd.nextInt(KEY_COUNT) / KEY_COUNT;
+                if (key != 1 && key != 3) {
+                    writer.add(key, row);
+                }
+            }
+        }
+    }
+}
@@ -136,6 +136,88 @@ public class SymbolMapTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testCachedWriterReopen() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            // more symbols than capacity to exercise cache growth
+            int N = 10_000;
+            try (Path path = new Path().of(configuration.getRoot())) {
+                create(path, "x", 64, true);
+                Rnd rnd = new Rnd();
+                try (SymbolMapWriter writer = new SymbolMapWriter(configuration, path, "x", COLUMN_NAME_TXN_NONE, 0, -1, NOOP_COLLECTOR)) {
+                    Assert.assertTrue(writer.isCached());
+                    for (int i = 0; i < N; i++) {
+                        Assert.assertEquals(i, writer.put(rnd.nextChars(8)));
+                    }
+                }
+
+                // re-opened writer must resolve existing symbols without appending them again
+                rnd.reset();
+                try (SymbolMapWriter writer = new SymbolMapWriter(configuration, path, "x", COLUMN_NAME_TXN_NONE, N, -1, NOOP_COLLECTOR)) {
+                    for (int i = 0; i < N; i++) {
+                        Assert.assertEquals(i, writer.put(rnd.nextChars(8)));
+                    }
+                    Assert.assertEquals(N, writer.getSymbolCount());
+                    Assert.assertEquals(N, writer.put("new"));
+                    Assert.assertEquals(N, writer.put("new"));
+                    Assert.assertEquals(N + 1, writer.getSymbolCount());
+                }
+
+                // symbols beyond the committed count are not cached
+                try (SymbolMapWriter writer = new SymbolMapWriter(configuration, path, "x", COLUMN_NAME_TXN_NONE, N - 1, -1, NOOP_COLLECTOR)) {
+                    Assert.assertEquals(N - 1, writer.put("other"));
+                    Assert.assertEquals(N, writer.put("new"));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testCachedWriterRollback() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            int N = 10_000;
+            try (Path path = new Path().of(configuration.getRoot())) {
+                create(path, "x", 64, true);
+                Rnd rnd = new Rnd();
+                try (SymbolMapWriter writer = new SymbolMapWriter(configuration, path, "x", COLUMN_NAME_TXN_NONE, 0, -1, NOOP_COLLECTOR)) {
+                    for (int i = 0; i < N; i++) {
+                        Assert.assertEquals(i, writer.put(rnd.nextChars(8)));
+                    }
+                }
+
+                try (SymbolMapWriter writer = new SymbolMapWriter(configuration, path, "x", COLUMN_NAME_TXN_NONE, N, -1, NOOP_COLLECTOR)) {
+                    // committed symbols are cached on misses, a part of them is cached by now
+                    Assert.assertEquals(N, writer.put("a"));
+                    Assert.assertEquals(N + 1, writer.put("b"));
+                    rnd.reset();
+                    Assert.assertEquals(0, writer.put(rnd.nextChars(8)));
+
+                    // rolls back some of the cached and some of the not yet cached symbols
+                    writer.rollback(N - 10);
+                    Assert.assertEquals(N - 10, writer.getSymbolCount());
+                    Assert.assertEquals(N - 10, writer.put("b"));
+                    Assert.assertEquals(N - 9, writer.put("a"));
+                    rnd.reset();
+                    for (int i = 0; i < N - 10; i++) {
+                        Assert.assertEquals(i, writer.put(rnd.nextChars(8)));
+                    }
+                    for (int i = N - 10; i < N; i++) {
+                        Assert.assertEquals(i + 2, writer.put(rnd.nextChars(8)));
+                    }
+
+                    writer.rollback(5);
+                    Assert.assertEquals(5, writer.put("a"));
+                    rnd.reset();
+                    for (int i = 0; i < 5; i++) {
+                        Assert.assertEquals(i, writer.put(rnd.nextChars(8)));
+                    }
+                    Assert.assertEquals(6, writer.put(rnd.nextChars(8)));
+                    Assert.assertEquals(7, writer.getSymbolCount());
+                }
+            }
+        });
+    }
+
     @Test
     public void testConcurrentSymbolTableAccess() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -640,6 +722,49 @@ public class SymbolMapTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testReaderUpdateSymbolCount() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            int N = 20_000;
+            int batch = 100;
+            try (Path path = new Path().of(configuration.getRoot())) {
+                create(path, "x", 128, false);
+                try (
+                        SymbolMapWriter writer = new SymbolMapWriter(configuration, path, "x", COLUMN_NAME_TXN_NONE, 0, -1, NOOP_COLLECTOR);
+                        SymbolMapReaderImpl reader = new SymbolMapReaderImpl(configuration, path, "x", COLUMN_NAME_TXN_NONE, 0)
+                ) {
+                    Rnd rnd = new Rnd();
+                    for (int i = 0; i < N; i += batch) {
+                        for (int j = 0; j < batch; j++) {
+                            Assert.assertEquals(i + j, writer.put(rnd.nextChars(10)));
+                        }
+                        // reader sees appended symbols without being re-opened
+                        reader.updateSymbolCount(i + batch);
+                        Assert.assertEquals(i + batch, reader.getSymbolCount());
+                        reader.updateSymbolCount(i + batch);
+                    }
+
+                    rnd.reset();
+                    for (int i = 0; i < N; i++) {
+                        CharSequence cs = rnd.nextChars(10);
+                        TestUtils.assertEquals(cs, reader.valueOf(i));
+                        Assert.assertEquals(i, reader.keyOf(cs));
+                    }
+
+                    // rolled back symbols are not visible
+                    writer.rollback(N / 2);
+                    reader.updateSymbolCount(N / 2);
+                    Assert.assertNull(reader.valueOf(N / 2));
+                    rnd.reset();
+                    for (int i = 0; i < N; i++) {
+                        CharSequence cs = rnd.nextChars(10);
+                        Assert.assertEquals(i < N / 2 ? i : SymbolTable.VALUE_NOT_FOUND, reader.keyOf(cs));
+                    }
+                }
+            }
+        });
+    }
+
     @Test
     public void testReaderWhenMapDoesNotExist() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -51,7 +51,7 @@ public class TableReaderMetadataCorruptionTest extends AbstractCairoTest {
                 types,
                 names.length + 10,
                 5,
-                "Index flag is only supported for SYMBOL at [6]" //failed validation on garbage flags value
+                "Index flag is only supported for SYMBOL, INT, LONG, UUID and IPv4 at [6]" //failed validation on garbage flags value
         );
     }
 
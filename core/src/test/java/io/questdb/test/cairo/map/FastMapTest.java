@@ -30,6 +30,7 @@ import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.griffin.engine.LimitOverflowException;
 import io.questdb.std.*;
+import io.questdb.std.str.StringSink;
 import io.questdb.test.AbstractCairoTest;
 import io.questdb.test.CreateTableTestUtils;
 import io.questdb.test.cairo.TableModel;
@@ -38,6 +39,9 @@ import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class FastMapTest extends AbstractCairoTest {
 
     @Test
@@ -790,6 +794,96 @@ public class FastMapTest extends AbstractCairoTest {
         }
     }
 
+    @Test
+    public void testMergeFixedSizeKey() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            SingleColumnType keyTypes = new SingleColumnType(ColumnType.INT);
+            SingleColumnType valueTypes = new SingleColumnType(ColumnType.LONG);
+
+            try (
+                    FastMap mapA = new FastMap(Numbers.SIZE_1MB, keyTypes, valueTypes, 16, 0.8, 24);
+                    FastMap mapB = new FastMap(Numbers.SIZE_1MB, keyTypes, valueTypes, 16, 0.8, 24)
+            ) {
+                final int N = 1000;
+                // keys [0, N) go to the first map, keys [N / 2, N + N / 2) to the second one
+                for (int i = 0; i < N; i++) {
+                    MapKey keyA = mapA.withKey();
+                    keyA.putInt(i);
+                    MapValue valueA = keyA.createValue();
+                    Assert.assertTrue(valueA.isNew());
+                    valueA.putLong(0, i);
+
+                    MapKey keyB = mapB.withKey();
+                    keyB.putInt(i + N / 2);
+                    MapValue valueB = keyB.createValue();
+                    Assert.assertTrue(valueB.isNew());
+                    valueB.putLong(0, i + N / 2);
+                }
+
+                mapA.merge(mapB, (destValue, srcValue) -> destValue.addLong(0, srcValue.getLong(0)));
+
+                Assert.assertEquals(N + N / 2, mapA.size());
+                for (int i = 0; i < N + N / 2; i++) {
+                    MapKey key = mapA.withKey();
+                    key.putInt(i);
+                    MapValue value = key.findValue();
+                    Assert.assertNotNull(value);
+                    long expected = i >= N / 2 && i < N ? 2L * i : i;
+                    Assert.assertEquals(expected, value.getLong(0));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testMergeVarSizeKey() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+            keyTypes.add(ColumnType.STRING);
+            keyTypes.add(ColumnType.LONG);
+            SingleColumnType valueTypes = new SingleColumnType(ColumnType.LONG);
+
+            try (
+                    FastMap mapA = new FastMap(64, keyTypes, valueTypes, 16, 0.8, 24);
+                    FastMap mapB = new FastMap(64, keyTypes, valueTypes, 16, 0.8, 24)
+            ) {
+                final int N = 1000;
+                for (int i = 0; i < N; i++) {
+                    MapKey keyA = mapA.withKey();
+                    keyA.putStr("foo" + i);
+                    keyA.putLong(i);
+                    keyA.createValue().putLong(0, 1);
+
+                    // every other key in the second map is also present in the first one
+                    int j = i % 2 == 0 ? i : i + N;
+                    MapKey keyB = mapB.withKey();
+                    keyB.putStr("foo" + j);
+                    keyB.putLong(j);
+                    keyB.createValue().putLong(0, 1);
+                }
+
+                mapA.merge(mapB, (destValue, srcValue) -> destValue.addLong(0, srcValue.getLong(0)));
+
+                Assert.assertEquals(N + N / 2, mapA.size());
+                for (int i = 0; i < 2 * N; i++) {
+                    MapKey key = mapA.withKey();
+                    key.putStr("foo" + i);
+                    key.putLong(i);
+                    MapValue value = key.findValue();
+                    if (i < N) {
+                        Assert.assertNotNull(value);
+                        Assert.assertEquals(i % 2 == 0 ? 2 : 1, value.getLong(0));
+                    } else if (i % 2 == 1) {
+                        Assert.assertNotNull(value);
+                        Assert.assertEquals(1, value.getLong(0));
+                    } else {
+                        Assert.assertNull(value);
+                    }
+                }
+            }
+        });
+    }
+
     @Test
     public void testNoValueColumns() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -817,6 +911,96 @@ public class FastMapTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testProbeKeyFixedSizeKey() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+            keyTypes.add(ColumnType.INT);
+            keyTypes.add(ColumnType.LONG);
+            SingleColumnType valueTypes = new SingleColumnType(ColumnType.LONG);
+
+            try (FastMap map = new FastMap(Numbers.SIZE_1MB, keyTypes, valueTypes, 16, 0.8, 24)) {
+                final int N = 1000;
+                for (int i = 0; i < N; i++) {
+                    MapKey key = map.withKey();
+                    key.putInt(i);
+                    key.putLong(2L * i);
+                    key.createValue().putLong(0, i);
+                }
+
+                try (FastMap.ProbeKey probeKey = map.newProbeKey()) {
+                    for (int i = 0; i < 2 * N; i++) {
+                        probeKey.init();
+                        probeKey.putInt(i);
+                        probeKey.putLong(2L * i);
+                        MapValue value = probeKey.findValue();
+                        if (i < N) {
+                            Assert.assertNotNull(value);
+                            Assert.assertEquals(i, value.getLong(0));
+                        } else {
+                            Assert.assertNull(value);
+                        }
+                    }
+                }
+                Assert.assertEquals(N, map.size());
+            }
+        });
+    }
+
+    @Test
+    public void testProbeKeyVarSizeKeyConcurrent() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+            keyTypes.add(ColumnType.STRING);
+            keyTypes.add(ColumnType.INT);
+            SingleColumnType valueTypes = new SingleColumnType(ColumnType.LONG);
+
+            try (FastMap map = new FastMap(64, keyTypes, valueTypes, 16, 0.8, 24)) {
+                final int N = 1000;
+                final StringSink sink = new StringSink();
+                for (int i = 0; i < N; i++) {
+                    MapKey key = map.withKey();
+                    // long strings make probe keys grow their memory
+                    key.putStr(keyStr(sink, i));
+                    key.putInt(i);
+                    key.createValue().putLong(0, i);
+                }
+
+                final int threadCount = 4;
+                final AtomicInteger errors = new AtomicInteger();
+                final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+                final ObjList<Thread> threads = new ObjList<>();
+                for (int t = 0; t < threadCount; t++) {
+                    Thread thread = new Thread(() -> {
+                        final StringSink threadSink = new StringSink();
+                        try (FastMap.ProbeKey probeKey = map.newProbeKey()) {
+                            barrier.await();
+                            for (int i = 0; i < 2 * N; i++) {
+                                probeKey.init();
+                                probeKey.putStr(keyStr(threadSink, i));
+                                probeKey.putInt(i);
+                                MapValue value = probeKey.findValue();
+                                if (i < N ? value == null || value.getLong(0) != i : value != null) {
+                                    errors.incrementAndGet();
+                                }
+                            }
+                        } catch (Throwable th) {
+                            th.printStackTrace();
+                            errors.incrementAndGet();
+                        }
+                    });
+                    threads.add(thread);
+                    thread.start();
+                }
+                for (int t = 0; t < threadCount; t++) {
+                    threads.getQuick(t).join();
+                }
+                Assert.assertEquals(0, errors.get());
+                Assert.assertEquals(N, map.size());
+            }
+        });
+    }
+
     @Test
     public void testRecordAsKey() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -1402,6 +1586,15 @@ public class FastMapTest extends AbstractCairoTest {
         }
     }
 
+    private static CharSequence keyStr(StringSink sink, int i) {
+        sink.clear();
+        sink.put("key_").put(i);
+        for (int j = 0, n = i % 64; j < n; j++) {
+            sink.put('x');
+        }
+        return sink;
+    }
+
     private void populateMap(FastMap map, Rnd rnd2, RecordCursor cursor, RecordSink sink) {
         long counter = 0;
         final Record record = cursor.getRecord();
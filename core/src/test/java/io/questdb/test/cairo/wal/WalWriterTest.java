@@ -28,6 +28,7 @@ import io.questdb.cairo.*;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.wal.*;
+import io.questdb.cairo.wal.seq.TableSequencerAPI;
 import io.questdb.griffin.SqlUtil;
 import io.questdb.griffin.engine.ops.AlterOperationBuilder;
 import io.questdb.mp.SOCountDownLatch;
@@ -724,6 +725,70 @@ public class WalWriterTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testApplyBatch() throws Exception {
+        // all 5 transactions are merged into the table in a single commit
+        testApplyBatch0(true, 1);
+    }
+
+    @Test
+    public void testApplyBatchDisabled() throws Exception {
+        // each transaction is fully committed, the following ones are not out of order
+        testApplyBatch0(false, 5);
+    }
+
+    @Test
+    public void testApplyLag() throws Exception {
+        node1.getConfigurationOverrides().setWalBackpressureTxnLag(1);
+        // the check rejects straight away, the delay applies only to ILP connections
+        node1.getConfigurationOverrides().setWalBackpressureDelay(60_000);
+        assertMemoryLeak(() -> {
+            TableToken tableToken = createTable(testName.getMethodName());
+            final TableSequencerAPI tableSequencerAPI = engine.getTableSequencerAPI();
+
+            insert("insert into " + tableToken.getTableName() + "(a, ts) values (1, '2023-08-04T20:00:00.000000Z')");
+            drainWalQueue();
+            Assert.assertEquals(0, tableSequencerAPI.getApplyLagTxnCount(tableToken));
+            tableSequencerAPI.checkApplyLag(tableToken);
+
+            insert("insert into " + tableToken.getTableName() + "(a, ts) values (2, '2023-08-04T20:10:00.000000Z')");
+            insert("insert into " + tableToken.getTableName() + "(a, ts) values (3, '2023-08-04T20:20:00.000000Z')");
+            Assert.assertEquals(2, tableSequencerAPI.getApplyLagTxnCount(tableToken));
+            final AtomicInteger trackerCount = new AtomicInteger();
+            tableSequencerAPI.forAllTxnTrackers((token, tracker) -> {
+                if (token.equals(tableToken)) {
+                    trackerCount.incrementAndGet();
+                    Assert.assertEquals(2, tracker.getLagTxnCount());
+                    Assert.assertEquals(2, tracker.getLagRowCount());
+                    Assert.assertTrue(tracker.getLagBytes() > 0);
+                    Assert.assertNotEquals(Numbers.LONG_NaN, tracker.getOldestUnappliedTimestamp());
+                }
+            });
+            Assert.assertEquals(1, trackerCount.get());
+
+            try {
+                tableSequencerAPI.checkApplyLag(tableToken);
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(
+                        e.getFlyweightMessage(),
+                        "WAL apply lag is above backpressure threshold, retry later [table=" + tableToken.getTableName() + ", txnLag=2, maxTxnLag=1]"
+                );
+            }
+
+            drainWalQueue();
+            Assert.assertEquals(0, tableSequencerAPI.getApplyLagTxnCount(tableToken));
+            tableSequencerAPI.forAllTxnTrackers((token, tracker) -> {
+                if (token.equals(tableToken)) {
+                    Assert.assertEquals(0, tracker.getLagRowCount());
+                    Assert.assertEquals(0, tracker.getLagBytes());
+                    Assert.assertEquals(Numbers.LONG_NaN, tracker.getOldestUnappliedTimestamp());
+                }
+            });
+            tableSequencerAPI.checkApplyLag(tableToken);
+        });
+    }
+
     @Test
     public void testCancelRowDoesNotStartsNewSegment() throws Exception {
         assertMemoryLeak(() -> {
@@ -3138,6 +3203,37 @@ public class WalWriterTest extends AbstractCairoTest {
         }
     }
 
+    private void testApplyBatch0(boolean batchEnabled, int expectedCommits) throws Exception {
+        node1.getConfigurationOverrides().setWalApplyBatchEnabled(batchEnabled);
+        assertMemoryLeak(() -> {
+            TableToken tableToken = createTable(testName.getMethodName());
+            final long txnBefore;
+            try (TableReader reader = engine.getReader(tableToken)) {
+                txnBefore = reader.getTxn();
+            }
+
+            insert("insert into " + tableToken.getTableName() + "(a, ts) values (1, '2023-08-04T20:00:00.000000Z')");
+            insert("insert into " + tableToken.getTableName() + "(a, ts) values (2, '2023-08-04T20:10:00.000000Z')");
+            insert("insert into " + tableToken.getTableName() + "(a, ts) values (3, '2023-08-04T20:20:00.000000Z')");
+            insert("insert into " + tableToken.getTableName() + "(a, ts) values (4, '2023-08-04T20:30:00.000000Z')");
+            insert("insert into " + tableToken.getTableName() + "(a, ts) values (5, '2023-08-04T20:40:00.000000Z')");
+            drainWalQueue();
+
+            assertSql(
+                    "a\tb\tts\n" +
+                            "1\t\t2023-08-04T20:00:00.000000Z\n" +
+                            "2\t\t2023-08-04T20:10:00.000000Z\n" +
+                            "3\t\t2023-08-04T20:20:00.000000Z\n" +
+                            "4\t\t2023-08-04T20:30:00.000000Z\n" +
+                            "5\t\t2023-08-04T20:40:00.000000Z\n",
+                    tableToken.getTableName()
+            );
+            try (TableReader reader = engine.getReader(tableToken)) {
+                Assert.assertEquals(expectedCommits, reader.getTxn() - txnBefore);
+            }
+        });
+    }
+
     private void testDesignatedTimestampIncludesSegmentRowNumber(int[] timestampOffsets, boolean expectedOutOfOrder) throws Exception {
         assertMemoryLeak(() -> {
             final String tableName = "testTable";
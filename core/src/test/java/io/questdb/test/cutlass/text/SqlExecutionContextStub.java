@@ -51,7 +51,19 @@ public class SqlExecutionContextStub implements SqlExecutionContext {
     }
 
     @Override
-    public void configureAnalyticContext(@Nullable VirtualRecord partitionByRecord, @Nullable RecordSink partitionBySink, @Nullable ColumnTypes keyTypes, boolean isOrdered, boolean baseSupportsRandomAccess) {
+    public void configureAnalyticContext(
+            @Nullable VirtualRecord partitionByRecord,
+            @Nullable RecordSink partitionBySink,
+            @Nullable ColumnTypes keyTypes,
+            boolean isOrdered,
+            boolean baseSupportsRandomAccess,
+            int framingMode,
+            long rowsLo,
+            int rowsLoKindPos,
+            long rowsHi,
+            int rowsHiKindPos,
+            int timestampIndex
+    ) {
     }
 
     @Override
@@ -128,11 +140,31 @@ public class SqlExecutionContextStub implements SqlExecutionContext {
         return false;
     }
 
+    @Override
+    public boolean isParallelAsOfJoinEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isParallelFilterEnabled() {
         return false;
     }
 
+    @Override
+    public boolean isParallelGroupByEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isParallelHashJoinEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isParallelSortEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isTimestampRequired() {
         return false;
@@ -167,10 +199,26 @@ public class SqlExecutionContextStub implements SqlExecutionContext {
     public void setNowAndFixClock(long now) {
     }
 
+    @Override
+    public void setParallelAsOfJoinEnabled(boolean parallelAsOfJoinEnabled) {
+    }
+
     @Override
     public void setParallelFilterEnabled(boolean parallelFilterEnabled) {
     }
 
+    @Override
+    public void setParallelGroupByEnabled(boolean parallelGroupByEnabled) {
+    }
+
+    @Override
+    public void setParallelHashJoinEnabled(boolean parallelHashJoinEnabled) {
+    }
+
+    @Override
+    public void setParallelSortEnabled(boolean parallelSortEnabled) {
+    }
+
     @Override
     public void setRandom(Rnd rnd) {
     }
@@ -0,0 +1,295 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.*;
+import io.questdb.griffin.SqlException;
+import io.questdb.std.Zip;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AlterTableCompressPartitionTest extends AbstractCairoTest {
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        // Zip allocates memory when the class is loaded, do it before memory leak checks
+        Zip.init();
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Test
+    public void testAddIndexOnCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(false);
+            ddl("alter table x compress partition list '2020-01-01'");
+            ddl("alter table x alter column s add index");
+            assertPostingIndex("x", "s", 0, true);
+            assertPostingIndex("x", "s", 1, false);
+
+            assertSqlCursors("y where s = 'c'", "x where s = 'c'");
+            assertSqlCursors("y where s in ('a', 'b') and ts in '2020-01-01'", "x where s in ('a', 'b') and ts in '2020-01-01'");
+        });
+    }
+
+    @Test
+    public void testCompressActivePartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(false);
+            try {
+                ddl("alter table x compress partition list '2020-01-03'");
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "cannot compress active partition");
+                Assert.assertEquals(38, e.getPosition());
+            }
+            assertCompressed("x", false, false);
+        });
+    }
+
+    @Test
+    public void testCompressPartitionList() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(false);
+            ddl("alter table x compress partition list '2020-01-01'");
+            assertCompressed("x", true, false);
+            assertSqlCursors("y", "x");
+            assertSqlCursors("y where sym = 'b'", "x where sym = 'b'");
+            assertSqlCursors("select sym, count(), sum(l), max(s) from y", "select sym, count(), sum(l), max(s) from x");
+
+            // compressing twice is a no-op
+            ddl("alter table x compress partition list '2020-01-01'");
+            assertCompressed("x", true, false);
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testCompressPartitionWhere() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(false);
+            ddl("alter table x compress partition where ts < '2020-01-02'");
+            assertCompressed("x", true, false);
+            ddl("alter table x compress partition where ts < '2020-01-03'");
+            assertCompressed("x", true, true);
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testCompressWalTable() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(true);
+            ddl("alter table x compress partition list '2020-01-01'");
+            drainWalQueue();
+            assertCompressed("x", true, false);
+            assertSqlCursors("y", "x");
+
+            // rows of the compressed partition are not written to
+            insert("insert into x(i, ts) values (42, '2020-01-01T10:00:00.000000Z'), (43, '2020-01-02T10:00:00.000000Z')");
+            insert("insert into y(i, ts) values (43, '2020-01-02T10:00:00.000000Z')");
+            drainWalQueue();
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testCompressedPartitionIndex() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(false);
+            ddl("alter table x compress partition list '2020-01-01', '2020-01-02'");
+            assertPostingIndex("x", "sym", 0, true);
+            assertPostingIndex("x", "sym", 1, true);
+            assertPostingIndex("x", "sym", 2, false);
+
+            assertSqlCursors("y where sym = 'b'", "x where sym = 'b'");
+            assertSqlCursors("y where sym = 'b' order by ts desc", "x where sym = 'b' order by ts desc");
+            assertSqlCursors("y where sym = null", "x where sym = null");
+            assertSqlCursors("y where sym in ('a', 'c')", "x where sym in ('a', 'c')");
+            assertSqlCursors("y where sym = 'c' and ts in '2020-01-01T05'", "x where sym = 'c' and ts in '2020-01-01T05'");
+            assertSqlCursors("y where sym = 'c' and ts in '2020-01-02T05' order by ts desc", "x where sym = 'c' and ts in '2020-01-02T05' order by ts desc");
+            assertSqlCursors("y latest on ts partition by sym", "x latest on ts partition by sym");
+            assertSqlCursors("y where ts < '2020-01-02T12' latest on ts partition by sym", "x where ts < '2020-01-02T12' latest on ts partition by sym");
+            assertSqlCursors(
+                    "select ts, first(i), last(i) from y where sym = 'a' sample by 1h",
+                    "select ts, first(i), last(i) from x where sym = 'a' sample by 1h"
+            );
+        });
+    }
+
+    @Test
+    public void testCompressedPartitionIsReadOnly() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(false);
+            ddl("alter table x compress partition list '2020-01-01'");
+
+            try {
+                update("update x set l = 1 where ts < '2020-01-02'");
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "cannot update read-only partition");
+            }
+
+            insert("insert into x(i, ts) values (42, '2020-01-01T10:00:00.000000Z')");
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testDetachCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(false);
+            ddl("alter table x compress partition list '2020-01-01'");
+            try {
+                ddl("alter table x detach partition list '2020-01-01'");
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "detachStatus=DETACH_ERR_COMPRESSED");
+            }
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testDropPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(false);
+            ddl("alter table x compress partition list '2020-01-01', '2020-01-02'");
+            try {
+                ddl("alter table x drop partition list '2020-01-03'");
+                Assert.fail();
+            } catch (CairoException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "cannot remove active partition, previous partition is compressed");
+            }
+            assertSqlCursors("y", "x");
+
+            ddl("alter table x drop partition list '2020-01-01'");
+            ddl("alter table y drop partition list '2020-01-01'");
+            assertCompressed("x", true);
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testOpenReaderSeesCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(false);
+            try (TableReader reader = getReader("x")) {
+                Assert.assertEquals(3, reader.getPartitionCount());
+                // open the partition before it gets compressed
+                Assert.assertTrue(reader.openPartition(0) > 0);
+                ddl("alter table x compress partition list '2020-01-01'");
+                Assert.assertTrue(reader.reload());
+                Assert.assertTrue(reader.getTxFile().isPartitionCompressed(0));
+                assertSqlCursors("y", "x");
+            }
+        });
+    }
+
+    @Test
+    public void testSyntaxErrors() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables(false);
+            assertException("alter table x compress", 22, "'partition' expected");
+            assertException("alter table x compress column", 23, "'partition' expected");
+            assertException("alter table x compress partition", 32, "'list' or 'where' expected");
+            assertException("alter table x compress partition list '2020-01-01',", 51, "partition name expected");
+        });
+    }
+
+    private static void assertCompressed(String tableName, boolean... expected) {
+        try (TableReader reader = getReader(tableName)) {
+            final TxReader txFile = reader.getTxFile();
+            Assert.assertEquals(expected.length + 1, txFile.getPartitionCount());
+            for (int i = 0; i < expected.length; i++) {
+                Assert.assertEquals(expected[i], txFile.isPartitionCompressed(i));
+                Assert.assertEquals(expected[i], txFile.isPartitionReadOnly(i));
+            }
+            // active partition is never compressed
+            Assert.assertFalse(txFile.isPartitionCompressed(expected.length));
+        }
+    }
+
+    private static void assertPostingIndex(String tableName, String columnName, int partitionIndex, boolean expected) {
+        try (
+                TableReader reader = getReader(tableName);
+                Path path = new Path().of(configuration.getRoot()).concat(reader.getTableToken().getDirName())
+        ) {
+            final TxReader txFile = reader.getTxFile();
+            TableUtils.setPathForPartition(
+                    path,
+                    reader.getPartitionedBy(),
+                    txFile.getPartitionTimestampByIndex(partitionIndex),
+                    txFile.getPartitionNameTxn(partitionIndex)
+            );
+            final int columnIndex = reader.getMetadata().getColumnIndex(columnName);
+            final long columnNameTxn = reader.getColumnVersionReader().getColumnNameTxn(
+                    txFile.getPartitionTimestampByIndex(partitionIndex),
+                    reader.getMetadata().getWriterIndex(columnIndex)
+            );
+            BitmapIndexUtils.keyFileName(path, columnName, columnNameTxn);
+            Assert.assertTrue(configuration.getFilesFacade().exists(path));
+            Assert.assertEquals(expected, PostingIndexUtils.isPostingIndex(configuration.getFilesFacade(), path));
+        }
+    }
+
+    private static void createTables(boolean walEnabled) throws SqlException {
+        // the first day takes more than one compression block for fixed size columns
+        ddl(
+                "create table x as (select" +
+                        " cast(x as int) i," +
+                        " rnd_symbol('a', 'b', 'c', null) sym," +
+                        " rnd_symbol(5, 1, 3, 1) s," +
+                        " rnd_long(-1000, 1000, 2) l," +
+                        " rnd_double(2) d," +
+                        " rnd_str(3, 8, 2) str," +
+                        " rnd_bin(2, 16, 2) bin," +
+                        " rnd_long256() l256," +
+                        " rnd_geohash(30) g," +
+                        " rnd_boolean() b," +
+                        " cast(x * 1000 as date) dt," +
+                        " timestamp_sequence('2020-01-01', 1000000L) ts" +
+                        " from long_sequence(200000)" +
+                        "), index(sym) timestamp(ts) partition by DAY" + (walEnabled ? " WAL" : " BYPASS WAL")
+        );
+        // column added after the first day was written has column top in the first day's partition
+        ddl("alter table x add column k long");
+        insert(
+                "insert into x(i, ts, k, sym, str) select" +
+                        " cast(x as int), timestamp_sequence('2020-01-01T10:00:00.250000Z', 1000000L), x, 'a', 'late'" +
+                        " from long_sequence(1000)"
+        );
+        if (walEnabled) {
+            drainWalQueue();
+        }
+        ddl("create table y as (select * from x), index(sym) timestamp(ts) partition by DAY" + (walEnabled ? " WAL" : " BYPASS WAL"));
+        if (walEnabled) {
+            drainWalQueue();
+        }
+    }
+}
@@ -2138,7 +2138,7 @@ public class AlterTableDetachPartitionTest extends AbstractAlterTableAttachParti
             AbstractSqlParserTest.assertSyntaxError(
                     "ALTER TABLE tab foobar",
                     16,
-                    "'add', 'alter', 'attach', 'detach', 'drop', 'resume', 'rename', 'set' or 'squash' expected",
+                    "'add', 'alter', 'attach', 'compress', 'detach', 'drop', 'resume', 'rename', 'set' or 'squash' expected",
                     tableModel
             );
         }
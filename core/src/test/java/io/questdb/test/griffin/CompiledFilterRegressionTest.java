@@ -325,6 +325,40 @@ public class CompiledFilterRegressionTest extends AbstractCairoTest {
         assertGeneratedQueryNotNull("select * from x", ddl, gen);
     }
 
+    @Test
+    public void testInList() throws Exception {
+        final String ddl = "create table x as " +
+                "(select timestamp_sequence(400000000000, 500000000) as k," +
+                " rnd_int(0, 10, 2) i32," +
+                " rnd_long(0, 10, 2) i64," +
+                " rnd_char() ch" +
+                " from long_sequence(" + N_SIMD_WITH_SCALAR_TAIL + ")) timestamp(k)";
+        FilterGenerator gen = new FilterGenerator()
+                .withOptionalNot().withAnyOf("i32 in (0, 5, null)", "i64 in (-1, 7, 9)", "ch in ('A', 'Q')")
+                .withBooleanOperator()
+                .withOptionalNot().withAnyOf("i32 in (1, 2, 3)", "i64 in (4, 5)");
+        assertGeneratedQueryNullable("select * from x", ddl, gen);
+    }
+
+    @Test
+    public void testInListHashSet() throws Exception {
+        final String ddl = "create table x as " +
+                "(select timestamp_sequence(400000000000, 500000000) as k," +
+                " rnd_int(0, 40, 2) i32," +
+                " rnd_long(-20, 20, 2) i64," +
+                " rnd_symbol('A','B','C','D','E','F','G','H',null) sym" +
+                " from long_sequence(" + N_SIMD_WITH_SCALAR_TAIL + ")) timestamp(k)";
+        FilterGenerator gen = new FilterGenerator()
+                .withOptionalNot().withAnyOf(
+                        "i32 in (1, 3, 5, 7, 9, 11, 13, 15, 17, 19, 21, 23, 25, 27, 29, 31, null)",
+                        "i64 in (-20, -17, -14, -11, -8, -5, -2, -1, 0, 1, 2, 5, 8, 11, 14, 17, 20, 0)",
+                        "sym in ('A', 'C', 'E', 'G', 'X', 'A0', 'A1', 'A2', 'A3', 'A4', 'A5', 'A6', 'A7', 'A8', 'A9', 'A10', 'A11')"
+                )
+                .withBooleanOperator()
+                .withOptionalNot().withAnyOf("i32 in (1, 2, 3)", "i64 > 0");
+        assertGeneratedQueryNullable("select * from x", ddl, gen);
+    }
+
     @Test
     public void testIntConstantColumnComparisonBoundaryMatch() throws Exception {
         final int boundary = 101;
@@ -435,6 +469,41 @@ public class CompiledFilterRegressionTest extends AbstractCairoTest {
         testOrderBy("order by ts desc");
     }
 
+    @Test
+    public void testStringLike() throws Exception {
+        final String ddl = "create table x as " +
+                "(select timestamp_sequence(400000000000, 500000000) as k," +
+                " rnd_symbol('ABB','HBC','DXR',null) sym," +
+                " rnd_str('XNAS','XNYS','ARCX','BATS','XN','',null) venue," +
+                " rnd_str(1, 12, 2) s" +
+                " from long_sequence(" + N_SIMD_WITH_SCALAR_TAIL + ")) timestamp(k)";
+        FilterGenerator gen = new FilterGenerator()
+                .withOptionalNot().withAnyOf("sym in ('HBC', 'DXR', 'XYZ')", "sym = 'ABB'")
+                .withBooleanOperator()
+                .withOptionalNot().withAnyOf(
+                        "venue like 'X%'",
+                        "venue like 'XN%'",
+                        "venue like '%S'",
+                        "venue like '%XNYS'",
+                        "venue like 'ARCX'",
+                        "s like 'X%'",
+                        "s like '%Z'",
+                        "s like 'ABCDEFGHIJK%'"
+                );
+        assertGeneratedQueryNullable("select * from x", ddl, gen);
+    }
+
+    @Test
+    public void testSymbolInList() throws Exception {
+        final String query = "select price, sym from x where sym in ('HBC', 'XYZ', null) or price > 0.9";
+        final String ddl = "create table x as " +
+                "(select rnd_symbol('ABB','HBC','DXR',null) sym, \n" +
+                " rnd_double() price, \n" +
+                " timestamp_sequence(172800000000, 360000000) ts \n" +
+                "from long_sequence(" + N_SIMD_WITH_SCALAR_TAIL + ")) timestamp (ts)";
+        assertQueryNullable(query, ddl);
+    }
+
     @Test
     public void testSymbolKnownConstant() throws Exception {
         // The column order is important here, since we want
@@ -274,7 +274,7 @@ public class DropIndexTest extends AbstractCairoTest {
                         "    from long_sequence(30)\n" +
                         "), index(sym) timestamp(ts) partition by DAY",
                 32,
-                "indexes are only supported for symbol type [column=price, type=DOUBLE]"
+                "indexes are only supported for SYMBOL, INT, LONG, UUID and IPv4 types [column=price, type=DOUBLE]"
         );
     }
 
@@ -34,8 +34,8 @@ import io.questdb.griffin.*;
 import io.questdb.griffin.engine.EmptyTableRecordCursorFactory;
 import io.questdb.griffin.engine.functions.CursorFunction;
 import io.questdb.griffin.engine.functions.NegatableBooleanFunction;
-import io.questdb.griffin.engine.functions.analytic.RankFunctionFactory;
-import io.questdb.griffin.engine.functions.analytic.RowNumberFunctionFactory;
+import io.questdb.griffin.engine.functions.analytic.LagDoubleAnalyticFunctionFactory;
+import io.questdb.griffin.engine.functions.analytic.LeadDoubleAnalyticFunctionFactory;
 import io.questdb.griffin.engine.functions.bool.InCharFunctionFactory;
 import io.questdb.griffin.engine.functions.bool.InDoubleFunctionFactory;
 import io.questdb.griffin.engine.functions.bool.InTimestampStrFunctionFactory;
@@ -52,6 +52,7 @@ import io.questdb.griffin.engine.functions.eq.*;
 import io.questdb.griffin.engine.functions.rnd.LongSequenceFunctionFactory;
 import io.questdb.griffin.engine.functions.rnd.RndIPv4CCFunctionFactory;
 import io.questdb.griffin.engine.functions.test.TestSumXDoubleGroupByFunctionFactory;
+import io.questdb.griffin.model.AnalyticColumn;
 import io.questdb.jit.JitUtil;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
@@ -328,7 +329,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "select * from a asof join b on ts where a.i = b.ts::int",
                     "SelectedRecord\n" +
                             "    Filter filter: a.i=b.ts::int\n" +
-                            "        AsOf Join Light\n" +
+                            "        Async AsOf Join Light workers: 1\n" +
                             "          condition: b.ts=a.ts\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -350,7 +351,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "select ts, ts1, i, i1 from (select * from a asof join b on ts ) where i/10 = i1",
                     "SelectedRecord\n" +
                             "    Filter filter: a.i/10=b.i\n" +
-                            "        AsOf Join Light\n" +
+                            "        Async AsOf Join Light workers: 1\n" +
                             "          condition: b.ts=a.ts\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -371,7 +372,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
             assertPlan(
                     "select * from a asof join b on ts",
                     "SelectedRecord\n" +
-                            "    AsOf Join Light\n" +
+                            "    Async AsOf Join Light workers: 1\n" +
                             "      condition: b.ts=a.ts\n" +
                             "        DataFrame\n" +
                             "            Row forward scan\n" +
@@ -442,7 +443,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "SelectedRecord\n" +
                             "    AsOf Join Light\n" +
                             "      condition: c.ts=a.ts\n" +
-                            "        AsOf Join Light\n" +
+                            "        Async AsOf Join Light workers: 1\n" +
                             "          condition: b.ts=a.ts\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -1327,7 +1328,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                 "with b as (select i from a order by s)" +
                         "select * from a join b on a.i = b.i",
                 "SelectedRecord\n" +
-                        "    Hash Join Light\n" +
+                        "    Async Hash Join Light workers: 1\n" +
                         "      condition: b.i=a.i\n" +
                         "        DataFrame\n" +
                         "            Row forward scan\n" +
@@ -1380,7 +1381,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "    VirtualRecord\n" +
                     "      functions: [1,d1]\n" +
                     "        SelectedRecord\n" +
-                    "            Hash Join Light\n" +
+                    "            Async Hash Join Light workers: 1\n" +
                     "              condition: l2=l1\n" +
                     "                DataFrame\n" +
                     "                    Row forward scan\n" +
@@ -1649,10 +1650,9 @@ public class ExplainPlanTest extends AbstractCairoTest {
                         "and timestamp > dateadd('m', -30, now()) ) " +
                         "timestamp(x))",
                 "SelectedRecord\n" +
-                        "    GroupBy vectorized: false\n" +
+                        "    Async JIT Group By workers: 1\n" +
                         "      values: [last(timestamp),last(price)]\n" +
-                        "        Async JIT Filter workers: 1\n" +
-                        "          filter: symbol='BTC-USD'\n" +
+                        "      filter: symbol='BTC-USD'\n" +
                         "            DataFrame\n" +
                         "                Row forward scan\n" +
                         "                Interval forward scan on: trades\n" +
@@ -1938,6 +1938,8 @@ public class ExplainPlanTest extends AbstractCairoTest {
                                     sigArgType = ColumnType.TIMESTAMP;
                                 } else if (factory instanceof InDoubleFunctionFactory) {
                                     sigArgType = ColumnType.DOUBLE;
+                                } else if (factory instanceof LagDoubleAnalyticFunctionFactory || factory instanceof LeadDoubleAnalyticFunctionFactory) {
+                                    sigArgType = ColumnType.INT;
                                 } else {
                                     sigArgType = ColumnType.STRING;
                                 }
@@ -2004,11 +2006,28 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
                         argPositions.setAll(args.size(), 0);
 
-                        if (factory instanceof RowNumberFunctionFactory || factory instanceof RankFunctionFactory) {
-                            sqlExecutionContext.configureAnalyticContext(null, null, null, true, true);
+                        if (factory.isWindow()) {
+                            sqlExecutionContext.configureAnalyticContext(
+                                    null,
+                                    null,
+                                    null,
+                                    true,
+                                    true,
+                                    AnalyticColumn.FRAMING_RANGE,
+                                    Long.MIN_VALUE,
+                                    0,
+                                    0,
+                                    0,
+                                    -1
+                            );
                         }
 
-                        Function function = factory.newInstance(0, args, argPositions, engine.getConfiguration(), sqlExecutionContext);
+                        Function function;
+                        try {
+                            function = factory.newInstance(0, args, argPositions, engine.getConfiguration(), sqlExecutionContext);
+                        } finally {
+                            sqlExecutionContext.clearAnalyticContext();
+                        }
                         function.toPlan(planSink);
                         goodArgsFound = true;
 
@@ -2046,7 +2065,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( l long, b boolean)",
                 "select b, min(l)  from a group by b",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  keys: [b]\n" +
                         "  values: [min(l)]\n" +
                         "    DataFrame\n" +
@@ -2076,7 +2095,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( l long, d double)",
                 "select d, min(l) from a group by d",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  keys: [d]\n" +
                         "  values: [min(l)]\n" +
                         "    DataFrame\n" +
@@ -2090,7 +2109,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( l long, f float)",
                 "select f, min(l) from a group by f",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  keys: [f]\n" +
                         "  values: [min(l)]\n" +
                         "    DataFrame\n" +
@@ -2255,7 +2274,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( l long, d double)",
                 "select l, min(d) from a group by l",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  keys: [l]\n" +
                         "  values: [min(d)]\n" +
                         "    DataFrame\n" +
@@ -2285,7 +2304,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                 "GroupBy vectorized: false\n" +
                         "  values: [max(i)]\n" +
                         "    SelectedRecord\n" +
-                        "        Hash Join Light\n" +
+                        "        Async Hash Join Light workers: 1\n" +
                         "          condition: b.i=a.i\n" +
                         "            DataFrame\n" +
                         "                Row forward scan\n" +
@@ -2302,7 +2321,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( gb geohash(4b), gs geohash(12b), gi geohash(24b), gl geohash(40b))",
                 "select first(gb), last(gb), first(gs), last(gs), first(gi), last(gi), first(gl), last(gl) from a",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  values: [first(gb),last(gb),first(gs),last(gs),first(gi),last(gi),first(gl),last(gl)]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -2315,7 +2334,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, d double)",
                 "select min(d), max(d*d) from a",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  values: [min(d),max(d*d)]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -2328,7 +2347,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, d double)",
                 "select max(d+1) from a",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  values: [max(d+1)]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -2354,7 +2373,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, d double)",
                 "select first(10), last(d), avg(10), min(10), max(10) from a",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  values: [first(10),last(d),avg(10),min(10),max(10)]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -2367,13 +2386,12 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, d double)",
                 "select max(i) from a where i < 10",
-                "GroupBy vectorized: false\n" +
+                "Async JIT Group By workers: 1\n" +
                         "  values: [max(i)]\n" +
-                        "    Async JIT Filter workers: 1\n" +
-                        "      filter: i<10\n" +
-                        "        DataFrame\n" +
-                        "            Row forward scan\n" +
-                        "            Frame forward scan on: a\n"
+                        "  filter: i<10\n" +
+                        "    DataFrame\n" +
+                        "        Row forward scan\n" +
+                        "        Frame forward scan on: a\n"
         );
     }
 
@@ -2490,14 +2508,13 @@ public class ExplainPlanTest extends AbstractCairoTest {
                 "create table di (x int, y long)",
                 "select x, count(*) from di where y = 5 group by x limit 10",
                 "Limit lo: 10\n" +
-                        "    GroupBy vectorized: false\n" +
+                        "    Async JIT Group By workers: 1\n" +
                         "      keys: [x]\n" +
                         "      values: [count(*)]\n" +
-                        "        Async JIT Filter workers: 1\n" +
-                        "          filter: y=5\n" +
-                        "            DataFrame\n" +
-                        "                Row forward scan\n" +
-                        "                Frame forward scan on: di\n"
+                        "      filter: y=5\n" +
+                        "        DataFrame\n" +
+                        "            Row forward scan\n" +
+                        "            Frame forward scan on: di\n"
         );
     }
 
@@ -2507,14 +2524,13 @@ public class ExplainPlanTest extends AbstractCairoTest {
                 "create table di (x int, y long)",
                 "select x, count(*) from di where y = 5 group by x limit -10",
                 "Limit lo: -10\n" +
-                        "    GroupBy vectorized: false\n" +
+                        "    Async JIT Group By workers: 1\n" +
                         "      keys: [x]\n" +
                         "      values: [count(*)]\n" +
-                        "        Async JIT Filter workers: 1\n" +
-                        "          filter: y=5\n" +
-                        "            DataFrame\n" +
-                        "                Row forward scan\n" +
-                        "                Frame forward scan on: di\n"
+                        "      filter: y=5\n" +
+                        "        DataFrame\n" +
+                        "            Row forward scan\n" +
+                        "            Frame forward scan on: di\n"
         );
     }
 
@@ -2524,14 +2540,13 @@ public class ExplainPlanTest extends AbstractCairoTest {
                 "create table di (x int, y long)",
                 "select x, count(*) from di where abs(y) = 5 group by x limit 10",
                 "Limit lo: 10\n" +
-                        "    GroupBy vectorized: false\n" +
+                        "    Async Group By workers: 1\n" +
                         "      keys: [x]\n" +
                         "      values: [count(*)]\n" +
-                        "        Async Filter workers: 1\n" +
-                        "          filter: abs(y)=5\n" +
-                        "            DataFrame\n" +
-                        "                Row forward scan\n" +
-                        "                Frame forward scan on: di\n"
+                        "      filter: abs(y)=5\n" +
+                        "        DataFrame\n" +
+                        "            Row forward scan\n" +
+                        "            Frame forward scan on: di\n"
         );
     }
 
@@ -2541,14 +2556,13 @@ public class ExplainPlanTest extends AbstractCairoTest {
                 "create table di (x int, y long)",
                 "select x, count(*) from di where abs(y) = 5 group by x limit -10",
                 "Limit lo: -10\n" +
-                        "    GroupBy vectorized: false\n" +
+                        "    Async Group By workers: 1\n" +
                         "      keys: [x]\n" +
                         "      values: [count(*)]\n" +
-                        "        Async Filter workers: 1\n" +
-                        "          filter: abs(y)=5\n" +
-                        "            DataFrame\n" +
-                        "                Row forward scan\n" +
-                        "                Frame forward scan on: di\n"
+                        "      filter: abs(y)=5\n" +
+                        "        DataFrame\n" +
+                        "            Row forward scan\n" +
+                        "            Frame forward scan on: di\n"
         );
     }
 
@@ -2558,14 +2572,13 @@ public class ExplainPlanTest extends AbstractCairoTest {
                 "create table di (x int, y long)",
                 "select x, count(*) from di where abs(y) = 5 group by x limit 10, 20",
                 "Limit lo: 10 hi: 20\n" +
-                        "    GroupBy vectorized: false\n" +
+                        "    Async Group By workers: 1\n" +
                         "      keys: [x]\n" +
                         "      values: [count(*)]\n" +
-                        "        Async Filter workers: 1\n" +
-                        "          filter: abs(y)=5\n" +
-                        "            DataFrame\n" +
-                        "                Row forward scan\n" +
-                        "                Frame forward scan on: di\n"
+                        "      filter: abs(y)=5\n" +
+                        "        DataFrame\n" +
+                        "            Row forward scan\n" +
+                        "            Frame forward scan on: di\n"
         );
     }
 
@@ -2576,14 +2589,13 @@ public class ExplainPlanTest extends AbstractCairoTest {
                 "select ts, count(*) from di where y=5 group by ts  order by ts desc limit 10",
                 "Sort light lo: 10\n" +
                         "  keys: [ts desc]\n" +
-                        "    GroupBy vectorized: false\n" +
+                        "    Async JIT Group By workers: 1\n" +
                         "      keys: [ts]\n" +
                         "      values: [count(*)]\n" +
-                        "        Async JIT Filter workers: 1\n" +
-                        "          filter: y=5\n" +
-                        "            DataFrame\n" +
-                        "                Row forward scan\n" +
-                        "                Frame forward scan on: di\n"
+                        "      filter: y=5\n" +
+                        "        DataFrame\n" +
+                        "            Row forward scan\n" +
+                        "            Frame forward scan on: di\n"
         );
     }
 
@@ -2597,7 +2609,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "select s1, s2 from (select a.s1, b.s2, b.i, a.i  from a join b on i) where i < i1 and s1 = s2",
                     "SelectedRecord\n" +
                             "    Filter filter: (b.i<a.i and a.s1=b.s2)\n" +
-                            "        Hash Join Light\n" +
+                            "        Async Hash Join Light workers: 1\n" +
                             "          condition: b.i=a.i\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -2655,7 +2667,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
             assertPlan(
                     "select * from a left join b on i",
                     "SelectedRecord\n" +
-                            "    Hash Outer Join Light\n" +
+                            "    Async Hash Outer Join Light workers: 1\n" +
                             "      condition: b.i=a.i\n" +
                             "        DataFrame\n" +
                             "            Row forward scan\n" +
@@ -2678,7 +2690,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "select * from a left join b on i where b.i is not null",
                     "SelectedRecord\n" +
                             "    Filter filter: b.i!=null\n" +
-                            "        Hash Outer Join Light\n" +
+                            "        Async Hash Outer Join Light workers: 1\n" +
                             "          condition: b.i=a.i\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -3408,7 +3420,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
             assertPlan(
                     "select * from taba left join tabb on a=b",
                     "SelectedRecord\n" +
-                            "    Hash Outer Join Light\n" +
+                            "    Async Hash Outer Join Light workers: 1\n" +
                             "      condition: b=a\n" +
                             "        DataFrame\n" +
                             "            Row forward scan\n" +
@@ -3430,7 +3442,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
             assertPlan(
                     "select * from taba left join tabb on a1=b1  and a2=b2",
                     "SelectedRecord\n" +
-                            "    Hash Outer Join Light\n" +
+                            "    Async Hash Outer Join Light workers: 1\n" +
                             "      condition: b2=a2 and b1=a1\n" +
                             "        DataFrame\n" +
                             "            Row forward scan\n" +
@@ -3820,7 +3832,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
 
             String[] joinTypes = {"LEFT", "LT", "ASOF"};
-            String[] joinFactoryTypes = {"Hash Outer Join Light", "Lt Join", "AsOf Join"};
+            String[] joinFactoryTypes = {"Async Hash Outer Join Light workers: 1", "Lt Join", "AsOf Join"};
 
             for (int i = 0; i < joinTypes.length; i++) {
                 // do not push down predicate to the 'right' table of left join but apply it after join
@@ -3871,19 +3883,31 @@ public class ExplainPlanTest extends AbstractCairoTest {
                                 "FROM tab as T1 " +
                                 joinType + " JOIN tab as T2 " + (i == 0 ? " ON T1.created=T2.created " : "") +
                                 "WHERE not T1.value=1",
-                        "GroupBy vectorized: false\n" +
+                        i == 0
+                                // parallel hash join takes over the pushed down filter
+                                ? "GroupBy vectorized: false\n" +
+                                "  values: [count(*)]\n" +
+                                "    Async JIT Hash Outer Join Light workers: 1\n" +
+                                "      condition: T2.created=T1.created\n" +
+                                "      filter: T1.value!=1\n" +
+                                "        DataFrame\n" +
+                                "            Row forward scan\n" +
+                                "            Frame forward scan on: tab\n" +
+                                "        Hash\n" +
+                                "            DataFrame\n" +
+                                "                Row forward scan\n" +
+                                "                Frame forward scan on: tab\n"
+                                : "GroupBy vectorized: false\n" +
                                 "  values: [count(*)]\n" +
                                 "    " + factoryType + "\n" +
-                                (i == 0 ? "      condition: T2.created=T1.created\n" : "") +
                                 "        Async JIT Filter workers: 1\n" +
                                 "          filter: value!=1\n" +
                                 "            DataFrame\n" +
                                 "                Row forward scan\n" +
                                 "                Frame forward scan on: tab\n" +
-                                (i == 0 ? "        Hash\n" : "") +
-                                (i == 0 ? "    " : "") + "        DataFrame\n" +
-                                (i == 0 ? "    " : "") + "            Row forward scan\n" +
-                                (i == 0 ? "    " : "") + "            Frame forward scan on: tab\n"
+                                "        DataFrame\n" +
+                                "            Row forward scan\n" +
+                                "            Frame forward scan on: tab\n"
                 );
             }
 
@@ -3899,13 +3923,12 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "  values: [count(*)]\n" +
                             "    Hash Join Light\n" +
                             "      condition: T3.created=T2.created\n" +
-                            "        Hash Outer Join Light\n" +
+                            "        Async JIT Hash Outer Join Light workers: 1\n" +
                             "          condition: T2.created=T1.created\n" +
-                            "            Async JIT Filter workers: 1\n" +
-                            "              filter: value=1\n" +
-                            "                DataFrame\n" +
-                            "                    Row forward scan\n" +
-                            "                    Frame forward scan on: tab\n" +
+                            "          filter: T1.value=1\n" +
+                            "            DataFrame\n" +
+                            "                Row forward scan\n" +
+                            "                Frame forward scan on: tab\n" +
                             "            Hash\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
@@ -3927,7 +3950,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "    Hash Join Light\n" +
                             "      condition: T3.created=T2.created\n" +
                             "        Filter filter: T2.created=1\n" +
-                            "            Hash Outer Join Light\n" +
+                            "            Async Hash Outer Join Light workers: 1\n" +
                             "              condition: T2.created=T1.created\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
@@ -3952,7 +3975,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "  values: [count(*)]\n" +
                             "    Hash Join Light\n" +
                             "      condition: T3.created=T2.created\n" +
-                            "        Hash Outer Join Light\n" +
+                            "        Async Hash Outer Join Light workers: 1\n" +
                             "          condition: T2.created=T1.created\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -3981,7 +4004,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "  values: [count(*)]\n" +
                             "    SelectedRecord\n" +
                             "        Filter filter: T2.value=T2.value\n" +
-                            "            Hash Outer Join Light\n" +
+                            "            Async Hash Outer Join Light workers: 1\n" +
                             "              condition: T2.created=T1.created\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
@@ -4002,7 +4025,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "GroupBy vectorized: false\n" +
                             "  values: [count(*)]\n" +
                             "    SelectedRecord\n" +
-                            "        Hash Outer Join Light\n" +
+                            "        Async Hash Outer Join Light workers: 1\n" +
                             "          condition: T2.created=T1.created\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -4025,7 +4048,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "select ts1, ts2, i1, i2 from (select a.i as i1, a.ts as ts1, b.i as i2, b.ts as ts2 from a lt join b on ts) where ts1::long*i1<ts2::long*i2",
                     "SelectedRecord\n" +
                             "    Filter filter: a.ts::long*a.i<b.ts::long*b.i\n" +
-                            "        Lt Join Light\n" +
+                            "        Async Lt Join Light workers: 1\n" +
                             "          condition: b.ts=a.ts\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -4046,7 +4069,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
             assertPlan(
                     "select * from a lt join b on ts",
                     "SelectedRecord\n" +
-                            "    Lt Join Light\n" +
+                            "    Async Lt Join Light workers: 1\n" +
                             "      condition: b.ts=a.ts\n" +
                             "        DataFrame\n" +
                             "            Row forward scan\n" +
@@ -4070,7 +4093,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "select * from a lt join b on ts where a.i = b.ts",
                     "SelectedRecord\n" +
                             "    Filter filter: a.i=b.ts\n" +
-                            "        Lt Join Light\n" +
+                            "        Async Lt Join Light workers: 1\n" +
                             "          condition: b.ts=a.ts\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -4092,7 +4115,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "select * from a lt join b on ts where a.i = b.ts",
                     "SelectedRecord\n" +
                             "    Filter filter: a.i=b.ts\n" +
-                            "        Lt Join Light\n" +
+                            "        Async Lt Join Light workers: 1\n" +
                             "          condition: b.ts=a.ts\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -4212,7 +4235,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "SelectedRecord\n" +
                             "    Lt Join Light\n" +
                             "      condition: c.ts=a.ts\n" +
-                            "        Lt Join Light\n" +
+                            "        Async Lt Join Light workers: 1\n" +
                             "          condition: b.ts=a.ts\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
@@ -4695,7 +4718,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
             assertPlan(
                     "SELECT sum(x), sum(x+10) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By workers: 1\n" +
                             "  values: [sum(x),sum(x+10)]\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -4704,7 +4727,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
             assertPlan(
                     "SELECT sum(x), sum(10+x) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By workers: 1\n" +
                             "  values: [sum(x),sum(10+x)]\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -4728,7 +4751,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "    GroupBy vectorized: false\n" +
                             "      values: [sum(x),sum(x1),count(x),count(x1)]\n" +
                             "        SelectedRecord\n" +
-                            "            Hash Join Light\n" +
+                            "            Async Hash Join Light workers: 1\n" +
                             "              condition: tabb.id=taba.id\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
@@ -4748,7 +4771,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "    GroupBy vectorized: false\n" +
                             "      values: [sum(x),sum(x1),count(x1),count(x)]\n" +
                             "        SelectedRecord\n" +
-                            "            Hash Join Light\n" +
+                            "            Async Hash Join Light workers: 1\n" +
                             "              condition: tabb.id=taba.id\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
@@ -4797,7 +4820,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
             assertPlan(
                     "SELECT sum(x), sum(x*10) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By workers: 1\n" +
                             "  values: [sum(x),sum(x*10)]\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -4806,7 +4829,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
             assertPlan(
                     "SELECT sum(x), sum(10*x) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By workers: 1\n" +
                             "  values: [sum(x),sum(10*x)]\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -4822,7 +4845,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
             assertPlan(
                     "SELECT sum(x), sum(x*10.0) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By workers: 1\n" +
                             "  values: [sum(x),sum(x*10.0)]\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -4831,7 +4854,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
             assertPlan(
                     "SELECT sum(x), sum(10.0*x) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By workers: 1\n" +
                             "  values: [sum(x),sum(10.0*x)]\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -4855,7 +4878,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "    GroupBy vectorized: false\n" +
                             "      values: [sum(x),sum(x1)]\n" +
                             "        SelectedRecord\n" +
-                            "            Hash Join Light\n" +
+                            "            Async Hash Join Light workers: 1\n" +
                             "              condition: tabb.id=taba.id\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
@@ -4875,7 +4898,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "    GroupBy vectorized: false\n" +
                             "      values: [sum(x),sum(x1)]\n" +
                             "        SelectedRecord\n" +
-                            "            Hash Join Light\n" +
+                            "            Async Hash Join Light workers: 1\n" +
                             "              condition: tabb.id=taba.id\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
@@ -4924,7 +4947,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
             assertPlan(
                     "SELECT sum(x), sum(x-10) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By workers: 1\n" +
                             "  values: [sum(x),sum(x-10)]\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -4933,7 +4956,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
             assertPlan(
                     "SELECT sum(x), sum(10-x) FROM tab",
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By workers: 1\n" +
                             "  values: [sum(x),sum(10-x)]\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -4957,7 +4980,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "    GroupBy vectorized: false\n" +
                             "      values: [sum(x),sum(x1),count(x),count(x1)]\n" +
                             "        SelectedRecord\n" +
-                            "            Hash Join Light\n" +
+                            "            Async Hash Join Light workers: 1\n" +
                             "              condition: tabb.id=taba.id\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
@@ -4977,7 +5000,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "    GroupBy vectorized: false\n" +
                             "      values: [sum(x),sum(x1),count(x),count(x1)]\n" +
                             "        SelectedRecord\n" +
-                            "            Hash Join Light\n" +
+                            "            Async Hash Join Light workers: 1\n" +
                             "              condition: tabb.id=taba.id\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
@@ -5037,7 +5060,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                             "    GroupBy vectorized: false\n" +
                             "      values: [sum(resolutIONWidth),count(resolutIONWidth),sum(ResolutionWidth1),count(*)]\n" +
                             "        SelectedRecord\n" +
-                            "            Hash Join Light\n" +
+                            "            Async Hash Join Light workers: 1\n" +
                             "              condition: h2.id=h1.id\n" +
                             "                DataFrame\n" +
                             "                    Row forward scan\n" +
@@ -5055,7 +5078,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, ts timestamp) timestamp(ts);",
                 "select first(i) from a sample by 1h",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  values: [first(i)]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -5068,7 +5091,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, ts timestamp) timestamp(ts);",
                 "select first(i) from a sample by 1h fill(linear)",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  fill: linear\n" +
                         "  values: [first(i)]\n" +
                         "    DataFrame\n" +
@@ -5082,7 +5105,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, ts timestamp) timestamp(ts);",
                 "select first(i) from a sample by 1h fill(null)",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  fill: null\n" +
                         "  values: [first(i)]\n" +
                         "    DataFrame\n" +
@@ -5096,7 +5119,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, s symbol, ts timestamp) timestamp(ts);",
                 "select s, first(i) from a sample by 1h fill(prev)",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  fill: prev\n" +
                         "  keys: [s]\n" +
                         "  values: [first(i)]\n" +
@@ -5111,7 +5134,8 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, ts timestamp) timestamp(ts);",
                 "select first(i) from a sample by 1h fill(prev)",
-                "SampleByFillPrev\n" +
+                "Async Sample By workers: 1\n" +
+                        "  fill: prev\n" +
                         "  values: [first(i)]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -5124,7 +5148,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, s symbol, ts timestamp) timestamp(ts);",
                 "select s, first(i) from a sample by 1h fill(1)",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  fill: value\n" +
                         "  keys: [s]\n" +
                         "  values: [first(i)]\n" +
@@ -5139,7 +5163,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, ts timestamp) timestamp(ts);",
                 "select first(i) from a sample by 1h fill(1)",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  fill: value\n" +
                         "  values: [first(i)]\n" +
                         "    DataFrame\n" +
@@ -5173,7 +5197,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, l long, ts timestamp) timestamp(ts);",
                 "select l, i, first(i) from a sample by 1h",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  keys: [l,i]\n" +
                         "  values: [first(i)]\n" +
                         "    DataFrame\n" +
@@ -5187,7 +5211,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, l long, ts timestamp) timestamp(ts);",
                 "select l, i, first(i) from a sample by 1h",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  keys: [l,i]\n" +
                         "  values: [first(i)]\n" +
                         "    DataFrame\n" +
@@ -5201,7 +5225,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, l long, ts timestamp) timestamp(ts);",
                 "select l, first(i) from a sample by 1h fill(null)",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  fill: null\n" +
                         "  keys: [l]\n" +
                         "  values: [first(i)]\n" +
@@ -5216,7 +5240,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, l long, ts timestamp) timestamp(ts);",
                 "select l, first(i) from a sample by 1d fill(linear)",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  fill: linear\n" +
                         "  keys: [l]\n" +
                         "  values: [first(i)]\n" +
@@ -5231,7 +5255,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, l long, ts timestamp) timestamp(ts);",
                 "select l, first(i), last(i) from a sample by 1d fill(1,2)",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  fill: value\n" +
                         "  keys: [l]\n" +
                         "  values: [first(i),last(i)]\n" +
@@ -5246,7 +5270,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, l long, ts timestamp) timestamp(ts);",
                 "select l, first(i), last(i) from a sample by 1d fill(prev,prev)",
-                "SampleBy\n" +
+                "Async Sample By workers: 1\n" +
                         "  fill: value\n" +
                         "  keys: [l]\n" +
                         "  values: [first(i),last(i)]\n" +
@@ -5493,7 +5517,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table tab ( s symbol, ts timestamp);",
                 "select count_distinct(s) from tab",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  values: [count_distinct(s)]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -5506,7 +5530,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table tab ( s symbol index, ts timestamp);",
                 "select count_distinct(s) from tab",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  values: [count_distinct(s)]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -5519,7 +5543,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table tab ( s string, l long );",
                 "select count_distinct(l) from tab",
-                "GroupBy vectorized: false\n" +
+                "Async Group By workers: 1\n" +
                         "  values: [count_distinct(l)]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -5543,7 +5567,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, ts timestamp) ;",
                 "select * from a order by ts desc",
-                "Sort light\n" +
+                "Async Sort light workers: 1\n" +
                         "  keys: [ts desc]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -5768,6 +5792,14 @@ public class ExplainPlanTest extends AbstractCairoTest {
         );
     }
 
+    @Test
+    public void testSelectFromPartitionScrubStatus() throws Exception {
+        assertPlan(
+                "select * from partition_scrub_status()",
+                "partition_scrub_status\n"
+        );
+    }
+
     @Test
     public void testSelectFromReaderPool() throws Exception {
         assertPlan(
@@ -6333,7 +6365,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
             assertPlan(
                     "select * from t where l in (5, -1, 1, null)",
-                    "Async Filter workers: 1\n" +
+                    "Async JIT Filter workers: 1\n" +
                             "  filter: l in [NaN,-1,1,5]\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -6342,7 +6374,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
 
             assertPlan(
                     "select * from t where l not in (5, -1, 1, null)",
-                    "Async Filter workers: 1\n" +
+                    "Async JIT Filter workers: 1\n" +
                             "  filter: not (l in [NaN,-1,1,5])\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -6498,7 +6530,8 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "select ts, count(*)  from a sample by 1s limit -5",
                 "Limit lo: -5\n" +
-                        "    SampleBy\n" +
+                        "    Async Sample By workers: 1\n" +
+                        "      keys: [ts]\n" +
                         "      values: [count(*)]\n" +
                         "        DataFrame\n" +
                         "            Row forward scan\n" +
@@ -6545,7 +6578,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, ts timestamp) timestamp(ts) ;",
                 "select * from a order by i asc",
-                "Sort light\n" +
+                "Async Sort light workers: 1\n" +
                         "  keys: [i]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -6558,7 +6591,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table a ( i int, ts timestamp) timestamp(ts) ;",
                 "select * from a order by i desc",
-                "Sort light\n" +
+                "Async Sort light workers: 1\n" +
                         "  keys: [i desc]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -6606,7 +6639,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table tab ( l long, ts timestamp) timestamp(ts);",
                 "select * from tab where ts in '2020-01-01T03:00:00;1h;24h;3' order by l desc ",
-                "Sort light\n" +
+                "Async Sort light workers: 1\n" +
                         "  keys: [l desc]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -6771,7 +6804,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table tab ( s symbol, ts timestamp);",
                 "select * from tab where s in ( 'A', 'B' )",
-                "Async Filter workers: 1\n" +
+                "Async JIT Filter workers: 1\n" +
                         "  filter: s in [A,B]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -7159,7 +7192,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
         assertPlan(
                 "create table tab ( l long, ts timestamp);",
                 "select * from tab where l in ( 100, 200 )",
-                "Async Filter workers: 1\n" +
+                "Async JIT Filter workers: 1\n" +
                         "  filter: l in [100,200]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
@@ -8257,7 +8290,7 @@ public class ExplainPlanTest extends AbstractCairoTest {
                     "SelectedRecord\n" +
                             "    AsOf Join" + (isLight ? " Light" : "") + "\n" +
                             "      condition: c1=b1\n" +
-                            "        Hash Outer Join" + (isLight ? " Light" : "") + "\n" +
+                            "        " + (isLight ? "Async Hash Outer Join Light workers: 1" : "Hash Outer Join") + "\n" +
                             "          condition: b1=a1\n" +
                             "            DataFrame\n" +
                             "                Row forward scan\n" +
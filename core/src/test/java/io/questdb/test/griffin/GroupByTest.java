@@ -43,7 +43,7 @@ public class GroupByTest extends AbstractCairoTest {
             String query1 = "select l,s from t group by l,s";
             assertPlan(
                     query1,
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By workers: 1\n" +
                             "  keys: [l,s]\n" +
                             "    DataFrame\n" +
                             "        Row forward scan\n" +
@@ -57,7 +57,7 @@ public class GroupByTest extends AbstractCairoTest {
                     query2,
                     "VirtualRecord\n" +
                             "  functions: [l,s]\n" +
-                            "    GroupBy vectorized: false\n" +
+                            "    Async Group By workers: 1\n" +
                             "      keys: [l,s]\n" +
                             "        DataFrame\n" +
                             "            Row forward scan\n" +
@@ -308,7 +308,7 @@ public class GroupByTest extends AbstractCairoTest {
                     query,
                     "VirtualRecord\n" +
                             "  functions: [x,avg,avg+min,x+10,avg1,avg1+10]\n" +
-                            "    GroupBy vectorized: false\n" +
+                            "    Async Group By workers: 1\n" +
                             "      keys: [x]\n" +
                             "      values: [avg(y),min(y),avg(x)]\n" +
                             "        DataFrame\n" +
@@ -336,7 +336,7 @@ public class GroupByTest extends AbstractCairoTest {
                     query,
                     "VirtualRecord\n" +
                             "  functions: [x,avg,:bv::string]\n" +
-                            "    GroupBy vectorized: false\n" +
+                            "    Async Group By workers: 1\n" +
                             "      keys: [x]\n" +
                             "      values: [avg(y)]\n" +
                             "        DataFrame\n" +
@@ -358,7 +358,7 @@ public class GroupByTest extends AbstractCairoTest {
                     query,
                     "VirtualRecord\n" +
                             "  functions: [x*10,x+avg,min]\n" +
-                            "    GroupBy vectorized: false\n" +
+                            "    Async Group By workers: 1\n" +
                             "      keys: [x]\n" +
                             "      values: [avg(y),min(y)]\n" +
                             "        DataFrame\n" +
@@ -425,7 +425,7 @@ public class GroupByTest extends AbstractCairoTest {
                     query,
                     "Sort light\n" +
                             "  keys: [date_report]\n" +
-                            "    GroupBy vectorized: false\n" +
+                            "    Async Group By workers: 1\n" +
                             "      keys: [date_report]\n" +
                             "      values: [count(*)]\n" +
                             "        DataFrame\n" +
@@ -451,7 +451,7 @@ public class GroupByTest extends AbstractCairoTest {
                     query,
                     "Sort light\n" +
                             "  keys: [date_report]\n" +
-                            "    GroupBy vectorized: false\n" +
+                            "    Async Group By workers: 1\n" +
                             "      keys: [date_report]\n" +
                             "      values: [count(*)]\n" +
                             "        DataFrame\n" +
@@ -478,7 +478,7 @@ public class GroupByTest extends AbstractCairoTest {
                     query,
                     "Sort light\n" +
                             "  keys: [date_report]\n" +
-                            "    GroupBy vectorized: false\n" +
+                            "    Async Group By workers: 1\n" +
                             "      keys: [date_report]\n" +
                             "      values: [count(*)]\n" +
                             "        DataFrame\n" +
@@ -506,7 +506,7 @@ public class GroupByTest extends AbstractCairoTest {
                             "  keys: [date_report1]\n" +
                             "    VirtualRecord\n" +
                             "      functions: [date_report,date_report,count]\n" +
-                            "        GroupBy vectorized: false\n" +
+                            "        Async Group By workers: 1\n" +
                             "          keys: [date_report]\n" +
                             "          values: [count(*)]\n" +
                             "            DataFrame\n" +
@@ -567,7 +567,7 @@ public class GroupByTest extends AbstractCairoTest {
                             "  keys: [date_report]\n" +
                             "    VirtualRecord\n" +
                             "      functions: [date_report,to_str(date_report),dateadd('d',1,date_report),dateadd('d',-1,date_report),count]\n" +
-                            "        GroupBy vectorized: false\n" +
+                            "        Async Group By workers: 1\n" +
                             "          keys: [date_report]\n" +
                             "          values: [count(*)]\n" +
                             "            DataFrame\n" +
@@ -608,7 +608,7 @@ public class GroupByTest extends AbstractCairoTest {
                             "          keys: [date_report]\n" +
                             "          values: [min(x),count(*),min(dateadd('d',-1,date_report1))]\n" +
                             "            SelectedRecord\n" +
-                            "                Hash Join Light\n" +
+                            "                Async Hash Join Light workers: 1\n" +
                             "                  condition: details.x=ordr.x\n" +
                             "                    DataFrame\n" +
                             "                        Row forward scan\n" +
@@ -872,7 +872,7 @@ public class GroupByTest extends AbstractCairoTest {
             String query = "select s, max, max(l) from t group by s, max";
             assertPlan(
                     query,
-                    "GroupBy vectorized: false\n" +
+                    "Async Group By workers: 1\n" +
                             "  keys: [s,max]\n" +
                             "  values: [max(l)]\n" +
                             "    DataFrame\n" +
@@ -920,7 +920,7 @@ public class GroupByTest extends AbstractCairoTest {
                     "      keys: [x,x1]\n" +
                     "      values: [max(y)]\n" +
                     "        SelectedRecord\n" +
-                    "            Hash Join Light\n" +
+                    "            Async Hash Join Light workers: 1\n" +
                     "              condition: t2.y=t1.y\n" +
                     "                DataFrame\n" +
                     "                    Row forward scan\n" +
@@ -955,7 +955,7 @@ public class GroupByTest extends AbstractCairoTest {
                     "        VirtualRecord\n" +
                     "          functions: [x,y,case([1<x,30*x,20*x1]),x1]\n" +
                     "            SelectedRecord\n" +
-                    "                Hash Join Light\n" +
+                    "                Async Hash Join Light workers: 1\n" +
                     "                  condition: t2.y=t1.y\n" +
                     "                    DataFrame\n" +
                     "                        Row forward scan\n" +
@@ -990,7 +990,7 @@ public class GroupByTest extends AbstractCairoTest {
                     "        VirtualRecord\n" +
                     "          functions: [x,y,x1,dateadd('d',1677628800000000,x)]\n" +
                     "            SelectedRecord\n" +
-                    "                Hash Join Light\n" +
+                    "                Async Hash Join Light workers: 1\n" +
                     "                  condition: t2.y=t1.y\n" +
                     "                    DataFrame\n" +
                     "                        Row forward scan\n" +
@@ -1025,7 +1025,7 @@ public class GroupByTest extends AbstractCairoTest {
                     "        VirtualRecord\n" +
                     "          functions: [x,y,dateadd('d',1677628800000000,x),x1]\n" +
                     "            SelectedRecord\n" +
-                    "                Hash Join Light\n" +
+                    "                Async Hash Join Light workers: 1\n" +
                     "                  condition: t2.y=t1.y\n" +
                     "                    DataFrame\n" +
                     "                        Row forward scan\n" +
@@ -1066,7 +1066,7 @@ public class GroupByTest extends AbstractCairoTest {
                     query,
                     "VirtualRecord\n" +
                             "  functions: [l,s,rnd_int(0,1,0)/10]\n" +
-                            "    GroupBy vectorized: false\n" +
+                            "    Async Group By workers: 1\n" +
                             "      keys: [l,s]\n" +
                             "        DataFrame\n" +
                             "            Row forward scan\n" +
@@ -1189,13 +1189,12 @@ public class GroupByTest extends AbstractCairoTest {
                         "      keys: ref0\n" +
                         "        VirtualRecord\n" +
                         "          functions: [created]\n" +
-                        "            GroupBy vectorized: false\n" +
+                        "            Async JIT Group By workers: 1\n" +
                         "              keys: [created]\n" +
-                        "                Async JIT Filter workers: 1\n" +
-                        "                  filter: created!=null\n" +
-                        "                    DataFrame\n" +
-                        "                        Row forward scan\n" +
-                        "                        Frame forward scan on: tab\n"
+                        "              filter: created!=null\n" +
+                        "                DataFrame\n" +
+                        "                    Row forward scan\n" +
+                        "                    Frame forward scan on: tab\n"
         );
 
         assertQuery("ref0\n" +
@@ -1226,13 +1225,12 @@ public class GroupByTest extends AbstractCairoTest {
                         "      keys: ref0\n" +
                         "        VirtualRecord\n" +
                         "          functions: [dateadd('h',1,created)]\n" +
-                        "            GroupBy vectorized: false\n" +
+                        "            Async JIT Group By workers: 1\n" +
                         "              keys: [created]\n" +
-                        "                Async JIT Filter workers: 1\n" +
-                        "                  filter: created!=null\n" +
-                        "                    DataFrame\n" +
-                        "                        Row forward scan\n" +
-                        "                        Frame forward scan on: tab\n"
+                        "              filter: created!=null\n" +
+                        "                DataFrame\n" +
+                        "                    Row forward scan\n" +
+                        "                    Frame forward scan on: tab\n"
         );
 
         assertQuery("ref0\n" +
@@ -1261,13 +1259,12 @@ public class GroupByTest extends AbstractCairoTest {
                         "  keys: [created]\n" +
                         "    Distinct\n" +
                         "      keys: created\n" +
-                        "        GroupBy vectorized: false\n" +
+                        "        Async JIT Group By workers: 1\n" +
                         "          keys: [created]\n" +
-                        "            Async JIT Filter workers: 1\n" +
-                        "              filter: created!=null\n" +
-                        "                DataFrame\n" +
-                        "                    Row forward scan\n" +
-                        "                    Frame forward scan on: tab\n"
+                        "          filter: created!=null\n" +
+                        "            DataFrame\n" +
+                        "                Row forward scan\n" +
+                        "                Frame forward scan on: tab\n"
         );
 
         assertQuery("created\n" +
@@ -2137,7 +2137,7 @@ public class IPv4Test extends AbstractCairoTest {
     public void testIPv4Explain() throws Exception {
         assertQuery(
                 "QUERY PLAN\n" +
-                        "Sort light\n" +
+                        "Async Sort light workers: 1\n" +
                         "  keys: [ip desc]\n" +
                         "    DataFrame\n" +
                         "        Row forward scan\n" +
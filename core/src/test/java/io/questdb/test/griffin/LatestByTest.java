@@ -479,6 +479,27 @@ public class LatestByTest extends AbstractCairoTest {
         assertQuery(expected, query, "version", true, true);
     }
 
+    @Test
+    public void testLatestByPartitionByValueKeepsIndexedSymbolFilter() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (s symbol index, l long, ts timestamp) timestamp(ts) partition by day");
+            insert("insert into x values ('a', 1, '2020-01-01'), ('b', 1, '2020-01-02'), ('a', 2, '2020-01-03'), ('b', 3, '2020-01-04')");
+
+            // 'latest by' on a non-symbol column can't use s as key column, s = 'a' must stay in the filter
+            assertSql(
+                    "s\tl\tts\n" +
+                            "a\t1\t2020-01-01T00:00:00.000000Z\n" +
+                            "a\t2\t2020-01-03T00:00:00.000000Z\n",
+                    "x where s = 'a' latest on ts partition by l"
+            );
+            assertSql(
+                    "s\tl\tts\n" +
+                            "b\t1\t2020-01-02T00:00:00.000000Z\n",
+                    "x where s = 'b' and l = 1 latest on ts partition by l"
+            );
+        });
+    }
+
     @Test
     public void testLatestBySymbolEmpty() throws Exception {
         assertMemoryLeak(() -> {
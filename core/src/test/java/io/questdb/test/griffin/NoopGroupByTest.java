@@ -87,14 +87,13 @@ public class NoopGroupByTest extends AbstractCairoTest {
                 query,
                 "VirtualRecord\n" +
                         "  functions: [sym1,avgBid]\n" +
-                        "    GroupBy vectorized: false\n" +
+                        "    Async JIT Group By workers: 1\n" +
                         "      keys: [sym1,sym2]\n" +
                         "      values: [avg(bid)]\n" +
-                        "        Async Filter workers: 1\n" +
-                        "          filter: sym1 in [AA,BB]\n" +
-                        "            DataFrame\n" +
-                        "                Row forward scan\n" +
-                        "                Frame forward scan on: x\n"
+                        "      filter: sym1 in [AA,BB]\n" +
+                        "        DataFrame\n" +
+                        "            Row forward scan\n" +
+                        "            Frame forward scan on: x\n"
         );
         assertQuery("sym1\tavgBid\n", query, null, true, false);
     }
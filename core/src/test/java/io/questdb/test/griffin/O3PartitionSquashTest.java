@@ -0,0 +1,136 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.O3PartitionSquashJob;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableWriter;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class O3PartitionSquashTest extends AbstractCairoTest {
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        node1.getConfigurationOverrides().setPartitionO3SplitThreshold(100);
+    }
+
+    @Test
+    public void testMidPartitionSplitIsNotSquashedOnCommit() throws Exception {
+        assertMemoryLeak(() -> {
+            createTableWithMidPartitionSplit();
+
+            // the split is left to the background job, even after more O3 writes
+            ddl("create table w as (select x + 2000 x, timestamp_sequence('2020-02-04T23:20:30', 60*1000000L) ts from long_sequence(5))");
+            insert("insert into x select * from w");
+            insert("insert into y select * from w");
+            assertPartitionCount(4);
+            assertSqlCursors("y order by ts", "x");
+        });
+    }
+
+    @Test
+    public void testSquashPartitionLockedByReader() throws Exception {
+        node1.getConfigurationOverrides().setO3PartitionSquashQuietPeriod(0);
+        assertMemoryLeak(() -> {
+            createTables();
+
+            final O3PartitionSquashJob job = new O3PartitionSquashJob(engine);
+            // reader of the transaction before the split keeps the partition tail from being overwritten
+            try (TableReader reader = getReader("x")) {
+                Assert.assertEquals(3, reader.getPartitionCount());
+                splitMidPartition();
+                job.run(0);
+                Assert.assertEquals(1, job.getPendingTableCount());
+                assertPartitionCount(4);
+            }
+
+            job.run(0);
+            Assert.assertEquals(0, job.getPendingTableCount());
+            assertPartitionCount(3);
+            assertSqlCursors("y order by ts", "x");
+        });
+    }
+
+    @Test
+    public void testSquashQuietPartition() throws Exception {
+        node1.getConfigurationOverrides().setO3PartitionSquashQuietPeriod(0);
+        assertMemoryLeak(() -> {
+            createTableWithMidPartitionSplit();
+
+            final O3PartitionSquashJob job = new O3PartitionSquashJob(engine);
+            job.run(0);
+            Assert.assertEquals(0, job.getPendingTableCount());
+            assertPartitionCount(3);
+            assertSqlCursors("y order by ts", "x");
+        });
+    }
+
+    @Test
+    public void testSquashWaitsForQuietPeriod() throws Exception {
+        node1.getConfigurationOverrides().setO3PartitionSquashQuietPeriod(Long.MAX_VALUE / 2);
+        assertMemoryLeak(() -> {
+            createTableWithMidPartitionSplit();
+
+            final O3PartitionSquashJob job = new O3PartitionSquashJob(engine);
+            job.run(0);
+            Assert.assertEquals(1, job.getPendingTableCount());
+            assertPartitionCount(4);
+
+            try (TableWriter writer = getWriter("x")) {
+                Assert.assertFalse(writer.squashQuietSplitPartitions(configuration.getMicrosecondClock().getTicks()));
+                Assert.assertEquals(3, writer.getPartitionCount());
+            }
+            assertSqlCursors("y order by ts", "x");
+        });
+    }
+
+    private static void assertPartitionCount(int expected) {
+        try (TableWriter writer = getWriter("x")) {
+            Assert.assertEquals(expected, writer.getPartitionCount());
+        }
+    }
+
+    private static void createTableWithMidPartitionSplit() throws Exception {
+        createTables();
+        splitMidPartition();
+    }
+
+    private static void createTables() throws Exception {
+        ddl("create table x as (select x, timestamp_sequence('2020-02-03', 60*1000000L) ts from long_sequence(60*24*3)) timestamp(ts) partition by DAY");
+        ddl("create table z as (select x + 1000 x, timestamp_sequence('2020-02-04T23:00:30', 60*1000000L) ts from long_sequence(10))");
+        ddl("create table y as (select * from x union all select * from z)");
+    }
+
+    private static void splitMidPartition() throws Exception {
+        // late rows at the end of the middle partition split it
+        insert("insert into x select * from z");
+        assertPartitionCount(4);
+        assertSqlCursors("y order by ts", "x");
+    }
+}
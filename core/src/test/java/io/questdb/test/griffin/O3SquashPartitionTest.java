@@ -48,6 +48,8 @@ public class O3SquashPartitionTest extends AbstractCairoTest {
     @Before
     public void setUp() {
         node1.getConfigurationOverrides().setPartitionO3SplitThreshold(4 << 10);
+        // these tests expect mid-partition splits to be squashed on commit
+        node1.getConfigurationOverrides().setO3MidPartitionMaxSplits(1);
         super.setUp();
     }
 
@@ -385,13 +385,12 @@ public class OrderByWithFilterTest extends AbstractCairoTest {
                     "        VirtualRecord\n" +
                     "          functions: [timestamp_floor('minute',ts),ts1,concat([address,workspace]),ts]\n" +
                     "            SelectedRecord\n" +
-                    "                Hash Join Light\n" +
+                    "                Async JIT Hash Join Light workers: 1\n" +
                     "                  condition: t2.method_id=t1.method_id and t2.workspace=t1.workspace\n" +
-                    "                    Async JIT Filter workers: 1\n" +
-                    "                      filter: (workspace='a' and method_id='d')\n" +
-                    "                        DataFrame\n" +
-                    "                            Row forward scan\n" +
-                    "                            Frame forward scan on: tab\n" +
+                    "                  filter: (t1.workspace='a' and t1.method_id='d')\n" +
+                    "                    DataFrame\n" +
+                    "                        Row forward scan\n" +
+                    "                        Frame forward scan on: tab\n" +
                     "                    Hash\n" +
                     "                        Async JIT Filter workers: 1\n" +
                     "                          filter: (method_id='d' and workspace='a')\n" +
@@ -441,7 +440,7 @@ public class OrderByWithFilterTest extends AbstractCairoTest {
                     "    Sort light\n" +
                     "      keys: [mta_tax]\n" +
                     "        SelectedRecord\n" +
-                    "            Async Filter workers: 1\n" +
+                    "            Async JIT Filter workers: 1\n" +
                     "              filter: vendor_id in [A1,A2]\n" +
                     "                DataFrame\n" +
                     "                    Row forward scan\n" +
@@ -485,14 +484,14 @@ public class OrderByWithFilterTest extends AbstractCairoTest {
                     "    Sort\n" +
                     "      keys: [mta_tax]\n" +
                     "        SelectedRecord\n" +
-                    "            Hash Join Light\n" +
+                    "            Async Hash Join Light workers: 1\n" +
                     "              condition: b.vendor_id=a.vendor_id\n" +
                     "                DataFrame\n" +
                     "                    Row forward scan\n" +
                     "                    Interval forward scan on: t1\n" +
                     "                      intervals: [(\"2019-06-30T00:00:00.000000Z\",\"MAX\")]\n" +
                     "                Hash\n" +
-                    "                    Async Filter workers: 1\n" +
+                    "                    Async JIT Filter workers: 1\n" +
                     "                      filter: vendor_id in [A1,A2]\n" +
                     "                        DataFrame\n" +
                     "                            Row forward scan\n" +
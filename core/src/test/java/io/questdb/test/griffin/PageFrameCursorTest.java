@@ -35,6 +35,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ASC;
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_DESC;
 
 public class PageFrameCursorTest extends AbstractCairoTest {
     @Test
@@ -96,6 +97,50 @@ public class PageFrameCursorTest extends AbstractCairoTest {
         );
     }
 
+    @Test
+    public void testVarColumnPageSize() throws Exception {
+        pageFrameMaxRows = 64;
+        assertMemoryLeak(
+                () -> {
+                    ddl("create table x as (select" +
+                            " rnd_int() a," +
+                            " rnd_str(1, 40, 3) b," +
+                            " timestamp_sequence(0, 100000000) t" +
+                            " from long_sequence(2000)" +
+                            ") timestamp (t) partition by DAY"
+                    );
+
+                    try (RecordCursorFactory factory = select("x")) {
+                        for (int order : new int[]{ORDER_ASC, ORDER_DESC}) {
+                            try (PageFrameCursor pageFrameCursor = factory.getPageFrameCursor(sqlExecutionContext, order)) {
+                                PageFrame frame;
+                                int frameCount = 0;
+                                while ((frame = pageFrameCursor.next()) != null) {
+                                    final long count = frame.getPartitionHi() - frame.getPartitionLo();
+                                    final long fixAddress = frame.getIndexPageAddress(1);
+                                    final long lastOffset = Unsafe.getUnsafe().getLong(fixAddress + (count - 1) * 8);
+                                    final int lastLen = Unsafe.getUnsafe().getInt(frame.getPageAddress(1) + lastOffset);
+                                    final long expectedSize = lastOffset + 4 + (lastLen > 0 ? lastLen * 2L : 0);
+                                    // data size is resolved lazily, so check it twice
+                                    Assert.assertEquals(expectedSize, frame.getPageSize(1));
+                                    Assert.assertEquals(expectedSize, frame.getPageSize(1));
+                                    frameCount++;
+                                }
+                                Assert.assertTrue(frameCount > 1);
+                            }
+                        }
+                    }
+
+                    // strings of matching rows are read via the page address cache
+                    assertSql(
+                            "count\tsum\n" +
+                                    "895\t18139\n",
+                            "select count(), sum(length(b)) from (select b from x where a > 0 and b is not null)"
+                    );
+                }
+        );
+    }
+
     @Test
     public void testVarColumnWithColumnTop() throws Exception {
         assertMemoryLeak(
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.join.AsyncAsOfJoinLightRecordCursorFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelAsOfJoinTest extends AbstractCairoTest {
+    private static final int PAGE_FRAME_COUNT = 4; // also used to set queue size, so must be a power of 2
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+    private static final int ROW_COUNT = 10 * PAGE_FRAME_COUNT * PAGE_FRAME_MAX_ROWS;
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        // We intentionally use small values for shard count and reduce
+        // queue capacity to exhibit various edge cases.
+        pageFrameReduceShardCount = 2;
+        pageFrameReduceQueueCapacity = PAGE_FRAME_COUNT;
+
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Before
+    public void setUp() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        pageFrameReduceShardCount = 2;
+        pageFrameReduceQueueCapacity = PAGE_FRAME_COUNT;
+        super.setUp();
+    }
+
+    @Test
+    public void testParallelAsOfJoinDuplicateTimestamps() throws Exception {
+        // several quotes share the same timestamp and some of them match trade timestamps exactly
+        testParallelAsOfJoin("select t.ts, t.sym, t.price, b.ts, b.bid from trades t asof join bursts b on sym");
+    }
+
+    @Test
+    public void testParallelAsOfJoinIntKey() throws Exception {
+        // some of the trade ids never appear in quotes
+        testParallelAsOfJoin("select t.ts, t.id, t.price, q.ts, q.bid, q.ask from trades t asof join quotes q on id");
+    }
+
+    @Test
+    public void testParallelAsOfJoinLateSlave() throws Exception {
+        // first trades have no quotes at all
+        testParallelAsOfJoin("select t.ts, t.sym, t.price, l.ts, l.bid from trades t asof join late_quotes l on sym");
+    }
+
+    @Test
+    public void testParallelAsOfJoinMultipleKeys() throws Exception {
+        testParallelAsOfJoin("select t.ts, t.id, t.sym, t.qty, q.ts, q.bid from trades t asof join quotes q on (id, sym)");
+    }
+
+    @Test
+    public void testParallelAsOfJoinRareKeys() throws Exception {
+        // some symbols appear only in the first quotes, others never, so that
+        // the look-back limit is reached and the slave key index is used
+        testParallelAsOfJoin("select t.ts, t.sym, t.price, r.ts, r.sym, r.bid from trades t asof join rare_quotes r on sym");
+    }
+
+    @Test
+    public void testParallelAsOfJoinSlaveInterval() throws Exception {
+        testParallelAsOfJoin("select t.ts, t.sym, t.price, q.ts, q.bid from trades t asof join (quotes where ts in '1970-01-02') q on sym");
+    }
+
+    @Test
+    public void testParallelAsOfJoinStringKey() throws Exception {
+        testParallelAsOfJoin("select t.ts, t.venue, t.price, q.ts, q.ask from trades t asof join quotes q on venue");
+    }
+
+    @Test
+    public void testParallelAsOfJoinSymbolKey() throws Exception {
+        testParallelAsOfJoin("select t.ts, t.sym, t.price, q.ts, q.sym, q.bid, q.ask from trades t asof join quotes q on sym");
+    }
+
+    @Test
+    public void testParallelLtJoinDuplicateTimestamps() throws Exception {
+        testParallelAsOfJoin("select t.ts, t.sym, t.price, b.ts, b.bid from trades t lt join bursts b on sym");
+    }
+
+    @Test
+    public void testParallelLtJoinSymbolKey() throws Exception {
+        testParallelAsOfJoin("select t.ts, t.sym, t.qty, q.ts, q.sym, q.ask from trades t lt join quotes q on sym");
+    }
+
+    private static void assertParallelAsOfJoin(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext, String query) throws SqlException {
+        sqlExecutionContext.setParallelAsOfJoinEnabled(false);
+        try (RecordCursorFactory serialFactory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            Assert.assertFalse(containsFactory(serialFactory));
+
+            sqlExecutionContext.setParallelAsOfJoinEnabled(true);
+            try (RecordCursorFactory parallelFactory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(containsFactory(parallelFactory));
+
+                // run the query a few times to make sure that the factory can be reused
+                for (int i = 0; i < 3; i++) {
+                    try (
+                            RecordCursor serialCursor = serialFactory.getCursor(sqlExecutionContext);
+                            RecordCursor parallelCursor = parallelFactory.getCursor(sqlExecutionContext)
+                    ) {
+                        Assert.assertEquals(serialCursor.size(), parallelCursor.size());
+                        final StringSink expectedSink = new StringSink();
+                        TestUtils.printCursor(serialCursor, serialFactory.getMetadata(), true, expectedSink, TestUtils.printer);
+                        final StringSink actualSink = new StringSink();
+                        TestUtils.printCursor(parallelCursor, parallelFactory.getMetadata(), true, actualSink, TestUtils.printer);
+                        TestUtils.assertEquals(expectedSink, actualSink);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean containsFactory(RecordCursorFactory factory) {
+        while (factory != null) {
+            if (factory instanceof AsyncAsOfJoinLightRecordCursorFactory) {
+                return true;
+            }
+            factory = factory.getBaseFactory();
+        }
+        return false;
+    }
+
+    private static void createTables(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        compiler.compile(
+                "create table quotes as (select" +
+                        " rnd_int(0, 40, 0) id," +
+                        " rnd_symbol('a','b','c','d','e','f') sym," +
+                        " rnd_str('inst_1','inst_2','inst_3',null) venue," +
+                        " rnd_double() * 1000 bid," +
+                        " rnd_double() * 1000 ask," +
+                        " timestamp_sequence(0, 30000000) ts" +
+                        " from long_sequence(" + 2 * ROW_COUNT + ")) timestamp(ts) partition by day",
+                sqlExecutionContext
+        );
+        compiler.compile(
+                "create table bursts as (select" +
+                        " rnd_symbol('a','b','c','d','e','f') sym," +
+                        " rnd_double() * 1000 bid," +
+                        " cast((x / 4) * 100000000 as timestamp) ts" +
+                        " from long_sequence(" + ROW_COUNT + ")) timestamp(ts) partition by day",
+                sqlExecutionContext
+        );
+        compiler.compile(
+                "create table late_quotes as (select" +
+                        " rnd_symbol('a','b','c','d','e','f') sym," +
+                        " rnd_double() * 1000 bid," +
+                        " timestamp_sequence(150000000000, 70000000) ts" +
+                        " from long_sequence(" + ROW_COUNT + ")) timestamp(ts) partition by day",
+                sqlExecutionContext
+        );
+        compiler.compile(
+                "create table rare_quotes as (select" +
+                        " cast(case when x < 4 then 'g' when x % 1500 = 0 then 'd' else rnd_symbol('a','b','c') end as symbol) sym," +
+                        " rnd_double() * 1000 bid," +
+                        " timestamp_sequence(0, 30000000) ts" +
+                        " from long_sequence(" + 2 * ROW_COUNT + ")) timestamp(ts) partition by day",
+                sqlExecutionContext
+        );
+        compiler.compile(
+                "create table trades as (select" +
+                        " rnd_int(0, 50, 2) id," +
+                        " rnd_symbol('a','b','c','d','g',null) sym," +
+                        " rnd_str('inst_1','inst_2','inst_3','inst_77',null) venue," +
+                        " rnd_double(2) * 1000 price," +
+                        " rnd_long(0, 100, 2) qty," +
+                        " timestamp_sequence(0, 100000000) ts" +
+                        " from long_sequence(" + ROW_COUNT + ")) timestamp(ts) partition by day",
+                sqlExecutionContext
+        );
+    }
+
+    private void testParallelAsOfJoin(String query) throws Exception {
+        WorkerPool pool = new WorkerPool(() -> 4);
+        TestUtils.execute(pool, (engine, compiler, sqlExecutionContext) -> {
+                    createTables(compiler, sqlExecutionContext);
+                    assertParallelAsOfJoin(compiler, sqlExecutionContext, query);
+                },
+                configuration,
+                LOG
+        );
+    }
+}
@@ -0,0 +1,389 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.SqlJitMode;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.groupby.AsyncGroupByNotKeyedRecordCursorFactory;
+import io.questdb.griffin.engine.groupby.AsyncGroupByRecordCursorFactory;
+import io.questdb.griffin.engine.groupby.AsyncSampleByRecordCursorFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelGroupByTest extends AbstractCairoTest {
+    private static final int PAGE_FRAME_COUNT = 4; // also used to set queue size, so must be a power of 2
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+    private static final int ROW_COUNT = 10 * PAGE_FRAME_COUNT * PAGE_FRAME_MAX_ROWS;
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        // We intentionally use small values for shard count and reduce
+        // queue capacity to exhibit various edge cases.
+        pageFrameReduceShardCount = 2;
+        pageFrameReduceQueueCapacity = PAGE_FRAME_COUNT;
+
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Before
+    public void setUp() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        pageFrameReduceShardCount = 2;
+        pageFrameReduceQueueCapacity = PAGE_FRAME_COUNT;
+        super.setUp();
+    }
+
+    @Test
+    public void testParallelKeyedGroupByCountDistinct() throws Exception {
+        testParallelKeyedGroupBy(
+                "select key, count_distinct(s), count_distinct(str), count_distinct(l % 100), count_distinct(cast(f as int)), count() from tab order by key"
+        );
+    }
+
+    @Test
+    public void testParallelKeyedGroupByFirst() throws Exception {
+        testParallelKeyedGroupBy(
+                "select key, first(l), first(s), first(value), first(ts), count() from tab order by key"
+        );
+    }
+
+    @Test
+    public void testParallelKeyedGroupByIntKey() throws Exception {
+        testParallelKeyedGroupBy(
+                "select key, count(), sum(value), avg(value), min(f), max(f) from tab order by key"
+        );
+    }
+
+    @Test
+    public void testParallelKeyedGroupByLast() throws Exception {
+        testParallelKeyedGroupBy(
+                "select key, last(l), last(s), last(value), last(ts), count() from tab order by key"
+        );
+    }
+
+    @Test
+    public void testParallelKeyedGroupByMultipleKeys() throws Exception {
+        testParallelKeyedGroupBy(
+                "select key, s, count(), sum(l), min(ts), max(ts), avg(value) from tab order by key, s"
+        );
+    }
+
+    @Test
+    public void testParallelKeyedGroupByStringKey() throws Exception {
+        testParallelKeyedGroupBy(
+                "select str, count(), sum(value), min(l), max(l) from tab order by str"
+        );
+    }
+
+    @Test
+    public void testParallelKeyedGroupBySymbolKey() throws Exception {
+        testParallelKeyedGroupBy(
+                "select s, count(), sum(value), sum(l), sum(f), min(value), max(value) from tab order by s"
+        );
+    }
+
+    @Test
+    public void testParallelKeyedGroupBySymbolKeyWithFilter() throws Exception {
+        testParallelKeyedGroupBy(
+                "select s, count(), sum(value), min(l), max(l) from tab where value > 300 and s <> 'b' order by s"
+        );
+    }
+
+    @Test
+    public void testParallelKeyedGroupByWithJitFilter() throws Exception {
+        testParallelGroupBy(
+                "select key, count(), sum(value), min(l), max(l) from tab where l > 1000 and value < 400 order by key",
+                SqlJitMode.JIT_MODE_ENABLED
+        );
+    }
+
+    @Test
+    public void testParallelKeyedGroupByWithSymbolInFilter() throws Exception {
+        testParallelKeyedGroupBy(
+                "select key, count(), sum(l), max(f) from tab where s in ('a', 'c') order by key"
+        );
+    }
+
+    @Test
+    public void testParallelNonKeyedGroupBy() throws Exception {
+        testParallelGroupBy(
+                "select count(), sum(l), min(ts), max(ts), round(stddev_samp(value), 6), round(var_pop(value), 6), ksum(value), nsum(value) from tab",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelNonKeyedGroupByCountDistinct() throws Exception {
+        testParallelGroupBy(
+                "select count_distinct(key), count_distinct(s), count_distinct(str), count_distinct(l), count() from tab where value > 100",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelNonKeyedGroupByFirst() throws Exception {
+        testParallelGroupBy(
+                "select first(key), first(s), first(l), first(f), count() from tab where value > 100",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelNonKeyedGroupByEmptyResult() throws Exception {
+        testParallelGroupBy(
+                "select count(), sum(l), max(value), round(stddev_pop(value), 6) from tab where l < 0",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelNonKeyedGroupByLast() throws Exception {
+        testParallelGroupBy(
+                "select last(key), last(s), last(l), last(f), count() from tab where value > 100",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelNonKeyedGroupByWithFilter() throws Exception {
+        testParallelGroupBy(
+                "select count(), avg(value), min(f), max(f), round(stddev(value), 6), round(variance(value), 6) from tab where s in ('a', 'b') and value > 200",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelNonKeyedGroupByWithJitFilter() throws Exception {
+        testParallelGroupBy(
+                "select count(), sum(value), min(l), max(l), round(var_samp(value), 6), ksum(f) from tab where key < 50 and l > 1000",
+                SqlJitMode.JIT_MODE_ENABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByAlignToCalendarWithOffset() throws Exception {
+        testParallelGroupBy(
+                "select ts, s, count(), sum(value), max(l) from tab sample by 3h align to calendar with offset '00:40'",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByFillLinear() throws Exception {
+        testParallelGroupBy(
+                "select ts, sum(l), avg(value), min(f) from tab sample by 7m fill(linear)",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByFillLinearKeyed() throws Exception {
+        testParallelGroupBy(
+                "select ts, s, count(), sum(value) from tab sample by 45m align to calendar fill(linear)",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByFillNull() throws Exception {
+        testParallelGroupBy(
+                "select ts, count(), sum(value), min(f) from tab where key < 20 sample by 30m align to calendar fill(null)",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByFillNullKeyed() throws Exception {
+        testParallelGroupBy(
+                "select ts, s, count(), sum(l) from tab sample by 15m fill(null)",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByFillPrev() throws Exception {
+        testParallelGroupBy(
+                "select ts, max(l), first(value) from tab sample by 1m align to calendar fill(prev)",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByFillPrevKeyed() throws Exception {
+        testParallelGroupBy(
+                "select ts, s, first(l), sum(value) from tab sample by 10m fill(prev)",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByFillValue() throws Exception {
+        testParallelGroupBy(
+                "select ts, count(), sum(value), max(l) from tab sample by 45s fill(0, 42.5, prev)",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByFillValueKeyed() throws Exception {
+        testParallelGroupBy(
+                "select s, ts, min(l), sum(f) from tab sample by 20m align to calendar fill(1, null)",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByFirstObservation() throws Exception {
+        testParallelGroupBy(
+                "select ts, count(), sum(l), avg(value), min(f), max(f) from tab sample by 1h",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByFirstValue() throws Exception {
+        testParallelGroupBy(
+                "select ts, s, first(l), first(value), count() from tab sample by 2h align to calendar",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByKeyed() throws Exception {
+        testParallelGroupBy(
+                "select s, key, ts, count(), sum(value) from tab sample by 45m align to calendar",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByKeyedFirstObservation() throws Exception {
+        testParallelGroupBy(
+                "select ts, str, count(), min(ts), max(value) from tab sample by 1d",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByWithFilter() throws Exception {
+        testParallelGroupBy(
+                "select ts, s, count(), sum(l), round(stddev(value), 6) from tab where s in ('a', 'c') and value > 100 sample by 2h align to calendar",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelSampleByWithJitFilter() throws Exception {
+        testParallelGroupBy(
+                "select ts, count(), sum(value), min(l) from tab where key < 50 and l > 1000 sample by 30m align to calendar",
+                SqlJitMode.JIT_MODE_ENABLED
+        );
+    }
+
+    private static void assertParallelGroupBy(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext, String query) throws SqlException {
+        sqlExecutionContext.setParallelGroupByEnabled(false);
+        try (RecordCursorFactory serialFactory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            Assert.assertFalse(containsFactory(serialFactory));
+
+            sqlExecutionContext.setParallelGroupByEnabled(true);
+            try (RecordCursorFactory parallelFactory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(containsFactory(parallelFactory));
+
+                // run the query a few times to make sure that the factory can be reused
+                for (int i = 0; i < 3; i++) {
+                    try (
+                            RecordCursor serialCursor = serialFactory.getCursor(sqlExecutionContext);
+                            RecordCursor parallelCursor = parallelFactory.getCursor(sqlExecutionContext)
+                    ) {
+                        TestUtils.assertEquals(
+                                serialCursor,
+                                serialFactory.getMetadata(),
+                                parallelCursor,
+                                parallelFactory.getMetadata(),
+                                true
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean containsFactory(RecordCursorFactory factory) {
+        while (factory != null) {
+            if (
+                    factory instanceof AsyncGroupByRecordCursorFactory
+                            || factory instanceof AsyncGroupByNotKeyedRecordCursorFactory
+                            || factory instanceof AsyncSampleByRecordCursorFactory
+            ) {
+                return true;
+            }
+            factory = factory.getBaseFactory();
+        }
+        return false;
+    }
+
+    private static void createTable(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        compiler.compile(
+                "create table tab as (select" +
+                        " rnd_int(0, 100, 2) key," +
+                        " rnd_symbol('a','b','c','d',null) s," +
+                        " rnd_str('foo','bar','baz',null) str," +
+                        " rnd_long(0, 1000000, 2) l," +
+                        // values are exact binary fractions, so that sums don't depend on the order of aggregation
+                        " rnd_int(0, 10000, 2) / 16.0 value," +
+                        " cast(rnd_int(0, 1000, 2) / 4.0 as float) f," +
+                        " timestamp_sequence(0, 100000000) ts" +
+                        " from long_sequence(" + ROW_COUNT + ")) timestamp(ts) partition by day",
+                sqlExecutionContext
+        );
+    }
+
+    private void testParallelGroupBy(String query, int jitMode) throws Exception {
+        WorkerPool pool = new WorkerPool(() -> 4);
+        TestUtils.execute(pool, (engine, compiler, sqlExecutionContext) -> {
+                    sqlExecutionContext.setJitMode(jitMode);
+                    createTable(compiler, sqlExecutionContext);
+                    assertParallelGroupBy(compiler, sqlExecutionContext, query);
+                },
+                configuration,
+                LOG
+        );
+    }
+
+    private void testParallelKeyedGroupBy(String query) throws Exception {
+        testParallelGroupBy(query, SqlJitMode.JIT_MODE_DISABLED);
+    }
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.SqlJitMode;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.join.AsyncHashJoinLightRecordCursorFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelHashJoinTest extends AbstractCairoTest {
+    private static final int PAGE_FRAME_COUNT = 4; // also used to set queue size, so must be a power of 2
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+    private static final int ROW_COUNT = 10 * PAGE_FRAME_COUNT * PAGE_FRAME_MAX_ROWS;
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        // We intentionally use small values for shard count and reduce
+        // queue capacity to exhibit various edge cases.
+        pageFrameReduceShardCount = 2;
+        pageFrameReduceQueueCapacity = PAGE_FRAME_COUNT;
+
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Before
+    public void setUp() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        pageFrameReduceShardCount = 2;
+        pageFrameReduceQueueCapacity = PAGE_FRAME_COUNT;
+        super.setUp();
+    }
+
+    @Test
+    public void testParallelHashJoinDuplicateSlaveKeys() throws Exception {
+        // quotes hold several rows per instrument, so that master rows match chains of slave rows
+        testParallelHashJoin("select t.ts, t.id, t.price, q.bid, q.ask from trades t join quotes q on t.id = q.id");
+    }
+
+    @Test
+    public void testParallelHashJoinIntKey() throws Exception {
+        testParallelHashJoin("select t.ts, t.id, t.price, i.name, i.lot from trades t join instruments i on t.id = i.id");
+    }
+
+    @Test
+    public void testParallelHashJoinMultipleKeys() throws Exception {
+        testParallelHashJoin("select t.ts, t.id, t.sym, t.price, q.bid from trades t join quotes q on t.id = q.id and t.sym = q.sym");
+    }
+
+    @Test
+    public void testParallelHashJoinStringKey() throws Exception {
+        testParallelHashJoin("select t.ts, t.venue, t.qty, i.id, i.lot from trades t join instruments i on t.venue = i.name");
+    }
+
+    @Test
+    public void testParallelHashJoinSymbolKey() throws Exception {
+        testParallelHashJoin("select t.ts, t.sym, t.price, i.name, i.lot from trades t join instruments i on sym");
+    }
+
+    @Test
+    public void testParallelHashJoinWithFilter() throws Exception {
+        testParallelHashJoin(
+                "select t.ts, t.sym, t.price, i.name from trades t join instruments i on sym where t.price > 500 and t.venue <> 'inst_3'",
+                SqlJitMode.JIT_MODE_DISABLED
+        );
+    }
+
+    @Test
+    public void testParallelHashJoinWithJitFilter() throws Exception {
+        testParallelHashJoin(
+                "select t.ts, t.id, t.price, t.qty, i.name from trades t join instruments i on t.id = i.id where t.qty > 10 and t.price < 800",
+                SqlJitMode.JIT_MODE_ENABLED
+        );
+    }
+
+    @Test
+    public void testParallelHashOuterJoin() throws Exception {
+        testParallelHashJoin("select t.ts, t.id, t.sym, i.name, i.lot from trades t left join instruments i on t.id = i.id");
+    }
+
+    @Test
+    public void testParallelHashOuterJoinWithJitFilter() throws Exception {
+        testParallelHashJoin(
+                "select t.ts, t.id, t.qty, q.bid, q.ask from trades t left join quotes q on t.id = q.id where t.qty < 50",
+                SqlJitMode.JIT_MODE_ENABLED
+        );
+    }
+
+    private static void assertParallelHashJoin(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext, String query) throws SqlException {
+        sqlExecutionContext.setParallelHashJoinEnabled(false);
+        try (RecordCursorFactory serialFactory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            Assert.assertFalse(containsFactory(serialFactory));
+
+            sqlExecutionContext.setParallelHashJoinEnabled(true);
+            try (RecordCursorFactory parallelFactory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(containsFactory(parallelFactory));
+
+                // run the query a few times to make sure that the factory can be reused
+                for (int i = 0; i < 3; i++) {
+                    try (
+                            RecordCursor serialCursor = serialFactory.getCursor(sqlExecutionContext);
+                            RecordCursor parallelCursor = parallelFactory.getCursor(sqlExecutionContext)
+                    ) {
+                        // joined rows must come in the same order as in serial join
+                        final StringSink expectedSink = new StringSink();
+                        TestUtils.printCursor(serialCursor, serialFactory.getMetadata(), true, expectedSink, TestUtils.printer);
+                        final StringSink actualSink = new StringSink();
+                        TestUtils.printCursor(parallelCursor, parallelFactory.getMetadata(), true, actualSink, TestUtils.printer);
+                        TestUtils.assertEquals(expectedSink, actualSink);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean containsFactory(RecordCursorFactory factory) {
+        while (factory != null) {
+            if (factory instanceof AsyncHashJoinLightRecordCursorFactory) {
+                return true;
+            }
+            factory = factory.getBaseFactory();
+        }
+        return false;
+    }
+
+    private static void createTables(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        compiler.compile(
+                "create table instruments as (select" +
+                        " x::int id," +
+                        " rnd_symbol('a','b','c','d','e','f') sym," +
+                        " 'inst_' || x name," +
+                        " rnd_int(1, 1000, 0) lot" +
+                        " from long_sequence(40))",
+                sqlExecutionContext
+        );
+        compiler.compile(
+                "create table quotes as (select" +
+                        " rnd_int(0, 50, 0) id," +
+                        " rnd_symbol('a','b','c','d','e','f') sym," +
+                        " rnd_double() * 1000 bid," +
+                        " rnd_double() * 1000 ask" +
+                        " from long_sequence(200))",
+                sqlExecutionContext
+        );
+        compiler.compile(
+                "create table trades as (select" +
+                        " rnd_int(0, 50, 2) id," +
+                        " rnd_symbol('a','b','c','d','g',null) sym," +
+                        " rnd_str('inst_1','inst_2','inst_3','inst_77',null) venue," +
+                        " rnd_double(2) * 1000 price," +
+                        " rnd_long(0, 100, 2) qty," +
+                        " timestamp_sequence(0, 100000000) ts" +
+                        " from long_sequence(" + ROW_COUNT + ")) timestamp(ts) partition by day",
+                sqlExecutionContext
+        );
+    }
+
+    private void testParallelHashJoin(String query, int jitMode) throws Exception {
+        WorkerPool pool = new WorkerPool(() -> 4);
+        TestUtils.execute(pool, (engine, compiler, sqlExecutionContext) -> {
+                    sqlExecutionContext.setJitMode(jitMode);
+                    createTables(compiler, sqlExecutionContext);
+                    assertParallelHashJoin(compiler, sqlExecutionContext, query);
+                },
+                configuration,
+                LOG
+        );
+    }
+
+    private void testParallelHashJoin(String query) throws Exception {
+        testParallelHashJoin(query, SqlJitMode.JIT_MODE_DISABLED);
+    }
+}
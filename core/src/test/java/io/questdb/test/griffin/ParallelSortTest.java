@@ -0,0 +1,237 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.SqlJitMode;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.orderby.AsyncSortedLightRecordCursorFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+
+public class ParallelSortTest extends AbstractCairoTest {
+    private static final int PAGE_FRAME_COUNT = 4; // also used to set queue size, so must be a power of 2
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+    private static final int ROW_COUNT = 10 * PAGE_FRAME_COUNT * PAGE_FRAME_MAX_ROWS;
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        // We intentionally use small values for shard count and reduce
+        // queue capacity to exhibit various edge cases.
+        pageFrameReduceShardCount = 2;
+        pageFrameReduceQueueCapacity = PAGE_FRAME_COUNT;
+
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Before
+    public void setUp() {
+        pageFrameMaxRows = PAGE_FRAME_MAX_ROWS;
+        pageFrameReduceShardCount = 2;
+        pageFrameReduceQueueCapacity = PAGE_FRAME_COUNT;
+        super.setUp();
+    }
+
+    @Test
+    public void testParallelSortBooleanKey() throws Exception {
+        testParallelSort("select * from tab order by b desc");
+    }
+
+    @Test
+    public void testParallelSortDoubleKeyWithNulls() throws Exception {
+        testParallelSort("select * from tab order by value");
+    }
+
+    @Test
+    public void testParallelSortDoubleKeyWithNullsDesc() throws Exception {
+        testParallelSort("select * from tab order by value desc");
+    }
+
+    @Test
+    public void testParallelSortEmptyResult() throws Exception {
+        testParallelSort("select * from tab where l < 0 order by key");
+    }
+
+    @Test
+    public void testParallelSortFloatKey() throws Exception {
+        testParallelSort("select * from tab order by f desc");
+    }
+
+    @Test
+    public void testParallelSortIntKey() throws Exception {
+        testParallelSort("select * from tab order by key");
+    }
+
+    @Test
+    public void testParallelSortLongKeyDesc() throws Exception {
+        testParallelSort("select * from tab order by l desc");
+    }
+
+    @Test
+    public void testParallelSortMultipleKeysIsSerial() throws Exception {
+        WorkerPool pool = new WorkerPool(() -> 4);
+        TestUtils.execute(pool, (engine, compiler, sqlExecutionContext) -> {
+                    createTable(compiler, sqlExecutionContext);
+                    sqlExecutionContext.setParallelSortEnabled(true);
+                    try (RecordCursorFactory factory = compiler.compile("select * from tab order by key, l", sqlExecutionContext).getRecordCursorFactory()) {
+                        Assert.assertFalse(containsFactory(factory));
+                    }
+                    try (RecordCursorFactory factory = compiler.compile("select * from tab order by s", sqlExecutionContext).getRecordCursorFactory()) {
+                        Assert.assertFalse(containsFactory(factory));
+                    }
+                },
+                configuration,
+                LOG
+        );
+    }
+
+    @Test
+    public void testParallelSortSpill() throws Exception {
+        // budget fits a few page frames, so that runs are spilled to disk
+        node1.getConfigurationOverrides().setSqlSortMemoryBudget(3 * PAGE_FRAME_MAX_ROWS * 16);
+        testParallelSort("select * from tab order by key desc", SqlJitMode.JIT_MODE_DISABLED);
+        // spill files are removed once the cursor is closed
+        final File spillDir = new File(root, TableUtils.SORT_SPILL_DIR_NAME);
+        Assert.assertTrue(spillDir.exists());
+        final String[] spillFiles = spillDir.list();
+        Assert.assertNotNull(spillFiles);
+        Assert.assertEquals(0, spillFiles.length);
+    }
+
+    @Test
+    public void testParallelSortSpillLimit() throws Exception {
+        node1.getConfigurationOverrides().setSqlSortMemoryBudget(3 * PAGE_FRAME_MAX_ROWS * 16);
+        node1.getConfigurationOverrides().setSqlSortSpillMaxSize(PAGE_FRAME_MAX_ROWS * 16);
+        WorkerPool pool = new WorkerPool(() -> 4);
+        TestUtils.execute(pool, (engine, compiler, sqlExecutionContext) -> {
+                    createTable(compiler, sqlExecutionContext);
+                    sqlExecutionContext.setParallelSortEnabled(true);
+                    try (RecordCursorFactory factory = compiler.compile("select * from tab order by key desc", sqlExecutionContext).getRecordCursorFactory()) {
+                        Assert.assertTrue(containsFactory(factory));
+                        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                            cursor.hasNext();
+                            Assert.fail();
+                        } catch (CairoException e) {
+                            TestUtils.assertContains(e.getFlyweightMessage(), "sort spill size limit exceeded");
+                        }
+                    }
+                },
+                configuration,
+                LOG
+        );
+    }
+
+    @Test
+    public void testParallelSortWithFilter() throws Exception {
+        testParallelSort("select * from tab where s in ('a', 'c') and value > 100 order by l");
+    }
+
+    @Test
+    public void testParallelSortWithJitFilter() throws Exception {
+        testParallelSort("select * from tab where key < 50 and l > 1000 order by value desc", SqlJitMode.JIT_MODE_ENABLED);
+    }
+
+    private static void assertParallelSort(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext, String query) throws SqlException {
+        sqlExecutionContext.setParallelSortEnabled(false);
+        try (RecordCursorFactory serialFactory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+            Assert.assertFalse(containsFactory(serialFactory));
+
+            sqlExecutionContext.setParallelSortEnabled(true);
+            try (RecordCursorFactory parallelFactory = compiler.compile(query, sqlExecutionContext).getRecordCursorFactory()) {
+                Assert.assertTrue(containsFactory(parallelFactory));
+
+                // run the query a few times to make sure that the factory can be reused
+                for (int i = 0; i < 3; i++) {
+                    try (
+                            RecordCursor serialCursor = serialFactory.getCursor(sqlExecutionContext);
+                            RecordCursor parallelCursor = parallelFactory.getCursor(sqlExecutionContext)
+                    ) {
+                        // rows with equal keys must come in the same order as in serial sort
+                        final StringSink expectedSink = new StringSink();
+                        TestUtils.printCursor(serialCursor, serialFactory.getMetadata(), true, expectedSink, TestUtils.printer);
+                        final StringSink actualSink = new StringSink();
+                        TestUtils.printCursor(parallelCursor, parallelFactory.getMetadata(), true, actualSink, TestUtils.printer);
+                        TestUtils.assertEquals(expectedSink, actualSink);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean containsFactory(RecordCursorFactory factory) {
+        while (factory != null) {
+            if (factory instanceof AsyncSortedLightRecordCursorFactory) {
+                return true;
+            }
+            factory = factory.getBaseFactory();
+        }
+        return false;
+    }
+
+    private static void createTable(SqlCompiler compiler, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        compiler.compile(
+                "create table tab as (select" +
+                        " rnd_int(0, 100, 2) key," +
+                        " rnd_symbol('a','b','c','d',null) s," +
+                        " rnd_long(0, 1000000, 2) l," +
+                        " rnd_double(2) * 1000 value," +
+                        " rnd_float(2) - 0.5 f," +
+                        " rnd_boolean() b," +
+                        " timestamp_sequence(0, 100000000) ts" +
+                        " from long_sequence(" + ROW_COUNT + ")) timestamp(ts) partition by day",
+                sqlExecutionContext
+        );
+    }
+
+    private void testParallelSort(String query, int jitMode) throws Exception {
+        WorkerPool pool = new WorkerPool(() -> 4);
+        TestUtils.execute(pool, (engine, compiler, sqlExecutionContext) -> {
+                    sqlExecutionContext.setJitMode(jitMode);
+                    createTable(compiler, sqlExecutionContext);
+                    assertParallelSort(compiler, sqlExecutionContext, query);
+                },
+                configuration,
+                LOG
+        );
+    }
+
+    private void testParallelSort(String query) throws Exception {
+        testParallelSort(query, SqlJitMode.JIT_MODE_DISABLED);
+    }
+}
@@ -0,0 +1,274 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.O3PartitionPurgeJob;
+import io.questdb.cairo.PartitionBy;
+import io.questdb.cairo.PartitionTieringJob;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.TableWriter;
+import io.questdb.cairo.TxReader;
+import io.questdb.cairo.TxWriter;
+import io.questdb.std.Files;
+import io.questdb.std.datetime.microtime.TimestampFormatUtils;
+import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+public class PartitionTieringTest extends AbstractCairoTest {
+    private String volumePath;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        try {
+            volumePath = temp.newFolder("cold" + System.nanoTime()).getAbsolutePath();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        node1.getConfigurationOverrides().setPartitionTieringVolumePath(volumePath);
+        node1.getConfigurationOverrides().setPartitionTieringAge(Timestamps.DAY_MICROS);
+    }
+
+    @Test
+    public void testDropMovedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            runTieringJob("2020-02-06T12:00:00.000000Z");
+            Assert.assertEquals(2, countMovedPartitions());
+            Assert.assertEquals(2, countVolumePartitions());
+
+            ddl("alter table x drop partition list '2020-02-03'");
+            ddl("alter table y drop partition list '2020-02-03'");
+            purgeRemovedPartitions();
+            Assert.assertEquals(1, countMovedPartitions());
+            Assert.assertEquals(1, countVolumePartitions());
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testDropTableWithMovedPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            runTieringJob("2020-02-06T12:00:00.000000Z");
+            final String tableDirName = engine.verifyTableName("x").getDirName();
+            Assert.assertEquals(2, countVolumePartitions(tableDirName));
+
+            drop("drop table x");
+            Assert.assertEquals(0, countVolumePartitions(tableDirName));
+        });
+    }
+
+    @Test
+    public void testMoveColdPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            // only the partitions which ended more than a day ago are moved
+            runTieringJob("2020-02-06T12:00:00.000000Z");
+            Assert.assertEquals(2, countMovedPartitions());
+            Assert.assertEquals(2, countVolumePartitions());
+            assertSqlCursors("y", "x");
+
+            // the last partition stays in place even when it is old
+            runTieringJob("2020-03-01T00:00:00.000000Z");
+            Assert.assertEquals(2, countMovedPartitions());
+            Assert.assertEquals(2, countVolumePartitions());
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testMoveNonPartitionedTable() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x, timestamp_sequence('2020-02-03', 60*1000000L) ts from long_sequence(100)) timestamp(ts)");
+            runTieringJob("2020-03-01T00:00:00.000000Z");
+            Assert.assertEquals(0, countVolumePartitions("x"));
+        });
+    }
+
+    @Test
+    public void testMoveOnePartitionPerRun() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            currentMicros = TimestampFormatUtils.parseTimestamp("2020-02-06T12:00:00.000000Z");
+            try (PartitionTieringJob job = new PartitionTieringJob(engine)) {
+                Assert.assertTrue(job.run(0));
+                Assert.assertEquals(1, countMovedPartitions());
+                // the next run does not wait for the check interval
+                Assert.assertTrue(job.run(0));
+                Assert.assertEquals(2, countMovedPartitions());
+                Assert.assertFalse(job.run(0));
+            }
+            Assert.assertEquals(2, countVolumePartitions());
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testO3WriteIntoMovedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            runTieringJob("2020-02-06T12:00:00.000000Z");
+            Assert.assertEquals(2, countMovedPartitions());
+
+            // rewriting the moved partition brings it back to the table directory
+            ddl("create table z as (select x + 10000 x, rnd_symbol('a','b',null) s, rnd_str(5, 10, 2) str, timestamp_sequence('2020-02-03T00:00:30', 60*1000000L) ts from long_sequence(10))");
+            insert("insert into x select * from z");
+            insert("insert into y select * from z");
+            purgeRemovedPartitions();
+            Assert.assertEquals(1, countMovedPartitions());
+            Assert.assertEquals(1, countVolumePartitions());
+            assertSqlCursors("y order by ts", "x");
+
+            runTieringJob("2020-02-06T13:00:00.000000Z");
+            Assert.assertEquals(2, countMovedPartitions());
+            Assert.assertEquals(2, countVolumePartitions());
+            assertSqlCursors("y order by ts", "x");
+        });
+    }
+
+    @Test
+    public void testReaderKeepsPartitionVersion() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            try (TableReader reader = getReader("x")) {
+                Assert.assertEquals(60 * 24 * 3, reader.size());
+                runTieringJob("2020-02-06T12:00:00.000000Z");
+                Assert.assertEquals(2, countMovedPartitions());
+                assertSqlCursors("y", "x");
+                // the reader still uses the partition versions in the table directory
+                Assert.assertTrue(partitionDirExists("2020-02-03"));
+                purgeRemovedPartitions();
+                Assert.assertTrue(partitionDirExists("2020-02-03"));
+            }
+            purgeRemovedPartitions();
+            Assert.assertFalse(partitionDirExists("2020-02-03"));
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testStalePartitionCopy() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            final long timestamp = TimestampFormatUtils.parseTimestamp("2020-02-03T00:00:00.000000Z");
+            try (
+                    TableWriter writer = getWriter("x");
+                    Path copyPath = new Path().of(volumePath).concat("copy")
+            ) {
+                final TxWriter txWriter = writer.getTxWriter();
+                final long nameTxn = txWriter.getPartitionNameTxnByPartitionTimestamp(timestamp);
+                final long size = txWriter.getPartitionSizeByPartitionTimestamp(timestamp);
+                final long columnVersion = txWriter.getColumnVersion();
+                final int metadataVersion = txWriter.getMetadataVersion();
+                // the partition has changed since the copy was taken
+                Assert.assertFalse(writer.linkPartitionCopy(timestamp, nameTxn, size - 1, columnVersion, metadataVersion, copyPath));
+                Assert.assertFalse(writer.linkPartitionCopy(timestamp, nameTxn, size, columnVersion + 1, metadataVersion, copyPath));
+                Assert.assertFalse(writer.linkPartitionCopy(timestamp, nameTxn, size, columnVersion, metadataVersion - 1, copyPath));
+                // the last partition is not moved
+                final long lastTimestamp = txWriter.getLastPartitionTimestamp();
+                Assert.assertFalse(writer.linkPartitionCopy(
+                        lastTimestamp,
+                        txWriter.getPartitionNameTxnByPartitionTimestamp(lastTimestamp),
+                        txWriter.getPartitionSizeByPartitionTimestamp(lastTimestamp),
+                        columnVersion,
+                        metadataVersion,
+                        copyPath
+                ));
+            }
+            Assert.assertEquals(0, countMovedPartitions());
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    private static void createTables() throws Exception {
+        ddl("create table x as (select x, rnd_symbol('a','b',null) s, rnd_str(5, 10, 2) str, timestamp_sequence('2020-02-03', 60*1000000L) ts from long_sequence(60*24*3)) timestamp(ts) partition by DAY");
+        ddl("create table y as (select * from x) timestamp(ts) partition by DAY");
+    }
+
+    private static void purgeRemovedPartitions() {
+        // when reader is returned to pool it remains in open state
+        // holding files such that purge fails with access violation
+        engine.releaseInactive();
+        try (O3PartitionPurgeJob purgeJob = new O3PartitionPurgeJob(engine.getMessageBus(), engine.getSnapshotAgent(), 1)) {
+            purgeJob.drain(0);
+        }
+    }
+
+    private static void runTieringJob(String now) throws Exception {
+        currentMicros = TimestampFormatUtils.parseTimestamp(now);
+        try (PartitionTieringJob job = new PartitionTieringJob(engine)) {
+            // each run moves one partition
+            //noinspection StatementWithEmptyBody
+            while (job.run(0)) {
+            }
+        }
+    }
+
+    private int countMovedPartitions() {
+        final TableToken tableToken = engine.verifyTableName("x");
+        int count = 0;
+        try (
+                TxReader txReader = new TxReader(configuration.getFilesFacade());
+                Path path = new Path()
+        ) {
+            path.of(configuration.getRoot()).concat(tableToken);
+            final int tableLen = path.length();
+            txReader.ofRO(path.concat(TableUtils.TXN_FILE_NAME).$(), PartitionBy.DAY);
+            txReader.unsafeLoadAll();
+            for (int i = 0, n = txReader.getPartitionCount(); i < n; i++) {
+                TableUtils.setPathForPartition(path.trimTo(tableLen), PartitionBy.DAY, txReader.getPartitionTimestampByIndex(i), txReader.getPartitionNameTxn(i));
+                if (Files.isSoftLink(path.$())) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int countVolumePartitions() {
+        return countVolumePartitions(engine.verifyTableName("x").getDirName());
+    }
+
+    private int countVolumePartitions(String tableDirName) {
+        final String[] partitions = new File(volumePath, tableDirName).list();
+        return partitions != null ? partitions.length : 0;
+    }
+
+    private boolean partitionDirExists(String partitionName) {
+        try (Path path = new Path()) {
+            path.of(configuration.getRoot()).concat(engine.verifyTableName("x")).concat(partitionName).$();
+            return Files.exists(path);
+        }
+    }
+}
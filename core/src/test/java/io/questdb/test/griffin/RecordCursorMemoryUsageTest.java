@@ -96,6 +96,8 @@ public class RecordCursorMemoryUsageTest extends AbstractCairoTest {
                     " timestamp_sequence(0, 1000000000) ts" +
                     " from long_sequence(10000)) timestamp(ts)");
 
+            // the serial factories are under test here, parallel SAMPLE BY would otherwise take over FILL(NONE)
+            sqlExecutionContext.setParallelGroupByEnabled(false);
             try (AbstractSampleByRecordCursorFactory factory = (AbstractSampleByRecordCursorFactory) select("select sym1, sum(d) from tab SAMPLE BY 1d " + fill)) {
                 Assert.assertSame(factory.getClass(), expectedFactoryClass);
 
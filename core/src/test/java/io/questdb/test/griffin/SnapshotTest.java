@@ -28,20 +28,29 @@ import io.questdb.cairo.*;
 import io.questdb.cairo.sql.NetworkSqlExecutionCircuitBreaker;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCMARW;
+import io.questdb.cairo.wal.ApplyWal2TableJob;
+import io.questdb.cairo.wal.CheckWalTransactionsJob;
 import io.questdb.cairo.wal.WalPurgeJob;
 import io.questdb.cairo.wal.WalWriter;
 import io.questdb.griffin.DefaultSqlExecutionCircuitBreakerConfiguration;
 import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.SqlUtil;
 import io.questdb.mp.SOCountDownLatch;
 import io.questdb.mp.SimpleWaitingLock;
 import io.questdb.std.*;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
 import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.cairo.DefaultTestCairoConfiguration;
 import io.questdb.test.std.TestFilesFacadeImpl;
 import io.questdb.test.tools.TestUtils;
 import org.junit.*;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 public class SnapshotTest extends AbstractCairoTest {
 
     private static final TestFilesFacade testFilesFacade = new TestFilesFacade();
@@ -97,6 +106,9 @@ public class SnapshotTest extends AbstractCairoTest {
         super.tearDown();
         path.trimTo(rootLen);
         configuration.getFilesFacade().rmdir(path.slash$());
+        path.of(configuration.getSnapshotRoot()).concat(TableUtils.SNAPSHOT_TXN_DIR).slash$();
+        configuration.getFilesFacade().rmdir(path);
+        path.of(configuration.getSnapshotRoot()).concat(configuration.getDbDirectory()).slash();
         // reset inProgress for all tests
         ddl("snapshot complete");
     }
@@ -282,6 +294,101 @@ public class SnapshotTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testSnapshotHardLinkListsChangedPartitions() throws Exception {
+        node1.getConfigurationOverrides().setSnapshotHardLinkEnabled(true);
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x, timestamp_sequence('2020-02-03', 60*60*1000000L) ts from long_sequence(72)) timestamp(ts) partition by DAY");
+            ddl("create table y as (select x from long_sequence(3))");
+
+            final String x = engine.verifyTableName("x").getDirName();
+            final String y = engine.verifyTableName("y").getDirName();
+
+            // all partitions are new to the first snapshot
+            ddl("snapshot prepare");
+            assertSnapshotChanges(x + "/2020-02-03\n" + x + "/2020-02-04\n" + x + "/2020-02-05\n" + y + "/default\n");
+            // the last partition is copied, the rest are hard-linked
+            Assert.assertTrue(isSnapshotFileLinked(x + "/2020-02-04/x.d"));
+            Assert.assertFalse(isSnapshotFileLinked(x + "/2020-02-05/x.d"));
+            ddl("snapshot complete");
+
+            ddl("snapshot prepare");
+            assertSnapshotChanges("");
+            ddl("snapshot complete");
+
+            // O3 write creates new version of the first partition, append changes the last one
+            insert("insert into x values (100, '2020-02-03T10:30')");
+            insert("insert into x values (101, '2020-02-05T23:30')");
+            ddl("snapshot prepare");
+            assertSnapshotChanges(x + "/2020-02-03.1\n" + x + "/2020-02-05\n");
+            ddl("snapshot complete");
+        });
+    }
+
+    @Test
+    public void testSnapshotHardLinkPartitionNotSplit() throws Exception {
+        node1.getConfigurationOverrides().setSnapshotHardLinkEnabled(true);
+        node1.getConfigurationOverrides().setPartitionO3SplitThreshold(100);
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x, rnd_str(3,5,1) s, timestamp_sequence('2020-02-03', 60*1000000L) ts from long_sequence(60*24*3)) timestamp(ts) partition by DAY");
+
+            ddl("snapshot prepare");
+            final StringSink expected = new StringSink();
+            TestUtils.printSql(engine, sqlExecutionContext, "x", expected);
+            Assert.assertTrue(isSnapshotFileLinked(engine.verifyTableName("x").getDirName() + "/2020-02-03/s.d"));
+
+            // a split would truncate the hard-linked partition in place and the next write would
+            // overwrite its tail, the partition is rewritten into a new version instead
+            insert("insert into x select -x, 'zzzzz', timestamp_sequence('2020-02-03T23:00:00.5', 60*1000000L) from long_sequence(10)");
+            insert("insert into x select -x - 10, 'yyyyy', timestamp_sequence('2020-02-03T22:59:00.5', 1000000L) from long_sequence(10)");
+            assertSql("count\n4340\n", "select count() from x");
+
+            try (
+                    CairoEngine snapshotEngine = new CairoEngine(new DefaultTestCairoConfiguration(path.trimTo(rootLen).toString()));
+                    SqlExecutionContext snapshotContext = TestUtils.createSqlExecutionCtx(snapshotEngine)
+            ) {
+                TestUtils.assertSql(snapshotEngine, snapshotContext, "x", new StringSink(), expected);
+            }
+        });
+    }
+
+    @Test
+    public void testSnapshotHardLinkStartsAsDatabase() throws Exception {
+        node1.getConfigurationOverrides().setSnapshotHardLinkEnabled(true);
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x, rnd_symbol('a','b',null) sym, rnd_str(3,5,1) s, timestamp_sequence('2020-02-03', 60*60*1000000L) ts from long_sequence(72)) timestamp(ts) partition by DAY");
+            ddl("create table w as (select x, rnd_symbol('a','b',null) sym, timestamp_sequence('2020-02-03', 60*60*1000000L) ts from long_sequence(72)) timestamp(ts) partition by DAY WAL");
+            drainWalQueue();
+            // not yet applied transaction is taken to the snapshot along with its WAL segment
+            insert("insert into w values (1000, 'c', '2020-02-06T01:00')");
+
+            ddl("snapshot prepare");
+
+            drainWalQueue();
+            final StringSink expectedX = new StringSink();
+            final StringSink expectedW = new StringSink();
+            TestUtils.printSql(engine, sqlExecutionContext, "x", expectedX);
+            TestUtils.printSql(engine, sqlExecutionContext, "w", expectedW);
+
+            // changes made after the snapshot is prepared are not in the snapshot
+            insert("insert into x values (2000, 'a', 'zz', '2020-02-05T23:59')");
+            insert("insert into w values (2001, 'a', '2020-02-06T02:00')");
+            drainWalQueue();
+
+            try (
+                    CairoEngine snapshotEngine = new CairoEngine(new DefaultTestCairoConfiguration(path.trimTo(rootLen).toString()));
+                    SqlExecutionContext snapshotContext = TestUtils.createSqlExecutionCtx(snapshotEngine)
+            ) {
+                try (ApplyWal2TableJob walApplyJob = new ApplyWal2TableJob(snapshotEngine, 1, 1)) {
+                    new CheckWalTransactionsJob(snapshotEngine).run(0);
+                    walApplyJob.drain(0);
+                }
+                TestUtils.assertSql(snapshotEngine, snapshotContext, "x", new StringSink(), expectedX);
+                TestUtils.assertSql(snapshotEngine, snapshotContext, "w", new StringSink(), expectedW);
+            }
+        });
+    }
+
     @Test
     public void testSnapshotPrepare() throws Exception {
         assertMemoryLeak(() -> {
@@ -939,6 +1046,29 @@ public class SnapshotTest extends AbstractCairoTest {
         });
     }
 
+    private void assertSnapshotChanges(String expected) throws Exception {
+        final String changes = new String(
+                java.nio.file.Files.readAllBytes(Paths.get(configuration.getSnapshotRoot().toString(), configuration.getDbDirectory().toString(), TableUtils.SNAPSHOT_CHANGES_FILE_NAME)),
+                StandardCharsets.UTF_8
+        );
+        // tables are snapshot in no particular order
+        final String[] lines = changes.split("\n");
+        Arrays.sort(lines);
+        final StringBuilder sorted = new StringBuilder();
+        for (String line : lines) {
+            if (!line.isEmpty()) {
+                sorted.append(line).append('\n');
+            }
+        }
+        Assert.assertEquals(expected, sorted.toString());
+    }
+
+    private boolean isSnapshotFileLinked(String fileName) throws Exception {
+        final Object snapshotInode = java.nio.file.Files.getAttribute(Paths.get(configuration.getSnapshotRoot().toString(), configuration.getDbDirectory().toString(), fileName), "unix:ino");
+        final Object inode = java.nio.file.Files.getAttribute(Paths.get(configuration.getRoot().toString(), fileName), "unix:ino");
+        return inode.equals(snapshotInode);
+    }
+
     private void testRecoverSnapshot(String snapshotId, String restartedId, boolean expectRecovery) throws Exception {
         assertMemoryLeak(() -> {
             snapshotInstanceId = snapshotId;
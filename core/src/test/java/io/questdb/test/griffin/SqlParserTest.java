@@ -1774,7 +1774,7 @@ public class SqlParserTest extends AbstractSqlParserTest {
                         "TIMESTAMP(t) " +
                         "PARTITION BY YEAR",
                 60,
-                "indexes are supported only for SYMBOL columns: b"
+                "indexes are supported only for SYMBOL, INT, LONG, UUID and IPv4 columns: b"
         );
     }
 
@@ -5526,7 +5526,7 @@ public class SqlParserTest extends AbstractSqlParserTest {
     @Test
     public void testNonAnalyticFunctionInAnalyticContext() throws Exception {
         assertException(
-                "select avg(price) over (partition by symbol) from trades",
+                "select abs(price) over (partition by symbol) from trades",
                 "create table trades " +
                         "(" +
                         " price double," +
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.griffin.SqlException;
+import io.questdb.std.Zip;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ValueIndexTest extends AbstractCairoTest {
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        // Zip allocates memory when the class is loaded, do it before memory leak checks
+        Zip.init();
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Test
+    public void testAddIndexToColumnWithTop() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            ddl("alter table x add column l2 long");
+            ddl("alter table y add column l2 long");
+            final String insert = "select rnd_int(0, 2000, 2), rnd_long(0, 2000, 2), rnd_uuid4(), rnd_ipv4('10.0.0.0/22', 2), " +
+                    "timestamp_sequence('2020-01-03', 60000000L), rnd_long(0, 100, 2) from long_sequence(1000)";
+            insert("insert into x " + insert);
+            insert("insert into y select * from x where ts >= '2020-01-03'");
+            ddl("alter table x alter column l2 add index");
+
+            assertSqlCursors("y where l2 = 42", "x where l2 = 42");
+            assertSqlCursors("y where l2 = null", "x where l2 = null");
+            assertSqlCursors("y where l2 in (1, 2, 3)", "x where l2 in (1, 2, 3)");
+        });
+    }
+
+    @Test
+    public void testBindVariables() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            bindVariableService.clear();
+            bindVariableService.setLong("l", 1000);
+            bindVariableService.setInt("i", 42);
+            assertSqlCursors("y where l = 1000", "x where l = :l");
+            assertSqlCursors("y where i = 42", "x where i = :i");
+
+            bindVariableService.clear();
+            bindVariableService.setStr(0, "1000");
+            bindVariableService.setLong(1, 1000);
+            bindVariableService.setLong(2, 7);
+            assertSqlCursors("y where l in (7, 1000)", "x where l in ($1, $2, $3)");
+        });
+    }
+
+    @Test
+    public void testCompressedPartition() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            ddl("alter table x compress partition list '2020-01-01'");
+            assertQueries();
+        });
+    }
+
+    @Test
+    public void testCreateTableWithIndex() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            assertQueries();
+        });
+    }
+
+    @Test
+    public void testIndexCapacity() throws Exception {
+        assertMemoryLeak(() -> {
+            // bucket count follows index capacity, small capacity gets more buckets
+            ddl(
+                    "create table x (i int, l long, u uuid, ip ipv4, ts timestamp)," +
+                            " index(i capacity 4), index(l capacity 4096), index(u capacity 16), index(ip capacity 1024)" +
+                            " timestamp(ts) partition by day"
+            );
+            insert(
+                    "insert into x select rnd_int(0, 2000, 2), rnd_long(0, 2000, 2), rnd_uuid4(), rnd_ipv4('10.0.0.0/22', 2), " +
+                            "timestamp_sequence('2020-01-01', 60000000L) from long_sequence(2880)"
+            );
+            insert("insert into x values (42, 1000, '11111111-1111-4111-8111-111111111111', '10.0.1.1', '2020-01-01T10:00:00.000001Z')");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+            assertQueries();
+        });
+    }
+
+    @Test
+    public void testIndexUnsupportedType() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table z (d double, ts timestamp) timestamp(ts) partition by day");
+            try {
+                ddl("alter table z alter column d add index");
+                Assert.fail();
+            } catch (SqlException e) {
+                TestUtils.assertContains(e.getFlyweightMessage(), "indexes are only supported for SYMBOL, INT, LONG, UUID and IPv4 types [column=d, type=DOUBLE]");
+            }
+        });
+    }
+
+    @Test
+    public void testOutOfOrderInsert() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            final String o3 = "select rnd_int(0, 2000, 2), rnd_long(0, 2000, 2), rnd_uuid4(), rnd_ipv4('10.0.0.0/22', 2), " +
+                    "timestamp_sequence('2020-01-01T12:00:30', 60000000L) from long_sequence(1000)";
+            insert("insert into x " + o3);
+            ddl("truncate table y");
+            insert("insert into y select * from x");
+            assertQueries();
+        });
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            assertPlan(
+                    "x where l = 42",
+                    "DataFrame\n" +
+                            "    Index forward scan on: l\n" +
+                            "      filter: l='42'\n" +
+                            "    Frame forward scan on: x\n"
+            );
+            assertPlan(
+                    "x where l = 42 and i > 10",
+                    "DataFrame\n" +
+                            "    Index forward scan on: l\n" +
+                            "      filter: l='42' and 10<i\n" +
+                            "    Frame forward scan on: x\n"
+            );
+            assertPlan(
+                    "x where i in (1, 2)",
+                    "FilterOnValues\n" +
+                            "    Table-order scan\n" +
+                            "        Index forward scan on: i\n" +
+                            "          filter: i='1'\n" +
+                            "        Index forward scan on: i\n" +
+                            "          filter: i='2'\n" +
+                            "    Frame forward scan on: x\n"
+            );
+            assertPlan(
+                    "x where l != 42",
+                    "Async JIT Filter workers: 1\n" +
+                            "  filter: l!=42\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testReindex() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            engine.releaseAllReaders();
+            engine.releaseAllWriters();
+            ddl("reindex table x column l lock exclusive");
+            assertQueries();
+        });
+    }
+
+    @Test
+    public void testRemoveIndex() throws Exception {
+        assertMemoryLeak(() -> {
+            createTables();
+            ddl("alter table x alter column u drop index");
+            assertSqlCursors("y where u = '11111111-1111-4111-8111-111111111111'", "x where u = '11111111-1111-4111-8111-111111111111'");
+            ddl("alter table x alter column u add index");
+            assertQueries();
+        });
+    }
+
+    private void assertQueries() throws SqlException {
+        final String[] predicates = {
+                "i = 42",
+                "i = null",
+                "i = 'abc'",
+                "i in (1, 42, 1000, 42)",
+                "i = 42 and l > 1000",
+                "l = 1000",
+                "l = null",
+                "l in (1, '1000', 01000)",
+                "l = 1000 and i = 42",
+                "u = '11111111-1111-4111-8111-111111111111'",
+                "u in ('11111111-1111-4111-8111-111111111111', '22222222-2222-4222-8222-222222222222')",
+                "u = null",
+                "ip = '10.0.1.1'",
+                "ip = null",
+                "l = 1000 and ts in '2020-01-02'",
+        };
+        for (String predicate : predicates) {
+            assertSqlCursors("y where " + predicate, "x where " + predicate);
+            assertSqlCursors("y where " + predicate + " order by ts desc", "x where " + predicate + " order by ts desc");
+        }
+        assertSqlCursors("select count() from y where l = 1000", "select count() from x where l = 1000");
+        assertSqlCursors("y where l = 1000 latest on ts partition by i", "x where l = 1000 latest on ts partition by i");
+        assertSqlCursors("y where i in (1, 42) latest on ts partition by l", "x where i in (1, 42) latest on ts partition by l");
+        assertSqlCursors("y where l = 1000 and ip = '10.0.1.1' latest on ts partition by u", "x where l = 1000 and ip = '10.0.1.1' latest on ts partition by u");
+        assertSqlCursors("select i, count() from y where i in (1, 2, 3) order by i", "select i, count() from x where i in (1, 2, 3) order by i");
+    }
+
+    private void createTables() throws SqlException {
+        ddl(
+                "create table x as (" +
+                        "select rnd_int(0, 2000, 2) i, rnd_long(0, 2000, 2) l, rnd_uuid4() u, rnd_ipv4('10.0.0.0/22', 2) ip, " +
+                        "timestamp_sequence('2020-01-01', 60000000L) ts from long_sequence(2880)" +
+                        "), index(i), index(l), index(u), index(ip) timestamp(ts) partition by day"
+        );
+        insert("insert into x values (42, 1000, '11111111-1111-4111-8111-111111111111', '10.0.1.1', '2020-01-01T10:00:00.000001Z')");
+        ddl("create table y as (select * from x) timestamp(ts) partition by day");
+    }
+}
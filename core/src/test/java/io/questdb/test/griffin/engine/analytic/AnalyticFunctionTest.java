@@ -65,6 +65,267 @@ public class AnalyticFunctionTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testFrameAggregatesOverRows() throws Exception {
+        assertQuery(
+                "ts\tsym\tprice\tsum\tavg\tmin\tmax\tcount\tfirst_value\tlast_value\n" +
+                        "1970-01-01T00:00:00.000000Z\tB\t1.0\t1.0\t1.0\t1.0\t1.0\t1\t1.0\t1.0\n" +
+                        "1970-01-01T00:01:00.000000Z\tA\t2.0\t2.0\t2.0\t2.0\t2.0\t1\t2.0\t2.0\n" +
+                        "1970-01-01T00:02:00.000000Z\tB\t3.0\t4.0\t2.0\t1.0\t3.0\t2\t1.0\t3.0\n" +
+                        "1970-01-01T00:03:00.000000Z\tA\t4.0\t6.0\t3.0\t2.0\t4.0\t2\t2.0\t4.0\n" +
+                        "1970-01-01T00:04:00.000000Z\tB\t5.0\t8.0\t4.0\t3.0\t5.0\t2\t3.0\t5.0\n" +
+                        "1970-01-01T00:05:00.000000Z\tA\t6.0\t10.0\t5.0\t4.0\t6.0\t2\t4.0\t6.0\n",
+                "select ts, sym, price, " +
+                        "sum(price) over (partition by sym order by ts rows between 1 preceding and current row), " +
+                        "avg(price) over (partition by sym order by ts rows between 1 preceding and current row), " +
+                        "min(price) over (partition by sym order by ts rows between 1 preceding and current row), " +
+                        "max(price) over (partition by sym order by ts rows between 1 preceding and current row), " +
+                        "count() over (partition by sym order by ts rows between 1 preceding and current row), " +
+                        "first_value(price) over (partition by sym order by ts rows between 1 preceding and current row), " +
+                        "last_value(price) over (partition by sym order by ts rows between 1 preceding and current row) " +
+                        "from trades",
+                "create table trades as " +
+                        "(" +
+                        "select" +
+                        " x::double price," +
+                        " case when x % 2 = 0 then 'A' else 'B' end::symbol sym," +
+                        " timestamp_sequence(0, 60000000) ts" +
+                        " from long_sequence(6)" +
+                        ") timestamp(ts) partition by day",
+                null,
+                false,
+                true
+        );
+    }
+
+    @Test
+    public void testFrameErrors() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table trades (price double, sym symbol, ts timestamp) timestamp(ts) partition by day");
+
+            assertException(
+                    "select sum(price) over (order by ts rows between 1 following and current row) from trades",
+                    65,
+                    "frame starting from following row cannot have preceding rows"
+            );
+            assertException(
+                    "select sum(price) over (order by ts rows between 1 preceding and 2 preceding) from trades",
+                    51,
+                    "frame start must not be after frame end"
+            );
+            assertException(
+                    "select sum(price) over (order by ts rows between 2 preceding and 1 following) from trades",
+                    67,
+                    "frame ending with FOLLOWING offset is not supported"
+            );
+            assertException(
+                    "select sum(price) over (partition by sym range between 1 hour preceding and current row) from trades",
+                    62,
+                    "RANGE with offset PRECEDING/FOLLOWING requires an ORDER BY clause"
+            );
+            assertException(
+                    "select sum(price) over (order by price range between 10 preceding and current row) from trades",
+                    56,
+                    "RANGE with offset PRECEDING/FOLLOWING requires ORDER BY on a single ascending timestamp column"
+            );
+            assertException(
+                    "select sum(price) over (order by ts rows between 1 hour preceding and current row) from trades",
+                    51,
+                    "time unit is only allowed in RANGE mode"
+            );
+            assertException(
+                    "select lag(price, -1) over (order by ts) from trades",
+                    18,
+                    "non-negative offset expected"
+            );
+        });
+    }
+
+    @Test
+    public void testFrameOverNonTimestampOrder() throws Exception {
+        assertQuery(
+                "price\tsum\n" +
+                        "1.0\t3.0\n" +
+                        "2.0\t5.0\n" +
+                        "3.0\t7.0\n" +
+                        "4.0\t9.0\n" +
+                        "5.0\t11.0\n" +
+                        "6.0\t6.0\n",
+                "select price, sum(price) over (order by price desc rows between 1 preceding and current row) from trades",
+                "create table trades as " +
+                        "(" +
+                        "select" +
+                        " x::double price," +
+                        " timestamp_sequence(0, 60000000) ts" +
+                        " from long_sequence(6)" +
+                        ") timestamp(ts) partition by day",
+                null,
+                true,
+                false
+        );
+    }
+
+    @Test
+    public void testFrameOverTimeRange() throws Exception {
+        assertQuery(
+                "ts\tprice\tsum\tsum1\tsum2\n" +
+                        "1970-01-01T00:00:00.000000Z\t1.0\t1.0\tNaN\tNaN\n" +
+                        "1970-01-01T00:01:00.000000Z\t2.0\t3.0\t1.0\t1.0\n" +
+                        "1970-01-01T00:02:00.000000Z\t3.0\t6.0\t2.0\t3.0\n" +
+                        "1970-01-01T00:03:00.000000Z\t4.0\t9.0\t3.0\t6.0\n" +
+                        "1970-01-01T00:04:00.000000Z\t5.0\t12.0\t4.0\t10.0\n" +
+                        "1970-01-01T00:05:00.000000Z\t6.0\t15.0\t5.0\t15.0\n",
+                "select ts, price, " +
+                        "sum(price) over (order by ts range between 2 minutes preceding and current row), " +
+                        "sum(price) over (order by ts range between 90 seconds preceding and 30 seconds preceding), " +
+                        "sum(price) over (order by ts range between unbounded preceding and 1 minute preceding) " +
+                        "from trades",
+                "create table trades as " +
+                        "(" +
+                        "select" +
+                        " x::double price," +
+                        " timestamp_sequence(0, 60000000) ts" +
+                        " from long_sequence(6)" +
+                        ") timestamp(ts) partition by day",
+                null,
+                true,
+                false
+        );
+    }
+
+    @Test
+    public void testFramePlan() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table trades (price double, sym symbol, ts timestamp) timestamp(ts) partition by day");
+
+            // ordered by designated timestamp, streamed
+            assertPlan(
+                    "select ts, avg(price) over (partition by sym order by ts rows between 10 preceding and current row) from trades",
+                    "Analytic\n" +
+                            "  functions: [avg(price) over (partition by [sym] rows between 10 preceding and current row)]\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: trades\n"
+            );
+            // whole partition has to be seen, cached
+            assertPlan(
+                    "select ts, avg(price) over (partition by sym) from trades",
+                    "CachedAnalytic\n" +
+                            "  functions: [avg(price) over (partition by [sym] range between unbounded preceding and unbounded following)]\n" +
+                            "    DataFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: trades\n"
+            );
+        });
+    }
+
+    @Test
+    public void testFrameRangeIncludesPeers() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl(
+                    "create table trades as " +
+                            "(" +
+                            "select" +
+                            " x::double price," +
+                            " x / 2 grp," +
+                            " cast(x / 2 * 60000000 as timestamp) ts" +
+                            " from long_sequence(6)" +
+                            ") timestamp(ts) partition by day"
+            );
+
+            assertSql(
+                    "ts\tprice\tsum\tcount\tmax\tsum1\tsum2\n" +
+                            "1970-01-01T00:00:00.000000Z\t1.0\t1.0\t1\t1.0\t1.0\t1.0\n" +
+                            "1970-01-01T00:01:00.000000Z\t2.0\t6.0\t3\t3.0\t5.0\t3.0\n" +
+                            "1970-01-01T00:01:00.000000Z\t3.0\t6.0\t3\t3.0\t5.0\t6.0\n" +
+                            "1970-01-01T00:02:00.000000Z\t4.0\t15.0\t5\t5.0\t9.0\t10.0\n" +
+                            "1970-01-01T00:02:00.000000Z\t5.0\t15.0\t5\t5.0\t9.0\t15.0\n" +
+                            "1970-01-01T00:03:00.000000Z\t6.0\t21.0\t6\t6.0\t6.0\t21.0\n",
+                    "select ts, price, " +
+                            "sum(price) over (order by ts), " +
+                            "count() over (order by ts), " +
+                            "max(price) over (order by ts range between 1 minute preceding and current row), " +
+                            "sum(price) over (order by ts range between current row and current row), " +
+                            "sum(price) over (order by ts rows between unbounded preceding and current row) " +
+                            "from trades"
+            );
+
+            // peers are found by comparing ORDER BY values when there is no timestamp to key the frame on
+            assertSql(
+                    "grp\tprice\tsum\tsum1\n" +
+                            "0\t1.0\t21.0\t1.0\n" +
+                            "1\t2.0\t20.0\t5.0\n" +
+                            "1\t3.0\t20.0\t5.0\n" +
+                            "2\t4.0\t15.0\t9.0\n" +
+                            "2\t5.0\t15.0\t9.0\n" +
+                            "3\t6.0\t6.0\t6.0\n",
+                    "select grp, price, " +
+                            "sum(price) over (order by grp desc), " +
+                            "sum(price) over (order by grp range between current row and current row) " +
+                            "from trades"
+            );
+        });
+    }
+
+    @Test
+    public void testFrameRunningTotal() throws Exception {
+        assertQuery(
+                "sym\tprice\tsum\tavg\tcount\n" +
+                        "B\t1.0\t1.0\t3.0\t3\n" +
+                        "A\t2.0\t2.0\t4.0\t3\n" +
+                        "B\t3.0\t4.0\t3.0\t3\n" +
+                        "A\t4.0\t6.0\t4.0\t3\n" +
+                        "B\t5.0\t9.0\t3.0\t3\n" +
+                        "A\t6.0\t12.0\t4.0\t3\n",
+                "select sym, price, " +
+                        "sum(price) over (partition by sym order by ts), " +
+                        "avg(price) over (partition by sym), " +
+                        "count() over (partition by sym order by ts rows between unbounded preceding and unbounded following) " +
+                        "from trades",
+                "create table trades as " +
+                        "(" +
+                        "select" +
+                        " x::double price," +
+                        " case when x % 2 = 0 then 'A' else 'B' end::symbol sym," +
+                        " timestamp_sequence(0, 60000000) ts" +
+                        " from long_sequence(6)" +
+                        ") timestamp(ts) partition by day",
+                null,
+                true,
+                false
+        );
+    }
+
+    @Test
+    public void testLagLead() throws Exception {
+        assertQuery(
+                "sym\tprice\tlag\tlag1\tlead\tlead1\n" +
+                        "B\t1.0\tNaN\t-1.0\t3.0\t3.0\n" +
+                        "A\t2.0\tNaN\t-1.0\t4.0\t4.0\n" +
+                        "B\t3.0\t1.0\t-1.0\t5.0\t5.0\n" +
+                        "A\t4.0\t2.0\t-1.0\t6.0\t6.0\n" +
+                        "B\t5.0\t3.0\t1.0\tNaN\t0.0\n" +
+                        "A\t6.0\t4.0\t2.0\tNaN\t0.0\n",
+                "select sym, price, " +
+                        "lag(price) over (partition by sym order by ts), " +
+                        "lag(price, 2, -1) over (partition by sym order by ts), " +
+                        "lead(price) over (partition by sym order by ts), " +
+                        "lead(price, 1, 0) over (partition by sym order by ts) " +
+                        "from trades",
+                "create table trades as " +
+                        "(" +
+                        "select" +
+                        " x::double price," +
+                        " case when x % 2 = 0 then 'A' else 'B' end::symbol sym," +
+                        " timestamp_sequence(0, 60000000) ts" +
+                        " from long_sequence(6)" +
+                        ") timestamp(ts) partition by day",
+                null,
+                true,
+                false
+        );
+    }
+
     @Test
     public void testRankFailsInNonAnalyticContext() throws Exception {
         assertException(
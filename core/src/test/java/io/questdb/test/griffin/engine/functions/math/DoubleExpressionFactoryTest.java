@@ -0,0 +1,160 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.functions.math;
+
+import io.questdb.cairo.SqlJitMode;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.FunctionFactory;
+import io.questdb.griffin.engine.functions.columns.DoubleColumn;
+import io.questdb.griffin.engine.functions.columns.IntColumn;
+import io.questdb.griffin.engine.functions.constants.DoubleConstant;
+import io.questdb.griffin.engine.functions.math.*;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoubleExpressionFactoryTest extends AbstractCairoTest {
+
+    @Test
+    public void testCompiledProjections() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl(
+                    "create table x as (select" +
+                            " rnd_double(2) a," +
+                            " rnd_double(2) b," +
+                            " rnd_float(2) f," +
+                            " rnd_int(-100, 100, 2) i," +
+                            " rnd_long(-100, 100, 2) l," +
+                            " timestamp_sequence(0, 1000000) ts" +
+                            " from long_sequence(1000)) timestamp(ts)"
+            );
+
+            assertCompiledProjection("select a * b, (a + b) / 2, -a - 1.5 * b from x");
+            assertCompiledProjection("select a * i, l / b, f * 2.0 + i, (a - b) * (a + b) / -l from x");
+            assertCompiledProjection("select sum(a * b), avg((a + b) / 2) from x");
+            assertCompiledProjection("select ts, sum(l * a), max(a * b - 1) from x sample by 1m");
+            assertCompiledProjection("select a * abs(b) + cast(i as double) from x");
+        });
+    }
+
+    @Test
+    public void testNonArithmeticFunction() {
+        Function function = DoubleColumn.newInstance(0);
+        Assert.assertSame(function, DoubleExpressionFactory.compile(new BytecodeAssembler(), function));
+    }
+
+    @Test
+    public void testSmoke() {
+        // (a + b) * 0.5 - -i / a
+        Function function = binary(
+                new SubDoubleFunctionFactory(),
+                binary(
+                        new MulDoubleFunctionFactory(),
+                        binary(new AddDoubleFunctionFactory(), DoubleColumn.newInstance(0), DoubleColumn.newInstance(1)),
+                        DoubleConstant.newInstance(0.5)
+                ),
+                binary(
+                        new DivDoubleFunctionFactory(),
+                        unary(new NegDoubleFunctionFactory(), IntColumn.newInstance(2)),
+                        DoubleColumn.newInstance(0)
+                )
+        );
+
+        Function compiled = DoubleExpressionFactory.compile(new BytecodeAssembler(), function);
+        Assert.assertTrue(compiled instanceof CompiledDoubleFunction);
+
+        final double[][] values = {
+                {1.5, 2.5, 3},
+                {-4, 0.25, -7},
+                {0, 1, 5},
+                {Double.NaN, 1, 1},
+                {3, 4, Numbers.INT_NaN},
+        };
+        for (double[] row : values) {
+            TestRecord record = new TestRecord(row);
+            Assert.assertEquals(function.getDouble(record), compiled.getDouble(record), 0.0);
+        }
+    }
+
+    private static Function binary(FunctionFactory factory, Function left, Function right) {
+        ObjList<Function> args = new ObjList<>();
+        args.add(left);
+        args.add(right);
+        return newInstance(factory, args);
+    }
+
+    private static Function newInstance(FunctionFactory factory, ObjList<Function> args) {
+        try {
+            return factory.newInstance(0, args, null, configuration, sqlExecutionContext);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Function unary(FunctionFactory factory, Function arg) {
+        ObjList<Function> args = new ObjList<>();
+        args.add(arg);
+        return newInstance(factory, args);
+    }
+
+    private void assertCompiledProjection(String query) throws Exception {
+        sqlExecutionContext.setJitMode(SqlJitMode.JIT_MODE_DISABLED);
+        try (RecordCursorFactory expectedFactory = select(query)) {
+            sqlExecutionContext.setJitMode(SqlJitMode.JIT_MODE_ENABLED);
+            try (
+                    RecordCursorFactory actualFactory = select(query);
+                    RecordCursor expectedCursor = expectedFactory.getCursor(sqlExecutionContext);
+                    RecordCursor actualCursor = actualFactory.getCursor(sqlExecutionContext)
+            ) {
+                TestUtils.assertEquals(expectedCursor, expectedFactory.getMetadata(), actualCursor, actualFactory.getMetadata(), true);
+            }
+        }
+    }
+
+    private static class TestRecord implements Record {
+        private final double[] values;
+
+        private TestRecord(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public double getDouble(int col) {
+            return values[col];
+        }
+
+        @Override
+        public int getInt(int col) {
+            return (int) values[col];
+        }
+    }
+}
@@ -70,10 +70,16 @@ public class GroupByFunctionCaseTest extends AbstractCairoTest {
                     }
 
                     boolean vectorized = (t >= INT && t <= TIMESTAMP && f > 1) || t == DOUBLE;
+                    // min()/max() on char don't support parallel execution
+                    boolean parallel = !vectorized && t != CHAR;
 
                     planSink.clear();
-                    planSink.put("GroupBy vectorized: ").put(vectorized).put("\n")
-                            .put("  values: [").put(expectedFunction).put("]\n")
+                    if (parallel) {
+                        planSink.put("Async Group By workers: 1\n");
+                    } else {
+                        planSink.put("GroupBy vectorized: ").put(vectorized).put("\n");
+                    }
+                    planSink.put("  values: [").put(expectedFunction).put("]\n")
                             .put("    DataFrame\n" +
                                     "        Row forward scan\n" +
                                     "        Frame forward scan on: test\n");
@@ -122,10 +128,16 @@ public class GroupByFunctionCaseTest extends AbstractCairoTest {
                     }
 
                     boolean vectorized = (t >= INT && t <= TIMESTAMP && f > 1) || t == DOUBLE;
+                    // min()/max() on char don't support parallel execution
+                    boolean parallel = !vectorized && t != CHAR;
 
                     planSink.clear();
-                    planSink.put("GroupBy vectorized: ").put(vectorized).put(vectorized ? " workers: 1" : "").put("\n")
-                            .put("  keys: [key]\n")
+                    if (parallel) {
+                        planSink.put("Async Group By workers: 1\n");
+                    } else {
+                        planSink.put("GroupBy vectorized: ").put(vectorized).put(vectorized ? " workers: 1" : "").put("\n");
+                    }
+                    planSink.put("  keys: [key]\n")
                             .put("  values: [").put(expectedFunction).put("]\n")
                             .put("    DataFrame\n" +
                                     "        Row forward scan\n" +
@@ -168,7 +180,7 @@ public class GroupByFunctionCaseTest extends AbstractCairoTest {
                     sqlSink.put("select key1, key2, ").put(function).put("(val) agg from test group by key1, key2;");
 
                     try {
-                        Assert.assertTrue(Chars.contains(getPlanSink(sqlSink).getSink(), "vectorized: false"));
+                        Assert.assertFalse(Chars.contains(getPlanSink(sqlSink).getSink(), "vectorized: true"));
                     } catch (Exception ae) {
                         throwWithContext(typeName, function, ae);
                     }
@@ -2814,7 +2814,7 @@ public class SampleByTest extends AbstractCairoTest {
                     "select * from (select ts, s, first(v)  from tab sample by 30m fill(prev)) where s = 'B'",
                     "SelectedRecord\n" +
                             "    Filter filter: s='B'\n" +
-                            "        SampleBy\n" +
+                            "        Async Sample By workers: 1\n" +
                             "          fill: prev\n" +
                             "          keys: [s,ts]\n" +
                             "          values: [first(v)]\n" +
@@ -2842,7 +2842,9 @@ public class SampleByTest extends AbstractCairoTest {
             assertPlan(
                     "select * from (select ts, first(v) from tab sample by 30m fill(prev)) where ts > '2022-12-01T01:10:00.000000Z'",
                     "Filter filter: 1669857000000000<ts\n" +
-                            "    SampleByFillPrev\n" +
+                            "    Async Sample By workers: 1\n" +
+                            "      fill: prev\n" +
+                            "      keys: [ts]\n" +
                             "      values: [first(v)]\n" +
                             "        DataFrame\n" +
                             "            Row forward scan\n" +
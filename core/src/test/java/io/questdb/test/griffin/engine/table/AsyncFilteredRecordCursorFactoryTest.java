@@ -40,12 +40,14 @@ import io.questdb.griffin.engine.table.AsyncJitFilteredRecordCursorFactory;
 import io.questdb.griffin.engine.table.FilteredRecordCursorFactory;
 import io.questdb.jit.JitUtil;
 import io.questdb.mp.*;
+import io.questdb.std.Files;
 import io.questdb.std.Misc;
 import io.questdb.std.Rnd;
 import io.questdb.std.str.StringSink;
 import io.questdb.test.AbstractCairoTest;
 import io.questdb.test.griffin.CustomisableRunnable;
 import io.questdb.test.mp.TestWorkerPool;
+import io.questdb.test.std.TestFilesFacadeImpl;
 import io.questdb.test.tools.TestUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -54,6 +56,8 @@ import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ANY;
@@ -451,6 +455,61 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractCairoTest {
         testNoLimit(true, SqlJitMode.JIT_MODE_ENABLED, AsyncJitFilteredRecordCursorFactory.class);
     }
 
+    @Test
+    public void testPageFrameReadAhead() throws Exception {
+        Assume.assumeTrue(Files.POSIX_MADV_WILLNEED > -1);
+        final AtomicInteger readAheadCount = new AtomicInteger();
+        final Set<Long> readAheadAddresses = ConcurrentHashMap.newKeySet();
+        node1.getConfigurationOverrides().setFilesFacade(new TestFilesFacadeImpl() {
+            @Override
+            public void madvise(long address, long len, int advise) {
+                if (advise == Files.POSIX_MADV_WILLNEED) {
+                    Assert.assertEquals(0, address % Files.PAGE_SIZE);
+                    readAheadCount.incrementAndGet();
+                    readAheadAddresses.add(address);
+                }
+                super.madvise(address, len, advise);
+            }
+        });
+
+        withPool((engine, compiler, sqlExecutionContext) -> {
+            sqlExecutionContext.setJitMode(SqlJitMode.JIT_MODE_DISABLED);
+            compiler.compile("create table x as (select rnd_double() a, rnd_str(5,16,2) s, timestamp_sequence(20000000, 100000) t from long_sequence(500000)) timestamp(t) partition by hour", sqlExecutionContext);
+            compiler.compile("alter table x add column b long", sqlExecutionContext);
+            try (RecordCursorFactory f = (compiler.compile("x where a > 0.34", sqlExecutionContext).getRecordCursorFactory())) {
+                Assert.assertEquals(AsyncFilteredRecordCursorFactory.class, f.getClass());
+                PageFrameSequence<?> frameSequence = f.execute(sqlExecutionContext, new SCSequence(), ORDER_ANY);
+                frameSequence.prepareForDispatch();
+
+                int frameCount = 0;
+                while (frameCount < frameSequence.getFrameCount()) {
+                    long cursor = frameSequence.next();
+                    if (cursor < 0) {
+                        continue;
+                    }
+                    frameCount++;
+                    frameSequence.collect(cursor, false);
+                }
+                frameSequence.await();
+
+                // each frame is prefetched once, only the filter column a is advised
+                Assert.assertTrue(frameCount > 1);
+                Assert.assertEquals(frameCount, readAheadCount.get());
+                final PageAddressCache pageAddressCache = frameSequence.getPageAddressCache();
+                for (int i = 0; i < frameCount; i++) {
+                    Assert.assertTrue(readAheadAddresses.contains(pageAddressCache.getPageAddress(i, 0) & -Files.PAGE_SIZE));
+                    // columns s and t are not read by the filter
+                    Assert.assertFalse(readAheadAddresses.contains(pageAddressCache.getIndexPageAddress(i, 1) & -Files.PAGE_SIZE));
+                    Assert.assertFalse(readAheadAddresses.contains(pageAddressCache.getPageAddress(i, 1) & -Files.PAGE_SIZE));
+                    Assert.assertFalse(readAheadAddresses.contains(pageAddressCache.getPageAddress(i, 2) & -Files.PAGE_SIZE));
+                }
+
+                Misc.freeIfCloseable(frameSequence.getSymbolTableSource());
+                frameSequence.clear();
+            }
+        });
+    }
+
     @Test
     public void testPageFrameSequenceJit() throws Exception {
         // Disable the test on ARM64.
@@ -889,9 +948,27 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractCairoTest {
                 @Nullable RecordSink partitionBySink,
                 @Nullable ColumnTypes keyTypes,
                 boolean isOrdered,
-                boolean baseSupportsRandomAccess
+                boolean baseSupportsRandomAccess,
+                int framingMode,
+                long rowsLo,
+                int rowsLoKindPos,
+                long rowsHi,
+                int rowsHiKindPos,
+                int timestampIndex
         ) {
-            sqlExecutionContext.configureAnalyticContext(partitionByRecord, partitionBySink, keyTypes, isOrdered, baseSupportsRandomAccess);
+            sqlExecutionContext.configureAnalyticContext(
+                    partitionByRecord,
+                    partitionBySink,
+                    keyTypes,
+                    isOrdered,
+                    baseSupportsRandomAccess,
+                    framingMode,
+                    rowsLo,
+                    rowsLoKindPos,
+                    rowsHi,
+                    rowsHiKindPos,
+                    timestampIndex
+            );
         }
 
         @Override
@@ -969,11 +1046,31 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractCairoTest {
             return sqlExecutionContext.isColumnPreTouchEnabled();
         }
 
+        @Override
+        public boolean isParallelAsOfJoinEnabled() {
+            return sqlExecutionContext.isParallelAsOfJoinEnabled();
+        }
+
         @Override
         public boolean isParallelFilterEnabled() {
             return sqlExecutionContext.isParallelFilterEnabled();
         }
 
+        @Override
+        public boolean isParallelGroupByEnabled() {
+            return sqlExecutionContext.isParallelGroupByEnabled();
+        }
+
+        @Override
+        public boolean isParallelHashJoinEnabled() {
+            return sqlExecutionContext.isParallelHashJoinEnabled();
+        }
+
+        @Override
+        public boolean isParallelSortEnabled() {
+            return sqlExecutionContext.isParallelSortEnabled();
+        }
+
         @Override
         public boolean isTimestampRequired() {
             return sqlExecutionContext.isTimestampRequired();
@@ -1014,11 +1111,31 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractCairoTest {
             sqlExecutionContext.setNowAndFixClock(now);
         }
 
+        @Override
+        public void setParallelAsOfJoinEnabled(boolean parallelAsOfJoinEnabled) {
+            sqlExecutionContext.setParallelAsOfJoinEnabled(parallelAsOfJoinEnabled);
+        }
+
         @Override
         public void setParallelFilterEnabled(boolean parallelFilterEnabled) {
             sqlExecutionContext.setParallelFilterEnabled(parallelFilterEnabled);
         }
 
+        @Override
+        public void setParallelGroupByEnabled(boolean parallelGroupByEnabled) {
+            sqlExecutionContext.setParallelGroupByEnabled(parallelGroupByEnabled);
+        }
+
+        @Override
+        public void setParallelHashJoinEnabled(boolean parallelHashJoinEnabled) {
+            sqlExecutionContext.setParallelHashJoinEnabled(parallelHashJoinEnabled);
+        }
+
+        @Override
+        public void setParallelSortEnabled(boolean parallelSortEnabled) {
+            sqlExecutionContext.setParallelSortEnabled(parallelSortEnabled);
+        }
+
         @Override
         public void setRandom(Rnd rnd) {
             sqlExecutionContext.setRandom(rnd);
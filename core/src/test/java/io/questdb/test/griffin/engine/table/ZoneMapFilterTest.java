@@ -0,0 +1,223 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.table;
+
+import io.questdb.cairo.SqlJitMode;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.engine.table.AsyncFilteredRecordCursorFactory;
+import io.questdb.griffin.engine.table.AsyncJitFilteredRecordCursorFactory;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.Misc;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.questdb.cairo.sql.DataFrameCursorFactory.ORDER_ANY;
+
+public class ZoneMapFilterTest extends AbstractCairoTest {
+    // 3 daily partitions, 6 frames each, the last partition has 5 full zone map blocks
+    private static final int FRAME_COUNT = 18;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        node1.getConfigurationOverrides().setZoneMapBlockRowCount(256);
+        node1.getConfigurationOverrides().setPageFrameMaxRows(256);
+    }
+
+    @Test
+    public void testColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            ddl("alter table x add column y long");
+            insert("insert into x(x, i, d, f, ts, y) select x + 4320, 0, 0, 0, timestamp_sequence('2020-01-04', 60000000L), x from long_sequence(1440)");
+
+            // the column is null in the first 3 partitions, nulls do not match comparisons
+            assertFrameCount(5, "x where y < 1000");
+            assertFilter("x where y < 1000", "x where y + 0 < 1000");
+            assertFilter("x where y = null", "x where y + 0 = null");
+        });
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        node1.getConfigurationOverrides().setZoneMapEnabled(false);
+        assertMemoryLeak(() -> {
+            createTable();
+            assertFrameCount(FRAME_COUNT, "x where x > 4000");
+        });
+    }
+
+    @Test
+    public void testFilterJitDisabled() throws Exception {
+        sqlExecutionContext.setJitMode(SqlJitMode.JIT_MODE_DISABLED);
+        assertMemoryLeak(this::testFilter0);
+    }
+
+    @Test
+    public void testFilterJitEnabled() throws Exception {
+        sqlExecutionContext.setJitMode(SqlJitMode.JIT_MODE_ENABLED);
+        assertMemoryLeak(this::testFilter0);
+    }
+
+    @Test
+    public void testO3Merge() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            // rewrites the first partition
+            insert("insert into x values (100000, 100000, 100000, 100000, '2020-01-01T12:00:00.500000Z')");
+            assertFrameCount(2, "x where x > 99999");
+            assertFilter("x where x > 99999", "x where x + 0 > 99999");
+            assertFilter("x where d >= 100000", "x where d + 0 >= 100000");
+            assertFilter("x where x < 10", "x where x + 0 < 10");
+        });
+    }
+
+    @Test
+    public void testO3MergeTail() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            // blocks below the merge point are carried over to the new partition version
+            insert("insert into x values (100000, 100000, 100000, 100000, '2020-01-01T23:00:00.500000Z')");
+            assertFrameCount(2, "x where x > 99999");
+            assertFrameCount(2, "x where x < 10");
+            assertFilter("x where x > 99999", "x where x + 0 > 99999");
+            assertFilter("x where x < 10", "x where x + 0 < 10");
+            assertFilter("x where f > 300", "x where f + 0 > 300");
+            // a second merge carries over the blocks written by the first one
+            insert("insert into x values (-1, -1, -1, -1, '2020-01-01T23:30:00.500000Z')");
+            assertFrameCount(2, "x where x < 0");
+            assertFilter("x where x < 0", "x where x + 0 < 0");
+            assertFilter("x where d > 350", "x where d + 0 > 350");
+        });
+    }
+
+    @Test
+    public void testSplitPartition() throws Exception {
+        node1.getConfigurationOverrides().setPartitionO3SplitThreshold(100);
+        assertMemoryLeak(() -> {
+            createTable();
+            // late rows close to the end of the second partition split it
+            insert("insert into x select -x, -x::int, -x / 4.0, (-x / 4.0)::float, timestamp_sequence('2020-01-02T23:00:00.5', 60000000L) from long_sequence(10)");
+            assertFilter("x where x < 0", "x where x + 0 < 0");
+            assertFilter("x where x > 2800", "x where x + 0 > 2800");
+            insert("insert into x select 10000 + x, 0, 0, 0, timestamp_sequence('2020-01-02T23:30:00.5', 60000000L) from long_sequence(10)");
+            assertFilter("x where x > 10000", "x where x + 0 > 10000");
+            assertFilter("x where d < 0", "x where d + 0 < 0");
+        });
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            update("update x set x = -x where ts < '2020-01-02'");
+            assertFilter("x where x < 0", "x where x + 0 < 0");
+            assertFilter("x where x > 1000", "x where x + 0 > 1000");
+            // updated column version gets its zone map on commit
+            assertFrameCount(7, "x where x < 0");
+            assertFrameCount(12, "x where x > 1000");
+        });
+    }
+
+    @Test
+    public void testWalTable() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (x long, i int, d double, f float, ts timestamp) timestamp(ts) partition by DAY WAL");
+            insert("insert into x select x, x::int, x / 4.0, (x / 4.0)::float, timestamp_sequence('2020-01-01', 60000000L) from long_sequence(4320)");
+            insert("insert into x select -x, -x::int, -x / 4.0, (-x / 4.0)::float, timestamp_sequence('2020-01-01T12:00:00.5', 60000000L) from long_sequence(10)");
+            drainWalQueue();
+
+            assertFilter("x where x < 0", "x where x + 0 < 0");
+            assertFilter("x where x > 4000", "x where x + 0 > 4000");
+            assertFilter("x where f <= -2", "x where f + 0 <= -2");
+        });
+    }
+
+    private static void assertFilter(String query, String expectedQuery) throws Exception {
+        assertSqlCursors(expectedQuery, query);
+    }
+
+    private static void assertFrameCount(int expected, String query) throws Exception {
+        try (RecordCursorFactory factory = select(query)) {
+            Assert.assertTrue(factory instanceof AsyncFilteredRecordCursorFactory || factory instanceof AsyncJitFilteredRecordCursorFactory);
+            final PageFrameSequence<?> frameSequence = factory.execute(sqlExecutionContext, new SCSequence(), ORDER_ANY);
+            try {
+                frameSequence.prepareForDispatch();
+                Assert.assertEquals(expected, frameSequence.getFrameCount());
+            } finally {
+                frameSequence.await();
+                Misc.freeIfCloseable(frameSequence.getSymbolTableSource());
+                frameSequence.clear();
+            }
+        }
+    }
+
+    private static void createTable() throws Exception {
+        ddl(
+                "create table x as (select" +
+                        " x," +
+                        " x::int i," +
+                        " x / 4.0 d," +
+                        " (x / 4.0)::float f," +
+                        " timestamp_sequence('2020-01-01', 60000000L) ts" +
+                        " from long_sequence(4320)" +
+                        ") timestamp(ts) partition by DAY"
+        );
+    }
+
+    private void testFilter0() throws Exception {
+        createTable();
+
+        // x is 2881..4320 in the last partition, zone maps cover its first 1280 rows,
+        // so the last frame of the table is never skipped
+        assertFrameCount(2, "x where x > 4000");
+        assertFrameCount(2, "x where 4000 < x");
+        assertFrameCount(2, "x where i > 4000");
+        assertFrameCount(2, "x where d > 1000.0");
+        assertFrameCount(2, "x where f > 1000.0");
+        assertFrameCount(2, "x where x = 42");
+        assertFrameCount(2, "x where x = 42 and d > 0");
+        assertFrameCount(2, "x where x >= 1 and x <= 256");
+        assertFrameCount(FRAME_COUNT, "x where x < -1 or x > 4000");
+        assertFrameCount(FRAME_COUNT, "x where x > 4000 or d < 1");
+        assertFrameCount(1, "x where x < -1");
+        assertFrameCount(1, "x where d < -1.5");
+        assertFrameCount(1, "x where x > 1000 and x < 500");
+
+        assertFilter("x where x > 4000", "x where x + 0 > 4000");
+        assertFilter("x where i >= 4000", "x where i + 0 >= 4000");
+        assertFilter("x where x = 42", "x where x + 0 = 42");
+        assertFilter("x where x <= 257", "x where x + 0 <= 257");
+        assertFilter("x where d = 10.25", "x where d + 0 = 10.25");
+        assertFilter("x where f = 10.25", "x where f + 0 = 10.25");
+        assertFilter("x where f > 1000.1", "x where f + 0 > 1000.1");
+        assertFilter("x where x > 4000.5", "x where x + 0 > 4000.5");
+        assertFilter("x where x < -1", "x where x + 0 < -1");
+        assertFilter("x where d > -1.5 and x < 300", "x where d + 0 > -1.5 and x + 0 < 300");
+    }
+}
@@ -36,17 +36,22 @@ import io.questdb.griffin.engine.ops.AlterOperation;
 import io.questdb.griffin.engine.ops.AlterOperationBuilder;
 import io.questdb.griffin.model.IntervalUtils;
 import io.questdb.mp.Job;
+import io.questdb.mp.Worker;
+import io.questdb.mp.WorkerPool;
 import io.questdb.std.*;
 import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.mp.TestWorkerPool;
 import io.questdb.test.std.TestFilesFacadeImpl;
 import io.questdb.test.tools.TestUtils;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -59,6 +64,8 @@ public class WalTableSqlTest extends AbstractCairoTest {
     @BeforeClass
     public static void setUpStatic() throws Exception {
         walTxnNotificationQueueCapacity = 8;
+        // Zip allocates memory when the class is loaded, do it before memory leak checks
+        Zip.init();
         AbstractCairoTest.setUpStatic();
     }
 
@@ -1238,6 +1245,8 @@ public class WalTableSqlTest extends AbstractCairoTest {
             insert("insert into " + tableName + " values (101, 'a1a1', 'str-1', '2022-02-24T02', 'a2a2')");
 
 
+            // Batching copies in order transactions to LAG, apply them one by one
+            node1.getConfigurationOverrides().setWalApplyBatchEnabled(false);
             node1.getConfigurationOverrides().setWalApplyTableTimeQuota(0);
             runApplyOnce();
 
@@ -1318,6 +1327,261 @@ public class WalTableSqlTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testReadYourWrites() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            ddl("create table " + tableName + " (" +
+                    "x long," +
+                    "sym symbol," +
+                    "ts timestamp" +
+                    ") timestamp(ts) partition by DAY WAL");
+
+            insert("insert into " + tableName + " values (1, 'a', '2022-02-24T01')");
+            insert("insert into " + tableName + " values (2, 'b', '2022-02-24T02')");
+            drainWalQueue();
+
+            // not applied to the table yet
+            insert("insert into " + tableName + " values (3, 'c', '2022-02-24T03')");
+            insert("insert into " + tableName + " values (4, 'a', '2022-02-24T00')");
+            insert("insert into " + tableName + " values (5, null, '2022-02-24T01')");
+
+            assertSql(
+                    "x\tsym\tts\n" +
+                            "1\ta\t2022-02-24T01:00:00.000000Z\n" +
+                            "2\tb\t2022-02-24T02:00:00.000000Z\n",
+                    tableName
+            );
+            assertSql(
+                    "x\tsym\tts\n" +
+                            "4\ta\t2022-02-24T00:00:00.000000Z\n" +
+                            "1\ta\t2022-02-24T01:00:00.000000Z\n" +
+                            "5\t\t2022-02-24T01:00:00.000000Z\n" +
+                            "2\tb\t2022-02-24T02:00:00.000000Z\n" +
+                            "3\tc\t2022-02-24T03:00:00.000000Z\n",
+                    "read_your_writes('" + tableName + "')"
+            );
+            assertSql(
+                    "x\n" +
+                            "4\n" +
+                            "1\n",
+                    "select x from read_your_writes('" + tableName + "') where sym = 'a'"
+            );
+            assertSql(
+                    "x\n" +
+                            "3\n",
+                    "select x from read_your_writes('" + tableName + "') where sym = 'c'"
+            );
+            assertSql(
+                    "sym\tcount\n" +
+                            "\t1\n" +
+                            "a\t2\n" +
+                            "b\t1\n" +
+                            "c\t1\n",
+                    "select sym, count() from read_your_writes('" + tableName + "') order by sym"
+            );
+            assertSql(
+                    "ts\tcount\n" +
+                            "2022-02-24T00:00:00.000000Z\t1\n" +
+                            "2022-02-24T01:00:00.000000Z\t2\n" +
+                            "2022-02-24T02:00:00.000000Z\t1\n" +
+                            "2022-02-24T03:00:00.000000Z\t1\n",
+                    "select ts, count() from read_your_writes('" + tableName + "') sample by 1h"
+            );
+            assertPlan(
+                    "read_your_writes('" + tableName + "')",
+                    "read_your_writes of: " + tableName + "\n"
+            );
+
+            // the tail stops at the structure change
+            ddl("alter table " + tableName + " add column y int");
+            insert("insert into " + tableName + " values (6, 'd', '2022-02-24T04', 6)");
+            assertSql(
+                    "x\n" +
+                            "4\n" +
+                            "1\n" +
+                            "5\n" +
+                            "2\n" +
+                            "3\n",
+                    "select x from read_your_writes('" + tableName + "')"
+            );
+
+            drainWalQueue();
+            assertSql(
+                    "x\tsym\tts\ty\n" +
+                            "4\ta\t2022-02-24T00:00:00.000000Z\tNaN\n" +
+                            "1\ta\t2022-02-24T01:00:00.000000Z\tNaN\n" +
+                            "5\t\t2022-02-24T01:00:00.000000Z\tNaN\n" +
+                            "2\tb\t2022-02-24T02:00:00.000000Z\tNaN\n" +
+                            "3\tc\t2022-02-24T03:00:00.000000Z\tNaN\n" +
+                            "6\td\t2022-02-24T04:00:00.000000Z\t6\n",
+                    "read_your_writes('" + tableName + "')"
+            );
+
+            ddl("create table nw (x long, ts timestamp) timestamp(ts) partition by DAY BYPASS WAL");
+            assertException("read_your_writes('nw')", 17, "nw is not a WAL table");
+            assertException("read_your_writes('nope')", 17, "table does not exist [table=nope]");
+        });
+    }
+
+    @Test
+    public void testReadYourWritesDedup() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            ddl("create table " + tableName + " (" +
+                    "x long," +
+                    "sym symbol," +
+                    "ts timestamp" +
+                    ") timestamp(ts) partition by DAY WAL dedup upsert keys(ts, sym)");
+
+            insert("insert into " + tableName + " values (1, 'a', '2022-02-24T00')");
+            insert("insert into " + tableName + " values (2, 'b', '2022-02-24T01')");
+            drainWalQueue();
+
+            // replaces an applied row and a row of the tail
+            insert("insert into " + tableName + " values (3, 'a', '2022-02-24T00')");
+            insert("insert into " + tableName + " values (4, 'c', '2022-02-24T02')");
+            insert("insert into " + tableName + " values (5, 'c', '2022-02-24T02')");
+
+            final String expected = "x\tsym\tts\n" +
+                    "3\ta\t2022-02-24T00:00:00.000000Z\n" +
+                    "2\tb\t2022-02-24T01:00:00.000000Z\n" +
+                    "5\tc\t2022-02-24T02:00:00.000000Z\n";
+            assertSql(expected, "read_your_writes('" + tableName + "')");
+            assertSql(
+                    "count\n" +
+                            "3\n",
+                    "select count() from read_your_writes('" + tableName + "')"
+            );
+
+            drainWalQueue();
+            assertSql(expected, tableName);
+            assertSql(expected, "read_your_writes('" + tableName + "')");
+        });
+    }
+
+    @Test
+    public void testReadYourWritesPurgedSegment() throws Exception {
+        final AtomicReference<Runnable> onSegmentOpen = new AtomicReference<>();
+        FilesFacade ff = new TestFilesFacadeImpl() {
+            @Override
+            public int openRO(LPSZ name) {
+                if (Chars.endsWith(name, Files.SEPARATOR + "wal1" + Files.SEPARATOR + "0" + Files.SEPARATOR + TableUtils.META_FILE_NAME)) {
+                    final Runnable runnable = onSegmentOpen.getAndSet(null);
+                    if (runnable != null) {
+                        // pretend the segment is purged
+                        runnable.run();
+                        return -1;
+                    }
+                }
+                return super.openRO(name);
+            }
+        };
+
+        assertMemoryLeak(ff, () -> {
+            String tableName = testName.getMethodName();
+            ddl("create table " + tableName + " (" +
+                    "x long," +
+                    "sym symbol," +
+                    "ts timestamp" +
+                    ") timestamp(ts) partition by DAY WAL");
+
+            insert("insert into " + tableName + " values (1, 'a', '2022-02-24T01')");
+            drainWalQueue();
+            insert("insert into " + tableName + " values (3, 'c', '2022-02-24T03')");
+            insert("insert into " + tableName + " values (2, 'b', '2022-02-24T02')");
+
+            // applied and purged while the cursor opens, the rows come from the table
+            onSegmentOpen.set(AbstractCairoTest::drainWalQueue);
+            assertSql(
+                    "x\tsym\tts\n" +
+                            "1\ta\t2022-02-24T01:00:00.000000Z\n" +
+                            "2\tb\t2022-02-24T02:00:00.000000Z\n" +
+                            "3\tc\t2022-02-24T03:00:00.000000Z\n",
+                    "read_your_writes('" + tableName + "')"
+            );
+            Assert.assertNull(onSegmentOpen.get());
+
+            // missing segment that is not applied, the tail stops before it
+            insert("insert into " + tableName + " values (4, 'd', '2022-02-24T04')");
+            onSegmentOpen.set(() -> {
+            });
+            assertSql(
+                    "x\n" +
+                            "1\n" +
+                            "2\n" +
+                            "3\n",
+                    "select x from read_your_writes('" + tableName + "')"
+            );
+            assertSql(
+                    "x\n" +
+                            "1\n" +
+                            "2\n" +
+                            "3\n" +
+                            "4\n",
+                    "select x from read_your_writes('" + tableName + "')"
+            );
+        });
+    }
+
+    @Test
+    public void testRemapSymbolsOfManyColumns() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            ddl("create table " + tableName + " (" +
+                    "x long," +
+                    "s1 symbol," +
+                    "s2 symbol," +
+                    "s3 symbol," +
+                    "ts timestamp" +
+                    ") timestamp(ts) partition by DAY WAL");
+
+            TableToken tableToken = engine.verifyTableName(tableName);
+            try (
+                    WalWriter walWriter1 = engine.getWalWriter(tableToken);
+                    WalWriter walWriter2 = engine.getWalWriter(tableToken)
+            ) {
+                // Both WAL writers start with the same symbol keys,
+                // the keys of the second one have to be remapped in every symbol column
+                for (int i = 0; i < 2; i++) {
+                    TableWriter.Row row = walWriter1.newRow(IntervalUtils.parseFloorPartialTimestamp("2022-02-24T0" + i));
+                    row.putLong(0, i);
+                    row.putSym(1, "a" + i);
+                    row.putSym(2, "b" + i);
+                    row.putSym(3, "c" + i);
+                    row.append();
+
+                    row = walWriter2.newRow(IntervalUtils.parseFloorPartialTimestamp("2022-02-24T0" + (i + 2)));
+                    row.putLong(0, i + 2);
+                    row.putSym(1, "d" + i);
+                    row.putSym(2, i == 0 ? "b0" : "e1");
+                    row.putSym(3, null);
+                    row.append();
+                }
+                walWriter1.commit();
+                walWriter2.commit();
+            }
+
+            drainWalQueue();
+
+            assertSql(
+                    "x\ts1\ts2\ts3\tts\n" +
+                            "0\ta0\tb0\tc0\t2022-02-24T00:00:00.000000Z\n" +
+                            "1\ta1\tb1\tc1\t2022-02-24T01:00:00.000000Z\n" +
+                            "2\td0\tb0\t\t2022-02-24T02:00:00.000000Z\n" +
+                            "3\td1\te1\t\t2022-02-24T03:00:00.000000Z\n",
+                    tableName
+            );
+            assertSql(
+                    "s2\tcount\n" +
+                            "b0\t2\n" +
+                            "b1\t1\n" +
+                            "e1\t1\n",
+                    "select s2, count() from " + tableName + " order by s2"
+            );
+        });
+    }
+
     @Test
     public void testRemoveColumnWalRollsWalSegment() throws Exception {
         assertMemoryLeak(() -> {
@@ -1638,6 +1902,67 @@ public class WalTableSqlTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testSegmentCompression() throws Exception {
+        node1.getConfigurationOverrides().setWalSegmentCompressionEnabled(true);
+        node1.getConfigurationOverrides().setWalSegmentRolloverRowCount(5);
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            ddl("create table " + tableName + " (" +
+                    "x long," +
+                    "s string," +
+                    "sym symbol," +
+                    "ts timestamp" +
+                    ") timestamp(ts) partition by DAY WAL");
+
+            // second insert rolls the segment, the first one is compressed in the background before it is applied
+            insert("insert into " + tableName + " select x, 'v' || x, case when x % 2 = 0 then 'a' else 'b' end, " +
+                    "timestamp_sequence('2022-02-24', 1000000) from long_sequence(12)");
+            insert("insert into " + tableName + " select x + 100, 'v' || (x + 100), case when x % 2 = 0 then 'a' else 'b' end, " +
+                    "timestamp_sequence('2022-02-23T23:59:50', 1000000) from long_sequence(12)");
+
+            final TableToken tableToken = engine.verifyTableName(tableName);
+            final String[] fileNames = {"x.d", "s.d", "s.i", "sym.d", "ts.d"};
+            try (Path path = new Path()) {
+                // writer only queues the closed segment
+                for (String fileName : fileNames) {
+                    path.of(configuration.getRoot()).concat(tableToken).concat(WalUtils.WAL_NAME_BASE).put(1).concat("0").concat(fileName);
+                    Assert.assertTrue(Chars.toString(path), Files.exists(path.$()));
+                }
+
+                try (WalSegmentCompressJob job = new WalSegmentCompressJob(engine)) {
+                    Assert.assertTrue(job.run(0));
+                    Assert.assertFalse(job.run(0));
+                }
+
+                for (String fileName : fileNames) {
+                    path.of(configuration.getRoot()).concat(tableToken).concat(WalUtils.WAL_NAME_BASE).put(1).concat("0").concat(fileName);
+                    Assert.assertFalse(Chars.toString(path), Files.exists(path.$()));
+                    path.put(WalUtils.WAL_COMPRESSED_FILE_SUFFIX);
+                    Assert.assertTrue(Chars.toString(path), Files.exists(path.$()));
+                }
+                path.of(configuration.getRoot()).concat(tableToken).concat(WalUtils.WAL_NAME_BASE).put(1).concat("1").concat("ts.d");
+                Assert.assertTrue(Chars.toString(path), Files.exists(path.$()));
+            }
+
+            drainWalQueue();
+
+            assertSql(
+                    "count\tsum\tmin\tmax\n" +
+                            "24\t1356\t2022-02-23T23:59:50.000000Z\t2022-02-24T00:00:11.000000Z\n",
+                    "select count(), sum(x), min(ts), max(ts) from " + tableName
+            );
+            assertSql(
+                    "x\ts\tsym\tts\n" +
+                            "101\tv101\tb\t2022-02-23T23:59:50.000000Z\n" +
+                            "1\tv1\tb\t2022-02-24T00:00:00.000000Z\n" +
+                            "112\tv112\ta\t2022-02-24T00:00:01.000000Z\n" +
+                            "12\tv12\ta\t2022-02-24T00:00:11.000000Z\n",
+                    "select * from " + tableName + " where x in (1, 12, 101, 112)"
+            );
+        });
+    }
+
     @Test
     public void testVarSizeColumnBeforeInsertCommit() throws Exception {
         assertMemoryLeak(() -> {
@@ -1729,6 +2054,58 @@ public class WalTableSqlTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testWideInOrderApplyFansOutToWorkers() throws Exception {
+        // in-order WAL apply of a wide table must not run column by column on the apply thread,
+        // the partition open and column copy tasks are expected to be picked up by the O3 workers
+        final AtomicBoolean recording = new AtomicBoolean();
+        final Set<String> workerNames = ConcurrentHashMap.newKeySet();
+        FilesFacade ff = new TestFilesFacadeImpl() {
+            @Override
+            public long mmap(int fd, long len, long offset, int flags, int memoryTag) {
+                if (recording.get() && Thread.currentThread() instanceof Worker) {
+                    workerNames.add(Thread.currentThread().getName());
+                }
+                return super.mmap(fd, len, offset, flags, memoryTag);
+            }
+        };
+
+        assertMemoryLeak(ff, () -> {
+            final int columnCount = 200;
+            String tableName = testName.getMethodName();
+            StringBuilder ddl = new StringBuilder("create table ").append(tableName).append(" (");
+            StringBuilder insert = new StringBuilder("insert into ").append(tableName).append(" select ");
+            for (int i = 0; i < columnCount; i++) {
+                ddl.append('c').append(i).append(" long, ");
+                insert.append("x + ").append(i).append(", ");
+            }
+            ddl.append("ts timestamp) timestamp(ts) partition by DAY WAL");
+            ddl(ddl.toString());
+
+            WorkerPool pool = new TestWorkerPool(4, metrics);
+            O3Utils.setupWorkerPool(pool, engine, null);
+            pool.start(LOG);
+            try {
+                // the first transaction creates the partition, the second one appends to it
+                insert(insert + "timestamp_sequence('2022-02-24', 1000000L) from long_sequence(100)");
+                insert(insert + "timestamp_sequence('2022-02-24T01', 1000000L) from long_sequence(100)");
+
+                recording.set(true);
+                drainWalQueue();
+                recording.set(false);
+            } finally {
+                pool.halt();
+            }
+
+            Assert.assertTrue("in-order apply did not fan out, workers: " + workerNames, workerNames.size() > 1);
+            assertSql(
+                    "count\tsum\tsum1\n" +
+                            "200\t10100\t49900\n",
+                    "select count(), sum(c0), sum(c" + (columnCount - 1) + ") from " + tableName
+            );
+        });
+    }
+
     private void checkTableFilesExist(TableToken sysTableName, String partition, String fileName, boolean value) {
         Path sysPath = Path.PATH.get().of(configuration.getRoot()).concat(sysTableName).concat(TXN_FILE_NAME);
         Assert.assertEquals(Chars.toString(sysPath), value, Files.exists(sysPath.$()));
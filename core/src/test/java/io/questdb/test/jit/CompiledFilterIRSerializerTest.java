@@ -37,12 +37,14 @@ import io.questdb.cairo.vm.api.MemoryCARW;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.model.ExpressionNode;
 import io.questdb.jit.CompiledFilterIRSerializer;
+import io.questdb.std.LongList;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Numbers;
 import io.questdb.std.ObjList;
 import io.questdb.test.CreateTableTestUtils;
 import io.questdb.test.cairo.TableModel;
 import io.questdb.test.griffin.BaseFunctionFactoryTest;
+import io.questdb.test.tools.TestUtils;
 import org.junit.*;
 
 import java.util.HashMap;
@@ -285,6 +287,90 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         }
     }
 
+    @Test
+    public void testInListBindVariables() throws Exception {
+        bindVariableService.clear();
+        bindVariableService.setInt("a", 1);
+        bindVariableService.setInt("b", 2);
+
+        serialize("anint in (:a, :b)");
+        assertIR("(i32 :0)(i32 anint)(=)(i32 :1)(i32 anint)(=)(||)(ret)");
+
+        Assert.assertEquals(2, bindVarFunctions.size());
+    }
+
+    @Test
+    public void testInListCharConstants() throws Exception {
+        serialize("achar in ('a', 'b')");
+        assertIR("(i16 97L)(i16 achar)(=)(i16 98L)(i16 achar)(=)(||)(ret)");
+    }
+
+    @Test
+    public void testInListHashSet() throws Exception {
+        final StringBuilder sb = new StringBuilder("along in (-1");
+        final StringBuilder expectedIR = new StringBuilder("(i64 along)(in_set -1");
+        for (int i = 0; i < 16; i++) {
+            sb.append(", ").append(i);
+            expectedIR.append(',').append(i);
+        }
+        final int options = serialize(sb.append(", 3, null)"), false, false, false);
+        assertIR(expectedIR.insert(expectedIR.indexOf("-1"), Numbers.LONG_NaN + ",").append(")(ret)").toString());
+        assertOptionsHint(options);
+    }
+
+    @Test
+    public void testInListHashSetNonConstantValues() throws Exception {
+        bindVariableService.clear();
+        bindVariableService.setStr("a", KNOWN_SYMBOL_2);
+
+        final StringBuilder sb = new StringBuilder("asymbol in (:a, '" + KNOWN_SYMBOL_1 + "', '" + UNKNOWN_SYMBOL + "', null");
+        for (int i = 0; i < 16; i++) {
+            sb.append(", '").append(KNOWN_SYMBOL_1).append('\'');
+        }
+        serialize(sb.append(')'));
+        assertIR("(i32 asymbol)(in_set -2147483648,0)(i32 :0)(i32 asymbol)(=)(||)(i32 :1)(i32 asymbol)(=)(||)(ret)");
+
+        Assert.assertEquals(2, bindVarFunctions.size());
+        Assert.assertEquals(UNKNOWN_SYMBOL, bindVarFunctions.get(0).getStr(null));
+    }
+
+    @Test
+    public void testInListHashSetTooManyNonConstantValues() throws Exception {
+        bindVariableService.clear();
+        final StringBuilder sb = new StringBuilder("anint in (0");
+        for (int i = 0; i < 17; i++) {
+            bindVariableService.setInt(i, i);
+            sb.append(", $").append(i + 1);
+        }
+        try {
+            serialize(sb.append(')'));
+            Assert.fail();
+        } catch (SqlException e) {
+            TestUtils.assertContains(e.getFlyweightMessage(), "IN list has too many non-constant values [size=17, max=16]");
+        }
+    }
+
+    @Test
+    public void testInListNegated() throws Exception {
+        serialize("not along in (1, -2) and abyte = 0");
+        assertIR("(i8 0L)(i8 abyte)(=)(i64 1L)(i64 along)(=)(i64 -2L)(i64 along)(=)(||)(!)(&&)(ret)");
+    }
+
+    @Test
+    public void testInListNumericConstants() throws Exception {
+        serialize("anint in (1, 2, 3) or ashort in (-1)");
+        assertIR("(i16 -1L)(i16 ashort)(=)(i32 1L)(i32 anint)(=)(i32 2L)(i32 anint)(=)(||)(i32 3L)(i32 anint)(=)(||)(||)(ret)");
+    }
+
+    @Test
+    public void testInListSymbolConstants() throws Exception {
+        serialize("asymbol in ('" + KNOWN_SYMBOL_1 + "', '" + UNKNOWN_SYMBOL + "', null)");
+        assertIR("(i32 0L)(i32 asymbol)(=)(i32 :0)(i32 asymbol)(=)(||)(i32 -2147483648L)(i32 asymbol)(=)(||)(ret)");
+
+        Assert.assertEquals(1, bindVarFunctions.size());
+        Assert.assertEquals(UNKNOWN_SYMBOL, bindVarFunctions.get(0).getStr(null));
+    }
+
     @Test(expected = SqlException.class)
     public void testInvalidUuidConstant() throws Exception {
         serialize("auuid = '111111110111101111011110111111111111'");
@@ -486,6 +572,19 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         assertIR("(i8 1L)(i8 aboolean)(=)(!)(i8 1L)(i8 aboolean)(=)(||)(ret)");
     }
 
+    @Test
+    public void testStringLike() throws Exception {
+        final int options = serialize("astring like 'abc%' and astring like '%xyz' or astring like 'a.b'", false, false, false);
+        assertIR("(like astring 'a.b')(like astring '%xyz')(like astring 'abc%')(&&)(||)(ret)");
+        assertOptionsHint(options);
+    }
+
+    @Test
+    public void testStringLikeAndInList() throws Exception {
+        serialize("asymbol in ('" + KNOWN_SYMBOL_1 + "', '" + UNKNOWN_SYMBOL + "') and astring like 'X%'");
+        assertIR("(like astring 'X%')(i32 0L)(i32 asymbol)(=)(i32 :0)(i32 asymbol)(=)(||)(&&)(ret)");
+    }
+
     @Test
     public void testUnknownSymbolConstant() throws Exception {
         serialize("asymbol = '" + UNKNOWN_SYMBOL + "'");
@@ -578,11 +677,41 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
         serialize("ageolong = #sp052w92p1p8889");
     }
 
+    @Test(expected = SqlException.class)
+    public void testUnsupportedInListDoubleColumn() throws Exception {
+        serialize("adouble in (1.5, 2.5)");
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedInListNonConstantValue() throws Exception {
+        serialize("anint in (1, abs(ashort))");
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedInListTimestampColumn() throws Exception {
+        serialize("atimestamp in ('2020-01-01')");
+    }
+
     @Test(expected = SqlException.class)
     public void testUnsupportedInvalidGeoHashConstant() throws Exception {
         serialize("ageolong = ##11211");
     }
 
+    @Test(expected = SqlException.class)
+    public void testUnsupportedLikeContainsPattern() throws Exception {
+        serialize("astring like '%abc%'");
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedLikeSymbolColumn() throws Exception {
+        serialize("asymbol like 'abc%'");
+    }
+
+    @Test(expected = SqlException.class)
+    public void testUnsupportedLikeWildcardPattern() throws Exception {
+        serialize("astring like 'a_c%'");
+    }
+
     @Test(expected = SqlException.class)
     public void testUnsupportedLong256Constant() throws Exception {
         serialize("along = 0x123");
@@ -774,6 +903,14 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
                         }
                     }
                     break;
+                    // Hash set lookup
+                    case IN_SET:
+                        appendInSet();
+                        break;
+                    // String match
+                    case STR_MATCH:
+                        appendStrMatch(type);
+                        break;
                     // Operators
                     default:
                         appendOperator(opcode);
@@ -813,6 +950,31 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
             sb.append("D)");
         }
 
+        private void appendInSet() {
+            final int capacity = (int) irMem.getLong(offset);
+            offset += Long.BYTES;
+            final long emptySlot = irMem.getLong(offset);
+            offset += Long.BYTES;
+            final LongList values = new LongList();
+            for (int i = 0; i < capacity; i++) {
+                final long value = irMem.getLong(offset);
+                offset += Long.BYTES;
+                if (value != emptySlot) {
+                    values.add(value);
+                }
+            }
+            skipPadding((long) capacity * Long.BYTES);
+            values.sort();
+            sb.append("(in_set ");
+            for (int i = 0, n = values.size(); i < n; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(values.getQuick(i));
+            }
+            sb.append(")");
+        }
+
         private void appendLongConst(int type) {
             long value = irMem.getLong(offset);
             offset += 2 * Long.BYTES;
@@ -845,6 +1007,28 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
             sb.append(")");
         }
 
+        private void appendStrMatch(int kind) {
+            final int columnIndex = (int) irMem.getLong(offset);
+            offset += Long.BYTES;
+            final int len = (int) irMem.getLong(offset);
+            offset += Long.BYTES;
+            sb.append("(like ");
+            sb.append(metadata.getColumnName(columnIndex));
+            sb.append(" '");
+            if (kind == STR_MATCH_SUFFIX) {
+                sb.append('%');
+            }
+            for (int i = 0; i < len; i++) {
+                sb.append(irMem.getChar(offset));
+                offset += Character.BYTES;
+            }
+            skipPadding((long) len * Character.BYTES);
+            if (kind == STR_MATCH_PREFIX) {
+                sb.append('%');
+            }
+            sb.append("')");
+        }
+
         private String operatorName(int operator) {
             switch (operator) {
                 case NEG:
@@ -882,6 +1066,14 @@ public class CompiledFilterIRSerializerTest extends BaseFunctionFactoryTest {
             }
         }
 
+        private void skipPadding(long dataSize) {
+            final long instructionSize = 2 * Integer.BYTES + 2 * Long.BYTES;
+            final long tail = dataSize % instructionSize;
+            if (tail > 0) {
+                offset += instructionSize - tail;
+            }
+        }
+
         private String typeName(int type) {
             switch (type) {
                 case I1_TYPE:
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2023 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.std;
+
+import io.questdb.std.Crc32c;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Rnd;
+import io.questdb.std.Unsafe;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.zip.CRC32C;
+
+public class Crc32cTest {
+
+    @Test
+    public void testSameAsJdk() {
+        final Rnd rnd = new Rnd();
+        final Crc32c crc = new Crc32c();
+        // lengths around the size of the chunk the memory is copied in
+        for (int len : new int[]{0, 1, 7, 16 * 1024 - 1, 16 * 1024, 16 * 1024 + 1, 100_000}) {
+            final byte[] bytes = new byte[len];
+            final long address = Unsafe.malloc(len + 1, MemoryTag.NATIVE_DEFAULT);
+            try {
+                for (int i = 0; i < len; i++) {
+                    bytes[i] = rnd.nextByte();
+                    Unsafe.getUnsafe().putByte(address + i, bytes[i]);
+                }
+                final CRC32C expected = new CRC32C();
+                expected.update(bytes);
+
+                crc.reset();
+                crc.update(address, len);
+                Assert.assertEquals((int) expected.getValue(), crc.getValue());
+
+                // checksum is the same when the memory is passed in parts
+                crc.reset();
+                crc.update(address, len / 3);
+                crc.update(address + len / 3, len - len / 3);
+                Assert.assertEquals((int) expected.getValue(), crc.getValue());
+            } finally {
+                Unsafe.free(address, len + 1, MemoryTag.NATIVE_DEFAULT);
+            }
+        }
+    }
+}